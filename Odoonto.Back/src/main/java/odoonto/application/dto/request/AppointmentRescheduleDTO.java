@@ -0,0 +1,57 @@
+package odoonto.application.dto.request;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO para reprogramar una cita
+ */
+public class AppointmentRescheduleDTO {
+    private LocalDate date;
+    private LocalTime time;
+    private String doctorId; // Opcional: otro doctor atenderá la cita
+    private String reason;
+    
+    // Constructores
+    public AppointmentRescheduleDTO() {}
+    
+    public AppointmentRescheduleDTO(LocalDate date, LocalTime time, String doctorId, String reason) {
+        this.date = date;
+        this.time = time;
+        this.doctorId = doctorId;
+        this.reason = reason;
+    }
+    
+    // Getters y setters
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public LocalTime getTime() {
+        return time;
+    }
+    
+    public void setTime(LocalTime time) {
+        this.time = time;
+    }
+    
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(String doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+    
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
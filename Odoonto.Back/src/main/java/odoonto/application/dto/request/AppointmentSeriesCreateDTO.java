@@ -0,0 +1,118 @@
+package odoonto.application.dto.request;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO para la creación de una serie de citas periódicas; la repetición sigue
+ * la forma de una RRULE (frecuencia, intervalo y número de citas o fecha final)
+ */
+public class AppointmentSeriesCreateDTO {
+    private String doctorId;
+    private String patientId;
+    private LocalDate date; // Fecha de la primera cita
+    private LocalTime time;
+    private Integer duration; // Minutos por cita; por defecto 30
+    private String frequency; // DAILY, WEEKLY o MONTHLY
+    private Integer interval; // Opcional: cada cuántos periodos, por defecto 1
+    private Integer count; // Número de citas; opcional si se indica until
+    private LocalDate until; // Fecha de la última cita posible; opcional si se indica count
+    private String notes;
+    
+    // Constructores
+    public AppointmentSeriesCreateDTO() {}
+    
+    public AppointmentSeriesCreateDTO(String doctorId, String patientId, LocalDate date, LocalTime time, Integer duration, String frequency, Integer interval, Integer count, LocalDate until, String notes) {
+        this.doctorId = doctorId;
+        this.patientId = patientId;
+        this.date = date;
+        this.time = time;
+        this.duration = duration;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.notes = notes;
+    }
+    
+    // Getters y setters
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(String doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public String getPatientId() {
+        return patientId;
+    }
+    
+    public void setPatientId(String patientId) {
+        this.patientId = patientId;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public LocalTime getTime() {
+        return time;
+    }
+    
+    public void setTime(LocalTime time) {
+        this.time = time;
+    }
+    
+    public Integer getDuration() {
+        return duration;
+    }
+    
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+    
+    public String getFrequency() {
+        return frequency;
+    }
+    
+    public void setFrequency(String frequency) {
+        this.frequency = frequency;
+    }
+    
+    public Integer getInterval() {
+        return interval;
+    }
+    
+    public void setInterval(Integer interval) {
+        this.interval = interval;
+    }
+    
+    public Integer getCount() {
+        return count;
+    }
+    
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+    
+    public LocalDate getUntil() {
+        return until;
+    }
+    
+    public void setUntil(LocalDate until) {
+        this.until = until;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
@@ -0,0 +1,56 @@
+package odoonto.application.dto.request;
+
+import java.time.LocalTime;
+
+/**
+ * DTO con el horario de un doctor para un día de la semana
+ */
+public class DayScheduleDTO {
+    private String dayOfWeek; // MONDAY ... SUNDAY
+    private boolean available;
+    private LocalTime startTime; // Obligatoria si available
+    private LocalTime endTime; // Obligatoria si available
+    
+    // Constructores
+    public DayScheduleDTO() {}
+    
+    public DayScheduleDTO(String dayOfWeek, boolean available, LocalTime startTime, LocalTime endTime) {
+        this.dayOfWeek = dayOfWeek;
+        this.available = available;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+    
+    // Getters y setters
+    public String getDayOfWeek() {
+        return dayOfWeek;
+    }
+    
+    public void setDayOfWeek(String dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+    
+    public boolean isAvailable() {
+        return available;
+    }
+    
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+    
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+}
@@ -0,0 +1,47 @@
+package odoonto.application.dto.request;
+
+import java.time.LocalDate;
+
+/**
+ * DTO para reprogramar todas las citas de un doctor en un día
+ * (por ejemplo, cuando el doctor no puede acudir)
+ */
+public class DoctorDayRescheduleDTO {
+    private String targetDoctorId; // Opcional: doctor que asume las citas
+    private LocalDate targetDate; // Opcional: día al que se mueven las citas
+    private String reason;
+    
+    // Constructores
+    public DoctorDayRescheduleDTO() {}
+    
+    public DoctorDayRescheduleDTO(String targetDoctorId, LocalDate targetDate, String reason) {
+        this.targetDoctorId = targetDoctorId;
+        this.targetDate = targetDate;
+        this.reason = reason;
+    }
+    
+    // Getters y setters
+    public String getTargetDoctorId() {
+        return targetDoctorId;
+    }
+    
+    public void setTargetDoctorId(String targetDoctorId) {
+        this.targetDoctorId = targetDoctorId;
+    }
+    
+    public LocalDate getTargetDate() {
+        return targetDate;
+    }
+    
+    public void setTargetDate(LocalDate targetDate) {
+        this.targetDate = targetDate;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+    
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,65 @@
+package odoonto.application.dto.request;
+
+/**
+ * Tratamiento de un plan a programar; los campos opcionales toman los valores
+ * habituales del tipo de tratamiento
+ */
+public class PlannedTreatmentDTO {
+    private String treatmentType; // Nombre del enum o nombre legible
+    private Integer sessions; // Opcional: número de sesiones
+    private Integer durationSlots; // Opcional: slots de 30 minutos por sesión
+    private Integer minDaysBetweenSessions; // Opcional: días mínimos entre sesiones
+    private Integer minDaysAfterPrevious; // Opcional: días mínimos tras el tratamiento anterior
+    
+    // Constructores
+    public PlannedTreatmentDTO() {}
+    
+    public PlannedTreatmentDTO(String treatmentType, Integer sessions, Integer durationSlots, Integer minDaysBetweenSessions, Integer minDaysAfterPrevious) {
+        this.treatmentType = treatmentType;
+        this.sessions = sessions;
+        this.durationSlots = durationSlots;
+        this.minDaysBetweenSessions = minDaysBetweenSessions;
+        this.minDaysAfterPrevious = minDaysAfterPrevious;
+    }
+    
+    // Getters y setters
+    public String getTreatmentType() {
+        return treatmentType;
+    }
+    
+    public void setTreatmentType(String treatmentType) {
+        this.treatmentType = treatmentType;
+    }
+    
+    public Integer getSessions() {
+        return sessions;
+    }
+    
+    public void setSessions(Integer sessions) {
+        this.sessions = sessions;
+    }
+    
+    public Integer getDurationSlots() {
+        return durationSlots;
+    }
+    
+    public void setDurationSlots(Integer durationSlots) {
+        this.durationSlots = durationSlots;
+    }
+    
+    public Integer getMinDaysBetweenSessions() {
+        return minDaysBetweenSessions;
+    }
+    
+    public void setMinDaysBetweenSessions(Integer minDaysBetweenSessions) {
+        this.minDaysBetweenSessions = minDaysBetweenSessions;
+    }
+    
+    public Integer getMinDaysAfterPrevious() {
+        return minDaysAfterPrevious;
+    }
+    
+    public void setMinDaysAfterPrevious(Integer minDaysAfterPrevious) {
+        this.minDaysAfterPrevious = minDaysAfterPrevious;
+    }
+}
@@ -0,0 +1,68 @@
+package odoonto.application.dto.request;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * DTO para registrar un día libre u horario especial de un doctor,
+ * en una fecha o en un rango de fechas
+ */
+public class ScheduleExceptionDTO {
+    private LocalDate date;
+    private LocalDate endDate; // Opcional: último día del rango
+    private LocalTime startTime; // Opcional: sin horas el doctor no atiende
+    private LocalTime endTime;
+    private String reason;
+    
+    // Constructores
+    public ScheduleExceptionDTO() {}
+    
+    public ScheduleExceptionDTO(LocalDate date, LocalDate endDate, LocalTime startTime, LocalTime endTime, String reason) {
+        this.date = date;
+        this.endDate = endDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.reason = reason;
+    }
+    
+    // Getters y setters
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public String getReason() {
+        return reason;
+    }
+    
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
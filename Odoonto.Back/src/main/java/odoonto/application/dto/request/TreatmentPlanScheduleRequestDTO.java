@@ -0,0 +1,57 @@
+package odoonto.application.dto.request;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO para calcular la programación más temprana de un plan de tratamiento
+ */
+public class TreatmentPlanScheduleRequestDTO {
+    private String patientId;
+    private LocalDate startDate; // Opcional: primer día a considerar, por defecto mañana
+    private Integer horizonDays; // Opcional: días en los que buscar huecos
+    private List<PlannedTreatmentDTO> treatments; // En el orden en que deben realizarse
+    
+    // Constructores
+    public TreatmentPlanScheduleRequestDTO() {}
+    
+    public TreatmentPlanScheduleRequestDTO(String patientId, LocalDate startDate, Integer horizonDays, List<PlannedTreatmentDTO> treatments) {
+        this.patientId = patientId;
+        this.startDate = startDate;
+        this.horizonDays = horizonDays;
+        this.treatments = treatments;
+    }
+    
+    // Getters y setters
+    public String getPatientId() {
+        return patientId;
+    }
+    
+    public void setPatientId(String patientId) {
+        this.patientId = patientId;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    
+    public Integer getHorizonDays() {
+        return horizonDays;
+    }
+    
+    public void setHorizonDays(Integer horizonDays) {
+        this.horizonDays = horizonDays;
+    }
+    
+    public List<PlannedTreatmentDTO> getTreatments() {
+        return treatments;
+    }
+    
+    public void setTreatments(List<PlannedTreatmentDTO> treatments) {
+        this.treatments = treatments;
+    }
+}
@@ -0,0 +1,118 @@
+package odoonto.application.dto.request;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * DTO para apuntar a un paciente en la lista de espera
+ */
+public class WaitlistEntryCreateDTO {
+    private String patientId;
+    private String doctorId; // Opcional si se indica especialidad
+    private String specialty; // Opcional si se indica doctor
+    private LocalDate fromDate; // Primera fecha aceptable; por defecto hoy
+    private LocalDate toDate; // Última fecha aceptable
+    private List<String> daysOfWeek; // Opcional: MONDAY, TUESDAY...; vacío para cualquier día
+    private LocalTime startTime; // Hora más temprana de inicio
+    private LocalTime endTime; // Hora más tardía de fin
+    private Integer duration; // Minutos; por defecto 30
+    private boolean urgent;
+    
+    // Constructores
+    public WaitlistEntryCreateDTO() {}
+    
+    public WaitlistEntryCreateDTO(String patientId, String doctorId, String specialty, LocalDate fromDate, LocalDate toDate, List<String> daysOfWeek, LocalTime startTime, LocalTime endTime, Integer duration, boolean urgent) {
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.specialty = specialty;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.daysOfWeek = daysOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.duration = duration;
+        this.urgent = urgent;
+    }
+    
+    // Getters y setters
+    public String getPatientId() {
+        return patientId;
+    }
+    
+    public void setPatientId(String patientId) {
+        this.patientId = patientId;
+    }
+    
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(String doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public String getSpecialty() {
+        return specialty;
+    }
+    
+    public void setSpecialty(String specialty) {
+        this.specialty = specialty;
+    }
+    
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+    
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+    
+    public LocalDate getToDate() {
+        return toDate;
+    }
+    
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+    
+    public List<String> getDaysOfWeek() {
+        return daysOfWeek;
+    }
+    
+    public void setDaysOfWeek(List<String> daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+    
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public Integer getDuration() {
+        return duration;
+    }
+    
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+    
+    public boolean isUrgent() {
+        return urgent;
+    }
+    
+    public void setUrgent(boolean urgent) {
+        this.urgent = urgent;
+    }
+}
@@ -0,0 +1,65 @@
+package odoonto.application.dto.response;
+
+/**
+ * DTO de respuesta para un cambio de cita enviado en tiempo real
+ */
+public class AppointmentChangeDTO {
+    private long sequence;
+    private String changeType; // CREATED, UPDATED, CONFIRMED, CANCELLED, DELETED
+    private String appointmentId;
+    private String occurredAt; // formato ISO8601: "2023-05-12T14:30:00Z"
+    private AppointmentDTO appointment; // nulo en los borrados
+    
+    // Constructores
+    public AppointmentChangeDTO() {}
+    
+    public AppointmentChangeDTO(long sequence, String changeType, String appointmentId,
+                                String occurredAt, AppointmentDTO appointment) {
+        this.sequence = sequence;
+        this.changeType = changeType;
+        this.appointmentId = appointmentId;
+        this.occurredAt = occurredAt;
+        this.appointment = appointment;
+    }
+    
+    // Getters y setters
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+    
+    public String getChangeType() {
+        return changeType;
+    }
+    
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+    
+    public String getAppointmentId() {
+        return appointmentId;
+    }
+    
+    public void setAppointmentId(String appointmentId) {
+        this.appointmentId = appointmentId;
+    }
+    
+    public String getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(String occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+    
+    public AppointmentDTO getAppointment() {
+        return appointment;
+    }
+    
+    public void setAppointment(AppointmentDTO appointment) {
+        this.appointment = appointment;
+    }
+}
@@ -0,0 +1,116 @@
+package odoonto.application.dto.response;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta para una serie de citas periódicas
+ */
+public class AppointmentSeriesDTO {
+    private String id;
+    private String patientId;
+    private String doctorId;
+    private String firstStart; // formato ISO8601
+    private int durationSlots;
+    private String rule; // Regla en formato RRULE
+    private int occurrenceCount; // Citas vigentes de la serie
+    private String lastEnd; // formato ISO8601; null si no quedan citas
+    private List<String> cancelledDates; // Fechas anuladas (yyyy-MM-dd)
+    private String notes;
+    
+    // Constructores
+    public AppointmentSeriesDTO() {}
+    
+    public AppointmentSeriesDTO(String id, String patientId, String doctorId, String firstStart, int durationSlots, String rule, int occurrenceCount, String lastEnd, List<String> cancelledDates, String notes) {
+        this.id = id;
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.firstStart = firstStart;
+        this.durationSlots = durationSlots;
+        this.rule = rule;
+        this.occurrenceCount = occurrenceCount;
+        this.lastEnd = lastEnd;
+        this.cancelledDates = cancelledDates;
+        this.notes = notes;
+    }
+    
+    // Getters y setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getPatientId() {
+        return patientId;
+    }
+    
+    public void setPatientId(String patientId) {
+        this.patientId = patientId;
+    }
+    
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(String doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public String getFirstStart() {
+        return firstStart;
+    }
+    
+    public void setFirstStart(String firstStart) {
+        this.firstStart = firstStart;
+    }
+    
+    public int getDurationSlots() {
+        return durationSlots;
+    }
+    
+    public void setDurationSlots(int durationSlots) {
+        this.durationSlots = durationSlots;
+    }
+    
+    public String getRule() {
+        return rule;
+    }
+    
+    public void setRule(String rule) {
+        this.rule = rule;
+    }
+    
+    public int getOccurrenceCount() {
+        return occurrenceCount;
+    }
+    
+    public void setOccurrenceCount(int occurrenceCount) {
+        this.occurrenceCount = occurrenceCount;
+    }
+    
+    public String getLastEnd() {
+        return lastEnd;
+    }
+    
+    public void setLastEnd(String lastEnd) {
+        this.lastEnd = lastEnd;
+    }
+    
+    public List<String> getCancelledDates() {
+        return cancelledDates;
+    }
+    
+    public void setCancelledDates(List<String> cancelledDates) {
+        this.cancelledDates = cancelledDates;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
@@ -0,0 +1,138 @@
+package odoonto.application.dto.response;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO de respuesta con el número de citas por estado en un rango de días
+ */
+public class AppointmentStatusCountsDTO {
+    private String from;
+    private String to;
+    private String doctorId; // null si incluye a todos los doctores
+    private Map<String, Long> byStatus; // clave: nombre del estado
+    private long bookedSlots;
+    private List<DayCountsDTO> days;
+    
+    // Constructores
+    public AppointmentStatusCountsDTO() {
+        this.byStatus = new LinkedHashMap<>();
+        this.days = new ArrayList<>();
+    }
+    
+    public AppointmentStatusCountsDTO(String from, String to, String doctorId, Map<String, Long> byStatus,
+                                      long bookedSlots, List<DayCountsDTO> days) {
+        this.from = from;
+        this.to = to;
+        this.doctorId = doctorId;
+        this.byStatus = byStatus != null ? byStatus : new LinkedHashMap<>();
+        this.bookedSlots = bookedSlots;
+        this.days = days != null ? days : new ArrayList<>();
+    }
+    
+    // Getters y setters
+    public String getFrom() {
+        return from;
+    }
+    
+    public void setFrom(String from) {
+        this.from = from;
+    }
+    
+    public String getTo() {
+        return to;
+    }
+    
+    public void setTo(String to) {
+        this.to = to;
+    }
+    
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(String doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+    
+    public void setByStatus(Map<String, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+    
+    public long getBookedSlots() {
+        return bookedSlots;
+    }
+    
+    public void setBookedSlots(long bookedSlots) {
+        this.bookedSlots = bookedSlots;
+    }
+    
+    public List<DayCountsDTO> getDays() {
+        return days;
+    }
+    
+    public void setDays(List<DayCountsDTO> days) {
+        this.days = days;
+    }
+    
+    /**
+     * Recuento de un doctor en un día
+     */
+    public static class DayCountsDTO {
+        private String date;
+        private String doctorId;
+        private Map<String, Long> byStatus;
+        private long bookedSlots;
+        
+        // Constructores
+        public DayCountsDTO() {
+            this.byStatus = new LinkedHashMap<>();
+        }
+        
+        public DayCountsDTO(String date, String doctorId, Map<String, Long> byStatus, long bookedSlots) {
+            this.date = date;
+            this.doctorId = doctorId;
+            this.byStatus = byStatus != null ? byStatus : new LinkedHashMap<>();
+            this.bookedSlots = bookedSlots;
+        }
+        
+        // Getters y setters
+        public String getDate() {
+            return date;
+        }
+        
+        public void setDate(String date) {
+            this.date = date;
+        }
+        
+        public String getDoctorId() {
+            return doctorId;
+        }
+        
+        public void setDoctorId(String doctorId) {
+            this.doctorId = doctorId;
+        }
+        
+        public Map<String, Long> getByStatus() {
+            return byStatus;
+        }
+        
+        public void setByStatus(Map<String, Long> byStatus) {
+            this.byStatus = byStatus;
+        }
+        
+        public long getBookedSlots() {
+            return bookedSlots;
+        }
+        
+        public void setBookedSlots(long bookedSlots) {
+            this.bookedSlots = bookedSlots;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package odoonto.application.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de respuesta para la vista de calendario de la clínica.
+ * Agrupa las citas de la ventana solicitada por doctor, día y franja de 30 minutos.
+ */
+public class CalendarDTO {
+    private String view; // "day", "week" o "month"
+    private String from; // fecha ISO inclusive: "2025-05-12"
+    private String to; // fecha ISO inclusive: "2025-05-18"
+    private int slotMinutes;
+    private List<CalendarDoctorDTO> doctors = new ArrayList<>();
+    
+    // Constructores
+    public CalendarDTO() {}
+    
+    public CalendarDTO(String view, String from, String to, int slotMinutes) {
+        this.view = view;
+        this.from = from;
+        this.to = to;
+        this.slotMinutes = slotMinutes;
+    }
+    
+    // Getters y setters
+    public String getView() {
+        return view;
+    }
+    
+    public void setView(String view) {
+        this.view = view;
+    }
+    
+    public String getFrom() {
+        return from;
+    }
+    
+    public void setFrom(String from) {
+        this.from = from;
+    }
+    
+    public String getTo() {
+        return to;
+    }
+    
+    public void setTo(String to) {
+        this.to = to;
+    }
+    
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+    
+    public void setSlotMinutes(int slotMinutes) {
+        this.slotMinutes = slotMinutes;
+    }
+    
+    public List<CalendarDoctorDTO> getDoctors() {
+        return doctors;
+    }
+    
+    public void setDoctors(List<CalendarDoctorDTO> doctors) {
+        this.doctors = doctors;
+    }
+}
@@ -0,0 +1,77 @@
+package odoonto.application.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * DTO de respuesta con un día de la agenda de un doctor.
+ * Las franjas se indexan (ordenadas) por su hora de inicio ("HH:mm") y contienen los IDs
+ * de las citas que las ocupan; cada cita aparece una sola vez en la lista de citas.
+ */
+public class CalendarDayDTO {
+    private String date; // fecha ISO: "2025-05-16"
+    private boolean working;
+    private List<TimeRangeDTO> workingHours = new ArrayList<>();
+    private List<TimeRangeDTO> breaks = new ArrayList<>();
+    private Map<String, List<String>> slots = new TreeMap<>();
+    private List<AppointmentDTO> appointments = new ArrayList<>();
+    
+    // Constructores
+    public CalendarDayDTO() {}
+    
+    public CalendarDayDTO(String date, boolean working) {
+        this.date = date;
+        this.working = working;
+    }
+    
+    // Getters y setters
+    public String getDate() {
+        return date;
+    }
+    
+    public void setDate(String date) {
+        this.date = date;
+    }
+    
+    public boolean isWorking() {
+        return working;
+    }
+    
+    public void setWorking(boolean working) {
+        this.working = working;
+    }
+    
+    public List<TimeRangeDTO> getWorkingHours() {
+        return workingHours;
+    }
+    
+    public void setWorkingHours(List<TimeRangeDTO> workingHours) {
+        this.workingHours = workingHours;
+    }
+    
+    public List<TimeRangeDTO> getBreaks() {
+        return breaks;
+    }
+    
+    public void setBreaks(List<TimeRangeDTO> breaks) {
+        this.breaks = breaks;
+    }
+    
+    public Map<String, List<String>> getSlots() {
+        return slots;
+    }
+    
+    public void setSlots(Map<String, List<String>> slots) {
+        this.slots = slots;
+    }
+    
+    public List<AppointmentDTO> getAppointments() {
+        return appointments;
+    }
+    
+    public void setAppointments(List<AppointmentDTO> appointments) {
+        this.appointments = appointments;
+    }
+}
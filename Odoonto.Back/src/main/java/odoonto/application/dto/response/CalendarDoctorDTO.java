@@ -0,0 +1,46 @@
+package odoonto.application.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de respuesta con la agenda de un doctor dentro de la vista de calendario
+ */
+public class CalendarDoctorDTO {
+    private String doctorId;
+    private String doctorName;
+    private List<CalendarDayDTO> days = new ArrayList<>();
+    
+    // Constructores
+    public CalendarDoctorDTO() {}
+    
+    public CalendarDoctorDTO(String doctorId, String doctorName) {
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+    }
+    
+    // Getters y setters
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(String doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public String getDoctorName() {
+        return doctorName;
+    }
+    
+    public void setDoctorName(String doctorName) {
+        this.doctorName = doctorName;
+    }
+    
+    public List<CalendarDayDTO> getDays() {
+        return days;
+    }
+    
+    public void setDays(List<CalendarDayDTO> days) {
+        this.days = days;
+    }
+}
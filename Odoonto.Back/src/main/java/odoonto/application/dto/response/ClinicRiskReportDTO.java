@@ -0,0 +1,95 @@
+package odoonto.application.dto.response;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO de respuesta con el informe de riesgo dental de toda la clínica,
+ * con los pacientes ordenados de mayor a menor urgencia
+ */
+public class ClinicRiskReportDTO {
+    private String generatedAt;
+    private int odontogramsAnalyzed;
+    private int diagnosesComputed; // odontogramas cambiados desde el informe anterior
+    private int cacheHits;
+    private long elapsedMillis;
+    private Map<String, Integer> patientsByRiskLevel;
+    private List<PatientRiskDTO> patients;
+    
+    // Constructores
+    public ClinicRiskReportDTO() {
+        this.patientsByRiskLevel = new LinkedHashMap<>();
+        this.patients = new ArrayList<>();
+    }
+    
+    public ClinicRiskReportDTO(String generatedAt, int odontogramsAnalyzed, int diagnosesComputed, int cacheHits,
+                               long elapsedMillis, Map<String, Integer> patientsByRiskLevel,
+                               List<PatientRiskDTO> patients) {
+        this.generatedAt = generatedAt;
+        this.odontogramsAnalyzed = odontogramsAnalyzed;
+        this.diagnosesComputed = diagnosesComputed;
+        this.cacheHits = cacheHits;
+        this.elapsedMillis = elapsedMillis;
+        this.patientsByRiskLevel = patientsByRiskLevel != null ? patientsByRiskLevel : new LinkedHashMap<>();
+        this.patients = patients != null ? patients : new ArrayList<>();
+    }
+    
+    // Getters y setters
+    public String getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    public void setGeneratedAt(String generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+    
+    public int getOdontogramsAnalyzed() {
+        return odontogramsAnalyzed;
+    }
+    
+    public void setOdontogramsAnalyzed(int odontogramsAnalyzed) {
+        this.odontogramsAnalyzed = odontogramsAnalyzed;
+    }
+    
+    public int getDiagnosesComputed() {
+        return diagnosesComputed;
+    }
+    
+    public void setDiagnosesComputed(int diagnosesComputed) {
+        this.diagnosesComputed = diagnosesComputed;
+    }
+    
+    public int getCacheHits() {
+        return cacheHits;
+    }
+    
+    public void setCacheHits(int cacheHits) {
+        this.cacheHits = cacheHits;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    public Map<String, Integer> getPatientsByRiskLevel() {
+        return patientsByRiskLevel;
+    }
+    
+    public void setPatientsByRiskLevel(Map<String, Integer> patientsByRiskLevel) {
+        this.patientsByRiskLevel = patientsByRiskLevel;
+    }
+    
+    public List<PatientRiskDTO> getPatients() {
+        return patients;
+    }
+    
+    public void setPatients(List<PatientRiskDTO> patients) {
+        this.patients = patients;
+    }
+}
@@ -0,0 +1,153 @@
+package odoonto.application.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el horario semanal de un doctor y sus excepciones por fecha
+ */
+public class DoctorScheduleDTO {
+    private String doctorId;
+    private List<DayDTO> weeklySchedule = new ArrayList<>();
+    private List<ExceptionDTO> exceptions = new ArrayList<>();
+    
+    // Constructores
+    public DoctorScheduleDTO() {}
+    
+    public DoctorScheduleDTO(String doctorId, List<DayDTO> weeklySchedule, List<ExceptionDTO> exceptions) {
+        this.doctorId = doctorId;
+        this.weeklySchedule = weeklySchedule;
+        this.exceptions = exceptions;
+    }
+    
+    // Getters y setters
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(String doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public List<DayDTO> getWeeklySchedule() {
+        return weeklySchedule;
+    }
+    
+    public void setWeeklySchedule(List<DayDTO> weeklySchedule) {
+        this.weeklySchedule = weeklySchedule;
+    }
+    
+    public List<ExceptionDTO> getExceptions() {
+        return exceptions;
+    }
+    
+    public void setExceptions(List<ExceptionDTO> exceptions) {
+        this.exceptions = exceptions;
+    }
+    
+    /**
+     * Horario de un día de la semana
+     */
+    public static class DayDTO {
+        private String dayOfWeek;
+        private boolean available;
+        private String startTime;
+        private String endTime;
+        
+        // Constructores
+        public DayDTO() {}
+        
+        public DayDTO(String dayOfWeek, boolean available, String startTime, String endTime) {
+            this.dayOfWeek = dayOfWeek;
+            this.available = available;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+        
+        // Getters y setters
+        public String getDayOfWeek() {
+            return dayOfWeek;
+        }
+        
+        public void setDayOfWeek(String dayOfWeek) {
+            this.dayOfWeek = dayOfWeek;
+        }
+        
+        public boolean isAvailable() {
+            return available;
+        }
+        
+        public void setAvailable(boolean available) {
+            this.available = available;
+        }
+        
+        public String getStartTime() {
+            return startTime;
+        }
+        
+        public void setStartTime(String startTime) {
+            this.startTime = startTime;
+        }
+        
+        public String getEndTime() {
+            return endTime;
+        }
+        
+        public void setEndTime(String endTime) {
+            this.endTime = endTime;
+        }
+    }
+    
+    /**
+     * Excepción al horario en una fecha
+     */
+    public static class ExceptionDTO {
+        private String date; // formato ISO8601
+        private String startTime; // null si no atiende
+        private String endTime;
+        private String reason;
+        
+        // Constructores
+        public ExceptionDTO() {}
+        
+        public ExceptionDTO(String date, String startTime, String endTime, String reason) {
+            this.date = date;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.reason = reason;
+        }
+        
+        // Getters y setters
+        public String getDate() {
+            return date;
+        }
+        
+        public void setDate(String date) {
+            this.date = date;
+        }
+        
+        public String getStartTime() {
+            return startTime;
+        }
+        
+        public void setStartTime(String startTime) {
+            this.startTime = startTime;
+        }
+        
+        public String getEndTime() {
+            return endTime;
+        }
+        
+        public void setEndTime(String endTime) {
+            this.endTime = endTime;
+        }
+        
+        public String getReason() {
+            return reason;
+        }
+        
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+    }
+}
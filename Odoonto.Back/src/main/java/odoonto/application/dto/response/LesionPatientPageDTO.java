@@ -0,0 +1,59 @@
+package odoonto.application.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de respuesta para una página de pacientes que presentan un tipo de lesión
+ */
+public class LesionPatientPageDTO {
+    private String lesionType;
+    private List<String> patientIds;
+    private String nextCursor; // null si no hay más páginas
+    private boolean hasMore;
+    
+    // Constructores
+    public LesionPatientPageDTO() {
+        this.patientIds = new ArrayList<>();
+    }
+    
+    public LesionPatientPageDTO(String lesionType, List<String> patientIds, String nextCursor) {
+        this.lesionType = lesionType;
+        this.patientIds = patientIds != null ? patientIds : new ArrayList<>();
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+    
+    // Getters y setters
+    public String getLesionType() {
+        return lesionType;
+    }
+    
+    public void setLesionType(String lesionType) {
+        this.lesionType = lesionType;
+    }
+    
+    public List<String> getPatientIds() {
+        return patientIds;
+    }
+    
+    public void setPatientIds(List<String> patientIds) {
+        this.patientIds = patientIds;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,144 @@
+package odoonto.application.dto.response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DTO de respuesta con el recuento de lesiones de todos los odontogramas
+ */
+public class LesionStatisticsDTO {
+    private long totalLesions;
+    private long odontogramsWithLesions;
+    private Map<String, LesionTypeStatisticsDTO> byType; // clave: nombre del tipo de lesión
+    
+    // Constructores
+    public LesionStatisticsDTO() {
+        this.byType = new LinkedHashMap<>();
+    }
+    
+    public LesionStatisticsDTO(long totalLesions, long odontogramsWithLesions,
+                               Map<String, LesionTypeStatisticsDTO> byType) {
+        this.totalLesions = totalLesions;
+        this.odontogramsWithLesions = odontogramsWithLesions;
+        this.byType = byType != null ? byType : new LinkedHashMap<>();
+    }
+    
+    // Getters y setters
+    public long getTotalLesions() {
+        return totalLesions;
+    }
+    
+    public void setTotalLesions(long totalLesions) {
+        this.totalLesions = totalLesions;
+    }
+    
+    public long getOdontogramsWithLesions() {
+        return odontogramsWithLesions;
+    }
+    
+    public void setOdontogramsWithLesions(long odontogramsWithLesions) {
+        this.odontogramsWithLesions = odontogramsWithLesions;
+    }
+    
+    public Map<String, LesionTypeStatisticsDTO> getByType() {
+        return byType;
+    }
+    
+    public void setByType(Map<String, LesionTypeStatisticsDTO> byType) {
+        this.byType = byType;
+    }
+    
+    /**
+     * Recuento de un tipo de lesión, desglosado por diente, cara, cuadrante y zona
+     */
+    public static class LesionTypeStatisticsDTO {
+        private String lesionType;
+        private String description;
+        private long total;
+        private long odontograms;
+        private Map<String, Long> byTooth;
+        private Map<String, Long> byFace;
+        private Map<String, Long> byQuadrant;
+        private Map<String, Long> byZone;
+        
+        public LesionTypeStatisticsDTO() {
+        }
+        
+        public LesionTypeStatisticsDTO(String lesionType, String description, long total, long odontograms,
+                                       Map<String, Long> byTooth, Map<String, Long> byFace,
+                                       Map<String, Long> byQuadrant, Map<String, Long> byZone) {
+            this.lesionType = lesionType;
+            this.description = description;
+            this.total = total;
+            this.odontograms = odontograms;
+            this.byTooth = byTooth;
+            this.byFace = byFace;
+            this.byQuadrant = byQuadrant;
+            this.byZone = byZone;
+        }
+        
+        public String getLesionType() {
+            return lesionType;
+        }
+        
+        public void setLesionType(String lesionType) {
+            this.lesionType = lesionType;
+        }
+        
+        public String getDescription() {
+            return description;
+        }
+        
+        public void setDescription(String description) {
+            this.description = description;
+        }
+        
+        public long getTotal() {
+            return total;
+        }
+        
+        public void setTotal(long total) {
+            this.total = total;
+        }
+        
+        public long getOdontograms() {
+            return odontograms;
+        }
+        
+        public void setOdontograms(long odontograms) {
+            this.odontograms = odontograms;
+        }
+        
+        public Map<String, Long> getByTooth() {
+            return byTooth;
+        }
+        
+        public void setByTooth(Map<String, Long> byTooth) {
+            this.byTooth = byTooth;
+        }
+        
+        public Map<String, Long> getByFace() {
+            return byFace;
+        }
+        
+        public void setByFace(Map<String, Long> byFace) {
+            this.byFace = byFace;
+        }
+        
+        public Map<String, Long> getByQuadrant() {
+            return byQuadrant;
+        }
+        
+        public void setByQuadrant(Map<String, Long> byQuadrant) {
+            this.byQuadrant = byQuadrant;
+        }
+        
+        public Map<String, Long> getByZone() {
+            return byZone;
+        }
+        
+        public void setByZone(Map<String, Long> byZone) {
+            this.byZone = byZone;
+        }
+    }
+}
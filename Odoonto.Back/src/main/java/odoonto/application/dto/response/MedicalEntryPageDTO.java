@@ -0,0 +1,49 @@
+package odoonto.application.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de respuesta para una página de entradas de historial, de la más reciente a la más antigua
+ */
+public class MedicalEntryPageDTO {
+    private List<MedicalRecordDTO.MedicalEntryDTO> entries;
+    private String nextCursor; // null si no hay más páginas
+    private boolean hasMore;
+    
+    // Constructores
+    public MedicalEntryPageDTO() {
+        this.entries = new ArrayList<>();
+    }
+    
+    public MedicalEntryPageDTO(List<MedicalRecordDTO.MedicalEntryDTO> entries, String nextCursor) {
+        this.entries = entries != null ? entries : new ArrayList<>();
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+    
+    // Getters y setters
+    public List<MedicalRecordDTO.MedicalEntryDTO> getEntries() {
+        return entries;
+    }
+    
+    public void setEntries(List<MedicalRecordDTO.MedicalEntryDTO> entries) {
+        this.entries = entries;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public boolean isHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
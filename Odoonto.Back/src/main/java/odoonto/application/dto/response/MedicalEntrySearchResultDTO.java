@@ -0,0 +1,95 @@
+package odoonto.application.dto.response;
+
+/**
+ * DTO de respuesta para una entrada de historial encontrada por la búsqueda de texto
+ */
+public class MedicalEntrySearchResultDTO {
+    private String medicalRecordId;
+    private String entryId;
+    private String type;
+    private String description;
+    private String doctorId;
+    private String recordedAt; // formato ISO8601
+    private double score; // Relevancia; mayor es mejor
+    private boolean truncated; // Solo se ordenaron las coincidencias más recientes
+    
+    // Constructores
+    public MedicalEntrySearchResultDTO() {}
+    
+    public MedicalEntrySearchResultDTO(String medicalRecordId, String entryId, String type, String description,
+                                       String doctorId, String recordedAt, double score, boolean truncated) {
+        this.medicalRecordId = medicalRecordId;
+        this.entryId = entryId;
+        this.type = type;
+        this.description = description;
+        this.doctorId = doctorId;
+        this.recordedAt = recordedAt;
+        this.score = score;
+        this.truncated = truncated;
+    }
+    
+    // Getters y setters
+    public String getMedicalRecordId() {
+        return medicalRecordId;
+    }
+    
+    public void setMedicalRecordId(String medicalRecordId) {
+        this.medicalRecordId = medicalRecordId;
+    }
+    
+    public String getEntryId() {
+        return entryId;
+    }
+    
+    public void setEntryId(String entryId) {
+        this.entryId = entryId;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(String doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public String getRecordedAt() {
+        return recordedAt;
+    }
+    
+    public void setRecordedAt(String recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+    
+    public double getScore() {
+        return score;
+    }
+    
+    public void setScore(double score) {
+        this.score = score;
+    }
+    
+    public boolean isTruncated() {
+        return truncated;
+    }
+    
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+}
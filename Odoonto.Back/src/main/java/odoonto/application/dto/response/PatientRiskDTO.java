@@ -0,0 +1,100 @@
+package odoonto.application.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de respuesta con el riesgo dental de un paciente dentro del informe de la clínica
+ */
+public class PatientRiskDTO {
+    private String patientId;
+    private String odontogramId;
+    private long odontogramVersion;
+    private String riskLevel; // BAJO, MEDIO, ALTO, MUY ALTO
+    private String cariesRisk; // BAJO, MEDIO, ALTO
+    private double healthPercentage;
+    private int lesionCount;
+    private List<String> priorityTeeth;
+    
+    // Constructores
+    public PatientRiskDTO() {
+        this.priorityTeeth = new ArrayList<>();
+    }
+    
+    public PatientRiskDTO(String patientId, String odontogramId, long odontogramVersion, String riskLevel,
+                          String cariesRisk, double healthPercentage, int lesionCount, List<String> priorityTeeth) {
+        this.patientId = patientId;
+        this.odontogramId = odontogramId;
+        this.odontogramVersion = odontogramVersion;
+        this.riskLevel = riskLevel;
+        this.cariesRisk = cariesRisk;
+        this.healthPercentage = healthPercentage;
+        this.lesionCount = lesionCount;
+        this.priorityTeeth = priorityTeeth != null ? priorityTeeth : new ArrayList<>();
+    }
+    
+    // Getters y setters
+    public String getPatientId() {
+        return patientId;
+    }
+    
+    public void setPatientId(String patientId) {
+        this.patientId = patientId;
+    }
+    
+    public String getOdontogramId() {
+        return odontogramId;
+    }
+    
+    public void setOdontogramId(String odontogramId) {
+        this.odontogramId = odontogramId;
+    }
+    
+    public long getOdontogramVersion() {
+        return odontogramVersion;
+    }
+    
+    public void setOdontogramVersion(long odontogramVersion) {
+        this.odontogramVersion = odontogramVersion;
+    }
+    
+    public String getRiskLevel() {
+        return riskLevel;
+    }
+    
+    public void setRiskLevel(String riskLevel) {
+        this.riskLevel = riskLevel;
+    }
+    
+    public String getCariesRisk() {
+        return cariesRisk;
+    }
+    
+    public void setCariesRisk(String cariesRisk) {
+        this.cariesRisk = cariesRisk;
+    }
+    
+    public double getHealthPercentage() {
+        return healthPercentage;
+    }
+    
+    public void setHealthPercentage(double healthPercentage) {
+        this.healthPercentage = healthPercentage;
+    }
+    
+    public int getLesionCount() {
+        return lesionCount;
+    }
+    
+    public void setLesionCount(int lesionCount) {
+        this.lesionCount = lesionCount;
+    }
+    
+    public List<String> getPriorityTeeth() {
+        return priorityTeeth;
+    }
+    
+    public void setPriorityTeeth(List<String> priorityTeeth) {
+        this.priorityTeeth = priorityTeeth;
+    }
+}
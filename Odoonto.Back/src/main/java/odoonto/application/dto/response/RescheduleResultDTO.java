@@ -0,0 +1,85 @@
+package odoonto.application.dto.response;
+
+/**
+ * DTO de respuesta con el resultado de reprogramar una cita dentro de un lote
+ */
+public class RescheduleResultDTO {
+    private String appointmentId;
+    private String patientId;
+    private boolean rescheduled;
+    private String previousStart; // formato ISO8601
+    private String newStart; // formato ISO8601, null si no se reprogramó
+    private String doctorId; // Doctor que atiende la cita tras el lote
+    private String message;
+    
+    // Constructores
+    public RescheduleResultDTO() {}
+    
+    public RescheduleResultDTO(String appointmentId, String patientId, boolean rescheduled,
+                               String previousStart, String newStart, String doctorId, String message) {
+        this.appointmentId = appointmentId;
+        this.patientId = patientId;
+        this.rescheduled = rescheduled;
+        this.previousStart = previousStart;
+        this.newStart = newStart;
+        this.doctorId = doctorId;
+        this.message = message;
+    }
+    
+    // Getters y setters
+    public String getAppointmentId() {
+        return appointmentId;
+    }
+    
+    public void setAppointmentId(String appointmentId) {
+        this.appointmentId = appointmentId;
+    }
+    
+    public String getPatientId() {
+        return patientId;
+    }
+    
+    public void setPatientId(String patientId) {
+        this.patientId = patientId;
+    }
+    
+    public boolean isRescheduled() {
+        return rescheduled;
+    }
+    
+    public void setRescheduled(boolean rescheduled) {
+        this.rescheduled = rescheduled;
+    }
+    
+    public String getPreviousStart() {
+        return previousStart;
+    }
+    
+    public void setPreviousStart(String previousStart) {
+        this.previousStart = previousStart;
+    }
+    
+    public String getNewStart() {
+        return newStart;
+    }
+    
+    public void setNewStart(String newStart) {
+        this.newStart = newStart;
+    }
+    
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(String doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
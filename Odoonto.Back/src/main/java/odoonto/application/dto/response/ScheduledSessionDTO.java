@@ -0,0 +1,94 @@
+package odoonto.application.dto.response;
+
+/**
+ * DTO de una sesión propuesta dentro de la programación de un plan de tratamiento
+ */
+public class ScheduledSessionDTO {
+    private int sequence; // Posición de la sesión en el plan, desde 1
+    private String treatmentType;
+    private int sessionNumber; // Sesión dentro del tratamiento, desde 1
+    private String doctorId;
+    private String doctorName;
+    private String start; // formato ISO8601
+    private String end; // formato ISO8601
+    private int durationSlots;
+    
+    // Constructores
+    public ScheduledSessionDTO() {}
+    
+    public ScheduledSessionDTO(int sequence, String treatmentType, int sessionNumber, String doctorId, String doctorName, String start, String end, int durationSlots) {
+        this.sequence = sequence;
+        this.treatmentType = treatmentType;
+        this.sessionNumber = sessionNumber;
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.start = start;
+        this.end = end;
+        this.durationSlots = durationSlots;
+    }
+    
+    // Getters y setters
+    public int getSequence() {
+        return sequence;
+    }
+    
+    public void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+    
+    public String getTreatmentType() {
+        return treatmentType;
+    }
+    
+    public void setTreatmentType(String treatmentType) {
+        this.treatmentType = treatmentType;
+    }
+    
+    public int getSessionNumber() {
+        return sessionNumber;
+    }
+    
+    public void setSessionNumber(int sessionNumber) {
+        this.sessionNumber = sessionNumber;
+    }
+    
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(String doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public String getDoctorName() {
+        return doctorName;
+    }
+    
+    public void setDoctorName(String doctorName) {
+        this.doctorName = doctorName;
+    }
+    
+    public String getStart() {
+        return start;
+    }
+    
+    public void setStart(String start) {
+        this.start = start;
+    }
+    
+    public String getEnd() {
+        return end;
+    }
+    
+    public void setEnd(String end) {
+        this.end = end;
+    }
+    
+    public int getDurationSlots() {
+        return durationSlots;
+    }
+    
+    public void setDurationSlots(int durationSlots) {
+        this.durationSlots = durationSlots;
+    }
+}
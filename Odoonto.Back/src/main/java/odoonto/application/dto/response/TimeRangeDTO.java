@@ -0,0 +1,34 @@
+package odoonto.application.dto.response;
+
+/**
+ * DTO de respuesta para un rango horario dentro de un día ("HH:mm" - "HH:mm")
+ */
+public class TimeRangeDTO {
+    private String start;
+    private String end;
+    
+    // Constructores
+    public TimeRangeDTO() {}
+    
+    public TimeRangeDTO(String start, String end) {
+        this.start = start;
+        this.end = end;
+    }
+    
+    // Getters y setters
+    public String getStart() {
+        return start;
+    }
+    
+    public void setStart(String start) {
+        this.start = start;
+    }
+    
+    public String getEnd() {
+        return end;
+    }
+    
+    public void setEnd(String end) {
+        this.end = end;
+    }
+}
@@ -0,0 +1,77 @@
+package odoonto.application.dto.response;
+
+import java.util.List;
+
+/**
+ * DTO con la programación más temprana encontrada para un plan de tratamiento.
+ * Las sesiones son una propuesta: no se reservan hasta crear las citas.
+ */
+public class TreatmentPlanScheduleDTO {
+    private String patientId;
+    private boolean feasible;
+    private String message; // Motivo si el plan no cabe en el horizonte
+    private List<ScheduledSessionDTO> sessions;
+    private String completionDate; // Fin de la última sesión, formato ISO8601
+    private int doctorsEvaluated; // Candidatos evaluados en la búsqueda
+    
+    // Constructores
+    public TreatmentPlanScheduleDTO() {}
+    
+    public TreatmentPlanScheduleDTO(String patientId, boolean feasible, String message, List<ScheduledSessionDTO> sessions, String completionDate, int doctorsEvaluated) {
+        this.patientId = patientId;
+        this.feasible = feasible;
+        this.message = message;
+        this.sessions = sessions;
+        this.completionDate = completionDate;
+        this.doctorsEvaluated = doctorsEvaluated;
+    }
+    
+    // Getters y setters
+    public String getPatientId() {
+        return patientId;
+    }
+    
+    public void setPatientId(String patientId) {
+        this.patientId = patientId;
+    }
+    
+    public boolean isFeasible() {
+        return feasible;
+    }
+    
+    public void setFeasible(boolean feasible) {
+        this.feasible = feasible;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public List<ScheduledSessionDTO> getSessions() {
+        return sessions;
+    }
+    
+    public void setSessions(List<ScheduledSessionDTO> sessions) {
+        this.sessions = sessions;
+    }
+    
+    public String getCompletionDate() {
+        return completionDate;
+    }
+    
+    public void setCompletionDate(String completionDate) {
+        this.completionDate = completionDate;
+    }
+    
+    public int getDoctorsEvaluated() {
+        return doctorsEvaluated;
+    }
+    
+    public void setDoctorsEvaluated(int doctorsEvaluated) {
+        this.doctorsEvaluated = doctorsEvaluated;
+    }
+}
@@ -0,0 +1,186 @@
+package odoonto.application.dto.response;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta para una solicitud de la lista de espera
+ */
+public class WaitlistEntryDTO {
+    private String id;
+    private String patientId;
+    private String doctorId;
+    private String specialty;
+    private String fromDate;
+    private String toDate;
+    private List<String> daysOfWeek;
+    private String startTime;
+    private String endTime;
+    private int durationSlots;
+    private boolean urgent;
+    private String status;
+    private String createdAt; // formato ISO8601
+    private String offeredDoctorId; // Oferta en curso; null si no hay
+    private String offeredStart; // formato ISO8601
+    private String offerExpiresAt; // formato ISO8601
+    private int offersReceived;
+    
+    // Constructores
+    public WaitlistEntryDTO() {}
+    
+    public WaitlistEntryDTO(String id, String patientId, String doctorId, String specialty, String fromDate, String toDate, List<String> daysOfWeek, String startTime, String endTime, int durationSlots, boolean urgent, String status, String createdAt, String offeredDoctorId, String offeredStart, String offerExpiresAt, int offersReceived) {
+        this.id = id;
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.specialty = specialty;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.daysOfWeek = daysOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.durationSlots = durationSlots;
+        this.urgent = urgent;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.offeredDoctorId = offeredDoctorId;
+        this.offeredStart = offeredStart;
+        this.offerExpiresAt = offerExpiresAt;
+        this.offersReceived = offersReceived;
+    }
+    
+    // Getters y setters
+    public String getId() {
+        return id;
+    }
+    
+    public void setId(String id) {
+        this.id = id;
+    }
+    
+    public String getPatientId() {
+        return patientId;
+    }
+    
+    public void setPatientId(String patientId) {
+        this.patientId = patientId;
+    }
+    
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public void setDoctorId(String doctorId) {
+        this.doctorId = doctorId;
+    }
+    
+    public String getSpecialty() {
+        return specialty;
+    }
+    
+    public void setSpecialty(String specialty) {
+        this.specialty = specialty;
+    }
+    
+    public String getFromDate() {
+        return fromDate;
+    }
+    
+    public void setFromDate(String fromDate) {
+        this.fromDate = fromDate;
+    }
+    
+    public String getToDate() {
+        return toDate;
+    }
+    
+    public void setToDate(String toDate) {
+        this.toDate = toDate;
+    }
+    
+    public List<String> getDaysOfWeek() {
+        return daysOfWeek;
+    }
+    
+    public void setDaysOfWeek(List<String> daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+    
+    public String getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+    
+    public String getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(String endTime) {
+        this.endTime = endTime;
+    }
+    
+    public int getDurationSlots() {
+        return durationSlots;
+    }
+    
+    public void setDurationSlots(int durationSlots) {
+        this.durationSlots = durationSlots;
+    }
+    
+    public boolean isUrgent() {
+        return urgent;
+    }
+    
+    public void setUrgent(boolean urgent) {
+        this.urgent = urgent;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public String getOfferedDoctorId() {
+        return offeredDoctorId;
+    }
+    
+    public void setOfferedDoctorId(String offeredDoctorId) {
+        this.offeredDoctorId = offeredDoctorId;
+    }
+    
+    public String getOfferedStart() {
+        return offeredStart;
+    }
+    
+    public void setOfferedStart(String offeredStart) {
+        this.offeredStart = offeredStart;
+    }
+    
+    public String getOfferExpiresAt() {
+        return offerExpiresAt;
+    }
+    
+    public void setOfferExpiresAt(String offerExpiresAt) {
+        this.offerExpiresAt = offerExpiresAt;
+    }
+    
+    public int getOffersReceived() {
+        return offersReceived;
+    }
+    
+    public void setOffersReceived(int offersReceived) {
+        this.offersReceived = offersReceived;
+    }
+}
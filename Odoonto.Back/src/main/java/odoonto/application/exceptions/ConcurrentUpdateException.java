@@ -0,0 +1,17 @@
+package odoonto.application.exceptions;
+
+/**
+ * Excepción que se lanza cuando un recurso fue modificado por otro cliente
+ * entre su lectura y su escritura y no se pudo reaplicar el cambio
+ */
+public class ConcurrentUpdateException extends ApplicationException {
+    
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+    
+    public ConcurrentUpdateException(String resource, String resourceId) {
+        super("El recurso " + resource + " con ID: " + resourceId +
+              " fue modificado por otro usuario. Vuelva a cargarlo e inténtelo de nuevo");
+    }
+}
@@ -0,0 +1,13 @@
+package odoonto.application.exceptions;
+
+/**
+ * Excepción que se lanza cuando una clave de idempotencia ya usada llega con una
+ * petición distinta de la original
+ */
+public class IdempotencyKeyReusedException extends ApplicationException {
+    
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super("La clave de idempotencia " + idempotencyKey +
+              " ya se usó con una petición distinta; genere una clave nueva para cada operación");
+    }
+}
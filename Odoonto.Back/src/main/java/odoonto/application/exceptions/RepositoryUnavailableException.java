@@ -0,0 +1,21 @@
+package odoonto.application.exceptions;
+
+/**
+ * Excepción que se lanza cuando el almacenamiento de un repositorio está saturado o
+ * degradado y la llamada se rechaza o se abandona tras agotar sus reintentos
+ */
+public class RepositoryUnavailableException extends ApplicationException {
+    
+    public RepositoryUnavailableException(String repository, String reason) {
+        super(messageFor(repository, reason));
+    }
+    
+    public RepositoryUnavailableException(String repository, String reason, Throwable cause) {
+        super(messageFor(repository, reason), cause);
+    }
+    
+    private static String messageFor(String repository, String reason) {
+        return "El repositorio " + repository + " no está disponible temporalmente (" + reason +
+               "); vuelva a intentarlo en unos segundos";
+    }
+}
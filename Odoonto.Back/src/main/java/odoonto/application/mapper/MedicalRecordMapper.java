@@ -7,6 +7,7 @@ import odoonto.domain.model.aggregates.MedicalRecord;
 import odoonto.domain.model.aggregates.MedicalRecord.MedicalNote;
 import odoonto.domain.model.aggregates.MedicalRecord.Diagnosis;
 import odoonto.domain.model.aggregates.MedicalRecord.Treatment;
+import odoonto.domain.model.entities.MedicalEntry;
 
 
 import java.util.List;
@@ -51,6 +52,25 @@ public class MedicalRecordMapper {
         return dto;
     }
 
+    /**
+     * Convierte una entrada del historial a su DTO
+     * @param entry Entrada de dominio
+     * @return DTO con los datos de la entrada
+     */
+    public MedicalRecordDTO.MedicalEntryDTO toEntryDTO(MedicalEntry entry) {
+        if (entry == null) {
+            return null;
+        }
+
+        return new MedicalRecordDTO.MedicalEntryDTO(
+                entry.getId(),
+                entry.getType(),
+                entry.getDescription(),
+                entry.getDoctorId(),
+                entry.getRecordedAt() != null ? entry.getRecordedAt().toLocalDate() : null,
+                entry.getNotes());
+    }
+
     /**
      * Convierte una lista de notas médicas a DTOs de entradas
      */
@@ -1,10 +1,12 @@
 package odoonto.application.port.in.appointment;
 
+import odoonto.application.dto.response.AppointmentDTO;
 import reactor.core.publisher.Mono;
 
 /**
- * Caso de uso para cancelar una cita
+ * Caso de uso para cancelar una cita.
+ * La cita no se borra: pasa a estado cancelada y libera sus franjas
  */
 public interface AppointmentCancelUseCase {
-    Mono<Void> cancelAppointment(String appointmentId);
-} 
\ No newline at end of file
+    Mono<AppointmentDTO> cancelAppointment(String appointmentId, String reason);
+}
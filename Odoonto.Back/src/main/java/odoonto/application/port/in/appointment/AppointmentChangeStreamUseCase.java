@@ -0,0 +1,13 @@
+package odoonto.application.port.in.appointment;
+
+import odoonto.application.dto.response.AppointmentChangeDTO;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * Caso de uso para seguir en tiempo real los cambios de citas
+ */
+public interface AppointmentChangeStreamUseCase {
+    Flux<AppointmentChangeDTO> streamChanges(String doctorId, LocalDate from, LocalDate to);
+}
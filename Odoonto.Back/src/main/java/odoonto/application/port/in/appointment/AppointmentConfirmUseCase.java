@@ -0,0 +1,11 @@
+package odoonto.application.port.in.appointment;
+
+import odoonto.application.dto.response.AppointmentDTO;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caso de uso para confirmar una cita
+ */
+public interface AppointmentConfirmUseCase {
+    Mono<AppointmentDTO> confirmAppointment(String appointmentId);
+}
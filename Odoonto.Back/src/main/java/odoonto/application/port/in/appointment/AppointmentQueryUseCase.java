@@ -4,6 +4,8 @@ import odoonto.application.dto.response.AppointmentDTO;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+
 /**
  * Caso de uso para consultar citas
  */
@@ -12,4 +14,13 @@ public interface AppointmentQueryUseCase {
     Flux<AppointmentDTO> findAll();
     Flux<AppointmentDTO> findByPatientId(String patientId);
     Flux<AppointmentDTO> findByDoctorId(String doctorId);
+    
+    /**
+     * Busca las citas de un estado en un rango de días (por ejemplo, las confirmadas de hoy)
+     * @param status Nombre o código del estado
+     * @param from Primer día (inclusive)
+     * @param to Último día (inclusive)
+     * @return Flux de citas en orden cronológico
+     */
+    Flux<AppointmentDTO> findByStatusAndDateRange(String status, LocalDate from, LocalDate to);
 } 
\ No newline at end of file
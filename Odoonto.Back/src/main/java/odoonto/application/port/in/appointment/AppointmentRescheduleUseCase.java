@@ -0,0 +1,20 @@
+package odoonto.application.port.in.appointment;
+
+import odoonto.application.dto.request.AppointmentRescheduleDTO;
+import odoonto.application.dto.request.DoctorDayRescheduleDTO;
+import odoonto.application.dto.response.AppointmentDTO;
+import odoonto.application.dto.response.RescheduleResultDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Caso de uso para reprogramar citas, liberando sus franjas y reclamando las nuevas
+ * en una única operación atómica por cita
+ */
+public interface AppointmentRescheduleUseCase {
+    Mono<AppointmentDTO> rescheduleAppointment(String appointmentId, AppointmentRescheduleDTO rescheduleDTO);
+    
+    Flux<RescheduleResultDTO> rescheduleDoctorDay(String doctorId, LocalDate date, DoctorDayRescheduleDTO rescheduleDTO);
+}
@@ -0,0 +1,35 @@
+package odoonto.application.port.in.appointment;
+
+import odoonto.application.dto.request.AppointmentSeriesCreateDTO;
+import odoonto.application.dto.response.AppointmentDTO;
+import odoonto.application.dto.response.AppointmentSeriesDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Caso de uso para gestionar series de citas periódicas
+ */
+public interface AppointmentSeriesUseCase {
+    Mono<AppointmentSeriesDTO> createSeries(AppointmentSeriesCreateDTO seriesCreateDTO);
+
+    Mono<AppointmentSeriesDTO> getSeriesById(String seriesId);
+
+    /**
+     * Citas de la serie cuyo inicio está entre las dos fechas, ambas incluidas
+     */
+    Flux<AppointmentDTO> getSeriesOccurrences(String seriesId, LocalDate from, LocalDate to);
+
+    /**
+     * Citas de todas las series del doctor cuyo inicio está entre las dos fechas, ambas incluidas
+     */
+    Flux<AppointmentDTO> getDoctorSeriesOccurrences(String doctorId, LocalDate from, LocalDate to);
+
+    Mono<AppointmentSeriesDTO> cancelOccurrence(String seriesId, LocalDate date);
+
+    /**
+     * Anula las citas de la serie desde la fecha indicada; las anteriores se conservan
+     */
+    Mono<AppointmentSeriesDTO> endSeries(String seriesId, LocalDate from);
+}
@@ -0,0 +1,26 @@
+package odoonto.application.port.in.appointment;
+
+import odoonto.application.dto.response.AppointmentStatusCountsDTO;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Caso de uso para consultar el número de citas por estado
+ */
+public interface AppointmentStatisticsUseCase {
+    /**
+     * Obtiene el número de citas por estado en un rango de días
+     * @param doctorId ID del doctor (opcional)
+     * @param from Primer día (inclusive)
+     * @param to Último día (inclusive)
+     * @return Mono con los recuentos totales y por día
+     */
+    Mono<AppointmentStatusCountsDTO> countByStatus(String doctorId, LocalDate from, LocalDate to);
+    
+    /**
+     * Recalcula los recuentos desde cero a partir de todas las citas
+     * @return Mono con el número de citas procesadas
+     */
+    Mono<Long> rebuildStatusCounts();
+}
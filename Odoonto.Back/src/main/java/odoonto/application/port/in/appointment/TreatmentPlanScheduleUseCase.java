@@ -0,0 +1,13 @@
+package odoonto.application.port.in.appointment;
+
+import odoonto.application.dto.request.TreatmentPlanScheduleRequestDTO;
+import odoonto.application.dto.response.TreatmentPlanScheduleDTO;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caso de uso para calcular la secuencia de citas más temprana que completa
+ * un plan de tratamiento de varias sesiones
+ */
+public interface TreatmentPlanScheduleUseCase {
+    Mono<TreatmentPlanScheduleDTO> scheduleTreatmentPlan(TreatmentPlanScheduleRequestDTO request);
+}
@@ -0,0 +1,41 @@
+package odoonto.application.port.in.appointment;
+
+import odoonto.application.dto.request.WaitlistEntryCreateDTO;
+import odoonto.application.dto.response.AppointmentDTO;
+import odoonto.application.dto.response.WaitlistEntryDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Caso de uso para gestionar la lista de espera y ofrecer los huecos que se liberan
+ */
+public interface WaitlistUseCase {
+    Mono<WaitlistEntryDTO> addEntry(WaitlistEntryCreateDTO entryCreateDTO);
+
+    Mono<WaitlistEntryDTO> getEntryById(String entryId);
+
+    Flux<WaitlistEntryDTO> getEntriesByPatient(String patientId);
+
+    Mono<WaitlistEntryDTO> withdrawEntry(String entryId);
+
+    /**
+     * Acepta la oferta en curso y reserva la cita ofrecida
+     */
+    Mono<AppointmentDTO> acceptOffer(String entryId);
+
+    /**
+     * Rechaza la oferta en curso; el hueco se ofrece al siguiente candidato
+     */
+    Mono<WaitlistEntryDTO> declineOffer(String entryId);
+
+    /**
+     * Ofrece un hueco liberado a los mejores candidatos de la lista de espera
+     * @param doctorId Doctor del hueco
+     * @param start Inicio del hueco
+     * @param durationSlots Slots de 30 minutos liberados
+     * @return Mono con el número de ofertas enviadas
+     */
+    Mono<Integer> offerFreedSlot(String doctorId, LocalDateTime start, int durationSlots);
+}
@@ -0,0 +1,13 @@
+package odoonto.application.port.in.calendar;
+
+import odoonto.application.dto.response.CalendarDTO;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Caso de uso para consultar la vista de calendario de la clínica
+ */
+public interface CalendarQueryUseCase {
+    Mono<CalendarDTO> getCalendar(String view, LocalDate date, String doctorId);
+}
@@ -0,0 +1,23 @@
+package odoonto.application.port.in.doctor;
+
+import odoonto.application.dto.request.DayScheduleDTO;
+import odoonto.application.dto.request.ScheduleExceptionDTO;
+import odoonto.application.dto.response.DoctorScheduleDTO;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Caso de uso para consultar y modificar el horario semanal de un doctor
+ * y sus excepciones (festivos, bajas, horarios especiales)
+ */
+public interface DoctorScheduleUseCase {
+    Mono<DoctorScheduleDTO> getSchedule(String doctorId);
+    
+    Mono<DoctorScheduleDTO> updateWeeklySchedule(String doctorId, List<DayScheduleDTO> days);
+    
+    Mono<DoctorScheduleDTO> addScheduleException(String doctorId, ScheduleExceptionDTO exceptionDTO);
+    
+    Mono<DoctorScheduleDTO> removeScheduleException(String doctorId, LocalDate date);
+}
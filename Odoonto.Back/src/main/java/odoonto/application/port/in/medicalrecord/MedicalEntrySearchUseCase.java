@@ -0,0 +1,25 @@
+package odoonto.application.port.in.medicalrecord;
+
+import odoonto.application.dto.response.MedicalEntrySearchResultDTO;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * Caso de uso para buscar texto en las entradas de historial de todos los pacientes
+ */
+public interface MedicalEntrySearchUseCase {
+    /**
+     * Busca entradas por texto. Admite palabras (todas obligatorias), frases entre
+     * comillas, alternativas con OR y exclusiones con NOT o con guion delante; no
+     * distingue mayúsculas, acentos ni singular/plural
+     * @param query Texto de la búsqueda
+     * @param doctorId Doctor que registró las entradas (opcional)
+     * @param from Primer día incluido (opcional)
+     * @param to Último día incluido (opcional)
+     * @param limit Número máximo de resultados (opcional)
+     * @return Flux con las entradas ordenadas por relevancia
+     */
+    Flux<MedicalEntrySearchResultDTO> search(String query, String doctorId, LocalDate from, LocalDate to,
+                                             Integer limit);
+}
@@ -1,9 +1,12 @@
 package odoonto.application.port.in.medicalrecord;
 
+import odoonto.application.dto.response.MedicalEntryPageDTO;
 import odoonto.application.dto.response.MedicalRecordDTO;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+
 /**
  * Caso de uso para consultar historiales médicos
  */
@@ -41,4 +44,18 @@ public interface MedicalRecordQueryUseCase {
      * @return Mono con true si existe, false si no
      */
     Mono<Boolean> existsByPatientId(String patientId);
+    
+    /**
+     * Obtiene una página de entradas del historial, de la más reciente a la más antigua
+     * @param medicalRecordId ID del historial médico
+     * @param from Primer día incluido (opcional)
+     * @param to Último día incluido (opcional)
+     * @param doctorId Doctor que registró las entradas (opcional)
+     * @param type Tipo de entrada (opcional)
+     * @param cursor Cursor devuelto en la página anterior (opcional)
+     * @param limit Tamaño de página (opcional)
+     * @return Mono con la página de entradas y el cursor de la siguiente
+     */
+    Mono<MedicalEntryPageDTO> findEntries(String medicalRecordId, LocalDate from, LocalDate to,
+                                          String doctorId, String type, String cursor, Integer limit);
 } 
\ No newline at end of file
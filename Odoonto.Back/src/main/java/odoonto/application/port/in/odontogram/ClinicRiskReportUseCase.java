@@ -0,0 +1,17 @@
+package odoonto.application.port.in.odontogram;
+
+import odoonto.application.dto.response.ClinicRiskReportDTO;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caso de uso para evaluar el riesgo dental de todos los pacientes de la clínica
+ */
+public interface ClinicRiskReportUseCase {
+    /**
+     * Diagnostica todos los odontogramas y genera el informe de riesgo ordenado por
+     * urgencia; los odontogramas sin cambios desde la ejecución anterior no se recalculan
+     * @param limit Número máximo de pacientes del informe (opcional; los recuentos cubren a todos)
+     * @return Mono con el informe
+     */
+    Mono<ClinicRiskReportDTO> generateRiskReport(Integer limit);
+}
@@ -0,0 +1,28 @@
+package odoonto.application.port.in.odontogram;
+
+import odoonto.application.dto.response.LesionStatisticsDTO;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caso de uso para consultar las estadísticas de lesiones de todos los odontogramas
+ */
+public interface LesionStatisticsUseCase {
+    /**
+     * Obtiene el recuento de lesiones de todos los tipos
+     * @return Mono con las estadísticas
+     */
+    Mono<LesionStatisticsDTO> getLesionStatistics();
+    
+    /**
+     * Obtiene el recuento de un tipo de lesión
+     * @param lesionType Nombre o código del tipo de lesión
+     * @return Mono con el recuento del tipo (a cero si ningún odontograma lo presenta)
+     */
+    Mono<LesionStatisticsDTO.LesionTypeStatisticsDTO> getLesionStatistics(String lesionType);
+    
+    /**
+     * Recalcula las estadísticas desde cero a partir de todos los odontogramas
+     * @return Mono con las estadísticas recalculadas
+     */
+    Mono<LesionStatisticsDTO> rebuildLesionStatistics();
+}
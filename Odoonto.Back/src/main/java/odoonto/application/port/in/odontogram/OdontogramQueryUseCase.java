@@ -1,5 +1,6 @@
 package odoonto.application.port.in.odontogram;
 
+import odoonto.application.dto.response.LesionPatientPageDTO;
 import odoonto.application.dto.response.OdontogramDTO;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -47,4 +48,18 @@ public interface OdontogramQueryUseCase {
      * @return Mono con true si tiene odontograma
      */
     Mono<Boolean> existsByPatientId(String patientId);
-} 
\ No newline at end of file
+    
+    /**
+     * Obtiene una página de los pacientes que presentan un tipo de lesión,
+     * opcionalmente en un diente o una cara concretos
+     * 
+     * @param lesionType Nombre o código del tipo de lesión
+     * @param toothNumber Número de diente (opcional)
+     * @param face Código de cara (opcional)
+     * @param cursor Cursor devuelto en la página anterior (opcional)
+     * @param limit Tamaño de página (opcional)
+     * @return Mono con la página de IDs de pacientes
+     */
+    Mono<LesionPatientPageDTO> findPatientsByLesionType(String lesionType, String toothNumber, String face,
+                                                        String cursor, Integer limit);
+}
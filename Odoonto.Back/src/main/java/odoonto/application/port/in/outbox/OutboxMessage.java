@@ -0,0 +1,69 @@
+package odoonto.application.port.in.outbox;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Mensaje del outbox: un evento de dominio persistido en la misma escritura
+ * que el agregado que lo originó. El tipo coincide con el nombre simple de la
+ * clase de evento de dominio (por ejemplo "AppointmentScheduledEvent").
+ */
+public final class OutboxMessage {
+    private final String id;
+    private final String aggregateType;
+    private final String aggregateId;
+    private final String eventType;
+    private final Instant occurredAt;
+    private final Map<String, Object> payload;
+    private final int attempts;
+    
+    public OutboxMessage(String id, String aggregateType, String aggregateId, String eventType,
+                         Instant occurredAt, Map<String, Object> payload, int attempts) {
+        this.id = id;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.occurredAt = occurredAt;
+        this.payload = payload != null ? Collections.unmodifiableMap(payload) : Collections.emptyMap();
+        this.attempts = attempts;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getAggregateType() {
+        return aggregateType;
+    }
+    
+    public String getAggregateId() {
+        return aggregateId;
+    }
+    
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public Map<String, Object> getPayload() {
+        return payload;
+    }
+    
+    /**
+     * Obtiene un valor del contenido como texto
+     * @param key Clave del valor
+     * @return Valor como texto o null si no existe
+     */
+    public String getPayloadString(String key) {
+        Object value = payload.get(key);
+        return value != null ? value.toString() : null;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+}
@@ -0,0 +1,25 @@
+package odoonto.application.port.in.outbox;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Manejador de mensajes del outbox. El relay entrega los mensajes en orden y,
+ * ante un fallo, los reintenta, por lo que los manejadores deben ser idempotentes
+ * (pueden usar el ID del mensaje, que es el ID del evento, para deduplicar).
+ */
+public interface OutboxMessageHandler {
+    
+    /**
+     * Indica si el manejador procesa un tipo de evento
+     * @param eventType Nombre simple de la clase del evento de dominio
+     * @return true si el manejador procesa ese tipo
+     */
+    boolean supports(String eventType);
+    
+    /**
+     * Procesa un mensaje del outbox
+     * @param message Mensaje a procesar
+     * @return Mono que completa cuando el efecto secundario se ha aplicado
+     */
+    Mono<Void> handle(OutboxMessage message);
+}
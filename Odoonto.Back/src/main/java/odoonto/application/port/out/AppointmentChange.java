@@ -0,0 +1,46 @@
+package odoonto.application.port.out;
+
+import odoonto.domain.model.aggregates.Appointment;
+
+import java.time.Instant;
+
+/**
+ * Cambio sobre una cita publicado por el repositorio tras una escritura.
+ * Para los borrados solo se conoce el ID, por lo que la cita es nula.
+ */
+public final class AppointmentChange {
+    private final long sequence;
+    private final AppointmentChangeType type;
+    private final String appointmentId;
+    private final Appointment appointment;
+    private final Instant occurredAt;
+    
+    public AppointmentChange(long sequence, AppointmentChangeType type, String appointmentId,
+                             Appointment appointment, Instant occurredAt) {
+        this.sequence = sequence;
+        this.type = type;
+        this.appointmentId = appointmentId;
+        this.appointment = appointment;
+        this.occurredAt = occurredAt;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public AppointmentChangeType getType() {
+        return type;
+    }
+    
+    public String getAppointmentId() {
+        return appointmentId;
+    }
+    
+    public Appointment getAppointment() {
+        return appointment;
+    }
+    
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+}
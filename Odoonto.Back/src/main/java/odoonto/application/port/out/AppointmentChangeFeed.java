@@ -0,0 +1,20 @@
+package odoonto.application.port.out;
+
+import reactor.core.publisher.Flux;
+
+import java.util.function.Predicate;
+
+/**
+ * Puerto de salida para suscribirse a los cambios de citas en tiempo real.
+ */
+public interface AppointmentChangeFeed {
+    
+    /**
+     * Se suscribe a los cambios de citas que cumplan el filtro.
+     * El filtro se evalúa antes de encolar, de modo que los cambios descartados
+     * no ocupan espacio en el buffer acotado del suscriptor.
+     * @param filter Filtro de cambios de interés
+     * @return Flux infinito de cambios; termina cuando el suscriptor cancela
+     */
+    Flux<AppointmentChange> subscribe(Predicate<AppointmentChange> filter);
+}
@@ -0,0 +1,12 @@
+package odoonto.application.port.out;
+
+/**
+ * Tipo de cambio publicado cuando se escribe una cita
+ */
+public enum AppointmentChangeType {
+    CREATED,
+    UPDATED,
+    CONFIRMED,
+    CANCELLED,
+    DELETED
+}
@@ -0,0 +1,49 @@
+package odoonto.application.port.out;
+
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Recuento de las citas de un doctor en un día: número de citas por estado y
+ * slots de 30 minutos ocupados por las que no están canceladas.
+ */
+public final class AppointmentDayCounts {
+    private final LocalDate date;
+    private final String doctorId;
+    private final Map<AppointmentStatus, Long> byStatus;
+    private final long bookedSlots;
+
+    public AppointmentDayCounts(LocalDate date, String doctorId, Map<AppointmentStatus, Long> byStatus,
+                                long bookedSlots) {
+        this.date = date;
+        this.doctorId = doctorId;
+        this.byStatus = byStatus != null && !byStatus.isEmpty()
+                ? Collections.unmodifiableMap(new EnumMap<>(byStatus))
+                : Collections.emptyMap();
+        this.bookedSlots = bookedSlots;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getDoctorId() {
+        return doctorId;
+    }
+
+    public Map<AppointmentStatus, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public long getCount(AppointmentStatus status) {
+        return byStatus.getOrDefault(status, 0L);
+    }
+
+    public long getBookedSlots() {
+        return bookedSlots;
+    }
+}
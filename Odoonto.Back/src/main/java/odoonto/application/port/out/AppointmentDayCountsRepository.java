@@ -0,0 +1,28 @@
+package odoonto.application.port.out;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Puerto de salida para la vista materializada de citas por doctor, día y estado.
+ * La vista se actualiza en la misma escritura que cada cita (alta, cambio de estado,
+ * movimiento o borrado), por lo que leer un rango de días no depende del número de citas.
+ */
+public interface AppointmentDayCountsRepository {
+
+    /**
+     * Lee los recuentos de un rango de días
+     * @param from Primer día (inclusive)
+     * @param to Último día (inclusive)
+     * @return Flux con un recuento por doctor y día con citas
+     */
+    Flux<AppointmentDayCounts> findByDateRange(LocalDate from, LocalDate to);
+
+    /**
+     * Recalcula la vista desde cero a partir de todas las citas
+     * @return Mono con el número de citas procesadas
+     */
+    Mono<Long> rebuild();
+}
@@ -0,0 +1,63 @@
+package odoonto.application.port.out;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recordatorio de una cita listo para enviar: la cita ya unida con los datos de
+ * contacto del paciente. La clave identifica el envío para no repetirlo si la cita
+ * no cambia de hora.
+ */
+public final class AppointmentReminder {
+    private final String key;
+    private final String appointmentId;
+    private final String patientId;
+    private final String patientName;
+    private final String phone;
+    private final String email;
+    private final String doctorId;
+    private final LocalDateTime dateTime;
+
+    public AppointmentReminder(String key, String appointmentId, String patientId, String patientName,
+                               String phone, String email, String doctorId, LocalDateTime dateTime) {
+        this.key = key;
+        this.appointmentId = appointmentId;
+        this.patientId = patientId;
+        this.patientName = patientName;
+        this.phone = phone;
+        this.email = email;
+        this.doctorId = doctorId;
+        this.dateTime = dateTime;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getAppointmentId() {
+        return appointmentId;
+    }
+
+    public String getPatientId() {
+        return patientId;
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+}
@@ -0,0 +1,28 @@
+package odoonto.application.port.out;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Puerto de salida para ejecutar operaciones de creación una sola vez por clave de
+ * idempotencia. Los reintentos con la misma clave reciben el resultado de la primera
+ * ejecución, y reutilizar la clave con otra petición se rechaza.
+ */
+public interface IdempotentExecutor {
+
+    /**
+     * Cabecera HTTP con la clave
+     */
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * Ejecuta una operación de creación una sola vez por clave
+     * @param operation Operación (p. ej. "POST /api/patients"); las claves son independientes entre operaciones
+     * @param idempotencyKey Valor de la cabecera o null si no se envió
+     * @param request Datos de la petición (cuerpo y parámetros) para detectar claves reutilizadas
+     * @param action Operación a ejecutar
+     * @return Mono con el resultado de la primera ejecución con esa clave
+     */
+    <T> Mono<T> execute(String operation, String idempotencyKey, Object[] request, Supplier<Mono<T>> action);
+}
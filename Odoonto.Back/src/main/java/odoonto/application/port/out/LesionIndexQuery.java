@@ -0,0 +1,51 @@
+package odoonto.application.port.out;
+
+import odoonto.domain.model.valueobjects.LesionType;
+
+/**
+ * Consulta paginada de los pacientes que presentan un tipo de lesión, opcionalmente
+ * limitada a un diente o a una cara de un diente. El cursor es el devuelto en la
+ * página anterior.
+ */
+public final class LesionIndexQuery {
+    private final LesionType lesionType;
+    private final String toothNumber;
+    private final String faceCode;
+    private final String cursor;
+    private final int limit;
+    
+    /**
+     * @param lesionType Tipo de lesión
+     * @param toothNumber Número de diente (opcional)
+     * @param faceCode Código de cara (opcional; requiere el diente)
+     * @param cursor Cursor opaco de la página anterior
+     * @param limit Número máximo de pacientes de la página
+     */
+    public LesionIndexQuery(LesionType lesionType, String toothNumber, String faceCode, String cursor, int limit) {
+        this.lesionType = lesionType;
+        this.toothNumber = toothNumber;
+        this.faceCode = faceCode;
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+    
+    public LesionType getLesionType() {
+        return lesionType;
+    }
+    
+    public String getToothNumber() {
+        return toothNumber;
+    }
+    
+    public String getFaceCode() {
+        return faceCode;
+    }
+    
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,30 @@
+package odoonto.application.port.out;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Página de IDs de pacientes que presentan un tipo de lesión.
+ * El cursor siguiente es nulo cuando no quedan más pacientes.
+ */
+public final class LesionPatientPage {
+    private final List<String> patientIds;
+    private final String nextCursor;
+    
+    public LesionPatientPage(List<String> patientIds, String nextCursor) {
+        this.patientIds = patientIds != null ? Collections.unmodifiableList(patientIds) : Collections.emptyList();
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<String> getPatientIds() {
+        return patientIds;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
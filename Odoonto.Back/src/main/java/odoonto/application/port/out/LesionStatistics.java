@@ -0,0 +1,95 @@
+package odoonto.application.port.out;
+
+import odoonto.domain.model.valueobjects.LesionType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Recuento agregado de las lesiones de todos los odontogramas: totales y, por tipo
+ * de lesión, desglose por diente, cara, cuadrante y zona (anterior/posterior).
+ */
+public final class LesionStatistics {
+    private final long totalLesions;
+    private final long odontogramsWithLesions;
+    private final Map<LesionType, TypeCounts> byType;
+    
+    public LesionStatistics(long totalLesions, long odontogramsWithLesions, Map<LesionType, TypeCounts> byType) {
+        this.totalLesions = totalLesions;
+        this.odontogramsWithLesions = odontogramsWithLesions;
+        this.byType = byType != null
+                ? Collections.unmodifiableMap(new EnumMap<>(byType))
+                : Collections.emptyMap();
+    }
+    
+    public long getTotalLesions() {
+        return totalLesions;
+    }
+    
+    public long getOdontogramsWithLesions() {
+        return odontogramsWithLesions;
+    }
+    
+    public Map<LesionType, TypeCounts> getByType() {
+        return byType;
+    }
+    
+    /**
+     * Recuento de un tipo de lesión; vacío si ningún odontograma lo presenta
+     */
+    public TypeCounts getByType(LesionType lesionType) {
+        return byType.getOrDefault(lesionType, TypeCounts.EMPTY);
+    }
+    
+    /**
+     * Recuento de un tipo de lesión
+     */
+    public static final class TypeCounts {
+        static final TypeCounts EMPTY = new TypeCounts(0, 0, null, null, null, null);
+        
+        private final long total;
+        private final long odontograms;
+        private final Map<String, Long> byTooth;
+        private final Map<String, Long> byFace;
+        private final Map<String, Long> byQuadrant;
+        private final Map<String, Long> byZone;
+        
+        public TypeCounts(long total, long odontograms, Map<String, Long> byTooth, Map<String, Long> byFace,
+                          Map<String, Long> byQuadrant, Map<String, Long> byZone) {
+            this.total = total;
+            this.odontograms = odontograms;
+            this.byTooth = byTooth != null ? Collections.unmodifiableMap(byTooth) : Collections.emptyMap();
+            this.byFace = byFace != null ? Collections.unmodifiableMap(byFace) : Collections.emptyMap();
+            this.byQuadrant = byQuadrant != null ? Collections.unmodifiableMap(byQuadrant) : Collections.emptyMap();
+            this.byZone = byZone != null ? Collections.unmodifiableMap(byZone) : Collections.emptyMap();
+        }
+        
+        public long getTotal() {
+            return total;
+        }
+        
+        /**
+         * Odontogramas con al menos una lesión de este tipo
+         */
+        public long getOdontograms() {
+            return odontograms;
+        }
+        
+        public Map<String, Long> getByTooth() {
+            return byTooth;
+        }
+        
+        public Map<String, Long> getByFace() {
+            return byFace;
+        }
+        
+        public Map<String, Long> getByQuadrant() {
+            return byQuadrant;
+        }
+        
+        public Map<String, Long> getByZone() {
+            return byZone;
+        }
+    }
+}
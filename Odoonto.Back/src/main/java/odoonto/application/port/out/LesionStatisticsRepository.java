@@ -0,0 +1,23 @@
+package odoonto.application.port.out;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Puerto de salida para la vista materializada de estadísticas de lesiones.
+ * La vista se actualiza con cada escritura de odontograma, por lo que leerla no
+ * depende del número de odontogramas.
+ */
+public interface LesionStatisticsRepository {
+    
+    /**
+     * Lee el recuento agregado actual
+     * @return Mono con las estadísticas
+     */
+    Mono<LesionStatistics> findStatistics();
+    
+    /**
+     * Recalcula la vista desde cero a partir de todos los odontogramas
+     * @return Mono con el número de odontogramas procesados
+     */
+    Mono<Long> rebuild();
+}
@@ -0,0 +1,32 @@
+package odoonto.application.port.out;
+
+import odoonto.domain.model.entities.MedicalEntry;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Página de entradas de un historial médico, ordenada de la más reciente a la más antigua.
+ * El cursor siguiente es nulo cuando no quedan más entradas.
+ */
+public final class MedicalEntryPage {
+    private final List<MedicalEntry> entries;
+    private final String nextCursor;
+    
+    public MedicalEntryPage(List<MedicalEntry> entries, String nextCursor) {
+        this.entries = entries != null ? Collections.unmodifiableList(entries) : Collections.emptyList();
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<MedicalEntry> getEntries() {
+        return entries;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,59 @@
+package odoonto.application.port.out;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros y posición de una lectura paginada de entradas de un historial médico.
+ * Las entradas se devuelven de la más reciente a la más antigua; los filtros nulos
+ * no se aplican y el cursor es el devuelto en la página anterior.
+ */
+public final class MedicalEntryQuery {
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final String doctorId;
+    private final String type;
+    private final String cursor;
+    private final int limit;
+    
+    /**
+     * @param from Inicio del rango de fechas (inclusive)
+     * @param to Fin del rango de fechas (exclusive)
+     * @param doctorId ID del doctor que registró la entrada
+     * @param type Tipo de entrada
+     * @param cursor Cursor opaco de la página anterior
+     * @param limit Número máximo de entradas de la página
+     */
+    public MedicalEntryQuery(LocalDateTime from, LocalDateTime to, String doctorId, String type,
+                             String cursor, int limit) {
+        this.from = from;
+        this.to = to;
+        this.doctorId = doctorId;
+        this.type = type;
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+    
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+}
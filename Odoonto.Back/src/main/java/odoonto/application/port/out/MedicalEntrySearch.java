@@ -0,0 +1,17 @@
+package odoonto.application.port.out;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Puerto de salida para la búsqueda de texto completo sobre las entradas de
+ * historial de toda la clínica
+ */
+public interface MedicalEntrySearch {
+    
+    /**
+     * Busca entradas cuyo texto (descripción, notas y tipo) cumple la consulta
+     * @param query Consulta, filtros y número máximo de resultados
+     * @return Flux con los resultados ordenados por relevancia
+     */
+    Flux<MedicalEntrySearchHit> search(MedicalEntrySearchQuery query);
+}
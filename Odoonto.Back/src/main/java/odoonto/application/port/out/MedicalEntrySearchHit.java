@@ -0,0 +1,64 @@
+package odoonto.application.port.out;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrada de historial encontrada por una búsqueda, con su puntuación de relevancia
+ */
+public final class MedicalEntrySearchHit {
+    private final String medicalRecordId;
+    private final String entryId;
+    private final String type;
+    private final String description;
+    private final String doctorId;
+    private final LocalDateTime recordedAt;
+    private final double score;
+    private final boolean truncated;
+    
+    public MedicalEntrySearchHit(String medicalRecordId, String entryId, String type, String description,
+                                 String doctorId, LocalDateTime recordedAt, double score, boolean truncated) {
+        this.medicalRecordId = medicalRecordId;
+        this.entryId = entryId;
+        this.type = type;
+        this.description = description;
+        this.doctorId = doctorId;
+        this.recordedAt = recordedAt;
+        this.score = score;
+        this.truncated = truncated;
+    }
+    
+    public String getMedicalRecordId() {
+        return medicalRecordId;
+    }
+    
+    public String getEntryId() {
+        return entryId;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+    
+    public double getScore() {
+        return score;
+    }
+    
+    /**
+     * @return true si la búsqueda tenía demasiadas coincidencias y solo se ordenaron las más recientes
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
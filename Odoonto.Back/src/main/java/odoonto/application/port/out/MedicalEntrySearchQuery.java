@@ -0,0 +1,51 @@
+package odoonto.application.port.out;
+
+import java.time.LocalDateTime;
+
+/**
+ * Consulta de texto completo sobre entradas de historial.
+ * El texto admite palabras (todas obligatorias), frases entre comillas, OR y
+ * exclusiones con NOT o guion; los filtros nulos no se aplican.
+ */
+public final class MedicalEntrySearchQuery {
+    private final String text;
+    private final String doctorId;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final int limit;
+    
+    /**
+     * @param text Texto de la consulta
+     * @param doctorId ID del doctor que registró la entrada
+     * @param from Inicio del rango de fechas (inclusive)
+     * @param to Fin del rango de fechas (exclusive)
+     * @param limit Número máximo de resultados
+     */
+    public MedicalEntrySearchQuery(String text, String doctorId, LocalDateTime from, LocalDateTime to, int limit) {
+        this.text = text;
+        this.doctorId = doctorId;
+        this.from = from;
+        this.to = to;
+        this.limit = limit;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    public String getDoctorId() {
+        return doctorId;
+    }
+    
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,23 @@
+package odoonto.application.port.out;
+
+import java.util.Map;
+
+/**
+ * Puerto de salida para los componentes que exponen métricas internas
+ * (contadores, latencias, tamaños de cola). Cada fuente publica una
+ * instantánea de sus valores bajo un nombre único.
+ */
+public interface MetricsSource {
+    
+    /**
+     * Nombre del grupo de métricas (por ejemplo "domainEvents")
+     * @return Nombre único de la fuente
+     */
+    String getMetricsName();
+    
+    /**
+     * Obtiene una instantánea de las métricas actuales
+     * @return Mapa nombre de métrica → valor
+     */
+    Map<String, Object> getMetricsSnapshot();
+}
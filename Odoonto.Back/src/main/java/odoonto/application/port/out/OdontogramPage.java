@@ -0,0 +1,32 @@
+package odoonto.application.port.out;
+
+import odoonto.domain.model.aggregates.Odontogram;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Página de odontogramas ordenada por ID.
+ * El cursor siguiente es nulo cuando no quedan más odontogramas.
+ */
+public final class OdontogramPage {
+    private final List<Odontogram> odontograms;
+    private final String nextCursor;
+    
+    public OdontogramPage(List<Odontogram> odontograms, String nextCursor) {
+        this.odontograms = odontograms != null ? Collections.unmodifiableList(odontograms) : Collections.emptyList();
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<Odontogram> getOdontograms() {
+        return odontograms;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
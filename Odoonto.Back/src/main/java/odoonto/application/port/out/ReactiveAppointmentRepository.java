@@ -6,6 +6,8 @@ import odoonto.domain.model.valueobjects.AppointmentStatus;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
 /**
  * Puerto de salida reactivo para el repositorio de citas.
  * Esta interfaz adapta el repositorio de dominio a una interfaz reactiva
@@ -21,14 +23,17 @@ public interface ReactiveAppointmentRepository {
     Mono<Appointment> findById(String id);
     
     /**
-     * Guarda una cita
+     * Guarda una cita reservando atómicamente las franjas del doctor que ocupa.
+     * Una cita sin ID se crea; si cualquiera de sus franjas ya está reservada por
+     * otra cita no se guarda nada y se devuelve AppointmentConflictException.
+     * Al cancelarla o moverla se liberan las franjas que deja de ocupar
      * @param appointment Cita a guardar
      * @return Cita guardada con su ID asignado
      */
     Mono<Appointment> save(Appointment appointment);
     
     /**
-     * Elimina una cita por su ID
+     * Elimina una cita por su ID y libera sus franjas reservadas
      * @param id ID de la cita a eliminar
      * @return Completable
      */
@@ -73,9 +78,41 @@ public interface ReactiveAppointmentRepository {
     Flux<Appointment> findByPatientIdAndDateRange(String patientId, String from, String to);
     
     /**
-     * Busca citas por estado
+     * Busca las citas cuyo inicio está dentro de una ventana temporal.
+     * La consulta se resuelve con un rango sobre el campo indexado de fecha/hora,
+     * por lo que solo se leen los documentos de la ventana solicitada.
+     * @param from Inicio de la ventana (inclusive)
+     * @param to Fin de la ventana (exclusivo)
+     * @return Flux de citas que empiezan dentro de la ventana
+     */
+    Flux<Appointment> findByDateTimeRange(LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Busca las citas de un doctor cuyo inicio está dentro de una ventana temporal
+     * @param doctorId ID del doctor
+     * @param from Inicio de la ventana (inclusive)
+     * @param to Fin de la ventana (exclusivo)
+     * @return Flux de citas del doctor que empiezan dentro de la ventana
+     */
+    Flux<Appointment> findByDoctorIdAndDateTimeRange(String doctorId, LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Busca citas por estado entre las citas no archivadas. Las completadas o
+     * canceladas ya archivadas se obtienen con {@link #findByStatusAndDateTimeRange}
      * @param status Estado de la cita
      * @return Flux de citas con el estado indicado
      */
     Flux<Appointment> findByStatus(AppointmentStatus status);
+    
+    /**
+     * Busca las citas de un estado cuyo inicio está dentro de una ventana temporal,
+     * por ejemplo las confirmadas de hoy o las canceladas de esta semana.
+     * Estado y fecha se guardan en un único campo indexado, por lo que solo se leen
+     * las citas que cumplen ambos criterios
+     * @param status Estado de la cita
+     * @param from Inicio de la ventana (inclusive)
+     * @param to Fin de la ventana (exclusivo)
+     * @return Flux de citas del estado indicado en orden cronológico
+     */
+    Flux<Appointment> findByStatusAndDateTimeRange(AppointmentStatus status, LocalDateTime from, LocalDateTime to);
 } 
\ No newline at end of file
@@ -0,0 +1,89 @@
+package odoonto.application.port.out;
+
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.aggregates.AppointmentSeries;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Puerto de salida reactivo para el repositorio de series de citas periódicas.
+ * Cada serie se guarda como un único documento con su regla; las citas concretas
+ * solo existen como reservas de franja y se calculan al consultarlas.
+ */
+public interface ReactiveAppointmentSeriesRepository {
+
+    /**
+     * Busca una serie por su ID
+     * @param id ID de la serie
+     * @return Serie encontrada o Empty si no existe
+     */
+    Mono<AppointmentSeries> findById(String id);
+
+    /**
+     * Crea una serie reservando atómicamente las franjas de todas sus citas.
+     * Las reservas se comprueban antes con una única lectura en bloque: si alguna
+     * cita choca con otra ya reservada no se guarda nada y se devuelve
+     * AppointmentConflictException con todas las fechas en conflicto
+     * @param series Serie nueva
+     * @return Serie creada
+     */
+    Mono<AppointmentSeries> create(AppointmentSeries series);
+
+    /**
+     * Guarda una serie existente y libera las franjas de las citas que ha dejado de tener
+     * @param series Serie modificada
+     * @return Serie guardada
+     */
+    Mono<AppointmentSeries> save(AppointmentSeries series);
+
+    /**
+     * Busca las series con alguna cita que empiece dentro de la ventana
+     * @param from Inicio de la ventana (inclusive)
+     * @param to Fin de la ventana (exclusivo)
+     * @return Flux de series
+     */
+    Flux<AppointmentSeries> findByDateTimeRange(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Busca las series de un doctor con alguna cita que empiece dentro de la ventana
+     * @param doctorId ID del doctor
+     * @param from Inicio de la ventana (inclusive)
+     * @param to Fin de la ventana (exclusivo)
+     * @return Flux de series del doctor
+     */
+    Flux<AppointmentSeries> findByDoctorIdAndDateTimeRange(String doctorId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Busca las series de un paciente
+     * @param patientId ID del paciente
+     * @return Flux de series del paciente
+     */
+    Flux<AppointmentSeries> findByPatientId(String patientId);
+
+    /**
+     * Calcula las citas de todas las series que empiezan dentro de la ventana
+     * @param from Inicio de la ventana (inclusive)
+     * @param to Fin de la ventana (exclusivo)
+     * @return Flux de citas calculadas
+     */
+    default Flux<Appointment> findOccurrencesByDateTimeRange(LocalDateTime from, LocalDateTime to) {
+        return findByDateTimeRange(from, to)
+                .flatMapIterable(series -> series.toAppointments(from, to));
+    }
+
+    /**
+     * Calcula las citas de las series de un doctor que empiezan dentro de la ventana
+     * @param doctorId ID del doctor
+     * @param from Inicio de la ventana (inclusive)
+     * @param to Fin de la ventana (exclusivo)
+     * @return Flux de citas calculadas
+     */
+    default Flux<Appointment> findOccurrencesByDoctorIdAndDateTimeRange(String doctorId, LocalDateTime from,
+                                                                        LocalDateTime to) {
+        return findByDoctorIdAndDateTimeRange(doctorId, from, to)
+                .flatMapIterable(series -> series.toAppointments(from, to));
+    }
+}
@@ -6,6 +6,8 @@ import odoonto.domain.model.valueobjects.Specialty;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.function.Consumer;
+
 /**
  * Puerto de salida reactivo para el repositorio de doctores.
  * Esta interfaz adapta el repositorio de dominio a una interfaz reactiva
@@ -27,6 +29,17 @@ public interface ReactiveDoctorRepository {
      */
     Mono<Doctor> save(Doctor doctor);
     
+    /**
+     * Lee el doctor, le aplica una modificación y lo guarda con una escritura
+     * condicionada; si otro cliente lo cambió entretanto, vuelve a leerlo y reaplica
+     * la modificación
+     * @param id ID del doctor
+     * @param mutation Modificación sobre el estado actual; puede ejecutarse varias veces
+     * y sus excepciones cancelan la actualización
+     * @return Doctor actualizado o Empty si no existe
+     */
+    Mono<Doctor> update(String id, Consumer<Doctor> mutation);
+    
     /**
      * Elimina un doctor por su ID
      * @param id ID del doctor a eliminar
@@ -82,7 +82,16 @@ public interface ReactiveMedicalRecordRepository {
      * @return Flux con las entradas realizadas por ese doctor
      */
     Flux<MedicalEntry> findEntriesByDoctor(MedicalRecordId medicalRecordId, String doctorId);
-    
+
+    /**
+     * Lee una página de entradas de la más reciente a la más antigua, aplicando
+     * los filtros de fecha, doctor y tipo en la consulta
+     * @param medicalRecordId ID del historial médico
+     * @param query Filtros, cursor y tamaño de página
+     * @return Mono con la página y el cursor de la siguiente
+     */
+    Mono<MedicalEntryPage> findEntries(MedicalRecordId medicalRecordId, MedicalEntryQuery query);
+
     /**
      * Actualiza una entrada específica
      * @param medicalRecordId ID del historial médico
@@ -1,14 +1,14 @@
 package odoonto.application.port.out;
 
 import odoonto.domain.model.aggregates.Odontogram;
-import odoonto.domain.model.entities.Tooth;
-import odoonto.domain.model.valueobjects.LesionType;
 import odoonto.domain.model.valueobjects.OdontogramId;
 import odoonto.domain.model.valueobjects.PatientId;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.function.Consumer;
+
 /**
  * Puerto de salida reactivo para el repositorio de odontogramas.
  * Esta interfaz adapta el repositorio de dominio a una interfaz reactiva
@@ -22,6 +22,14 @@ public interface ReactiveOdontogramRepository {
      */
     Flux<Odontogram> findAll();
     
+    /**
+     * Lee una página de odontogramas ordenados por ID
+     * @param cursor Cursor devuelto en la página anterior (null para la primera)
+     * @param limit Número máximo de odontogramas de la página
+     * @return Mono con la página y el cursor de la siguiente
+     */
+    Mono<OdontogramPage> findPage(String cursor, int limit);
+    
     /**
      * Busca un odontograma por su identificador
      * @param id Identificador único del odontograma
@@ -37,12 +45,26 @@ public interface ReactiveOdontogramRepository {
     Mono<Odontogram> findByPatientId(PatientId patientId);
     
     /**
-     * Guarda un odontograma en el repositorio
+     * Guarda un odontograma en el repositorio.
+     * La escritura está condicionada a que la versión almacenada coincida con la
+     * del odontograma; si otro cliente lo modificó entretanto, falla con
+     * ConcurrentUpdateException en lugar de sobrescribir sus cambios
      * @param odontogram Odontograma a guardar
      * @return Mono con el odontograma guardado
      */
     Mono<Odontogram> save(Odontogram odontogram);
     
+    /**
+     * Lee el odontograma, le aplica una modificación y lo guarda con una escritura
+     * condicionada, conservando una copia histórica del estado anterior.
+     * Si otro cliente lo modificó entre la lectura y la escritura, vuelve a leerlo y
+     * reaplica la modificación hasta agotar los reintentos configurados
+     * @param id Identificador único del odontograma
+     * @param mutation Modificación a aplicar sobre el estado actual; puede ejecutarse varias veces
+     * @return Mono con el odontograma actualizado o empty si no existe
+     */
+    Mono<Odontogram> update(OdontogramId id, Consumer<Odontogram> mutation);
+    
     /**
      * Elimina un odontograma por su identificador
      * @param id Identificador único del odontograma
@@ -51,11 +73,13 @@ public interface ReactiveOdontogramRepository {
     Mono<Void> deleteById(OdontogramId id);
     
     /**
-     * Busca odontogramas que contienen un tipo específico de lesión
-     * @param lesionType Tipo de lesión a buscar
-     * @return Flux con los odontogramas que contienen el tipo de lesión especificado
+     * Busca los pacientes cuyo odontograma contiene un tipo de lesión (opcionalmente
+     * en un diente o cara concretos), a partir del índice por tipo de lesión y sin
+     * leer los odontogramas
+     * @param query Tipo de lesión, filtros, cursor y tamaño de página
+     * @return Mono con la página de IDs de pacientes y el cursor de la siguiente
      */
-    Flux<Odontogram> findByLesionType(LesionType lesionType);
+    Mono<LesionPatientPage> findByLesionType(LesionIndexQuery query);
     
     /**
      * Verifica si existe un odontograma para el paciente especificado
@@ -93,42 +117,6 @@ public interface ReactiveOdontogramRepository {
      */
     Mono<Odontogram> findHistoricalByPatientIdAndVersion(PatientId patientId, String version);
     
-    /**
-     * Actualiza un diente específico en el odontograma de un paciente
-     * @param patientId ID del paciente
-     * @param toothNumber Número del diente
-     * @param tooth Diente actualizado
-     * @return Mono con true si se actualizó correctamente
-     */
-    Mono<Boolean> updateTooth(String patientId, String toothNumber, Tooth tooth);
-    
-    /**
-     * Elimina una lesión específica de un diente en un odontograma por ID
-     * @param odontogramId ID del odontograma
-     * @param toothNumber Número del diente
-     * @param lesionId ID de la lesión a eliminar
-     * @return Mono que completa cuando la operación termina
-     */
-    Mono<Void> removeLesion(String odontogramId, String toothNumber, String lesionId);
-    
-    /**
-     * Añade un tratamiento a un diente en un odontograma
-     * @param odontogramId ID del odontograma
-     * @param toothNumber Número del diente
-     * @param treatmentData Datos del tratamiento a añadir
-     * @return Mono que completa cuando la operación termina
-     */
-    Mono<Void> addTreatment(String odontogramId, String toothNumber, Object treatmentData);
-    
-    /**
-     * Elimina un tratamiento específico de un diente en un odontograma
-     * @param odontogramId ID del odontograma
-     * @param toothNumber Número del diente
-     * @param treatmentId ID del tratamiento a eliminar
-     * @return Mono que completa cuando la operación termina
-     */
-    Mono<Void> removeTreatment(String odontogramId, String toothNumber, String treatmentId);
-    
     /* 
      * Métodos de compatibilidad con String
      */
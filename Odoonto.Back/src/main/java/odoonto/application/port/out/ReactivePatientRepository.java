@@ -6,6 +6,8 @@ import odoonto.domain.model.valueobjects.PatientId;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 /**
  * Puerto de salida reactivo para el repositorio de pacientes.
  * Define las operaciones reactivas para acceder y manipular pacientes
@@ -33,6 +35,13 @@ public interface ReactivePatientRepository {
      */
     Mono<Patient> findById(PatientId patientId);
     
+    /**
+     * Busca varios pacientes por sus identificadores con lecturas agrupadas
+     * @param ids Identificadores de los pacientes
+     * @return Flux con los pacientes que existen, sin orden garantizado
+     */
+    Flux<Patient> findAllById(Collection<String> ids);
+    
     /**
      * Guarda un paciente en el repositorio
      * @param patient Paciente a guardar
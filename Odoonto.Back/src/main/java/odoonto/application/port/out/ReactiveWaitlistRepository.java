@@ -0,0 +1,59 @@
+package odoonto.application.port.out;
+
+import odoonto.domain.model.aggregates.Doctor;
+import odoonto.domain.model.aggregates.WaitlistEntry;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Puerto de salida reactivo para el repositorio de la lista de espera.
+ * Las solicitudes en lista se indexan por doctor y día y por especialidad y día,
+ * de modo que buscar candidatos para un hueco no recorre toda la lista.
+ */
+public interface ReactiveWaitlistRepository {
+
+    /**
+     * Busca una solicitud por su ID
+     * @param id ID de la solicitud
+     * @return Solicitud encontrada o Empty si no existe
+     */
+    Mono<WaitlistEntry> findById(String id);
+
+    /**
+     * Guarda una solicitud nueva y la añade al índice
+     * @param entry Solicitud a guardar
+     * @return Solicitud guardada
+     */
+    Mono<WaitlistEntry> create(WaitlistEntry entry);
+
+    /**
+     * Lee la solicitud, le aplica una modificación y la guarda con una escritura
+     * condicionada; si otro cliente la cambió entretanto, vuelve a leerla y reaplica
+     * la modificación. El índice se actualiza solo cuando la escritura se confirma
+     * @param id ID de la solicitud
+     * @param mutation Modificación sobre el estado actual; puede ejecutarse varias veces
+     * y sus excepciones cancelan la actualización
+     * @return Solicitud actualizada o Empty si no existe
+     */
+    Mono<WaitlistEntry> update(String id, Consumer<WaitlistEntry> mutation);
+
+    /**
+     * Busca las solicitudes de un paciente
+     * @param patientId ID del paciente
+     * @return Flux de solicitudes del paciente
+     */
+    Flux<WaitlistEntry> findByPatientId(String patientId);
+
+    /**
+     * Busca las solicitudes en lista que aceptan una fecha con el doctor, ya sea por
+     * pedirlo a él o a su especialidad
+     * @param doctor Doctor del hueco
+     * @param date Fecha del hueco
+     * @return Flux de solicitudes en orden de prioridad
+     */
+    Flux<WaitlistEntry> findCandidates(Doctor doctor, LocalDate date);
+}
@@ -0,0 +1,21 @@
+package odoonto.application.port.out;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Puerto de salida para enviar recordatorios de citas (SMS, correo...) por lotes.
+ * El proveedor puede aceptar solo parte de un lote: el envío devuelve las claves
+ * aceptadas y únicamente el resto se vuelve a intentar.
+ */
+public interface ReminderSender {
+
+    /**
+     * Envía un lote de recordatorios
+     * @param reminders Recordatorios del lote
+     * @return Mono con las claves de los recordatorios que el proveedor ha aceptado
+     */
+    Mono<Set<String>> send(List<AppointmentReminder> reminders);
+}
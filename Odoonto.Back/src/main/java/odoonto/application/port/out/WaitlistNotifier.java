@@ -0,0 +1,19 @@
+package odoonto.application.port.out;
+
+import odoonto.domain.model.aggregates.WaitlistEntry;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Puerto de salida para avisar a un paciente de que se le ofrece un hueco de la
+ * lista de espera (SMS, correo, notificación push...)
+ */
+public interface WaitlistNotifier {
+
+    /**
+     * Envía la oferta en curso de una solicitud
+     * @param entry Solicitud con la oferta ya registrada
+     * @return Mono que completa cuando se ha enviado el aviso
+     */
+    Mono<Void> notifyOffer(WaitlistEntry entry);
+}
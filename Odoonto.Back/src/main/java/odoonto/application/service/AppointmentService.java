@@ -1,6 +1,5 @@
 package odoonto.application.service;
 
-import odoonto.domain.model.aggregates.Appointment;
 import odoonto.domain.model.aggregates.Patient;
 import odoonto.domain.model.aggregates.Doctor;
 import odoonto.application.dto.response.AppointmentDTO;
@@ -19,9 +18,6 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-
 /**
  * Servicio de aplicación para gestionar citas
  * Implementación completamente reactiva
@@ -33,17 +29,20 @@ public class AppointmentService {
     private final ReactivePatientRepository patientRepository;
     private final ReactiveDoctorRepository doctorRepository;
     private final AppointmentMapper appointmentMapper;
+    private final ReactiveAppointmentValidationService validationService;
 
     @Autowired
     public AppointmentService(
             ReactiveAppointmentRepository appointmentRepository,
             ReactivePatientRepository patientRepository,
             ReactiveDoctorRepository doctorRepository,
-            AppointmentMapper appointmentMapper) {
+            AppointmentMapper appointmentMapper,
+            ReactiveAppointmentValidationService validationService) {
         this.appointmentRepository = appointmentRepository;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
         this.appointmentMapper = appointmentMapper;
+        this.validationService = validationService;
     }
 
     /**
@@ -68,7 +67,10 @@ public class AppointmentService {
     }
 
     /**
-     * Crea una nueva cita con validación de solapamientos
+     * Crea una nueva cita con validación de solapamientos.
+     * La existencia del paciente y del doctor y la búsqueda de solapamientos se
+     * lanzan a la vez; la garantía frente a reservas simultáneas del mismo hueco
+     * la da el repositorio al reclamar las franjas en la misma escritura que la cita
      * @param createDTO DTO con los datos de la cita
      * @return Mono con el DTO de la cita creada
      * @throws PatientNotFoundException si no se encuentra el paciente
@@ -83,36 +85,12 @@ public class AppointmentService {
         Mono<Doctor> doctorMono = doctorRepository.findById(createDTO.getDoctorId())
                 .switchIfEmpty(Mono.error(new DoctorNotFoundException(createDTO.getDoctorId())));
         
-        // Esperar a que ambos existan
-        return Mono.zip(patientMono, doctorMono)
-                .flatMap(tuple -> {
-                    // Convertir a entidad de dominio
-                    Appointment appointment = appointmentMapper.toEntity(createDTO);
-                    
-                    // Verificar solapamientos
-                    LocalDateTime startTime = appointment.getStartAsLocalDateTime();
-                    LocalDateTime endTime = startTime.plusMinutes(appointment.getDuration());
-                    
-                    // Buscar citas en el mismo rango de tiempo para el doctor
-                    String fromInstant = startTime.atZone(ZoneId.systemDefault()).toInstant().toString();
-                    String toInstant = endTime.atZone(ZoneId.systemDefault()).toInstant().toString();
-                    
-                    return appointmentRepository.findByDoctorIdAndDateRange(
-                            appointment.getDoctorId(), fromInstant, toInstant)
-                            .collectList()
-                            .flatMap(conflictingAppointments -> {
-                                if (!conflictingAppointments.isEmpty()) {
-                                    return Mono.error(new AppointmentConflictException(
-                                            "Ya existe una cita para el doctor en ese horario"));
-                                }
-                                
-                                // Guardar la cita
-                                return appointmentRepository.save(appointment);
-                            });
-                })
+        return Mono.fromCallable(() -> appointmentMapper.toEntity(createDTO))
+                .flatMap(appointment -> Mono.when(patientMono, doctorMono, validationService.checkNoOverlap(appointment))
+                        .then(Mono.defer(() -> appointmentRepository.save(appointment))))
                 .map(appointmentMapper::toDTO);
     }
-
+    
     /**
      * Actualiza una cita existente
      * @param id ID de la cita a actualizar
@@ -186,21 +186,11 @@ public class OdontogramService {
             
             PatientId id = PatientId.of(patientId);
             
-            // Obtener, modificar y guardar el odontograma
-            return odontogramRepository.findByPatientId(id)
+            // Añadir la lesión sobre el estado actual; el repositorio guarda la copia
+            // histórica y reaplica el cambio si otro usuario editó el odontograma a la vez
+            return odontogramRepository.update(OdontogramId.fromPatientId(id),
+                            odontogram -> odontogram.addLesion(toothId, face, lesionType))
                     .switchIfEmpty(Mono.error(new PatientNotFoundException("No se encontró el odontograma para el paciente con ID " + patientId)))
-                    .flatMap(odontogram -> {
-                        // Crear copia histórica antes de modificar
-                        return odontogramRepository.createHistoricalCopy(odontogram.getId())
-                                .then(Mono.just(odontogram));
-                    })
-                    .flatMap(odontogram -> {
-                        // Añadir la lesión
-                        odontogram.addLesion(toothId, face, lesionType);
-                        
-                        // Guardar el odontograma actualizado
-                        return odontogramRepository.save(odontogram);
-                    })
                     .map(odontogramMapper::toDTO);
             
         } catch (IllegalArgumentException e) {
@@ -253,21 +243,10 @@ public class OdontogramService {
             ToothFace face = ToothFace.fromCodigo(faceCode);
             PatientId id = PatientId.of(patientId);
             
-            // Obtener, modificar y guardar el odontograma
-            return odontogramRepository.findByPatientId(id)
+            // Eliminar la lesión sobre el estado actual, con copia histórica y reintentos
+            return odontogramRepository.update(OdontogramId.fromPatientId(id),
+                            odontogram -> odontogram.removeLesion(toothId, face))
                     .switchIfEmpty(Mono.error(new PatientNotFoundException("No se encontró el odontograma para el paciente con ID " + patientId)))
-                    .flatMap(odontogram -> {
-                        // Crear copia histórica antes de modificar
-                        return odontogramRepository.createHistoricalCopy(odontogram.getId())
-                                .then(Mono.just(odontogram));
-                    })
-                    .flatMap(odontogram -> {
-                        // Eliminar la lesión
-                        odontogram.removeLesion(toothId, face);
-                        
-                        // Guardar el odontograma actualizado
-                        return odontogramRepository.save(odontogram);
-                    })
                     .map(odontogramMapper::toDTO);
             
         } catch (IllegalArgumentException e) {
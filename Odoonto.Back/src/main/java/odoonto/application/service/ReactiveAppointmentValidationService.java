@@ -1,5 +1,6 @@
 package odoonto.application.service;
 
+import odoonto.application.exceptions.AppointmentConflictException;
 import odoonto.application.port.out.ReactiveAppointmentRepository;
 import odoonto.application.port.out.ReactiveDoctorRepository;
 import odoonto.domain.exceptions.AppointmentOverlapException;
@@ -7,7 +8,9 @@ import odoonto.domain.exceptions.DomainException;
 import odoonto.domain.exceptions.InvalidAppointmentTimeException;
 import odoonto.domain.model.aggregates.Appointment;
 
+import odoonto.domain.model.valueobjects.AppointmentStatus;
 import odoonto.domain.model.valueobjects.AppointmentTime;
+import odoonto.domain.model.valueobjects.DoctorAvailability;
 
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
@@ -52,7 +55,7 @@ public class ReactiveAppointmentValidationService {
      */
     public Mono<Void> validateNewAppointment(String doctorId, LocalDateTime dateTime, int durationMinutes) {
         return validateAppointmentTime(dateTime, durationMinutes)
-                .then(validateDoctorAvailability(doctorId, dateTime))
+                .then(validateDoctorAvailability(doctorId, dateTime, durationMinutes))
                 .then(checkForOverlappingAppointments(doctorId, dateTime, durationMinutes, null));
     }
     
@@ -67,10 +70,29 @@ public class ReactiveAppointmentValidationService {
     public Mono<Void> validateAppointmentUpdate(
             String appointmentId, String doctorId, LocalDateTime dateTime, int durationMinutes) {
         return validateAppointmentTime(dateTime, durationMinutes)
-                .then(validateDoctorAvailability(doctorId, dateTime))
+                .then(validateDoctorAvailability(doctorId, dateTime, durationMinutes))
                 .then(checkForOverlappingAppointments(doctorId, dateTime, durationMinutes, appointmentId));
     }
     
+    /**
+     * Comprueba que la cita no solapa con otra activa del mismo doctor ese día. Es una
+     * comprobación previa para responder pronto; la garantía frente a reservas simultáneas
+     * del mismo hueco la da el repositorio al reclamar las franjas al guardar
+     * @param appointment Cita a comprobar
+     * @return Mono vacío o error AppointmentConflictException
+     */
+    public Mono<Void> checkNoOverlap(Appointment appointment) {
+        LocalDate day = appointment.getDateTime().toLocalDate();
+        return appointmentRepository.findByDoctorIdAndDateTimeRange(
+                        appointment.getDoctorId(), day.atStartOfDay(), day.plusDays(1).atStartOfDay())
+                .filter(existing -> existing.getStatus() != AppointmentStatus.CANCELADA)
+                .any(existing -> existing.overlapsWith(appointment))
+                .flatMap(overlaps -> overlaps
+                        ? Mono.error(new AppointmentConflictException(
+                                appointment.getDoctorId(), appointment.getDateTime().toString()))
+                        : Mono.<Void>empty());
+    }
+
     /**
      * Valida el formato y reglas básicas de tiempo para una cita
      */
@@ -134,15 +156,19 @@ public class ReactiveAppointmentValidationService {
     }
     
     /**
-     * Valida que el doctor esté disponible en la fecha y hora especificada
+     * Valida que el doctor atienda durante toda la cita, según su horario y sus excepciones
      */
-    private Mono<Void> validateDoctorAvailability(String doctorId, LocalDateTime dateTime) {
+    private Mono<Void> validateDoctorAvailability(String doctorId, LocalDateTime dateTime, int durationMinutes) {
         return doctorRepository.findById(doctorId)
                 .switchIfEmpty(Mono.error(new DomainException("Doctor no encontrado con ID: " + doctorId)))
                 .flatMap(doctor -> {
-                    if (!doctor.worksOnDate(dateTime.toLocalDate())) {
+                    DoctorAvailability availability = doctor.getDisponibilidad();
+                    if (!availability.worksOn(dateTime.toLocalDate())) {
                         return Mono.error(new DomainException("El doctor no atiende en esa fecha: " + dateTime.toLocalDate()));
                     }
+                    if (!availability.isAvailable(dateTime, durationMinutes)) {
+                        return Mono.error(new DomainException("La cita queda fuera del horario del doctor: " + dateTime));
+                    }
                     return Mono.empty();
                 });
     }
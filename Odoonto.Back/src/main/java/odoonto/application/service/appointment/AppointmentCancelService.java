@@ -3,6 +3,8 @@ package odoonto.application.service.appointment;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import odoonto.application.dto.response.AppointmentDTO;
+import odoonto.application.mapper.AppointmentMapper;
 import odoonto.application.port.in.appointment.AppointmentCancelUseCase;
 import odoonto.application.port.out.ReactiveAppointmentRepository;
 import odoonto.domain.exceptions.DomainException;
@@ -10,20 +12,26 @@ import odoonto.domain.model.valueobjects.AppointmentStatus;
 import reactor.core.publisher.Mono;
 
 /**
- * Implementación del caso de uso para cancelar una cita
+ * Implementación del caso de uso para cancelar una cita.
+ * El cambio de estado lo decide el agregado; al guardarla se liberan sus franjas,
+ * se ajustan los recuentos por día y se emite el evento que avisa a la lista de espera
  */
 @Service
 public class AppointmentCancelService implements AppointmentCancelUseCase {
 
     private final ReactiveAppointmentRepository appointmentRepository;
+    private final AppointmentMapper appointmentMapper;
 
     @Autowired
-    public AppointmentCancelService(ReactiveAppointmentRepository appointmentRepository) {
+    public AppointmentCancelService(
+            ReactiveAppointmentRepository appointmentRepository,
+            AppointmentMapper appointmentMapper) {
         this.appointmentRepository = appointmentRepository;
+        this.appointmentMapper = appointmentMapper;
     }
 
     @Override
-    public Mono<Void> cancelAppointment(String appointmentId) {
+    public Mono<AppointmentDTO> cancelAppointment(String appointmentId, String reason) {
         // Validaciones básicas
         if (appointmentId == null || appointmentId.trim().isEmpty()) {
             return Mono.error(new DomainException("El ID de la cita no puede ser nulo o vacío"));
@@ -38,17 +46,14 @@ public class AppointmentCancelService implements AppointmentCancelUseCase {
                     return Mono.error(new DomainException("La cita ya está cancelada"));
                 }
                 
-                // Verificar si la cita ya está completada
-                if (appointment.getStatus() == AppointmentStatus.COMPLETADA) {
-                    return Mono.error(new DomainException("No se puede cancelar una cita que ya está completada"));
+                if (!appointment.cancelar(reason)) {
+                    return Mono.error(new DomainException(
+                        "No se puede cancelar una cita en estado " + appointment.getStatus().getDescripcion()));
                 }
                 
-                // Cambiar el estado de la cita a cancelada
-                appointment.setStatus(AppointmentStatus.CANCELADA);
-                
                 // Guardar los cambios
                 return appointmentRepository.save(appointment);
             })
-            .then();
+            .map(appointmentMapper::toDTO);
     }
-} 
\ No newline at end of file
+}
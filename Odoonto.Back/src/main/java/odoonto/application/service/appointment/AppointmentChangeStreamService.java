@@ -0,0 +1,75 @@
+package odoonto.application.service.appointment;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import odoonto.application.dto.response.AppointmentChangeDTO;
+import odoonto.application.mapper.AppointmentMapper;
+import odoonto.application.port.in.appointment.AppointmentChangeStreamUseCase;
+import odoonto.application.port.out.AppointmentChange;
+import odoonto.application.port.out.AppointmentChangeFeed;
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.aggregates.Appointment;
+
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.function.Predicate;
+
+/**
+ * Implementación del caso de uso para seguir los cambios de citas.
+ * Los borrados solo llevan el ID de la cita, así que se entregan a todos los
+ * suscriptores: el cliente ignora los IDs que no tiene en pantalla.
+ */
+@Service
+public class AppointmentChangeStreamService implements AppointmentChangeStreamUseCase {
+
+    private final AppointmentChangeFeed changeFeed;
+    private final AppointmentMapper appointmentMapper;
+
+    @Autowired
+    public AppointmentChangeStreamService(
+            AppointmentChangeFeed changeFeed,
+            AppointmentMapper appointmentMapper) {
+        this.changeFeed = changeFeed;
+        this.appointmentMapper = appointmentMapper;
+    }
+
+    @Override
+    public Flux<AppointmentChangeDTO> streamChanges(String doctorId, LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            return Flux.error(new DomainException("La fecha final no puede ser anterior a la inicial"));
+        }
+        
+        return changeFeed.subscribe(buildFilter(doctorId, from, to))
+                .map(this::toDTO);
+    }
+
+    private Predicate<AppointmentChange> buildFilter(String doctorId, LocalDate from, LocalDate to) {
+        boolean filterByDoctor = doctorId != null && !doctorId.trim().isEmpty();
+        
+        return change -> {
+            Appointment appointment = change.getAppointment();
+            if (appointment == null) {
+                return true;
+            }
+            if (filterByDoctor && !doctorId.equals(appointment.getDoctorId())) {
+                return false;
+            }
+            LocalDate day = appointment.getDateTime() != null ? appointment.getDateTime().toLocalDate() : null;
+            if (day == null) {
+                return from == null && to == null;
+            }
+            return (from == null || !day.isBefore(from)) && (to == null || !day.isAfter(to));
+        };
+    }
+
+    private AppointmentChangeDTO toDTO(AppointmentChange change) {
+        return new AppointmentChangeDTO(
+                change.getSequence(),
+                change.getType().name(),
+                change.getAppointmentId(),
+                change.getOccurredAt().toString(),
+                appointmentMapper.toDTO(change.getAppointment()));
+    }
+}
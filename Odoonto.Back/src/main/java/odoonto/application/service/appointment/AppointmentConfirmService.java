@@ -0,0 +1,55 @@
+package odoonto.application.service.appointment;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import odoonto.application.dto.response.AppointmentDTO;
+import odoonto.application.mapper.AppointmentMapper;
+import odoonto.application.port.in.appointment.AppointmentConfirmUseCase;
+import odoonto.application.port.out.ReactiveAppointmentRepository;
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementación del caso de uso para confirmar una cita
+ */
+@Service
+public class AppointmentConfirmService implements AppointmentConfirmUseCase {
+
+    private final ReactiveAppointmentRepository appointmentRepository;
+    private final AppointmentMapper appointmentMapper;
+
+    @Autowired
+    public AppointmentConfirmService(
+            ReactiveAppointmentRepository appointmentRepository,
+            AppointmentMapper appointmentMapper) {
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentMapper = appointmentMapper;
+    }
+
+    @Override
+    public Mono<AppointmentDTO> confirmAppointment(String appointmentId) {
+        // Validaciones básicas
+        if (appointmentId == null || appointmentId.trim().isEmpty()) {
+            return Mono.error(new DomainException("El ID de la cita no puede ser nulo o vacío"));
+        }
+        
+        return appointmentRepository.findById(appointmentId)
+            .switchIfEmpty(Mono.error(new DomainException("No existe una cita con el ID: " + appointmentId)))
+            .flatMap(appointment -> {
+                // Confirmar dos veces no cambia nada
+                if (appointment.getStatus() == AppointmentStatus.CONFIRMADA) {
+                    return Mono.just(appointment);
+                }
+                
+                if (!appointment.confirmar()) {
+                    return Mono.error(new DomainException(
+                        "No se puede confirmar una cita en estado " + appointment.getStatus().getDescripcion()));
+                }
+                
+                return appointmentRepository.save(appointment);
+            })
+            .map(appointmentMapper::toDTO);
+    }
+}
@@ -10,8 +10,8 @@ import odoonto.application.port.in.appointment.AppointmentCreateUseCase;
 import odoonto.application.port.out.ReactiveAppointmentRepository;
 import odoonto.application.port.out.ReactiveDoctorRepository;
 import odoonto.application.port.out.ReactivePatientRepository;
+import odoonto.application.service.ReactiveAppointmentValidationService;
 import odoonto.domain.exceptions.DomainException;
-import odoonto.domain.model.aggregates.Appointment;
 import reactor.core.publisher.Mono;
 
 /**
@@ -24,17 +24,20 @@ public class AppointmentCreateService implements AppointmentCreateUseCase {
     private final ReactiveDoctorRepository doctorRepository;
     private final ReactivePatientRepository patientRepository;
     private final AppointmentMapper appointmentMapper;
+    private final ReactiveAppointmentValidationService validationService;
 
     @Autowired
     public AppointmentCreateService(
             ReactiveAppointmentRepository appointmentRepository,
             ReactiveDoctorRepository doctorRepository,
             ReactivePatientRepository patientRepository,
-            AppointmentMapper appointmentMapper) {
+            AppointmentMapper appointmentMapper,
+            ReactiveAppointmentValidationService validationService) {
         this.appointmentRepository = appointmentRepository;
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
         this.appointmentMapper = appointmentMapper;
+        this.validationService = validationService;
     }
 
     @Override
@@ -44,20 +47,17 @@ public class AppointmentCreateService implements AppointmentCreateUseCase {
             return Mono.error(new DomainException("Los datos de la cita no pueden ser nulos"));
         }
         
-        // Verificar que el doctor y el paciente existen
-        return Mono.zip(
-            doctorRepository.findById(appointmentCreateDTO.getDoctorId())
-                .switchIfEmpty(Mono.error(new DomainException("No existe un doctor con el ID: " + appointmentCreateDTO.getDoctorId()))),
-            patientRepository.findById(appointmentCreateDTO.getPatientId())
-                .switchIfEmpty(Mono.error(new DomainException("No existe un paciente con el ID: " + appointmentCreateDTO.getPatientId())))
-        )
-        .flatMap(tuple -> {
-            // Convertir DTO a entidad de dominio
-            Appointment appointment = appointmentMapper.toEntity(appointmentCreateDTO);
-            
+        // Verificar a la vez que el doctor y el paciente existen y que el hueco está libre;
+        // el repositorio reserva las franjas de forma atómica al guardar
+        Mono<?> doctorExists = doctorRepository.findById(appointmentCreateDTO.getDoctorId())
+            .switchIfEmpty(Mono.error(new DomainException("No existe un doctor con el ID: " + appointmentCreateDTO.getDoctorId())));
+        Mono<?> patientExists = patientRepository.findById(appointmentCreateDTO.getPatientId())
+            .switchIfEmpty(Mono.error(new DomainException("No existe un paciente con el ID: " + appointmentCreateDTO.getPatientId())));
+        
+        return Mono.fromCallable(() -> appointmentMapper.toEntity(appointmentCreateDTO))
+        .flatMap(appointment -> Mono.when(doctorExists, patientExists, validationService.checkNoOverlap(appointment))
             // Guardar la cita
-            return appointmentRepository.save(appointment);
-        })
+            .then(Mono.defer(() -> appointmentRepository.save(appointment))))
         .map(appointmentMapper::toDTO);
     }
-} 
\ No newline at end of file
+}
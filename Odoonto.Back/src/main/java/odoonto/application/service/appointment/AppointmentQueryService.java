@@ -7,10 +7,14 @@ import odoonto.application.dto.response.AppointmentDTO;
 import odoonto.application.mapper.AppointmentMapper;
 import odoonto.application.port.in.appointment.AppointmentQueryUseCase;
 import odoonto.application.port.out.ReactiveAppointmentRepository;
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+
 /**
  * Implementación del caso de uso para consultar citas
  */
@@ -63,4 +67,32 @@ public class AppointmentQueryService implements AppointmentQueryUseCase {
         return appointmentRepository.findByDoctorId(doctorId)
             .map(appointmentMapper::toDTO);
     }
-} 
\ No newline at end of file
+
+    @Override
+    public Flux<AppointmentDTO> findByStatusAndDateRange(String status, LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start;
+        if (end.isBefore(start)) {
+            return Flux.error(new DomainException("La fecha final no puede ser anterior a la inicial"));
+        }
+        
+        return Mono.fromCallable(() -> parseStatus(status))
+            .flatMapMany(appointmentStatus -> appointmentRepository.findByStatusAndDateTimeRange(
+                appointmentStatus, start.atStartOfDay(), end.plusDays(1).atStartOfDay()))
+            .map(appointmentMapper::toDTO);
+    }
+    
+    private AppointmentStatus parseStatus(String status) {
+        if (status == null || status.trim().isEmpty()) {
+            throw new DomainException("El estado de la cita no puede estar vacío");
+        }
+        
+        String value = status.trim().toUpperCase();
+        for (AppointmentStatus appointmentStatus : AppointmentStatus.values()) {
+            if (appointmentStatus.name().equals(value) || appointmentStatus.getCodigo().equals(value)) {
+                return appointmentStatus;
+            }
+        }
+        throw new DomainException("Estado de cita no válido: " + status);
+    }
+}
@@ -0,0 +1,208 @@
+package odoonto.application.service.appointment;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import odoonto.application.dto.request.AppointmentRescheduleDTO;
+import odoonto.application.dto.request.DoctorDayRescheduleDTO;
+import odoonto.application.dto.response.AppointmentDTO;
+import odoonto.application.dto.response.RescheduleResultDTO;
+import odoonto.application.exceptions.AppointmentConflictException;
+import odoonto.application.exceptions.DoctorNotFoundException;
+import odoonto.application.mapper.AppointmentMapper;
+import odoonto.application.port.in.appointment.AppointmentRescheduleUseCase;
+import odoonto.application.port.out.ReactiveAppointmentRepository;
+import odoonto.application.port.out.ReactiveAppointmentSeriesRepository;
+import odoonto.application.port.out.ReactiveDoctorRepository;
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.aggregates.Appointment;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación del caso de uso para reprogramar citas.
+ * El horario del doctor y las citas del día destino se leen una sola vez y el hueco
+ * se valida en memoria; el repositorio libera las franjas antiguas y reclama las
+ * nuevas en la misma transacción, por lo que una reserva simultánea del hueco
+ * destino hace fallar la reprogramación sin dejar la cita a medias.
+ */
+@Service
+public class AppointmentRescheduleService implements AppointmentRescheduleUseCase {
+
+    private final ReactiveAppointmentRepository appointmentRepository;
+    private final ReactiveAppointmentSeriesRepository seriesRepository;
+    private final ReactiveDoctorRepository doctorRepository;
+    private final AppointmentMapper appointmentMapper;
+
+    @Autowired
+    public AppointmentRescheduleService(
+            ReactiveAppointmentRepository appointmentRepository,
+            ReactiveAppointmentSeriesRepository seriesRepository,
+            ReactiveDoctorRepository doctorRepository,
+            AppointmentMapper appointmentMapper) {
+        this.appointmentRepository = appointmentRepository;
+        this.seriesRepository = seriesRepository;
+        this.doctorRepository = doctorRepository;
+        this.appointmentMapper = appointmentMapper;
+    }
+
+    @Override
+    public Mono<AppointmentDTO> rescheduleAppointment(String appointmentId, AppointmentRescheduleDTO rescheduleDTO) {
+        // Validaciones básicas
+        if (appointmentId == null || appointmentId.trim().isEmpty()) {
+            return Mono.error(new DomainException("El ID de la cita no puede ser nulo o vacío"));
+        }
+
+        if (rescheduleDTO == null || rescheduleDTO.getDate() == null || rescheduleDTO.getTime() == null) {
+            return Mono.error(new DomainException("La nueva fecha y hora son obligatorias"));
+        }
+
+        return appointmentRepository.findById(appointmentId)
+            .switchIfEmpty(Mono.error(new DomainException("No existe una cita con el ID: " + appointmentId)))
+            .flatMap(appointment -> {
+                String targetDoctorId = rescheduleDTO.getDoctorId() != null && !rescheduleDTO.getDoctorId().trim().isEmpty()
+                    ? rescheduleDTO.getDoctorId()
+                    : appointment.getDoctorId();
+                LocalTime newTime = rescheduleDTO.getTime();
+
+                return loadOccupancy(targetDoctorId, rescheduleDTO.getDate(), Collections.singleton(appointment.getId()))
+                    .flatMap(occupancy -> {
+                        if (!occupancy.isWithinSchedule(newTime, appointment.getDurationSlots())) {
+                            return Mono.error(new DomainException(
+                                "El nuevo horario está fuera de la jornada del doctor"));
+                        }
+                        if (!occupancy.fits(newTime, appointment.getDurationSlots())) {
+                            return Mono.error(new AppointmentConflictException(
+                                targetDoctorId, LocalDateTime.of(rescheduleDTO.getDate(), newTime).toString()));
+                        }
+
+                        applyReschedule(appointment, LocalDateTime.of(rescheduleDTO.getDate(), newTime),
+                            targetDoctorId, rescheduleDTO.getReason());
+
+                        // Guardar: libera las franjas antiguas y reclama las nuevas de forma atómica
+                        return appointmentRepository.save(appointment);
+                    });
+            })
+            .map(appointmentMapper::toDTO);
+    }
+
+    @Override
+    public Flux<RescheduleResultDTO> rescheduleDoctorDay(String doctorId, LocalDate date, DoctorDayRescheduleDTO rescheduleDTO) {
+        // Validaciones básicas
+        if (doctorId == null || doctorId.trim().isEmpty()) {
+            return Flux.error(new DomainException("El ID del doctor no puede ser nulo o vacío"));
+        }
+
+        if (date == null) {
+            return Flux.error(new DomainException("La fecha es obligatoria"));
+        }
+
+        DoctorDayRescheduleDTO options = rescheduleDTO != null ? rescheduleDTO : new DoctorDayRescheduleDTO();
+        String targetDoctorId = options.getTargetDoctorId() != null && !options.getTargetDoctorId().trim().isEmpty()
+            ? options.getTargetDoctorId()
+            : doctorId;
+        LocalDate targetDate = options.getTargetDate() != null ? options.getTargetDate() : date;
+
+        if (targetDoctorId.equals(doctorId) && targetDate.equals(date)) {
+            return Flux.error(new DomainException("Debe indicar otro doctor u otro día para reprogramar la jornada"));
+        }
+
+        return findDayAppointments(doctorId, date)
+            .filter(appointment -> appointment.getStatus().isCancelable())
+            .sort(Comparator.comparing(Appointment::getDateTime))
+            .collectList()
+            .flatMapMany(appointments -> {
+                Set<String> movingIds = appointments.stream()
+                    .map(Appointment::getId)
+                    .collect(Collectors.toSet());
+
+                return loadOccupancy(targetDoctorId, targetDate, movingIds)
+                    .flatMapMany(occupancy -> Flux.fromIterable(appointments)
+                        // Secuencial: cada cita ocupa en memoria su hueco antes de asignar la siguiente
+                        .concatMap(appointment -> rescheduleInBatch(
+                            appointment, occupancy, targetDoctorId, targetDate, options.getReason())));
+            });
+    }
+
+    /**
+     * Asigna a la cita el primer hueco libre desde su hora original en la jornada
+     * destino y la guarda; los fallos se devuelven como resultado, no cortan el lote
+     */
+    private Mono<RescheduleResultDTO> rescheduleInBatch(Appointment appointment, DayOccupancy occupancy,
+                                                       String targetDoctorId, LocalDate targetDate, String reason) {
+        String previousStart = appointment.getDateTime().toString();
+        String previousDoctorId = appointment.getDoctorId();
+
+        if (!occupancy.isWorking()) {
+            return Mono.just(failedResult(appointment, previousStart, previousDoctorId,
+                "El doctor destino no trabaja ese día"));
+        }
+
+        LocalTime slot = occupancy.nextFit(appointment.getDateTime().toLocalTime(), appointment.getDurationSlots());
+        if (slot == null) {
+            return Mono.just(failedResult(appointment, previousStart, previousDoctorId,
+                "No queda hueco libre en la jornada destino"));
+        }
+        occupancy.occupy(slot, appointment.getDurationSlots());
+
+        return Mono.fromCallable(() -> {
+                applyReschedule(appointment, LocalDateTime.of(targetDate, slot), targetDoctorId, reason);
+                return appointment;
+            })
+            .flatMap(appointmentRepository::save)
+            .map(saved -> new RescheduleResultDTO(saved.getId(), saved.getPatientId(), true,
+                previousStart, saved.getDateTime().toString(), saved.getDoctorId(), null))
+            .onErrorResume(e -> {
+                // La cita no se movió: el hueco vuelve a estar disponible para el resto del lote
+                occupancy.release(slot, appointment.getDurationSlots());
+                return Mono.just(failedResult(appointment, previousStart, previousDoctorId, e.getMessage()));
+            });
+    }
+
+    private void applyReschedule(Appointment appointment, LocalDateTime newDateTime, String doctorId, String reason) {
+        if (!appointment.reprogramar(newDateTime, doctorId)) {
+            throw new DomainException("No se puede reprogramar una cita en estado " + appointment.getStatus());
+        }
+        if (reason != null && !reason.trim().isEmpty()) {
+            appointment.setNotes(reason);
+        }
+    }
+
+    /**
+     * Lee el horario del doctor y sus citas activas del día para validar huecos en memoria
+     * @param excludedIds Citas que se van a mover y no deben contar como ocupación
+     */
+    private Mono<DayOccupancy> loadOccupancy(String doctorId, LocalDate date, Set<String> excludedIds) {
+        return Mono.zip(
+                doctorRepository.findById(doctorId)
+                    .switchIfEmpty(Mono.error(new DoctorNotFoundException(doctorId))),
+                Flux.merge(
+                        findDayAppointments(doctorId, date)
+                            .filter(appointment -> appointment.getStatus().isActiva())
+                            .filter(appointment -> !excludedIds.contains(appointment.getId())),
+                        seriesRepository.findOccurrencesByDoctorIdAndDateTimeRange(
+                            doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay()))
+                    .collectList())
+            .map(tuple -> new DayOccupancy(date,
+                tuple.getT1().getDisponibilidad().slotMask(date), tuple.getT2()));
+    }
+
+    private Flux<Appointment> findDayAppointments(String doctorId, LocalDate date) {
+        return appointmentRepository.findByDoctorIdAndDateTimeRange(
+            doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    private RescheduleResultDTO failedResult(Appointment appointment, String previousStart,
+                                             String previousDoctorId, String message) {
+        return new RescheduleResultDTO(appointment.getId(), appointment.getPatientId(), false,
+            previousStart, null, previousDoctorId, message);
+    }
+}
@@ -0,0 +1,312 @@
+package odoonto.application.service.appointment;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import odoonto.application.dto.request.AppointmentSeriesCreateDTO;
+import odoonto.application.dto.response.AppointmentDTO;
+import odoonto.application.dto.response.AppointmentSeriesDTO;
+import odoonto.application.exceptions.AppointmentConflictException;
+import odoonto.application.exceptions.DoctorNotFoundException;
+import odoonto.application.exceptions.PatientNotFoundException;
+import odoonto.application.mapper.AppointmentMapper;
+import odoonto.application.port.in.appointment.AppointmentSeriesUseCase;
+import odoonto.application.port.out.ReactiveAppointmentRepository;
+import odoonto.application.port.out.ReactiveAppointmentSeriesRepository;
+import odoonto.application.port.out.ReactiveDoctorRepository;
+import odoonto.application.port.out.ReactivePatientRepository;
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.aggregates.AppointmentSeries;
+import odoonto.domain.model.aggregates.Doctor;
+import odoonto.domain.model.valueobjects.RecurrenceRule;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Implementación del caso de uso para gestionar series de citas periódicas.
+ * Al crear una serie se leen una sola vez el horario del doctor, sus citas y series
+ * en el periodo de la serie y las citas del paciente, y todas las fechas se validan
+ * en memoria; el repositorio reserva después todas las franjas en un único lote.
+ * Así se informa de todas las fechas en conflicto a la vez, sin validar cita a cita.
+ */
+@Service
+public class AppointmentSeriesService implements AppointmentSeriesUseCase {
+
+    /**
+     * Máximo de días de una consulta de citas de series
+     */
+    private static final int MAX_QUERY_DAYS = 366;
+
+    /**
+     * Máximo de fechas que se listan en un mensaje de error
+     */
+    private static final int MAX_REPORTED_DATES = 10;
+
+    private final ReactiveAppointmentSeriesRepository seriesRepository;
+    private final ReactiveAppointmentRepository appointmentRepository;
+    private final ReactiveDoctorRepository doctorRepository;
+    private final ReactivePatientRepository patientRepository;
+    private final AppointmentMapper appointmentMapper;
+
+    @Autowired
+    public AppointmentSeriesService(
+            ReactiveAppointmentSeriesRepository seriesRepository,
+            ReactiveAppointmentRepository appointmentRepository,
+            ReactiveDoctorRepository doctorRepository,
+            ReactivePatientRepository patientRepository,
+            AppointmentMapper appointmentMapper) {
+        this.seriesRepository = seriesRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.appointmentMapper = appointmentMapper;
+    }
+
+    @Override
+    public Mono<AppointmentSeriesDTO> createSeries(AppointmentSeriesCreateDTO seriesCreateDTO) {
+        // Validaciones básicas
+        if (seriesCreateDTO == null) {
+            return Mono.error(new DomainException("Los datos de la serie no pueden ser nulos"));
+        }
+
+        return Mono.fromCallable(() -> toSeries(seriesCreateDTO))
+            .flatMap(series -> {
+                List<Appointment> occurrences = series.toAppointments(series.getStart(), LocalDateTime.MAX);
+                LocalDateTime from = series.getStart();
+                LocalDateTime to = series.getLastEndDateTime();
+
+                return Mono.zip(
+                        doctorRepository.findById(series.getDoctorId())
+                            .switchIfEmpty(Mono.error(new DoctorNotFoundException(series.getDoctorId()))),
+                        loadDoctorAppointments(series.getDoctorId(), from, to),
+                        patientRepository.findById(series.getPatientId())
+                            .switchIfEmpty(Mono.error(new PatientNotFoundException(series.getPatientId())))
+                            .then(loadPatientAgenda(series.getPatientId(), from, to)))
+                    .flatMap(tuple -> {
+                        checkOccurrences(series, occurrences, tuple.getT1(), tuple.getT2(), tuple.getT3());
+                        // El repositorio vuelve a comprobar todas las franjas con una lectura en bloque
+                        // y las reserva de forma atómica con la serie
+                        return seriesRepository.create(series);
+                    });
+            })
+            .map(this::toDTO);
+    }
+
+    @Override
+    public Mono<AppointmentSeriesDTO> getSeriesById(String seriesId) {
+        return findSeries(seriesId).map(this::toDTO);
+    }
+
+    @Override
+    public Flux<AppointmentDTO> getSeriesOccurrences(String seriesId, LocalDate from, LocalDate to) {
+        return Mono.fromRunnable(() -> validateWindow(from, to))
+            .then(findSeries(seriesId))
+            .flatMapIterable(series -> series.toAppointments(from.atStartOfDay(), to.plusDays(1).atStartOfDay()))
+            .map(appointmentMapper::toDTO);
+    }
+
+    @Override
+    public Flux<AppointmentDTO> getDoctorSeriesOccurrences(String doctorId, LocalDate from, LocalDate to) {
+        return Mono.fromRunnable(() -> validateWindow(from, to))
+            .thenMany(seriesRepository.findOccurrencesByDoctorIdAndDateTimeRange(
+                doctorId, from.atStartOfDay(), to.plusDays(1).atStartOfDay()))
+            .sort((a, b) -> a.getDateTime().compareTo(b.getDateTime()))
+            .map(appointmentMapper::toDTO);
+    }
+
+    @Override
+    public Mono<AppointmentSeriesDTO> cancelOccurrence(String seriesId, LocalDate date) {
+        if (date == null) {
+            return Mono.error(new DomainException("La fecha de la cita es obligatoria"));
+        }
+
+        return findSeries(seriesId)
+            .flatMap(series -> {
+                LocalDateTime occurrence = series.getOccurrenceOn(date);
+                if (occurrence == null) {
+                    return Mono.error(new DomainException("La serie no tiene ninguna cita el " + date));
+                }
+                if (occurrence.isBefore(LocalDateTime.now())) {
+                    return Mono.error(new DomainException("No se puede anular una cita pasada de la serie"));
+                }
+
+                series.cancelarOcurrencia(date);
+                // Guardar: libera las franjas de la cita anulada en la misma transacción
+                return seriesRepository.save(series);
+            })
+            .map(this::toDTO);
+    }
+
+    @Override
+    public Mono<AppointmentSeriesDTO> endSeries(String seriesId, LocalDate from) {
+        LocalDate firstCancelled = from != null ? from : LocalDate.now();
+        if (firstCancelled.isBefore(LocalDate.now())) {
+            return Mono.error(new DomainException("No se pueden anular citas pasadas de la serie"));
+        }
+
+        return findSeries(seriesId)
+            .flatMap(series -> {
+                if (!firstCancelled.isAfter(series.getStart().toLocalDate())) {
+                    // Ninguna cita se ha celebrado todavía: se anulan todas
+                    for (LocalDateTime occurrence : series.getOccurrences()) {
+                        series.cancelarOcurrencia(occurrence.toLocalDate());
+                    }
+                } else if (!series.finalizarDesde(firstCancelled)) {
+                    return Mono.just(series);
+                }
+                return seriesRepository.save(series);
+            })
+            .map(this::toDTO);
+    }
+
+    /**
+     * Comprueba en memoria todas las citas de la serie: que caen dentro del horario del
+     * doctor, que el doctor está libre y que el paciente no tiene otra cita a la vez
+     */
+    private void checkOccurrences(AppointmentSeries series, List<Appointment> occurrences, Doctor doctor,
+                                  List<Appointment> doctorAppointments, PatientAgenda patient) {
+        Map<LocalDate, List<Appointment>> appointmentsByDay = new HashMap<>();
+        for (Appointment appointment : doctorAppointments) {
+            appointmentsByDay.computeIfAbsent(appointment.getDateTime().toLocalDate(), day -> new ArrayList<>())
+                .add(appointment);
+        }
+
+        List<LocalDateTime> outsideSchedule = new ArrayList<>();
+        List<LocalDateTime> conflicts = new ArrayList<>();
+        for (Appointment occurrence : occurrences) {
+            LocalDate date = occurrence.getDateTime().toLocalDate();
+            DayOccupancy day = new DayOccupancy(date, doctor.getDisponibilidad().slotMask(date),
+                appointmentsByDay.getOrDefault(date, new ArrayList<>()));
+
+            if (!day.isWithinSchedule(occurrence.getDateTime().toLocalTime(), series.getDurationSlots())) {
+                outsideSchedule.add(occurrence.getDateTime());
+            } else if (!day.fits(occurrence.getDateTime().toLocalTime(), series.getDurationSlots())
+                    || patient.busyUntil(occurrence.getDateTime(), occurrence.getEndDateTime()) != null) {
+                conflicts.add(occurrence.getDateTime());
+            }
+        }
+
+        if (!outsideSchedule.isEmpty()) {
+            throw new DomainException(outsideSchedule.size()
+                + " citas de la serie quedan fuera del horario del doctor: " + describe(outsideSchedule));
+        }
+        if (!conflicts.isEmpty()) {
+            throw new AppointmentConflictException(conflicts.size()
+                + " citas de la serie coinciden con otras citas del doctor o del paciente: " + describe(conflicts));
+        }
+    }
+
+    /**
+     * Citas activas del doctor en el periodo de la serie, incluidas las de sus otras series
+     */
+    private Mono<List<Appointment>> loadDoctorAppointments(String doctorId, LocalDateTime from, LocalDateTime to) {
+        return Flux.merge(
+                appointmentRepository.findByDoctorIdAndDateTimeRange(doctorId, from.toLocalDate().atStartOfDay(), to)
+                    .filter(appointment -> appointment.getStatus().isActiva()),
+                seriesRepository.findOccurrencesByDoctorIdAndDateTimeRange(
+                    doctorId, from.toLocalDate().atStartOfDay(), to))
+            .collectList();
+    }
+
+    /**
+     * Citas activas del paciente en el periodo de la serie, incluidas las de sus otras series
+     */
+    private Mono<PatientAgenda> loadPatientAgenda(String patientId, LocalDateTime from, LocalDateTime to) {
+        Predicate<Appointment> inWindow = appointment ->
+            appointment.getEndDateTime().isAfter(from) && appointment.getDateTime().isBefore(to);
+
+        return Flux.merge(
+                appointmentRepository.findByPatientId(patientId)
+                    .filter(appointment -> appointment.getStatus().isActiva())
+                    .filter(inWindow),
+                seriesRepository.findByPatientId(patientId)
+                    .flatMapIterable(series -> series.toAppointments(from.minusDays(1), to))
+                    .filter(inWindow))
+            .collectList()
+            .map(PatientAgenda::new);
+    }
+
+    private AppointmentSeries toSeries(AppointmentSeriesCreateDTO dto) {
+        if (dto.getDate() == null || dto.getTime() == null) {
+            throw new DomainException("La fecha y la hora de la primera cita son obligatorias");
+        }
+        if (dto.getFrequency() == null || dto.getFrequency().trim().isEmpty()) {
+            throw new DomainException("La frecuencia de la serie es obligatoria");
+        }
+
+        RecurrenceRule.Frequency frequency;
+        try {
+            frequency = RecurrenceRule.Frequency.valueOf(dto.getFrequency().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new DomainException("Frecuencia no válida: " + dto.getFrequency());
+        }
+
+        RecurrenceRule rule = new RecurrenceRule(frequency,
+            dto.getInterval() != null ? dto.getInterval() : 1, dto.getCount(), dto.getUntil());
+        return new AppointmentSeries(dto.getPatientId(), dto.getDoctorId(),
+            LocalDateTime.of(dto.getDate(), dto.getTime()),
+            durationSlots(dto.getDuration()), rule, dto.getNotes());
+    }
+
+    /**
+     * Convierte la duración en minutos a slots de 30 minutos, redondeando hacia arriba
+     */
+    private int durationSlots(Integer minutes) {
+        return minutes != null && minutes > 0 ? (minutes + 29) / 30 : 1;
+    }
+
+    private Mono<AppointmentSeries> findSeries(String seriesId) {
+        if (seriesId == null || seriesId.trim().isEmpty()) {
+            return Mono.error(new DomainException("El ID de la serie no puede ser nulo o vacío"));
+        }
+        return seriesRepository.findById(seriesId)
+            .switchIfEmpty(Mono.error(new DomainException("No existe una serie con el ID: " + seriesId)));
+    }
+
+    private void validateWindow(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new DomainException("Las fechas de inicio y fin son obligatorias");
+        }
+        if (to.isBefore(from)) {
+            throw new DomainException("La fecha final no puede ser anterior a la inicial");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_QUERY_DAYS) {
+            throw new DomainException("La consulta no puede superar " + MAX_QUERY_DAYS + " días");
+        }
+    }
+
+    private String describe(List<LocalDateTime> dates) {
+        List<String> described = new ArrayList<>();
+        for (LocalDateTime date : dates) {
+            if (described.size() == MAX_REPORTED_DATES) {
+                described.add("y " + (dates.size() - MAX_REPORTED_DATES) + " más");
+                break;
+            }
+            described.add(date.toString());
+        }
+        return String.join(", ", described);
+    }
+
+    private AppointmentSeriesDTO toDTO(AppointmentSeries series) {
+        List<String> cancelledDates = new ArrayList<>();
+        for (LocalDate date : series.getExcepciones()) {
+            cancelledDates.add(date.toString());
+        }
+        LocalDateTime lastEnd = series.getLastEndDateTime();
+
+        return new AppointmentSeriesDTO(series.getId(), series.getPatientId(), series.getDoctorId(),
+            series.getStart().toString(), series.getDurationSlots(), series.getRule().toRRule(),
+            series.getOccurrenceCount(), lastEnd != null ? lastEnd.toString() : null,
+            cancelledDates, series.getNotes());
+    }
+}
@@ -0,0 +1,95 @@
+package odoonto.application.service.appointment;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import odoonto.application.dto.response.AppointmentStatusCountsDTO;
+import odoonto.application.port.in.appointment.AppointmentStatisticsUseCase;
+import odoonto.application.port.out.AppointmentDayCounts;
+import odoonto.application.port.out.AppointmentDayCountsRepository;
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación del caso de uso de recuentos de citas por estado.
+ * Lee la vista materializada por doctor y día, de modo que el coste depende del
+ * número de días del rango y no del número de citas.
+ */
+@Service
+public class AppointmentStatisticsService implements AppointmentStatisticsUseCase {
+
+    /**
+     * Máximo de días que se pueden consultar de una vez
+     */
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final AppointmentDayCountsRepository dayCountsRepository;
+
+    @Autowired
+    public AppointmentStatisticsService(AppointmentDayCountsRepository dayCountsRepository) {
+        this.dayCountsRepository = dayCountsRepository;
+    }
+
+    @Override
+    public Mono<AppointmentStatusCountsDTO> countByStatus(String doctorId, LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start;
+        if (end.isBefore(start)) {
+            return Mono.error(new DomainException("La fecha final no puede ser anterior a la inicial"));
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            return Mono.error(new DomainException("El rango no puede superar " + MAX_RANGE_DAYS + " días"));
+        }
+
+        boolean allDoctors = doctorId == null || doctorId.trim().isEmpty();
+        return dayCountsRepository.findByDateRange(start, end)
+            .filter(day -> allDoctors || doctorId.equals(day.getDoctorId()))
+            .collectList()
+            .map(days -> toDTO(allDoctors ? null : doctorId, start, end, days));
+    }
+
+    @Override
+    public Mono<Long> rebuildStatusCounts() {
+        return dayCountsRepository.rebuild();
+    }
+
+    private AppointmentStatusCountsDTO toDTO(String doctorId, LocalDate from, LocalDate to,
+                                             List<AppointmentDayCounts> days) {
+        days.sort(Comparator.comparing(AppointmentDayCounts::getDate)
+            .thenComparing(AppointmentDayCounts::getDoctorId));
+
+        Map<AppointmentStatus, Long> totals = new EnumMap<>(AppointmentStatus.class);
+        long bookedSlots = 0;
+        List<AppointmentStatusCountsDTO.DayCountsDTO> dayDTOs = new ArrayList<>(days.size());
+        for (AppointmentDayCounts day : days) {
+            day.getByStatus().forEach((status, count) -> totals.merge(status, count, Long::sum));
+            bookedSlots += day.getBookedSlots();
+            dayDTOs.add(new AppointmentStatusCountsDTO.DayCountsDTO(
+                day.getDate().toString(), day.getDoctorId(), byName(day.getByStatus()), day.getBookedSlots()));
+        }
+
+        return new AppointmentStatusCountsDTO(from.toString(), to.toString(), doctorId,
+            byName(totals), bookedSlots, dayDTOs);
+    }
+
+    /**
+     * Recuento de todos los estados, a cero los que no aparecen
+     */
+    private Map<String, Long> byName(Map<AppointmentStatus, Long> counts) {
+        Map<String, Long> byName = new LinkedHashMap<>();
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            byName.put(status.name(), counts.getOrDefault(status, 0L));
+        }
+        return byName;
+    }
+}
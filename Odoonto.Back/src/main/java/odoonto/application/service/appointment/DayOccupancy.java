@@ -0,0 +1,156 @@
+package odoonto.application.service.appointment;
+
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.valueobjects.DoctorAvailability;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Ocupación en memoria de la jornada de un doctor en un día, en franjas de 30 minutos.
+ * Se construye con una sola lectura (horario compilado del doctor y citas del día) y
+ * permite validar y asignar varios huecos sin volver a consultar el repositorio. El
+ * horario de un día es un único tramo de inicio a fin; las franjas de la máscara fuera
+ * de él se tratan como ocupadas.
+ */
+class DayOccupancy {
+
+    static final int SLOT_MINUTES = 30;
+
+    private final LocalDate date;
+    private final LocalTime opening;
+    private final long workingMask;
+    private final int firstSlot;
+    private final boolean[] occupied;
+    private int freeSlots;
+
+    /**
+     * @param date Día
+     * @param workingMask Franjas en las que el doctor atiende ese día (0 si no trabaja),
+     *                    según {@link DoctorAvailability#slotMask(LocalDate)}
+     * @param appointments Citas que ya ocupan la jornada
+     */
+    DayOccupancy(LocalDate date, long workingMask, List<Appointment> appointments) {
+        this.date = date;
+        this.workingMask = workingMask;
+        if (workingMask == 0L) {
+            this.firstSlot = 0;
+            this.opening = LocalTime.MIDNIGHT;
+            this.occupied = new boolean[0];
+            return;
+        }
+
+        this.firstSlot = Long.numberOfTrailingZeros(workingMask);
+        this.opening = DoctorAvailability.slotStart(firstSlot);
+        this.occupied = new boolean[64 - Long.numberOfLeadingZeros(workingMask) - firstSlot];
+        for (int i = 0; i < occupied.length; i++) {
+            occupied[i] = (workingMask & (1L << (firstSlot + i))) == 0;
+        }
+        this.freeSlots = Long.bitCount(workingMask);
+        for (Appointment appointment : appointments) {
+            markRange(appointment.getDateTime(), appointment.getEndDateTime());
+        }
+    }
+
+    boolean isWorking() {
+        return occupied.length > 0;
+    }
+
+    /**
+     * Indica si la franja [start, start + slots) cae dentro del horario
+     */
+    boolean isWithinSchedule(LocalTime start, int slots) {
+        int index = indexOf(start);
+        if (index < 0 || slots <= 0 || index + slots > occupied.length) {
+            return false;
+        }
+        long required = ((1L << slots) - 1) << (firstSlot + index);
+        return (workingMask & required) == required;
+    }
+
+    /**
+     * Indica si la franja está dentro del horario y libre
+     */
+    boolean fits(LocalTime start, int slots) {
+        if (!isWithinSchedule(start, slots)) {
+            return false;
+        }
+        int index = indexOf(start);
+        for (int i = index; i < index + slots; i++) {
+            if (occupied[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Busca el primer hueco libre que empiece a partir de una hora, sin volver atrás
+     * @return Hora de inicio del hueco o null si no queda hueco suficiente en la jornada
+     */
+    LocalTime nextFit(LocalTime from, int slots) {
+        if (freeSlots < slots) {
+            return null;
+        }
+
+        long minutes = Duration.between(opening, from).toMinutes();
+        int first = (int) Math.max(0, Math.floorDiv(minutes + SLOT_MINUTES - 1, SLOT_MINUTES));
+        int run = 0;
+        for (int index = first; index < occupied.length; index++) {
+            run = occupied[index] ? 0 : run + 1;
+            if (run == slots) {
+                return opening.plusMinutes((long) (index - slots + 1) * SLOT_MINUTES);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marca una franja como ocupada
+     */
+    void occupy(LocalTime start, int slots) {
+        markRange(date.atTime(start), date.atTime(start).plusMinutes((long) slots * SLOT_MINUTES));
+    }
+
+    /**
+     * Libera una franja marcada con {@link #occupy}, por ejemplo si la cita que la
+     * ocupaba no llegó a guardarse
+     */
+    void release(LocalTime start, int slots) {
+        int index = indexOf(start);
+        if (index < 0) {
+            return;
+        }
+        for (int i = index; i < Math.min(occupied.length, index + slots); i++) {
+            if (occupied[i] && (workingMask & (1L << (firstSlot + i))) != 0) {
+                occupied[i] = false;
+                freeSlots++;
+            }
+        }
+    }
+
+    private void markRange(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime dayOpening = date.atTime(opening);
+        long fromMinutes = Duration.between(dayOpening, start).toMinutes();
+        long toMinutes = Duration.between(dayOpening, end).toMinutes();
+        int first = (int) Math.max(0, Math.floorDiv(fromMinutes, SLOT_MINUTES));
+        int last = (int) Math.min(occupied.length, Math.floorDiv(toMinutes + SLOT_MINUTES - 1, SLOT_MINUTES));
+        for (int i = first; i < last; i++) {
+            if (!occupied[i]) {
+                occupied[i] = true;
+                freeSlots--;
+            }
+        }
+    }
+
+    private int indexOf(LocalTime time) {
+        long minutes = Duration.between(opening, time).toMinutes();
+        if (minutes < 0 || minutes % SLOT_MINUTES != 0) {
+            return -1;
+        }
+        return (int) (minutes / SLOT_MINUTES);
+    }
+}
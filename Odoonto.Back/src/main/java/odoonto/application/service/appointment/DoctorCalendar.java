@@ -0,0 +1,113 @@
+package odoonto.application.service.appointment;
+
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.aggregates.Doctor;
+import odoonto.domain.model.valueobjects.DoctorAvailability;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ocupación en memoria de un doctor durante un horizonte de días, construida con una
+ * sola lectura de sus citas. Los días que no trabaja o que no tienen franjas libres
+ * suficientes se descartan sin recorrerlos.
+ */
+class DoctorCalendar {
+
+    private final Doctor doctor;
+    private final LocalDate firstDay;
+    private final DayOccupancy[] days;
+
+    /**
+     * @param doctor Doctor con su horario semanal
+     * @param firstDay Primer día del horizonte
+     * @param dayCount Número de días del horizonte
+     * @param appointments Citas activas del doctor en el horizonte
+     */
+    DoctorCalendar(Doctor doctor, LocalDate firstDay, int dayCount, List<Appointment> appointments) {
+        this.doctor = doctor;
+        this.firstDay = firstDay;
+        this.days = new DayOccupancy[dayCount];
+
+        List<List<Appointment>> byDay = new ArrayList<>(dayCount);
+        for (int i = 0; i < dayCount; i++) {
+            byDay.add(new ArrayList<>());
+        }
+        for (Appointment appointment : appointments) {
+            int index = indexOf(appointment.getDateTime().toLocalDate());
+            if (index >= 0 && index < dayCount) {
+                byDay.get(index).add(appointment);
+            }
+        }
+        DoctorAvailability availability = doctor.getDisponibilidad();
+        for (int i = 0; i < dayCount; i++) {
+            LocalDate date = firstDay.plusDays(i);
+            days[i] = new DayOccupancy(date, availability.slotMask(date), byDay.get(i));
+        }
+    }
+
+    Doctor getDoctor() {
+        return doctor;
+    }
+
+    /**
+     * Busca el primer hueco del doctor que empiece en o después de notBefore, antes de
+     * limit y sin solaparse con las citas del paciente
+     * @return Inicio del hueco o null si no hay ninguno antes del límite
+     */
+    LocalDateTime earliestFit(LocalDateTime notBefore, int slots, PatientAgenda patient, LocalDateTime limit) {
+        int startIndex = Math.max(0, indexOf(notBefore.toLocalDate()));
+        for (int index = startIndex; index < days.length; index++) {
+            LocalDate date = firstDay.plusDays(index);
+            if (!date.atStartOfDay().isBefore(limit)) {
+                return null;
+            }
+
+            DayOccupancy day = days[index];
+            if (!day.isWorking()) {
+                continue;
+            }
+
+            LocalTime from = date.equals(notBefore.toLocalDate()) ? notBefore.toLocalTime() : LocalTime.MIN;
+            LocalTime candidate = day.nextFit(from, slots);
+            while (candidate != null) {
+                LocalDateTime start = date.atTime(candidate);
+                if (!start.isBefore(limit)) {
+                    return null;
+                }
+
+                LocalDateTime busyUntil = patient.busyUntil(start, start.plusMinutes(sessionMinutes(slots)));
+                if (busyUntil == null) {
+                    return start;
+                }
+                if (!busyUntil.toLocalDate().equals(date)) {
+                    break;
+                }
+                candidate = day.nextFit(busyUntil.toLocalTime(), slots);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marca como ocupada una sesión asignada al doctor
+     */
+    void occupy(LocalDateTime start, int slots) {
+        int index = indexOf(start.toLocalDate());
+        if (index >= 0 && index < days.length) {
+            days[index].occupy(start.toLocalTime(), slots);
+        }
+    }
+
+    static long sessionMinutes(int slots) {
+        return (long) slots * DayOccupancy.SLOT_MINUTES;
+    }
+
+    private int indexOf(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(firstDay, date);
+    }
+}
@@ -0,0 +1,43 @@
+package odoonto.application.service.appointment;
+
+import odoonto.domain.model.aggregates.Appointment;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Citas activas de un paciente ordenadas por inicio, para comprobar que una sesión
+ * propuesta no coincide con otra cita suya aunque sea con otro doctor
+ */
+class PatientAgenda {
+
+    private final LocalDateTime[] starts;
+    private final LocalDateTime[] ends;
+
+    PatientAgenda(List<Appointment> appointments) {
+        List<Appointment> sorted = appointments.stream()
+            .sorted(Comparator.comparing(Appointment::getDateTime))
+            .collect(Collectors.toList());
+        this.starts = new LocalDateTime[sorted.size()];
+        this.ends = new LocalDateTime[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            starts[i] = sorted.get(i).getDateTime();
+            ends[i] = sorted.get(i).getEndDateTime();
+        }
+    }
+
+    /**
+     * @return Fin de la última cita que se solapa con [start, end), o null si el paciente está libre
+     */
+    LocalDateTime busyUntil(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime busyUntil = null;
+        for (int i = 0; i < starts.length && starts[i].isBefore(end); i++) {
+            if (ends[i].isAfter(start) && (busyUntil == null || ends[i].isAfter(busyUntil))) {
+                busyUntil = ends[i];
+            }
+        }
+        return busyUntil;
+    }
+}
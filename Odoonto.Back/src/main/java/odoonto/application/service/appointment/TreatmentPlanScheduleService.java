@@ -0,0 +1,325 @@
+package odoonto.application.service.appointment;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import odoonto.application.dto.request.PlannedTreatmentDTO;
+import odoonto.application.dto.request.TreatmentPlanScheduleRequestDTO;
+import odoonto.application.dto.response.ScheduledSessionDTO;
+import odoonto.application.dto.response.TreatmentPlanScheduleDTO;
+import odoonto.application.exceptions.PatientNotFoundException;
+import odoonto.application.port.in.appointment.TreatmentPlanScheduleUseCase;
+import odoonto.application.port.out.ReactiveAppointmentRepository;
+import odoonto.application.port.out.ReactiveAppointmentSeriesRepository;
+import odoonto.application.port.out.ReactiveDoctorRepository;
+import odoonto.application.port.out.ReactivePatientRepository;
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.aggregates.Doctor;
+import odoonto.domain.model.valueobjects.TreatmentType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Implementación del caso de uso para programar planes de tratamiento.
+ * Lee una sola vez los doctores, sus citas en el horizonte y las del paciente, y busca
+ * en memoria: los tratamientos se programan en orden y, para cada uno, se evalúan en
+ * paralelo todos los doctores de la especialidad requerida, quedándose con el que lo
+ * termina antes. Como las restricciones son solo separaciones mínimas, terminar cada
+ * tratamiento lo antes posible nunca retrasa los siguientes, así que el resultado es la
+ * secuencia más temprana. Las sesiones de un mismo tratamiento las atiende el mismo doctor.
+ */
+@Service
+public class TreatmentPlanScheduleService implements TreatmentPlanScheduleUseCase {
+
+    static final int MAX_SESSIONS = 20;
+    static final int DEFAULT_HORIZON_DAYS = 180;
+    static final int MAX_HORIZON_DAYS = 366;
+    private static final int MAX_SESSION_SLOTS = 6;
+    private static final int CALENDAR_LOAD_CONCURRENCY = 8;
+    private static final Duration SEARCH_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Comparator<Candidate> BY_COMPLETION = Comparator
+        .comparing((Candidate candidate) -> candidate.end)
+        .thenComparing(candidate -> candidate.starts[0])
+        .thenComparing(candidate -> candidate.calendar.getDoctor().getId());
+
+    private final ReactiveAppointmentRepository appointmentRepository;
+    private final ReactiveAppointmentSeriesRepository seriesRepository;
+    private final ReactiveDoctorRepository doctorRepository;
+    private final ReactivePatientRepository patientRepository;
+
+    @Autowired
+    public TreatmentPlanScheduleService(
+            ReactiveAppointmentRepository appointmentRepository,
+            ReactiveAppointmentSeriesRepository seriesRepository,
+            ReactiveDoctorRepository doctorRepository,
+            ReactivePatientRepository patientRepository) {
+        this.appointmentRepository = appointmentRepository;
+        this.seriesRepository = seriesRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+    }
+
+    @Override
+    public Mono<TreatmentPlanScheduleDTO> scheduleTreatmentPlan(TreatmentPlanScheduleRequestDTO request) {
+        if (request == null || request.getPatientId() == null || request.getPatientId().trim().isEmpty()) {
+            return Mono.error(new DomainException("El ID del paciente no puede ser nulo o vacío"));
+        }
+
+        List<PlanStep> steps;
+        try {
+            steps = toSteps(request.getTreatments());
+        } catch (DomainException e) {
+            return Mono.error(e);
+        }
+
+        int horizonDays = request.getHorizonDays() != null ? request.getHorizonDays() : DEFAULT_HORIZON_DAYS;
+        if (horizonDays <= 0 || horizonDays > MAX_HORIZON_DAYS) {
+            return Mono.error(new DomainException("El horizonte debe estar entre 1 y " + MAX_HORIZON_DAYS + " días"));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate firstDay = request.getStartDate() != null && request.getStartDate().isAfter(now.toLocalDate())
+            ? request.getStartDate()
+            : now.toLocalDate();
+        LocalDateTime windowStart = firstDay.equals(now.toLocalDate()) ? nextSlot(now) : firstDay.atStartOfDay();
+        LocalDateTime windowEnd = firstDay.plusDays(horizonDays).atStartOfDay();
+        String patientId = request.getPatientId();
+
+        return patientRepository.findById(patientId)
+            .switchIfEmpty(Mono.error(new PatientNotFoundException(patientId)))
+            .then(Mono.zip(
+                loadPatientAgenda(patientId, windowStart, windowEnd),
+                loadCalendars(steps, firstDay, horizonDays, windowStart, windowEnd)))
+            .flatMap(tuple -> search(patientId, steps, tuple.getT1(), tuple.getT2(), windowStart, windowEnd))
+            .timeout(SEARCH_TIMEOUT)
+            .onErrorMap(TimeoutException.class, e -> new DomainException(
+                "La programación del plan superó el tiempo máximo de búsqueda"));
+    }
+
+    /**
+     * Programa los tratamientos en orden; cada uno empieza tras el anterior y se asigna
+     * al doctor candidato que lo termina antes
+     */
+    private Mono<TreatmentPlanScheduleDTO> search(String patientId, List<PlanStep> steps, PatientAgenda patient,
+                                                 Map<String, DoctorCalendar> calendars,
+                                                 LocalDateTime windowStart, LocalDateTime windowEnd) {
+        List<ScheduledSessionDTO> sessions = new ArrayList<>();
+        AtomicReference<LocalDateTime> previousEnd = new AtomicReference<>(windowStart);
+        int[] evaluated = new int[1];
+
+        return Flux.fromIterable(steps)
+            .concatMap(step -> {
+                List<DoctorCalendar> candidates = new ArrayList<>();
+                for (DoctorCalendar calendar : calendars.values()) {
+                    if (step.type.puedeRealizarlo(calendar.getDoctor().getEspecialidad())) {
+                        candidates.add(calendar);
+                    }
+                }
+                evaluated[0] += candidates.size();
+
+                LocalDateTime notBefore = step.minDaysAfterPrevious > 0
+                    ? max(windowStart, previousEnd.get().toLocalDate().plusDays(step.minDaysAfterPrevious).atStartOfDay())
+                    : previousEnd.get();
+
+                return bestCandidate(step, candidates, patient, notBefore, windowEnd)
+                    .map(candidate -> {
+                        for (int i = 0; i < step.sessions; i++) {
+                            candidate.calendar.occupy(candidate.starts[i], step.durationSlots);
+                            sessions.add(toSessionDTO(sessions.size() + 1, step, i, candidate));
+                        }
+                        previousEnd.set(candidate.end);
+                        return true;
+                    })
+                    .defaultIfEmpty(false)
+                    .map(scheduled -> scheduled ? "" : "No hay huecos para " + step.type.getNombre()
+                        + (candidates.isEmpty() ? ": ningún doctor de " + step.type.getEspecialidadRequerida().getNombre()
+                            : " dentro del horizonte"));
+            })
+            .filter(message -> !message.isEmpty())
+            .next()
+            .map(message -> new TreatmentPlanScheduleDTO(patientId, false, message,
+                Collections.emptyList(), null, evaluated[0]))
+            .switchIfEmpty(Mono.fromSupplier(() -> new TreatmentPlanScheduleDTO(patientId, true, null,
+                sessions, previousEnd.get().toString(), evaluated[0])));
+    }
+
+    /**
+     * Evalúa los doctores candidatos en paralelo. Cada evaluación abandona en cuanto una
+     * sesión empezaría después del mejor fin conocido, ya que no podría mejorarlo.
+     */
+    private Mono<Candidate> bestCandidate(PlanStep step, List<DoctorCalendar> candidates, PatientAgenda patient,
+                                          LocalDateTime notBefore, LocalDateTime windowEnd) {
+        if (candidates.isEmpty()) {
+            return Mono.empty();
+        }
+
+        AtomicReference<LocalDateTime> bestEnd = new AtomicReference<>(windowEnd);
+        return Flux.fromIterable(candidates)
+            .parallel()
+            .runOn(Schedulers.parallel())
+            .flatMap(calendar -> Mono.justOrEmpty(planOnDoctor(step, calendar, patient, notBefore, bestEnd)))
+            .sequential()
+            .reduce((a, b) -> BY_COMPLETION.compare(a, b) <= 0 ? a : b);
+    }
+
+    private Candidate planOnDoctor(PlanStep step, DoctorCalendar calendar, PatientAgenda patient,
+                                   LocalDateTime notBefore, AtomicReference<LocalDateTime> bestEnd) {
+        LocalDateTime[] starts = new LocalDateTime[step.sessions];
+        LocalDateTime cursor = notBefore;
+        LocalDateTime end = null;
+
+        for (int i = 0; i < step.sessions; i++) {
+            LocalDateTime start = calendar.earliestFit(cursor, step.durationSlots, patient, bestEnd.get());
+            if (start == null) {
+                return null;
+            }
+            starts[i] = start;
+            end = start.plusMinutes(DoctorCalendar.sessionMinutes(step.durationSlots));
+            cursor = step.daysBetweenSessions > 0
+                ? start.toLocalDate().plusDays(step.daysBetweenSessions).atStartOfDay()
+                : end;
+        }
+
+        LocalDateTime finalEnd = end;
+        bestEnd.accumulateAndGet(finalEnd, (current, candidate) -> candidate.isBefore(current) ? candidate : current);
+        return new Candidate(calendar, starts, finalEnd);
+    }
+
+    private Mono<PatientAgenda> loadPatientAgenda(String patientId, LocalDateTime from, LocalDateTime to) {
+        return Flux.merge(
+                appointmentRepository.findByPatientId(patientId)
+                    .filter(appointment -> appointment.getStatus().isActiva()),
+                seriesRepository.findByPatientId(patientId)
+                    .flatMapIterable(series -> series.toAppointments(from.minusDays(1), to)))
+            .filter(appointment -> appointment.getEndDateTime().isAfter(from) && appointment.getDateTime().isBefore(to))
+            .collectList()
+            .map(PatientAgenda::new);
+    }
+
+    /**
+     * Carga el calendario de cada doctor que puede realizar algún tratamiento del plan
+     */
+    private Mono<Map<String, DoctorCalendar>> loadCalendars(List<PlanStep> steps, LocalDate firstDay, int horizonDays,
+                                                            LocalDateTime from, LocalDateTime to) {
+        return doctorRepository.findAll()
+            .filter(Doctor::esValidoParaCitas)
+            .filter(doctor -> steps.stream().anyMatch(step -> step.type.puedeRealizarlo(doctor.getEspecialidad())))
+            .flatMap(doctor -> Flux.merge(
+                        appointmentRepository.findByDoctorIdAndDateTimeRange(doctor.getId(), from, to)
+                            .filter(appointment -> appointment.getStatus().isActiva()),
+                        seriesRepository.findOccurrencesByDoctorIdAndDateTimeRange(doctor.getId(), from, to))
+                    .collectList()
+                    .map(appointments -> new DoctorCalendar(doctor, firstDay, horizonDays, appointments)),
+                CALENDAR_LOAD_CONCURRENCY)
+            .collectMap(calendar -> calendar.getDoctor().getId(), calendar -> calendar, LinkedHashMap::new);
+    }
+
+    private List<PlanStep> toSteps(List<PlannedTreatmentDTO> treatments) {
+        if (treatments == null || treatments.isEmpty()) {
+            throw new DomainException("El plan debe incluir al menos un tratamiento");
+        }
+
+        List<PlanStep> steps = new ArrayList<>();
+        int totalSessions = 0;
+        for (PlannedTreatmentDTO treatment : treatments) {
+            TreatmentType type = parseTreatmentType(treatment.getTreatmentType());
+            PlanStep step = new PlanStep(type,
+                treatment.getSessions() != null ? treatment.getSessions() : type.getSesiones(),
+                treatment.getDurationSlots() != null ? treatment.getDurationSlots() : type.getDuracionSlots(),
+                treatment.getMinDaysBetweenSessions() != null
+                    ? treatment.getMinDaysBetweenSessions() : type.getDiasEntreSesiones(),
+                treatment.getMinDaysAfterPrevious() != null ? treatment.getMinDaysAfterPrevious() : 0);
+
+            if (step.sessions <= 0 || step.durationSlots <= 0 || step.durationSlots > MAX_SESSION_SLOTS
+                    || step.daysBetweenSessions < 0 || step.minDaysAfterPrevious < 0) {
+                throw new DomainException("Parámetros de sesión no válidos para " + type.getNombre());
+            }
+            totalSessions += step.sessions;
+            steps.add(step);
+        }
+
+        if (totalSessions > MAX_SESSIONS) {
+            throw new DomainException("El plan no puede superar " + MAX_SESSIONS + " sesiones");
+        }
+        return steps;
+    }
+
+    private TreatmentType parseTreatmentType(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new DomainException("El tipo de tratamiento es obligatorio");
+        }
+        try {
+            return TreatmentType.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            TreatmentType type = TreatmentType.fromNombre(value);
+            if (type == null) {
+                throw new DomainException("Tipo de tratamiento no válido: " + value);
+            }
+            return type;
+        }
+    }
+
+    private ScheduledSessionDTO toSessionDTO(int sequence, PlanStep step, int session, Candidate candidate) {
+        Doctor doctor = candidate.calendar.getDoctor();
+        LocalDateTime start = candidate.starts[session];
+        return new ScheduledSessionDTO(sequence, step.type.name(), session + 1, doctor.getId(),
+            doctor.getNombreCompleto(), start.toString(),
+            start.plusMinutes(DoctorCalendar.sessionMinutes(step.durationSlots)).toString(), step.durationSlots);
+    }
+
+    private static LocalDateTime nextSlot(LocalDateTime time) {
+        LocalDateTime truncated = time.truncatedTo(ChronoUnit.HOURS);
+        while (!truncated.isAfter(time)) {
+            truncated = truncated.plusMinutes(DayOccupancy.SLOT_MINUTES);
+        }
+        return truncated;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static final class PlanStep {
+        private final TreatmentType type;
+        private final int sessions;
+        private final int durationSlots;
+        private final int daysBetweenSessions;
+        private final int minDaysAfterPrevious;
+
+        private PlanStep(TreatmentType type, int sessions, int durationSlots,
+                         int daysBetweenSessions, int minDaysAfterPrevious) {
+            this.type = type;
+            this.sessions = sessions;
+            this.durationSlots = durationSlots;
+            this.daysBetweenSessions = daysBetweenSessions;
+            this.minDaysAfterPrevious = minDaysAfterPrevious;
+        }
+    }
+
+    private static final class Candidate {
+        private final DoctorCalendar calendar;
+        private final LocalDateTime[] starts;
+        private final LocalDateTime end;
+
+        private Candidate(DoctorCalendar calendar, LocalDateTime[] starts, LocalDateTime end) {
+            this.calendar = calendar;
+            this.starts = starts;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package odoonto.application.service.calendar;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import odoonto.application.dto.response.AppointmentDTO;
+import odoonto.application.dto.response.CalendarDTO;
+import odoonto.application.dto.response.CalendarDayDTO;
+import odoonto.application.dto.response.CalendarDoctorDTO;
+import odoonto.application.dto.response.TimeRangeDTO;
+import odoonto.application.exceptions.DoctorNotFoundException;
+import odoonto.application.mapper.AppointmentMapper;
+import odoonto.application.port.in.calendar.CalendarQueryUseCase;
+import odoonto.application.port.out.ReactiveAppointmentRepository;
+import odoonto.application.port.out.ReactiveAppointmentSeriesRepository;
+import odoonto.application.port.out.ReactiveDoctorRepository;
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.aggregates.Doctor;
+import odoonto.domain.model.valueobjects.DoctorSchedule;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación del caso de uso para consultar la vista de calendario.
+ * Lee únicamente las citas de la ventana visible (consulta por rango) y las agrupa
+ * por doctor, día y franja de 30 minutos, junto con el horario laboral y las pausas
+ * derivadas del horario de cada doctor.
+ */
+@Service
+public class CalendarQueryService implements CalendarQueryUseCase {
+
+    private static final int SLOT_MINUTES = 30;
+    private static final LocalTime CLINIC_OPENING = LocalTime.of(8, 0);
+    private static final LocalTime CLINIC_CLOSING = LocalTime.of(18, 0);
+
+    private final ReactiveAppointmentRepository appointmentRepository;
+    private final ReactiveAppointmentSeriesRepository seriesRepository;
+    private final ReactiveDoctorRepository doctorRepository;
+    private final AppointmentMapper appointmentMapper;
+
+    @Autowired
+    public CalendarQueryService(
+            ReactiveAppointmentRepository appointmentRepository,
+            ReactiveAppointmentSeriesRepository seriesRepository,
+            ReactiveDoctorRepository doctorRepository,
+            AppointmentMapper appointmentMapper) {
+        this.appointmentRepository = appointmentRepository;
+        this.seriesRepository = seriesRepository;
+        this.doctorRepository = doctorRepository;
+        this.appointmentMapper = appointmentMapper;
+    }
+
+    @Override
+    public Mono<CalendarDTO> getCalendar(String view, LocalDate date, String doctorId) {
+        String normalizedView = view == null ? "day" : view.trim().toLowerCase();
+        LocalDate reference = date != null ? date : LocalDate.now();
+        LocalDate from;
+        LocalDate to;
+
+        switch (normalizedView) {
+            case "day":
+                from = reference;
+                to = reference;
+                break;
+            case "week":
+                from = reference.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                to = from.plusDays(6);
+                break;
+            case "month":
+                from = reference.withDayOfMonth(1);
+                to = reference.with(TemporalAdjusters.lastDayOfMonth());
+                break;
+            default:
+                return Mono.error(new DomainException("Vista de calendario no válida: " + view
+                        + ". Valores permitidos: day, week, month"));
+        }
+
+        LocalDateTime windowStart = from.atStartOfDay();
+        LocalDateTime windowEnd = to.plusDays(1).atStartOfDay();
+        boolean filterByDoctor = doctorId != null && !doctorId.trim().isEmpty();
+
+        Mono<List<Doctor>> doctorsMono = filterByDoctor
+                ? doctorRepository.findById(doctorId)
+                        .switchIfEmpty(Mono.error(new DoctorNotFoundException(doctorId)))
+                        .map(List::of)
+                : doctorRepository.findAll().collectList();
+
+        // Las citas de series periódicas se calculan para la ventana y se muestran con las demás
+        Flux<Appointment> appointmentsFlux = filterByDoctor
+                ? Flux.merge(appointmentRepository.findByDoctorIdAndDateTimeRange(doctorId, windowStart, windowEnd),
+                        seriesRepository.findOccurrencesByDoctorIdAndDateTimeRange(doctorId, windowStart, windowEnd))
+                : Flux.merge(appointmentRepository.findByDateTimeRange(windowStart, windowEnd),
+                        seriesRepository.findOccurrencesByDateTimeRange(windowStart, windowEnd));
+
+        return Mono.zip(doctorsMono, appointmentsFlux.collectList())
+                .map(tuple -> buildCalendar(normalizedView, from, to, tuple.getT1(), tuple.getT2()));
+    }
+
+    /**
+     * Construye la vista agrupando en una sola pasada las citas por doctor y día
+     */
+    private CalendarDTO buildCalendar(String view, LocalDate from, LocalDate to,
+                                      List<Doctor> doctors, List<Appointment> appointments) {
+        CalendarDTO calendar = new CalendarDTO(view, from.toString(), to.toString(), SLOT_MINUTES);
+
+        Map<String, Map<LocalDate, List<Appointment>>> byDoctorAndDay = new LinkedHashMap<>();
+        for (Appointment appointment : appointments) {
+            byDoctorAndDay
+                    .computeIfAbsent(appointment.getDoctorId(), key -> new LinkedHashMap<>())
+                    .computeIfAbsent(appointment.getDateTime().toLocalDate(), key -> new ArrayList<>())
+                    .add(appointment);
+        }
+
+        List<Doctor> sortedDoctors = new ArrayList<>(doctors);
+        sortedDoctors.sort(Comparator.comparing(Doctor::getNombreCompleto,
+                Comparator.nullsLast(String::compareToIgnoreCase)));
+
+        for (Doctor doctor : sortedDoctors) {
+            Map<LocalDate, List<Appointment>> byDay = byDoctorAndDay.remove(doctor.getId());
+            calendar.getDoctors().add(buildDoctorAgenda(doctor.getId(), doctor.getNombreCompleto(),
+                    doctor, from, to, byDay));
+        }
+
+        // Citas de doctores que ya no existen: se muestran sin horario para no ocultarlas
+        byDoctorAndDay.forEach((orphanDoctorId, byDay) ->
+                calendar.getDoctors().add(buildDoctorAgenda(orphanDoctorId, null, null, from, to, byDay)));
+
+        return calendar;
+    }
+
+    private CalendarDoctorDTO buildDoctorAgenda(String doctorId, String doctorName, Doctor doctor,
+                                                LocalDate from, LocalDate to,
+                                                Map<LocalDate, List<Appointment>> byDay) {
+        CalendarDoctorDTO agenda = new CalendarDoctorDTO(doctorId, doctorName);
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DoctorSchedule schedule = doctor != null ? doctor.getScheduleForDate(day) : null;
+            boolean working = schedule != null && schedule.isAvailable();
+            CalendarDayDTO dayDTO = new CalendarDayDTO(day.toString(), working);
+
+            fillScheduleAreas(dayDTO, schedule, working);
+
+            List<Appointment> dayAppointments = byDay != null ? byDay.get(day) : null;
+            if (dayAppointments != null) {
+                dayAppointments.sort(Comparator.comparing(Appointment::getDateTime));
+                for (Appointment appointment : dayAppointments) {
+                    AppointmentDTO dto = appointmentMapper.toDTO(appointment);
+                    dto.setDoctorName(doctorName);
+                    dayDTO.getAppointments().add(dto);
+                    assignSlots(dayDTO, appointment);
+                }
+            }
+
+            agenda.getDays().add(dayDTO);
+        }
+
+        return agenda;
+    }
+
+    /**
+     * Calcula el horario laboral y las pausas (tramos del horario de la clínica
+     * en los que el doctor no atiende) para un día
+     */
+    private void fillScheduleAreas(CalendarDayDTO dayDTO, DoctorSchedule schedule, boolean working) {
+        if (!working) {
+            dayDTO.getBreaks().add(new TimeRangeDTO(CLINIC_OPENING.toString(), CLINIC_CLOSING.toString()));
+            return;
+        }
+
+        LocalTime start = schedule.getStartTime();
+        LocalTime end = schedule.getEndTime();
+        dayDTO.getWorkingHours().add(new TimeRangeDTO(start.toString(), end.toString()));
+
+        if (start.isAfter(CLINIC_OPENING)) {
+            dayDTO.getBreaks().add(new TimeRangeDTO(CLINIC_OPENING.toString(), start.toString()));
+        }
+        if (end.isBefore(CLINIC_CLOSING)) {
+            dayDTO.getBreaks().add(new TimeRangeDTO(end.toString(), CLINIC_CLOSING.toString()));
+        }
+    }
+
+    /**
+     * Registra la cita en cada franja de 30 minutos que ocupa
+     */
+    private void assignSlots(CalendarDayDTO dayDTO, Appointment appointment) {
+        LocalTime slotStart = appointment.getDateTime().toLocalTime();
+        for (int i = 0; i < appointment.getDurationSlots(); i++) {
+            dayDTO.getSlots()
+                    .computeIfAbsent(slotStart.toString(), key -> new ArrayList<>())
+                    .add(appointment.getId());
+            slotStart = slotStart.plusMinutes(SLOT_MINUTES);
+            if (slotStart.equals(LocalTime.MIDNIGHT)) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package odoonto.application.service.doctor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import odoonto.application.dto.request.DayScheduleDTO;
+import odoonto.application.dto.request.ScheduleExceptionDTO;
+import odoonto.application.dto.response.DoctorScheduleDTO;
+import odoonto.application.exceptions.DoctorNotFoundException;
+import odoonto.application.port.in.doctor.DoctorScheduleUseCase;
+import odoonto.application.port.out.ReactiveDoctorRepository;
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.aggregates.Doctor;
+import odoonto.domain.model.valueobjects.DoctorSchedule;
+import odoonto.domain.model.valueobjects.ScheduleException;
+
+import reactor.core.publisher.Mono;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Implementación del caso de uso para gestionar el horario de un doctor.
+ * El horario y las excepciones se guardan con el doctor; al guardarlo cambia la versión
+ * del documento y la disponibilidad compilada se recalcula en la siguiente lectura.
+ */
+@Service
+public class DoctorScheduleService implements DoctorScheduleUseCase {
+
+    /**
+     * Máximo de días de un rango de excepciones (por ejemplo, unas vacaciones o una baja)
+     */
+    private static final int MAX_EXCEPTION_RANGE_DAYS = 366;
+
+    private final ReactiveDoctorRepository doctorRepository;
+
+    @Autowired
+    public DoctorScheduleService(ReactiveDoctorRepository doctorRepository) {
+        this.doctorRepository = doctorRepository;
+    }
+
+    @Override
+    public Mono<DoctorScheduleDTO> getSchedule(String doctorId) {
+        return findDoctor(doctorId).map(this::toDTO);
+    }
+
+    @Override
+    public Mono<DoctorScheduleDTO> updateWeeklySchedule(String doctorId, List<DayScheduleDTO> days) {
+        if (days == null || days.isEmpty()) {
+            return Mono.error(new DomainException("Debe indicar el horario de al menos un día"));
+        }
+
+        return modify(doctorId, doctor -> {
+            for (DayScheduleDTO day : days) {
+                if (day.getDayOfWeek() == null) {
+                    throw new DomainException("El día de la semana es obligatorio");
+                }
+                DayOfWeek dayOfWeek = DayOfWeek.valueOf(day.getDayOfWeek().trim().toUpperCase());
+                doctor.setSchedule(dayOfWeek, day.getStartTime(), day.getEndTime(), day.isAvailable());
+            }
+        });
+    }
+
+    @Override
+    public Mono<DoctorScheduleDTO> addScheduleException(String doctorId, ScheduleExceptionDTO exceptionDTO) {
+        if (exceptionDTO == null || exceptionDTO.getDate() == null) {
+            return Mono.error(new DomainException("La fecha de la excepción es obligatoria"));
+        }
+
+        LocalDate from = exceptionDTO.getDate();
+        LocalDate to = exceptionDTO.getEndDate() != null ? exceptionDTO.getEndDate() : from;
+        if (to.isBefore(from)) {
+            return Mono.error(new DomainException("La fecha final no puede ser anterior a la inicial"));
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_EXCEPTION_RANGE_DAYS) {
+            return Mono.error(new DomainException(
+                "Un rango de excepciones no puede superar " + MAX_EXCEPTION_RANGE_DAYS + " días"));
+        }
+
+        return modify(doctorId, doctor -> {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                doctor.addScheduleException(new ScheduleException(date,
+                    exceptionDTO.getStartTime(), exceptionDTO.getEndTime(), exceptionDTO.getReason()));
+            }
+        });
+    }
+
+    @Override
+    public Mono<DoctorScheduleDTO> removeScheduleException(String doctorId, LocalDate date) {
+        if (date == null) {
+            return Mono.error(new DomainException("La fecha de la excepción es obligatoria"));
+        }
+
+        return modify(doctorId, doctor -> {
+            if (!doctor.removeScheduleException(date)) {
+                throw new DomainException("El doctor no tiene ninguna excepción el " + date);
+            }
+        });
+    }
+
+    /**
+     * Aplica un cambio de horario sobre el doctor guardado con una escritura condicionada,
+     * de modo que dos cambios simultáneos no se pisan; los errores de validación de los
+     * objetos de valor se devuelven como errores de dominio
+     */
+    private Mono<DoctorScheduleDTO> modify(String doctorId, Consumer<Doctor> change) {
+        if (doctorId == null || doctorId.trim().isEmpty()) {
+            return Mono.error(new DomainException("El ID del doctor no puede ser nulo o vacío"));
+        }
+        return doctorRepository.update(doctorId, doctor -> {
+                try {
+                    change.accept(doctor);
+                } catch (IllegalArgumentException e) {
+                    throw new DomainException(e.getMessage());
+                }
+            })
+            .switchIfEmpty(Mono.error(new DoctorNotFoundException(doctorId)))
+            .map(this::toDTO);
+    }
+
+    private Mono<Doctor> findDoctor(String doctorId) {
+        if (doctorId == null || doctorId.trim().isEmpty()) {
+            return Mono.error(new DomainException("El ID del doctor no puede ser nulo o vacío"));
+        }
+        return doctorRepository.findById(doctorId)
+            .switchIfEmpty(Mono.error(new DoctorNotFoundException(doctorId)));
+    }
+
+    private DoctorScheduleDTO toDTO(Doctor doctor) {
+        DoctorScheduleDTO dto = new DoctorScheduleDTO();
+        dto.setDoctorId(doctor.getId());
+
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            DoctorSchedule schedule = doctor.getScheduleForDay(dayOfWeek);
+            boolean available = schedule != null && schedule.isAvailable();
+            dto.getWeeklySchedule().add(new DoctorScheduleDTO.DayDTO(dayOfWeek.name(), available,
+                available ? schedule.getStartTime().toString() : null,
+                available ? schedule.getEndTime().toString() : null));
+        }
+
+        for (ScheduleException exception : doctor.getScheduleExceptions()) {
+            dto.getExceptions().add(new DoctorScheduleDTO.ExceptionDTO(exception.getDate().toString(),
+                exception.getStartTime() != null ? exception.getStartTime().toString() : null,
+                exception.getEndTime() != null ? exception.getEndTime().toString() : null,
+                exception.getMotivo()));
+        }
+        return dto;
+    }
+}
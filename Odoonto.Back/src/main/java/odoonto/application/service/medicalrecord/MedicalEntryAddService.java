@@ -7,7 +7,8 @@ import odoonto.application.dto.request.MedicalEntryCreateDTO;
 import odoonto.application.port.in.medicalrecord.MedicalEntryAddUseCase;
 import odoonto.application.port.out.ReactiveMedicalRecordRepository;
 import odoonto.domain.exceptions.DomainException;
-import odoonto.domain.model.aggregates.MedicalRecord;
+import odoonto.domain.model.entities.MedicalEntry;
+import odoonto.domain.model.valueobjects.MedicalRecordId;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -40,31 +41,28 @@ public class MedicalEntryAddService implements MedicalEntryAddUseCase {
             return Mono.error(new DomainException("La descripción de la entrada médica no puede ser nula o vacía"));
         }
         
-        // Nota: La versión del agregado MedicalRecord tiene sus propias clases internas
-        // para manejar notas, diagnósticos y tratamientos, en lugar de usar MedicalEntry
-        
-        // Buscar el historial médico, añadir la entrada y guardarlo
+        // La entrada se añade a la subcolección del historial; guardar el agregado
+        // completo solo sirve para crearlo
         return medicalRecordRepository.findById(medicalRecordId)
             .switchIfEmpty(Mono.error(new DomainException("No existe un historial médico con el ID: " + medicalRecordId)))
             .flatMap(medicalRecord -> {
-                // Obtener UUID del doctor
-                UUID doctorUuid = entryDTO.getDoctorId() != null ? 
-                    UUID.fromString(entryDTO.getDoctorId()) : UUID.randomUUID();
+                String doctorId = entryDTO.getDoctorId() != null ?
+                    entryDTO.getDoctorId() : UUID.randomUUID().toString();
                 
-                // Agregar la entrada según su tipo utilizando los métodos específicos de MedicalRecord
+                // Tipo de la entrada según su descripción en la petición
+                String type;
                 if (entryDTO.getType().equalsIgnoreCase("nota")) {
-                    medicalRecord.addNote(new MedicalRecord.MedicalNote(
-                        entryDTO.getDescription(), doctorUuid));
+                    type = "NOTA";
                 } else if (entryDTO.getType().equalsIgnoreCase("diagnóstico") || 
                            entryDTO.getType().equalsIgnoreCase("diagnostico")) {
-                    medicalRecord.addDiagnosis(new MedicalRecord.Diagnosis(
-                        entryDTO.getDescription(), doctorUuid));
+                    type = "DIAGNOSTICO";
                 } else {
-                    medicalRecord.addTreatment(new MedicalRecord.Treatment(
-                        entryDTO.getDescription(), doctorUuid));
+                    type = "TRATAMIENTO";
                 }
                 
-                return medicalRecordRepository.save(medicalRecord);
+                MedicalEntry entry = new MedicalEntry(UUID.randomUUID().toString(), type,
+                    entryDTO.getDescription(), doctorId);
+                return medicalRecordRepository.addEntry(MedicalRecordId.of(medicalRecordId), entry);
             })
             .then();
     }
@@ -0,0 +1,57 @@
+package odoonto.application.service.medicalrecord;
+
+import odoonto.application.dto.response.MedicalEntrySearchResultDTO;
+import odoonto.application.port.in.medicalrecord.MedicalEntrySearchUseCase;
+import odoonto.application.port.out.MedicalEntrySearch;
+import odoonto.application.port.out.MedicalEntrySearchQuery;
+import odoonto.domain.exceptions.DomainException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * Implementación del caso de uso de búsqueda de texto en entradas de historial.
+ * La consulta se resuelve sobre el índice invertido, sin cargar historiales.
+ */
+@Service
+public class MedicalEntrySearchService implements MedicalEntrySearchUseCase {
+    private final MedicalEntrySearch medicalEntrySearch;
+
+    @Autowired
+    public MedicalEntrySearchService(MedicalEntrySearch medicalEntrySearch) {
+        this.medicalEntrySearch = medicalEntrySearch;
+    }
+
+    @Override
+    public Flux<MedicalEntrySearchResultDTO> search(String query, String doctorId, LocalDate from, LocalDate to,
+                                                    Integer limit) {
+        if (query == null || query.trim().isEmpty()) {
+            return Flux.error(new DomainException("El texto de búsqueda no puede estar vacío"));
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            return Flux.error(new DomainException("La fecha final no puede ser anterior a la inicial"));
+        }
+
+        // El rango de días es inclusivo; el índice filtra con fin exclusivo
+        MedicalEntrySearchQuery searchQuery = new MedicalEntrySearchQuery(
+                query.trim(),
+                doctorId != null && !doctorId.trim().isEmpty() ? doctorId.trim() : null,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                limit != null ? limit : 0);
+
+        return medicalEntrySearch.search(searchQuery)
+                .map(hit -> new MedicalEntrySearchResultDTO(
+                        hit.getMedicalRecordId(),
+                        hit.getEntryId(),
+                        hit.getType(),
+                        hit.getDescription(),
+                        hit.getDoctorId(),
+                        hit.getRecordedAt() != null ? hit.getRecordedAt().toString() : null,
+                        hit.getScore(),
+                        hit.isTruncated()));
+    }
+}
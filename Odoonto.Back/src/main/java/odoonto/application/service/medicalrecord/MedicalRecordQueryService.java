@@ -1,15 +1,22 @@
 package odoonto.application.service.medicalrecord;
 
+import odoonto.application.dto.response.MedicalEntryPageDTO;
 import odoonto.application.dto.response.MedicalRecordDTO;
 import odoonto.application.mapper.MedicalRecordMapper;
 import odoonto.application.port.in.medicalrecord.MedicalRecordQueryUseCase;
+import odoonto.application.port.out.MedicalEntryQuery;
 import odoonto.application.port.out.ReactiveMedicalRecordRepository;
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.valueobjects.MedicalRecordId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
 /**
  * Implementación reactiva del caso de uso de consulta de historiales médicos.
  * Utiliza el repositorio reactivo para las operaciones de consulta.
@@ -55,4 +62,35 @@ public class MedicalRecordQueryService implements MedicalRecordQueryUseCase {
         return medicalRecordRepository.findByPatientId(patientId)
                 .hasElement();
     }
-} 
\ No newline at end of file
+
+    @Override
+    public Mono<MedicalEntryPageDTO> findEntries(String medicalRecordId, LocalDate from, LocalDate to,
+                                                 String doctorId, String type, String cursor, Integer limit) {
+        if (medicalRecordId == null || medicalRecordId.trim().isEmpty()) {
+            return Mono.error(new DomainException("El ID del historial médico no puede ser nulo o vacío"));
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            return Mono.error(new DomainException("La fecha final no puede ser anterior a la inicial"));
+        }
+
+        // El rango de días es inclusivo; el repositorio filtra con fin exclusivo
+        MedicalEntryQuery query = new MedicalEntryQuery(
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                blankToNull(doctorId),
+                blankToNull(type),
+                blankToNull(cursor),
+                limit != null ? limit : 0);
+
+        return medicalRecordRepository.findEntries(MedicalRecordId.of(medicalRecordId), query)
+                .map(page -> new MedicalEntryPageDTO(
+                        page.getEntries().stream()
+                                .map(medicalRecordMapper::toEntryDTO)
+                                .collect(Collectors.toList()),
+                        page.getNextCursor()));
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
@@ -0,0 +1,146 @@
+package odoonto.application.service.odontogram;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import odoonto.application.dto.response.ClinicRiskReportDTO;
+import odoonto.application.dto.response.PatientRiskDTO;
+import odoonto.application.port.in.odontogram.ClinicRiskReportUseCase;
+import odoonto.application.port.out.OdontogramPage;
+import odoonto.application.port.out.ReactiveOdontogramRepository;
+import odoonto.domain.model.aggregates.Odontogram;
+import odoonto.domain.model.valueobjects.DiagnosisResult;
+import odoonto.domain.model.valueobjects.PatientId;
+import odoonto.domain.service.DentalDiagnosisService;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementación del caso de uso del informe de riesgo de la clínica.
+ * Los odontogramas se leen por páginas y se diagnostican en paralelo; cada resultado
+ * se guarda con la versión del odontograma, de modo que en las siguientes ejecuciones
+ * solo se recalculan los odontogramas modificados.
+ */
+@Service
+public class ClinicRiskReportService implements ClinicRiskReportUseCase {
+
+    private static final int PAGE_SIZE = 200;
+
+    /**
+     * Niveles de riesgo del diagnóstico, de mayor a menor urgencia
+     */
+    private static final List<String> RISK_LEVELS = List.of("MUY ALTO", "ALTO", "MEDIO", "BAJO");
+    private static final List<String> CARIES_RISK_LEVELS = List.of("ALTO", "MEDIO", "BAJO");
+
+    private static final Comparator<PatientRiskDTO> BY_URGENCY = Comparator
+        .comparingInt((PatientRiskDTO risk) -> rank(RISK_LEVELS, risk.getRiskLevel()))
+        .thenComparingInt(risk -> rank(CARIES_RISK_LEVELS, risk.getCariesRisk()))
+        .thenComparing(risk -> risk.getPriorityTeeth().size(), Comparator.reverseOrder())
+        .thenComparing(PatientRiskDTO::getLesionCount, Comparator.reverseOrder())
+        .thenComparingDouble(PatientRiskDTO::getHealthPercentage)
+        .thenComparing(PatientRiskDTO::getOdontogramId);
+
+    private final ReactiveOdontogramRepository odontogramRepository;
+    private final DentalDiagnosisService diagnosisService = new DentalDiagnosisService();
+    private final PatientRiskCache cache = new PatientRiskCache();
+
+    @Autowired
+    public ClinicRiskReportService(ReactiveOdontogramRepository odontogramRepository) {
+        this.odontogramRepository = odontogramRepository;
+    }
+
+    @Override
+    public Mono<ClinicRiskReportDTO> generateRiskReport(Integer limit) {
+        long startNanos = System.nanoTime();
+        AtomicInteger computed = new AtomicInteger();
+        AtomicInteger cacheHits = new AtomicInteger();
+
+        return odontogramRepository.findPage(null, PAGE_SIZE)
+            .expand(page -> page.hasMore()
+                ? odontogramRepository.findPage(page.getNextCursor(), PAGE_SIZE)
+                : Mono.empty())
+            .flatMapIterable(OdontogramPage::getOdontograms)
+            .parallel()
+            .runOn(Schedulers.parallel())
+            .flatMap(odontogram -> Mono.justOrEmpty(assess(odontogram, computed, cacheHits)))
+            .sequential()
+            .collectList()
+            .map(risks -> {
+                Set<String> odontogramIds = new HashSet<>();
+                risks.forEach(risk -> odontogramIds.add(risk.getOdontogramId()));
+                cache.retainOnly(odontogramIds);
+
+                List<PatientRiskDTO> sorted = new ArrayList<>(risks);
+                sorted.sort(BY_URGENCY);
+
+                Map<String, Integer> byRiskLevel = new LinkedHashMap<>();
+                RISK_LEVELS.forEach(level -> byRiskLevel.put(level, 0));
+                sorted.forEach(risk -> byRiskLevel.merge(risk.getRiskLevel(), 1, Integer::sum));
+
+                List<PatientRiskDTO> patients = limit != null && limit > 0 && limit < sorted.size()
+                    ? new ArrayList<>(sorted.subList(0, limit))
+                    : sorted;
+
+                return new ClinicRiskReportDTO(
+                    LocalDateTime.now().toString(),
+                    risks.size(),
+                    computed.get(),
+                    cacheHits.get(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                    byRiskLevel,
+                    patients);
+            });
+    }
+
+    /**
+     * Diagnostica un odontograma o reutiliza el resultado de su versión actual
+     * @return Riesgo del paciente o null si el odontograma no se puede diagnosticar
+     */
+    private PatientRiskDTO assess(Odontogram odontogram, AtomicInteger computed, AtomicInteger cacheHits) {
+        String odontogramId = odontogram.getIdValue();
+        PatientRiskDTO cached = cache.get(odontogramId, odontogram.getVersion());
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return cached;
+        }
+
+        PatientRiskDTO risk;
+        try {
+            DiagnosisResult diagnosis = diagnosisService.generateDiagnosis(odontogram);
+            PatientId patientId = odontogram.extractPatientId();
+
+            risk = new PatientRiskDTO(
+                patientId != null ? patientId.getValue() : null,
+                odontogramId,
+                odontogram.getVersion(),
+                diagnosis.getRiskLevel().getLabel(),
+                diagnosisService.calculateCariesRisk(odontogram).name(),
+                diagnosis.getHealthPercentage(),
+                diagnosis.getTotalLesions(),
+                new ArrayList<>(diagnosis.getPriorityTeeth()));
+        } catch (RuntimeException e) {
+            // Odontograma con datos no válidos: queda fuera del informe
+            return null;
+        }
+
+        cache.put(odontogramId, odontogram.getVersion(), risk);
+        computed.incrementAndGet();
+        return risk;
+    }
+
+    private static int rank(List<String> levels, String level) {
+        int index = levels.indexOf(level);
+        return index >= 0 ? index : levels.size();
+    }
+}
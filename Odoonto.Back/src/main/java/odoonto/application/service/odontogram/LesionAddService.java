@@ -10,6 +10,7 @@ import odoonto.application.port.in.odontogram.LesionAddUseCase;
 import odoonto.application.port.out.ReactiveOdontogramRepository;
 
 import odoonto.domain.model.valueobjects.LesionType;
+import odoonto.domain.model.valueobjects.OdontogramId;
 import odoonto.domain.model.valueobjects.ToothFace;
 import reactor.core.publisher.Mono;
 
@@ -31,20 +32,15 @@ public class LesionAddService implements LesionAddUseCase {
 
     @Override
     public OdontogramDTO addLesion(String odontogramId, int toothNumber, String face, String lesionType) {
-        // Obtener el odontograma
-        return odontogramRepository.findById(odontogramId)
+        // Validar y convertir los datos
+        ToothFace toothFace = ToothFace.fromCodigo(face); // Usar el método correcto
+        LesionType lesion = LesionType.valueOf(lesionType); // Usar valueOf para enum
+        
+        // Añadir la lesión sobre el estado actual y persistir con escritura condicionada
+        // (la lógica de dominio puede lanzar DuplicateLesionException, que no se reintenta)
+        return odontogramRepository.update(OdontogramId.of(odontogramId),
+                        odontogram -> odontogram.addLesion(String.valueOf(toothNumber), toothFace, lesion))
                 .switchIfEmpty(Mono.error(new OdontogramNotFoundException("Odontograma no encontrado con ID: " + odontogramId)))
-                .flatMap(odontogram -> {
-                    // Validar y convertir los datos
-                    ToothFace toothFace = ToothFace.fromCodigo(face); // Usar el método correcto
-                    LesionType lesion = LesionType.valueOf(lesionType); // Usar valueOf para enum
-                    
-                    // Añadir la lesión (la lógica de dominio puede lanzar DuplicateLesionException)
-                    odontogram.addLesion(String.valueOf(toothNumber), toothFace, lesion);
-                    
-                    // Persistir los cambios
-                    return odontogramRepository.save(odontogram);
-                })
                 .map(odontogramMapper::toDTO)
                 .block(); // Bloqueamos para mantener compatibilidad con el caso de uso síncrono
     }
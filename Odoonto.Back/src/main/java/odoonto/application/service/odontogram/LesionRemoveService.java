@@ -5,6 +5,8 @@ import org.springframework.stereotype.Service;
 
 import odoonto.application.port.in.odontogram.LesionRemoveUseCase;
 import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.valueobjects.OdontogramId;
+import odoonto.domain.model.valueobjects.ToothFace;
 import odoonto.application.port.out.ReactiveOdontogramRepository;
 import reactor.core.publisher.Mono;
 
@@ -21,6 +23,10 @@ public class LesionRemoveService implements LesionRemoveUseCase {
         this.odontogramRepository = odontogramRepository;
     }
 
+    /**
+     * Las lesiones de un diente se identifican por su cara, así que lesionId es el
+     * código de la cara
+     */
     @Override
     public Mono<Void> removeLesion(String odontogramId, String toothNumber, String lesionId) {
         // Validaciones básicas
@@ -36,12 +42,12 @@ public class LesionRemoveService implements LesionRemoveUseCase {
             return Mono.error(new DomainException("El ID de la lesión no puede ser nulo o vacío"));
         }
         
-        // Verificar que el odontograma existe antes de eliminar la lesión
-        return odontogramRepository.findById(odontogramId)
+        // Quitar la lesión sobre el estado actual y persistir con escritura condicionada,
+        // que también ajusta las estadísticas y el índice por tipo de lesión
+        return Mono.fromCallable(() -> ToothFace.fromCodigo(lesionId))
+            .flatMap(face -> odontogramRepository.update(OdontogramId.of(odontogramId),
+                    odontogram -> odontogram.removeLesion(toothNumber, face)))
             .switchIfEmpty(Mono.error(new DomainException("No existe un odontograma con el ID: " + odontogramId)))
-            .flatMap(odontogram -> 
-                // Eliminar lesión usando el método del repositorio
-                odontogramRepository.removeLesion(odontogramId, toothNumber, lesionId)
-            );
+            .then();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package odoonto.application.service.odontogram;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import odoonto.application.dto.response.LesionStatisticsDTO;
+import odoonto.application.port.in.odontogram.LesionStatisticsUseCase;
+import odoonto.application.port.out.LesionStatistics;
+import odoonto.application.port.out.LesionStatisticsRepository;
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.valueobjects.LesionType;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Implementación del caso de uso de estadísticas de lesiones.
+ * Lee la vista materializada, de modo que el coste no depende del número de odontogramas.
+ */
+@Service
+public class LesionStatisticsService implements LesionStatisticsUseCase {
+
+    private final LesionStatisticsRepository lesionStatisticsRepository;
+
+    @Autowired
+    public LesionStatisticsService(LesionStatisticsRepository lesionStatisticsRepository) {
+        this.lesionStatisticsRepository = lesionStatisticsRepository;
+    }
+
+    @Override
+    public Mono<LesionStatisticsDTO> getLesionStatistics() {
+        return lesionStatisticsRepository.findStatistics()
+            .map(this::toDTO);
+    }
+
+    @Override
+    public Mono<LesionStatisticsDTO.LesionTypeStatisticsDTO> getLesionStatistics(String lesionType) {
+        return Mono.fromCallable(() -> parseLesionType(lesionType))
+            .flatMap(type -> lesionStatisticsRepository.findStatistics()
+                .map(statistics -> toDTO(type, statistics.getByType(type))));
+    }
+
+    @Override
+    public Mono<LesionStatisticsDTO> rebuildLesionStatistics() {
+        return lesionStatisticsRepository.rebuild()
+            .then(getLesionStatistics());
+    }
+
+    private LesionStatisticsDTO toDTO(LesionStatistics statistics) {
+        Map<String, LesionStatisticsDTO.LesionTypeStatisticsDTO> byType = new LinkedHashMap<>();
+        statistics.getByType().forEach((type, counts) -> byType.put(type.name(), toDTO(type, counts)));
+        return new LesionStatisticsDTO(statistics.getTotalLesions(), statistics.getOdontogramsWithLesions(), byType);
+    }
+
+    private LesionStatisticsDTO.LesionTypeStatisticsDTO toDTO(LesionType type, LesionStatistics.TypeCounts counts) {
+        return new LesionStatisticsDTO.LesionTypeStatisticsDTO(
+            type.name(),
+            type.getDescripcion(),
+            counts.getTotal(),
+            counts.getOdontograms(),
+            counts.getByTooth(),
+            counts.getByFace(),
+            counts.getByQuadrant(),
+            counts.getByZone());
+    }
+
+    /**
+     * Acepta el nombre del tipo (CARIES) o su código (CAR)
+     */
+    private LesionType parseLesionType(String lesionType) {
+        if (lesionType == null || lesionType.trim().isEmpty()) {
+            throw new DomainException("El tipo de lesión no puede estar vacío");
+        }
+        String value = lesionType.trim().toUpperCase();
+        try {
+            return LesionType.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            try {
+                return LesionType.fromCodigo(value);
+            } catch (IllegalArgumentException invalid) {
+                throw new DomainException("Tipo de lesión no válido: " + lesionType);
+            }
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package odoonto.application.service.odontogram;
 
+import odoonto.application.dto.response.LesionPatientPageDTO;
 import odoonto.application.dto.response.OdontogramDTO;
 import odoonto.application.exceptions.OdontogramNotFoundException;
 import odoonto.application.mapper.OdontogramMapper;
 import odoonto.application.port.in.odontogram.OdontogramQueryUseCase;
+import odoonto.application.port.out.LesionIndexQuery;
 import odoonto.application.port.out.ReactiveOdontogramRepository;
+import odoonto.domain.exceptions.DomainException;
 import odoonto.domain.model.aggregates.Odontogram;
+import odoonto.domain.model.valueobjects.LesionType;
 import odoonto.domain.model.valueobjects.PatientId;
+import odoonto.domain.model.valueobjects.ToothFace;
+import odoonto.domain.model.valueobjects.ToothNumber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -58,6 +64,40 @@ public class OdontogramQueryService implements OdontogramQueryUseCase {
         return odontogramRepository.existsByPatientId(PatientId.of(patientId));
     }
     
+    @Override
+    public Mono<LesionPatientPageDTO> findPatientsByLesionType(String lesionType, String toothNumber, String face,
+                                                               String cursor, Integer limit) {
+        return Mono.fromCallable(() -> new LesionIndexQuery(
+                        parseLesionType(lesionType),
+                        isBlank(toothNumber) ? null : new ToothNumber(toothNumber.trim()).getValue(),
+                        isBlank(face) ? null : ToothFace.fromCodigo(face.trim()).getCodigo(),
+                        isBlank(cursor) ? null : cursor.trim(),
+                        limit != null ? limit : 0))
+                .flatMap(query -> odontogramRepository.findByLesionType(query)
+                        .map(page -> new LesionPatientPageDTO(
+                                query.getLesionType().name(), page.getPatientIds(), page.getNextCursor())));
+    }
+    
+    /**
+     * Acepta el nombre del tipo (CARIES) o su código (CAR)
+     */
+    private LesionType parseLesionType(String lesionType) {
+        if (isBlank(lesionType)) {
+            throw new DomainException("El tipo de lesión no puede estar vacío");
+        }
+        String value = lesionType.trim().toUpperCase();
+        for (LesionType type : LesionType.values()) {
+            if (type.name().equals(value) || type.getCodigo().equals(value)) {
+                return type;
+            }
+        }
+        throw new DomainException("Tipo de lesión no válido: " + lesionType);
+    }
+    
+    private boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+    
     /**
      * Método auxiliar para obtener un odontograma por ID
      * lanzando excepción si no existe
@@ -0,0 +1,49 @@
+package odoonto.application.service.odontogram;
+
+import odoonto.application.dto.response.PatientRiskDTO;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Último diagnóstico de riesgo de cada odontograma junto con la versión con la que
+ * se calculó. Mientras la versión no cambie el odontograma no se vuelve a diagnosticar.
+ */
+class PatientRiskCache {
+
+    private final Map<String, CachedRisk> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @return Diagnóstico calculado con esa versión o null si no existe o está desfasado
+     */
+    PatientRiskDTO get(String odontogramId, long version) {
+        CachedRisk cached = entries.get(odontogramId);
+        return cached != null && cached.version == version ? cached.risk : null;
+    }
+
+    void put(String odontogramId, long version, PatientRiskDTO risk) {
+        entries.put(odontogramId, new CachedRisk(version, risk));
+    }
+
+    /**
+     * Descarta los odontogramas que ya no existen
+     */
+    void retainOnly(Set<String> odontogramIds) {
+        entries.keySet().retainAll(odontogramIds);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static final class CachedRisk {
+        private final long version;
+        private final PatientRiskDTO risk;
+
+        private CachedRisk(long version, PatientRiskDTO risk) {
+            this.version = version;
+            this.risk = risk;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package odoonto.application.service.waitlist;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import odoonto.application.dto.request.AppointmentCreateDTO;
+import odoonto.application.dto.request.WaitlistEntryCreateDTO;
+import odoonto.application.dto.response.AppointmentDTO;
+import odoonto.application.dto.response.WaitlistEntryDTO;
+import odoonto.application.exceptions.AppointmentConflictException;
+import odoonto.application.exceptions.DoctorNotFoundException;
+import odoonto.application.exceptions.PatientNotFoundException;
+import odoonto.application.port.in.appointment.AppointmentCreateUseCase;
+import odoonto.application.port.in.appointment.WaitlistUseCase;
+import odoonto.application.port.out.MetricsSource;
+import odoonto.application.port.out.ReactiveDoctorRepository;
+import odoonto.application.port.out.ReactivePatientRepository;
+import odoonto.application.port.out.ReactiveWaitlistRepository;
+import odoonto.application.port.out.WaitlistNotifier;
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.aggregates.Doctor;
+import odoonto.domain.model.aggregates.WaitlistEntry;
+import odoonto.domain.model.valueobjects.Specialty;
+import odoonto.domain.model.valueobjects.WaitlistStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementación del caso de uso de la lista de espera.
+ * Cuando se libera un hueco se buscan en el índice las solicitudes de ese doctor o de su
+ * especialidad para ese día, se filtran en memoria por franja y duración y el hueco se
+ * ofrece a los primeros candidatos por orden de prioridad (urgentes y, después, por
+ * orden de llegada). Se ofrece a varios a la vez: el primero que acepta se queda la cita,
+ * porque la reserva de franjas es atómica, y los demás vuelven a la lista en su puesto.
+ * Las solicitudes del índice solo se leen; cada cambio de estado se aplica con
+ * {@link ReactiveWaitlistRepository#update} sobre el estado guardado.
+ */
+@Service
+public class WaitlistService implements WaitlistUseCase, MetricsSource {
+
+    /**
+     * Candidatos a los que se ofrece a la vez un mismo hueco
+     */
+    private static final int OFFER_FANOUT = 3;
+
+    /**
+     * Tiempo que tiene el paciente para aceptar una oferta
+     */
+    private static final Duration OFFER_TTL = Duration.ofMinutes(30);
+
+    private static final String WAITLIST_NOTES = "Cita asignada desde la lista de espera";
+
+    private final ReactiveWaitlistRepository waitlistRepository;
+    private final ReactiveDoctorRepository doctorRepository;
+    private final ReactivePatientRepository patientRepository;
+    private final AppointmentCreateUseCase appointmentCreateUseCase;
+    private final WaitlistNotifier notifier;
+
+    private final LongAdder slotsFreed = new LongAdder();
+    private final LongAdder slotsMatched = new LongAdder();
+    private final LongAdder offersSent = new LongAdder();
+    private final LongAdder offersAccepted = new LongAdder();
+    private final LongAdder offersDeclined = new LongAdder();
+    private final LongAdder acceptConflicts = new LongAdder();
+    private final LongAdder matchNanos = new LongAdder();
+    private final AtomicLong maxMatchNanos = new AtomicLong();
+
+    @Autowired
+    public WaitlistService(
+            ReactiveWaitlistRepository waitlistRepository,
+            ReactiveDoctorRepository doctorRepository,
+            ReactivePatientRepository patientRepository,
+            AppointmentCreateUseCase appointmentCreateUseCase,
+            WaitlistNotifier notifier) {
+        this.waitlistRepository = waitlistRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.appointmentCreateUseCase = appointmentCreateUseCase;
+        this.notifier = notifier;
+    }
+
+    @Override
+    public Mono<WaitlistEntryDTO> addEntry(WaitlistEntryCreateDTO entryCreateDTO) {
+        // Validaciones básicas
+        if (entryCreateDTO == null) {
+            return Mono.error(new DomainException("Los datos de la solicitud no pueden ser nulos"));
+        }
+
+        boolean hasDoctor = entryCreateDTO.getDoctorId() != null && !entryCreateDTO.getDoctorId().trim().isEmpty();
+        Mono<?> doctorExists = hasDoctor
+            ? doctorRepository.findById(entryCreateDTO.getDoctorId())
+                .switchIfEmpty(Mono.error(new DoctorNotFoundException(entryCreateDTO.getDoctorId())))
+            : Mono.empty();
+        Mono<?> patientExists = patientRepository.findById(entryCreateDTO.getPatientId())
+            .switchIfEmpty(Mono.error(new PatientNotFoundException(entryCreateDTO.getPatientId())));
+
+        return Mono.fromCallable(() -> toEntry(entryCreateDTO))
+            .flatMap(entry -> Mono.when(doctorExists, patientExists)
+                .then(Mono.defer(() -> waitlistRepository.create(entry))))
+            .map(this::toDTO);
+    }
+
+    @Override
+    public Mono<WaitlistEntryDTO> getEntryById(String entryId) {
+        return findEntry(entryId).map(this::toDTO);
+    }
+
+    @Override
+    public Flux<WaitlistEntryDTO> getEntriesByPatient(String patientId) {
+        return waitlistRepository.findByPatientId(patientId)
+            .sort(WaitlistEntry.ORDEN_PRIORIDAD)
+            .map(this::toDTO);
+    }
+
+    @Override
+    public Mono<WaitlistEntryDTO> withdrawEntry(String entryId) {
+        return updateEntry(entryId, WaitlistEntry::retirar)
+            .map(this::toDTO);
+    }
+
+    @Override
+    public Mono<AppointmentDTO> acceptOffer(String entryId) {
+        return findEntry(entryId)
+            .flatMap(entry -> {
+                if (entry.getStatus() != WaitlistStatus.OFERTADA) {
+                    return Mono.error(new DomainException("La solicitud no tiene ninguna oferta pendiente"));
+                }
+                if (!LocalDateTime.now().isBefore(entry.getOfertaCaduca())) {
+                    return Mono.error(new DomainException("La oferta ha caducado"));
+                }
+
+                LocalDateTime start = entry.getOfertaInicio();
+                AppointmentCreateDTO appointmentCreateDTO = new AppointmentCreateDTO(entry.getOfertaDoctorId(),
+                    entry.getPatientId(), start.toLocalDate(), start.toLocalTime(),
+                    entry.getDurationSlots() * 30, WAITLIST_NOTES);
+
+                // La reserva de franjas decide quién se queda el hueco si lo aceptan varios
+                return appointmentCreateUseCase.createAppointment(appointmentCreateDTO)
+                    .flatMap(appointment -> updateEntry(entryId, current -> current.aceptarOferta(LocalDateTime.now()))
+                        .doOnNext(accepted -> offersAccepted.increment())
+                        .thenReturn(appointment))
+                    .onErrorResume(AppointmentConflictException.class, e -> {
+                        acceptConflicts.increment();
+                        return updateEntry(entryId, WaitlistEntry::rechazarOferta)
+                            .then(Mono.error(new AppointmentConflictException(
+                                "El hueco ofrecido ya no está disponible; la solicitud sigue en la lista")));
+                    });
+            });
+    }
+
+    @Override
+    public Mono<WaitlistEntryDTO> declineOffer(String entryId) {
+        // Hueco de la oferta tal y como estaba en el intento que se confirmó
+        AtomicReference<Offer> declined = new AtomicReference<>();
+        return updateEntry(entryId, entry -> {
+                declined.set(new Offer(entry, entry.getOfertaDoctorId(), entry.getOfertaInicio()));
+                entry.rechazarOferta();
+            })
+            .flatMap(saved -> {
+                offersDeclined.increment();
+                Offer offer = declined.get();
+
+                // El hueco pasa al siguiente candidato; quien lo rechaza no vuelve a recibirlo
+                return offerSlot(offer.doctorId, offer.start, saved.getDurationSlots(),
+                        Collections.singleton(saved.getPatientId()))
+                    .thenReturn(saved);
+            })
+            .map(this::toDTO);
+    }
+
+    @Override
+    public Mono<Integer> offerFreedSlot(String doctorId, LocalDateTime start, int durationSlots) {
+        slotsFreed.increment();
+        return offerSlot(doctorId, start, durationSlots, Collections.emptySet());
+    }
+
+    /**
+     * Ofrece un hueco a los primeros candidatos compatibles
+     * @param excludedPatients Pacientes que no deben recibir la oferta
+     * @return Mono con el número de ofertas enviadas
+     */
+    private Mono<Integer> offerSlot(String doctorId, LocalDateTime start, int durationSlots,
+                                    Set<String> excludedPatients) {
+        LocalDateTime now = LocalDateTime.now();
+        if (doctorId == null || start == null || !start.isAfter(now) || durationSlots <= 0) {
+            return Mono.just(0);
+        }
+
+        // Un doctor que ya no existe no tiene huecos que ofrecer
+        return doctorRepository.findById(doctorId)
+            .flatMap(doctor -> waitlistRepository.findCandidates(doctor, start.toLocalDate())
+                .collectList()
+                .map(candidates -> selectOffers(doctor, start, durationSlots, candidates, excludedPatients, now)))
+            .flatMapMany(Flux::fromIterable)
+            .concatMap(offer -> sendOffer(offer, now))
+            .reduce(0, Integer::sum);
+    }
+
+    /**
+     * Elige los candidatos del hueco en orden de prioridad, uno por paciente. A cada uno
+     * se le ofrece el primer inicio dentro del hueco que encaja en su franja
+     */
+    private List<Offer> selectOffers(Doctor doctor, LocalDateTime start, int durationSlots,
+                                     List<WaitlistEntry> candidates, Set<String> excludedPatients,
+                                     LocalDateTime now) {
+        long startNanos = System.nanoTime();
+        List<Offer> offers = new ArrayList<>(OFFER_FANOUT);
+        Set<String> patients = new HashSet<>(excludedPatients);
+        for (WaitlistEntry candidate : candidates) {
+            if (offers.size() == OFFER_FANOUT) {
+                break;
+            }
+            if (!candidate.isDisponible(now) || patients.contains(candidate.getPatientId())) {
+                continue;
+            }
+
+            for (int offset = 0; offset + candidate.getDurationSlots() <= durationSlots; offset++) {
+                LocalDateTime candidateStart = start.plusMinutes(offset * 30L);
+                if (candidate.encajaEn(doctor, candidateStart, durationSlots - offset)) {
+                    offers.add(new Offer(candidate, doctor.getId(), candidateStart));
+                    patients.add(candidate.getPatientId());
+                    break;
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - startNanos;
+        matchNanos.add(elapsed);
+        maxMatchNanos.accumulateAndGet(elapsed, Math::max);
+        if (!offers.isEmpty()) {
+            slotsMatched.increment();
+        }
+        return offers;
+    }
+
+    /**
+     * Registra y envía una oferta. Se comprueba de nuevo sobre el estado guardado que la
+     * solicitud sigue disponible; si no, o si no se puede guardar, no se envía
+     */
+    private Mono<Integer> sendOffer(Offer offer, LocalDateTime now) {
+        return waitlistRepository.update(offer.entry.getId(), entry -> {
+                if (!entry.isDisponible(now)) {
+                    throw new DomainException("La solicitud ya no está disponible para ofertas");
+                }
+                entry.ofrecer(offer.doctorId, offer.start, now.plus(OFFER_TTL));
+            })
+            .flatMap(saved -> notifier.notifyOffer(saved)
+                .onErrorResume(e -> Mono.empty())
+                .thenReturn(1))
+            .doOnNext(sent -> offersSent.increment())
+            .onErrorResume(e -> Mono.just(0))
+            .defaultIfEmpty(0);
+    }
+
+    private WaitlistEntry toEntry(WaitlistEntryCreateDTO dto) {
+        if (dto.getStartTime() == null || dto.getEndTime() == null) {
+            throw new DomainException("La franja horaria es obligatoria");
+        }
+        if (dto.getToDate() == null) {
+            throw new DomainException("La última fecha aceptable es obligatoria");
+        }
+
+        Specialty specialty = null;
+        if (dto.getSpecialty() != null && !dto.getSpecialty().trim().isEmpty()) {
+            try {
+                specialty = Specialty.valueOf(dto.getSpecialty().trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new DomainException("Especialidad no válida: " + dto.getSpecialty());
+            }
+        }
+
+        List<DayOfWeek> days = new ArrayList<>();
+        if (dto.getDaysOfWeek() != null) {
+            for (String day : dto.getDaysOfWeek()) {
+                try {
+                    days.add(DayOfWeek.valueOf(day.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw new DomainException("Día de la semana no válido: " + day);
+                }
+            }
+        }
+
+        int durationSlots = dto.getDuration() != null && dto.getDuration() > 0 ? (dto.getDuration() + 29) / 30 : 1;
+        return new WaitlistEntry(dto.getPatientId(), dto.getDoctorId(), specialty,
+            dto.getFromDate() != null ? dto.getFromDate() : LocalDate.now(), dto.getToDate(), days,
+            dto.getStartTime(), dto.getEndTime(), durationSlots, dto.isUrgent());
+    }
+
+    private Mono<WaitlistEntry> findEntry(String entryId) {
+        if (entryId == null || entryId.trim().isEmpty()) {
+            return Mono.error(new DomainException("El ID de la solicitud no puede ser nulo o vacío"));
+        }
+        return waitlistRepository.findById(entryId)
+            .switchIfEmpty(Mono.error(new DomainException("No existe una solicitud con el ID: " + entryId)));
+    }
+
+    private Mono<WaitlistEntry> updateEntry(String entryId, Consumer<WaitlistEntry> mutation) {
+        if (entryId == null || entryId.trim().isEmpty()) {
+            return Mono.error(new DomainException("El ID de la solicitud no puede ser nulo o vacío"));
+        }
+        return waitlistRepository.update(entryId, mutation)
+            .switchIfEmpty(Mono.error(new DomainException("No existe una solicitud con el ID: " + entryId)));
+    }
+
+    private WaitlistEntryDTO toDTO(WaitlistEntry entry) {
+        List<String> days = new ArrayList<>();
+        for (DayOfWeek day : entry.getDias()) {
+            days.add(day.name());
+        }
+
+        return new WaitlistEntryDTO(entry.getId(), entry.getPatientId(), entry.getDoctorId(),
+            entry.getEspecialidad() != null ? entry.getEspecialidad().name() : null,
+            entry.getDesde().toString(), entry.getHasta().toString(), days,
+            entry.getHoraDesde().toString(), entry.getHoraHasta().toString(), entry.getDurationSlots(),
+            entry.isUrgente(), entry.getStatus().name(), entry.getCreatedAt().toString(),
+            entry.getOfertaDoctorId(),
+            entry.getOfertaInicio() != null ? entry.getOfertaInicio().toString() : null,
+            entry.getOfertaCaduca() != null ? entry.getOfertaCaduca().toString() : null,
+            entry.getOfertasRecibidas());
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "waitlist";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        long freed = slotsFreed.sum();
+        long matched = slotsMatched.sum();
+        long sent = offersSent.sum();
+        long accepted = offersAccepted.sum();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("slotsFreed", freed);
+        metrics.put("slotsMatched", matched);
+        // Huecos con al menos una oferta frente a huecos ocupados por una oferta aceptada
+        metrics.put("matchRate", freed == 0 ? 0.0 : (double) matched / freed);
+        metrics.put("fillRate", freed == 0 ? 0.0 : (double) accepted / freed);
+        metrics.put("offersSent", sent);
+        metrics.put("offersAccepted", accepted);
+        metrics.put("offersDeclined", offersDeclined.sum());
+        metrics.put("acceptConflicts", acceptConflicts.sum());
+        metrics.put("avgMatchMicros", freed == 0
+            ? 0.0 : matchNanos.sum() / (double) freed / TimeUnit.MICROSECONDS.toNanos(1));
+        metrics.put("maxMatchMicros", TimeUnit.NANOSECONDS.toMicros(maxMatchNanos.get()));
+        return metrics;
+    }
+
+    /**
+     * Oferta de un hueco a una solicitud
+     */
+    private static final class Offer {
+        private final WaitlistEntry entry;
+        private final String doctorId;
+        private final LocalDateTime start;
+
+        private Offer(WaitlistEntry entry, String doctorId, LocalDateTime start) {
+            this.entry = entry;
+            this.doctorId = doctorId;
+            this.start = start;
+        }
+    }
+}
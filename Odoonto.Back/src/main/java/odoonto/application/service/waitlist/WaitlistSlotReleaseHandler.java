@@ -0,0 +1,55 @@
+package odoonto.application.service.waitlist;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import odoonto.application.port.in.appointment.WaitlistUseCase;
+import odoonto.application.port.in.outbox.OutboxMessage;
+import odoonto.application.port.in.outbox.OutboxMessageHandler;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ofrece a la lista de espera los huecos que deja cada cita cancelada.
+ * Un reintento del relay solo puede ofrecer el hueco a más candidatos, nunca
+ * duplicar una oferta, porque las solicitudes ya ofertadas no están disponibles.
+ */
+@Component
+public class WaitlistSlotReleaseHandler implements OutboxMessageHandler {
+
+    private static final String EVENT_TYPE = "AppointmentStatusChangedEvent";
+
+    private final WaitlistUseCase waitlistUseCase;
+
+    @Autowired
+    public WaitlistSlotReleaseHandler(WaitlistUseCase waitlistUseCase) {
+        this.waitlistUseCase = waitlistUseCase;
+    }
+
+    @Override
+    public boolean supports(String eventType) {
+        return EVENT_TYPE.equals(eventType);
+    }
+
+    @Override
+    public Mono<Void> handle(OutboxMessage message) {
+        if (!AppointmentStatus.CANCELADA.toString().equals(message.getPayloadString("newStatus"))) {
+            return Mono.empty();
+        }
+
+        String dateTime = message.getPayloadString("dateTime");
+        String durationSlots = message.getPayloadString("durationSlots");
+        if (dateTime == null) {
+            return Mono.empty();
+        }
+
+        // Los eventos anteriores a incluir la duración liberan un único slot
+        return waitlistUseCase.offerFreedSlot(
+                message.getPayloadString("doctorId"),
+                LocalDateTime.parse(dateTime),
+                durationSlots != null ? Integer.parseInt(durationSlots) : 1)
+            .then();
+    }
+}
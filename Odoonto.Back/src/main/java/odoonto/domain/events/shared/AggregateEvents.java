@@ -0,0 +1,27 @@
+package odoonto.domain.events.shared;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class AggregateEvents {
+    private final List<DomainEvent> pending = new ArrayList<>();
+
+    public void raise(final DomainEvent event) {
+        pending.add(Objects.requireNonNull(event, "DomainEvent cannot be null"));
+    }
+
+    public List<DomainEvent> peek() {
+        return List.copyOf(pending);
+    }
+
+    public List<DomainEvent> pull() {
+        final List<DomainEvent> pulled = List.copyOf(pending);
+        pending.clear();
+        return pulled;
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+}
@@ -0,0 +1,6 @@
+package odoonto.domain.events.shared;
+
+public interface DomainEventHandler<E extends DomainEvent> {
+    Class<E> getEventType();
+    void handle(E event);
+}
@@ -0,0 +1,14 @@
+package odoonto.domain.events.shared;
+
+import java.util.List;
+
+public interface DomainEventPublisher {
+    void publish(String aggregateId, List<DomainEvent> events);
+
+    default void publishPending(final EventRaisingAggregate aggregate) {
+        final List<DomainEvent> events = aggregate.pullPendingEvents();
+        if (!events.isEmpty()) {
+            publish(aggregate.getAggregateId(), events);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package odoonto.domain.events.shared;
+
+import java.util.List;
+
+public interface EventRaisingAggregate {
+    String getAggregateId();
+    List<DomainEvent> getPendingEvents();
+    List<DomainEvent> pullPendingEvents();
+}
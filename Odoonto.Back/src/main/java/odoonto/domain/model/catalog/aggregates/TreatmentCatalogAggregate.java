@@ -2,7 +2,9 @@ package odoonto.domain.model.catalog.aggregates;
 
 import org.jmolecules.ddd.annotation.AggregateRoot;
 
-import odoonto.domain.events.shared.DomainEvents;
+import odoonto.domain.events.shared.AggregateEvents;
+import odoonto.domain.events.shared.DomainEvent;
+import odoonto.domain.events.shared.EventRaisingAggregate;
 import odoonto.domain.events.catalog.TreatmentPriceUpdatedEvent;
 import odoonto.domain.model.catalog.entities.TreatmentPricingEntity;
 import odoonto.domain.model.catalog.valueobjects.CatalogId;
@@ -11,21 +13,27 @@ import odoonto.domain.model.shared.valueobjects.MoneyValue;
 import odoonto.domain.model.shared.valueobjects.DurationValue;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @AggregateRoot
-public class TreatmentCatalogAggregate {
+public class TreatmentCatalogAggregate implements EventRaisingAggregate {
     private final CatalogId catalogId;
     private final String catalogName;
-    private final List<TreatmentPricingEntity> treatmentPricings;
+    private final Map<TreatmentId, TreatmentPricingEntity> treatmentPricings;
+    private final AggregateEvents domainEvents = new AggregateEvents();
 
     public TreatmentCatalogAggregate(final CatalogId catalogId,
                                    final String catalogName,
                                    final List<TreatmentPricingEntity> treatmentPricings) {
         this.catalogId = catalogId;
         this.catalogName = catalogName;
-        this.treatmentPricings = new ArrayList<>(treatmentPricings);
+        this.treatmentPricings = new LinkedHashMap<>();
+        for (final TreatmentPricingEntity pricing : treatmentPricings) {
+            this.treatmentPricings.put(pricing.getTreatmentId(), pricing);
+        }
     }
 
     public void updateTreatmentPrice(final TreatmentId treatmentId, 
@@ -33,10 +41,9 @@ public class TreatmentCatalogAggregate {
         final Optional<TreatmentPricingEntity> treatmentPricing = findTreatmentPricing(treatmentId);
         
         if (treatmentPricing.isPresent()) {
-            final TreatmentPricingEntity updatedPricing = treatmentPricing.get().updatePrice(newPrice);
-            replaceTreatmentPricing(treatmentPricing.get(), updatedPricing);
+            treatmentPricings.put(treatmentId, treatmentPricing.get().updatePrice(newPrice));
             
-            DomainEvents.raise(TreatmentPriceUpdatedEvent.create(
+            domainEvents.raise(TreatmentPriceUpdatedEvent.create(
                 this.catalogId,
                 treatmentId,
                 newPrice
@@ -55,17 +62,7 @@ public class TreatmentCatalogAggregate {
     }
 
     private Optional<TreatmentPricingEntity> findTreatmentPricing(final TreatmentId treatmentId) {
-        return treatmentPricings.stream()
-            .filter(pricing -> pricing.getTreatmentId().equals(treatmentId))
-            .findFirst();
-    }
-
-    private void replaceTreatmentPricing(final TreatmentPricingEntity oldPricing, 
-                                       final TreatmentPricingEntity newPricing) {
-        final int index = treatmentPricings.indexOf(oldPricing);
-        if (index >= 0) {
-            treatmentPricings.set(index, newPricing);
-        }
+        return Optional.ofNullable(treatmentPricings.get(treatmentId));
     }
 
     public CatalogId getCatalogId() {
@@ -77,6 +74,21 @@ public class TreatmentCatalogAggregate {
     }
 
     public List<TreatmentPricingEntity> getTreatmentPricings() {
-        return new ArrayList<>(treatmentPricings);
+        return new ArrayList<>(treatmentPricings.values());
+    }
+
+    @Override
+    public String getAggregateId() {
+        return catalogId.getValue();
+    }
+
+    @Override
+    public List<DomainEvent> getPendingEvents() {
+        return domainEvents.peek();
+    }
+
+    @Override
+    public List<DomainEvent> pullPendingEvents() {
+        return domainEvents.pull();
     }
 } 
\ No newline at end of file
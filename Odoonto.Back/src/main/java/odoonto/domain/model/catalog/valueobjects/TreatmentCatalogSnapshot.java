@@ -0,0 +1,76 @@
+package odoonto.domain.model.catalog.valueobjects;
+
+import org.jmolecules.ddd.annotation.ValueObject;
+
+import odoonto.domain.model.catalog.aggregates.TreatmentCatalogAggregate;
+import odoonto.domain.model.catalog.entities.TreatmentPricingEntity;
+import odoonto.domain.model.records.valueobjects.TreatmentId;
+import odoonto.domain.model.shared.valueobjects.DurationValue;
+import odoonto.domain.model.shared.valueobjects.MoneyValue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@ValueObject
+public final class TreatmentCatalogSnapshot {
+    private static final TreatmentCatalogSnapshot EMPTY = new TreatmentCatalogSnapshot(Collections.emptyMap(), 0L);
+
+    private final Map<TreatmentId, TreatmentPricingEntity> pricingsByTreatment;
+    private final long version;
+
+    private TreatmentCatalogSnapshot(final Map<TreatmentId, TreatmentPricingEntity> pricingsByTreatment,
+                                     final long version) {
+        this.pricingsByTreatment = pricingsByTreatment;
+        this.version = version;
+    }
+
+    public static TreatmentCatalogSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static TreatmentCatalogSnapshot of(final List<TreatmentCatalogAggregate> catalogs, final long version) {
+        final Map<TreatmentId, TreatmentPricingEntity> pricings = new HashMap<>();
+        for (final TreatmentCatalogAggregate catalog : catalogs) {
+            for (final TreatmentPricingEntity pricing : catalog.getTreatmentPricings()) {
+                pricings.put(pricing.getTreatmentId(), pricing);
+            }
+        }
+        return new TreatmentCatalogSnapshot(Collections.unmodifiableMap(pricings), version);
+    }
+
+    public TreatmentCatalogSnapshot withPrice(final TreatmentId treatmentId, final MoneyValue newPrice) {
+        final TreatmentPricingEntity current = pricingsByTreatment.get(treatmentId);
+        if (current == null || current.getPrice().equals(newPrice)) {
+            return this;
+        }
+
+        final Map<TreatmentId, TreatmentPricingEntity> pricings = new HashMap<>(pricingsByTreatment);
+        pricings.put(treatmentId, current.updatePrice(newPrice));
+        return new TreatmentCatalogSnapshot(Collections.unmodifiableMap(pricings), version + 1);
+    }
+
+    public boolean contains(final TreatmentId treatmentId) {
+        return pricingsByTreatment.containsKey(treatmentId);
+    }
+
+    public Optional<MoneyValue> getPrice(final TreatmentId treatmentId) {
+        final TreatmentPricingEntity pricing = pricingsByTreatment.get(treatmentId);
+        return pricing != null ? Optional.ofNullable(pricing.getPrice()) : Optional.empty();
+    }
+
+    public Optional<DurationValue> getDuration(final TreatmentId treatmentId) {
+        final TreatmentPricingEntity pricing = pricingsByTreatment.get(treatmentId);
+        return pricing != null ? Optional.ofNullable(pricing.getEstimatedDuration()) : Optional.empty();
+    }
+
+    public int size() {
+        return pricingsByTreatment.size();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
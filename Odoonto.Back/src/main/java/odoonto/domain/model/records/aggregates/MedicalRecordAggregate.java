@@ -4,7 +4,9 @@ import org.jmolecules.ddd.annotation.AggregateRoot;
 
 import odoonto.domain.events.records.MedicalRecordCreatedEvent;
 import odoonto.domain.events.records.TreatmentAddedEvent;
-import odoonto.domain.events.shared.DomainEvents;
+import odoonto.domain.events.shared.AggregateEvents;
+import odoonto.domain.events.shared.DomainEvent;
+import odoonto.domain.events.shared.EventRaisingAggregate;
 import odoonto.domain.model.records.entities.OdontogramEntity;
 import odoonto.domain.model.records.entities.TreatmentEntity;
 import odoonto.domain.model.records.valueobjects.MedicalRecordId;
@@ -16,12 +18,13 @@ import java.util.List;
 import java.util.ArrayList;
 
 @AggregateRoot
-public class MedicalRecordAggregate {
+public class MedicalRecordAggregate implements EventRaisingAggregate {
     private final MedicalRecordId recordId;
     private final PatientId patientId;
     private final TimestampValue createdAt;
     private final OdontogramEntity odontogram;
     private final List<TreatmentEntity> treatments;
+    private final AggregateEvents domainEvents = new AggregateEvents();
 
     public MedicalRecordAggregate(final MedicalRecordId recordId, 
                                  final PatientId patientId,
@@ -36,7 +39,7 @@ public class MedicalRecordAggregate {
     }
 
     public void createRecord() {
-        DomainEvents.raise(MedicalRecordCreatedEvent.create(
+        domainEvents.raise(MedicalRecordCreatedEvent.create(
             this.recordId,
             this.patientId
         ));
@@ -44,7 +47,7 @@ public class MedicalRecordAggregate {
 
     public void addTreatment(final TreatmentEntity treatment) {
         this.treatments.add(treatment);
-        DomainEvents.raise(TreatmentAddedEvent.create(
+        domainEvents.raise(TreatmentAddedEvent.create(
             this.recordId,
             treatment.getTreatmentId()
         ));
@@ -69,4 +72,19 @@ public class MedicalRecordAggregate {
     public List<TreatmentEntity> getTreatments() {
         return treatments;
     }
+
+    @Override
+    public String getAggregateId() {
+        return recordId.getValue();
+    }
+
+    @Override
+    public List<DomainEvent> getPendingEvents() {
+        return domainEvents.peek();
+    }
+
+    @Override
+    public List<DomainEvent> pullPendingEvents() {
+        return domainEvents.pull();
+    }
 } 
\ No newline at end of file
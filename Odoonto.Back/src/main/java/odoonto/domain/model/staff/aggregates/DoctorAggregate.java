@@ -2,7 +2,9 @@ package odoonto.domain.model.staff.aggregates;
 
 import org.jmolecules.ddd.annotation.AggregateRoot;
 
-import odoonto.domain.events.shared.DomainEvents;
+import odoonto.domain.events.shared.AggregateEvents;
+import odoonto.domain.events.shared.DomainEvent;
+import odoonto.domain.events.shared.EventRaisingAggregate;
 import odoonto.domain.events.staff.DoctorCreatedEvent;
 import odoonto.domain.model.staff.valueobjects.DoctorId;
 import odoonto.domain.model.staff.valueobjects.SpecialtyValue;
@@ -10,14 +12,17 @@ import odoonto.domain.model.staff.valueobjects.ScheduleValue;
 import odoonto.domain.model.patients.valueobjects.EmailAddress;
 import odoonto.domain.model.patients.valueobjects.PhoneNumber;
 
+import java.util.List;
+
 @AggregateRoot
-public class DoctorAggregate {
+public class DoctorAggregate implements EventRaisingAggregate {
     private final DoctorId doctorId;
     private final String fullName;
     private final EmailAddress email;
     private final PhoneNumber phone;
     private final SpecialtyValue specialty;
     private final ScheduleValue schedule;
+    private final AggregateEvents domainEvents = new AggregateEvents();
 
     public DoctorAggregate(final DoctorId doctorId,
                           final String fullName,
@@ -34,7 +39,7 @@ public class DoctorAggregate {
     }
 
     public void register() {
-        DomainEvents.raise(DoctorCreatedEvent.create(
+        domainEvents.raise(DoctorCreatedEvent.create(
             this.doctorId,
             this.fullName,
             this.specialty
@@ -64,4 +69,19 @@ public class DoctorAggregate {
     public ScheduleValue getSchedule() {
         return schedule;
     }
+
+    @Override
+    public String getAggregateId() {
+        return doctorId.getValue();
+    }
+
+    @Override
+    public List<DomainEvent> getPendingEvents() {
+        return domainEvents.peek();
+    }
+
+    @Override
+    public List<DomainEvent> pullPendingEvents() {
+        return domainEvents.pull();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,7 @@
+package odoonto.domain.repository.catalog;
+
+import odoonto.domain.model.catalog.valueobjects.TreatmentCatalogSnapshot;
+
+public interface TreatmentCatalogReader {
+    TreatmentCatalogSnapshot currentSnapshot();
+}
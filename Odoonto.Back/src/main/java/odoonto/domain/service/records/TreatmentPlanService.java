@@ -2,36 +2,58 @@ package odoonto.domain.service.records;
 
 import org.jmolecules.ddd.annotation.Service;
 
+import odoonto.domain.exceptions.records.InvalidTreatmentException;
+import odoonto.domain.model.catalog.valueobjects.TreatmentCatalogSnapshot;
 import odoonto.domain.model.records.entities.TreatmentEntity;
 import odoonto.domain.model.records.valueobjects.TreatmentType;
 import odoonto.domain.model.shared.valueobjects.MoneyValue;
 import odoonto.domain.model.shared.valueobjects.DurationValue;
-import odoonto.domain.repository.catalog.TreatmentCatalogRepository;
+import odoonto.domain.repository.catalog.TreatmentCatalogReader;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 @Service
 public class TreatmentPlanService {
-    private final TreatmentCatalogRepository catalogRepository;
+    private static final String DEFAULT_CURRENCY = "USD";
 
-    public TreatmentPlanService(final TreatmentCatalogRepository catalogRepository) {
-        this.catalogRepository = catalogRepository;
+    private final TreatmentCatalogReader catalogReader;
+
+    public TreatmentPlanService(final TreatmentCatalogReader catalogReader) {
+        this.catalogReader = catalogReader;
     }
 
     public MoneyValue calculateTotalCost(final List<TreatmentEntity> treatments) {
-        final BigDecimal totalAmount = treatments.stream()
-            .map(TreatmentEntity::getCost)
-            .map(MoneyValue::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        final TreatmentCatalogSnapshot catalog = catalogReader.currentSnapshot();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        String currency = null;
+
+        for (final TreatmentEntity treatment : treatments) {
+            final MoneyValue cost = catalog.getPrice(treatment.getTreatmentId()).orElse(treatment.getCost());
+            if (cost == null) {
+                continue;
+            }
+            if (currency == null) {
+                currency = cost.getCurrency();
+            } else if (!currency.equals(cost.getCurrency())) {
+                throw new InvalidTreatmentException("No se pueden sumar costes en " + currency
+                    + " y " + cost.getCurrency() + " en el mismo plan de tratamiento");
+            }
+            totalAmount = totalAmount.add(cost.getAmount());
+        }
 
-        return new MoneyValue(totalAmount, "USD");
+        return new MoneyValue(totalAmount, currency != null ? currency : DEFAULT_CURRENCY);
     }
 
     public DurationValue calculateTotalDuration(final List<TreatmentEntity> treatments) {
-        final int totalMinutes = treatments.stream()
-            .mapToInt(treatment -> getTreatmentDuration(treatment.getTreatmentType()))
-            .sum();
+        final TreatmentCatalogSnapshot catalog = catalogReader.currentSnapshot();
+        int totalMinutes = 0;
+
+        for (final TreatmentEntity treatment : treatments) {
+            totalMinutes += catalog.getDuration(treatment.getTreatmentId())
+                .map(DurationValue::getMinutes)
+                .orElseGet(() -> getTreatmentDuration(treatment.getTreatmentType()));
+        }
 
         return new DurationValue(totalMinutes);
     }
@@ -61,4 +83,4 @@ public class TreatmentPlanService {
             case PERIODONTAL -> 75;
         };
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package odoonto.domain.exceptions;
+
+/**
+ * Excepción que se lanza al intentar modificar o eliminar una cita archivada.
+ * Las citas archivadas son de solo lectura.
+ */
+public class ArchivedAppointmentException extends DomainException {
+
+    private final String appointmentId;
+
+    /**
+     * @param appointmentId ID de la cita archivada
+     */
+    public ArchivedAppointmentException(String appointmentId) {
+        super("La cita con ID " + appointmentId + " está archivada y no se puede modificar");
+        this.appointmentId = appointmentId;
+    }
+
+    /**
+     * @return ID de la cita archivada
+     */
+    public String getAppointmentId() {
+        return appointmentId;
+    }
+}
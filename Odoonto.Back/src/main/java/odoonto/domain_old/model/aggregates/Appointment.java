@@ -104,7 +104,7 @@ public class Appointment {
      * @return true si se pudo confirmar
      */
     public boolean confirmar() {
-        if (status == AppointmentStatus.PENDIENTE) {
+        if (status == AppointmentStatus.PENDIENTE || status == AppointmentStatus.REPROGRAMADA) {
             status = AppointmentStatus.CONFIRMADA;
             return true;
         }
@@ -127,6 +127,27 @@ public class Appointment {
         return false;
     }
     
+    /**
+     * Reprograma la cita a otra fecha y hora, opcionalmente con otro doctor
+     * @param nuevaFechaHora Nueva fecha y hora de inicio
+     * @param nuevoDoctorId ID del doctor que atenderá la cita (null para mantener el actual)
+     * @return true si se pudo reprogramar
+     * @throws InvalidAppointmentTimeException Si el nuevo horario no es válido
+     */
+    public boolean reprogramar(LocalDateTime nuevaFechaHora, String nuevoDoctorId) {
+        if (!status.isCancelable()) {
+            return false;
+        }
+        
+        validateAppointmentTime(nuevaFechaHora, durationSlots);
+        dateTime = nuevaFechaHora;
+        if (nuevoDoctorId != null && !nuevoDoctorId.trim().isEmpty()) {
+            doctorId = nuevoDoctorId;
+        }
+        status = AppointmentStatus.REPROGRAMADA;
+        return true;
+    }
+    
     /**
      * Marca la cita como en proceso
      * @return true si se pudo iniciar
@@ -180,13 +201,9 @@ public class Appointment {
         LocalDateTime thisEnd = this.getEndDateTime();
         LocalDateTime otherEnd = other.getEndDateTime();
         
-        // Hay solapamiento si:
-        // 1. Esta cita comienza durante la otra
-        // 2. Esta cita termina durante la otra
-        // 3. Esta cita contiene completamente a la otra
-        return (this.dateTime.isBefore(otherEnd) && this.dateTime.isAfter(other.dateTime)) ||
-               (thisEnd.isAfter(other.dateTime) && thisEnd.isBefore(otherEnd)) ||
-               (this.dateTime.isBefore(other.dateTime) && thisEnd.isAfter(otherEnd));
+        // Hay solapamiento si cada cita empieza antes de que termine la otra
+        // (incluye citas que empiezan a la vez o que coinciden exactamente)
+        return this.dateTime.isBefore(otherEnd) && other.dateTime.isBefore(thisEnd);
     }
     
     // Getters y setters
@@ -0,0 +1,286 @@
+package odoonto.domain.model.aggregates;
+
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.exceptions.InvalidAppointmentTimeException;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+import odoonto.domain.model.valueobjects.RecurrenceRule;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Agregado raíz que representa una serie de citas periódicas (por ejemplo, las revisiones
+ * mensuales de ortodoncia). Se guarda como la primera cita, una regla de repetición y las
+ * fechas anuladas; las citas concretas se calculan solo para la ventana que se consulta.
+ */
+public class AppointmentSeries {
+
+    /**
+     * Máximo de franjas reservadas por serie, por debajo del límite de 500 escrituras
+     * de un lote de Firestore
+     */
+    public static final int MAX_SLOT_RESERVATIONS = 450;
+
+    private static final String OCCURRENCE_SEPARATOR = "@";
+
+    private String id;
+    private String patientId;
+    private String doctorId;
+    private LocalDateTime start;
+    private int durationSlots; // 1 slot = 30 minutos
+    private RecurrenceRule rule;
+    private String notes;
+    private final SortedSet<LocalDate> excepciones = new TreeSet<>(); // Fechas anuladas
+
+    /**
+     * Constructor para crear una nueva serie
+     * @param patientId ID del paciente
+     * @param doctorId ID del doctor
+     * @param start Fecha y hora de la primera cita
+     * @param durationSlots Duración de cada cita en slots de 30 minutos
+     * @param rule Regla de repetición
+     * @param notes Notas comunes a todas las citas
+     * @throws InvalidAppointmentTimeException Si el horario no es válido
+     */
+    public AppointmentSeries(String patientId, String doctorId, LocalDateTime start, int durationSlots,
+                             RecurrenceRule rule, String notes) {
+        if (start != null && start.isBefore(LocalDateTime.now())) {
+            throw new InvalidAppointmentTimeException("La primera cita de la serie no puede ser en el pasado");
+        }
+        validate(patientId, doctorId, start, durationSlots, rule);
+        rule.requireWithinLimit(start);
+
+        this.id = UUID.randomUUID().toString();
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.start = start;
+        this.durationSlots = durationSlots;
+        this.rule = rule;
+        this.notes = notes;
+
+        if (getOccurrenceCount() * durationSlots > MAX_SLOT_RESERVATIONS) {
+            throw new DomainException("La serie ocupa demasiadas franjas; el máximo es " + MAX_SLOT_RESERVATIONS);
+        }
+    }
+
+    /**
+     * Constructor para reconstrucción desde persistencia; admite series ya empezadas
+     */
+    public AppointmentSeries(String id, String patientId, String doctorId, LocalDateTime start,
+                             int durationSlots, RecurrenceRule rule, String notes,
+                             Collection<LocalDate> excepciones) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new DomainException("El ID de la serie no puede estar vacío");
+        }
+        validate(patientId, doctorId, start, durationSlots, rule);
+
+        this.id = id;
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.start = start;
+        this.durationSlots = durationSlots;
+        this.rule = rule;
+        this.notes = notes;
+        if (excepciones != null) {
+            this.excepciones.addAll(excepciones);
+        }
+    }
+
+    private static void validate(String patientId, String doctorId, LocalDateTime start,
+                                 int durationSlots, RecurrenceRule rule) {
+        if (patientId == null || patientId.trim().isEmpty()) {
+            throw new DomainException("El ID del paciente no puede estar vacío");
+        }
+
+        if (doctorId == null || doctorId.trim().isEmpty()) {
+            throw new DomainException("El ID del doctor no puede estar vacío");
+        }
+
+        if (start == null) {
+            throw new InvalidAppointmentTimeException("La fecha y hora de inicio no puede ser nula");
+        }
+
+        if (start.getMinute() % 30 != 0 || start.getSecond() != 0 || start.getNano() != 0) {
+            throw new InvalidAppointmentTimeException("La hora debe terminar en :00 o :30");
+        }
+
+        if (durationSlots < 1 || durationSlots > 6) {
+            throw new InvalidAppointmentTimeException("La duración debe ser entre 1 y 6 slots (30-180 minutos)");
+        }
+
+        if (rule == null) {
+            throw new DomainException("La regla de repetición es obligatoria");
+        }
+    }
+
+    /**
+     * Calcula las citas de la serie que empiezan dentro de [from, to), sin las anuladas
+     * @return Inicios en orden cronológico
+     */
+    public List<LocalDateTime> getOccurrences(LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> occurrences = rule.expand(start, from, to);
+        if (!excepciones.isEmpty()) {
+            occurrences.removeIf(occurrence -> excepciones.contains(occurrence.toLocalDate()));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Calcula todas las citas vigentes de la serie
+     */
+    public List<LocalDateTime> getOccurrences() {
+        return getOccurrences(start, LocalDateTime.MAX);
+    }
+
+    /**
+     * Número de citas vigentes de la serie
+     */
+    public int getOccurrenceCount() {
+        return getOccurrences().size();
+    }
+
+    /**
+     * Devuelve la cita de la serie en una fecha, si la hay
+     */
+    public LocalDateTime getOccurrenceOn(LocalDate date) {
+        List<LocalDateTime> occurrences = getOccurrences(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        return occurrences.isEmpty() ? null : occurrences.get(0);
+    }
+
+    /**
+     * Anula la cita de la serie en una fecha
+     * @return true si la fecha tenía una cita vigente
+     */
+    public boolean cancelarOcurrencia(LocalDate date) {
+        if (getOccurrenceOn(date) == null) {
+            return false;
+        }
+        return excepciones.add(date);
+    }
+
+    /**
+     * Termina la serie antes de la fecha indicada; las citas anteriores se conservan
+     * @return true si se ha anulado alguna cita
+     */
+    public boolean finalizarDesde(LocalDate date) {
+        if (getOccurrences(date.atStartOfDay(), LocalDateTime.MAX).isEmpty()) {
+            return false;
+        }
+        if (!date.isAfter(start.toLocalDate())) {
+            throw new DomainException("La serie no puede terminar antes de su primera cita");
+        }
+
+        rule = rule.endingOn(date.minusDays(1));
+        excepciones.removeIf(excepcion -> !excepcion.isBefore(date));
+        return true;
+    }
+
+    /**
+     * Momento en que termina la última cita vigente, o null si no queda ninguna
+     */
+    public LocalDateTime getLastEndDateTime() {
+        List<LocalDateTime> occurrences = getOccurrences();
+        if (occurrences.isEmpty()) {
+            return null;
+        }
+        return occurrences.get(occurrences.size() - 1).plusMinutes(durationSlots * 30L);
+    }
+
+    /**
+     * Construye la cita concreta de una fecha de la serie, sin validar que sea futura
+     * @param occurrence Inicio de la cita
+     * @return Cita con ID "{idSerie}@{fecha}"
+     */
+    public Appointment toAppointment(LocalDateTime occurrence) {
+        Appointment appointment = new Appointment();
+        appointment.setId(occurrenceId(id, occurrence.toLocalDate()));
+        appointment.setPatientIdDirect(patientId);
+        appointment.setDoctorIdDirect(doctorId);
+        appointment.setDateTimeDirect(occurrence);
+        appointment.setDurationSlotsDirect(durationSlots);
+        appointment.setStatus(AppointmentStatus.PENDIENTE);
+        appointment.setNotes(notes);
+        return appointment;
+    }
+
+    /**
+     * Citas concretas de la serie que empiezan dentro de [from, to)
+     */
+    public List<Appointment> toAppointments(LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> occurrences = getOccurrences(from, to);
+        List<Appointment> appointments = new ArrayList<>(occurrences.size());
+        for (LocalDateTime occurrence : occurrences) {
+            appointments.add(toAppointment(occurrence));
+        }
+        return appointments;
+    }
+
+    /**
+     * ID de la cita de una serie en una fecha
+     */
+    public static String occurrenceId(String seriesId, LocalDate date) {
+        return seriesId + OCCURRENCE_SEPARATOR + date;
+    }
+
+    /**
+     * Indica si un ID de cita corresponde a una cita de una serie
+     */
+    public static boolean isOccurrenceId(String appointmentId) {
+        return appointmentId != null && appointmentId.contains(OCCURRENCE_SEPARATOR);
+    }
+
+    // Getters
+
+    public String getId() {
+        return id;
+    }
+
+    public String getPatientId() {
+        return patientId;
+    }
+
+    public String getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public int getDurationSlots() {
+        return durationSlots;
+    }
+
+    public RecurrenceRule getRule() {
+        return rule;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public SortedSet<LocalDate> getExcepciones() {
+        return Collections.unmodifiableSortedSet(excepciones);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        AppointmentSeries that = (AppointmentSeries) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+}
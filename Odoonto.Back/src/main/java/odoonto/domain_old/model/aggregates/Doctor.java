@@ -2,15 +2,21 @@
 package odoonto.domain.model.aggregates;
 
 import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.valueobjects.DoctorAvailability;
 import odoonto.domain.model.valueobjects.DoctorSchedule;
+import odoonto.domain.model.valueobjects.ScheduleException;
 import odoonto.domain.model.valueobjects.Specialty;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 /**
@@ -22,6 +28,18 @@ public class Doctor {
     private String nombreCompleto;
     private Specialty especialidad;
     private Map<DayOfWeek, DoctorSchedule> horarios;
+    private Map<LocalDate, ScheduleException> excepciones = new TreeMap<>();
+    private volatile DoctorAvailability disponibilidad; // Se compila al consultarla y se invalida al cambiar el horario
+
+    /**
+     * Máximo de días de antelación para registrar una excepción
+     */
+    public static final int MAX_EXCEPTION_DAYS_AHEAD = 2 * 366;
+
+    /**
+     * Antigüedad a partir de la cual se descartan las excepciones pasadas
+     */
+    public static final int EXCEPTION_RETENTION_DAYS = 366;
 
     /**
      * Constructor sin argumentos necesario para frameworks
@@ -59,6 +77,27 @@ public class Doctor {
         this.id = id;
     }
     
+    /**
+     * Constructor para reconstrucción desde persistencia con horario y excepciones
+     * @param horarios Horario por día de la semana; los días ausentes conservan el horario por defecto
+     * @param excepciones Excepciones por fecha
+     * @param disponibilidad Disponibilidad ya compilada para este horario, o null para compilarla al usarla
+     */
+    public Doctor(String id, String nombreCompleto, Specialty especialidad,
+                  Map<DayOfWeek, DoctorSchedule> horarios, Collection<ScheduleException> excepciones,
+                  DoctorAvailability disponibilidad) {
+        this(id, nombreCompleto, especialidad);
+        if (horarios != null) {
+            this.horarios.putAll(horarios);
+        }
+        if (excepciones != null) {
+            for (ScheduleException excepcion : excepciones) {
+                this.excepciones.put(excepcion.getDate(), excepcion);
+            }
+        }
+        this.disponibilidad = disponibilidad;
+    }
+    
     /**
      * Inicializa un horario por defecto (lunes a viernes de 8:00 a 18:00)
      */
@@ -96,6 +135,62 @@ public class Doctor {
         }
         
         horarios.put(dayOfWeek, schedule);
+        disponibilidad = null;
+    }
+    
+    /**
+     * Registra una excepción al horario semanal, sustituyendo la que hubiera en esa fecha.
+     * Las excepciones de hace más de un año se descartan.
+     * 
+     * @param excepcion Día libre u horario especial
+     */
+    public void addScheduleException(ScheduleException excepcion) {
+        if (excepcion == null) {
+            throw new DomainException("La excepción de horario no puede ser nula");
+        }
+        
+        LocalDate today = LocalDate.now();
+        if (excepcion.getDate().isAfter(today.plusDays(MAX_EXCEPTION_DAYS_AHEAD))) {
+            throw new DomainException("No se pueden registrar excepciones con más de "
+                    + MAX_EXCEPTION_DAYS_AHEAD + " días de antelación");
+        }
+        
+        excepciones.put(excepcion.getDate(), excepcion);
+        excepciones.keySet().removeIf(date -> date.isBefore(today.minusDays(EXCEPTION_RETENTION_DAYS)));
+        disponibilidad = null;
+    }
+    
+    /**
+     * Elimina la excepción de una fecha, volviendo al horario semanal
+     * 
+     * @param date Fecha de la excepción
+     * @return true si había una excepción en esa fecha
+     */
+    public boolean removeScheduleException(LocalDate date) {
+        boolean removed = excepciones.remove(date) != null;
+        if (removed) {
+            disponibilidad = null;
+        }
+        return removed;
+    }
+    
+    /**
+     * Obtiene las excepciones al horario ordenadas por fecha
+     */
+    public List<ScheduleException> getScheduleExceptions() {
+        return new ArrayList<>(excepciones.values());
+    }
+    
+    /**
+     * Obtiene la disponibilidad compilada del doctor
+     */
+    public DoctorAvailability getDisponibilidad() {
+        DoctorAvailability compiled = disponibilidad;
+        if (compiled == null) {
+            compiled = DoctorAvailability.compile(horarios, excepciones.values());
+            disponibilidad = compiled;
+        }
+        return compiled;
     }
     
     /**
@@ -106,17 +201,7 @@ public class Doctor {
      * @return true si está disponible
      */
     public boolean isAvailable(LocalDateTime dateTime, int durationMinutes) {
-        DayOfWeek dayOfWeek = dateTime.getDayOfWeek();
-        LocalTime startTime = dateTime.toLocalTime();
-        LocalTime endTime = startTime.plusMinutes(durationMinutes);
-        
-        DoctorSchedule schedule = horarios.get(dayOfWeek);
-        
-        if (schedule == null || !schedule.isAvailable()) {
-            return false;
-        }
-        
-        return schedule.isRangeInSchedule(startTime, endTime);
+        return getDisponibilidad().isAvailable(dateTime, durationMinutes);
     }
     
     /**
@@ -129,6 +214,17 @@ public class Doctor {
         return horarios.get(dayOfWeek);
     }
     
+    /**
+     * Obtiene el horario efectivo en una fecha, aplicando sus excepciones
+     * 
+     * @param date Fecha
+     * @return Horario para esa fecha
+     */
+    public DoctorSchedule getScheduleForDate(LocalDate date) {
+        ScheduleException excepcion = excepciones.get(date);
+        return excepcion != null ? excepcion.toSchedule() : horarios.get(date.getDayOfWeek());
+    }
+    
     /**
      * Verifica si el doctor atiende en una fecha específica
      * 
@@ -136,10 +232,7 @@ public class Doctor {
      * @return true si el doctor atiende ese día
      */
     public boolean worksOnDate(LocalDate date) {
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-        DoctorSchedule schedule = horarios.get(dayOfWeek);
-        
-        return schedule != null && schedule.isAvailable();
+        return getDisponibilidad().worksOn(date);
     }
     
     // Getters y setters
@@ -29,6 +29,12 @@ public class Odontogram {
      * Mapa de dientes indexado por su número.
      */
     private Map<String, ToothRecord> teeth;
+    
+    /**
+     * Versión de persistencia usada para el control de concurrencia optimista.
+     * Se incrementa con cada escritura; 0 indica que aún no se ha guardado.
+     */
+    private long version;
 
     private static final int[] PERMANENT_IDS = {
             11,12,13,14,15,16,17,18,
@@ -207,6 +213,22 @@ public class Odontogram {
         return id != null ? id.getValue() : null;
     }
 
+    /**
+     * Obtiene la versión de persistencia del odontograma
+     * @return Versión leída o escrita por última vez
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Establece la versión de persistencia del odontograma
+     * @param version Versión de persistencia
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     /**
      * Obtiene el mapa completo de dientes
      * @return Mapa de dientes con sus registros
@@ -0,0 +1,324 @@
+package odoonto.domain.model.aggregates;
+
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.valueobjects.Specialty;
+import odoonto.domain.model.valueobjects.WaitlistStatus;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Agregado raíz que representa la solicitud de un paciente en la lista de espera:
+ * quiere una cita con un doctor concreto o con cualquiera de una especialidad, dentro
+ * de un rango de fechas, unos días de la semana y una franja horaria. Cuando se libera
+ * un hueco compatible se le ofrece; la oferta caduca si no responde a tiempo.
+ */
+public class WaitlistEntry {
+
+    /**
+     * Máximo de días entre la primera y la última fecha aceptable
+     */
+    public static final int MAX_WINDOW_DAYS = 90;
+
+    /**
+     * Orden de prioridad entre solicitudes: primero las urgentes y, dentro de cada
+     * grupo, por orden de llegada. Solo usa datos que no cambian, de modo que una
+     * solicitud conserva su puesto aunque rechace ofertas.
+     */
+    public static final Comparator<WaitlistEntry> ORDEN_PRIORIDAD = Comparator
+            .comparing((WaitlistEntry entry) -> !entry.urgente)
+            .thenComparing(WaitlistEntry::getCreatedAt)
+            .thenComparing(WaitlistEntry::getId);
+
+    private String id;
+    private String patientId;
+    private String doctorId; // null si vale cualquier doctor de la especialidad
+    private Specialty especialidad; // null si se pide un doctor concreto
+    private LocalDate desde;
+    private LocalDate hasta;
+    private Set<DayOfWeek> dias; // Vacío si vale cualquier día
+    private LocalTime horaDesde;
+    private LocalTime horaHasta;
+    private int durationSlots; // 1 slot = 30 minutos
+    private boolean urgente;
+    private LocalDateTime createdAt;
+    private WaitlistStatus status;
+
+    // Oferta en curso
+    private String ofertaDoctorId;
+    private LocalDateTime ofertaInicio;
+    private LocalDateTime ofertaCaduca;
+    private int ofertasRecibidas;
+
+    /**
+     * Constructor para crear una nueva solicitud
+     * @param patientId ID del paciente
+     * @param doctorId ID del doctor, o null para cualquiera de la especialidad
+     * @param especialidad Especialidad, obligatoria si no se indica doctor
+     * @param desde Primera fecha aceptable
+     * @param hasta Última fecha aceptable
+     * @param dias Días de la semana aceptables; vacío o null para cualquiera
+     * @param horaDesde Hora más temprana de inicio
+     * @param horaHasta Hora más tardía de fin
+     * @param durationSlots Duración de la cita en slots de 30 minutos
+     * @param urgente Si tiene prioridad sobre las demás
+     */
+    public WaitlistEntry(String patientId, String doctorId, Specialty especialidad,
+                         LocalDate desde, LocalDate hasta, Collection<DayOfWeek> dias,
+                         LocalTime horaDesde, LocalTime horaHasta, int durationSlots, boolean urgente) {
+        this(UUID.randomUUID().toString(), patientId, doctorId, especialidad, desde, hasta, dias,
+                horaDesde, horaHasta, durationSlots, urgente, LocalDateTime.now(), WaitlistStatus.ACTIVA);
+
+        if (hasta.isBefore(LocalDate.now())) {
+            throw new DomainException("El rango de fechas de la lista de espera ya ha pasado");
+        }
+    }
+
+    /**
+     * Constructor para reconstrucción desde persistencia
+     */
+    public WaitlistEntry(String id, String patientId, String doctorId, Specialty especialidad,
+                         LocalDate desde, LocalDate hasta, Collection<DayOfWeek> dias,
+                         LocalTime horaDesde, LocalTime horaHasta, int durationSlots, boolean urgente,
+                         LocalDateTime createdAt, WaitlistStatus status) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new DomainException("El ID de la solicitud no puede estar vacío");
+        }
+
+        if (patientId == null || patientId.trim().isEmpty()) {
+            throw new DomainException("El ID del paciente no puede estar vacío");
+        }
+
+        if ((doctorId == null || doctorId.trim().isEmpty()) && especialidad == null) {
+            throw new DomainException("Debe indicar un doctor o una especialidad");
+        }
+
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new DomainException("El rango de fechas de la lista de espera no es válido");
+        }
+
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAX_WINDOW_DAYS) {
+            throw new DomainException("El rango de fechas no puede superar " + MAX_WINDOW_DAYS + " días");
+        }
+
+        if (horaDesde == null || horaHasta == null || !horaHasta.isAfter(horaDesde)) {
+            throw new DomainException("La franja horaria de la lista de espera no es válida");
+        }
+
+        if (durationSlots < 1 || durationSlots > 6) {
+            throw new DomainException("La duración debe ser entre 1 y 6 slots (30-180 minutos)");
+        }
+
+        this.id = id;
+        this.patientId = patientId;
+        this.doctorId = doctorId != null && !doctorId.trim().isEmpty() ? doctorId : null;
+        this.especialidad = especialidad;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.dias = dias == null || dias.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(dias);
+        this.horaDesde = horaDesde;
+        this.horaHasta = horaHasta;
+        this.durationSlots = durationSlots;
+        this.urgente = urgente;
+        this.createdAt = createdAt != null ? createdAt : LocalDateTime.now();
+        this.status = status != null ? status : WaitlistStatus.ACTIVA;
+    }
+
+    /**
+     * Indica si la solicitud puede recibir una oferta: está activa o su oferta ha caducado
+     */
+    public boolean isDisponible(LocalDateTime now) {
+        return status == WaitlistStatus.ACTIVA
+                || (status == WaitlistStatus.OFERTADA && ofertaCaduca != null && !now.isBefore(ofertaCaduca));
+    }
+
+    /**
+     * Verifica si una cita de esta solicitud cabe en un hueco liberado
+     * @param doctor Doctor del hueco
+     * @param inicio Inicio del hueco
+     * @param slotsLibres Slots de 30 minutos libres desde el inicio
+     * @return true si el doctor, la fecha, el día, la franja y la duración encajan
+     */
+    public boolean encajaEn(Doctor doctor, LocalDateTime inicio, int slotsLibres) {
+        if (doctorId != null ? !doctorId.equals(doctor.getId()) : especialidad != doctor.getEspecialidad()) {
+            return false;
+        }
+
+        LocalDate fecha = inicio.toLocalDate();
+        if (fecha.isBefore(desde) || fecha.isAfter(hasta)) {
+            return false;
+        }
+
+        if (!dias.isEmpty() && !dias.contains(fecha.getDayOfWeek())) {
+            return false;
+        }
+
+        LocalTime hora = inicio.toLocalTime();
+        return durationSlots <= slotsLibres
+                && !hora.isBefore(horaDesde)
+                && !hora.plusMinutes(durationSlots * 30L).isAfter(horaHasta)
+                && hora.plusMinutes(durationSlots * 30L).isAfter(hora);
+    }
+
+    /**
+     * Registra la oferta de un hueco
+     * @param doctorId Doctor del hueco
+     * @param inicio Inicio de la cita ofrecida
+     * @param caduca Momento en que caduca la oferta
+     */
+    public void ofrecer(String doctorId, LocalDateTime inicio, LocalDateTime caduca) {
+        if (!status.isEnLista()) {
+            throw new DomainException("La solicitud ya no está en la lista de espera");
+        }
+
+        this.status = WaitlistStatus.OFERTADA;
+        this.ofertaDoctorId = doctorId;
+        this.ofertaInicio = inicio;
+        this.ofertaCaduca = caduca;
+        this.ofertasRecibidas++;
+    }
+
+    /**
+     * Marca la solicitud como cubierta tras reservar la cita ofrecida
+     */
+    public void aceptarOferta(LocalDateTime now) {
+        if (status != WaitlistStatus.OFERTADA) {
+            throw new DomainException("La solicitud no tiene ninguna oferta pendiente");
+        }
+
+        if (!now.isBefore(ofertaCaduca)) {
+            throw new DomainException("La oferta ha caducado");
+        }
+
+        this.status = WaitlistStatus.CUBIERTA;
+    }
+
+    /**
+     * Rechaza la oferta en curso; la solicitud vuelve a la lista en su mismo puesto
+     */
+    public void rechazarOferta() {
+        if (status != WaitlistStatus.OFERTADA) {
+            throw new DomainException("La solicitud no tiene ninguna oferta pendiente");
+        }
+
+        this.status = WaitlistStatus.ACTIVA;
+        this.ofertaDoctorId = null;
+        this.ofertaInicio = null;
+        this.ofertaCaduca = null;
+    }
+
+    /**
+     * Retira la solicitud de la lista
+     */
+    public void retirar() {
+        if (status == WaitlistStatus.CUBIERTA) {
+            throw new DomainException("La solicitud ya está cubierta");
+        }
+
+        this.status = WaitlistStatus.RETIRADA;
+    }
+
+    /**
+     * Restaura la oferta en curso (solo para recuperación de datos)
+     */
+    public void setOfertaDirect(String ofertaDoctorId, LocalDateTime ofertaInicio, LocalDateTime ofertaCaduca,
+                                int ofertasRecibidas) {
+        this.ofertaDoctorId = ofertaDoctorId;
+        this.ofertaInicio = ofertaInicio;
+        this.ofertaCaduca = ofertaCaduca;
+        this.ofertasRecibidas = ofertasRecibidas;
+    }
+
+    // Getters
+
+    public String getId() {
+        return id;
+    }
+
+    public String getPatientId() {
+        return patientId;
+    }
+
+    public String getDoctorId() {
+        return doctorId;
+    }
+
+    public Specialty getEspecialidad() {
+        return especialidad;
+    }
+
+    public LocalDate getDesde() {
+        return desde;
+    }
+
+    public LocalDate getHasta() {
+        return hasta;
+    }
+
+    public Set<DayOfWeek> getDias() {
+        return Collections.unmodifiableSet(dias);
+    }
+
+    public LocalTime getHoraDesde() {
+        return horaDesde;
+    }
+
+    public LocalTime getHoraHasta() {
+        return horaHasta;
+    }
+
+    public int getDurationSlots() {
+        return durationSlots;
+    }
+
+    public boolean isUrgente() {
+        return urgente;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+
+    public String getOfertaDoctorId() {
+        return ofertaDoctorId;
+    }
+
+    public LocalDateTime getOfertaInicio() {
+        return ofertaInicio;
+    }
+
+    public LocalDateTime getOfertaCaduca() {
+        return ofertaCaduca;
+    }
+
+    public int getOfertasRecibidas() {
+        return ofertasRecibidas;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        WaitlistEntry that = (WaitlistEntry) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+}
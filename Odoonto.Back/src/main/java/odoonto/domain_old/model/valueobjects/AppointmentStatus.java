@@ -55,7 +55,7 @@ public enum AppointmentStatus {
      * @return True si la cita puede ser cancelada
      */
     public boolean isCancelable() {
-        return this == PENDIENTE || this == CONFIRMADA;
+        return this == PENDIENTE || this == CONFIRMADA || this == REPROGRAMADA;
     }
     
     /**
@@ -63,6 +63,6 @@ public enum AppointmentStatus {
      * @return True si la cita está activa
      */
     public boolean isActiva() {
-        return this == PENDIENTE || this == CONFIRMADA || this == EN_PROCESO;
+        return this == PENDIENTE || this == CONFIRMADA || this == EN_PROCESO || this == REPROGRAMADA;
     }
 }
\ No newline at end of file
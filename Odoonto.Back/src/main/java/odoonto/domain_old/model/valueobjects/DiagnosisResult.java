@@ -0,0 +1,106 @@
+package odoonto.domain.model.valueobjects;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Objeto de valor con el diagnóstico de un odontograma: recuento de lesiones,
+ * porcentaje de salud, nivel de riesgo, áreas más afectadas, dientes que requieren
+ * atención inmediata y tratamientos recomendados.
+ */
+public final class DiagnosisResult {
+    private final Map<LesionType, Integer> lesionCounts;
+    private final int totalLesions;
+    private final int affectedTeethCount;
+    private final int totalTeethCount;
+    private final double healthPercentage;
+    private final RiskLevel riskLevel;
+    private final List<String> mostAffectedAreas;
+    private final List<String> priorityTeeth;
+    private final List<String> recommendedTreatments;
+    
+    public DiagnosisResult(Map<LesionType, Integer> lesionCounts, int totalLesions, int affectedTeethCount,
+                           int totalTeethCount, double healthPercentage, RiskLevel riskLevel,
+                           List<String> mostAffectedAreas, List<String> priorityTeeth,
+                           List<String> recommendedTreatments) {
+        this.lesionCounts = lesionCounts != null && !lesionCounts.isEmpty()
+                ? Collections.unmodifiableMap(new EnumMap<>(lesionCounts))
+                : Collections.emptyMap();
+        this.totalLesions = totalLesions;
+        this.affectedTeethCount = affectedTeethCount;
+        this.totalTeethCount = totalTeethCount;
+        this.healthPercentage = healthPercentage;
+        this.riskLevel = riskLevel;
+        this.mostAffectedAreas = unmodifiable(mostAffectedAreas);
+        this.priorityTeeth = unmodifiable(priorityTeeth);
+        this.recommendedTreatments = unmodifiable(recommendedTreatments);
+    }
+    
+    private static List<String> unmodifiable(List<String> values) {
+        return values != null ? Collections.unmodifiableList(values) : Collections.emptyList();
+    }
+    
+    /**
+     * Número de lesiones por tipo (solo los tipos presentes)
+     */
+    public Map<LesionType, Integer> getLesionCounts() {
+        return lesionCounts;
+    }
+    
+    public int getTotalLesions() {
+        return totalLesions;
+    }
+    
+    public int getAffectedTeethCount() {
+        return affectedTeethCount;
+    }
+    
+    public int getTotalTeethCount() {
+        return totalTeethCount;
+    }
+    
+    public double getHealthPercentage() {
+        return healthPercentage;
+    }
+    
+    public RiskLevel getRiskLevel() {
+        return riskLevel;
+    }
+    
+    public List<String> getMostAffectedAreas() {
+        return mostAffectedAreas;
+    }
+    
+    /**
+     * Dientes con lesiones que requieren atención inmediata, en orden de numeración
+     */
+    public List<String> getPriorityTeeth() {
+        return priorityTeeth;
+    }
+    
+    public List<String> getRecommendedTreatments() {
+        return recommendedTreatments;
+    }
+    
+    /**
+     * Nivel de riesgo general del diagnóstico
+     */
+    public enum RiskLevel {
+        BAJO("BAJO"),
+        MEDIO("MEDIO"),
+        ALTO("ALTO"),
+        MUY_ALTO("MUY ALTO");
+        
+        private final String label;
+        
+        RiskLevel(String label) {
+            this.label = label;
+        }
+        
+        public String getLabel() {
+            return label;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package odoonto.domain.model.valueobjects;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Disponibilidad compilada de un doctor: su horario semanal y sus excepciones por fecha
+ * convertidos en máscaras de bits de franjas de 30 minutos (bit i = franja que empieza
+ * a i * 30 minutos desde medianoche). Las excepciones se guardan en un array indexado
+ * por día desde la primera excepción, de modo que consultar una fecha es un acceso
+ * directo a array y comprobar un rango es una operación de bits.
+ * Es inmutable; se vuelve a compilar cuando cambia el horario.
+ */
+public final class DoctorAvailability {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    /**
+     * Marca de "sin excepción": usa el bit 63, que ninguna máscara de 48 franjas tiene
+     */
+    private static final long NO_EXCEPTION = Long.MIN_VALUE;
+    private static final DoctorAvailability NONE = new DoctorAvailability(new long[7], 0L, new long[0]);
+
+    private final long[] weeklyMasks; // Índice: DayOfWeek.getValue() - 1
+    private final long firstExceptionDay; // Día epoch de la primera excepción
+    private final long[] exceptionMasks;
+
+    private DoctorAvailability(long[] weeklyMasks, long firstExceptionDay, long[] exceptionMasks) {
+        this.weeklyMasks = weeklyMasks;
+        this.firstExceptionDay = firstExceptionDay;
+        this.exceptionMasks = exceptionMasks;
+    }
+
+    /**
+     * Disponibilidad vacía: el doctor no atiende ningún día
+     */
+    public static DoctorAvailability none() {
+        return NONE;
+    }
+
+    /**
+     * Compila el horario semanal y las excepciones de un doctor
+     *
+     * @param horarios Horario por día de la semana
+     * @param excepciones Excepciones por fecha
+     * @return Disponibilidad compilada
+     */
+    public static DoctorAvailability compile(Map<DayOfWeek, DoctorSchedule> horarios,
+                                             Collection<ScheduleException> excepciones) {
+        long[] weekly = new long[7];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            DoctorSchedule schedule = horarios.get(day);
+            if (schedule != null && schedule.isAvailable()) {
+                weekly[day.getValue() - 1] = maskOf(schedule.getStartTime(), schedule.getEndTime());
+            }
+        }
+
+        if (excepciones == null || excepciones.isEmpty()) {
+            return new DoctorAvailability(weekly, 0L, new long[0]);
+        }
+
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (ScheduleException excepcion : excepciones) {
+            long day = excepcion.getDate().toEpochDay();
+            first = Math.min(first, day);
+            last = Math.max(last, day);
+        }
+
+        long[] exceptions = new long[(int) (last - first + 1)];
+        Arrays.fill(exceptions, NO_EXCEPTION);
+        for (ScheduleException excepcion : excepciones) {
+            exceptions[(int) (excepcion.getDate().toEpochDay() - first)] = excepcion.isDiaLibre()
+                    ? 0L
+                    : maskOf(excepcion.getStartTime(), excepcion.getEndTime());
+        }
+
+        return new DoctorAvailability(weekly, first, exceptions);
+    }
+
+    /**
+     * Máscara de franjas en las que el doctor atiende en una fecha
+     */
+    public long slotMask(LocalDate date) {
+        long index = date.toEpochDay() - firstExceptionDay;
+        if (index >= 0 && index < exceptionMasks.length) {
+            long mask = exceptionMasks[(int) index];
+            if (mask != NO_EXCEPTION) {
+                return mask;
+            }
+        }
+        return weeklyMasks[date.getDayOfWeek().getValue() - 1];
+    }
+
+    /**
+     * Verifica si el doctor atiende en una fecha
+     */
+    public boolean worksOn(LocalDate date) {
+        return slotMask(date) != 0L;
+    }
+
+    /**
+     * Verifica si el doctor atiende durante todo el rango, en franjas de 30 minutos
+     *
+     * @param start Fecha y hora de inicio
+     * @param durationMinutes Duración en minutos
+     * @return true si todas las franjas del rango están dentro del horario
+     */
+    public boolean isAvailable(LocalDateTime start, int durationMinutes) {
+        if (durationMinutes <= 0) {
+            return false;
+        }
+
+        int startMinute = start.getHour() * 60 + start.getMinute();
+        int endMinute = startMinute + durationMinutes;
+        if (endMinute > 24 * 60) {
+            return false;
+        }
+
+        long required = rangeMask(startMinute / SLOT_MINUTES, (endMinute + SLOT_MINUTES - 1) / SLOT_MINUTES);
+        return (slotMask(start.toLocalDate()) & required) == required;
+    }
+
+    /**
+     * Máscara de las franjas completas contenidas en [start, end)
+     */
+    public static long maskOf(LocalTime start, LocalTime end) {
+        int startMinute = start.getHour() * 60 + start.getMinute();
+        int endMinute = end.equals(LocalTime.MAX) ? 24 * 60 : end.getHour() * 60 + end.getMinute();
+        return rangeMask((startMinute + SLOT_MINUTES - 1) / SLOT_MINUTES, endMinute / SLOT_MINUTES);
+    }
+
+    /**
+     * Hora de inicio de una franja
+     */
+    public static LocalTime slotStart(int slot) {
+        return LocalTime.MIDNIGHT.plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    private static long rangeMask(int fromSlot, int toSlot) {
+        if (toSlot <= fromSlot) {
+            return 0L;
+        }
+        long upper = toSlot >= 64 ? -1L : (1L << toSlot) - 1;
+        return upper & ~((1L << fromSlot) - 1);
+    }
+}
@@ -0,0 +1,254 @@
+package odoonto.domain.model.valueobjects;
+
+import odoonto.domain.exceptions.DomainException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Objeto de valor con la regla de repetición de una serie de citas, al estilo de una
+ * RRULE (FREQ, INTERVAL, COUNT, UNTIL). La serie siempre es finita: se limita por número
+ * de repeticiones, por fecha final o por ambos, y nunca supera {@link #MAX_OCCURRENCES}.
+ * La n-ésima repetición se calcula directamente desde el inicio, de modo que expandir una
+ * ventana no exige recorrer las repeticiones anteriores. En la frecuencia mensual, si un
+ * mes no tiene el día de inicio se usa su último día.
+ */
+public final class RecurrenceRule {
+
+    public static final int MAX_OCCURRENCES = 104;
+    public static final int MAX_INTERVAL = 12;
+
+    private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY,
+        MONTHLY
+    }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count; // null si solo se limita por fecha
+    private final LocalDate until; // null si solo se limita por número
+
+    public RecurrenceRule(Frequency frequency, int interval, Integer count, LocalDate until) {
+        if (frequency == null) {
+            throw new DomainException("La frecuencia de repetición es obligatoria");
+        }
+
+        if (interval < 1 || interval > MAX_INTERVAL) {
+            throw new DomainException("El intervalo de repetición debe estar entre 1 y " + MAX_INTERVAL);
+        }
+
+        if (count == null && until == null) {
+            throw new DomainException("La serie debe indicar un número de repeticiones o una fecha final");
+        }
+
+        if (count != null && (count < 1 || count > MAX_OCCURRENCES)) {
+            throw new DomainException("El número de repeticiones debe estar entre 1 y " + MAX_OCCURRENCES);
+        }
+
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * Lee una regla en formato RRULE, por ejemplo "FREQ=MONTHLY;INTERVAL=1;COUNT=12"
+     * o "FREQ=WEEKLY;UNTIL=20271231"
+     */
+    public static RecurrenceRule parse(String rrule) {
+        if (rrule == null || rrule.trim().isEmpty()) {
+            throw new DomainException("La regla de repetición no puede estar vacía");
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDate until = null;
+        try {
+            for (String part : rrule.trim().split(";")) {
+                String[] pair = part.split("=", 2);
+                if (pair.length != 2) {
+                    throw new DomainException("Regla de repetición no válida: " + rrule);
+                }
+                String value = pair[1].trim();
+                switch (pair[0].trim().toUpperCase()) {
+                    case "FREQ":
+                        frequency = Frequency.valueOf(value.toUpperCase());
+                        break;
+                    case "INTERVAL":
+                        interval = Integer.parseInt(value);
+                        break;
+                    case "COUNT":
+                        count = Integer.parseInt(value);
+                        break;
+                    case "UNTIL":
+                        until = LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value, UNTIL_FORMAT);
+                        break;
+                    default:
+                        throw new DomainException("Parte de la regla no soportada: " + pair[0]);
+                }
+            }
+        } catch (RuntimeException e) {
+            if (e instanceof DomainException) {
+                throw e;
+            }
+            throw new DomainException("Regla de repetición no válida: " + rrule);
+        }
+        return new RecurrenceRule(frequency, interval, count, until);
+    }
+
+    /**
+     * Devuelve la regla en formato RRULE
+     */
+    public String toRRule() {
+        StringBuilder rrule = new StringBuilder("FREQ=").append(frequency).append(";INTERVAL=").append(interval);
+        if (count != null) {
+            rrule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rrule.append(";UNTIL=").append(until.format(UNTIL_FORMAT));
+        }
+        return rrule.toString();
+    }
+
+    /**
+     * Devuelve una copia de la regla que termina como muy tarde en la fecha indicada
+     */
+    public RecurrenceRule endingOn(LocalDate lastDate) {
+        LocalDate newUntil = until == null || lastDate.isBefore(until) ? lastDate : until;
+        return new RecurrenceRule(frequency, interval, count, newUntil);
+    }
+
+    /**
+     * Comprueba que la fecha final no deja más de {@link #MAX_OCCURRENCES} repeticiones
+     * desde el inicio indicado. COUNT se valida en el constructor, pero UNTIL depende del
+     * inicio de la serie: sin esta comprobación una fecha final lejana se truncaría sin aviso
+     * @param start Inicio de la primera repetición
+     * @throws DomainException Si la fecha final admite más repeticiones que el máximo
+     */
+    public void requireWithinLimit(LocalDateTime start) {
+        if (until == null || count != null) {
+            return;
+        }
+        if (!nth(start, MAX_OCCURRENCES).toLocalDate().isAfter(until)) {
+            throw new DomainException("La fecha final deja más de " + MAX_OCCURRENCES
+                    + " repeticiones; indique un número de repeticiones o una fecha anterior");
+        }
+    }
+
+    /**
+     * Calcula las repeticiones que empiezan dentro de [from, to)
+     * @param start Inicio de la primera repetición
+     * @return Inicios en orden cronológico
+     */
+    public List<LocalDateTime> expand(LocalDateTime start, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        int limit = count != null ? count : MAX_OCCURRENCES;
+
+        for (int n = firstCandidateIndex(start, from); n < limit; n++) {
+            LocalDateTime occurrence = nth(start, n);
+            if ((until != null && occurrence.toLocalDate().isAfter(until)) || !occurrence.isBefore(to)) {
+                break;
+            }
+            if (!occurrence.isBefore(from)) {
+                occurrences.add(occurrence);
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Calcula todas las repeticiones de la serie
+     */
+    public List<LocalDateTime> expandAll(LocalDateTime start) {
+        return expand(start, start, LocalDateTime.MAX);
+    }
+
+    /**
+     * Inicio de la repetición n (desde 0), calculado directamente desde el inicio
+     */
+    public LocalDateTime nth(LocalDateTime start, int n) {
+        long steps = (long) n * interval;
+        switch (frequency) {
+            case DAILY:
+                return start.plusDays(steps);
+            case WEEKLY:
+                return start.plusWeeks(steps);
+            default:
+                return start.plusMonths(steps);
+        }
+    }
+
+    /**
+     * Primer índice cuya repetición puede caer en la ventana; se salta las anteriores
+     * sin calcularlas
+     */
+    private int firstCandidateIndex(LocalDateTime start, LocalDateTime from) {
+        if (!from.isAfter(start)) {
+            return 0;
+        }
+
+        long elapsed;
+        switch (frequency) {
+            case DAILY:
+                elapsed = ChronoUnit.DAYS.between(start.toLocalDate(), from.toLocalDate());
+                break;
+            case WEEKLY:
+                elapsed = ChronoUnit.WEEKS.between(start.toLocalDate(), from.toLocalDate());
+                break;
+            default:
+                elapsed = ChronoUnit.MONTHS.between(start.toLocalDate(), from.toLocalDate());
+                break;
+        }
+        long index = elapsed / interval - 1;
+        return (int) Math.max(0, Math.min(index, MAX_OCCURRENCES));
+    }
+
+    // Getters - No hay setters para mantener inmutabilidad
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        RecurrenceRule that = (RecurrenceRule) o;
+        return interval == that.interval &&
+               frequency == that.frequency &&
+               Objects.equals(count, that.count) &&
+               Objects.equals(until, that.until);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(frequency, interval, count, until);
+    }
+
+    @Override
+    public String toString() {
+        return toRRule();
+    }
+}
@@ -0,0 +1,115 @@
+package odoonto.domain.model.valueobjects;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * Objeto de valor que representa una excepción al horario semanal de un doctor en
+ * una fecha concreta: un día libre (festivo, baja, vacaciones) o un horario distinto.
+ * Es inmutable y se valida en el constructor.
+ */
+public final class ScheduleException {
+    private final LocalDate date;
+    private final LocalTime startTime; // null si el doctor no atiende ese día
+    private final LocalTime endTime;
+    private final String motivo;
+
+    /**
+     * Constructor para un día con horario especial
+     *
+     * @param date Fecha de la excepción
+     * @param startTime Hora de inicio, o null si no atiende
+     * @param endTime Hora de fin, o null si no atiende
+     * @param motivo Motivo de la excepción
+     */
+    public ScheduleException(LocalDate date, LocalTime startTime, LocalTime endTime, String motivo) {
+        if (date == null) {
+            throw new IllegalArgumentException("La fecha de la excepción no puede ser nula");
+        }
+
+        if ((startTime == null) != (endTime == null)) {
+            throw new IllegalArgumentException("Debe indicar hora de inicio y de fin, o ninguna para un día libre");
+        }
+
+        if (startTime != null && !endTime.isAfter(startTime)) {
+            throw new IllegalArgumentException("La hora de fin debe ser posterior a la hora de inicio");
+        }
+
+        this.date = date;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.motivo = motivo;
+    }
+
+    /**
+     * Constructor para un día libre
+     *
+     * @param date Fecha en la que el doctor no atiende
+     * @param motivo Motivo de la ausencia
+     */
+    public static ScheduleException diaLibre(LocalDate date, String motivo) {
+        return new ScheduleException(date, null, null, motivo);
+    }
+
+    /**
+     * Indica si el doctor no atiende en toda la fecha
+     */
+    public boolean isDiaLibre() {
+        return startTime == null;
+    }
+
+    /**
+     * Convierte la excepción en el horario efectivo del doctor para esa fecha
+     */
+    public DoctorSchedule toSchedule() {
+        if (isDiaLibre()) {
+            return new DoctorSchedule(date.getDayOfWeek());
+        }
+        return new DoctorSchedule(date.getDayOfWeek(), startTime, endTime, true);
+    }
+
+    // Getters - No hay setters para mantener inmutabilidad
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ScheduleException that = (ScheduleException) o;
+        return date.equals(that.date) &&
+               Objects.equals(startTime, that.startTime) &&
+               Objects.equals(endTime, that.endTime) &&
+               Objects.equals(motivo, that.motivo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(date, startTime, endTime, motivo);
+    }
+
+    @Override
+    public String toString() {
+        if (isDiaLibre()) {
+            return date + ": No disponible" + (motivo != null ? " (" + motivo + ")" : "");
+        }
+
+        return date + ": " + startTime + " - " + endTime;
+    }
+}
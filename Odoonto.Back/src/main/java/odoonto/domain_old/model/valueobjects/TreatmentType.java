@@ -105,6 +105,115 @@ public enum TreatmentType {
         return this.categoria == Categoria.QUIRURGICO;
     }
     
+    /**
+     * Especialidad que debe tener el doctor que realiza el tratamiento;
+     * ODONTOLOGIA_GENERAL indica que puede realizarlo cualquier doctor
+     */
+    public Specialty getEspecialidadRequerida() {
+        if (this == IMPLANTE || this == CORONA_SOBRE_IMPLANTE) {
+            return Specialty.IMPLANTOLOGIA;
+        }
+        
+        switch (categoria) {
+            case ENDODONTICO:
+                return Specialty.ENDODONCIA;
+            case PERIODONTAL:
+                return Specialty.PERIODONCIA;
+            case QUIRURGICO:
+                return Specialty.CIRUGIA_ORAL;
+            case PROTESICO:
+                return Specialty.PROSTODONCIA;
+            case ORTODONTICO:
+                return Specialty.ORTODONCIA;
+            case ESTETICO:
+                return Specialty.ODONTOLOGIA_ESTETICA;
+            default:
+                return Specialty.ODONTOLOGIA_GENERAL;
+        }
+    }
+    
+    /**
+     * Indica si un doctor de la especialidad dada puede realizar el tratamiento
+     */
+    public boolean puedeRealizarlo(Specialty especialidad) {
+        Specialty requerida = getEspecialidadRequerida();
+        return requerida == Specialty.ODONTOLOGIA_GENERAL || requerida == especialidad;
+    }
+    
+    /**
+     * Número de sesiones habitual del tratamiento
+     */
+    public int getSesiones() {
+        switch (this) {
+            case ORTODONCIA_CONVENCIONAL:
+            case ORTODONCIA_ESTETICA:
+            case ORTODONCIA_INVISIBLE:
+                return 6;
+            case PROTESIS_REMOVIBLE:
+                return 3;
+            case ENDODONCIA_UNIRRADICULAR:
+            case ENDODONCIA_BIRRADICULAR:
+            case ENDODONCIA_MULTIRRADICULAR:
+            case CURETAJE:
+            case CIRUGIA_PERIODONTAL:
+            case CORONA:
+            case PROTESIS_FIJA:
+            case IMPLANTE:
+                return 2;
+            default:
+                return 1;
+        }
+    }
+    
+    /**
+     * Días mínimos entre dos sesiones consecutivas del tratamiento
+     */
+    public int getDiasEntreSesiones() {
+        if (this == IMPLANTE) {
+            return 90; // Osteointegración antes de la segunda fase
+        }
+        
+        switch (categoria) {
+            case ORTODONTICO:
+                return 28;
+            case PERIODONTAL:
+                return 14;
+            case ENDODONTICO:
+            case PROTESICO:
+            case RESTAURADOR:
+                return 7;
+            default:
+                return 0;
+        }
+    }
+    
+    /**
+     * Duración de cada sesión en slots de 30 minutos
+     */
+    public int getDuracionSlots() {
+        switch (this) {
+            case ENDODONCIA_MULTIRRADICULAR:
+            case EXTRACCION_CORDAL:
+            case IMPLANTE:
+            case CIRUGIA_PERIODONTAL:
+                return 3;
+            default:
+                break;
+        }
+        
+        switch (categoria) {
+            case RESTAURADOR:
+            case ENDODONTICO:
+            case PERIODONTAL:
+            case QUIRURGICO:
+            case PROTESICO:
+            case ESTETICO:
+                return 2;
+            default:
+                return 1;
+        }
+    }
+    
     /**
      * Obtiene un TreatmentType a partir de su nombre
      * @param nombre Nombre del tratamiento
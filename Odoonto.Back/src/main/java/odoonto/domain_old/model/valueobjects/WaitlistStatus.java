@@ -0,0 +1,28 @@
+package odoonto.domain.model.valueobjects;
+
+/**
+ * Objeto de valor que representa los estados de una solicitud de la lista de espera
+ */
+public enum WaitlistStatus {
+    ACTIVA("Esperando un hueco"),
+    OFERTADA("Se le ha ofrecido un hueco pendiente de respuesta"),
+    CUBIERTA("Ha aceptado un hueco y tiene cita"),
+    RETIRADA("Retirada por el paciente o caducada");
+
+    private final String descripcion;
+
+    WaitlistStatus(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * Indica si la solicitud sigue en la lista y puede recibir ofertas
+     */
+    public boolean isEnLista() {
+        return this == ACTIVA || this == OFERTADA;
+    }
+}
@@ -3,11 +3,14 @@ package odoonto.domain.service;
 import odoonto.domain.exceptions.DomainException;
 import odoonto.domain.model.aggregates.Odontogram;
 
+import odoonto.domain.model.valueobjects.DiagnosisResult;
 import odoonto.domain.model.valueobjects.LesionType;
 
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -16,77 +19,174 @@ import java.util.Map;
  * Servicio de dominio para realizar diagnósticos dentales.
  * Encapsula lógica de negocio relacionada con la interpretación
  * del estado dental basado en el odontograma del paciente.
+ * El cuadrante, la zona y la dentición de cada diente se leen de tablas estáticas
+ * indexadas por su número FDI (permanentes 11-48 y temporales 51-85) y los recuentos
+ * se acumulan en arrays de enteros en una sola pasada sobre el odontograma.
  */
 public class DentalDiagnosisService {
-    
+
+    private static final LesionType[] LESION_TYPES = LesionType.values();
+
+    private static final int QUADRANTS = 4;
+    private static final String[] QUADRANT_NAMES = {
+        "SUPERIOR_DERECHO", "SUPERIOR_IZQUIERDO", "INFERIOR_IZQUIERDO", "INFERIOR_DERECHO"
+    };
+    private static final String[] REGION_NAMES = {
+        "Superior Derecha", "Superior Izquierda", "Inferior Izquierda", "Inferior Derecha"
+    };
+
+    private static final int ZONE_ANTERIOR = 0;
+    private static final int ZONE_PREMOLARES = 1;
+    private static final int ZONE_MOLARES = 2;
+    private static final String[] ZONE_NAMES = {"ANTERIOR", "PREMOLARES", "MOLARES"};
+
+    private static final byte PERMANENT = 1;
+    private static final byte TEMPORARY = 2;
+    private static final int PERMANENT_TEETH = 32;
+    private static final int TEMPORARY_TEETH = 20;
+
+    /**
+     * Tablas por número FDI: cuadrante (0-3, los temporales comparten el de su
+     * permanente), zona y dentición (0 si el número no corresponde a ningún diente)
+     */
+    private static final byte[] QUADRANT = new byte[100];
+    private static final byte[] ZONE = new byte[100];
+    private static final byte[] DENTITION = new byte[100];
+
+    /**
+     * Tipos de lesión, por ordinal, que requieren atención inmediata
+     */
+    private static final boolean[] IMMEDIATE_ATTENTION = new boolean[LESION_TYPES.length];
+
+    static {
+        Arrays.fill(QUADRANT, (byte) -1);
+        Arrays.fill(ZONE, (byte) -1);
+        for (int quadrant = 1; quadrant <= 8; quadrant++) {
+            boolean temporary = quadrant >= 5;
+            int positions = temporary ? 5 : 8;
+            for (int position = 1; position <= positions; position++) {
+                int number = quadrant * 10 + position;
+                QUADRANT[number] = (byte) ((quadrant - 1) % QUADRANTS);
+                DENTITION[number] = temporary ? TEMPORARY : PERMANENT;
+                // Los temporales no tienen premolares: sus posiciones 4 y 5 son molares
+                if (position <= 3) {
+                    ZONE[number] = ZONE_ANTERIOR;
+                } else if (!temporary && position <= 5) {
+                    ZONE[number] = ZONE_PREMOLARES;
+                } else {
+                    ZONE[number] = ZONE_MOLARES;
+                }
+            }
+        }
+
+        IMMEDIATE_ATTENTION[LesionType.CARIES.ordinal()] = true;
+        IMMEDIATE_ATTENTION[LesionType.FRACTURA.ordinal()] = true;
+        IMMEDIATE_ATTENTION[LesionType.AUSENTE.ordinal()] = true;
+    }
+
     /**
      * Analiza un odontograma para generar un diagnóstico de la salud dental
      * @param odontogram Odontograma a analizar
-     * @return Mapa con los resultados del diagnóstico
+     * @return Resultado del diagnóstico
      */
-    public Map<String, Object> generateDiagnosis(Odontogram odontogram) {
+    public DiagnosisResult generateDiagnosis(Odontogram odontogram) {
         if (odontogram == null) {
             throw new DomainException("No se puede generar un diagnóstico sin odontograma");
         }
-        
-        Map<String, Object> diagnosis = new HashMap<>();
-        
-        // Conteo de lesiones por tipo
-        Map<LesionType, Integer> lesionCounts = countLesionsByType(odontogram);
-        diagnosis.put("lesionCounts", lesionCounts);
-        
-        // Conteo de dientes afectados
-        int affectedTeethCount = countAffectedTeeth(odontogram);
-        int totalTeeth = odontogram.getTeeth().size();
-        diagnosis.put("affectedTeethCount", affectedTeethCount);
-        diagnosis.put("totalTeethCount", totalTeeth);
-        
-        // Porcentaje de salud dental
-        double healthPercentage = calculateDentalHealthPercentage(affectedTeethCount, totalTeeth);
-        diagnosis.put("healthPercentage", healthPercentage);
-        
-        // Nivel de riesgo
-        String riskLevel = determineRiskLevel(healthPercentage, lesionCounts);
-        diagnosis.put("riskLevel", riskLevel);
-        
-        // Áreas más afectadas
-        List<String> mostAffectedAreas = identifyMostAffectedAreas(odontogram);
-        diagnosis.put("mostAffectedAreas", mostAffectedAreas);
-        
-        // Tratamientos recomendados
-        List<String> recommendedTreatments = suggestTreatments(lesionCounts, mostAffectedAreas);
-        diagnosis.put("recommendedTreatments", recommendedTreatments);
-        
-        return diagnosis;
+
+        Tally tally = tally(odontogram);
+
+        // Dientes esperados según la dentición registrada (temporal si no hay permanentes)
+        int totalTeeth = tally.temporaryTeeth > 0 && tally.permanentTeeth == 0 ? TEMPORARY_TEETH : PERMANENT_TEETH;
+        double healthPercentage = calculateDentalHealthPercentage(tally.affectedTeeth, totalTeeth);
+
+        Map<LesionType, Integer> lesionCounts = new EnumMap<>(LesionType.class);
+        for (int i = 0; i < LESION_TYPES.length; i++) {
+            if (tally.lesionsByType[i] > 0) {
+                lesionCounts.put(LESION_TYPES[i], tally.lesionsByType[i]);
+            }
+        }
+
+        List<String> mostAffectedAreas = identifyMostAffectedAreas(tally);
+
+        return new DiagnosisResult(
+                lesionCounts,
+                tally.totalLesions,
+                tally.affectedTeeth,
+                totalTeeth,
+                healthPercentage,
+                determineRiskLevel(healthPercentage, tally),
+                mostAffectedAreas,
+                tally.priorityTeeth,
+                suggestTreatments(tally));
     }
-    
+
     /**
-     * Cuenta el número de lesiones por tipo
-     * @param odontogram Odontograma a analizar
-     * @return Mapa con conteo de lesiones por tipo
+     * Recorre el odontograma una vez y acumula todos los recuentos
      */
-    private Map<LesionType, Integer> countLesionsByType(Odontogram odontogram) {
-        Map<LesionType, Integer> counts = new HashMap<>();
-        
+    private Tally tally(Odontogram odontogram) {
+        Tally tally = new Tally();
+
         for (Map.Entry<String, Odontogram.ToothRecord> entry : odontogram.getTeeth().entrySet()) {
-            for (Map.Entry<String, LesionType> lesionEntry : entry.getValue().getFaces().entrySet()) {
-                LesionType type = lesionEntry.getValue();
-                counts.put(type, counts.getOrDefault(type, 0) + 1);
+            Map<String, LesionType> faces = entry.getValue().getFaces();
+            if (faces.isEmpty()) {
+                continue;
+            }
+
+            boolean affected = false;
+            boolean immediate = false;
+            for (LesionType lesionType : faces.values()) {
+                int ordinal = lesionType.ordinal();
+                tally.lesionsByType[ordinal]++;
+                affected |= lesionType != LesionType.SANO;
+                immediate |= IMMEDIATE_ATTENTION[ordinal];
+            }
+            int lesionCount = faces.size();
+            tally.totalLesions += lesionCount;
+            if (affected) {
+                tally.affectedTeeth++;
+            }
+            if (immediate) {
+                tally.priorityTeeth.add(entry.getKey());
+            }
+
+            int number = toothIndex(entry.getKey());
+            if (number < 0) {
+                if (tally.invalidTooth == null) {
+                    tally.invalidTooth = entry.getKey();
+                }
+                continue;
+            }
+            tally.lesionsByQuadrant[QUADRANT[number]] += lesionCount;
+            tally.lesionsByZone[ZONE[number]] += lesionCount;
+            if (DENTITION[number] == TEMPORARY) {
+                tally.temporaryTeeth++;
+            } else {
+                tally.permanentTeeth++;
             }
         }
-        
-        return counts;
+
+        tally.priorityTeeth.sort(null);
+        return tally;
     }
-    
+
     /**
-     * Cuenta el número de dientes afectados por lesiones
-     * @param odontogram Odontograma a analizar
-     * @return Número de dientes afectados
+     * Convierte el identificador de un diente en su número FDI sin crear objetos
+     * @return Número FDI o -1 si no corresponde a ningún diente
      */
-    private int countAffectedTeeth(Odontogram odontogram) {
-        return odontogram.getTeeth().size();
+    private static int toothIndex(String toothId) {
+        if (toothId == null || toothId.length() != 2) {
+            return -1;
+        }
+        int tens = toothId.charAt(0) - '0';
+        int units = toothId.charAt(1) - '0';
+        if (tens < 0 || tens > 9 || units < 0 || units > 9) {
+            return -1;
+        }
+        int number = tens * 10 + units;
+        return DENTITION[number] != 0 ? number : -1;
     }
-    
+
     /**
      * Calcula el porcentaje de salud dental
      * @param affectedTeethCount Número de dientes afectados
@@ -97,243 +197,155 @@ public class DentalDiagnosisService {
         if (totalTeeth == 0) {
             return 100.0; // Por defecto, si no hay dientes se considera 100% de salud
         }
-        
-        double healthyTeethCount = totalTeeth - affectedTeethCount;
+
+        double healthyTeethCount = Math.max(0, totalTeeth - affectedTeethCount);
         return (healthyTeethCount / totalTeeth) * 100.0;
     }
-    
+
     /**
      * Determina el nivel de riesgo basado en el porcentaje de salud y tipos de lesiones
      * @param healthPercentage Porcentaje de salud dental
-     * @param lesionCounts Conteo de lesiones por tipo
-     * @return Nivel de riesgo (BAJO, MEDIO, ALTO, MUY ALTO)
+     * @param tally Recuentos del odontograma
+     * @return Nivel de riesgo
      */
-    private String determineRiskLevel(double healthPercentage, Map<LesionType, Integer> lesionCounts) {
+    private DiagnosisResult.RiskLevel determineRiskLevel(double healthPercentage, Tally tally) {
         // Contar lesiones severas
-        int severeLesions = lesionCounts.getOrDefault(LesionType.CARIES, 0) +
-                            lesionCounts.getOrDefault(LesionType.FRACTURA, 0);
-        
+        int severeLesions = tally.lesionsByType[LesionType.CARIES.ordinal()] +
+                            tally.lesionsByType[LesionType.FRACTURA.ordinal()];
+
         if (healthPercentage >= 90) {
-            return "BAJO";
+            return DiagnosisResult.RiskLevel.BAJO;
         } else if (healthPercentage >= 75) {
-            return severeLesions > 0 ? "MEDIO" : "BAJO";
+            return severeLesions > 0 ? DiagnosisResult.RiskLevel.MEDIO : DiagnosisResult.RiskLevel.BAJO;
         } else if (healthPercentage >= 50) {
-            return severeLesions > 2 ? "ALTO" : "MEDIO";
+            return severeLesions > 2 ? DiagnosisResult.RiskLevel.ALTO : DiagnosisResult.RiskLevel.MEDIO;
         } else {
-            return "MUY ALTO";
+            return DiagnosisResult.RiskLevel.MUY_ALTO;
         }
     }
-    
+
     /**
      * Identifica las áreas más afectadas de la dentadura
-     * @param odontogram Odontograma a analizar
+     * @param tally Recuentos del odontograma
      * @return Lista de áreas afectadas en orden de severidad
      */
-    private List<String> identifyMostAffectedAreas(Odontogram odontogram) {
-        // Conteo de lesiones por cuadrante
-        Map<String, Integer> quadrantLesionCount = new HashMap<>();
-        quadrantLesionCount.put("SUPERIOR_DERECHO", 0);
-        quadrantLesionCount.put("SUPERIOR_IZQUIERDO", 0);
-        quadrantLesionCount.put("INFERIOR_IZQUIERDO", 0);
-        quadrantLesionCount.put("INFERIOR_DERECHO", 0);
-        
-        // Conteo de lesiones por zona
-        Map<String, Integer> zoneLesionCount = new HashMap<>();
-        zoneLesionCount.put("ANTERIOR", 0);
-        zoneLesionCount.put("PREMOLARES", 0);
-        zoneLesionCount.put("MOLARES", 0);
-        
-        for (Map.Entry<String, Odontogram.ToothRecord> entry : odontogram.getTeeth().entrySet()) {
-            String toothId = entry.getKey();
-            int toothNumber = Integer.parseInt(toothId);
-            int lesionCount = entry.getValue().getFaces().size();
-            
-            // Determinar cuadrante
-            String quadrant;
-            if (toothNumber >= 11 && toothNumber <= 18) {
-                quadrant = "SUPERIOR_DERECHO";
-            } else if (toothNumber >= 21 && toothNumber <= 28) {
-                quadrant = "SUPERIOR_IZQUIERDO";
-            } else if (toothNumber >= 31 && toothNumber <= 38) {
-                quadrant = "INFERIOR_IZQUIERDO";
-            } else {
-                quadrant = "INFERIOR_DERECHO";
-            }
-            
-            // Determinar zona
-            String zone;
-            int toothPosition = toothNumber % 10;
-            if (toothPosition >= 1 && toothPosition <= 3) {
-                zone = "ANTERIOR";
-            } else if (toothPosition >= 4 && toothPosition <= 5) {
-                zone = "PREMOLARES";
-            } else {
-                zone = "MOLARES";
-            }
-            
-            // Actualizar conteos
-            quadrantLesionCount.put(quadrant, quadrantLesionCount.get(quadrant) + lesionCount);
-            zoneLesionCount.put(zone, zoneLesionCount.get(zone) + lesionCount);
-        }
-        
-        // Identificar áreas más afectadas
+    private List<String> identifyMostAffectedAreas(Tally tally) {
         List<String> affectedAreas = new ArrayList<>();
-        
-        // Añadir cuadrantes con más lesiones
-        List<Map.Entry<String, Integer>> quadrantEntries = new ArrayList<>(quadrantLesionCount.entrySet());
-        quadrantEntries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
-        
-        for (Map.Entry<String, Integer> entry : quadrantEntries) {
-            if (entry.getValue() > 0) {
-                affectedAreas.add("Cuadrante " + entry.getKey() + " (" + entry.getValue() + " lesiones)");
-            }
+
+        // Cuadrantes con más lesiones y después zonas con más lesiones
+        for (int quadrant : indicesByCountDescending(tally.lesionsByQuadrant)) {
+            affectedAreas.add("Cuadrante " + QUADRANT_NAMES[quadrant]
+                    + " (" + tally.lesionsByQuadrant[quadrant] + " lesiones)");
         }
-        
-        // Añadir zonas con más lesiones
-        List<Map.Entry<String, Integer>> zoneEntries = new ArrayList<>(zoneLesionCount.entrySet());
-        zoneEntries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
-        
-        for (Map.Entry<String, Integer> entry : zoneEntries) {
-            if (entry.getValue() > 0) {
-                affectedAreas.add("Zona " + entry.getKey() + " (" + entry.getValue() + " lesiones)");
-            }
+        for (int zone : indicesByCountDescending(tally.lesionsByZone)) {
+            affectedAreas.add("Zona " + ZONE_NAMES[zone] + " (" + tally.lesionsByZone[zone] + " lesiones)");
         }
-        
+
         return affectedAreas;
     }
-    
+
+    /**
+     * Índices con recuento positivo, de mayor a menor recuento (a igualdad, por índice)
+     */
+    private static int[] indicesByCountDescending(int[] counts) {
+        int[] indices = new int[counts.length];
+        int size = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                // Inserción ordenada: los arrays tienen como mucho cuatro posiciones
+                int position = size++;
+                while (position > 0 && counts[indices[position - 1]] < counts[i]) {
+                    indices[position] = indices[position - 1];
+                    position--;
+                }
+                indices[position] = i;
+            }
+        }
+        return Arrays.copyOf(indices, size);
+    }
+
     /**
      * Sugiere tratamientos basados en las lesiones encontradas
-     * @param lesionCounts Conteo de lesiones por tipo
-     * @param mostAffectedAreas Áreas más afectadas
+     * @param tally Recuentos del odontograma
      * @return Lista de tratamientos recomendados
      */
-    private List<String> suggestTreatments(Map<LesionType, Integer> lesionCounts, List<String> mostAffectedAreas) {
+    private List<String> suggestTreatments(Tally tally) {
         List<String> recommendations = new ArrayList<>();
-        
+
         // Recomendaciones basadas en tipos de lesiones
-        if (lesionCounts.getOrDefault(LesionType.CARIES, 0) > 0) {
+        if (tally.lesionsByType[LesionType.CARIES.ordinal()] > 0) {
             recommendations.add("Tratamiento para caries");
         }
-        
-        if (lesionCounts.getOrDefault(LesionType.DESGASTE, 0) > 0) {
+
+        if (tally.lesionsByType[LesionType.DESGASTE.ordinal()] > 0) {
             recommendations.add("Tratamiento para desgaste dental");
         }
-        
-        if (lesionCounts.getOrDefault(LesionType.FRACTURA, 0) > 0) {
+
+        if (tally.lesionsByType[LesionType.FRACTURA.ordinal()] > 0) {
             recommendations.add("Reconstrucción o corona para dientes fracturados");
         }
-        
+
         // Recomendaciones generales basadas en la concentración de lesiones
-        boolean hasManyLesions = lesionCounts.values().stream().mapToInt(Integer::intValue).sum() > 5;
-        
-        if (hasManyLesions) {
+        if (tally.totalLesions > 5) {
             recommendations.add("Plan integral de tratamiento dental");
             recommendations.add("Revisión de hábitos de higiene oral");
         }
-        
-        if (mostAffectedAreas.stream().anyMatch(area -> area.contains("ANTERIOR"))) {
+
+        if (tally.lesionsByZone[ZONE_ANTERIOR] > 0) {
             recommendations.add("Evaluación estética para zona anterior");
         }
-        
-        if (mostAffectedAreas.stream().anyMatch(area -> area.contains("MOLARES"))) {
+
+        if (tally.lesionsByZone[ZONE_MOLARES] > 0) {
             recommendations.add("Evaluación de hábitos de alimentación y técnica de cepillado");
         }
-        
+
         return recommendations;
     }
-    
+
     /**
      * Identifica los dientes que requieren atención inmediata en un odontograma
      * @param odontogram Odontograma a analizar (objeto de valor del paciente)
      * @return Lista de dientes que requieren atención inmediata
      */
     public List<String> identifyPriorityTeeth(Odontogram odontogram) {
-        List<String> priorityTeeth = new ArrayList<>();
-        
-        for (Map.Entry<String, Odontogram.ToothRecord> entry : odontogram.getTeeth().entrySet()) {
-            String toothId = entry.getKey();
-            Odontogram.ToothRecord tooth = entry.getValue();
-            
-            for (LesionType lesionType : tooth.getFaces().values()) {
-                if (requiresImmediateAttention(lesionType)) {
-                    priorityTeeth.add(toothId);
-                    break; // Ya encontramos una lesión que requiere atención inmediata en este diente
-                }
-            }
-        }
-        
-        return priorityTeeth;
+        return tally(odontogram).priorityTeeth;
     }
-    
-    /**
-     * Determina si un tipo de lesión requiere atención inmediata
-     * @param lesionType Tipo de lesión
-     * @return true si requiere atención inmediata
-     */
-    private boolean requiresImmediateAttention(LesionType lesionType) {
-        return lesionType == LesionType.CARIES || 
-               lesionType == LesionType.FRACTURA ||
-               lesionType == LesionType.AUSENTE;
-    }
-    
+
     /**
      * Genera un resumen de lesiones por tipo
      * @param odontogram Odontograma a analizar
      * @return Mapa de tipo de lesión a cantidad
      */
     public Map<LesionType, Integer> summarizeLesionsByType(Odontogram odontogram) {
-        Map<LesionType, Integer> summary = new HashMap<>();
-        
-        for (LesionType type : LesionType.values()) {
-            summary.put(type, 0);
-        }
-        
-        for (Map.Entry<String, Odontogram.ToothRecord> entry : odontogram.getTeeth().entrySet()) {
-            for (LesionType lesionType : entry.getValue().getFaces().values()) {
-                summary.put(lesionType, summary.get(lesionType) + 1);
-            }
+        Tally tally = tally(odontogram);
+
+        Map<LesionType, Integer> summary = new EnumMap<>(LesionType.class);
+        for (int i = 0; i < LESION_TYPES.length; i++) {
+            summary.put(LESION_TYPES[i], tally.lesionsByType[i]);
         }
-        
         return summary;
     }
-    
+
     /**
-     * Genera un resumen de lesiones por región dental
+     * Genera un resumen de lesiones por región dental; los dientes temporales
+     * cuentan en la región de su cuadrante
      * @param odontogram Odontograma a analizar
      * @return Mapa de región a cantidad de lesiones
+     * @throws DomainException Si algún diente tiene un número fuera de rango
      */
     public Map<String, Integer> summarizeLesionsByRegion(Odontogram odontogram) {
-        Map<String, Integer> summary = new HashMap<>();
-        summary.put("Superior Derecha", 0);
-        summary.put("Superior Izquierda", 0);
-        summary.put("Inferior Izquierda", 0);
-        summary.put("Inferior Derecha", 0);
-        
-        for (Map.Entry<String, Odontogram.ToothRecord> entry : odontogram.getTeeth().entrySet()) {
-            String toothId = entry.getKey();
-            String region = getRegionForTooth(Integer.parseInt(toothId));
-            int lesionCount = entry.getValue().getFaces().size();
-            summary.put(region, summary.get(region) + lesionCount);
+        Tally tally = tally(odontogram);
+        if (tally.invalidTooth != null) {
+            throw new DomainException("Número de diente fuera de rango: " + tally.invalidTooth);
+        }
+
+        Map<String, Integer> summary = new LinkedHashMap<>();
+        for (int quadrant = 0; quadrant < QUADRANTS; quadrant++) {
+            summary.put(REGION_NAMES[quadrant], tally.lesionsByQuadrant[quadrant]);
         }
-        
         return summary;
     }
-    
-    /**
-     * Determina la región dental según el número de diente
-     * @param toothNumber Número de diente
-     * @return Región dental
-     */
-    private String getRegionForTooth(int toothNumber) {
-        if (toothNumber >= 11 && toothNumber <= 18) return "Superior Derecha";
-        if (toothNumber >= 21 && toothNumber <= 28) return "Superior Izquierda";
-        if (toothNumber >= 31 && toothNumber <= 38) return "Inferior Izquierda";
-        if (toothNumber >= 41 && toothNumber <= 48) return "Inferior Derecha";
-        
-        throw new DomainException("Número de diente fuera de rango: " + toothNumber);
-    }
-    
+
     /**
      * Calcula el riesgo de caries basado en el odontograma
      * @param odontogram Odontograma a analizar
@@ -341,15 +353,15 @@ public class DentalDiagnosisService {
      */
     public RiskLevel calculateCariesRisk(Odontogram odontogram) {
         int cariesCount = 0;
-        
-        for (Map.Entry<String, Odontogram.ToothRecord> entry : odontogram.getTeeth().entrySet()) {
-            for (LesionType lesionType : entry.getValue().getFaces().values()) {
+
+        for (Odontogram.ToothRecord tooth : odontogram.getTeeth().values()) {
+            for (LesionType lesionType : tooth.getFaces().values()) {
                 if (lesionType == LesionType.CARIES) {
                     cariesCount++;
                 }
             }
         }
-        
+
         if (cariesCount >= 5) {
             return RiskLevel.ALTO;
         } else if (cariesCount >= 2) {
@@ -358,11 +370,26 @@ public class DentalDiagnosisService {
             return RiskLevel.BAJO;
         }
     }
-    
+
     /**
      * Niveles de riesgo para evaluación dental
      */
     public enum RiskLevel {
         BAJO, MEDIO, ALTO
     }
-} 
\ No newline at end of file
+
+    /**
+     * Recuentos de un odontograma acumulados en una sola pasada
+     */
+    private static final class Tally {
+        private final int[] lesionsByType = new int[LESION_TYPES.length];
+        private final int[] lesionsByQuadrant = new int[QUADRANTS];
+        private final int[] lesionsByZone = new int[ZONE_NAMES.length];
+        private final List<String> priorityTeeth = new ArrayList<>();
+        private int totalLesions;
+        private int affectedTeeth;
+        private int permanentTeeth;
+        private int temporaryTeeth;
+        private String invalidTooth;
+    }
+}
@@ -0,0 +1,126 @@
+package odoonto.infrastructure.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límite de concurrencia adaptativo AIMD: cada petición que termina a tiempo y con el
+ * límite casi agotado lo sube en uno; una petición lenta o fallida lo multiplica por
+ * el factor de reducción. Como en TCP, se reduce como mucho una vez por ida y vuelta:
+ * solo cuenta una petición admitida después de la última reducción, porque las que ya
+ * estaban en curso reflejan el límite anterior y una ráfaga de ellas lo hundiría hasta
+ * el mínimo. Así el límite se acerca a la concurrencia que el backend (Firestore)
+ * atiende sin degradar su latencia, y baja en cuanto empieza a degradarse.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long slowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private double limit;
+    private long lastDecreaseNanos;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long slowMillis) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = Math.min(Math.max(backoffRatio, 0.1), 0.99);
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, slowMillis));
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Intenta ocupar un hueco
+     * @param share Fracción del límite disponible para quien pide el hueco
+     * @return true si se admite; en ese caso hay que llamar a {@link #release}
+     */
+    boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (getLimit() * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el hueco de una petición sin ajustar el límite
+     */
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Libera el hueco de una petición terminada y ajusta el límite con su resultado
+     * @param latencyNanos Duración de la petición
+     * @param didFail true si terminó con error del servidor
+     */
+    void release(long latencyNanos, boolean didFail) {
+        int previousInFlight = inFlight.getAndDecrement();
+        long nowNanos = System.nanoTime();
+        boolean tooSlow = latencyNanos > slowNanos;
+        if (tooSlow) {
+            slow.increment();
+        }
+        if (didFail) {
+            failed.increment();
+        }
+
+        synchronized (this) {
+            if (didFail || tooSlow) {
+                if (nowNanos - latencyNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = nowNanos;
+                    decreases.increment();
+                }
+            } else if (previousInFlight * 2 >= limit) {
+                // Solo crece si se está usando: un límite ocioso no aporta información
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    long getAdmitted() {
+        return admitted.sum();
+    }
+
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    long getSlow() {
+        return slow.sum();
+    }
+
+    long getFailed() {
+        return failed.sum();
+    }
+
+    long getDecreases() {
+        return decreases.sum();
+    }
+}
@@ -0,0 +1,97 @@
+package odoonto.infrastructure.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración del control de admisión de la API REST
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.admission")
+@Data
+public class AdmissionControlConfiguration {
+    
+    /**
+     * Aplica los límites de concurrencia; si se desactiva se admiten todas las peticiones
+     */
+    private boolean enabled = true;
+    
+    /**
+     * Segundos indicados en la cabecera Retry-After de las respuestas 503
+     */
+    private int retryAfterSeconds = 1;
+    
+    /**
+     * Factor por el que se multiplica un límite tras una petición lenta o fallida
+     */
+    private double backoffRatio = 0.9;
+    
+    /**
+     * Límite mínimo de cualquier grupo
+     */
+    private int minLimit = 2;
+    
+    /**
+     * Límite compartido por todos los grupos
+     */
+    private GroupLimits global = new GroupLimits(100, 400, 5000);
+    
+    /**
+     * Altas, cambios y cancelaciones de citas y lista de espera
+     */
+    private GroupLimits bookings = new GroupLimits(20, 100, 2000);
+    
+    /**
+     * Resto de escrituras (pacientes, odontogramas, historiales, doctores)
+     */
+    private GroupLimits writes = new GroupLimits(20, 100, 2000);
+    
+    /**
+     * Consultas (calendario, listados, búsquedas)
+     */
+    private GroupLimits reads = new GroupLimits(30, 200, 2000);
+    
+    /**
+     * Estadísticas e informes
+     */
+    private GroupLimits reports = new GroupLimits(4, 20, 15000);
+    
+    /**
+     * Límites de un grupo
+     * @param group Grupo de endpoints
+     * @return Límites configurados para el grupo
+     */
+    public GroupLimits limitsFor(EndpointGroup group) {
+        switch (group) {
+            case BOOKINGS:
+                return bookings;
+            case WRITES:
+                return writes;
+            case REPORTS:
+                return reports;
+            default:
+                return reads;
+        }
+    }
+    
+    /**
+     * Límite inicial y máximo de un grupo y latencia a partir de la cual una petición
+     * cuenta como lenta y reduce el límite
+     */
+    @Data
+    public static class GroupLimits {
+        private int initialLimit;
+        private int maxLimit;
+        private long slowRequestMillis;
+        
+        public GroupLimits() {
+        }
+        
+        public GroupLimits(int initialLimit, int maxLimit, long slowRequestMillis) {
+            this.initialLimit = initialLimit;
+            this.maxLimit = maxLimit;
+            this.slowRequestMillis = slowRequestMillis;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package odoonto.infrastructure.admission;
+
+import odoonto.application.port.out.MetricsSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Control de admisión delante de los controladores: cada grupo de endpoints tiene su
+ * propio límite adaptativo de peticiones en curso y todos comparten un límite global del
+ * que los grupos de menor prioridad solo pueden ocupar una parte. Una petición que no
+ * cabe se rechaza al instante con 503 y Retry-After, en lugar de encolarse y lanzar más
+ * consultas contra Firestore. Los controladores devuelven Mono, así que el hueco se
+ * libera al terminar el procesamiento asíncrono y no al salir del filtro.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter implements MetricsSource {
+
+    private final AdmissionControlConfiguration configuration;
+    private final ObjectMapper objectMapper;
+    private final AdaptiveConcurrencyLimit globalLimit;
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimit> groupLimits = new EnumMap<>(EndpointGroup.class);
+
+    @Autowired
+    public AdmissionControlFilter(AdmissionControlConfiguration configuration, ObjectMapper objectMapper) {
+        this.configuration = configuration;
+        this.objectMapper = objectMapper;
+        this.globalLimit = newLimit(configuration.getGlobal());
+        for (EndpointGroup group : EndpointGroup.values()) {
+            groupLimits.put(group, newLimit(configuration.limitsFor(group)));
+        }
+    }
+
+    private AdaptiveConcurrencyLimit newLimit(AdmissionControlConfiguration.GroupLimits limits) {
+        return new AdaptiveConcurrencyLimit(limits.getInitialLimit(), configuration.getMinLimit(),
+                limits.getMaxLimit(), configuration.getBackoffRatio(), limits.getSlowRequestMillis());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !configuration.isEnabled()
+                || EndpointGroup.classify(request.getMethod(), request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointGroup group = EndpointGroup.classify(request.getMethod(), request.getRequestURI());
+        AdaptiveConcurrencyLimit groupLimit = groupLimits.get(group);
+
+        if (!groupLimit.tryAcquire(1.0)) {
+            reject(request, response, group);
+            return;
+        }
+        if (!globalLimit.tryAcquire(group.getGlobalShare())) {
+            groupLimit.cancel();
+            reject(request, response, group);
+            return;
+        }
+
+        Admission admission = new Admission(groupLimit);
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            admission.release(true);
+            throw e;
+        }
+
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    admission.release(isServerError(event.getSuppliedResponse()));
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                    admission.release(true);
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                    admission.release(true);
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                    event.getAsyncContext().addListener(this);
+                }
+            });
+        } else {
+            admission.release(response.getStatus() >= 500);
+        }
+    }
+
+    private boolean isServerError(ServletResponse response) {
+        return response instanceof HttpServletResponse && ((HttpServletResponse) response).getStatus() >= 500;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, EndpointGroup group)
+            throws IOException {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now().toString());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", "Servidor saturado; vuelva a intentarlo en unos segundos");
+        body.put("path", request.getRequestURI());
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, configuration.getRetryAfterSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * Huecos ocupados por una petición admitida; se liberan una sola vez
+     */
+    private final class Admission {
+        private final AdaptiveConcurrencyLimit groupLimit;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Admission(AdaptiveConcurrencyLimit groupLimit) {
+            this.groupLimit = groupLimit;
+        }
+
+        private void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                long latencyNanos = System.nanoTime() - startNanos;
+                groupLimit.release(latencyNanos, failed);
+                globalLimit.release(latencyNanos, failed);
+            }
+        }
+    }
+
+    // Métricas
+
+    @Override
+    public String getMetricsName() {
+        return "admission";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", configuration.isEnabled());
+        metrics.put("global", snapshot(globalLimit));
+        for (Map.Entry<EndpointGroup, AdaptiveConcurrencyLimit> entry : groupLimits.entrySet()) {
+            metrics.put(entry.getKey().getKey(), snapshot(entry.getValue()));
+        }
+        return metrics;
+    }
+
+    private Map<String, Object> snapshot(AdaptiveConcurrencyLimit limit) {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("limit", limit.getLimit());
+        metrics.put("inFlight", limit.getInFlight());
+        metrics.put("admitted", limit.getAdmitted());
+        metrics.put("rejected", limit.getRejected());
+        metrics.put("slow", limit.getSlow());
+        metrics.put("failed", limit.getFailed());
+        metrics.put("decreases", limit.getDecreases());
+        return metrics;
+    }
+}
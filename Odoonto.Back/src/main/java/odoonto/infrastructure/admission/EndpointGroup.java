@@ -0,0 +1,96 @@
+package odoonto.infrastructure.admission;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Grupos de endpoints con límite de concurrencia propio, de mayor a menor prioridad.
+ * Cuanto menor es la prioridad, menos parte del límite global puede ocupar el grupo,
+ * de modo que los informes se rechazan mucho antes de que peligren las reservas.
+ * Las reservas se reconocen por ruta exacta; las operaciones masivas sobre citas
+ * (reprogramar el día de un doctor, planificar un plan de tratamiento) van con los
+ * informes aunque escriban citas.
+ */
+public enum EndpointGroup {
+    BOOKINGS("bookings", 1.0),
+    WRITES("writes", 0.9),
+    READS("reads", 0.75),
+    REPORTS("reports", 0.5);
+
+    /**
+     * Peticiones de una sola cita o solicitud de lista de espera, como "MÉTODO ruta"
+     */
+    private static final List<Pattern> BOOKING_ROUTES = Arrays.asList(
+            Pattern.compile("POST /api/appointments"),
+            Pattern.compile("PUT /api/appointments/[^/]+(/reschedule|/confirm)?"),
+            Pattern.compile("DELETE /api/appointments/[^/]+(/cancel)?"),
+            Pattern.compile("POST /api/appointments/series"),
+            Pattern.compile("DELETE /api/appointments/series/[^/]+(/occurrences/[^/]+)?"),
+            Pattern.compile("POST /api/waitlist"),
+            Pattern.compile("DELETE /api/waitlist/[^/]+"),
+            Pattern.compile("POST /api/waitlist/[^/]+/(accept|decline)"));
+
+    /**
+     * Operaciones que escriben muchas citas en una sola petición
+     */
+    private static final List<Pattern> BULK_ROUTES = Arrays.asList(
+            Pattern.compile("POST /api/appointments/doctor/[^/]+/day/[^/]+/reschedule"),
+            Pattern.compile("POST /api/appointments/treatment-plan/schedule"));
+
+    private final String key;
+    private final double globalShare;
+
+    EndpointGroup(String key, double globalShare) {
+        this.key = key;
+        this.globalShare = globalShare;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return Fracción del límite global que el grupo puede tener ocupada al admitir
+     */
+    public double getGlobalShare() {
+        return globalShare;
+    }
+
+    /**
+     * Clasifica una petición
+     * @param method Método HTTP
+     * @param path Ruta de la petición
+     * @return Grupo o null si la petición no pasa por el control de admisión
+     *         (fuera de la API, métricas, preflight CORS y el stream de cambios)
+     */
+    public static EndpointGroup classify(String method, String path) {
+        if (path == null || !path.startsWith("/api/") || "OPTIONS".equals(method)
+                || path.startsWith("/api/metrics") || path.equals("/api/appointments/stream")) {
+            return null;
+        }
+        if (path.startsWith("/api/statistics")) {
+            return REPORTS;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return READS;
+        }
+        String route = method + " " + path;
+        if (matches(BULK_ROUTES, route)) {
+            return REPORTS;
+        }
+        if (matches(BOOKING_ROUTES, route)) {
+            return BOOKINGS;
+        }
+        return WRITES;
+    }
+
+    private static boolean matches(List<Pattern> routes, String route) {
+        for (Pattern pattern : routes) {
+            if (pattern.matcher(route).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+package odoonto.infrastructure.catalog;
+
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.events.catalog.TreatmentPriceUpdatedEvent;
+import odoonto.domain.events.shared.DomainEventHandler;
+import odoonto.domain.model.catalog.valueobjects.TreatmentCatalogSnapshot;
+import odoonto.domain.repository.catalog.TreatmentCatalogReader;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Catálogo de tratamientos en memoria publicado por copia en escritura.
+ * Los lectores obtienen la instantánea vigente sin bloqueos; un cambio de precio
+ * construye una instantánea nueva y la sustituye de forma atómica. Los cambios de
+ * tratamientos que no están en la instantánea se ignoran.
+ */
+@Component
+public class TreatmentCatalogCache implements TreatmentCatalogReader,
+        DomainEventHandler<TreatmentPriceUpdatedEvent>, MetricsSource {
+
+    private final AtomicReference<TreatmentCatalogSnapshot> snapshot =
+            new AtomicReference<>(TreatmentCatalogSnapshot.empty());
+    private final LongAdder priceUpdates = new LongAdder();
+    private final LongAdder ignoredUpdates = new LongAdder();
+
+    @Override
+    public TreatmentCatalogSnapshot currentSnapshot() {
+        return snapshot.get();
+    }
+
+    @Override
+    public Class<TreatmentPriceUpdatedEvent> getEventType() {
+        return TreatmentPriceUpdatedEvent.class;
+    }
+
+    @Override
+    public void handle(TreatmentPriceUpdatedEvent event) {
+        if (!snapshot.get().contains(event.treatmentId())) {
+            ignoredUpdates.increment();
+            return;
+        }
+
+        snapshot.updateAndGet(current -> current.withPrice(event.treatmentId(), event.newPrice()));
+        priceUpdates.increment();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "treatmentCatalog";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        TreatmentCatalogSnapshot current = snapshot.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("version", current.getVersion());
+        metrics.put("treatments", current.size());
+        metrics.put("priceUpdates", priceUpdates.sum());
+        metrics.put("ignoredUpdates", ignoredUpdates.sum());
+        return metrics;
+    }
+}
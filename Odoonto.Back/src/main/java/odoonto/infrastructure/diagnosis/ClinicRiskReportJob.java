@@ -0,0 +1,97 @@
+package odoonto.infrastructure.diagnosis;
+
+import odoonto.application.dto.response.ClinicRiskReportDTO;
+import odoonto.application.port.in.odontogram.ClinicRiskReportUseCase;
+import odoonto.application.port.out.MetricsSource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecuta periódicamente el diagnóstico de todos los odontogramas para mantener al día
+ * la caché de resultados, de modo que el informe pedido por la API solo tenga que
+ * diagnosticar los odontogramas modificados desde la última ejecución.
+ */
+@Component
+public class ClinicRiskReportJob implements MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClinicRiskReportJob.class);
+
+    private final ClinicRiskReportUseCase clinicRiskReportUseCase;
+    private final RiskReportConfiguration configuration;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicReference<ClinicRiskReportDTO> lastReport = new AtomicReference<>();
+    private Disposable subscription;
+
+    @Autowired
+    public ClinicRiskReportJob(ClinicRiskReportUseCase clinicRiskReportUseCase,
+                               RiskReportConfiguration configuration) {
+        this.clinicRiskReportUseCase = clinicRiskReportUseCase;
+        this.configuration = configuration;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (configuration.getRefreshIntervalMinutes() <= 0) {
+            return;
+        }
+
+        subscription = Flux.interval(Duration.ZERO, Duration.ofMinutes(configuration.getRefreshIntervalMinutes()))
+                .onBackpressureDrop()
+                .concatMap(tick -> clinicRiskReportUseCase.generateRiskReport(0)
+                        .doOnNext(report -> {
+                            runs.increment();
+                            lastReport.set(report);
+                        })
+                        .onErrorResume(e -> {
+                            failures.increment();
+                            logger.warn("Error al calcular el informe de riesgo: {}", e.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    // Métricas
+
+    @Override
+    public String getMetricsName() {
+        return "clinicRiskReport";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        ClinicRiskReportDTO report = lastReport.get();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("runs", runs.sum());
+        metrics.put("failures", failures.sum());
+        metrics.put("lastRunAt", report != null ? report.getGeneratedAt() : null);
+        metrics.put("lastOdontogramsAnalyzed", report != null ? report.getOdontogramsAnalyzed() : 0);
+        metrics.put("lastDiagnosesComputed", report != null ? report.getDiagnosesComputed() : 0);
+        metrics.put("lastCacheHits", report != null ? report.getCacheHits() : 0);
+        metrics.put("lastElapsedMillis", report != null ? report.getElapsedMillis() : 0L);
+        return metrics;
+    }
+}
@@ -0,0 +1,20 @@
+package odoonto.infrastructure.diagnosis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración del cálculo periódico del informe de riesgo de la clínica
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.risk-report")
+@Data
+public class RiskReportConfiguration {
+    
+    /**
+     * Minutos entre ejecuciones en segundo plano; 0 las desactiva y el informe
+     * solo se calcula al pedirlo
+     */
+    private long refreshIntervalMinutes = 0;
+}
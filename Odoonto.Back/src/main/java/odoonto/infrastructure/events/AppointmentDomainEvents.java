@@ -0,0 +1,110 @@
+package odoonto.infrastructure.events;
+
+import odoonto.application.port.in.outbox.OutboxMessage;
+import odoonto.domain.events.scheduling.AppointmentScheduledEvent;
+import odoonto.domain.events.scheduling.AppointmentStatusChangedEvent;
+import odoonto.domain.events.shared.DomainEvent;
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.patients.valueobjects.PatientId;
+import odoonto.domain.model.scheduling.valueobjects.AppointmentId;
+import odoonto.domain.model.scheduling.valueobjects.AppointmentTime;
+import odoonto.domain.model.staff.valueobjects.DoctorId;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Traduce los cambios de una cita persistida a los eventos de dominio que se
+ * publican en el bus: alta de cita o cambio de estado. Los eventos llegan al bus
+ * desde los mensajes del outbox, escritos en la misma escritura que la cita.
+ */
+public final class AppointmentDomainEvents {
+
+    private AppointmentDomainEvents() {
+    }
+
+    /**
+     * Eventos de una escritura de cita ya confirmada
+     * @param appointment Cita guardada
+     * @param existed Si la cita existía antes de la escritura
+     * @param previousStatus Estado anterior (null si no existía)
+     * @return Lista de eventos, vacía si la escritura no produce ninguno
+     */
+    public static List<DomainEvent> forSave(Appointment appointment, boolean existed,
+                                            AppointmentStatus previousStatus) {
+        List<DomainEvent> events = new ArrayList<>(1);
+        AppointmentId appointmentId = AppointmentId.of(appointment.getId());
+
+        if (!existed) {
+            // AppointmentTime no admite fechas pasadas: una cita creada con fecha
+            // anterior (importaciones, series ya iniciadas) no genera este evento
+            LocalDateTime dateTime = appointment.getDateTime();
+            if (dateTime != null && dateTime.isAfter(LocalDateTime.now())) {
+                events.add(AppointmentScheduledEvent.create(appointmentId,
+                        PatientId.of(appointment.getPatientId()),
+                        DoctorId.of(appointment.getDoctorId()),
+                        new AppointmentTime(dateTime)));
+            }
+        } else if (previousStatus != null && previousStatus != appointment.getStatus()) {
+            events.add(AppointmentStatusChangedEvent.create(appointmentId,
+                    toSchedulingStatus(previousStatus), toSchedulingStatus(appointment.getStatus())));
+        }
+        return events;
+    }
+
+    /**
+     * Eventos de un mensaje de cita del outbox
+     * @param message Mensaje AppointmentScheduledEvent o AppointmentStatusChangedEvent
+     * @return Lista de eventos, vacía si el mensaje no produce ninguno
+     */
+    public static List<DomainEvent> fromOutbox(OutboxMessage message) {
+        String appointmentId = message.getPayloadString("appointmentId");
+        String dateTime = message.getPayloadString("dateTime");
+        if (appointmentId == null || dateTime == null) {
+            return new ArrayList<>(0);
+        }
+
+        Appointment appointment = new Appointment();
+        appointment.setId(appointmentId);
+        appointment.setPatientIdDirect(message.getPayloadString("patientId"));
+        appointment.setDoctorIdDirect(message.getPayloadString("doctorId"));
+        appointment.setDateTimeDirect(LocalDateTime.parse(dateTime));
+
+        if (AppointmentScheduledEvent.class.getSimpleName().equals(message.getEventType())) {
+            return forSave(appointment, false, null);
+        }
+        String oldStatus = message.getPayloadString("oldStatus");
+        String newStatus = message.getPayloadString("newStatus");
+        if (oldStatus == null || newStatus == null) {
+            return new ArrayList<>(0);
+        }
+        appointment.setStatus(AppointmentStatus.valueOf(newStatus));
+        return forSave(appointment, true, AppointmentStatus.valueOf(oldStatus));
+    }
+
+    private static odoonto.domain.model.scheduling.valueobjects.AppointmentStatus toSchedulingStatus(
+            AppointmentStatus status) {
+        odoonto.domain.model.scheduling.valueobjects.AppointmentStatus.Status value;
+        switch (status) {
+            case CONFIRMADA:
+                value = odoonto.domain.model.scheduling.valueobjects.AppointmentStatus.Status.CONFIRMED;
+                break;
+            case EN_PROCESO:
+                value = odoonto.domain.model.scheduling.valueobjects.AppointmentStatus.Status.IN_PROGRESS;
+                break;
+            case COMPLETADA:
+                value = odoonto.domain.model.scheduling.valueobjects.AppointmentStatus.Status.COMPLETED;
+                break;
+            case CANCELADA:
+                value = odoonto.domain.model.scheduling.valueobjects.AppointmentStatus.Status.CANCELLED;
+                break;
+            case PENDIENTE:
+            case REPROGRAMADA:
+            default:
+                value = odoonto.domain.model.scheduling.valueobjects.AppointmentStatus.Status.SCHEDULED;
+        }
+        return new odoonto.domain.model.scheduling.valueobjects.AppointmentStatus(value);
+    }
+}
@@ -0,0 +1,45 @@
+package odoonto.infrastructure.events;
+
+import odoonto.application.port.in.outbox.OutboxMessage;
+import odoonto.application.port.in.outbox.OutboxMessageHandler;
+import odoonto.domain.events.scheduling.AppointmentScheduledEvent;
+import odoonto.domain.events.scheduling.AppointmentStatusChangedEvent;
+import odoonto.domain.events.shared.DomainEventPublisher;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Publica en el bus de eventos de dominio los eventos de cita del outbox. Es el único
+ * camino de esos eventos al bus: el repositorio solo los escribe en el outbox, así que
+ * cada escritura confirmada llega al bus una vez por entrega del relay. La publicación
+ * puede esperar con la política BLOCK, por lo que se hace en boundedElastic y nunca en
+ * el hilo que completó la lectura del outbox.
+ */
+@Component
+public class AppointmentEventForwarder implements OutboxMessageHandler {
+
+    private final DomainEventPublisher eventPublisher;
+
+    @Autowired
+    public AppointmentEventForwarder(DomainEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public boolean supports(String eventType) {
+        return AppointmentScheduledEvent.class.getSimpleName().equals(eventType)
+                || AppointmentStatusChangedEvent.class.getSimpleName().equals(eventType);
+    }
+
+    @Override
+    public Mono<Void> handle(OutboxMessage message) {
+        return Mono.fromRunnable(() -> eventPublisher.publish(message.getAggregateId(),
+                        AppointmentDomainEvents.fromOutbox(message)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+}
@@ -0,0 +1,281 @@
+package odoonto.infrastructure.events;
+
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.events.shared.DomainEvent;
+import odoonto.domain.events.shared.DomainEventHandler;
+import odoonto.domain.events.shared.DomainEventPublisher;
+import odoonto.infrastructure.events.DomainEventBusConfiguration.OverflowPolicy;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bus asíncrono de eventos de dominio.
+ * Los eventos se reparten por ID de agregado entre particiones; cada partición tiene
+ * un buffer circular acotado y un único hilo de despacho, de modo que los eventos de
+ * un agregado se entregan en el orden en que se publicaron. Con la política BLOCK el
+ * publicador puede esperar hasta su tiempo límite, por lo que publish no debe llamarse
+ * desde un operador reactivo del camino de la petición sino desde boundedElastic.
+ */
+@Component
+public class AsyncDomainEventBus implements DomainEventPublisher, MetricsSource {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AsyncDomainEventBus.class);
+    
+    private final DomainEventBusConfiguration configuration;
+    private final List<DomainEventHandler<?>> handlers = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, List<DomainEventHandler<?>>> handlersByEventType = new ConcurrentHashMap<>();
+    private final Partition[] partitions;
+    
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder handlerFailures = new LongAdder();
+    private final LongAdder totalLagNanos = new LongAdder();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private volatile long startedAtNanos;
+    
+    @Autowired
+    public AsyncDomainEventBus(DomainEventBusConfiguration configuration,
+                               ObjectProvider<DomainEventHandler<?>> handlerProvider) {
+        this.configuration = configuration;
+        int partitionCount = Math.max(1, configuration.getPartitions());
+        int capacity = Math.max(1, configuration.getRingBufferSize());
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i, capacity);
+        }
+        handlerProvider.orderedStream().forEach(this::subscribe);
+    }
+    
+    @PostConstruct
+    public void start() {
+        startedAtNanos = System.nanoTime();
+        for (Partition partition : partitions) {
+            partition.thread.start();
+        }
+        logger.info("Bus de eventos de dominio iniciado: {} particiones, buffer {} por partición, política {}",
+                partitions.length, configuration.getRingBufferSize(), configuration.getOverflowPolicy());
+    }
+    
+    @PreDestroy
+    public void stop() {
+        for (Partition partition : partitions) {
+            partition.running = false;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(configuration.getShutdownTimeoutMillis());
+        for (Partition partition : partitions) {
+            try {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                partition.thread.join(Math.max(1, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Registra un manejador de eventos
+     * @param handler Manejador a registrar
+     */
+    public void subscribe(DomainEventHandler<?> handler) {
+        handlers.add(handler);
+        handlersByEventType.clear();
+    }
+    
+    @Override
+    public void publish(String aggregateId, List<DomainEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        
+        Partition partition = partitionFor(aggregateId);
+        // Se encola el lote completo bajo el mismo cerrojo para no intercalarlo
+        // con otro lote concurrente del mismo agregado
+        synchronized (partition) {
+            for (DomainEvent event : events) {
+                published.increment();
+                partition.enqueue(new Envelope(aggregateId, event, System.nanoTime()));
+            }
+        }
+    }
+    
+    private Partition partitionFor(String aggregateId) {
+        int hash = aggregateId != null ? aggregateId.hashCode() : 0;
+        return partitions[Math.floorMod(hash, partitions.length)];
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void dispatch(Envelope envelope) {
+        long lag = System.nanoTime() - envelope.enqueuedAtNanos;
+        totalLagNanos.add(lag);
+        maxLagNanos.accumulateAndGet(lag, Math::max);
+        
+        List<DomainEventHandler<?>> eventHandlers = handlersByEventType.computeIfAbsent(
+                envelope.event.getClass(), this::resolveHandlers);
+        
+        for (DomainEventHandler handler : eventHandlers) {
+            try {
+                handler.handle(envelope.event);
+            } catch (Exception e) {
+                // Un manejador que falla no debe detener la partición ni al resto de manejadores
+                handlerFailures.increment();
+                logger.error("Error en el manejador {} para el evento {} del agregado {}: {}",
+                        handler.getClass().getSimpleName(), envelope.event.getClass().getSimpleName(),
+                        envelope.aggregateId, e.getMessage(), e);
+            }
+        }
+        dispatched.increment();
+    }
+    
+    private List<DomainEventHandler<?>> resolveHandlers(Class<?> eventType) {
+        List<DomainEventHandler<?>> matching = new ArrayList<>();
+        for (DomainEventHandler<?> handler : handlers) {
+            if (handler.getEventType().isAssignableFrom(eventType)) {
+                matching.add(handler);
+            }
+        }
+        return matching;
+    }
+    
+    @Override
+    public String getMetricsName() {
+        return "domainEvents";
+    }
+    
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long dispatchedCount = dispatched.sum();
+        long elapsedNanos = startedAtNanos > 0 ? System.nanoTime() - startedAtNanos : 0;
+        
+        metrics.put("published", published.sum());
+        metrics.put("dispatched", dispatchedCount);
+        metrics.put("dropped", dropped.sum());
+        metrics.put("handlerFailures", handlerFailures.sum());
+        metrics.put("handlers", handlers.size());
+        metrics.put("dispatchedPerSecond", elapsedNanos > 0
+                ? dispatchedCount / (elapsedNanos / 1_000_000_000.0) : 0.0);
+        metrics.put("averageLagMillis", dispatchedCount > 0
+                ? totalLagNanos.sum() / 1_000_000.0 / dispatchedCount : 0.0);
+        metrics.put("maxLagMillis", maxLagNanos.get() / 1_000_000.0);
+        
+        List<Map<String, Object>> partitionMetrics = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Partition partition : partitions) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            Envelope oldest = partition.ring.peek();
+            values.put("partition", partition.index);
+            values.put("pending", partition.ring.size());
+            values.put("capacity", partition.capacity);
+            values.put("oldestPendingLagMillis", oldest != null ? (now - oldest.enqueuedAtNanos) / 1_000_000.0 : 0.0);
+            partitionMetrics.add(values);
+        }
+        metrics.put("partitions", partitionMetrics);
+        return metrics;
+    }
+    
+    /**
+     * Evento encolado junto con el agregado que lo originó y el instante de encolado
+     */
+    private static final class Envelope {
+        private final String aggregateId;
+        private final DomainEvent event;
+        private final long enqueuedAtNanos;
+        
+        private Envelope(String aggregateId, DomainEvent event, long enqueuedAtNanos) {
+            this.aggregateId = aggregateId;
+            this.event = event;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+        }
+    }
+    
+    /**
+     * Partición con buffer circular acotado y un único hilo consumidor
+     */
+    private final class Partition implements Runnable {
+        private final int index;
+        private final int capacity;
+        private final ArrayBlockingQueue<Envelope> ring;
+        private final Thread thread;
+        private volatile boolean running = true;
+        
+        private Partition(int index, int capacity) {
+            this.index = index;
+            this.capacity = capacity;
+            this.ring = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this, "domain-events-" + index);
+            this.thread.setDaemon(true);
+        }
+        
+        private void enqueue(Envelope envelope) {
+            OverflowPolicy policy = configuration.getOverflowPolicy();
+            if (ring.offer(envelope)) {
+                return;
+            }
+            
+            switch (policy) {
+                case DROP_NEWEST:
+                    drop(envelope);
+                    break;
+                case DROP_OLDEST:
+                    while (!ring.offer(envelope)) {
+                        Envelope discarded = ring.poll();
+                        if (discarded != null) {
+                            drop(discarded);
+                        }
+                    }
+                    break;
+                case BLOCK:
+                default:
+                    try {
+                        if (!ring.offer(envelope, configuration.getBlockTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                            drop(envelope);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        drop(envelope);
+                    }
+            }
+        }
+        
+        private void drop(Envelope envelope) {
+            dropped.increment();
+            logger.warn("Buffer de eventos lleno en la partición {}: descartado {} del agregado {}",
+                    index, envelope.event.getClass().getSimpleName(), envelope.aggregateId);
+        }
+        
+        @Override
+        public void run() {
+            while (running || !ring.isEmpty()) {
+                try {
+                    Envelope envelope = ring.poll(100, TimeUnit.MILLISECONDS);
+                    if (envelope != null) {
+                        dispatch(envelope);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package odoonto.infrastructure.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración del bus asíncrono de eventos de dominio
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.events")
+@Data
+public class DomainEventBusConfiguration {
+    
+    /**
+     * Número de particiones (hilos de despacho). Todos los eventos de un mismo
+     * agregado van siempre a la misma partición, lo que garantiza su orden
+     */
+    private int partitions = 4;
+    
+    /**
+     * Capacidad del buffer circular de cada partición
+     */
+    private int ringBufferSize = 1024;
+    
+    /**
+     * Política cuando el buffer de una partición está lleno
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    
+    /**
+     * Tiempo máximo en ms que espera el publicador con la política BLOCK
+     * antes de descartar el evento
+     */
+    private long blockTimeoutMillis = 100;
+    
+    /**
+     * Tiempo máximo en ms para vaciar los buffers al detener la aplicación
+     */
+    private long shutdownTimeoutMillis = 5000;
+    
+    /**
+     * Políticas de desbordamiento del buffer de una partición
+     */
+    public enum OverflowPolicy {
+        /**
+         * El publicador espera hasta que haya hueco (contrapresión) y,
+         * si se agota el tiempo, descarta el evento
+         */
+        BLOCK,
+        /**
+         * Se descarta el evento entrante
+         */
+        DROP_NEWEST,
+        /**
+         * Se descarta el evento pendiente más antiguo de la partición
+         */
+        DROP_OLDEST
+    }
+}
@@ -0,0 +1,34 @@
+package odoonto.infrastructure.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración de las claves de idempotencia de los endpoints de creación
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.idempotency")
+@Data
+public class IdempotencyConfiguration {
+    
+    /**
+     * Respeta la cabecera Idempotency-Key; si se desactiva cada petición se ejecuta
+     */
+    private boolean enabled = true;
+    
+    /**
+     * Minutos que se guarda la respuesta de una clave para repetirla en los reintentos
+     */
+    private long ttlMinutes = 60;
+    
+    /**
+     * Claves guardadas como máximo; al superarlo se descartan las más antiguas
+     */
+    private int maxEntries = 10000;
+    
+    /**
+     * Longitud máxima aceptada para una clave
+     */
+    private int maxKeyLength = 255;
+}
@@ -0,0 +1,213 @@
+package odoonto.infrastructure.idempotency;
+
+import odoonto.application.exceptions.IdempotencyKeyReusedException;
+import odoonto.application.port.out.IdempotentExecutor;
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.exceptions.DomainException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Almacén acotado de respuestas por clave de idempotencia (cabecera Idempotency-Key).
+ * La primera petición con una clave ejecuta la operación y su resultado se guarda
+ * durante el TTL configurado; los reintentos con la misma clave reciben ese resultado
+ * sin volver a ejecutarla, y los que llegan mientras la primera sigue en curso se
+ * suscriben a ella en lugar de lanzar otra. Los errores no se guardan: tras un fallo
+ * la misma clave vuelve a ejecutar la operación. Cada clave recuerda una huella de la
+ * petición original y rechaza reutilizarla con otra distinta.
+ */
+@Component
+public class IdempotencyStore implements IdempotentExecutor, MetricsSource {
+
+    private final IdempotencyConfiguration configuration;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Entry> entries;
+    private final LongSupplier nanoClock;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    @Autowired
+    public IdempotencyStore(IdempotencyConfiguration configuration, ObjectMapper objectMapper) {
+        this(configuration, objectMapper, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock Reloj en nanosegundos con el que caducan las claves
+     */
+    IdempotencyStore(IdempotencyConfiguration configuration, ObjectMapper objectMapper, LongSupplier nanoClock) {
+        this.configuration = configuration;
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+        // En orden de inserción: la primera entrada es siempre la más antigua
+        this.entries = new LinkedHashMap<String, Entry>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > Math.max(1, configuration.getMaxEntries())) {
+                    evicted.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String operation, String idempotencyKey, Object[] request, Supplier<Mono<T>> action) {
+        if (!configuration.isEnabled() || idempotencyKey == null || idempotencyKey.isBlank()) {
+            bypassed.increment();
+            return Mono.defer(action);
+        }
+        if (idempotencyKey.length() > configuration.getMaxKeyLength()) {
+            return Mono.error(new DomainException("La cabecera " + HEADER + " no puede superar "
+                    + configuration.getMaxKeyLength() + " caracteres"));
+        }
+
+        return Mono.defer(() -> {
+            String storeKey = operation + " " + idempotencyKey;
+            String fingerprint = fingerprint(request);
+            long now = nanoClock.getAsLong();
+
+            Entry entry;
+            boolean owner = false;
+            synchronized (entries) {
+                purgeExpired(now);
+                entry = entries.get(storeKey);
+                if (entry != null && entry.isExpired(now)) {
+                    entries.remove(storeKey);
+                    entry = null;
+                }
+                if (entry == null) {
+                    entry = newEntry(storeKey, fingerprint, now, action);
+                    entries.put(storeKey, entry);
+                    owner = true;
+                }
+            }
+
+            if (!entry.fingerprint.equals(fingerprint)) {
+                rejected.increment();
+                return Mono.error(new IdempotencyKeyReusedException(idempotencyKey));
+            }
+
+            if (owner) {
+                executed.increment();
+            } else if (entry.done) {
+                replayed.increment();
+            } else {
+                coalesced.increment();
+            }
+            return (Mono<T>) entry.result;
+        });
+    }
+
+    /**
+     * Crea la entrada de una clave nueva. cache() hace que los reintentos compartan una
+     * sola ejecución, que además termina aunque el cliente original se desconecte
+     */
+    private <T> Entry newEntry(String storeKey, String fingerprint, long now, Supplier<Mono<T>> action) {
+        Entry entry = new Entry(fingerprint, now + TimeUnit.MINUTES.toNanos(Math.max(1, configuration.getTtlMinutes())));
+        entry.result = Mono.defer(action)
+                .map(value -> (Object) value)
+                .doOnSuccess(value -> entry.done = true)
+                .doOnError(e -> {
+                    failed.increment();
+                    synchronized (entries) {
+                        entries.remove(storeKey, entry);
+                    }
+                })
+                .cache();
+        return entry;
+    }
+
+    private String fingerprint(Object[] request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(Arrays.asList(request));
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            // Sin huella fiable se compara la representación textual
+            return Arrays.deepToString(request);
+        }
+    }
+
+    /**
+     * Descarta las entradas caducadas; todas tienen el mismo TTL, así que en orden de
+     * inserción las caducadas están al principio. Se llama con el mapa bloqueado
+     */
+    private void purgeExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().isExpired(now)) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Respuesta (o ejecución en curso) de una clave
+     */
+    private static final class Entry {
+        private final String fingerprint;
+        private final long expiresAtNanos;
+        private Mono<Object> result;
+        private volatile boolean done;
+
+        private Entry(String fingerprint, long expiresAtNanos) {
+            this.fingerprint = fingerprint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos > 0;
+        }
+    }
+
+    // Métricas
+
+    @Override
+    public String getMetricsName() {
+        return "idempotency";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        int size;
+        synchronized (entries) {
+            purgeExpired(nanoClock.getAsLong());
+            size = entries.size();
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", configuration.isEnabled());
+        metrics.put("entries", size);
+        metrics.put("maxEntries", configuration.getMaxEntries());
+        metrics.put("executed", executed.sum());
+        metrics.put("replayed", replayed.sum());
+        metrics.put("coalesced", coalesced.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("evicted", evicted.sum());
+        metrics.put("bypassed", bypassed.sum());
+        return metrics;
+    }
+}
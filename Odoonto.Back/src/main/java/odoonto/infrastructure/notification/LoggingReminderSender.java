@@ -0,0 +1,39 @@
+package odoonto.infrastructure.notification;
+
+import odoonto.application.port.out.AppointmentReminder;
+import odoonto.application.port.out.ReminderSender;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Envío de recordatorios para desarrollo: registra cada lote en el log en lugar de
+ * enviarlo. Un adaptador real (SMS, correo...) sustituye a este componente.
+ */
+@Component
+public class LoggingReminderSender implements ReminderSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingReminderSender.class);
+
+    @Override
+    public Mono<Set<String>> send(List<AppointmentReminder> reminders) {
+        return Mono.fromCallable(() -> {
+            logger.info("Lote de {} recordatorios de cita", reminders.size());
+            Set<String> accepted = new LinkedHashSet<>();
+            for (AppointmentReminder reminder : reminders) {
+                logger.debug("Recordatorio {} para {} ({}, {}): cita {} con el doctor {} el {}",
+                        reminder.getKey(), reminder.getPatientName(), reminder.getPhone(), reminder.getEmail(),
+                        reminder.getAppointmentId(), reminder.getDoctorId(), reminder.getDateTime());
+                accepted.add(reminder.getKey());
+            }
+            return accepted;
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package odoonto.infrastructure.notification;
+
+import odoonto.application.port.out.WaitlistNotifier;
+import odoonto.domain.model.aggregates.WaitlistEntry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Notificador de la lista de espera para desarrollo: registra la oferta en el log
+ * en lugar de enviarla. Un adaptador real (SMS, correo...) sustituye a este componente.
+ */
+@Component
+public class LoggingWaitlistNotifier implements WaitlistNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingWaitlistNotifier.class);
+
+    @Override
+    public Mono<Void> notifyOffer(WaitlistEntry entry) {
+        return Mono.fromRunnable(() -> logger.info(
+                "Oferta de lista de espera {} para el paciente {}: doctor {} el {} (caduca {})",
+                entry.getId(), entry.getPatientId(), entry.getOfertaDoctorId(),
+                entry.getOfertaInicio(), entry.getOfertaCaduca()));
+    }
+}
@@ -0,0 +1,84 @@
+package odoonto.infrastructure.outbox;
+
+import odoonto.domain.events.shared.DomainEvent;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.UpdateBuilder;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escritor del outbox transaccional.
+ * Los adaptadores de persistencia añaden los eventos al mismo WriteBatch o
+ * Transaction en el que escriben el agregado, de modo que el documento y sus
+ * eventos se confirman (o se pierden) juntos.
+ */
+@Component
+public class FirestoreOutbox {
+    
+    static final String COLLECTION_NAME = "outbox";
+    static final String DEAD_LETTER_COLLECTION_NAME = "outbox_dead_letter";
+    
+    static final String FIELD_AGGREGATE_TYPE = "aggregateType";
+    static final String FIELD_AGGREGATE_ID = "aggregateId";
+    static final String FIELD_EVENT_TYPE = "eventType";
+    static final String FIELD_OCCURRED_AT = "occurredAt";
+    static final String FIELD_CREATED_AT = "createdAt";
+    static final String FIELD_SEQUENCE = "sequence";
+    static final String FIELD_PAYLOAD = "payload";
+    static final String FIELD_ATTEMPTS = "attempts";
+    
+    private final CollectionReference outboxCollection;
+    // Desempata los mensajes confirmados en la misma escritura (mismo createdAt)
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final LongAdder appended = new LongAdder();
+    
+    public FirestoreOutbox(Firestore firestore) {
+        this.outboxCollection = firestore.collection(COLLECTION_NAME);
+    }
+    
+    /**
+     * Añade un evento al outbox dentro de una escritura atómica
+     * @param writer WriteBatch o Transaction en curso
+     * @param aggregateType Tipo de agregado (por ejemplo "Appointment")
+     * @param aggregateId ID del agregado
+     * @param eventType Clase del evento de dominio que representa el mensaje
+     * @param payload Contenido del evento
+     * @return ID del mensaje (también ID del evento)
+     */
+    public <T> String append(UpdateBuilder<T> writer, String aggregateType, String aggregateId,
+                             Class<? extends DomainEvent> eventType, Map<String, Object> payload) {
+        String messageId = UUID.randomUUID().toString();
+        
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_AGGREGATE_TYPE, aggregateType);
+        data.put(FIELD_AGGREGATE_ID, aggregateId);
+        data.put(FIELD_EVENT_TYPE, eventType.getSimpleName());
+        data.put(FIELD_OCCURRED_AT, Instant.now().toString());
+        data.put(FIELD_CREATED_AT, FieldValue.serverTimestamp());
+        data.put(FIELD_SEQUENCE, sequence.incrementAndGet());
+        data.put(FIELD_PAYLOAD, payload != null ? payload : new HashMap<>());
+        data.put(FIELD_ATTEMPTS, 0);
+        
+        writer.set(outboxCollection.document(messageId), data);
+        appended.increment();
+        return messageId;
+    }
+    
+    /**
+     * Número de mensajes añadidos por esta instancia (incluye escrituras que
+     * luego no llegaron a confirmarse)
+     */
+    public long getAppendedCount() {
+        return appended.sum();
+    }
+}
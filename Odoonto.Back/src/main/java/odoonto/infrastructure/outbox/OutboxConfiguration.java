@@ -0,0 +1,34 @@
+package odoonto.infrastructure.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración del outbox transaccional y de su relay
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.outbox")
+@Data
+public class OutboxConfiguration {
+    
+    /**
+     * Activa/desactiva el relay que vacía el outbox
+     */
+    private boolean relayEnabled = true;
+    
+    /**
+     * Intervalo en ms entre lecturas del outbox
+     */
+    private long pollIntervalMillis = 1000;
+    
+    /**
+     * Número máximo de mensajes leídos y entregados por lote
+     */
+    private int batchSize = 100;
+    
+    /**
+     * Intentos de entrega antes de mover un mensaje a la cola de mensajes fallidos
+     */
+    private int maxAttempts = 5;
+}
@@ -0,0 +1,271 @@
+package odoonto.infrastructure.outbox;
+
+import odoonto.application.port.in.outbox.OutboxMessage;
+import odoonto.application.port.in.outbox.OutboxMessageHandler;
+import odoonto.application.port.out.MetricsSource;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Relay del outbox: lee periódicamente los mensajes pendientes en el orden en que
+ * se confirmaron y los entrega por lotes a los manejadores registrados.
+ * Un mensaje solo se borra tras entregarse; si un manejador falla, en ese lote se
+ * saltan los mensajes posteriores del mismo agregado para no adelantarlos, mientras
+ * que los de otros agregados se siguen entregando. Tras agotar los intentos el
+ * mensaje se mueve a la cola de mensajes fallidos y deja de bloquear su agregado.
+ * Está pensado para una única instancia activa; con varias, los manejadores
+ * idempotentes toleran entregas duplicadas.
+ */
+@Component
+public class OutboxRelay implements MetricsSource {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    
+    private final CollectionReference outboxCollection;
+    private final CollectionReference deadLetterCollection;
+    private final Firestore firestore;
+    private final FirestoreOutbox outbox;
+    private final OutboxConfiguration configuration;
+    private final List<OutboxMessageHandler> handlers;
+    
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private Disposable subscription;
+    
+    @Autowired
+    public OutboxRelay(Firestore firestore,
+                       FirestoreOutbox outbox,
+                       OutboxConfiguration configuration,
+                       ObjectProvider<OutboxMessageHandler> handlerProvider) {
+        this.firestore = firestore;
+        this.outbox = outbox;
+        this.configuration = configuration;
+        this.outboxCollection = firestore.collection(FirestoreOutbox.COLLECTION_NAME);
+        this.deadLetterCollection = firestore.collection(FirestoreOutbox.DEAD_LETTER_COLLECTION_NAME);
+        this.handlers = handlerProvider.orderedStream().collect(Collectors.toList());
+    }
+    
+    @PostConstruct
+    public void start() {
+        if (!configuration.isRelayEnabled()) {
+            logger.info("Relay del outbox desactivado");
+            return;
+        }
+        
+        subscription = Flux.interval(Duration.ofMillis(configuration.getPollIntervalMillis()))
+                .onBackpressureDrop()
+                .concatMap(tick -> drainBatch()
+                        .onErrorResume(e -> {
+                            logger.warn("Error al leer el outbox: {}", e.getMessage());
+                            return Mono.just(0);
+                        }), 1)
+                .subscribe();
+        logger.info("Relay del outbox iniciado con {} manejadores", handlers.size());
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+    
+    /**
+     * Entrega un lote de mensajes pendientes
+     * @return Mono con el número de mensajes entregados
+     */
+    public Mono<Integer> drainBatch() {
+        return toMono(outboxCollection
+                    .orderBy(FirestoreOutbox.FIELD_CREATED_AT)
+                    .orderBy(FirestoreOutbox.FIELD_SEQUENCE)
+                    .limit(configuration.getBatchSize())
+                    .get())
+                .flatMap(this::deliverInOrder)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+    
+    private Mono<Integer> deliverInOrder(QuerySnapshot snapshot) {
+        List<DocumentSnapshot> documents = new ArrayList<>(snapshot.getDocuments());
+        lastBatchSize.set(documents.size());
+        if (documents.isEmpty()) {
+            return Mono.just(0);
+        }
+        
+        List<DocumentSnapshot> delivered = new ArrayList<>();
+        Set<String> blockedAggregates = new HashSet<>();
+        return Flux.fromIterable(documents)
+                .concatMap(document -> {
+                    OutboxMessage message = mapToMessage(document);
+                    String aggregate = aggregateKey(message);
+                    if (aggregate != null && blockedAggregates.contains(aggregate)) {
+                        skipped.increment();
+                        return Mono.empty();
+                    }
+                    return deliver(message)
+                            .then(Mono.fromRunnable(() -> delivered.add(document)))
+                            .onErrorResume(e -> {
+                                if (aggregate != null) {
+                                    blockedAggregates.add(aggregate);
+                                }
+                                return recordFailure(document, e)
+                                        .onErrorResume(recordError -> {
+                                            logger.warn("No se pudo registrar el fallo del mensaje {} del outbox: {}",
+                                                    document.getId(), recordError.getMessage());
+                                            return Mono.empty();
+                                        });
+                            });
+                })
+                .then(Mono.defer(() -> acknowledge(delivered)));
+    }
+    
+    /**
+     * Clave del agregado de un mensaje, o null si no pertenece a ninguno y por tanto
+     * no tiene orden que respetar
+     */
+    private String aggregateKey(OutboxMessage message) {
+        if (message.getAggregateId() == null) {
+            return null;
+        }
+        return message.getAggregateType() + "/" + message.getAggregateId();
+    }
+    
+    private Mono<Void> deliver(OutboxMessage message) {
+        return Flux.fromIterable(handlers)
+                .filter(handler -> handler.supports(message.getEventType()))
+                .concatMap(handler -> handler.handle(message))
+                .then(Mono.fromRunnable(() -> {
+                    relayed.increment();
+                    if (message.getOccurredAt() != null) {
+                        lastLagMillis.set(Duration.between(message.getOccurredAt(), Instant.now()).toMillis());
+                    }
+                }));
+    }
+    
+    /**
+     * Borra en una sola escritura los mensajes ya entregados
+     */
+    private Mono<Integer> acknowledge(List<DocumentSnapshot> delivered) {
+        if (delivered.isEmpty()) {
+            return Mono.just(0);
+        }
+        WriteBatch batch = firestore.batch();
+        delivered.forEach(document -> batch.delete(document.getReference()));
+        return toMono(batch.commit()).thenReturn(delivered.size());
+    }
+    
+    private Mono<Void> recordFailure(DocumentSnapshot document, Throwable error) {
+        failures.increment();
+        Long attemptsValue = document.getLong(FirestoreOutbox.FIELD_ATTEMPTS);
+        int attempts = (attemptsValue != null ? attemptsValue.intValue() : 0) + 1;
+        
+        if (attempts < configuration.getMaxAttempts()) {
+            logger.warn("Fallo al entregar el mensaje {} del outbox (intento {}): {}",
+                    document.getId(), attempts, error.getMessage());
+            return toMono(document.getReference().update(FirestoreOutbox.FIELD_ATTEMPTS, FieldValue.increment(1)))
+                    .then();
+        }
+        
+        logger.error("Mensaje {} del outbox movido a mensajes fallidos tras {} intentos: {}",
+                document.getId(), attempts, error.getMessage());
+        deadLettered.increment();
+        Map<String, Object> data = document.getData() != null ? new HashMap<>(document.getData()) : new HashMap<>();
+        data.put(FirestoreOutbox.FIELD_ATTEMPTS, attempts);
+        data.put("lastError", String.valueOf(error.getMessage()));
+        data.put("deadLetteredAt", Instant.now().toString());
+        
+        WriteBatch batch = firestore.batch();
+        batch.set(deadLetterCollection.document(document.getId()), data);
+        batch.delete(document.getReference());
+        return toMono(batch.commit()).then();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private OutboxMessage mapToMessage(DocumentSnapshot document) {
+        String occurredAt = document.getString(FirestoreOutbox.FIELD_OCCURRED_AT);
+        Object payload = document.get(FirestoreOutbox.FIELD_PAYLOAD);
+        Long attempts = document.getLong(FirestoreOutbox.FIELD_ATTEMPTS);
+        
+        return new OutboxMessage(
+                document.getId(),
+                document.getString(FirestoreOutbox.FIELD_AGGREGATE_TYPE),
+                document.getString(FirestoreOutbox.FIELD_AGGREGATE_ID),
+                document.getString(FirestoreOutbox.FIELD_EVENT_TYPE),
+                occurredAt != null ? Instant.parse(occurredAt) : null,
+                payload instanceof Map ? (Map<String, Object>) payload : null,
+                attempts != null ? attempts.intValue() : 0);
+    }
+    
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+            
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+            
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+    
+    @Override
+    public String getMetricsName() {
+        return "outbox";
+    }
+    
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("appended", outbox.getAppendedCount());
+        metrics.put("relayed", relayed.sum());
+        metrics.put("failures", failures.sum());
+        metrics.put("deadLettered", deadLettered.sum());
+        metrics.put("skipped", skipped.sum());
+        metrics.put("handlers", handlers.size());
+        metrics.put("lastBatchSize", lastBatchSize.get());
+        metrics.put("lastLagMillis", lastLagMillis.get());
+        return metrics;
+    }
+}
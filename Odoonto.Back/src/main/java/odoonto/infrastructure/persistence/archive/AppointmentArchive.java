@@ -0,0 +1,478 @@
+package odoonto.infrastructure.persistence.archive;
+
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+import odoonto.infrastructure.persistence.reservation.SlotReservations;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.Blob;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.Transaction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Archivo frío de citas. Cada documento appointment_archive/{doctorId}_{yyyy-MM} es un
+ * segmento con todas las citas archivadas de un doctor en un mes, codificadas por
+ * columnas y comprimidas ({@link ArchiveSegmentCodec}), más los IDs de citas y pacientes
+ * como arrays para localizar segmentos sin descomprimirlos.
+ * El documento de marca guarda el inicio de la cita archivada más reciente: una lectura
+ * cuyo rango empieza después no consulta el archivo. Mover citas al archivo borra el
+ * documento caliente, libera sus reservas de franja y avanza la marca en la misma
+ * transacción que reescribe el segmento. Las citas archivadas son de solo lectura: el
+ * repositorio comprueba {@link #isArchived} dentro de sus transacciones de escritura.
+ * Un segmento que no se puede decodificar se omite en las lecturas y aborta el archivado,
+ * para no sobrescribirlo con las citas que contenía.
+ */
+@Component
+public class AppointmentArchive implements MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentArchive.class);
+
+    static final String COLLECTION_NAME = "appointment_archive";
+    static final String META_COLLECTION_NAME = "appointment_archive_meta";
+    private static final String WATERMARK_DOCUMENT = "watermark";
+    private static final String APPOINTMENTS_COLLECTION = "appointments";
+
+    static final String FIELD_DOCTOR_ID = "doctorId";
+    static final String FIELD_MONTH = "month";
+    static final String FIELD_COUNT = "count";
+    static final String FIELD_DATA = "data";
+    static final String FIELD_APPOINTMENT_IDS = "appointmentIds";
+    static final String FIELD_PATIENT_IDS = "patientIds";
+    static final String FIELD_FIRST_START = "firstStart";
+    static final String FIELD_LAST_START = "lastStart";
+    static final String FIELD_ARCHIVED_AT = "archivedAt";
+    static final String FIELD_LATEST_ARCHIVED_START = "latestArchivedStart";
+
+    private final Firestore firestore;
+    private final CollectionReference archiveCollection;
+    private final CollectionReference appointmentsCollection;
+    private final DocumentReference watermarkDocument;
+    private final SlotReservations slotReservations;
+    private final Mono<Optional<LocalDateTime>> watermark;
+
+    private final LongAdder archiveQueries = new LongAdder();
+    private final LongAdder skippedQueries = new LongAdder();
+    private final LongAdder segmentsRead = new LongAdder();
+    private final LongAdder corruptSegments = new LongAdder();
+    private final LongAdder segmentsWritten = new LongAdder();
+    private final LongAdder archivedAppointments = new LongAdder();
+    private final LongAdder archivedBytes = new LongAdder();
+
+    @Autowired
+    public AppointmentArchive(Firestore firestore, SlotReservations slotReservations,
+                              AppointmentArchiveConfiguration configuration) {
+        this.firestore = firestore;
+        this.archiveCollection = firestore.collection(COLLECTION_NAME);
+        this.appointmentsCollection = firestore.collection(APPOINTMENTS_COLLECTION);
+        this.watermarkDocument = firestore.collection(META_COLLECTION_NAME).document(WATERMARK_DOCUMENT);
+        this.slotReservations = slotReservations;
+        // Otra instancia puede archivar, así que la marca se relee cada poco
+        this.watermark = Mono.defer(() -> toMono(watermarkDocument.get()))
+                .map(snapshot -> Optional.ofNullable(snapshot.getString(FIELD_LATEST_ARCHIVED_START))
+                        .map(LocalDateTime::parse))
+                .cache(loaded -> Duration.ofSeconds(Math.max(0, configuration.getWatermarkCacheSeconds())),
+                        error -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    // Lectura
+
+    /**
+     * Citas archivadas de un doctor que empiezan dentro de una ventana
+     */
+    public Flux<Appointment> findByDoctorIdAndDateTimeRange(String doctorId, LocalDateTime from, LocalDateTime to) {
+        return whenArchived(from, latest -> {
+            List<DocumentReference> segments = new ArrayList<>();
+            LocalDateTime end = to.isAfter(latest) ? latest : to;
+            for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(end)); month = month.plusMonths(1)) {
+                segments.add(archiveCollection.document(segmentId(doctorId, month)));
+            }
+            if (segments.isEmpty()) {
+                return Flux.<Appointment>empty();
+            }
+            return toMono(firestore.getAll(segments.toArray(new DocumentReference[0])))
+                    .flatMapIterable(this::decodeAll)
+                    .filter(appointment -> inRange(appointment, from, to));
+        });
+    }
+
+    /**
+     * Citas archivadas de todos los doctores que empiezan dentro de una ventana
+     */
+    public Flux<Appointment> findByDateTimeRange(LocalDateTime from, LocalDateTime to) {
+        return whenArchived(from, latest -> query(archiveCollection
+                        .whereGreaterThanOrEqualTo(FIELD_MONTH, YearMonth.from(from).toString())
+                        .whereLessThanOrEqualTo(FIELD_MONTH, YearMonth.from(to).toString()))
+                .filter(appointment -> inRange(appointment, from, to)));
+    }
+
+    public Flux<Appointment> findByDoctorId(String doctorId) {
+        return whenArchived(null, latest -> query(archiveCollection.whereEqualTo(FIELD_DOCTOR_ID, doctorId)));
+    }
+
+    public Flux<Appointment> findByPatientId(String patientId) {
+        return whenArchived(null, latest -> query(archiveCollection.whereArrayContains(FIELD_PATIENT_IDS, patientId))
+                .filter(appointment -> patientId.equals(appointment.getPatientId())));
+    }
+
+    public Mono<Appointment> findById(String id) {
+        return whenArchived(null, latest -> query(archiveCollection.whereArrayContains(FIELD_APPOINTMENT_IDS, id).limit(1))
+                .filter(appointment -> id.equals(appointment.getId())))
+                .next();
+    }
+
+    public Flux<Appointment> findAll() {
+        return whenArchived(null, latest -> query(archiveCollection));
+    }
+
+    /**
+     * Comprueba dentro de una transacción si una cita está en el archivo. Lee el
+     * segmento que la contiene, así que una cita archivada a la vez aborta la transacción
+     * @param transaction Transacción de escritura en curso
+     * @param id ID de la cita
+     * @return true si algún segmento contiene la cita
+     */
+    public boolean isArchived(Transaction transaction, String id) throws Exception {
+        return !transaction.get(archiveCollection.whereArrayContains(FIELD_APPOINTMENT_IDS, id).limit(1))
+                .get().isEmpty();
+    }
+
+    /**
+     * Indica si una cita con ese estado puede estar en el archivo
+     */
+    public static boolean isArchivable(AppointmentStatus status) {
+        return status == AppointmentStatus.COMPLETADA || status == AppointmentStatus.CANCELADA;
+    }
+
+    /**
+     * Ejecuta la lectura solo si el archivo tiene citas y, si hay ventana, si empieza
+     * antes de la cita archivada más reciente
+     */
+    private Flux<Appointment> whenArchived(LocalDateTime from,
+                                           Function<LocalDateTime, Flux<Appointment>> read) {
+        return watermark
+                .flatMapMany(latest -> {
+                    if (!latest.isPresent() || (from != null && from.isAfter(latest.get()))) {
+                        skippedQueries.increment();
+                        return Flux.<Appointment>empty();
+                    }
+                    archiveQueries.increment();
+                    return read.apply(latest.get());
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Flux<Appointment> query(Query query) {
+        return Mono.defer(() -> toMono(query.get()))
+                .map(QuerySnapshot::getDocuments)
+                .flatMapIterable(this::decodeAll);
+    }
+
+    /**
+     * Decodifica los segmentos de una lectura; los corruptos se registran y se omiten
+     */
+    private List<Appointment> decodeAll(List<? extends DocumentSnapshot> segments) {
+        List<Appointment> appointments = new ArrayList<>();
+        for (DocumentSnapshot segment : segments) {
+            try {
+                appointments.addAll(decode(segment));
+            } catch (CorruptSegmentException e) {
+                corruptSegments.increment();
+                logger.error(e.getMessage(), e.getCause());
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * @throws CorruptSegmentException si el segmento existe pero no se puede decodificar
+     */
+    private List<Appointment> decode(DocumentSnapshot segment) {
+        if (segment == null || !segment.exists()) {
+            return Collections.emptyList();
+        }
+
+        try {
+            Blob data = segment.getBlob(FIELD_DATA);
+            List<Appointment> appointments = ArchiveSegmentCodec.decode(segment.getString(FIELD_DOCTOR_ID),
+                    YearMonth.parse(segment.getString(FIELD_MONTH)), data.toBytes());
+            segmentsRead.increment();
+            return appointments;
+        } catch (Exception e) {
+            throw new CorruptSegmentException(segment.getId(), e);
+        }
+    }
+
+    private static boolean inRange(Appointment appointment, LocalDateTime from, LocalDateTime to) {
+        return !appointment.getDateTime().isBefore(from) && appointment.getDateTime().isBefore(to);
+    }
+
+    // Escritura
+
+    /**
+     * Mueve al segmento de un doctor y mes las citas indicadas.
+     * Dentro de la transacción se releen las citas: las que ya no existen o han dejado de
+     * estar completadas o canceladas se quedan donde están
+     * @param doctorId Doctor del segmento
+     * @param month Mes del segmento
+     * @param appointmentIds Citas calientes a archivar
+     * @return Mono con el número de citas archivadas
+     */
+    public Mono<Integer> archive(String doctorId, YearMonth month, Collection<String> appointmentIds) {
+        if (appointmentIds.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        DocumentReference segmentReference = archiveCollection.document(segmentId(doctorId, month));
+        List<DocumentReference> hotReferences = new ArrayList<>();
+        for (String appointmentId : appointmentIds) {
+            hotReferences.add(appointmentsCollection.document(appointmentId));
+        }
+
+        return Mono.defer(() -> toMono(firestore.runTransaction(transaction -> {
+                    DocumentSnapshot segment = transaction.get(segmentReference).get();
+                    DocumentSnapshot watermarkSnapshot = transaction.get(watermarkDocument).get();
+                    List<DocumentSnapshot> hotDocuments = transaction
+                            .getAll(hotReferences.toArray(new DocumentReference[0])).get();
+
+                    List<Appointment> moving = new ArrayList<>();
+                    for (DocumentSnapshot document : hotDocuments) {
+                        Appointment appointment = parse(document);
+                        if (appointment != null && isArchivable(appointment.getStatus())
+                                && doctorId.equals(appointment.getDoctorId())
+                                && YearMonth.from(appointment.getDateTime()).equals(month)) {
+                            moving.add(appointment);
+                        }
+                    }
+                    if (moving.isEmpty()) {
+                        return new ArchivedSegment(0, 0);
+                    }
+
+                    // Franjas que aún tienen reservadas (las canceladas ya las liberaron)
+                    Set<String> heldKeys = new LinkedHashSet<>();
+                    Map<String, String> keyOwners = new HashMap<>();
+                    for (Appointment appointment : moving) {
+                        for (String key : slotReservations.keysFor(appointment)) {
+                            heldKeys.add(key);
+                            keyOwners.put(key, appointment.getId());
+                        }
+                    }
+                    List<String> toRelease = new ArrayList<>();
+                    if (!heldKeys.isEmpty()) {
+                        for (DocumentSnapshot reservation : transaction
+                                .getAll(slotReservations.references(heldKeys)).get()) {
+                            if (slotReservations.isHeldBy(reservation, keyOwners.get(reservation.getId()))) {
+                                toRelease.add(reservation.getId());
+                            }
+                        }
+                    }
+
+                    // Las citas ya archivadas se conservan; una repetida se sustituye.
+                    // Un segmento corrupto aborta la transacción antes de borrar nada
+                    Map<String, Appointment> merged = new LinkedHashMap<>();
+                    for (Appointment archived : decode(segment)) {
+                        merged.put(archived.getId(), archived);
+                    }
+                    LocalDateTime latest = null;
+                    for (Appointment appointment : moving) {
+                        merged.put(appointment.getId(), appointment);
+                        if (latest == null || appointment.getDateTime().isAfter(latest)) {
+                            latest = appointment.getDateTime();
+                        }
+                    }
+
+                    byte[] data = ArchiveSegmentCodec.encode(month, new ArrayList<>(merged.values()));
+                    transaction.set(segmentReference, segmentData(doctorId, month, merged.values(), data));
+                    for (Appointment appointment : moving) {
+                        transaction.delete(appointmentsCollection.document(appointment.getId()));
+                    }
+                    slotReservations.release(transaction, toRelease);
+
+                    String previousLatest = watermarkSnapshot.getString(FIELD_LATEST_ARCHIVED_START);
+                    if (previousLatest == null || latest.isAfter(LocalDateTime.parse(previousLatest))) {
+                        Map<String, Object> watermarkData = new HashMap<>();
+                        watermarkData.put(FIELD_LATEST_ARCHIVED_START, latest.toString());
+                        transaction.set(watermarkDocument, watermarkData);
+                    }
+                    return new ArchivedSegment(moving.size(), data.length);
+                })))
+                .doOnError(e -> {
+                    // La transacción llega envuelta en ExecutionException
+                    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                        if (cause instanceof CorruptSegmentException) {
+                            corruptSegments.increment();
+                            logger.error("No se archivan citas de {} en {}: {}", doctorId, month,
+                                    cause.getMessage(), cause.getCause());
+                            return;
+                        }
+                    }
+                })
+                .map(result -> {
+                    if (result.appointments > 0) {
+                        segmentsWritten.increment();
+                        archivedAppointments.add(result.appointments);
+                        archivedBytes.add(result.bytes);
+                    }
+                    return result.appointments;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Map<String, Object> segmentData(String doctorId, YearMonth month, Collection<Appointment> appointments,
+                                            byte[] data) {
+        Set<String> appointmentIds = new LinkedHashSet<>();
+        Set<String> patientIds = new LinkedHashSet<>();
+        LocalDateTime first = null;
+        LocalDateTime last = null;
+        for (Appointment appointment : appointments) {
+            appointmentIds.add(appointment.getId());
+            patientIds.add(appointment.getPatientId());
+            if (first == null || appointment.getDateTime().isBefore(first)) {
+                first = appointment.getDateTime();
+            }
+            if (last == null || appointment.getDateTime().isAfter(last)) {
+                last = appointment.getDateTime();
+            }
+        }
+
+        Map<String, Object> segment = new HashMap<>();
+        segment.put(FIELD_DOCTOR_ID, doctorId);
+        segment.put(FIELD_MONTH, month.toString());
+        segment.put(FIELD_COUNT, appointments.size());
+        segment.put(FIELD_DATA, Blob.fromBytes(data));
+        segment.put(FIELD_APPOINTMENT_IDS, new ArrayList<>(appointmentIds));
+        segment.put(FIELD_PATIENT_IDS, new ArrayList<>(patientIds));
+        segment.put(FIELD_FIRST_START, first.toString());
+        segment.put(FIELD_LAST_START, last.toString());
+        segment.put(FIELD_ARCHIVED_AT, LocalDateTime.now().toString());
+        return segment;
+    }
+
+    /**
+     * Lee una cita caliente sin pasar por las validaciones del agregado
+     */
+    static Appointment parse(DocumentSnapshot document) {
+        if (document == null || !document.exists()) {
+            return null;
+        }
+
+        try {
+            String patientId = document.getString("patientId");
+            String doctorId = document.getString("doctorId");
+            String dateTime = document.getString("dateTime");
+            Long durationSlots = document.getLong("durationSlots");
+            String status = document.getString("status");
+            if (patientId == null || doctorId == null || dateTime == null || durationSlots == null) {
+                return null;
+            }
+
+            Appointment appointment = new Appointment();
+            appointment.setId(document.getId());
+            appointment.setPatientIdDirect(patientId);
+            appointment.setDoctorIdDirect(doctorId);
+            appointment.setDateTimeDirect(LocalDateTime.parse(dateTime));
+            appointment.setDurationSlotsDirect(durationSlots.intValue());
+            appointment.setStatus(status != null ? AppointmentStatus.valueOf(status) : AppointmentStatus.PENDIENTE);
+            appointment.setNotes(document.getString("notes"));
+            return appointment;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    static String segmentId(String doctorId, YearMonth month) {
+        return doctorId + "_" + month;
+    }
+
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+
+    /**
+     * Segmento que existe pero cuyo contenido no se puede decodificar
+     */
+    static final class CorruptSegmentException extends IllegalStateException {
+        CorruptSegmentException(String segmentId, Throwable cause) {
+            super("Segmento de archivo corrupto: " + segmentId, cause);
+        }
+    }
+
+    /**
+     * Resultado de reescribir un segmento
+     */
+    private static final class ArchivedSegment {
+        private final int appointments;
+        private final int bytes;
+
+        private ArchivedSegment(int appointments, int bytes) {
+            this.appointments = appointments;
+            this.bytes = bytes;
+        }
+    }
+
+    // Métricas
+
+    @Override
+    public String getMetricsName() {
+        return "appointmentArchive";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        long archived = archivedAppointments.sum();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("archiveQueries", archiveQueries.sum());
+        metrics.put("skippedQueries", skippedQueries.sum());
+        metrics.put("segmentsRead", segmentsRead.sum());
+        metrics.put("corruptSegments", corruptSegments.sum());
+        metrics.put("segmentsWritten", segmentsWritten.sum());
+        metrics.put("archivedAppointments", archived);
+        metrics.put("avgBytesPerSegmentWrite", segmentsWritten.sum() == 0
+                ? 0.0 : (double) archivedBytes.sum() / segmentsWritten.sum());
+        return metrics;
+    }
+}
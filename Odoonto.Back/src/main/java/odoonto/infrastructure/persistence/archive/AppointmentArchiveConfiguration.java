@@ -0,0 +1,39 @@
+package odoonto.infrastructure.persistence.archive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración del archivo de citas antiguas
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.archive")
+@Data
+public class AppointmentArchiveConfiguration {
+    
+    /**
+     * Ejecuta el archivador en segundo plano
+     */
+    private boolean enabled = true;
+    
+    /**
+     * Antigüedad mínima en días de una cita completada o cancelada para archivarla
+     */
+    private int horizonDays = 180;
+    
+    /**
+     * Minutos entre ejecuciones del archivador
+     */
+    private int intervalMinutes = 60;
+    
+    /**
+     * Citas leídas por consulta en cada ejecución
+     */
+    private int batchSize = 200;
+    
+    /**
+     * Segundos que se reutiliza la marca de lo archivado antes de releerla
+     */
+    private int watermarkCacheSeconds = 60;
+}
@@ -0,0 +1,248 @@
+package odoonto.infrastructure.persistence.archive;
+
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+import odoonto.infrastructure.persistence.statistics.AppointmentDayCountsView;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QuerySnapshot;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Archivador en segundo plano: cada cierto tiempo busca citas completadas o canceladas
+ * anteriores al horizonte configurado y las mueve a los segmentos de
+ * {@link AppointmentArchive}, agrupadas por doctor y mes. Así la colección caliente solo
+ * conserva las citas recientes y las pendientes, y las lecturas que no llegan a fechas
+ * archivadas no pagan por el histórico. Las citas se localizan con el campo de estado y
+ * fecha, por lo que las guardadas antes de existir ese campo no se archivan hasta que
+ * la reconstrucción de recuentos lo completa. Cada traslado espera si esa
+ * reconstrucción está en curso, porque recorre las dos colecciones.
+ */
+@Component
+public class AppointmentArchiver implements MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentArchiver.class);
+
+    /**
+     * Citas por transacción: cada una borra su documento y hasta seis reservas de franja,
+     * por debajo del límite de 500 escrituras
+     */
+    private static final int MAX_APPOINTMENTS_PER_TRANSACTION = 50;
+
+    private static final List<AppointmentStatus> ARCHIVABLE_STATUSES =
+            Arrays.asList(AppointmentStatus.COMPLETADA, AppointmentStatus.CANCELADA);
+
+    private final CollectionReference appointmentsCollection;
+    private final AppointmentArchive archive;
+    private final AppointmentArchiveConfiguration configuration;
+    private final AppointmentDayCountsView dayCounts;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder failedRuns = new LongAdder();
+    private final LongAdder failedChunks = new LongAdder();
+    private final LongAdder archived = new LongAdder();
+    private final AtomicLong lastRunArchived = new AtomicLong(-1);
+    private final AtomicLong lastRunMillis = new AtomicLong(-1);
+    private Disposable subscription;
+
+    @Autowired
+    public AppointmentArchiver(Firestore firestore, AppointmentArchive archive,
+                               AppointmentArchiveConfiguration configuration,
+                               AppointmentDayCountsView dayCounts) {
+        this.appointmentsCollection = firestore.collection("appointments");
+        this.archive = archive;
+        this.configuration = configuration;
+        this.dayCounts = dayCounts;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!configuration.isEnabled()) {
+            logger.info("Archivador de citas desactivado");
+            return;
+        }
+
+        subscription = Flux.interval(Duration.ofMinutes(1), Duration.ofMinutes(Math.max(1, configuration.getIntervalMinutes())))
+                .onBackpressureDrop()
+                .concatMap(tick -> archiveOldAppointments()
+                        .onErrorResume(e -> {
+                            failedRuns.increment();
+                            logger.warn("Error al archivar citas: {}", e.getMessage());
+                            return Mono.just(0L);
+                        }), 1)
+                .subscribe();
+        logger.info("Archivador de citas iniciado con horizonte de {} días", configuration.getHorizonDays());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Archiva todas las citas completadas o canceladas anteriores al horizonte
+     * @return Mono con el número de citas archivadas
+     */
+    public Mono<Long> archiveOldAppointments() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(Math.max(1, configuration.getHorizonDays())).atStartOfDay();
+        long startNanos = System.nanoTime();
+
+        return Flux.fromIterable(ARCHIVABLE_STATUSES)
+                .concatMap(status -> archiveStatus(status, cutoff))
+                .reduce(0L, Long::sum)
+                .doOnNext(count -> {
+                    runs.increment();
+                    archived.add(count);
+                    lastRunArchived.set(count);
+                    lastRunMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                    if (count > 0) {
+                        logger.info("Citas archivadas: {}", count);
+                    }
+                });
+    }
+
+    /**
+     * Archiva por páginas las citas de un estado; se detiene al leer una página
+     * incompleta o una de la que no se ha podido archivar nada. Un trozo que falla se
+     * registra y se salta sin detener el resto de grupos de la página
+     */
+    private Mono<Long> archiveStatus(AppointmentStatus status, LocalDateTime cutoff) {
+        int batchSize = Math.max(1, configuration.getBatchSize());
+        return archivePage(status, cutoff, batchSize)
+                .expand(page -> page.full && page.archived > 0
+                        ? archivePage(status, cutoff, batchSize)
+                        : Mono.empty())
+                .map(page -> (long) page.archived)
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Page> archivePage(AppointmentStatus status, LocalDateTime cutoff, int batchSize) {
+        return Mono.defer(() -> toMono(appointmentsCollection
+                        .whereGreaterThanOrEqualTo(AppointmentDayCountsView.FIELD_STATUS_DATE_TIME,
+                                AppointmentDayCountsView.statusDateTime(status, LocalDateTime.MIN))
+                        .whereLessThan(AppointmentDayCountsView.FIELD_STATUS_DATE_TIME,
+                                AppointmentDayCountsView.statusDateTime(status, cutoff))
+                        .limit(batchSize)
+                        .get()))
+                .flatMap(snapshot -> {
+                    // Agrupar por doctor y mes, en trozos que caben en una transacción
+                    Map<String, List<Appointment>> groups = new LinkedHashMap<>();
+                    for (DocumentSnapshot document : snapshot.getDocuments()) {
+                        Appointment appointment = AppointmentArchive.parse(document);
+                        if (appointment != null) {
+                            groups.computeIfAbsent(AppointmentArchive.segmentId(appointment.getDoctorId(),
+                                    YearMonth.from(appointment.getDateTime())), key -> new ArrayList<>()).add(appointment);
+                        }
+                    }
+
+                    List<List<Appointment>> chunks = new ArrayList<>();
+                    for (List<Appointment> group : groups.values()) {
+                        for (int i = 0; i < group.size(); i += MAX_APPOINTMENTS_PER_TRANSACTION) {
+                            chunks.add(group.subList(i, Math.min(group.size(), i + MAX_APPOINTMENTS_PER_TRANSACTION)));
+                        }
+                    }
+
+                    boolean full = snapshot.size() >= batchSize;
+                    return Flux.fromIterable(chunks)
+                            .concatMap(chunk -> {
+                                List<String> ids = new ArrayList<>(chunk.size());
+                                for (Appointment appointment : chunk) {
+                                    ids.add(appointment.getId());
+                                }
+                                Appointment first = chunk.get(0);
+                                YearMonth month = YearMonth.from(first.getDateTime());
+                                return dayCounts.commit(() -> archive.archive(first.getDoctorId(), month, ids))
+                                        .onErrorResume(e -> {
+                                            failedChunks.increment();
+                                            logger.warn("Error al archivar {} citas del doctor {} en {}: {}",
+                                                    ids.size(), first.getDoctorId(), month, e.getMessage());
+                                            return Mono.just(0);
+                                        });
+                            })
+                            .reduce(0, Integer::sum)
+                            .map(count -> new Page(count, full));
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+
+    /**
+     * Resultado de archivar una página de citas
+     */
+    private static final class Page {
+        private final int archived;
+        private final boolean full;
+
+        private Page(int archived, boolean full) {
+            this.archived = archived;
+            this.full = full;
+        }
+    }
+
+    // Métricas
+
+    @Override
+    public String getMetricsName() {
+        return "appointmentArchiver";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", configuration.isEnabled());
+        metrics.put("horizonDays", configuration.getHorizonDays());
+        metrics.put("runs", runs.sum());
+        metrics.put("failedRuns", failedRuns.sum());
+        metrics.put("failedChunks", failedChunks.sum());
+        metrics.put("archived", archived.sum());
+        metrics.put("lastRunArchived", lastRunArchived.get());
+        metrics.put("lastRunMillis", lastRunMillis.get());
+        return metrics;
+    }
+}
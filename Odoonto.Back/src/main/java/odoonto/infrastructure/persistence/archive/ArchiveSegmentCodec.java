@@ -0,0 +1,256 @@
+package odoonto.infrastructure.persistence.archive;
+
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codificación de un segmento del archivo: las citas de un doctor en un mes.
+ * Las citas se ordenan por inicio y se guardan por columnas (IDs, pacientes, inicio,
+ * duración, estado y notas) en vez de por filas: pacientes y estados van como índices a
+ * un diccionario, el inicio como minutos desde la cita anterior y la duración en un byte.
+ * Columnas tan homogéneas comprimen muy bien con GZIP, de modo que un mes completo de un
+ * doctor ocupa unos pocos KB en un solo documento. Los estados se guardan por su código
+ * y los textos como UTF-8 con su longitud delante, sin el límite de 64 KB de writeUTF;
+ * los segmentos de la versión 1 (ordinal del estado y writeUTF) se siguen leyendo.
+ */
+final class ArchiveSegmentCodec {
+
+    private static final int FORMAT_VERSION = 2;
+    private static final int LEGACY_FORMAT_VERSION = 1;
+
+    private ArchiveSegmentCodec() {
+    }
+
+    /**
+     * Codifica las citas de un segmento
+     * @param month Mes del segmento
+     * @param appointments Citas del mes de un mismo doctor
+     * @return Bytes comprimidos
+     */
+    static byte[] encode(YearMonth month, List<Appointment> appointments) {
+        List<Appointment> rows = new ArrayList<>(appointments);
+        rows.sort(Comparator.comparing(Appointment::getDateTime).thenComparing(Appointment::getId));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(FORMAT_VERSION);
+            writeVarInt(out, rows.size());
+
+            for (Appointment appointment : rows) {
+                writeString(out, appointment.getId());
+            }
+
+            // Diccionario de pacientes en orden de aparición
+            Map<String, Integer> patientIndex = new HashMap<>();
+            List<String> patients = new ArrayList<>();
+            for (Appointment appointment : rows) {
+                patientIndex.computeIfAbsent(appointment.getPatientId(), patientId -> {
+                    patients.add(patientId);
+                    return patients.size() - 1;
+                });
+            }
+            writeVarInt(out, patients.size());
+            for (String patientId : patients) {
+                writeString(out, patientId);
+            }
+            for (Appointment appointment : rows) {
+                writeVarInt(out, patientIndex.get(appointment.getPatientId()));
+            }
+
+            // Inicio en minutos: el primero desde el comienzo del mes, el resto desde el anterior
+            LocalDateTime previous = month.atDay(1).atStartOfDay();
+            for (Appointment appointment : rows) {
+                writeVarInt(out, (int) ChronoUnit.MINUTES.between(previous, appointment.getDateTime()));
+                previous = appointment.getDateTime();
+            }
+
+            for (Appointment appointment : rows) {
+                out.writeByte(appointment.getDurationSlots());
+            }
+            // Diccionario de códigos de estado: no depende del orden de la enumeración
+            Map<AppointmentStatus, Integer> statusIndex = new HashMap<>();
+            List<AppointmentStatus> statuses = new ArrayList<>();
+            for (Appointment appointment : rows) {
+                statusIndex.computeIfAbsent(appointment.getStatus(), status -> {
+                    statuses.add(status);
+                    return statuses.size() - 1;
+                });
+            }
+            writeVarInt(out, statuses.size());
+            for (AppointmentStatus status : statuses) {
+                writeString(out, status.getCodigo());
+            }
+            for (Appointment appointment : rows) {
+                writeVarInt(out, statusIndex.get(appointment.getStatus()));
+            }
+
+            // Notas dispersas: número de filas con notas y, por cada una, salto de fila y texto
+            int withNotes = 0;
+            for (Appointment appointment : rows) {
+                if (hasNotes(appointment)) {
+                    withNotes++;
+                }
+            }
+            writeVarInt(out, withNotes);
+            int lastRow = 0;
+            for (int row = 0; row < rows.size(); row++) {
+                if (hasNotes(rows.get(row))) {
+                    writeVarInt(out, row - lastRow);
+                    writeString(out, rows.get(row).getNotes());
+                    lastRow = row;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodifica un segmento
+     * @param doctorId Doctor del segmento
+     * @param month Mes del segmento
+     * @param data Bytes comprimidos
+     * @return Citas en orden cronológico
+     */
+    static List<Appointment> decode(String doctorId, YearMonth month, byte[] data) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(data)))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION && version != LEGACY_FORMAT_VERSION) {
+                throw new IOException("Versión de segmento no soportada: " + version);
+            }
+            int count = readVarInt(in);
+
+            String[] ids = new String[count];
+            for (int row = 0; row < count; row++) {
+                ids[row] = readString(in, version);
+            }
+
+            String[] patients = new String[readVarInt(in)];
+            for (int i = 0; i < patients.length; i++) {
+                patients[i] = readString(in, version);
+            }
+            String[] patientIds = new String[count];
+            for (int row = 0; row < count; row++) {
+                patientIds[row] = patients[readVarInt(in)];
+            }
+
+            LocalDateTime[] starts = new LocalDateTime[count];
+            LocalDateTime previous = month.atDay(1).atStartOfDay();
+            for (int row = 0; row < count; row++) {
+                previous = previous.plusMinutes(readVarInt(in));
+                starts[row] = previous;
+            }
+
+            int[] durations = new int[count];
+            for (int row = 0; row < count; row++) {
+                durations[row] = in.readUnsignedByte();
+            }
+
+            AppointmentStatus[] statuses = new AppointmentStatus[count];
+            if (version == LEGACY_FORMAT_VERSION) {
+                AppointmentStatus[] values = AppointmentStatus.values();
+                for (int row = 0; row < count; row++) {
+                    statuses[row] = values[in.readUnsignedByte()];
+                }
+            } else {
+                AppointmentStatus[] dictionary = new AppointmentStatus[readVarInt(in)];
+                for (int i = 0; i < dictionary.length; i++) {
+                    String codigo = readString(in, version);
+                    try {
+                        dictionary[i] = AppointmentStatus.fromCodigo(codigo);
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Estado de cita desconocido en el segmento: " + codigo);
+                    }
+                }
+                for (int row = 0; row < count; row++) {
+                    statuses[row] = dictionary[readVarInt(in)];
+                }
+            }
+
+            String[] notes = new String[count];
+            int withNotes = readVarInt(in);
+            int row = 0;
+            for (int i = 0; i < withNotes; i++) {
+                row += readVarInt(in);
+                notes[row] = readString(in, version);
+            }
+
+            List<Appointment> appointments = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Appointment appointment = new Appointment();
+                appointment.setId(ids[i]);
+                appointment.setPatientIdDirect(patientIds[i]);
+                appointment.setDoctorIdDirect(doctorId);
+                appointment.setDateTimeDirect(starts[i]);
+                appointment.setDurationSlotsDirect(durations[i]);
+                appointment.setStatus(statuses[i]);
+                appointment.setNotes(notes[i]);
+                appointments.add(appointment);
+            }
+            return appointments;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean hasNotes(Appointment appointment) {
+        return appointment.getNotes() != null && !appointment.getNotes().isEmpty();
+    }
+
+    /**
+     * Escribe un texto como UTF-8 precedido de su longitud en bytes
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in, int version) throws IOException {
+        if (version == LEGACY_FORMAT_VERSION) {
+            return in.readUTF();
+        }
+        byte[] utf8 = new byte[readVarInt(in)];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Entero variable mal formado");
+    }
+}
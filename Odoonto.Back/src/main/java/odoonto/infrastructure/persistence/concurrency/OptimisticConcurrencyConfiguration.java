@@ -0,0 +1,34 @@
+package odoonto.infrastructure.persistence.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración del control de concurrencia optimista de los repositorios
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.concurrency")
+@Data
+public class OptimisticConcurrencyConfiguration {
+    
+    /**
+     * Reintentos tras un conflicto antes de devolver el error al cliente
+     */
+    private int maxRetries = 5;
+    
+    /**
+     * Espera inicial en ms antes del primer reintento (crece exponencialmente)
+     */
+    private long initialBackoffMillis = 10;
+    
+    /**
+     * Espera máxima en ms entre reintentos
+     */
+    private long maxBackoffMillis = 200;
+    
+    /**
+     * Fracción aleatoria aplicada a cada espera para no reintentar a la vez (0 a 1)
+     */
+    private double jitterFactor = 0.5;
+}
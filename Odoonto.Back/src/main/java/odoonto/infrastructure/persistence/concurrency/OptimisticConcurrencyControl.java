@@ -0,0 +1,159 @@
+package odoonto.infrastructure.persistence.concurrency;
+
+import odoonto.application.exceptions.ConcurrentUpdateException;
+import odoonto.application.port.out.MetricsSource;
+import odoonto.infrastructure.persistence.resilience.DatastoreErrors;
+
+import com.google.api.gax.rpc.StatusCode;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta escrituras condicionadas (precondición sobre la hora de actualización del
+ * documento) y centraliza el tratamiento de sus conflictos.
+ * Una escritura que pierde la carrera falla con FAILED_PRECONDITION, ABORTED o
+ * ALREADY_EXISTS; si la operación sabe reaplicar su cambio se vuelve a ejecutar
+ * completa (lectura, modificación y escritura) con espera exponencial aleatorizada,
+ * y si no, o si se agotan los reintentos, se devuelve {@link ConcurrentUpdateException}.
+ * Lleva la cuenta de intentos y conflictos por recurso para exponer su tasa de conflicto.
+ */
+@Component
+public class OptimisticConcurrencyControl implements MetricsSource {
+
+    private final OptimisticConcurrencyConfiguration configuration;
+    private final Map<String, ResourceCounters> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OptimisticConcurrencyControl(OptimisticConcurrencyConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Ejecuta una operación de lectura-modificación-escritura reintentándola completa
+     * mientras su escritura condicionada pierda frente a otra concurrente
+     * @param resource Nombre del recurso (colección) para métricas y mensajes
+     * @param resourceId ID del documento afectado
+     * @param attempt Operación completa; se vuelve a suscribir en cada intento
+     * @return Mono con el resultado del intento que consiguió escribir
+     */
+    public <T> Mono<T> execute(String resource, String resourceId, Supplier<Mono<T>> attempt) {
+        ResourceCounters resourceCounters = countersFor(resource);
+        Retry retry = Retry.backoff(configuration.getMaxRetries(),
+                        Duration.ofMillis(configuration.getInitialBackoffMillis()))
+                .maxBackoff(Duration.ofMillis(configuration.getMaxBackoffMillis()))
+                .jitter(configuration.getJitterFactor())
+                .filter(this::isConflict)
+                .doBeforeRetry(signal -> resourceCounters.retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> {
+                    resourceCounters.exhausted.increment();
+                    return new ConcurrentUpdateException(resource, resourceId);
+                });
+
+        return Mono.defer(() -> {
+                    resourceCounters.operations.increment();
+                    return Mono.defer(() -> {
+                                resourceCounters.attempts.increment();
+                                return attempt.get();
+                            })
+                            .doOnError(this::isConflict, e -> resourceCounters.conflicts.increment())
+                            .retryWhen(retry);
+                });
+    }
+
+    /**
+     * Ejecuta una escritura condicionada sin reintentos, para operaciones que no
+     * pueden reaplicar su cambio (p. ej. guardar un agregado leído por el cliente)
+     * @param resource Nombre del recurso (colección) para métricas y mensajes
+     * @param resourceId ID del documento afectado
+     * @param attempt Operación a ejecutar
+     * @return Mono con el resultado o error {@link ConcurrentUpdateException} si hubo conflicto
+     */
+    public <T> Mono<T> executeOnce(String resource, String resourceId, Supplier<Mono<T>> attempt) {
+        ResourceCounters resourceCounters = countersFor(resource);
+        return Mono.defer(() -> {
+                    resourceCounters.operations.increment();
+                    resourceCounters.attempts.increment();
+                    return attempt.get();
+                })
+                .onErrorMap(this::isConflict, e -> {
+                    resourceCounters.conflicts.increment();
+                    resourceCounters.exhausted.increment();
+                    return e instanceof ConcurrentUpdateException
+                            ? e
+                            : new ConcurrentUpdateException(resource, resourceId);
+                });
+    }
+
+    /**
+     * Determina si un error corresponde a una escritura que perdió frente a otra
+     * @param error Error recibido (puede venir envuelto por el futuro de Firestore)
+     * @return true si es un conflicto de concurrencia
+     */
+    boolean isConflict(Throwable error) {
+        Throwable current = error;
+        while (current != null) {
+            if (current instanceof ConcurrentUpdateException) {
+                return true;
+            }
+            current = current.getCause() != current ? current.getCause() : null;
+        }
+        StatusCode.Code code = DatastoreErrors.statusCode(error);
+        return code == StatusCode.Code.FAILED_PRECONDITION
+                || code == StatusCode.Code.ABORTED
+                || code == StatusCode.Code.ALREADY_EXISTS;
+    }
+
+    private ResourceCounters countersFor(String resource) {
+        return counters.computeIfAbsent(resource, key -> new ResourceCounters());
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "optimisticConcurrency";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("maxRetries", configuration.getMaxRetries());
+
+        Map<String, Object> resources = new TreeMap<>();
+        counters.forEach((resource, resourceCounters) -> {
+            long attempts = resourceCounters.attempts.sum();
+            long conflicts = resourceCounters.conflicts.sum();
+
+            Map<String, Object> resourceMetrics = new LinkedHashMap<>();
+            resourceMetrics.put("operations", resourceCounters.operations.sum());
+            resourceMetrics.put("attempts", attempts);
+            resourceMetrics.put("conflicts", conflicts);
+            resourceMetrics.put("retries", resourceCounters.retries.sum());
+            resourceMetrics.put("exhausted", resourceCounters.exhausted.sum());
+            resourceMetrics.put("conflictRate", attempts == 0 ? 0.0 : (double) conflicts / attempts);
+            resources.put(resource, resourceMetrics);
+        });
+        metrics.put("resources", resources);
+        return metrics;
+    }
+
+    /**
+     * Contadores de un recurso
+     */
+    private static class ResourceCounters {
+        private final LongAdder operations = new LongAdder();
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+    }
+}
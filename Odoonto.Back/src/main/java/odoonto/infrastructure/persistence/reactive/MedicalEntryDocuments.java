@@ -0,0 +1,140 @@
+package odoonto.infrastructure.persistence.reactive;
+
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.entities.MedicalEntry;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Formato de las entradas de historial en la subcolección medical_records/{id}/entries.
+ * La fecha se guarda con un formato de longitud fija para que el orden de las cadenas
+ * coincida con el cronológico y los filtros de rango se puedan resolver en Firestore.
+ */
+public final class MedicalEntryDocuments {
+
+    public static final String SUBCOLLECTION_NAME = "entries";
+
+    static final String FIELD_ID = "id";
+    static final String FIELD_MEDICAL_RECORD_ID = "medicalRecordId";
+    static final String FIELD_TYPE = "type";
+    static final String FIELD_DESCRIPTION = "description";
+    static final String FIELD_DOCTOR_ID = "doctorId";
+    static final String FIELD_RECORDED_AT = "recordedAt";
+    static final String FIELD_NOTES = "notes";
+
+    private static final DateTimeFormatter RECORDED_AT_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+    private static final String CURSOR_SEPARATOR = "|";
+
+    private MedicalEntryDocuments() {
+    }
+
+    public static String formatRecordedAt(LocalDateTime recordedAt) {
+        return (recordedAt != null ? recordedAt : LocalDateTime.now()).format(RECORDED_AT_FORMAT);
+    }
+
+    /**
+     * Interpreta una fecha guardada; acepta también el formato ISO de longitud
+     * variable que usaba el historial con entradas en arrays
+     */
+    public static LocalDateTime parseRecordedAt(String recordedAt) {
+        if (recordedAt == null || recordedAt.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(recordedAt);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    static Map<String, Object> toDocument(String medicalRecordId, MedicalEntry entry) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_ID, entry.getId());
+        data.put(FIELD_MEDICAL_RECORD_ID, medicalRecordId);
+        data.put(FIELD_TYPE, entry.getType());
+        data.put(FIELD_DESCRIPTION, entry.getDescription());
+        data.put(FIELD_DOCTOR_ID, entry.getDoctorId());
+        data.put(FIELD_RECORDED_AT, formatRecordedAt(entry.getRecordedAt()));
+        if (entry.getNotes() != null) {
+            data.put(FIELD_NOTES, entry.getNotes());
+        }
+        return data;
+    }
+
+    /**
+     * Convierte un documento de la subcolección en entrada de dominio
+     * @return Entrada o null si el documento no es válido
+     */
+    public static MedicalEntry fromDocument(DocumentSnapshot document) {
+        if (document == null || !document.exists()) {
+            return null;
+        }
+        return fromData(document.getId(), document.getData());
+    }
+
+    /**
+     * Convierte los datos de una entrada en entrada de dominio
+     * @return Entrada o null si faltan datos obligatorios
+     */
+    static MedicalEntry fromData(String entryId, Map<String, Object> data) {
+        if (data == null) {
+            return null;
+        }
+
+        try {
+            MedicalEntry entry = new MedicalEntry(
+                entryId,
+                asString(data.get(FIELD_TYPE)),
+                asString(data.get(FIELD_DESCRIPTION)),
+                asString(data.get(FIELD_DOCTOR_ID)),
+                parseRecordedAt(asString(data.get(FIELD_RECORDED_AT)))
+            );
+            String notes = asString(data.get(FIELD_NOTES));
+            if (notes != null) {
+                entry.addNotes(notes);
+            }
+            return entry;
+        } catch (DomainException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Codifica la posición de la última entrada de una página como cursor opaco
+     */
+    static String encodeCursor(DocumentSnapshot lastDocument) {
+        String position = lastDocument.getString(FIELD_RECORDED_AT) + CURSOR_SEPARATOR + lastDocument.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor en la fecha y el ID de la última entrada leída
+     * @return Array con [recordedAt, entryId]
+     */
+    static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(CURSOR_SEPARATOR);
+            if (separator <= 0 || separator == position.length() - 1) {
+                throw new DomainException("Cursor de paginación no válido");
+            }
+            return new String[] { position.substring(0, separator), position.substring(separator + 1) };
+        } catch (IllegalArgumentException e) {
+            throw new DomainException("Cursor de paginación no válido");
+        }
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
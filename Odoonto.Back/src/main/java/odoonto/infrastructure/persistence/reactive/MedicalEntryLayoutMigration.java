@@ -0,0 +1,402 @@
+package odoonto.infrastructure.persistence.reactive;
+
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.model.entities.MedicalEntry;
+import odoonto.infrastructure.persistence.concurrency.OptimisticConcurrencyControl;
+import odoonto.infrastructure.search.MedicalEntrySearchIndex;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Migra las entradas de historial guardadas como arrays dentro del documento
+ * (entries, notes, diagnoses, treatments) a la subcolección medical_records/{id}/entries.
+ * Las entradas se copian en lotes; el último lote borra los arrays y marca el
+ * historial como migrado con una precondición sobre su hora de actualización, de
+ * modo que si el historial cambia a mitad de la migración se vuelve a leer y solo
+ * se copian las entradas que aún falten. Es idempotente: las entradas sin ID
+ * reciben uno determinista y sus postings de búsqueda se escriben antes que la
+ * propia entrada, por lo que una migración interrumpida no deja entradas sin indexar.
+ */
+@Component
+public class MedicalEntryLayoutMigration implements MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicalEntryLayoutMigration.class);
+
+    static final String FIELD_LAYOUT = "entriesLayout";
+    static final String LAYOUT_SUBCOLLECTION = "subcollection";
+    static final String FIELD_ENTRY_COUNT = "entryCount";
+
+    private static final String COLLECTION_NAME = "medical_records";
+    private static final String FIELD_REVISION = "revision";
+    private static final int SCAN_PAGE_SIZE = 200;
+
+    /**
+     * Arrays del formato anterior y tipo de entrada que se asigna a sus elementos si no lo tienen
+     */
+    private static final Map<String, String> LEGACY_FIELDS = new LinkedHashMap<>();
+    static {
+        LEGACY_FIELDS.put("entries", "NOTA");
+        LEGACY_FIELDS.put("notes", "NOTA");
+        LEGACY_FIELDS.put("diagnoses", "DIAGNOSTICO");
+        LEGACY_FIELDS.put("treatments", "TRATAMIENTO");
+    }
+
+    private final CollectionReference medicalRecordsCollection;
+    private final Firestore firestore;
+    private final OptimisticConcurrencyControl concurrencyControl;
+    private final MedicalRecordStorageConfiguration configuration;
+    private final MedicalEntrySearchIndex searchIndex;
+
+    private final Set<String> migratedRecords = ConcurrentHashMap.newKeySet();
+    private final LongAdder recordsMigrated = new LongAdder();
+    private final LongAdder entriesMigrated = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private Disposable startupMigration;
+
+    @Autowired
+    public MedicalEntryLayoutMigration(Firestore firestore,
+                                       OptimisticConcurrencyControl concurrencyControl,
+                                       MedicalRecordStorageConfiguration configuration,
+                                       MedicalEntrySearchIndex searchIndex) {
+        this.firestore = firestore;
+        this.medicalRecordsCollection = firestore.collection(COLLECTION_NAME);
+        this.concurrencyControl = concurrencyControl;
+        this.configuration = configuration;
+        this.searchIndex = searchIndex;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!configuration.isMigrateOnStartup()) {
+            return;
+        }
+
+        startupMigration = migrateAll()
+                .subscribe(
+                    count -> logger.info("Migración de entradas de historial completada: {} historiales migrados", count),
+                    e -> logger.warn("Error en la migración de entradas de historial: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (startupMigration != null) {
+            startupMigration.dispose();
+        }
+    }
+
+    /**
+     * Garantiza que las entradas de un historial están en la subcolección antes de leerlas o escribirlas
+     * @param medicalRecordId ID del historial médico
+     * @return Mono que completa cuando el historial está migrado
+     */
+    public Mono<Void> ensureMigrated(String medicalRecordId) {
+        if (migratedRecords.contains(medicalRecordId)) {
+            return Mono.empty();
+        }
+        return migrate(medicalRecordId).then();
+    }
+
+    /**
+     * Migra todos los historiales recorriendo la colección por páginas
+     * @return Mono con el número de historiales que tenían entradas en arrays
+     */
+    public Mono<Long> migrateAll() {
+        return scanPage(null)
+                .expand(page -> page.size() < SCAN_PAGE_SIZE
+                        ? Mono.empty()
+                        : scanPage(page.get(page.size() - 1).getId()))
+                .concatMapIterable(page -> page)
+                .concatMap(document -> migrate(document.getId())
+                        .onErrorResume(e -> {
+                            failures.increment();
+                            logger.warn("No se pudo migrar el historial {}: {}", document.getId(), e.getMessage());
+                            return Mono.just(0);
+                        }))
+                .filter(migrated -> migrated > 0)
+                .count();
+    }
+
+    /**
+     * Migra un historial
+     * @param medicalRecordId ID del historial médico
+     * @return Mono con el número de entradas copiadas a la subcolección
+     */
+    public Mono<Integer> migrate(String medicalRecordId) {
+        DocumentReference recordReference = medicalRecordsCollection.document(medicalRecordId);
+        CollectionReference entriesCollection = recordReference.collection(MedicalEntryDocuments.SUBCOLLECTION_NAME);
+
+        return concurrencyControl.execute(COLLECTION_NAME, medicalRecordId, () ->
+                toMono(recordReference.get())
+                    .flatMap(snapshot -> {
+                        if (!snapshot.exists()) {
+                            // Se creará ya con el formato nuevo
+                            return Mono.just(0);
+                        }
+                        if (!hasLegacyFields(snapshot)) {
+                            migratedRecords.add(medicalRecordId);
+                            return Mono.just(0);
+                        }
+
+                        List<Map<String, Object>> legacyEntries = readLegacyEntries(medicalRecordId, snapshot);
+                        return toMono(entriesCollection.select(FieldPath.documentId()).get())
+                                .flatMap(existing -> copyEntries(recordReference, entriesCollection, snapshot,
+                                        legacyEntries, existingIds(existing)));
+                    }))
+            .doOnNext(copied -> {
+                if (copied > 0) {
+                    recordsMigrated.increment();
+                    entriesMigrated.add(copied);
+                }
+            })
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Copia las entradas que faltan en lotes y cierra la migración en el último
+     */
+    private Mono<Integer> copyEntries(DocumentReference recordReference, CollectionReference entriesCollection,
+                                      DocumentSnapshot snapshot, List<Map<String, Object>> legacyEntries,
+                                      Set<String> existingIds) {
+        List<Map<String, Object>> pending = new ArrayList<>();
+        Set<String> allIds = new HashSet<>(existingIds);
+        for (Map<String, Object> entry : legacyEntries) {
+            String entryId = (String) entry.get(MedicalEntryDocuments.FIELD_ID);
+            if (allIds.add(entryId)) {
+                pending.add(entry);
+            }
+        }
+
+        // El último lote lleva además la actualización del historial
+        int chunkSize = Math.max(1, configuration.getMigrationBatchSize() - 1);
+        List<List<Map<String, Object>>> chunks = new ArrayList<>();
+        for (int start = 0; start < pending.size(); start += chunkSize) {
+            chunks.add(pending.subList(start, Math.min(pending.size(), start + chunkSize)));
+        }
+        List<Map<String, Object>> lastChunk = chunks.isEmpty() ? new ArrayList<>() : chunks.remove(chunks.size() - 1);
+        Set<String> indexedTerms = ConcurrentHashMap.newKeySet();
+
+        return Flux.fromIterable(pending)
+                .concatMap(entry -> {
+                    // Un lote por entrada: sus postings pueden ocupar cientos de escrituras
+                    MedicalEntry indexed = MedicalEntryDocuments.fromData(
+                            (String) entry.get(MedicalEntryDocuments.FIELD_ID), entry);
+                    if (indexed == null) {
+                        return Mono.empty();
+                    }
+                    // Una migración interrumpida vuelve a indexar las mismas entradas:
+                    // los postings se reescriben y el df se recuenta al terminar
+                    WriteBatch batch = firestore.batch();
+                    indexedTerms.addAll(searchIndex.writePostings(batch, recordReference.getId(), indexed));
+                    return toMono(batch.commit());
+                })
+                .then(Mono.defer(() -> searchIndex.recountDocumentFrequency(indexedTerms)))
+                .thenMany(Flux.fromIterable(chunks))
+                .concatMap(chunk -> {
+                    WriteBatch batch = firestore.batch();
+                    chunk.forEach(entry -> batch.set(
+                            entriesCollection.document((String) entry.get(MedicalEntryDocuments.FIELD_ID)), entry));
+                    return toMono(batch.commit());
+                })
+                .then(Mono.defer(() -> {
+                    WriteBatch batch = firestore.batch();
+                    lastChunk.forEach(entry -> batch.set(
+                            entriesCollection.document((String) entry.get(MedicalEntryDocuments.FIELD_ID)), entry));
+
+                    Map<String, Object> update = new HashMap<>();
+                    LEGACY_FIELDS.keySet().forEach(field -> update.put(field, FieldValue.delete()));
+                    update.put(FIELD_LAYOUT, LAYOUT_SUBCOLLECTION);
+                    update.put(FIELD_ENTRY_COUNT, allIds.size());
+                    update.put(FIELD_REVISION, readRevision(snapshot) + 1);
+                    batch.update(recordReference, update, Precondition.updatedAt(snapshot.getUpdateTime()));
+                    return toMono(batch.commit());
+                }))
+                .doOnSuccess(result -> migratedRecords.add(recordReference.getId()))
+                .thenReturn(pending.size());
+    }
+
+    private Mono<List<DocumentSnapshot>> scanPage(String lastDocumentId) {
+        Query query = medicalRecordsCollection
+                .orderBy(FieldPath.documentId())
+                .select(FIELD_LAYOUT)
+                .limit(SCAN_PAGE_SIZE);
+        if (lastDocumentId != null) {
+            query = query.startAfter(lastDocumentId);
+        }
+        return toMono(query.get())
+                .map(snapshot -> new ArrayList<DocumentSnapshot>(snapshot.getDocuments()));
+    }
+
+    private boolean hasLegacyFields(DocumentSnapshot snapshot) {
+        for (String field : LEGACY_FIELDS.keySet()) {
+            if (snapshot.contains(field)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Set<String> existingIds(QuerySnapshot existing) {
+        Set<String> ids = new HashSet<>();
+        existing.getDocuments().forEach(document -> ids.add(document.getId()));
+        return ids;
+    }
+
+    /**
+     * Convierte los elementos de los arrays antiguos al formato de la subcolección
+     */
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> readLegacyEntries(String medicalRecordId, DocumentSnapshot snapshot) {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Map.Entry<String, String> legacyField : LEGACY_FIELDS.entrySet()) {
+            Object stored = snapshot.get(legacyField.getKey());
+            if (!(stored instanceof List)) {
+                continue;
+            }
+
+            int position = 0;
+            for (Object item : (List<Object>) stored) {
+                if (item instanceof Map) {
+                    entries.add(toEntryDocument(medicalRecordId, legacyField.getKey(), legacyField.getValue(),
+                            position, (Map<String, Object>) item));
+                }
+                position++;
+            }
+        }
+        return entries;
+    }
+
+    private Map<String, Object> toEntryDocument(String medicalRecordId, String legacyField, String defaultType,
+                                                int position, Map<String, Object> item) {
+        String description = firstString(item, "description", "content");
+        String entryId = firstString(item, "id");
+        if (entryId == null || entryId.isEmpty()) {
+            String seed = medicalRecordId + "|" + legacyField + "|" + position + "|" + description;
+            entryId = UUID.nameUUIDFromBytes(seed.getBytes(StandardCharsets.UTF_8)).toString();
+        }
+        String type = firstString(item, "type");
+
+        Map<String, Object> data = new HashMap<>();
+        data.put(MedicalEntryDocuments.FIELD_ID, entryId);
+        data.put(MedicalEntryDocuments.FIELD_MEDICAL_RECORD_ID, medicalRecordId);
+        data.put(MedicalEntryDocuments.FIELD_TYPE, type != null ? type : defaultType);
+        data.put(MedicalEntryDocuments.FIELD_DESCRIPTION, description);
+        data.put(MedicalEntryDocuments.FIELD_DOCTOR_ID, firstString(item, "doctorId"));
+        data.put(MedicalEntryDocuments.FIELD_RECORDED_AT, MedicalEntryDocuments.formatRecordedAt(
+                readDateTime(item, "recordedAt", "createdAt", "prescriptionDate", "date")));
+        String notes = firstString(item, "notes");
+        if (notes != null) {
+            data.put(MedicalEntryDocuments.FIELD_NOTES, notes);
+        }
+        return data;
+    }
+
+    private String firstString(Map<String, Object> item, String... keys) {
+        for (String key : keys) {
+            Object value = item.get(key);
+            if (value != null) {
+                return value.toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lee una fecha guardada como Timestamp, como fecha ISO o como fecha y hora ISO
+     */
+    private LocalDateTime readDateTime(Map<String, Object> item, String... keys) {
+        for (String key : keys) {
+            Object value = item.get(key);
+            if (value instanceof Timestamp) {
+                return LocalDateTime.ofInstant(((Timestamp) value).toDate().toInstant(), ZoneId.systemDefault());
+            }
+            if (value instanceof String) {
+                LocalDateTime dateTime = MedicalEntryDocuments.parseRecordedAt((String) value);
+                if (dateTime != null) {
+                    return dateTime;
+                }
+                try {
+                    return LocalDate.parse((String) value).atStartOfDay();
+                } catch (DateTimeParseException e) {
+                    // Se prueba con la siguiente clave
+                }
+            }
+        }
+        return null;
+    }
+
+    private long readRevision(DocumentSnapshot document) {
+        Long revision = document.getLong(FIELD_REVISION);
+        return revision != null ? revision : 0L;
+    }
+
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "medicalEntryMigration";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("recordsMigrated", recordsMigrated.sum());
+        metrics.put("entriesMigrated", entriesMigrated.sum());
+        metrics.put("failures", failures.sum());
+        metrics.put("knownMigratedRecords", migratedRecords.size());
+        return metrics;
+    }
+}
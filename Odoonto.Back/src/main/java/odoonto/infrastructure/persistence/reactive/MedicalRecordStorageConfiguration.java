@@ -0,0 +1,35 @@
+package odoonto.infrastructure.persistence.reactive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración del almacenamiento de entradas de historial en subcolecciones
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.medical-records")
+@Data
+public class MedicalRecordStorageConfiguration {
+    
+    /**
+     * Migra al arrancar todos los historiales con entradas en arrays; si está
+     * desactivado, cada historial se migra la primera vez que se accede a sus entradas
+     */
+    private boolean migrateOnStartup = false;
+    
+    /**
+     * Escrituras máximas por lote durante la migración (Firestore admite 500)
+     */
+    private int migrationBatchSize = 400;
+    
+    /**
+     * Tamaño de página cuando la consulta no lo indica
+     */
+    private int defaultPageSize = 20;
+    
+    /**
+     * Tamaño de página máximo aceptado
+     */
+    private int maxPageSize = 100;
+}
@@ -1,9 +1,22 @@
 package odoonto.infrastructure.persistence.reactive;
 
+import odoonto.application.exceptions.AppointmentConflictException;
 import odoonto.application.port.out.ReactiveAppointmentRepository;
+import odoonto.domain.exceptions.ArchivedAppointmentException;
 import odoonto.domain.model.aggregates.Appointment;
 import odoonto.domain.model.valueobjects.AppointmentStatus;
+import odoonto.domain.events.scheduling.AppointmentScheduledEvent;
+import odoonto.domain.events.scheduling.AppointmentStatusChangedEvent;
+import odoonto.infrastructure.outbox.FirestoreOutbox;
+import odoonto.infrastructure.persistence.archive.AppointmentArchive;
+import odoonto.infrastructure.persistence.reservation.SlotReservations;
+import odoonto.infrastructure.persistence.statistics.AppointmentDayCountsView;
+import odoonto.infrastructure.persistence.resilience.FirestoreResilience;
+import odoonto.infrastructure.persistence.resilience.RepositoryGuard;
+import odoonto.infrastructure.streaming.AppointmentChangeBus;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -12,36 +25,74 @@ import reactor.core.scheduler.Schedulers;
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.CollectionReference;
 import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.DocumentReference;
 import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.UpdateBuilder;
+import com.google.cloud.firestore.WriteBatch;
 import com.google.api.core.ApiFuture;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Objects;
 import java.util.HashMap;
 
 /**
  * Adaptador que implementa la interfaz reactiva para el repositorio de citas.
- * Implementa directamente las operaciones reactivas con Firestore.
+ * Implementa directamente las operaciones reactivas con Firestore. Las lecturas
+ * completan los resultados con las citas antiguas movidas al archivo; las consultas
+ * por rango solo lo consultan si el rango llega a fechas archivadas.
  */
 @Component
 public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointmentRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAppointmentRepositoryAdapter.class);
+
+    private static final String AGGREGATE_TYPE = "Appointment";
+    private static final Comparator<Appointment> BY_START = Comparator.comparing(Appointment::getDateTime);
+
+    private final Firestore firestore;
     private final CollectionReference appointmentsCollection;
+    private final AppointmentChangeBus changeBus;
+    private final FirestoreOutbox outbox;
+    private final SlotReservations slotReservations;
+    private final AppointmentDayCountsView dayCounts;
+    private final AppointmentArchive archive;
+    private final RepositoryGuard guard;
 
     /**
      * Constructor que recibe la instancia de Firestore
      * @param firestore Instancia de Firestore para acceder a la base de datos
+     * @param changeBus Bus en memoria donde se publican los cambios tras cada escritura
+     * @param outbox Outbox donde se escriben los eventos junto con la cita
+     * @param slotReservations Reservas de franja que se escriben junto con la cita
+     * @param dayCounts Recuentos por doctor, día y estado que se actualizan junto con la cita
+     * @param archive Archivo de citas antiguas que completa las lecturas
+     * @param resilience Protección de las llamadas a Firestore
      */
-    public ReactiveAppointmentRepositoryAdapter(Firestore firestore) {
+    public ReactiveAppointmentRepositoryAdapter(Firestore firestore, AppointmentChangeBus changeBus,
+                                                FirestoreOutbox outbox, SlotReservations slotReservations,
+                                                AppointmentDayCountsView dayCounts, AppointmentArchive archive,
+                                                FirestoreResilience resilience) {
+        this.firestore = firestore;
         this.appointmentsCollection = firestore.collection("appointments");
+        this.changeBus = changeBus;
+        this.outbox = outbox;
+        this.slotReservations = slotReservations;
+        this.dayCounts = dayCounts;
+        this.archive = archive;
+        this.guard = resilience.forRepository("appointments");
     }
     
     @Override
     public Mono<Appointment> findById(String id) {
-        return Mono.fromCallable(() -> {
+        return guard.read(() -> Mono.fromCallable(() -> {
             ApiFuture<DocumentSnapshot> future = appointmentsCollection.document(id).get();
             CompletableFuture<DocumentSnapshot> completableFuture = new CompletableFuture<>();
             
@@ -58,20 +109,114 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
         .flatMap(future -> Mono.fromFuture(future))
         .map(this::mapToAppointment)
         .filter(appointment -> appointment != null)
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()))
+        .switchIfEmpty(Mono.defer(() -> archive.findById(id)));
     }
     
+    /**
+     * Guarda la cita junto con sus reservas de franja y los eventos del outbox.
+     * Una cita nueva se crea en un único lote sin lecturas previas: el documento y
+     * todas sus franjas se crean solo si no existen, así que dos reservas simultáneas
+     * del mismo hueco no pueden confirmarse ambas. Una cita existente se guarda en una
+     * transacción que lee el estado anterior, libera las franjas que deja y reclama
+     * las nuevas (una cita cancelada las libera todas). Los recuentos por día y estado
+     * se ajustan en la misma transacción. Una cita archivada no se puede guardar
+     */
     @Override
     public Mono<Appointment> save(Appointment appointment) {
-        return Mono.fromCallable(() -> {
-            // Si el ID es nulo, generar un nuevo UUID
-            if (appointment.getId() == null || appointment.getId().trim().isEmpty()) {
-                appointment.setId(java.util.UUID.randomUUID().toString());
-            }
+        if (appointment.getId() == null || appointment.getId().trim().isEmpty()) {
+            return create(appointment);
+        }
+        
+        return dayCounts.commit(() -> guard.execute(() -> Mono.fromCallable(() -> {
+            long startNanos = slotReservations.recordAttempt();
+            DocumentReference documentReference = appointmentsCollection.document(appointment.getId());
+            ApiFuture<PreviousState> future = firestore.runTransaction(transaction -> {
+                DocumentSnapshot previous = transaction.get(documentReference).get();
+                if (!previous.exists() && archive.isArchived(transaction, appointment.getId())) {
+                    throw new ArchivedAppointmentException(appointment.getId());
+                }
+                AppointmentStatus previousStatus = previous.exists() ? parseStatus(previous.getString("status")) : null;
+                Appointment previousAppointment = mapToAppointment(previous);
+                
+                // Diferencia entre las franjas que ocupaba y las que ocupa ahora
+                Set<String> heldKeys = new LinkedHashSet<>(slotReservations.keysFor(previousAppointment));
+                Set<String> wantedKeys = new LinkedHashSet<>(slotReservations.keysFor(appointment));
+                Set<String> touchedKeys = new LinkedHashSet<>(heldKeys);
+                touchedKeys.addAll(wantedKeys);
+                
+                List<String> toReserve = new ArrayList<>();
+                List<String> toRelease = new ArrayList<>();
+                if (!touchedKeys.isEmpty()) {
+                    List<DocumentSnapshot> reservations = transaction
+                            .getAll(slotReservations.references(touchedKeys)).get();
+                    for (DocumentSnapshot reservation : reservations) {
+                        String key = reservation.getId();
+                        if (wantedKeys.contains(key)) {
+                            if (slotReservations.isHeldByOther(reservation, appointment.getId())) {
+                                throw new AppointmentConflictException(appointment.getDoctorId(),
+                                        appointment.getDateTime().toString());
+                            }
+                            if (!reservation.exists()) {
+                                toReserve.add(key);
+                            }
+                        } else if (slotReservations.isHeldBy(reservation, appointment.getId())) {
+                            toRelease.add(key);
+                        }
+                    }
+                }
+                
+                transaction.set(documentReference, mapToFirestore(appointment));
+                slotReservations.reserve(transaction, appointment, toReserve);
+                slotReservations.release(transaction, toRelease);
+                dayCounts.apply(transaction, previousAppointment, appointment);
+                appendOutboxEvents(transaction, appointment, previous.exists(), previousStatus);
+                
+                return new PreviousState(previous.exists(), previousStatus, startNanos,
+                        toReserve.size(), toRelease.size());
+            });
+            CompletableFuture<PreviousState> completableFuture = new CompletableFuture<>();
             
-            ApiFuture<?> future = appointmentsCollection.document(appointment.getId()).set(mapToFirestore(appointment));
-            CompletableFuture<Object> completableFuture = new CompletableFuture<>();
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
             
+            return completableFuture;
+        })
+        .flatMap(future -> Mono.fromFuture(future))
+        .subscribeOn(Schedulers.boundedElastic())))
+        .onErrorMap(error -> archivedOr(slotReservations.translateConflict(error, appointment)))
+        .map(previous -> {
+            slotReservations.recordCommit(previous.startNanos, previous.reservedSlots, previous.releasedSlots);
+            changeBus.publishSaved(appointment, !previous.existed, previous.status);
+            return appointment;
+        });
+    }
+    
+    /**
+     * Crea una cita nueva: documento, franjas y evento en un único lote con create().
+     * Si un reintento encuentra ya el documento, se comprueba si es esta misma cita,
+     * guardada por el intento anterior, antes de tratarlo como un conflicto
+     */
+    private Mono<Appointment> create(Appointment appointment) {
+        // El ID se asigna una vez: un reintento repite el mismo create()
+        appointment.setId(java.util.UUID.randomUUID().toString());
+        return dayCounts.commit(() -> guard.execute(() -> Mono.fromCallable(() -> {
+            List<String> keys = slotReservations.keysFor(appointment);
+            long startNanos = slotReservations.recordAttempt();
+            
+            WriteBatch batch = firestore.batch();
+            batch.create(appointmentsCollection.document(appointment.getId()), mapToFirestore(appointment));
+            slotReservations.reserve(batch, appointment, keys);
+            dayCounts.apply(batch, null, appointment);
+            appendOutboxEvents(batch, appointment, false, null);
+            ApiFuture<?> future = batch.commit();
+            
+            CompletableFuture<Object> completableFuture = new CompletableFuture<>();
             future.addListener(() -> {
                 try {
                     completableFuture.complete(future.get());
@@ -80,17 +225,125 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
                 }
             }, Runnable::run);
             
-            return completableFuture.thenApply(result -> appointment);
+            return completableFuture.thenApply(result -> {
+                slotReservations.recordCommit(startNanos, keys.size(), 0);
+                return appointment;
+            });
         })
         .flatMap(future -> Mono.fromFuture(future))
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()), () -> isStored(appointment)))
+        .onErrorMap(error -> slotReservations.translateConflict(error, appointment))
+        .defaultIfEmpty(appointment)
+        .map(created -> {
+            changeBus.publishSaved(created, true, null);
+            return created;
+        });
     }
     
+    /**
+     * Indica si el documento de la cita ya existe con sus mismos datos
+     */
+    private Mono<Boolean> isStored(Appointment appointment) {
+        return guard.read(() -> Mono.fromCallable(() -> {
+            ApiFuture<DocumentSnapshot> future = appointmentsCollection.document(appointment.getId()).get();
+            CompletableFuture<DocumentSnapshot> completableFuture = new CompletableFuture<>();
+            
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+            
+            return completableFuture;
+        })
+        .flatMap(future -> Mono.fromFuture(future)))
+        .map(document -> {
+            Appointment stored = mapToAppointment(document);
+            return stored != null
+                    && Objects.equals(stored.getPatientId(), appointment.getPatientId())
+                    && Objects.equals(stored.getDoctorId(), appointment.getDoctorId())
+                    && Objects.equals(stored.getDateTime(), appointment.getDateTime());
+        });
+    }
+    
+    private <T> void appendOutboxEvents(UpdateBuilder<T> writer, Appointment appointment,
+                                        boolean existed, AppointmentStatus previousStatus) {
+        if (!existed) {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("appointmentId", appointment.getId());
+            payload.put("patientId", appointment.getPatientId());
+            payload.put("doctorId", appointment.getDoctorId());
+            payload.put("dateTime", appointment.getDateTime().toString());
+            payload.put("durationSlots", appointment.getDurationSlots());
+            payload.put("status", appointment.getStatus().toString());
+            outbox.append(writer, AGGREGATE_TYPE, appointment.getId(), AppointmentScheduledEvent.class, payload);
+        } else if (previousStatus != appointment.getStatus()) {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("appointmentId", appointment.getId());
+            payload.put("doctorId", appointment.getDoctorId());
+            payload.put("dateTime", appointment.getDateTime().toString());
+            payload.put("oldStatus", previousStatus != null ? previousStatus.toString() : null);
+            payload.put("newStatus", appointment.getStatus().toString());
+            payload.put("durationSlots", appointment.getDurationSlots());
+            outbox.append(writer, AGGREGATE_TYPE, appointment.getId(), AppointmentStatusChangedEvent.class, payload);
+        }
+    }
+    
+    /**
+     * Extrae el rechazo por cita archivada del error de la transacción, que llega envuelto
+     */
+    private Throwable archivedOr(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof ArchivedAppointmentException) {
+                return current;
+            }
+        }
+        return error;
+    }
+    
+    private AppointmentStatus parseStatus(String status) {
+        try {
+            return status != null ? AppointmentStatus.valueOf(status) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Elimina la cita y libera en la misma transacción las franjas que tenía reservadas
+     * y su recuento por día y estado. Una cita archivada no se puede eliminar
+     */
     @Override
     public Mono<Void> deleteById(String id) {
-        return Mono.fromCallable(() -> {
-            ApiFuture<?> future = appointmentsCollection.document(id).delete();
-            CompletableFuture<Object> completableFuture = new CompletableFuture<>();
+        return dayCounts.commit(() -> guard.execute(() -> Mono.fromCallable(() -> {
+            long startNanos = slotReservations.recordAttempt();
+            DocumentReference documentReference = appointmentsCollection.document(id);
+            ApiFuture<Integer> future = firestore.runTransaction(transaction -> {
+                DocumentSnapshot previous = transaction.get(documentReference).get();
+                if (!previous.exists() && archive.isArchived(transaction, id)) {
+                    throw new ArchivedAppointmentException(id);
+                }
+                Appointment previousAppointment = mapToAppointment(previous);
+                List<String> heldKeys = slotReservations.keysFor(previousAppointment);
+                
+                List<String> toRelease = new ArrayList<>();
+                if (!heldKeys.isEmpty()) {
+                    for (DocumentSnapshot reservation : transaction
+                            .getAll(slotReservations.references(heldKeys)).get()) {
+                        if (slotReservations.isHeldBy(reservation, id)) {
+                            toRelease.add(reservation.getId());
+                        }
+                    }
+                }
+                
+                transaction.delete(documentReference);
+                slotReservations.release(transaction, toRelease);
+                dayCounts.apply(transaction, previousAppointment, null);
+                return toRelease.size();
+            });
+            CompletableFuture<Integer> completableFuture = new CompletableFuture<>();
             
             future.addListener(() -> {
                 try {
@@ -100,16 +353,21 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
                 }
             }, Runnable::run);
             
-            return completableFuture;
+            return completableFuture.thenApply(released -> {
+                slotReservations.recordCommit(startNanos, 0, released);
+                return released;
+            });
         })
         .flatMap(future -> Mono.fromFuture(future))
-        .then()
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic())))
+        .onErrorMap(this::archivedOr)
+        .doOnSuccess(result -> changeBus.publishDeleted(id))
+        .then();
     }
     
     @Override
     public Flux<Appointment> findAll() {
-        return Mono.fromCallable(() -> {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
             ApiFuture<QuerySnapshot> future = appointmentsCollection.get();
             CompletableFuture<QuerySnapshot> completableFuture = new CompletableFuture<>();
             
@@ -134,12 +392,13 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
             });
             return Flux.fromIterable(appointments);
         })
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()))
+        .transform(hot -> withArchive(hot, archive.findAll()));
     }
     
     @Override
     public Flux<Appointment> findByPatientId(String patientId) {
-        return Mono.fromCallable(() -> {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
             ApiFuture<QuerySnapshot> future = appointmentsCollection.whereEqualTo("patientId", patientId).get();
             CompletableFuture<QuerySnapshot> completableFuture = new CompletableFuture<>();
             
@@ -155,12 +414,13 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
         })
         .flatMap(future -> Mono.fromFuture(future))
         .flatMapMany(querySnapshot -> mapQuerySnapshotToFlux(querySnapshot))
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()))
+        .transform(hot -> withArchive(hot, archive.findByPatientId(patientId)));
     }
     
     @Override
     public Flux<Appointment> findByDoctorId(String doctorId) {
-        return Mono.fromCallable(() -> {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
             ApiFuture<QuerySnapshot> future = appointmentsCollection.whereEqualTo("doctorId", doctorId).get();
             CompletableFuture<QuerySnapshot> completableFuture = new CompletableFuture<>();
             
@@ -176,12 +436,13 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
         })
         .flatMap(future -> Mono.fromFuture(future))
         .flatMapMany(querySnapshot -> mapQuerySnapshotToFlux(querySnapshot))
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()))
+        .transform(hot -> withArchive(hot, archive.findByDoctorId(doctorId)));
     }
     
     @Override
     public Flux<Appointment> findByDoctorIdAndDateRange(String doctorId, String from, String to) {
-        return Mono.fromCallable(() -> {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
             ApiFuture<QuerySnapshot> future = appointmentsCollection
                     .whereEqualTo("doctorId", doctorId)
                     .whereGreaterThanOrEqualTo("date", from)
@@ -202,12 +463,12 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
         })
         .flatMap(future -> Mono.fromFuture(future))
         .flatMapMany(querySnapshot -> mapQuerySnapshotToFlux(querySnapshot))
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
     
     @Override
     public Flux<Appointment> findByPatientIdAndDateRange(String patientId, String from, String to) {
-        return Mono.fromCallable(() -> {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
             ApiFuture<QuerySnapshot> future = appointmentsCollection
                     .whereEqualTo("patientId", patientId)
                     .whereGreaterThanOrEqualTo("date", from)
@@ -228,12 +489,28 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
         })
         .flatMap(future -> Mono.fromFuture(future))
         .flatMapMany(querySnapshot -> mapQuerySnapshotToFlux(querySnapshot))
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
     
+    @Override
+    public Flux<Appointment> findByDateTimeRange(LocalDateTime from, LocalDateTime to) {
+        return withArchiveByStart(queryByDateTimeRange(appointmentsCollection, from, to),
+                archive.findByDateTimeRange(from, to));
+    }
+    
+    @Override
+    public Flux<Appointment> findByDoctorIdAndDateTimeRange(String doctorId, LocalDateTime from, LocalDateTime to) {
+        return withArchiveByStart(queryByDateTimeRange(appointmentsCollection.whereEqualTo("doctorId", doctorId), from, to),
+                archive.findByDoctorIdAndDateTimeRange(doctorId, from, to));
+    }
+    
+    /**
+     * Solo lee las citas calientes: recorrer el archivo por estado obligaría a
+     * descomprimir todos sus segmentos
+     */
     @Override
     public Flux<Appointment> findByStatus(AppointmentStatus status) {
-        return Mono.fromCallable(() -> {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
             ApiFuture<QuerySnapshot> future = appointmentsCollection.whereEqualTo("status", status.toString()).get();
             CompletableFuture<QuerySnapshot> completableFuture = new CompletableFuture<>();
             
@@ -249,7 +526,88 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
         })
         .flatMap(future -> Mono.fromFuture(future))
         .flatMapMany(querySnapshot -> mapQuerySnapshotToFlux(querySnapshot))
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
+    }
+    
+    /**
+     * Busca las citas de un estado por rango sobre el campo de estado y fecha/hora,
+     * que ordena primero por estado y dentro de él por fecha
+     */
+    @Override
+    public Flux<Appointment> findByStatusAndDateTimeRange(AppointmentStatus status, LocalDateTime from, LocalDateTime to) {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
+            ApiFuture<QuerySnapshot> future = appointmentsCollection
+                    .whereGreaterThanOrEqualTo(AppointmentDayCountsView.FIELD_STATUS_DATE_TIME,
+                            AppointmentDayCountsView.statusDateTime(status, from))
+                    .whereLessThan(AppointmentDayCountsView.FIELD_STATUS_DATE_TIME,
+                            AppointmentDayCountsView.statusDateTime(status, to))
+                    .orderBy(AppointmentDayCountsView.FIELD_STATUS_DATE_TIME)
+                    .get();
+            
+            CompletableFuture<QuerySnapshot> completableFuture = new CompletableFuture<>();
+            
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+            
+            return completableFuture;
+        })
+        .flatMap(future -> Mono.fromFuture(future))
+        .flatMapMany(querySnapshot -> mapQuerySnapshotToFlux(querySnapshot))
+        .subscribeOn(Schedulers.boundedElastic()))
+        .transform(hot -> AppointmentArchive.isArchivable(status)
+                ? withArchiveByStart(hot, archive.findByDateTimeRange(from, to)
+                    .filter(appointment -> appointment.getStatus() == status))
+                : hot);
+    }
+    
+    /**
+     * Ejecuta una consulta por rango sobre el campo "dateTime".
+     * El campo se guarda como LocalDateTime ISO-8601, cuyo orden lexicográfico
+     * coincide con el cronológico, por lo que Firestore puede resolver el rango con su índice.
+     */
+    private Flux<Appointment> queryByDateTimeRange(Query baseQuery, LocalDateTime from, LocalDateTime to) {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
+            ApiFuture<QuerySnapshot> future = baseQuery
+                    .whereGreaterThanOrEqualTo("dateTime", from.toString())
+                    .whereLessThan("dateTime", to.toString())
+                    .orderBy("dateTime")
+                    .get();
+            
+            CompletableFuture<QuerySnapshot> completableFuture = new CompletableFuture<>();
+            
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+            
+            return completableFuture;
+        })
+        .flatMap(future -> Mono.fromFuture(future))
+        .flatMapMany(querySnapshot -> mapQuerySnapshotToFlux(querySnapshot))
+        .subscribeOn(Schedulers.boundedElastic()));
+    }
+    
+    /**
+     * Añade a una lectura las citas archivadas; una cita que se está archivando en ese
+     * momento puede aparecer en ambos sitios y se devuelve una sola vez
+     */
+    private Flux<Appointment> withArchive(Flux<Appointment> hot, Flux<Appointment> archived) {
+        return Flux.concat(hot, archived).distinct(Appointment::getId);
+    }
+    
+    /**
+     * Igual que {@link #withArchive}, conservando el orden cronológico de la lectura
+     */
+    private Flux<Appointment> withArchiveByStart(Flux<Appointment> hot, Flux<Appointment> archived) {
+        return Flux.mergeComparing(BY_START, hot, archived.sort(BY_START)).distinct(Appointment::getId);
     }
     
     // Métodos auxiliares para mapeo
@@ -282,7 +640,7 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
             
             // Validar datos esenciales
             if (patientId == null || doctorId == null || dateTimeStr == null || durationSlotsLong == null) {
-                System.err.println("Error: Documento de cita con datos incompletos - ID: " + id);
+                logger.warn("Cita {} omitida: faltan paciente, doctor, fecha u ocupación", id);
                 return null;
             }
             
@@ -296,7 +654,7 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
             // que no valide fechas pasadas (para permitir recuperar datos antiguos)
             return createAppointmentFromPersistence(id, patientId, doctorId, dateTime, durationSlots, status, notes);
         } catch (Exception e) {
-            System.err.println("Error al mapear documento a Appointment: " + e.getMessage());
+            logger.warn("Cita {} omitida: no se pudo leer el documento", document.getId(), e);
             return null;
         }
     }
@@ -335,6 +693,8 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
         data.put("dateTime", appointment.getDateTime().toString());
         data.put("durationSlots", appointment.getDurationSlots());
         data.put("status", appointment.getStatus().toString());
+        data.put(AppointmentDayCountsView.FIELD_STATUS_DATE_TIME,
+                AppointmentDayCountsView.statusDateTime(appointment.getStatus(), appointment.getDateTime()));
         
         // Añadir notas solo si existen
         if (appointment.getNotes() != null && !appointment.getNotes().trim().isEmpty()) {
@@ -343,4 +703,24 @@ public class ReactiveAppointmentRepositoryAdapter implements ReactiveAppointment
         
         return data;
     }
+    
+    /**
+     * Estado de la cita leído dentro de la transacción de guardado y franjas movidas
+     */
+    private static final class PreviousState {
+        private final boolean existed;
+        private final AppointmentStatus status;
+        private final long startNanos;
+        private final int reservedSlots;
+        private final int releasedSlots;
+        
+        private PreviousState(boolean existed, AppointmentStatus status, long startNanos,
+                              int reservedSlots, int releasedSlots) {
+            this.existed = existed;
+            this.status = status;
+            this.startNanos = startNanos;
+            this.reservedSlots = reservedSlots;
+            this.releasedSlots = releasedSlots;
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,340 @@
+package odoonto.infrastructure.persistence.reactive;
+
+import odoonto.application.exceptions.AppointmentConflictException;
+import odoonto.application.port.out.ReactiveAppointmentSeriesRepository;
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.aggregates.AppointmentSeries;
+import odoonto.domain.model.valueobjects.RecurrenceRule;
+import odoonto.infrastructure.persistence.reservation.SlotReservations;
+import odoonto.infrastructure.persistence.resilience.FirestoreResilience;
+import odoonto.infrastructure.persistence.resilience.RepositoryGuard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adaptador que implementa la interfaz reactiva para el repositorio de series de citas.
+ * Cada serie es un documento con su regla RRULE y sus fechas anuladas; las franjas de
+ * todas sus citas se reservan en la colección de reservas con el ID de cada cita
+ * ({idSerie}@{fecha}), de modo que chocan con las citas sueltas igual que entre ellas.
+ * El documento guarda el fin de la última cita para poder buscar por ventana.
+ */
+@Component
+public class ReactiveAppointmentSeriesRepositoryAdapter implements ReactiveAppointmentSeriesRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAppointmentSeriesRepositoryAdapter.class);
+
+    private static final String FIELD_PATIENT_ID = "patientId";
+    private static final String FIELD_DOCTOR_ID = "doctorId";
+    private static final String FIELD_START = "start";
+    private static final String FIELD_DURATION_SLOTS = "durationSlots";
+    private static final String FIELD_RULE = "rule";
+    private static final String FIELD_EXCEPTIONS = "excepciones";
+    private static final String FIELD_NOTES = "notes";
+    private static final String FIELD_LAST_END = "lastEnd";
+
+    /**
+     * Máximo de fechas en conflicto que se listan en el mensaje de error
+     */
+    private static final int MAX_REPORTED_CONFLICTS = 10;
+
+    private final Firestore firestore;
+    private final CollectionReference seriesCollection;
+    private final SlotReservations slotReservations;
+    private final RepositoryGuard guard;
+
+    /**
+     * Constructor que recibe la instancia de Firestore
+     * @param firestore Instancia de Firestore para acceder a la base de datos
+     * @param slotReservations Reservas de franja que se escriben junto con la serie
+     * @param resilience Protección de las llamadas a Firestore
+     */
+    public ReactiveAppointmentSeriesRepositoryAdapter(Firestore firestore, SlotReservations slotReservations,
+                                                      FirestoreResilience resilience) {
+        this.firestore = firestore;
+        this.seriesCollection = firestore.collection("appointment_series");
+        this.slotReservations = slotReservations;
+        this.guard = resilience.forRepository("appointment_series");
+    }
+
+    @Override
+    public Mono<AppointmentSeries> findById(String id) {
+        return guard.read(() -> Mono.defer(() -> toMono(seriesCollection.document(id).get()))
+                .map(this::mapToSeries)
+                .filter(series -> series != null)
+                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Crea la serie en dos pasos: una única lectura en bloque de todas las franjas de
+     * sus citas, que permite informar de todas las fechas en conflicto a la vez, y un
+     * único lote que crea el documento y las reservas con create(). Si otra reserva se
+     * adelanta entre ambos pasos el lote falla entero y se informa como conflicto
+     */
+    @Override
+    public Mono<AppointmentSeries> create(AppointmentSeries series) {
+        Map<String, Appointment> occurrenceByKey = new LinkedHashMap<>();
+        for (Appointment occurrence : series.toAppointments(series.getStart(), LocalDateTime.MAX)) {
+            for (String key : slotReservations.keysFor(occurrence)) {
+                occurrenceByKey.put(key, occurrence);
+            }
+        }
+        if (occurrenceByKey.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("La serie no tiene ninguna cita"));
+        }
+
+        Appointment firstOccurrence = occurrenceByKey.values().iterator().next();
+        return guard.executeIdempotent(() -> toMono(firestore.getAll(
+                        slotReservations.references(occurrenceByKey.keySet()))))
+                .flatMap(reservations -> {
+                    TreeSet<LocalDateTime> conflicts = new TreeSet<>();
+                    for (DocumentSnapshot reservation : reservations) {
+                        if (reservation.exists()) {
+                            conflicts.add(occurrenceByKey.get(reservation.getId()).getDateTime());
+                        }
+                    }
+                    if (!conflicts.isEmpty()) {
+                        return Mono.error(conflictException(series, conflicts));
+                    }
+
+                    long startNanos = slotReservations.recordAttempt();
+                    WriteBatch batch = firestore.batch();
+                    batch.create(seriesCollection.document(series.getId()), mapToFirestore(series));
+                    Map<Appointment, List<String>> keysByOccurrence = new LinkedHashMap<>();
+                    occurrenceByKey.forEach((key, occurrence) ->
+                            keysByOccurrence.computeIfAbsent(occurrence, ignored -> new ArrayList<>()).add(key));
+                    keysByOccurrence.forEach((occurrence, keys) -> slotReservations.reserve(batch, occurrence, keys));
+
+                    // Un reintento que encuentra la serie ya guardada confirma el intento anterior
+                    return guard.execute(() -> toMono(batch.commit()), () -> isStored(series))
+                            .then(Mono.fromCallable(() -> {
+                                slotReservations.recordCommit(startNanos, occurrenceByKey.size(), 0);
+                                return series;
+                            }));
+                })
+                .onErrorMap(error -> slotReservations.translateConflict(error, firstOccurrence))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Indica si el documento de la serie ya existe con sus mismos datos
+     */
+    private Mono<Boolean> isStored(AppointmentSeries series) {
+        return guard.read(() -> toMono(seriesCollection.document(series.getId()).get()))
+                .map(document -> {
+                    AppointmentSeries stored = mapToSeries(document);
+                    return stored != null
+                            && Objects.equals(stored.getPatientId(), series.getPatientId())
+                            && Objects.equals(stored.getDoctorId(), series.getDoctorId())
+                            && Objects.equals(stored.getStart(), series.getStart());
+                });
+    }
+
+    /**
+     * Guarda la serie en una transacción que lee la versión anterior y libera las
+     * franjas de las citas que ya no tiene (anuladas o tras acortar la serie)
+     */
+    @Override
+    public Mono<AppointmentSeries> save(AppointmentSeries series) {
+        return guard.execute(() -> Mono.fromCallable(() -> {
+            long startNanos = slotReservations.recordAttempt();
+            DocumentReference documentReference = seriesCollection.document(series.getId());
+            ApiFuture<Integer> future = firestore.runTransaction(transaction -> {
+                AppointmentSeries previous = mapToSeries(transaction.get(documentReference).get());
+
+                List<String> toRelease = new ArrayList<>();
+                if (previous != null) {
+                    Set<String> wantedKeys = new HashSet<>();
+                    for (Appointment occurrence : series.toAppointments(series.getStart(), LocalDateTime.MAX)) {
+                        wantedKeys.addAll(slotReservations.keysFor(occurrence));
+                    }
+                    for (Appointment occurrence : previous.toAppointments(previous.getStart(), LocalDateTime.MAX)) {
+                        for (String key : slotReservations.keysFor(occurrence)) {
+                            if (!wantedKeys.contains(key)) {
+                                toRelease.add(key);
+                            }
+                        }
+                    }
+                }
+
+                transaction.set(documentReference, mapToFirestore(series));
+                slotReservations.release(transaction, toRelease);
+                return toRelease.size();
+            });
+            CompletableFuture<Integer> completableFuture = new CompletableFuture<>();
+
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+
+            return completableFuture.thenApply(released -> {
+                slotReservations.recordCommit(startNanos, 0, released);
+                return series;
+            });
+        })
+        .flatMap(future -> Mono.fromFuture(future))
+        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    @Override
+    public Flux<AppointmentSeries> findByDateTimeRange(LocalDateTime from, LocalDateTime to) {
+        return guard.executeMany(() -> Mono.defer(() -> toMono(seriesCollection
+                        .whereGreaterThan(FIELD_LAST_END, from.toString())
+                        .get()))
+                .flatMapMany(this::mapQuerySnapshotToFlux)
+                .filter(series -> series.getStart().isBefore(to))
+                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Firestore solo admite un rango por consulta: se filtra por el fin de la última
+     * cita y el inicio se comprueba en memoria, donde además se calculan las citas
+     */
+    @Override
+    public Flux<AppointmentSeries> findByDoctorIdAndDateTimeRange(String doctorId, LocalDateTime from,
+                                                                  LocalDateTime to) {
+        return guard.executeMany(() -> Mono.defer(() -> toMono(seriesCollection
+                        .whereEqualTo(FIELD_DOCTOR_ID, doctorId)
+                        .whereGreaterThan(FIELD_LAST_END, from.toString())
+                        .get()))
+                .flatMapMany(this::mapQuerySnapshotToFlux)
+                .filter(series -> series.getStart().isBefore(to))
+                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    @Override
+    public Flux<AppointmentSeries> findByPatientId(String patientId) {
+        return guard.executeMany(() -> Mono.defer(() -> toMono(seriesCollection
+                        .whereEqualTo(FIELD_PATIENT_ID, patientId)
+                        .get()))
+                .flatMapMany(this::mapQuerySnapshotToFlux)
+                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    private AppointmentConflictException conflictException(AppointmentSeries series,
+                                                           TreeSet<LocalDateTime> conflicts) {
+        List<String> dates = new ArrayList<>();
+        for (LocalDateTime conflict : conflicts) {
+            if (dates.size() == MAX_REPORTED_CONFLICTS) {
+                dates.add("y " + (conflicts.size() - MAX_REPORTED_CONFLICTS) + " más");
+                break;
+            }
+            dates.add(conflict.toString());
+        }
+        return new AppointmentConflictException("El doctor con ID: " + series.getDoctorId()
+                + " ya tiene citas en " + conflicts.size() + " fechas de la serie: " + String.join(", ", dates));
+    }
+
+    // Métodos auxiliares para mapeo
+
+    private Flux<AppointmentSeries> mapQuerySnapshotToFlux(QuerySnapshot querySnapshot) {
+        List<AppointmentSeries> seriesList = new ArrayList<>();
+        querySnapshot.getDocuments().forEach(doc -> {
+            AppointmentSeries series = mapToSeries(doc);
+            if (series != null) {
+                seriesList.add(series);
+            }
+        });
+        return Flux.fromIterable(seriesList);
+    }
+
+    @SuppressWarnings("unchecked")
+    private AppointmentSeries mapToSeries(DocumentSnapshot document) {
+        if (!document.exists()) {
+            return null;
+        }
+
+        try {
+            List<LocalDate> excepciones = new ArrayList<>();
+            Object rawExceptions = document.get(FIELD_EXCEPTIONS);
+            if (rawExceptions instanceof List) {
+                for (Object date : (List<Object>) rawExceptions) {
+                    excepciones.add(LocalDate.parse(date.toString()));
+                }
+            }
+
+            return new AppointmentSeries(
+                    document.getId(),
+                    document.getString(FIELD_PATIENT_ID),
+                    document.getString(FIELD_DOCTOR_ID),
+                    LocalDateTime.parse(document.getString(FIELD_START)),
+                    document.getLong(FIELD_DURATION_SLOTS).intValue(),
+                    RecurrenceRule.parse(document.getString(FIELD_RULE)),
+                    document.getString(FIELD_NOTES),
+                    excepciones);
+        } catch (Exception e) {
+            logger.warn("Serie de citas {} omitida: no se pudo leer el documento", document.getId(), e);
+            return null;
+        }
+    }
+
+    private Map<String, Object> mapToFirestore(AppointmentSeries series) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_PATIENT_ID, series.getPatientId());
+        data.put(FIELD_DOCTOR_ID, series.getDoctorId());
+        data.put(FIELD_START, series.getStart().toString());
+        data.put(FIELD_DURATION_SLOTS, series.getDurationSlots());
+        data.put(FIELD_RULE, series.getRule().toRRule());
+
+        List<String> excepciones = new ArrayList<>();
+        for (LocalDate date : series.getExcepciones()) {
+            excepciones.add(date.toString());
+        }
+        data.put(FIELD_EXCEPTIONS, excepciones);
+
+        // Sin citas vigentes la serie deja de aparecer en las búsquedas por ventana
+        LocalDateTime lastEnd = series.getLastEndDateTime();
+        data.put(FIELD_LAST_END, lastEnd != null ? lastEnd.toString() : "");
+
+        if (series.getNotes() != null && !series.getNotes().trim().isEmpty()) {
+            data.put(FIELD_NOTES, series.getNotes());
+        }
+        return data;
+    }
+
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+}
@@ -1,9 +1,18 @@
 package odoonto.infrastructure.persistence.reactive;
 
+import odoonto.application.port.out.MetricsSource;
 import odoonto.application.port.out.ReactiveDoctorRepository;
 import odoonto.domain.model.aggregates.Doctor;
+import odoonto.domain.model.valueobjects.DoctorAvailability;
+import odoonto.domain.model.valueobjects.DoctorSchedule;
+import odoonto.domain.model.valueobjects.ScheduleException;
 import odoonto.domain.model.valueobjects.Specialty;
+import odoonto.infrastructure.persistence.concurrency.OptimisticConcurrencyControl;
+import odoonto.infrastructure.persistence.resilience.FirestoreResilience;
+import odoonto.infrastructure.persistence.resilience.RepositoryGuard;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -14,34 +23,69 @@ import com.google.cloud.firestore.CollectionReference;
 import com.google.cloud.firestore.DocumentSnapshot;
 import com.google.cloud.firestore.QuerySnapshot;
 import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Precondition;
 import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 /**
  * Adaptador que implementa la interfaz reactiva para el repositorio de doctores.
  * Implementa directamente las operaciones reactivas con Firestore.
+ * El horario semanal y las excepciones se guardan en el documento del doctor; su
+ * disponibilidad compilada se cachea por doctor y versión del documento, de modo que
+ * las lecturas repetidas de un doctor sin cambios no vuelven a compilarla.
  */
 @Component
-public class ReactiveDoctorRepositoryAdapter implements ReactiveDoctorRepository {
+public class ReactiveDoctorRepositoryAdapter implements ReactiveDoctorRepository, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveDoctorRepositoryAdapter.class);
+
+    private static final String FIELD_SCHEDULE = "horarios";
+    private static final String FIELD_EXCEPTIONS = "excepciones";
+    private static final String FIELD_AVAILABLE = "available";
+    private static final String FIELD_START_TIME = "startTime";
+    private static final String FIELD_END_TIME = "endTime";
+    private static final String FIELD_REASON = "motivo";
+    private static final String FIELD_WRITE_ID = "writeId";
 
     private final CollectionReference doctorsCollection;
+    private final RepositoryGuard guard;
+    private final OptimisticConcurrencyControl concurrencyControl;
+
+    private final Map<String, CompiledAvailability> availabilityCache = new ConcurrentHashMap<>();
+    private final LongAdder availabilityCacheHits = new LongAdder();
+    private final LongAdder availabilityCompilations = new LongAdder();
 
     /**
      * Constructor que recibe la instancia de Firestore
      * @param firestore Instancia de Firestore para acceder a la base de datos
+     * @param resilience Protección de las llamadas a Firestore
+     * @param concurrencyControl Control de las escrituras condicionadas
      */
-    public ReactiveDoctorRepositoryAdapter(Firestore firestore) {
+    public ReactiveDoctorRepositoryAdapter(Firestore firestore, FirestoreResilience resilience,
+                                           OptimisticConcurrencyControl concurrencyControl) {
         this.doctorsCollection = firestore.collection("doctors");
+        this.guard = resilience.forRepository("doctors");
+        this.concurrencyControl = concurrencyControl;
     }
     
     @Override
     public Mono<Doctor> findById(String id) {
-        return Mono.fromCallable(() -> {
+        return guard.read(() -> Mono.fromCallable(() -> {
             DocumentReference docRef = doctorsCollection.document(id);
             ApiFuture<DocumentSnapshot> future = docRef.get();
             CompletableFuture<DocumentSnapshot> completableFuture = new CompletableFuture<>();
@@ -59,12 +103,12 @@ public class ReactiveDoctorRepositoryAdapter implements ReactiveDoctorRepository
         .flatMap(future -> Mono.fromFuture(future))
         .map(this::mapToDoctor)
         .filter(doctor -> doctor != null)
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
     
     @Override
     public Mono<Doctor> save(Doctor doctor) {
-        return Mono.fromCallable(() -> {
+        return guard.executeIdempotent(() -> Mono.fromCallable(() -> {
             Map<String, Object> docData = mapToFirestore(doctor);
             String docId = doctor.getId().toString();
             
@@ -82,7 +126,36 @@ public class ReactiveDoctorRepositoryAdapter implements ReactiveDoctorRepository
             return completableFuture.thenApply(result -> doctor);
         })
         .flatMap(future -> Mono.fromFuture(future))
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
+    }
+    
+    /**
+     * La escritura lleva una marca propia para que un reintento tras perder la
+     * respuesta reconozca que ya se aplicó
+     */
+    @Override
+    public Mono<Doctor> update(String id, Consumer<Doctor> mutation) {
+        DocumentReference reference = doctorsCollection.document(id);
+        
+        return concurrencyControl.execute("doctors", id, () ->
+                guard.read(() -> toMono(reference.get()))
+                    .flatMap(snapshot -> {
+                        Doctor doctor = snapshot.exists() ? mapToDoctor(snapshot) : null;
+                        if (doctor == null) {
+                            return Mono.empty();
+                        }
+                        
+                        mutation.accept(doctor);
+                        String writeId = UUID.randomUUID().toString();
+                        Map<String, Object> docData = mapToFirestore(doctor);
+                        docData.put(FIELD_WRITE_ID, writeId);
+                        return guard.execute(() -> toMono(reference.update(docData,
+                                        Precondition.updatedAt(snapshot.getUpdateTime()))),
+                                    () -> guard.read(() -> toMono(reference.get()))
+                                        .map(current -> writeId.equals(current.getString(FIELD_WRITE_ID))))
+                                .thenReturn(doctor);
+                    }))
+            .subscribeOn(Schedulers.boundedElastic());
     }
     
     @Override
@@ -92,7 +165,8 @@ public class ReactiveDoctorRepositoryAdapter implements ReactiveDoctorRepository
             return Mono.error(new IllegalArgumentException("El ID del doctor no puede ser nulo o vacío"));
         }
         
-        return Mono.fromCallable(() -> {
+        return guard.executeIdempotent(() -> Mono.fromCallable(() -> {
+            availabilityCache.remove(id);
             ApiFuture<?> future = doctorsCollection.document(id).delete();
             CompletableFuture<Object> completableFuture = new CompletableFuture<>();
             
@@ -108,12 +182,12 @@ public class ReactiveDoctorRepositoryAdapter implements ReactiveDoctorRepository
         })
         .flatMap(future -> Mono.fromFuture(future))
         .then()
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
     
     @Override
     public Flux<Doctor> findAll() {
-        return Mono.fromCallable(() -> {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
             ApiFuture<QuerySnapshot> future = doctorsCollection.get();
             CompletableFuture<QuerySnapshot> completableFuture = new CompletableFuture<>();
             
@@ -138,12 +212,12 @@ public class ReactiveDoctorRepositoryAdapter implements ReactiveDoctorRepository
             });
             return Flux.fromIterable(doctors);
         })
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
     
     @Override
     public Flux<Doctor> findByEspecialidad(Specialty especialidad) {
-        return Mono.fromCallable(() -> {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
             ApiFuture<QuerySnapshot> future = doctorsCollection
                 .whereEqualTo("especialidad", especialidad.toString())
                 .get();
@@ -162,7 +236,7 @@ public class ReactiveDoctorRepositoryAdapter implements ReactiveDoctorRepository
         })
         .flatMap(future -> Mono.fromFuture(future))
         .flatMapMany(this::mapQuerySnapshotToFlux)
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
     
     @Override
@@ -177,6 +251,23 @@ public class ReactiveDoctorRepositoryAdapter implements ReactiveDoctorRepository
     
     // Métodos auxiliares para mapeo
     
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+            
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+            
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+    
     private Flux<Doctor> mapQuerySnapshotToFlux(QuerySnapshot querySnapshot) {
         List<Doctor> doctors = new ArrayList<>();
         querySnapshot.getDocuments().forEach(doc -> {
@@ -202,12 +293,26 @@ public class ReactiveDoctorRepositoryAdapter implements ReactiveDoctorRepository
             // Usar el método fromNombre para convertir a Specialty de manera más robusta
             Specialty especialidad = Specialty.fromNombre(especialidadStr);
             
+            Map<DayOfWeek, DoctorSchedule> horarios = readSchedule(document);
+            List<ScheduleException> excepciones = readExceptions(document);
+            
+            // Reutilizar la disponibilidad compilada si el documento no ha cambiado
+            Timestamp version = document.getUpdateTime();
+            CompiledAvailability cached = availabilityCache.get(id);
+            boolean cacheHit = cached != null && version != null && cached.version.equals(version);
+            
             // Crear y devolver un nuevo Doctor con los datos obtenidos
-            return new Doctor(id, nombreCompleto, especialidad);
+            Doctor doctor = new Doctor(id, nombreCompleto, especialidad, horarios, excepciones,
+                    cacheHit ? cached.availability : null);
+            if (cacheHit) {
+                availabilityCacheHits.increment();
+            } else if (version != null) {
+                availabilityCompilations.increment();
+                availabilityCache.put(id, new CompiledAvailability(version, doctor.getDisponibilidad()));
+            }
+            return doctor;
         } catch (Exception e) {
-            // Registrar el error y devolver null
-            System.err.println("Error al mapear documento a Doctor: " + e.getMessage());
-            e.printStackTrace(); // Agregar stack trace para más detalle
+            logger.warn("Doctor {} omitido: no se pudo leer el documento", document.getId(), e);
             return null;
         }
     }
@@ -221,8 +326,104 @@ public class ReactiveDoctorRepositoryAdapter implements ReactiveDoctorRepository
             docData.put("especialidad", doctor.getEspecialidad().toString());
         }
         
-        // Podríamos añadir más campos si es necesario
+        Map<String, Object> horarios = new LinkedHashMap<>();
+        for (Map.Entry<DayOfWeek, DoctorSchedule> entry : doctor.getHorarios().entrySet()) {
+            DoctorSchedule schedule = entry.getValue();
+            Map<String, Object> day = new HashMap<>();
+            day.put(FIELD_AVAILABLE, schedule.isAvailable());
+            day.put(FIELD_START_TIME, schedule.getStartTime() != null ? schedule.getStartTime().toString() : null);
+            day.put(FIELD_END_TIME, schedule.getEndTime() != null ? schedule.getEndTime().toString() : null);
+            horarios.put(entry.getKey().name(), day);
+        }
+        docData.put(FIELD_SCHEDULE, horarios);
+        
+        Map<String, Object> excepciones = new LinkedHashMap<>();
+        for (ScheduleException excepcion : doctor.getScheduleExceptions()) {
+            Map<String, Object> exception = new HashMap<>();
+            exception.put(FIELD_START_TIME, excepcion.getStartTime() != null ? excepcion.getStartTime().toString() : null);
+            exception.put(FIELD_END_TIME, excepcion.getEndTime() != null ? excepcion.getEndTime().toString() : null);
+            exception.put(FIELD_REASON, excepcion.getMotivo());
+            excepciones.put(excepcion.getDate().toString(), exception);
+        }
+        docData.put(FIELD_EXCEPTIONS, excepciones);
         
         return docData;
     }
+    
+    /**
+     * Lee el horario semanal; los documentos antiguos sin horario devuelven un mapa vacío
+     * y el doctor conserva el horario por defecto
+     */
+    @SuppressWarnings("unchecked")
+    private Map<DayOfWeek, DoctorSchedule> readSchedule(DocumentSnapshot document) {
+        Map<DayOfWeek, DoctorSchedule> horarios = new EnumMap<>(DayOfWeek.class);
+        Object raw = document.get(FIELD_SCHEDULE);
+        if (!(raw instanceof Map)) {
+            return horarios;
+        }
+        
+        for (Map.Entry<String, Object> entry : ((Map<String, Object>) raw).entrySet()) {
+            if (!(entry.getValue() instanceof Map)) {
+                continue;
+            }
+            Map<String, Object> day = (Map<String, Object>) entry.getValue();
+            DayOfWeek dayOfWeek = DayOfWeek.valueOf(entry.getKey());
+            LocalTime start = parseTime(day.get(FIELD_START_TIME));
+            LocalTime end = parseTime(day.get(FIELD_END_TIME));
+            boolean available = Boolean.TRUE.equals(day.get(FIELD_AVAILABLE)) && start != null && end != null;
+            horarios.put(dayOfWeek, available
+                    ? new DoctorSchedule(dayOfWeek, start, end, true)
+                    : new DoctorSchedule(dayOfWeek));
+        }
+        return horarios;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<ScheduleException> readExceptions(DocumentSnapshot document) {
+        List<ScheduleException> excepciones = new ArrayList<>();
+        Object raw = document.get(FIELD_EXCEPTIONS);
+        if (!(raw instanceof Map)) {
+            return excepciones;
+        }
+        
+        for (Map.Entry<String, Object> entry : ((Map<String, Object>) raw).entrySet()) {
+            if (!(entry.getValue() instanceof Map)) {
+                continue;
+            }
+            Map<String, Object> exception = (Map<String, Object>) entry.getValue();
+            excepciones.add(new ScheduleException(LocalDate.parse(entry.getKey()),
+                    parseTime(exception.get(FIELD_START_TIME)),
+                    parseTime(exception.get(FIELD_END_TIME)),
+                    (String) exception.get(FIELD_REASON)));
+        }
+        return excepciones;
+    }
+    
+    private LocalTime parseTime(Object value) {
+        return value instanceof String ? LocalTime.parse((String) value) : null;
+    }
+    
+    @Override
+    public String getMetricsName() {
+        return "doctorSchedules";
+    }
+    
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("cachedDoctors", availabilityCache.size());
+        metrics.put("cacheHits", availabilityCacheHits.sum());
+        metrics.put("compilations", availabilityCompilations.sum());
+        return metrics;
+    }
+    
+    private static final class CompiledAvailability {
+        private final Timestamp version;
+        private final DoctorAvailability availability;
+        
+        private CompiledAvailability(Timestamp version, DoctorAvailability availability) {
+            this.version = version;
+            this.availability = availability;
+        }
+    }
 } 
\ No newline at end of file
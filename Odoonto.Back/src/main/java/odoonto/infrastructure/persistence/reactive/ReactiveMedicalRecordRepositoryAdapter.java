@@ -1,10 +1,22 @@
 package odoonto.infrastructure.persistence.reactive;
 
+import odoonto.application.port.out.MedicalEntryPage;
+import odoonto.application.port.out.MedicalEntryQuery;
 import odoonto.application.port.out.ReactiveMedicalRecordRepository;
+import odoonto.domain.exceptions.DomainException;
 import odoonto.domain.model.aggregates.MedicalRecord;
 import odoonto.domain.model.entities.MedicalEntry;
 import odoonto.domain.model.valueobjects.MedicalRecordId;
+import odoonto.domain.events.records.TreatmentAddedEvent;
+import odoonto.infrastructure.outbox.FirestoreOutbox;
+import odoonto.infrastructure.persistence.concurrency.OptimisticConcurrencyControl;
+import odoonto.infrastructure.persistence.resilience.DatastoreErrors;
+import odoonto.infrastructure.persistence.resilience.FirestoreResilience;
+import odoonto.infrastructure.persistence.resilience.RepositoryGuard;
+import odoonto.infrastructure.search.MedicalEntrySearchIndex;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -12,39 +24,95 @@ import reactor.core.scheduler.Schedulers;
 
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
 import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.Precondition;
 import com.google.cloud.firestore.SetOptions;
 import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.WriteBatch;
 import com.google.api.core.ApiFuture;
+import com.google.api.gax.rpc.StatusCode;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
 
 /**
  * Adaptador que implementa la interfaz reactiva para el repositorio de historiales médicos.
  * Implementa directamente las operaciones reactivas con Firestore.
+ * Las entradas se guardan en la subcolección medical_records/{id}/entries, de modo que
+ * el documento del historial no crece con ellas y las lecturas por fecha y doctor se
+ * resuelven en Firestore. Los filtros por doctor o tipo combinados con el orden por
+ * fecha requieren los índices compuestos (doctorId ASC, recordedAt DESC) y
+ * (type ASC, recordedAt DESC) sobre la subcolección "entries".
  */
 @Component
 public class ReactiveMedicalRecordRepositoryAdapter implements ReactiveMedicalRecordRepository {
 
+    private static final String COLLECTION_NAME = "medical_records";
+    private static final String AGGREGATE_TYPE = "MedicalRecord";
+    private static final String TREATMENT_ENTRY_TYPE = "TRATAMIENTO";
+    private static final String ENTRIES_RESOURCE = COLLECTION_NAME + "/" + MedicalEntryDocuments.SUBCOLLECTION_NAME;
+    private static final String FIELD_REVISION = "revision";
+    private static final String FIELD_PATIENT_ID = "patientId";
+    private static final String FIELD_CREATED_AT = "createdAt";
+    private static final String FIELD_LAST_UPDATED_AT = "lastUpdatedAt";
+    // Marca de la última escritura por lotes del historial; un reintento la usa para
+    // saber si el intento anterior llegó a aplicarse
+    private static final String FIELD_LAST_WRITE_ID = "lastWriteId";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveMedicalRecordRepositoryAdapter.class);
+
+    private final Firestore firestore;
     private final CollectionReference medicalRecordsCollection;
+    private final FirestoreOutbox outbox;
+    private final OptimisticConcurrencyControl concurrencyControl;
+    private final MedicalEntryLayoutMigration migration;
+    private final MedicalRecordStorageConfiguration storageConfiguration;
+    private final MedicalEntrySearchIndex searchIndex;
+    private final RepositoryGuard guard;
     
     /**
      * Constructor que recibe la instancia de Firestore
      * @param firestore Instancia de Firestore para acceder a la base de datos
+     * @param outbox Outbox donde se escriben los eventos junto con el historial
+     * @param concurrencyControl Control de las escrituras condicionadas y sus reintentos
+     * @param migration Migración de las entradas guardadas en arrays a la subcolección
+     * @param storageConfiguration Tamaños de página de las lecturas de entradas
+     * @param searchIndex Índice de búsqueda que se actualiza en el lote de cada entrada
+     * @param resilience Protección de las llamadas a Firestore
      */
-    public ReactiveMedicalRecordRepositoryAdapter(Firestore firestore) {
-        this.medicalRecordsCollection = firestore.collection("medical_records");
+    public ReactiveMedicalRecordRepositoryAdapter(Firestore firestore,
+                                                  FirestoreOutbox outbox,
+                                                  OptimisticConcurrencyControl concurrencyControl,
+                                                  MedicalEntryLayoutMigration migration,
+                                                  MedicalRecordStorageConfiguration storageConfiguration,
+                                                  MedicalEntrySearchIndex searchIndex,
+                                                  FirestoreResilience resilience) {
+        this.firestore = firestore;
+        this.medicalRecordsCollection = firestore.collection(COLLECTION_NAME);
+        this.outbox = outbox;
+        this.concurrencyControl = concurrencyControl;
+        this.migration = migration;
+        this.storageConfiguration = storageConfiguration;
+        this.searchIndex = searchIndex;
+        this.guard = resilience.forRepository(COLLECTION_NAME);
     }
 
     @Override
     public Flux<MedicalRecord> findAll() {
-        return Mono.fromCallable(() -> {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
             ApiFuture<com.google.cloud.firestore.QuerySnapshot> future = medicalRecordsCollection.get();
             CompletableFuture<com.google.cloud.firestore.QuerySnapshot> completableFuture = 
                 new CompletableFuture<>();
@@ -70,13 +138,13 @@ public class ReactiveMedicalRecordRepositoryAdapter implements ReactiveMedicalRe
             }
             return Flux.fromIterable(records);
         })
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
 
     @Override
     public Mono<MedicalRecord> findById(UUID id) {
         String documentId = id.toString();
-        return Mono.fromCallable(() -> {
+        return guard.read(() -> Mono.fromCallable(() -> {
             ApiFuture<DocumentSnapshot> future = medicalRecordsCollection.document(documentId).get();
             CompletableFuture<DocumentSnapshot> completableFuture = new CompletableFuture<>();
             
@@ -93,7 +161,7 @@ public class ReactiveMedicalRecordRepositoryAdapter implements ReactiveMedicalRe
         .flatMap(future -> Mono.fromFuture(future))
         .map(this::mapToMedicalRecord)
         .filter(record -> record != null)
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
 
     @Override
@@ -102,283 +170,284 @@ public class ReactiveMedicalRecordRepositoryAdapter implements ReactiveMedicalRe
         return findById(UUID.fromString(medicalRecordId));
     }
 
+    /**
+     * Crea el historial con sus entradas iniciales en un único lote. El documento se
+     * crea con create(), de modo que nunca sobrescribe un historial existente (ni su
+     * revisión, contador y formato de entradas); las entradas posteriores se añaden
+     * con {@link #addEntry}. Si un reintento encuentra el historial ya creado para el
+     * mismo paciente, es el que guardó el intento anterior
+     */
     @Override
     public Mono<MedicalRecord> save(MedicalRecord medicalRecord) {
-        return Mono.fromCallable(() -> {
-            Map<String, Object> data = mapToFirestore(medicalRecord);
+        String recordId = medicalRecord.getId().toString();
+        return guard.execute(() -> Mono.defer(() -> {
             String documentId = medicalRecord.getId().toString();
+            List<MedicalEntry> entries = initialEntries(medicalRecord);
             
-            ApiFuture<?> future = medicalRecordsCollection.document(documentId).set(data);
-            CompletableFuture<Object> completableFuture = new CompletableFuture<>();
-            
-            future.addListener(() -> {
-                try {
-                    completableFuture.complete(future.get());
-                } catch (Exception e) {
-                    completableFuture.completeExceptionally(e);
+            WriteBatch batch = firestore.batch();
+            batch.create(medicalRecordsCollection.document(documentId), mapToFirestore(medicalRecord, entries.size()));
+            for (MedicalEntry entry : entries) {
+                batch.create(entriesCollection(documentId).document(entry.getId()),
+                        MedicalEntryDocuments.toDocument(documentId, entry));
+                searchIndex.index(batch, documentId, entry);
+                if (TREATMENT_ENTRY_TYPE.equalsIgnoreCase(entry.getType())) {
+                    Map<String, Object> payload = new HashMap<>();
+                    payload.put("medicalRecordId", documentId);
+                    payload.put("entryId", entry.getId());
+                    payload.put("doctorId", entry.getDoctorId());
+                    payload.put("description", entry.getDescription());
+                    outbox.append(batch, AGGREGATE_TYPE, documentId, TreatmentAddedEvent.class, payload);
                 }
-            }, Runnable::run);
-            
-            return completableFuture.thenApply(result -> medicalRecord);
+            }
+            return toMono(batch.commit());
         })
-        .flatMap(future -> Mono.fromFuture(future))
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()),
+            () -> guard.read(() -> toMono(medicalRecordsCollection.document(recordId).get()))
+                .map(document -> document.exists()
+                        && medicalRecord.getPatientId().toString().equals(document.getString(FIELD_PATIENT_ID))))
+        .onErrorMap(error -> DatastoreErrors.statusCode(error) == StatusCode.Code.ALREADY_EXISTS,
+                error -> new DomainException("El historial médico " + medicalRecord.getId()
+                        + " ya existe; sus entradas se añaden de una en una"))
+        .thenReturn(medicalRecord);
     }
 
     @Override
     public Mono<Void> deleteById(UUID id) {
         String documentId = id.toString();
-        return Mono.fromCallable(() -> {
-            ApiFuture<?> future = medicalRecordsCollection.document(documentId).delete();
-            CompletableFuture<Object> completableFuture = new CompletableFuture<>();
-            
-            future.addListener(() -> {
-                try {
-                    completableFuture.complete(future.get());
-                } catch (Exception e) {
-                    completableFuture.completeExceptionally(e);
+        // Firestore no borra las subcolecciones con el documento: primero se borran las
+        // entradas, cada una en un lote con sus postings del índice de búsqueda
+        return guard.executeIdempotent(() -> toMono(entriesCollection(documentId).get()))
+            .flatMapIterable(QuerySnapshot::getDocuments)
+            .concatMap(document -> {
+                WriteBatch batch = firestore.batch();
+                MedicalEntry entry = MedicalEntryDocuments.fromDocument(document);
+                if (entry != null) {
+                    searchIndex.unindex(batch, documentId, entry);
                 }
-            }, Runnable::run);
-            
-            return completableFuture;
-        })
-        .flatMap(future -> Mono.fromFuture(future))
-        .then()
-        .subscribeOn(Schedulers.boundedElastic());
+                batch.delete(document.getReference());
+                return guard.executeIdempotent(() -> toMono(batch.commit()));
+            })
+            .then(guard.executeIdempotent(() -> toMono(medicalRecordsCollection.document(documentId).delete())))
+            .then()
+            .subscribeOn(Schedulers.boundedElastic());
     }
 
     @Override
     public Mono<MedicalEntry> addEntry(MedicalRecordId medicalRecordId, MedicalEntry entry) {
         String documentId = medicalRecordId.getValue();
-        return Mono.fromCallable(() -> {
-            Map<String, Object> entryData = mapEntryToFirestore(entry);
-            
-            // Crear una estructura para actualizar el array de entradas
-            Map<String, Object> update = new HashMap<>();
-            update.put("entries", FieldValue.arrayUnion(entryData));
-            update.put("lastUpdated", LocalDate.now().toString());
-            
-            ApiFuture<?> future = medicalRecordsCollection.document(documentId)
-                .set(update, SetOptions.merge());
-            
-            CompletableFuture<Object> completableFuture = new CompletableFuture<>();
-            future.addListener(() -> {
-                try {
-                    completableFuture.complete(future.get());
-                } catch (Exception e) {
-                    completableFuture.completeExceptionally(e);
+        DocumentReference recordReference = medicalRecordsCollection.document(documentId);
+        
+        return migration.ensureMigrated(documentId)
+            .then(Mono.defer(() -> {
+                Map<String, Object> update = new HashMap<>();
+                update.put(FIELD_REVISION, FieldValue.increment(1));
+                update.put(MedicalEntryLayoutMigration.FIELD_ENTRY_COUNT, FieldValue.increment(1));
+                update.put(MedicalEntryLayoutMigration.FIELD_LAYOUT, MedicalEntryLayoutMigration.LAYOUT_SUBCOLLECTION);
+                update.put("lastUpdated", LocalDate.now().toString());
+                
+                // La entrada, sus postings, el contador del historial y su evento se confirman en el mismo lote
+                WriteBatch batch = firestore.batch();
+                batch.create(entriesCollection(documentId).document(entry.getId()),
+                        MedicalEntryDocuments.toDocument(documentId, entry));
+                searchIndex.index(batch, documentId, entry);
+                batch.set(recordReference, update, SetOptions.merge());
+                if (TREATMENT_ENTRY_TYPE.equalsIgnoreCase(entry.getType())) {
+                    Map<String, Object> payload = new HashMap<>();
+                    payload.put("medicalRecordId", documentId);
+                    payload.put("entryId", entry.getId());
+                    payload.put("doctorId", entry.getDoctorId());
+                    payload.put("description", entry.getDescription());
+                    outbox.append(batch, AGGREGATE_TYPE, documentId, TreatmentAddedEvent.class, payload);
                 }
-            }, Runnable::run);
-            
-            return completableFuture.thenApply(result -> entry);
-        })
-        .flatMap(future -> Mono.fromFuture(future))
-        .subscribeOn(Schedulers.boundedElastic());
+                // La entrada tiene un ID propio: si un reintento la encuentra ya creada,
+                // el lote completo lo aplicó el intento anterior
+                return guard.execute(() -> toMono(batch.commit()),
+                        () -> guard.read(() -> toMono(entriesCollection(documentId).document(entry.getId()).get()))
+                                .map(DocumentSnapshot::exists));
+            }))
+            .thenReturn(entry)
+            .subscribeOn(Schedulers.boundedElastic());
     }
 
     @Override
     public Flux<MedicalEntry> findAllEntries(MedicalRecordId medicalRecordId) {
-        return findById(UUID.fromString(medicalRecordId.getValue()))
-            .flatMapMany(record -> {
-                List<MedicalEntry> allEntries = new ArrayList<>();
-                
-                // Convertir notas a MedicalEntry
-                for (MedicalRecord.MedicalNote note : record.getNotes()) {
-                    // Crear una MedicalEntry a partir de una nota
-                    MedicalEntry entryFromNote = new MedicalEntry(
-                        note.getId().toString(),
-                        "NOTA",
-                        note.getContent(),
-                        note.getDoctorId().toString(),
-                        note.getCreatedAt()
-                    );
-                    allEntries.add(entryFromNote);
-                }
-                
-                // Convertir diagnósticos a MedicalEntry
-                for (MedicalRecord.Diagnosis diagnosis : record.getDiagnoses()) {
-                    // Crear una MedicalEntry a partir de un diagnóstico
-                    MedicalEntry entryFromDiagnosis = new MedicalEntry(
-                        diagnosis.getId().toString(),
-                        "DIAGNOSTICO",
-                        diagnosis.getDescription(),
-                        diagnosis.getDoctorId().toString(),
-                        diagnosis.getCreatedAt()
-                    );
-                    allEntries.add(entryFromDiagnosis);
-                }
-                
-                // Convertir tratamientos a MedicalEntry
-                for (MedicalRecord.Treatment treatment : record.getTreatments()) {
-                    // Crear una MedicalEntry a partir de un tratamiento
-                    MedicalEntry entryFromTreatment = new MedicalEntry(
-                        treatment.getId().toString(),
-                        "TRATAMIENTO",
-                        treatment.getDescription(),
-                        treatment.getDoctorId().toString(),
-                        treatment.getPrescriptionDate()
-                    );
-                    allEntries.add(entryFromTreatment);
-                }
-                
-                return Flux.fromIterable(allEntries);
-            })
-            .subscribeOn(Schedulers.boundedElastic());
+        String documentId = medicalRecordId.getValue();
+        return queryEntries(documentId, entriesCollection(documentId)
+                .orderBy(MedicalEntryDocuments.FIELD_RECORDED_AT, Query.Direction.DESCENDING));
     }
 
     @Override
     public Flux<MedicalEntry> findEntriesByDate(MedicalRecordId medicalRecordId, LocalDate date) {
-        return findAllEntries(medicalRecordId)
-            .filter(entry -> entry.getRecordedAt().toLocalDate().equals(date))
-            .subscribeOn(Schedulers.boundedElastic());
+        String documentId = medicalRecordId.getValue();
+        return queryEntries(documentId, entriesCollection(documentId)
+                .whereGreaterThanOrEqualTo(MedicalEntryDocuments.FIELD_RECORDED_AT,
+                        MedicalEntryDocuments.formatRecordedAt(date.atStartOfDay()))
+                .whereLessThan(MedicalEntryDocuments.FIELD_RECORDED_AT,
+                        MedicalEntryDocuments.formatRecordedAt(date.plusDays(1).atStartOfDay()))
+                .orderBy(MedicalEntryDocuments.FIELD_RECORDED_AT, Query.Direction.DESCENDING));
     }
 
     @Override
     public Flux<MedicalEntry> findEntriesByDoctor(MedicalRecordId medicalRecordId, String doctorId) {
-        return findAllEntries(medicalRecordId)
-            .filter(entry -> entry.getDoctorId() != null && 
-                    entry.getDoctorId().equals(doctorId))
-            .subscribeOn(Schedulers.boundedElastic());
+        String documentId = medicalRecordId.getValue();
+        return queryEntries(documentId, entriesCollection(documentId)
+                .whereEqualTo(MedicalEntryDocuments.FIELD_DOCTOR_ID, doctorId)
+                .orderBy(MedicalEntryDocuments.FIELD_RECORDED_AT, Query.Direction.DESCENDING));
     }
 
     @Override
-    public Mono<Boolean> updateEntry(MedicalRecordId medicalRecordId, String entryId, MedicalEntry entry) {
-        return findById(UUID.fromString(medicalRecordId.getValue()))
-            .flatMap(record -> {
-                boolean updated = false;
-                
-                // Buscar en notas
-                List<MedicalRecord.MedicalNote> notes = new ArrayList<>(record.getNotes());
-                for (int i = 0; i < notes.size(); i++) {
-                    if (notes.get(i).getId().toString().equals(entryId)) {
-                        // Actualizar nota existente (crear una nueva con el mismo ID)
-                        MedicalRecord.MedicalNote updatedNote = new MedicalRecord.MedicalNote(
-                            entry.getDescription(),
-                            UUID.fromString(entry.getDoctorId())
-                        );
-                        // En la vida real, necesitaríamos una manera de establecer el ID
-                        // Aquí simplemente eliminamos la antigua y añadimos la nueva
-                        notes.remove(i);
-                        record.getNotes().clear();
-                        record.getNotes().addAll(notes);
-                        record.addNote(updatedNote);
-                        updated = true;
-                        break;
-                    }
+    public Mono<MedicalEntryPage> findEntries(MedicalRecordId medicalRecordId, MedicalEntryQuery entryQuery) {
+        String documentId = medicalRecordId.getValue();
+        int limit = entryQuery.getLimit() > 0
+                ? Math.min(entryQuery.getLimit(), storageConfiguration.getMaxPageSize())
+                : storageConfiguration.getDefaultPageSize();
+        
+        return migration.ensureMigrated(documentId)
+            .then(Mono.defer(() -> {
+                Query query = entriesCollection(documentId);
+                if (entryQuery.getDoctorId() != null) {
+                    query = query.whereEqualTo(MedicalEntryDocuments.FIELD_DOCTOR_ID, entryQuery.getDoctorId());
                 }
-                
-                // Si no se encontró en notas, buscar en diagnósticos
-                if (!updated) {
-                    List<MedicalRecord.Diagnosis> diagnoses = new ArrayList<>(record.getDiagnoses());
-                    for (int i = 0; i < diagnoses.size(); i++) {
-                        if (diagnoses.get(i).getId().toString().equals(entryId)) {
-                            // Actualizar diagnóstico existente
-                            MedicalRecord.Diagnosis updatedDiagnosis = new MedicalRecord.Diagnosis(
-                                entry.getDescription(),
-                                UUID.fromString(entry.getDoctorId())
-                            );
-                            diagnoses.remove(i);
-                            record.getDiagnoses().clear();
-                            record.getDiagnoses().addAll(diagnoses);
-                            record.addDiagnosis(updatedDiagnosis);
-                            updated = true;
-                            break;
-                        }
-                    }
+                if (entryQuery.getType() != null) {
+                    query = query.whereEqualTo(MedicalEntryDocuments.FIELD_TYPE, entryQuery.getType());
                 }
-                
-                // Si no se encontró en diagnósticos, buscar en tratamientos
-                if (!updated) {
-                    List<MedicalRecord.Treatment> treatments = new ArrayList<>(record.getTreatments());
-                    for (int i = 0; i < treatments.size(); i++) {
-                        if (treatments.get(i).getId().toString().equals(entryId)) {
-                            // Actualizar tratamiento existente
-                            MedicalRecord.Treatment updatedTreatment = new MedicalRecord.Treatment(
-                                entry.getDescription(),
-                                UUID.fromString(entry.getDoctorId())
-                            );
-                            // Conservar estado de completado
-                            updatedTreatment.setCompleted(treatments.get(i).isCompleted());
-                            treatments.remove(i);
-                            record.getTreatments().clear();
-                            record.getTreatments().addAll(treatments);
-                            record.addTreatment(updatedTreatment);
-                            updated = true;
-                            break;
-                        }
-                    }
+                if (entryQuery.getFrom() != null) {
+                    query = query.whereGreaterThanOrEqualTo(MedicalEntryDocuments.FIELD_RECORDED_AT,
+                            MedicalEntryDocuments.formatRecordedAt(entryQuery.getFrom()));
                 }
-                
-                if (!updated) {
-                    return Mono.just(false);
+                if (entryQuery.getTo() != null) {
+                    query = query.whereLessThan(MedicalEntryDocuments.FIELD_RECORDED_AT,
+                            MedicalEntryDocuments.formatRecordedAt(entryQuery.getTo()));
                 }
+                query = query
+                        .orderBy(MedicalEntryDocuments.FIELD_RECORDED_AT, Query.Direction.DESCENDING)
+                        .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+                if (entryQuery.getCursor() != null && !entryQuery.getCursor().isEmpty()) {
+                    String[] position = MedicalEntryDocuments.decodeCursor(entryQuery.getCursor());
+                    query = query.startAfter(position[0], position[1]);
+                }
+                
+                // Se lee una entrada de más para saber si hay página siguiente
+                Query pageQuery = query.limit(limit + 1);
+                return guard.executeIdempotent(() -> toMono(pageQuery.get()));
+            }))
+            .map(snapshot -> {
+                List<QueryDocumentSnapshot> documents = snapshot.getDocuments();
+                boolean hasMore = documents.size() > limit;
+                List<QueryDocumentSnapshot> pageDocuments = hasMore ? documents.subList(0, limit) : documents;
                 
-                return save(record).map(savedRecord -> true);
+                List<MedicalEntry> entries = new ArrayList<>();
+                for (QueryDocumentSnapshot document : pageDocuments) {
+                    MedicalEntry entry = MedicalEntryDocuments.fromDocument(document);
+                    if (entry != null) {
+                        entries.add(entry);
+                    }
+                }
+                String nextCursor = hasMore
+                        ? MedicalEntryDocuments.encodeCursor(pageDocuments.get(pageDocuments.size() - 1))
+                        : null;
+                return new MedicalEntryPage(entries, nextCursor);
             })
-            .defaultIfEmpty(false)
             .subscribeOn(Schedulers.boundedElastic());
     }
 
+    @Override
+    public Mono<Boolean> updateEntry(MedicalRecordId medicalRecordId, String entryId, MedicalEntry entry) {
+        String documentId = medicalRecordId.getValue();
+        return modifyEntry(medicalRecordId, entryId, (batch, snapshot) -> {
+            // Sustituir los datos conservando el ID de la entrada
+            Map<String, Object> updatedEntry = MedicalEntryDocuments.toDocument(documentId, entry);
+            updatedEntry.put(MedicalEntryDocuments.FIELD_ID, entryId);
+            if (entry.getNotes() == null) {
+                updatedEntry.put(MedicalEntryDocuments.FIELD_NOTES, FieldValue.delete());
+            }
+            batch.update(snapshot.getReference(), updatedEntry, Precondition.updatedAt(snapshot.getUpdateTime()));
+            
+            MedicalEntry indexedEntry = new MedicalEntry(entryId, entry.getType(), entry.getDescription(),
+                    entry.getDoctorId(), MedicalEntryDocuments.parseRecordedAt(
+                            (String) updatedEntry.get(MedicalEntryDocuments.FIELD_RECORDED_AT)));
+            indexedEntry.addNotes(entry.getNotes());
+            searchIndex.reindex(batch, documentId, MedicalEntryDocuments.fromDocument(snapshot), indexedEntry);
+            return 0;
+        });
+    }
+
     @Override
     public Mono<Boolean> deleteEntry(MedicalRecordId medicalRecordId, String entryId) {
-        return findById(UUID.fromString(medicalRecordId.getValue()))
-            .flatMap(record -> {
-                boolean deleted = false;
-                
-                // Intenta eliminar de notas
-                List<MedicalRecord.MedicalNote> notes = new ArrayList<>(record.getNotes());
-                for (int i = 0; i < notes.size(); i++) {
-                    if (notes.get(i).getId().toString().equals(entryId)) {
-                        notes.remove(i);
-                        record.getNotes().clear();
-                        record.getNotes().addAll(notes);
-                        deleted = true;
-                        break;
-                    }
-                }
-                
-                // Si no se encontró en notas, intenta eliminar de diagnósticos
-                if (!deleted) {
-                    List<MedicalRecord.Diagnosis> diagnoses = new ArrayList<>(record.getDiagnoses());
-                    for (int i = 0; i < diagnoses.size(); i++) {
-                        if (diagnoses.get(i).getId().toString().equals(entryId)) {
-                            diagnoses.remove(i);
-                            record.getDiagnoses().clear();
-                            record.getDiagnoses().addAll(diagnoses);
-                            deleted = true;
-                            break;
+        String documentId = medicalRecordId.getValue();
+        return modifyEntry(medicalRecordId, entryId, (batch, snapshot) -> {
+            batch.delete(snapshot.getReference(), Precondition.updatedAt(snapshot.getUpdateTime()));
+            MedicalEntry previousEntry = MedicalEntryDocuments.fromDocument(snapshot);
+            if (previousEntry != null) {
+                searchIndex.unindex(batch, documentId, previousEntry);
+            }
+            return -1;
+        });
+    }
+
+    /**
+     * Modifica una entrada solo si no cambió desde que se leyó; si otro usuario la
+     * modificó, se vuelve a leer y se reaplica la modificación. El historial se
+     * actualiza en el mismo lote (revisión, contador y fecha de actualización)
+     * @param medicalRecordId ID del historial médico
+     * @param entryId ID de la entrada
+     * @param modification Añade al lote la escritura de la entrada y devuelve la variación del contador
+     * @return Mono con true si la entrada existía y se modificó
+     */
+    private Mono<Boolean> modifyEntry(MedicalRecordId medicalRecordId, String entryId,
+                                      BiFunction<WriteBatch, DocumentSnapshot, Integer> modification) {
+        String documentId = medicalRecordId.getValue();
+        DocumentReference entryReference = entriesCollection(documentId).document(entryId);
+        
+        return migration.ensureMigrated(documentId)
+            .then(concurrencyControl.execute(ENTRIES_RESOURCE, entryId, () ->
+                guard.read(() -> toMono(entryReference.get()))
+                    .flatMap(snapshot -> {
+                        if (!snapshot.exists()) {
+                            return Mono.just(false);
                         }
-                    }
-                }
-                
-                // Si no se encontró en diagnósticos, intenta eliminar de tratamientos
-                if (!deleted) {
-                    List<MedicalRecord.Treatment> treatments = new ArrayList<>(record.getTreatments());
-                    for (int i = 0; i < treatments.size(); i++) {
-                        if (treatments.get(i).getId().toString().equals(entryId)) {
-                            treatments.remove(i);
-                            record.getTreatments().clear();
-                            record.getTreatments().addAll(treatments);
-                            deleted = true;
-                            break;
+                        
+                        WriteBatch batch = firestore.batch();
+                        int countDelta = modification.apply(batch, snapshot);
+                        
+                        Map<String, Object> update = new HashMap<>();
+                        update.put(FIELD_REVISION, FieldValue.increment(1));
+                        if (countDelta != 0) {
+                            update.put(MedicalEntryLayoutMigration.FIELD_ENTRY_COUNT, FieldValue.increment(countDelta));
                         }
-                    }
-                }
-                
-                if (!deleted) {
-                    return Mono.just(false);
-                }
-                
-                return save(record).map(savedRecord -> true);
-            })
-            .defaultIfEmpty(false)
+                        update.put("lastUpdated", LocalDate.now().toString());
+                        String writeId = UUID.randomUUID().toString();
+                        update.put(FIELD_LAST_WRITE_ID, writeId);
+                        batch.set(medicalRecordsCollection.document(documentId), update, SetOptions.merge());
+                        
+                        return guard.execute(() -> toMono(batch.commit()),
+                                () -> guard.read(() -> toMono(medicalRecordsCollection.document(documentId).get()))
+                                        .map(document -> writeId.equals(document.getString(FIELD_LAST_WRITE_ID))))
+                                .thenReturn(true);
+                    })))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Ejecuta una consulta sobre la subcolección de entradas de un historial ya migrado
+     */
+    private Flux<MedicalEntry> queryEntries(String documentId, Query query) {
+        return migration.ensureMigrated(documentId)
+            .then(guard.executeIdempotent(() -> toMono(query.get())))
+            .flatMapIterable(QuerySnapshot::getDocuments)
+            .map(MedicalEntryDocuments::fromDocument)
+            .filter(entry -> entry != null)
             .subscribeOn(Schedulers.boundedElastic());
     }
 
+    private CollectionReference entriesCollection(String documentId) {
+        return medicalRecordsCollection.document(documentId).collection(MedicalEntryDocuments.SUBCOLLECTION_NAME);
+    }
+
     @Override
     public Mono<Boolean> addAllergy(MedicalRecordId medicalRecordId, String allergy) {
         String documentId = medicalRecordId.getValue();
-        return Mono.fromCallable(() -> {
+        return guard.executeIdempotent(() -> Mono.fromCallable(() -> {
             Map<String, Object> update = new HashMap<>();
             update.put("allergies", FieldValue.arrayUnion(allergy));
             update.put("lastUpdated", LocalDate.now().toString());
@@ -398,13 +467,13 @@ public class ReactiveMedicalRecordRepositoryAdapter implements ReactiveMedicalRe
             return completableFuture.thenApply(result -> true);
         })
         .flatMap(future -> Mono.fromFuture(future))
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
 
     @Override
     public Mono<Boolean> addMedicalCondition(MedicalRecordId medicalRecordId, String condition) {
         String documentId = medicalRecordId.getValue();
-        return Mono.fromCallable(() -> {
+        return guard.executeIdempotent(() -> Mono.fromCallable(() -> {
             Map<String, Object> update = new HashMap<>();
             update.put("medicalConditions", FieldValue.arrayUnion(condition));
             update.put("lastUpdated", LocalDate.now().toString());
@@ -424,40 +493,99 @@ public class ReactiveMedicalRecordRepositoryAdapter implements ReactiveMedicalRe
             return completableFuture.thenApply(result -> true);
         })
         .flatMap(future -> Mono.fromFuture(future))
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
     
     // Métodos auxiliares para mapeo
     
+    /**
+     * Convierte el documento del historial; las entradas viven en la subcolección y
+     * se leen aparte, así que el agregado se devuelve sin ellas
+     */
     private MedicalRecord mapToMedicalRecord(DocumentSnapshot document) {
         if (document == null || !document.exists()) {
             return null;
         }
         
+        String patientId = document.getString(FIELD_PATIENT_ID);
+        if (patientId == null) {
+            logger.warn("Historial médico {} sin paciente", document.getId());
+            return null;
+        }
+        
         try {
-            // Implementar lógica de mapeo de Firestore a MedicalRecord
-            // Este es un ejemplo simplificado, ajustar según la estructura real del modelo
-            // return new MedicalRecord(...); 
-            
-            return null; // Reemplazar con implementación real
-        } catch (Exception e) {
+            LocalDateTime createdAt = parseDateTime(document.getString(FIELD_CREATED_AT));
+            LocalDateTime lastUpdatedAt = parseDateTime(document.getString(FIELD_LAST_UPDATED_AT));
+            return new MedicalRecord(UUID.fromString(document.getId()), UUID.fromString(patientId),
+                    createdAt, lastUpdatedAt != null ? lastUpdatedAt : createdAt,
+                    new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        } catch (IllegalArgumentException e) {
+            logger.warn("No se pudo mapear el historial médico {}: {}", document.getId(), e.getMessage());
             return null;
         }
     }
     
-    private Map<String, Object> mapToFirestore(MedicalRecord record) {
-        Map<String, Object> data = new HashMap<>();
-        // Implementar lógica de mapeo de MedicalRecord a formato Firestore
-        // Este es un ejemplo simplificado, ajustar según la estructura real del modelo
-        
-        return data;
+    private LocalDateTime parseDateTime(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
     
-    private Map<String, Object> mapEntryToFirestore(MedicalEntry entry) {
+    /**
+     * Campos del documento de un historial nuevo: ya nace con el formato de subcolección
+     */
+    private Map<String, Object> mapToFirestore(MedicalRecord record, int entryCount) {
         Map<String, Object> data = new HashMap<>();
-        // Implementar lógica de mapeo de MedicalEntry a formato Firestore
-        // Este es un ejemplo simplificado, ajustar según la estructura real del modelo
-        
+        data.put("id", record.getId().toString());
+        data.put(FIELD_PATIENT_ID, record.getPatientId().toString());
+        data.put(FIELD_CREATED_AT, record.getCreatedAt().toString());
+        data.put(FIELD_LAST_UPDATED_AT, record.getLastUpdatedAt().toString());
+        data.put("lastUpdated", record.getLastUpdatedAt().toLocalDate().toString());
+        data.put(FIELD_REVISION, 0L);
+        data.put(MedicalEntryLayoutMigration.FIELD_ENTRY_COUNT, entryCount);
+        data.put(MedicalEntryLayoutMigration.FIELD_LAYOUT, MedicalEntryLayoutMigration.LAYOUT_SUBCOLLECTION);
         return data;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Entradas que el agregado trae al crearse (notas, diagnósticos y tratamientos)
+     */
+    private List<MedicalEntry> initialEntries(MedicalRecord record) {
+        List<MedicalEntry> entries = new ArrayList<>();
+        for (MedicalRecord.MedicalNote note : record.getNotes()) {
+            entries.add(new MedicalEntry(note.getId().toString(), "NOTA", note.getContent(),
+                    String.valueOf(note.getDoctorId()), note.getCreatedAt()));
+        }
+        for (MedicalRecord.Diagnosis diagnosis : record.getDiagnoses()) {
+            entries.add(new MedicalEntry(diagnosis.getId().toString(), "DIAGNOSTICO", diagnosis.getDescription(),
+                    String.valueOf(diagnosis.getDoctorId()), diagnosis.getCreatedAt()));
+        }
+        for (MedicalRecord.Treatment treatment : record.getTreatments()) {
+            entries.add(new MedicalEntry(treatment.getId().toString(), TREATMENT_ENTRY_TYPE, treatment.getDescription(),
+                    String.valueOf(treatment.getDoctorId()), treatment.getPrescriptionDate()));
+        }
+        return entries;
+    }
+    
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+            
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+            
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+}
@@ -1,14 +1,24 @@
 package odoonto.infrastructure.persistence.reactive;
 
+import odoonto.application.exceptions.ConcurrentUpdateException;
+import odoonto.application.port.out.LesionIndexQuery;
+import odoonto.application.port.out.LesionPatientPage;
+import odoonto.application.port.out.OdontogramPage;
 import odoonto.application.port.out.ReactiveOdontogramRepository;
 import odoonto.domain.model.aggregates.Odontogram;
-import odoonto.domain.model.entities.Lesion;
-import odoonto.domain.model.entities.Tooth;
-import odoonto.domain.model.entities.Treatment;
 import odoonto.domain.model.valueobjects.LesionType;
 import odoonto.domain.model.valueobjects.OdontogramId;
 import odoonto.domain.model.valueobjects.PatientId;
+import odoonto.infrastructure.persistence.concurrency.OptimisticConcurrencyControl;
+import odoonto.infrastructure.persistence.resilience.FirestoreResilience;
+import odoonto.infrastructure.persistence.resilience.RepositoryGuard;
+import odoonto.infrastructure.persistence.statistics.LesionCounts;
+import odoonto.infrastructure.persistence.statistics.LesionIndexEntries;
+import odoonto.infrastructure.persistence.statistics.LesionStatisticsView;
+import odoonto.infrastructure.persistence.statistics.LesionTypeIndex;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -16,8 +26,14 @@ import reactor.core.scheduler.Schedulers;
 
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
 import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
 import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
 
 import com.google.api.core.ApiFuture;
 
@@ -25,31 +41,69 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.UUID;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Adaptador que implementa la interfaz reactiva para el repositorio de odontogramas.
- * Implementa directamente las operaciones reactivas con Firestore.
+ * Implementa directamente las operaciones reactivas con Firestore. Cada escritura
+ * suma en el mismo lote su delta de lesiones a la vista de estadísticas y actualiza
+ * las entradas del índice por tipo de lesión que cambian.
  */
 @Component
 public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOdontogramRepositoryAdapter.class);
+
+    private static final String COLLECTION_NAME = "odontograms";
+    
+    /**
+     * Campo con la versión de concurrencia optimista; "version" ya identifica
+     * las copias históricas
+     */
+    private static final String FIELD_REVISION = "revision";
+    
+    /**
+     * Marca única de cada escritura; un reintento la compara para saber si el
+     * intento anterior ya se aplicó
+     */
+    private static final String FIELD_WRITE_ID = "writeId";
+
+    private final Firestore firestore;
     private final CollectionReference odontogramsCollection;
     private final CollectionReference historicalOdontogramsCollection;
+    private final OptimisticConcurrencyControl concurrencyControl;
+    private final LesionStatisticsView lesionStatistics;
+    private final LesionTypeIndex lesionTypeIndex;
+    private final RepositoryGuard guard;
 
     /**
      * Constructor que recibe la instancia de Firestore
      * @param firestore Instancia de Firestore para acceder a la base de datos
+     * @param concurrencyControl Control de las escrituras condicionadas y sus reintentos
+     * @param lesionStatistics Vista de estadísticas que se actualiza con cada escritura
+     * @param lesionTypeIndex Índice por tipo de lesión que se actualiza con cada escritura
+     * @param resilience Protección de las llamadas a Firestore
      */
-    public ReactiveOdontogramRepositoryAdapter(Firestore firestore) {
-        this.odontogramsCollection = firestore.collection("odontograms");
+    public ReactiveOdontogramRepositoryAdapter(Firestore firestore,
+                                               OptimisticConcurrencyControl concurrencyControl,
+                                               LesionStatisticsView lesionStatistics,
+                                               LesionTypeIndex lesionTypeIndex,
+                                               FirestoreResilience resilience) {
+        this.firestore = firestore;
+        this.odontogramsCollection = firestore.collection(COLLECTION_NAME);
         this.historicalOdontogramsCollection = firestore.collection("historical_odontograms");
+        this.concurrencyControl = concurrencyControl;
+        this.lesionStatistics = lesionStatistics;
+        this.lesionTypeIndex = lesionTypeIndex;
+        this.guard = resilience.forRepository(COLLECTION_NAME);
     }
 
     @Override
     public Flux<Odontogram> findAll() {
-        return Mono.fromCallable(() -> {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
             ApiFuture<QuerySnapshot> future = odontogramsCollection.get();
             CompletableFuture<QuerySnapshot> completableFuture = new CompletableFuture<>();
             
@@ -74,12 +128,40 @@ public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRe
             }
             return Flux.fromIterable(odontograms);
         })
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    @Override
+    public Mono<OdontogramPage> findPage(String cursor, int limit) {
+        int pageSize = Math.max(1, limit);
+        Query query = odontogramsCollection.orderBy(FieldPath.documentId());
+        if (cursor != null && !cursor.isEmpty()) {
+            query = query.startAfter(cursor);
+        }
+        
+        // Se lee un odontograma de más para saber si hay página siguiente
+        Query pageQuery = query.limit(pageSize + 1);
+        return guard.executeIdempotent(() -> toMono(pageQuery.get()))
+            .map(querySnapshot -> {
+                List<QueryDocumentSnapshot> documents = querySnapshot.getDocuments();
+                List<Odontogram> odontograms = new ArrayList<>();
+                for (int i = 0; i < Math.min(pageSize, documents.size()); i++) {
+                    Odontogram odontogram = mapToOdontogram(documents.get(i));
+                    if (odontogram != null) {
+                        odontograms.add(odontogram);
+                    }
+                }
+                String nextCursor = documents.size() > pageSize
+                    ? documents.get(pageSize - 1).getId()
+                    : null;
+                return new OdontogramPage(odontograms, nextCursor);
+            })
+            .subscribeOn(Schedulers.boundedElastic());
     }
 
     @Override
     public Mono<Odontogram> findById(OdontogramId id) {
-        return Mono.fromCallable(() -> {
+        return guard.read(() -> Mono.fromCallable(() -> {
             ApiFuture<DocumentSnapshot> future = odontogramsCollection.document(id.getValue()).get();
             CompletableFuture<DocumentSnapshot> completableFuture = new CompletableFuture<>();
             
@@ -96,7 +178,7 @@ public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRe
         .flatMap(future -> Mono.fromFuture(future))
         .map(this::mapToOdontogram)
         .filter(odontogram -> odontogram != null)
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
 
     @Override
@@ -107,61 +189,123 @@ public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRe
 
     @Override
     public Mono<Odontogram> save(Odontogram odontogram) {
-        return Mono.fromCallable(() -> {
-            Map<String, Object> data = mapToFirestore(odontogram);
-            String documentId = odontogram.getId().getValue();
-            
-            ApiFuture<?> future = odontogramsCollection.document(documentId).set(data);
-            CompletableFuture<Object> completableFuture = new CompletableFuture<>();
-            
-            future.addListener(() -> {
-                try {
-                    completableFuture.complete(future.get());
-                } catch (Exception e) {
-                    completableFuture.completeExceptionally(e);
-                }
-            }, Runnable::run);
-            
-            return completableFuture.thenApply(result -> odontogram);
-        })
-        .flatMap(future -> Mono.fromFuture(future))
-        .subscribeOn(Schedulers.boundedElastic());
+        String documentId = odontogram.getId().getValue();
+        DocumentReference documentReference = odontogramsCollection.document(documentId);
+        
+        return concurrencyControl.executeOnce(COLLECTION_NAME, documentId, () ->
+                guard.read(() -> toMono(documentReference.get()))
+                    .flatMap(snapshot -> {
+                        long expectedVersion = odontogram.getVersion();
+                        if (snapshot.exists() && readRevision(snapshot) != expectedVersion) {
+                            return Mono.error(new ConcurrentUpdateException(COLLECTION_NAME, documentId));
+                        }
+                        
+                        Map<String, Object> data = mapToFirestore(odontogram);
+                        data.put(FIELD_REVISION, expectedVersion + 1);
+                        String writeId = UUID.randomUUID().toString();
+                        data.put(FIELD_WRITE_ID, writeId);
+                        LesionCounts previous = snapshot.exists() ? LesionCounts.of(snapshot) : LesionCounts.empty();
+                        LesionIndexEntries previousEntries = snapshot.exists()
+                            ? LesionIndexEntries.of(snapshot) : LesionIndexEntries.empty();
+                        
+                        // Solo se crea si no existe y solo se actualiza si nadie escribió desde la lectura
+                        WriteBatch batch = firestore.batch();
+                        if (snapshot.exists()) {
+                            batch.update(documentReference, data, Precondition.updatedAt(snapshot.getUpdateTime()));
+                        } else {
+                            batch.create(documentReference, data);
+                        }
+                        lesionStatistics.apply(batch, LesionCounts.of(odontogram).minus(previous));
+                        lesionTypeIndex.apply(batch, documentId, patientIdOf(odontogram),
+                                previousEntries, LesionIndexEntries.of(odontogram));
+                        return lesionStatistics.commit(() -> guard.execute(() -> toMono(batch.commit()),
+                                () -> isWrittenBy(documentReference, writeId))).then(Mono.fromCallable(() -> {
+                            odontogram.setVersion(expectedVersion + 1);
+                            return odontogram;
+                        }));
+                    }))
+            .subscribeOn(Schedulers.boundedElastic());
     }
 
     @Override
-    public Mono<Void> deleteById(OdontogramId id) {
-        return Mono.fromCallable(() -> {
-            ApiFuture<?> future = odontogramsCollection.document(id.getValue()).delete();
-            CompletableFuture<Object> completableFuture = new CompletableFuture<>();
-            
-            future.addListener(() -> {
-                try {
-                    completableFuture.complete(future.get());
-                } catch (Exception e) {
-                    completableFuture.completeExceptionally(e);
-                }
-            }, Runnable::run);
-            
-            return completableFuture;
-        })
-        .flatMap(future -> Mono.fromFuture(future))
-        .then()
-        .subscribeOn(Schedulers.boundedElastic());
+    public Mono<Odontogram> update(OdontogramId id, Consumer<Odontogram> mutation) {
+        String documentId = id.getValue();
+        DocumentReference documentReference = odontogramsCollection.document(documentId);
+        
+        return concurrencyControl.execute(COLLECTION_NAME, documentId, () ->
+                guard.read(() -> toMono(documentReference.get()))
+                    .flatMap(snapshot -> {
+                        Odontogram odontogram = mapToOdontogram(snapshot);
+                        if (odontogram == null) {
+                            return Mono.empty();
+                        }
+                        
+                        // Copia histórica del estado leído, confirmada junto con el cambio
+                        String versionId = System.currentTimeMillis() + "";
+                        Map<String, Object> historicalData = mapToFirestore(odontogram);
+                        historicalData.put("version", versionId);
+                        historicalData.put("originalId", documentId);
+                        LesionCounts previous = LesionCounts.of(odontogram);
+                        LesionIndexEntries previousEntries = LesionIndexEntries.of(odontogram);
+                        
+                        mutation.accept(odontogram);
+                        odontogram.setVersion(odontogram.getVersion() + 1);
+                        
+                        Map<String, Object> data = mapToFirestore(odontogram);
+                        String writeId = UUID.randomUUID().toString();
+                        data.put(FIELD_WRITE_ID, writeId);
+                        
+                        WriteBatch batch = firestore.batch();
+                        batch.set(historicalOdontogramsCollection.document(documentId + "_v" + versionId), historicalData);
+                        batch.update(documentReference, data, Precondition.updatedAt(snapshot.getUpdateTime()));
+                        lesionStatistics.apply(batch, LesionCounts.of(odontogram).minus(previous));
+                        lesionTypeIndex.apply(batch, documentId, patientIdOf(odontogram),
+                                previousEntries, LesionIndexEntries.of(odontogram));
+                        return lesionStatistics.commit(() -> guard.execute(() -> toMono(batch.commit()),
+                                () -> isWrittenBy(documentReference, writeId))).thenReturn(odontogram);
+                    }))
+            .subscribeOn(Schedulers.boundedElastic());
     }
 
     @Override
-    public Flux<Odontogram> findByLesionType(LesionType lesionType) {
-        // Firestore no permite búsquedas directas en arrays anidados, así que debemos obtener todos
-        // y filtrar en memoria
-        return findAll()
-            .filter(odontogram -> containsLesionType(odontogram, lesionType))
+    public Mono<Void> deleteById(OdontogramId id) {
+        String documentId = id.getValue();
+        DocumentReference documentReference = odontogramsCollection.document(documentId);
+        
+        // Se lee antes de borrar para restar sus lesiones de las estadísticas y del índice
+        return concurrencyControl.execute(COLLECTION_NAME, documentId, () ->
+                guard.read(() -> toMono(documentReference.get()))
+                    .flatMap(snapshot -> {
+                        if (!snapshot.exists()) {
+                            return Mono.<Void>empty();
+                        }
+                        
+                        WriteBatch batch = firestore.batch();
+                        batch.delete(documentReference, Precondition.updatedAt(snapshot.getUpdateTime()));
+                        lesionStatistics.apply(batch, LesionCounts.empty().minus(LesionCounts.of(snapshot)));
+                        lesionTypeIndex.apply(batch, documentId, snapshot.getString("patientId"),
+                                LesionIndexEntries.of(snapshot), LesionIndexEntries.empty());
+                        // Si un reintento ya no encuentra el documento, el borrado anterior se aplicó
+                        return lesionStatistics.commit(() -> guard.execute(() -> toMono(batch.commit()),
+                                () -> guard.read(() -> toMono(documentReference.get())).map(document -> !document.exists())))
+                                .then();
+                    }))
             .subscribeOn(Schedulers.boundedElastic());
     }
 
-    private boolean containsLesionType(Odontogram odontogram, LesionType lesionType) {
-        // Implementar lógica para verificar si el odontograma tiene algún diente con el tipo de lesión
-        // Esto es una implementación simplificada
-        return false; // Reemplazar con implementación real
+    /**
+     * Indica si el documento conserva la marca de la escritura dada, es decir, si
+     * el lote que la llevaba se confirmó
+     */
+    private Mono<Boolean> isWrittenBy(DocumentReference documentReference, String writeId) {
+        return guard.read(() -> toMono(documentReference.get()))
+            .map(document -> writeId.equals(document.getString(FIELD_WRITE_ID)));
+    }
+
+    @Override
+    public Mono<LesionPatientPage> findByLesionType(LesionIndexQuery query) {
+        // Se resuelve con el índice por tipo de lesión; no se leen odontogramas
+        return lesionTypeIndex.findPatients(query);
     }
 
     @Override
@@ -189,7 +333,7 @@ public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRe
                 
                 String documentId = odontogramId.getValue() + "_v" + versionId;
                 
-                return Mono.fromCallable(() -> {
+                return guard.executeIdempotent(() -> Mono.fromCallable(() -> {
                     ApiFuture<?> future = historicalOdontogramsCollection.document(documentId).set(historicalData);
                     CompletableFuture<Object> completableFuture = new CompletableFuture<>();
                     
@@ -203,7 +347,7 @@ public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRe
                     
                     return completableFuture.thenApply(result -> versionId);
                 })
-                .flatMap(future -> Mono.fromFuture(future));
+                .flatMap(future -> Mono.fromFuture(future)));
             })
             .subscribeOn(Schedulers.boundedElastic());
     }
@@ -212,7 +356,7 @@ public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRe
     public Flux<Odontogram> findHistoryByPatientId(PatientId patientId) {
         String odontogramId = "odontogram_" + patientId.getValue();
         
-        return Mono.fromCallable(() -> {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
             ApiFuture<QuerySnapshot> future = historicalOdontogramsCollection
                 .whereEqualTo("originalId", odontogramId)
                 .orderBy("version")
@@ -241,14 +385,14 @@ public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRe
             }
             return Flux.fromIterable(odontograms);
         })
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
 
     @Override
     public Mono<Odontogram> findHistoricalByPatientIdAndVersion(PatientId patientId, String version) {
         String documentId = "odontogram_" + patientId.getValue() + "_v" + version;
         
-        return Mono.fromCallable(() -> {
+        return guard.read(() -> Mono.fromCallable(() -> {
             ApiFuture<DocumentSnapshot> future = historicalOdontogramsCollection.document(documentId).get();
             CompletableFuture<DocumentSnapshot> completableFuture = new CompletableFuture<>();
             
@@ -265,119 +409,9 @@ public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRe
         .flatMap(future -> Mono.fromFuture(future))
         .map(this::mapToOdontogram)
         .filter(odontogram -> odontogram != null)
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
 
-    @Override
-    public Mono<Boolean> updateTooth(String patientId, String toothNumber, Tooth tooth) {
-        String odontogramId = "odontogram_" + patientId;
-        
-        return Mono.fromCallable(() -> {
-            Map<String, Object> toothData = mapToothToFirestore(tooth);
-            String fieldPath = "teeth." + toothNumber;
-            
-            ApiFuture<?> future = odontogramsCollection.document(odontogramId)
-                .update(fieldPath, toothData);
-            
-            CompletableFuture<Object> completableFuture = new CompletableFuture<>();
-            
-            future.addListener(() -> {
-                try {
-                    completableFuture.complete(future.get());
-                } catch (Exception e) {
-                    completableFuture.completeExceptionally(e);
-                }
-            }, Runnable::run);
-            
-            return completableFuture.thenApply(result -> true);
-        })
-        .flatMap(future -> Mono.fromFuture(future))
-        .onErrorReturn(false)
-        .subscribeOn(Schedulers.boundedElastic());
-    }
-
-    @Override
-    public Mono<Void> removeLesion(String odontogramId, String toothNumber, String lesionId) {
-        return findById(OdontogramId.of(odontogramId))
-            .flatMap(odontogram -> {
-                // En una implementación real, buscaríamos el diente, encontraríamos y eliminaríamos la lesión
-                // Para este ejemplo, actualizamos el documento de Firestore directamente
-                
-                return Mono.fromCallable(() -> {
-                    String fieldPath = "teeth." + toothNumber + ".lesions";
-                    // Aquí necesitaríamos usar FieldValue.arrayRemove, pero simplificamos
-                    ApiFuture<?> future = odontogramsCollection.document(odontogramId)
-                        .update(fieldPath, new ArrayList<>()); // Esto no es correcto, solo ilustrativo
-                    
-                    CompletableFuture<Object> completableFuture = new CompletableFuture<>();
-                    
-                    future.addListener(() -> {
-                        try {
-                            completableFuture.complete(future.get());
-                        } catch (Exception e) {
-                            completableFuture.completeExceptionally(e);
-                        }
-                    }, Runnable::run);
-                    
-                    return completableFuture;
-                })
-                .flatMap(future -> Mono.fromFuture(future))
-                .then();
-            })
-            .then()
-            .subscribeOn(Schedulers.boundedElastic());
-    }
-
-    @Override
-    public Mono<Void> addTreatment(String odontogramId, String toothNumber, Object treatmentData) {
-        return Mono.fromCallable(() -> {
-            String fieldPath = "teeth." + toothNumber + ".treatments";
-            // Aquí usaríamos FieldValue.arrayUnion para agregar al array
-            ApiFuture<?> future = odontogramsCollection.document(odontogramId)
-                .update(fieldPath, treatmentData); // Simplificado
-            
-            CompletableFuture<Object> completableFuture = new CompletableFuture<>();
-            
-            future.addListener(() -> {
-                try {
-                    completableFuture.complete(future.get());
-                } catch (Exception e) {
-                    completableFuture.completeExceptionally(e);
-                }
-            }, Runnable::run);
-            
-            return completableFuture;
-        })
-        .flatMap(future -> Mono.fromFuture(future))
-        .then()
-        .subscribeOn(Schedulers.boundedElastic());
-    }
-
-    @Override
-    public Mono<Void> removeTreatment(String odontogramId, String toothNumber, String treatmentId) {
-        return Mono.fromCallable(() -> {
-            String fieldPath = "teeth." + toothNumber + ".treatments";
-            // Aquí usaríamos FieldValue.arrayRemove para quitar del array
-            ApiFuture<?> future = odontogramsCollection.document(odontogramId)
-                .update(fieldPath, new ArrayList<>()); // Simplificado
-            
-            CompletableFuture<Object> completableFuture = new CompletableFuture<>();
-            
-            future.addListener(() -> {
-                try {
-                    completableFuture.complete(future.get());
-                } catch (Exception e) {
-                    completableFuture.completeExceptionally(e);
-                }
-            }, Runnable::run);
-            
-            return completableFuture;
-        })
-        .flatMap(future -> Mono.fromFuture(future))
-        .then()
-        .subscribeOn(Schedulers.boundedElastic());
-    }
-    
     // Métodos auxiliares para mapeo
     
     private Odontogram mapToOdontogram(DocumentSnapshot document) {
@@ -389,6 +423,7 @@ public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRe
             String id = document.getId();
             Odontogram odontogram = new Odontogram();
             odontogram.setId(OdontogramId.of(id));
+            odontogram.setVersion(readRevision(document));
             
             // Extraer el mapa de dientes
             if (document.contains("teeth") && document.get("teeth") instanceof Map) {
@@ -416,7 +451,8 @@ public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRe
                                             LesionType lesionType = LesionType.valueOf(lesionTypeStr);
                                             faces.put(faceId, lesionType);
                                         } catch (IllegalArgumentException e) {
-                                            System.err.println("Error al convertir tipo de lesión: " + lesionTypeStr);
+                                            logger.warn("Odontograma {}: tipo de lesión desconocido {} en el diente {}",
+                                                    id, lesionTypeStr, toothId);
                                         }
                                     }
                                 }
@@ -435,8 +471,7 @@ public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRe
             
             return odontogram;
         } catch (Exception e) {
-            System.err.println("Error al mapear documento a Odontogram: " + e.getMessage());
-            e.printStackTrace();
+            logger.warn("Odontograma {} omitido: no se pudo leer el documento", document.getId(), e);
             return null;
         }
     }
@@ -474,62 +509,40 @@ public class ReactiveOdontogramRepositoryAdapter implements ReactiveOdontogramRe
         }
         
         data.put("teeth", teethMap);
+        data.put(FIELD_REVISION, odontogram.getVersion());
         data.put("lastUpdated", System.currentTimeMillis());
         
         return data;
     }
     
-    private Map<String, Object> mapToothToFirestore(Tooth tooth) {
-        Map<String, Object> data = new HashMap<>();
-        
-        if (tooth == null) {
-            return data;
-        }
-        
-        // Datos básicos del diente
-        data.put("id", tooth.getId());
-        data.put("position", tooth.getPosition().name());
-        
-        // Mapear lesiones
-        Map<String, Object> lesionsMap = new HashMap<>();
-        for (Map.Entry<String, Lesion> entry : tooth.getLesions().entrySet()) {
-            String faceCode = entry.getKey();
-            Lesion lesion = entry.getValue();
-            
-            Map<String, Object> lesionData = new HashMap<>();
-            lesionData.put("type", lesion.getType().name());
-            lesionData.put("face", lesion.getFace().name());
-            lesionData.put("recordedAt", lesion.getRecordedAt().toString());
-            
-            if (lesion.getNotes() != null) {
-                lesionData.put("notes", lesion.getNotes());
-            }
+    private String patientIdOf(Odontogram odontogram) {
+        PatientId patientId = odontogram.extractPatientId();
+        return patientId != null ? patientId.getValue() : null;
+    }
+    
+    /**
+     * Lee la versión de concurrencia de un documento; los documentos anteriores
+     * a su introducción se consideran versión 0
+     */
+    private long readRevision(DocumentSnapshot document) {
+        Long revision = document.getLong(FIELD_REVISION);
+        return revision != null ? revision : 0L;
+    }
+    
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
             
-            lesionsMap.put(faceCode, lesionData);
-        }
-        data.put("lesions", lesionsMap);
-        
-        // Mapear tratamientos si hay
-        if (tooth.hasTreatments()) {
-            List<Map<String, Object>> treatmentsList = new ArrayList<>();
-            for (Treatment treatment : tooth.getTreatments()) {
-                Map<String, Object> treatmentData = new HashMap<>();
-                treatmentData.put("id", treatment.getId());
-                treatmentData.put("description", treatment.getDescription());
-                treatmentData.put("doctorId", treatment.getDoctorId());
-                treatmentData.put("performedAt", treatment.getPerformedAt().toString());
-                treatmentData.put("completed", treatment.isCompleted());
-                treatmentData.put("cost", treatment.getCost());
-                
-                if (treatment.getNotes() != null) {
-                    treatmentData.put("notes", treatment.getNotes());
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
                 }
-                
-                treatmentsList.add(treatmentData);
-            }
-            data.put("treatments", treatmentsList);
-        }
-        
-        return data;
+            }, Runnable::run);
+            
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
     }
-} 
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package odoonto.infrastructure.persistence.reactive;
 
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
 import com.google.cloud.firestore.DocumentSnapshot;
 import com.google.cloud.firestore.QuerySnapshot;
 import com.google.api.core.ApiFuture;
@@ -9,15 +10,25 @@ import com.google.api.core.ApiFuture;
 import odoonto.application.port.out.ReactivePatientRepository;
 import odoonto.domain.model.aggregates.Patient;
 import odoonto.domain.model.valueobjects.PatientId;
+import odoonto.domain.events.patients.PatientRegisteredEvent;
+import odoonto.infrastructure.outbox.FirestoreOutbox;
 import odoonto.infrastructure.persistence.entity.FirestorePatientEntity;
+import odoonto.infrastructure.persistence.resilience.FirestoreResilience;
+import odoonto.infrastructure.persistence.resilience.RepositoryGuard;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -26,16 +37,29 @@ import java.util.Map;
 @Component
 public class ReactivePatientRepositoryAdapter implements ReactivePatientRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(ReactivePatientRepositoryAdapter.class);
+
     private static final String COLLECTION_NAME = "patients";
+    private static final String AGGREGATE_TYPE = "Patient";
+    private static final int MAX_REFERENCES_PER_GET_ALL = 300;
     
+    private final Firestore firestore;
     private final CollectionReference patientsCollection;
+    private final FirestoreOutbox outbox;
+    private final RepositoryGuard guard;
 
     /**
      * Constructor
      * @param firestore Cliente Firestore
+     * @param outbox Outbox donde se escriben los eventos junto con el paciente
+     * @param resilience Protección de las llamadas a Firestore
      */
-    public ReactivePatientRepositoryAdapter(Firestore firestore) {
+    public ReactivePatientRepositoryAdapter(Firestore firestore, FirestoreOutbox outbox,
+                                            FirestoreResilience resilience) {
+        this.firestore = firestore;
         this.patientsCollection = firestore.collection(COLLECTION_NAME);
+        this.outbox = outbox;
+        this.guard = resilience.forRepository(COLLECTION_NAME);
     }
 
     @Override
@@ -44,7 +68,7 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
             return Mono.empty();
         }
         
-        return Mono.fromCallable(() -> {
+        return guard.read(() -> Mono.fromCallable(() -> {
             ApiFuture<DocumentSnapshot> future = patientsCollection.document(id).get();
             CompletableFuture<DocumentSnapshot> completableFuture = new CompletableFuture<>();
             
@@ -61,7 +85,7 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
         .flatMap(future -> Mono.fromFuture(future))
         .filter(DocumentSnapshot::exists)
         .map(this::mapToPatient)
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
     
     @Override
@@ -72,6 +96,48 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
         return findById(patientId.getValue());
     }
 
+    @Override
+    public Flux<Patient> findAllById(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Flux.empty();
+        }
+        
+        List<DocumentReference> references = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            if (id != null) {
+                references.add(patientsCollection.document(id));
+            }
+        }
+        
+        // Una llamada getAll por trozo en lugar de una lectura por paciente
+        List<List<DocumentReference>> chunks = new ArrayList<>();
+        for (int i = 0; i < references.size(); i += MAX_REFERENCES_PER_GET_ALL) {
+            chunks.add(references.subList(i, Math.min(references.size(), i + MAX_REFERENCES_PER_GET_ALL)));
+        }
+        
+        return Flux.fromIterable(chunks)
+                .concatMap(chunk -> guard.executeMany(() -> Mono.fromCallable(() -> {
+                            ApiFuture<List<DocumentSnapshot>> future =
+                                    firestore.getAll(chunk.toArray(new DocumentReference[0]));
+                            CompletableFuture<List<DocumentSnapshot>> completableFuture = new CompletableFuture<>();
+                            
+                            future.addListener(() -> {
+                                try {
+                                    completableFuture.complete(future.get());
+                                } catch (Exception e) {
+                                    completableFuture.completeExceptionally(e);
+                                }
+                            }, Runnable::run);
+                            
+                            return completableFuture;
+                        })
+                        .flatMap(future -> Mono.fromFuture(future))
+                        .flatMapIterable(documents -> documents)))
+                .filter(DocumentSnapshot::exists)
+                .map(this::mapToPatient)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
     @Override
     public Mono<Patient> save(Patient patient) {
         if (patient == null) {
@@ -85,8 +151,20 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
         
         FirestorePatientEntity entity = mapToEntity(patient);
         
-        return Mono.fromCallable(() -> {
-            ApiFuture<?> future = patientsCollection.document(entity.getId()).set(entity);
+        return guard.execute(() -> Mono.fromCallable(() -> {
+            // El alta del paciente y su evento se confirman en la misma transacción
+            DocumentReference documentReference = patientsCollection.document(entity.getId());
+            ApiFuture<?> future = firestore.runTransaction(transaction -> {
+                DocumentSnapshot previous = transaction.get(documentReference).get();
+                transaction.set(documentReference, entity);
+                
+                if (!previous.exists()) {
+                    Map<String, Object> payload = new HashMap<>();
+                    payload.put("patientId", entity.getId());
+                    outbox.append(transaction, AGGREGATE_TYPE, entity.getId(), PatientRegisteredEvent.class, payload);
+                }
+                return null;
+            });
             CompletableFuture<Object> completableFuture = new CompletableFuture<>();
             
             future.addListener(() -> {
@@ -100,7 +178,7 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
             return completableFuture.thenApply(result -> patient);
         })
         .flatMap(future -> Mono.fromFuture(future))
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
 
     @Override
@@ -109,7 +187,7 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
             return Mono.empty();
         }
         
-        return Mono.fromCallable(() -> {
+        return guard.executeIdempotent(() -> Mono.fromCallable(() -> {
             ApiFuture<?> future = patientsCollection.document(id).delete();
             CompletableFuture<Object> completableFuture = new CompletableFuture<>();
             
@@ -125,12 +203,12 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
         })
         .flatMap(future -> Mono.fromFuture(future))
         .then()
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
 
     @Override
     public Flux<Patient> findAll() {
-        return Mono.fromCallable(() -> {
+        return guard.executeMany(() -> Mono.fromCallable(() -> {
             ApiFuture<QuerySnapshot> future = patientsCollection.get();
             CompletableFuture<QuerySnapshot> completableFuture = new CompletableFuture<>();
             
@@ -150,7 +228,7 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
                 .map(this::mapToPatient)
                 .filter(patient -> patient != null);
         })
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
 
     @Override
@@ -190,7 +268,7 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
             return Mono.just(false);
         }
         
-        return Mono.fromCallable(() -> {
+        return guard.read(() -> Mono.fromCallable(() -> {
             ApiFuture<DocumentSnapshot> future = patientsCollection.document(id).get();
             CompletableFuture<DocumentSnapshot> completableFuture = new CompletableFuture<>();
             
@@ -206,7 +284,7 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
         })
         .flatMap(future -> Mono.fromFuture(future))
         .map(DocumentSnapshot::exists)
-        .subscribeOn(Schedulers.boundedElastic());
+        .subscribeOn(Schedulers.boundedElastic()));
     }
     
     /**
@@ -254,7 +332,7 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
                                     patient.setFechaNacimiento(java.time.LocalDate.parse(soloFecha));
                                 }
                             } catch (Exception ex) {
-                                System.err.println("No se pudo parsear la fecha: " + fechaNacimientoStr);
+                                logger.warn("Paciente {}: fecha de nacimiento no válida {}", id, fechaNacimientoStr);
                             }
                         }
                     }
@@ -289,10 +367,10 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
                                     }
                                 }
                             } else {
-                                System.err.println("Mapa de teléfono no tiene campo 'value' para paciente " + id);
+                                logger.warn("Paciente {}: el teléfono no tiene campo 'value'", id);
                             }
                         } else {
-                            System.err.println("Campo teléfono tiene tipo inesperado para paciente " + id + ": " + telefono.getClass().getName());
+                            logger.warn("Paciente {}: el teléfono tiene un tipo inesperado {}", id, telefono.getClass().getName());
                         }
                     }
                 }
@@ -320,24 +398,22 @@ public class ReactivePatientRepositoryAdapter implements ReactivePatientReposito
                                     }
                                 }
                             } else {
-                                System.err.println("Mapa de email no tiene campo 'value' para paciente " + id);
+                                logger.warn("Paciente {}: el email no tiene campo 'value'", id);
                             }
                         } else {
-                            System.err.println("Campo email tiene tipo inesperado para paciente " + id + ": " + email.getClass().getName());
+                            logger.warn("Paciente {}: el email tiene un tipo inesperado {}", id, email.getClass().getName());
                         }
                     }
                 }
                 
             } catch (Exception e) {
-                System.err.println("Error al convertir propiedades del paciente " + id + ": " + e.getMessage());
-                e.printStackTrace();
+                logger.warn("Paciente {} leído parcialmente: no se pudieron convertir sus propiedades", id, e);
                 // Si hay error en convertir propiedades, aún devolvemos el paciente con lo que pudimos asignar
             }
             
             return patient;
         } catch (Exception e) {
-            System.err.println("Error al mapear documento a Patient: " + e.getMessage());
-            e.printStackTrace();
+            logger.warn("Paciente {} omitido: no se pudo leer el documento", document.getId(), e);
             return null;
         }
     }
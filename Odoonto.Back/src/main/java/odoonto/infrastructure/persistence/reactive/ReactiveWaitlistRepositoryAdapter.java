@@ -0,0 +1,274 @@
+package odoonto.infrastructure.persistence.reactive;
+
+import odoonto.application.port.out.ReactiveWaitlistRepository;
+import odoonto.domain.model.aggregates.Doctor;
+import odoonto.domain.model.aggregates.WaitlistEntry;
+import odoonto.domain.model.valueobjects.Specialty;
+import odoonto.domain.model.valueobjects.WaitlistStatus;
+import odoonto.infrastructure.persistence.concurrency.OptimisticConcurrencyControl;
+import odoonto.infrastructure.persistence.resilience.FirestoreResilience;
+import odoonto.infrastructure.persistence.resilience.RepositoryGuard;
+import odoonto.infrastructure.persistence.waitlist.WaitlistIndex;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.QuerySnapshot;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Adaptador que implementa la interfaz reactiva para el repositorio de la lista de espera.
+ * Las solicitudes se guardan en Firestore y las que siguen en lista se mantienen además
+ * en un índice en memoria. Los cambios se aplican sobre una copia recién leída, se
+ * escriben condicionados a que el documento no haya cambiado y solo después se publican
+ * en el índice, de modo que el índice nunca contiene estados sin confirmar. El índice se
+ * recarga completo en la primera búsqueda tras {@link #INDEX_REFRESH}, lo que acota cuánto
+ * tarda en ver los cambios hechos por otras instancias.
+ */
+@Component
+public class ReactiveWaitlistRepositoryAdapter implements ReactiveWaitlistRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveWaitlistRepositoryAdapter.class);
+
+    private static final String COLLECTION_NAME = "waitlist";
+    private static final String FIELD_WRITE_ID = "writeId";
+
+    /**
+     * Antigüedad máxima del índice antes de recargarlo desde Firestore
+     */
+    static final Duration INDEX_REFRESH = Duration.ofMinutes(5);
+
+    private final CollectionReference waitlistCollection;
+    private final WaitlistIndex index;
+    private final RepositoryGuard guard;
+    private final OptimisticConcurrencyControl concurrencyControl;
+    private final Mono<Integer> indexLoaded;
+
+    /**
+     * Constructor que recibe la instancia de Firestore
+     * @param firestore Instancia de Firestore para acceder a la base de datos
+     * @param index Índice en memoria de las solicitudes en lista
+     * @param resilience Protección de las llamadas a Firestore
+     * @param concurrencyControl Control de las escrituras condicionadas
+     */
+    public ReactiveWaitlistRepositoryAdapter(Firestore firestore, WaitlistIndex index,
+                                             FirestoreResilience resilience,
+                                             OptimisticConcurrencyControl concurrencyControl) {
+        this.waitlistCollection = firestore.collection(COLLECTION_NAME);
+        this.index = index;
+        this.guard = resilience.forRepository(COLLECTION_NAME);
+        this.concurrencyControl = concurrencyControl;
+        // Se recarga al caducar; si la carga falla se vuelve a intentar en la siguiente búsqueda
+        this.indexLoaded = guard.executeIdempotent(() -> toMono(waitlistCollection
+                        .whereIn("status", Arrays.asList(WaitlistStatus.ACTIVA.name(), WaitlistStatus.OFERTADA.name()))
+                        .get()))
+                .map(querySnapshot -> {
+                    List<WaitlistEntry> entries = mapQuerySnapshot(querySnapshot);
+                    index.replaceAll(entries);
+                    return entries.size();
+                })
+                .cache(loaded -> INDEX_REFRESH, error -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    @Override
+    public Mono<WaitlistEntry> findById(String id) {
+        return guard.read(() -> Mono.defer(() -> toMono(waitlistCollection.document(id).get()))
+                .map(this::mapToEntry)
+                .filter(entry -> entry != null)
+                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Crea la solicitud; si un reintento la encuentra ya creada con la marca de este
+     * intento, es la que guardó el intento anterior
+     */
+    @Override
+    public Mono<WaitlistEntry> create(WaitlistEntry entry) {
+        DocumentReference reference = waitlistCollection.document(entry.getId());
+        String writeId = UUID.randomUUID().toString();
+        Map<String, Object> data = mapToFirestore(entry);
+        data.put(FIELD_WRITE_ID, writeId);
+
+        return guard.execute(() -> toMono(reference.create(data)), () -> isWrittenBy(reference, writeId))
+                .then(Mono.fromCallable(() -> {
+                    index.put(entry);
+                    return entry;
+                }))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<WaitlistEntry> update(String id, Consumer<WaitlistEntry> mutation) {
+        DocumentReference reference = waitlistCollection.document(id);
+
+        return concurrencyControl.execute(COLLECTION_NAME, id, () ->
+                guard.read(() -> toMono(reference.get()))
+                    .flatMap(snapshot -> {
+                        WaitlistEntry entry = mapToEntry(snapshot);
+                        if (entry == null) {
+                            return Mono.empty();
+                        }
+
+                        mutation.accept(entry);
+                        String writeId = UUID.randomUUID().toString();
+                        Map<String, Object> data = mapToFirestore(entry);
+                        data.put(FIELD_WRITE_ID, writeId);
+                        return guard.execute(() -> toMono(reference.update(data,
+                                        Precondition.updatedAt(snapshot.getUpdateTime()))),
+                                    () -> isWrittenBy(reference, writeId))
+                                .thenReturn(entry);
+                    }))
+                // La copia confirmada sustituye a la del índice
+                .doOnNext(index::put)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<WaitlistEntry> findByPatientId(String patientId) {
+        return guard.executeMany(() -> Mono.defer(() -> toMono(waitlistCollection
+                        .whereEqualTo("patientId", patientId)
+                        .get()))
+                .flatMapIterable(this::mapQuerySnapshot)
+                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    @Override
+    public Flux<WaitlistEntry> findCandidates(Doctor doctor, LocalDate date) {
+        return indexLoaded
+                .thenMany(Flux.defer(() -> {
+                    index.evictBefore(LocalDate.now());
+                    return Flux.fromIterable(index.candidates(doctor.getId(), doctor.getEspecialidad(), date));
+                }));
+    }
+
+    private Mono<Boolean> isWrittenBy(DocumentReference reference, String writeId) {
+        return guard.read(() -> toMono(reference.get()))
+                .map(snapshot -> snapshot.exists() && writeId.equals(snapshot.getString(FIELD_WRITE_ID)));
+    }
+
+    // Métodos auxiliares para mapeo
+
+    private List<WaitlistEntry> mapQuerySnapshot(QuerySnapshot querySnapshot) {
+        List<WaitlistEntry> entries = new ArrayList<>();
+        querySnapshot.getDocuments().forEach(doc -> {
+            WaitlistEntry entry = mapToEntry(doc);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        });
+        return entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private WaitlistEntry mapToEntry(DocumentSnapshot document) {
+        if (!document.exists()) {
+            return null;
+        }
+
+        try {
+            List<DayOfWeek> dias = new ArrayList<>();
+            Object rawDays = document.get("dias");
+            if (rawDays instanceof List) {
+                for (Object day : (List<Object>) rawDays) {
+                    dias.add(DayOfWeek.valueOf(day.toString()));
+                }
+            }
+            String especialidad = document.getString("especialidad");
+
+            WaitlistEntry entry = new WaitlistEntry(
+                    document.getId(),
+                    document.getString("patientId"),
+                    document.getString("doctorId"),
+                    especialidad != null ? Specialty.valueOf(especialidad) : null,
+                    LocalDate.parse(document.getString("desde")),
+                    LocalDate.parse(document.getString("hasta")),
+                    dias,
+                    LocalTime.parse(document.getString("horaDesde")),
+                    LocalTime.parse(document.getString("horaHasta")),
+                    document.getLong("durationSlots").intValue(),
+                    Boolean.TRUE.equals(document.getBoolean("urgente")),
+                    LocalDateTime.parse(document.getString("createdAt")),
+                    WaitlistStatus.valueOf(document.getString("status")));
+
+            String ofertaInicio = document.getString("ofertaInicio");
+            String ofertaCaduca = document.getString("ofertaCaduca");
+            Long ofertasRecibidas = document.getLong("ofertasRecibidas");
+            entry.setOfertaDirect(
+                    document.getString("ofertaDoctorId"),
+                    ofertaInicio != null ? LocalDateTime.parse(ofertaInicio) : null,
+                    ofertaCaduca != null ? LocalDateTime.parse(ofertaCaduca) : null,
+                    ofertasRecibidas != null ? ofertasRecibidas.intValue() : 0);
+            return entry;
+        } catch (Exception e) {
+            logger.warn("Solicitud de lista de espera {} omitida: no se pudo leer el documento", document.getId(), e);
+            return null;
+        }
+    }
+
+    private Map<String, Object> mapToFirestore(WaitlistEntry entry) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("patientId", entry.getPatientId());
+        data.put("doctorId", entry.getDoctorId());
+        data.put("especialidad", entry.getEspecialidad() != null ? entry.getEspecialidad().name() : null);
+        data.put("desde", entry.getDesde().toString());
+        data.put("hasta", entry.getHasta().toString());
+
+        List<String> dias = new ArrayList<>();
+        for (DayOfWeek day : entry.getDias()) {
+            dias.add(day.name());
+        }
+        data.put("dias", dias);
+
+        data.put("horaDesde", entry.getHoraDesde().toString());
+        data.put("horaHasta", entry.getHoraHasta().toString());
+        data.put("durationSlots", entry.getDurationSlots());
+        data.put("urgente", entry.isUrgente());
+        data.put("createdAt", entry.getCreatedAt().toString());
+        data.put("status", entry.getStatus().name());
+        data.put("ofertaDoctorId", entry.getOfertaDoctorId());
+        data.put("ofertaInicio", entry.getOfertaInicio() != null ? entry.getOfertaInicio().toString() : null);
+        data.put("ofertaCaduca", entry.getOfertaCaduca() != null ? entry.getOfertaCaduca().toString() : null);
+        data.put("ofertasRecibidas", entry.getOfertasRecibidas());
+        return data;
+    }
+
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+}
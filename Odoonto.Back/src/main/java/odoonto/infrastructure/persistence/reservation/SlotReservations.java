@@ -0,0 +1,241 @@
+package odoonto.infrastructure.persistence.reservation;
+
+import odoonto.application.exceptions.AppointmentConflictException;
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.UpdateBuilder;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reservas de franja de los doctores.
+ * Cada franja de 30 minutos ocupada por una cita tiene un documento cuyo ID es
+ * determinista ({doctorId}_{fecha}_{HHmm}), de modo que dos citas que se solapan
+ * compiten por la misma clave. Las reservas se crean con create() (solo si no
+ * existen) en la misma escritura atómica que la cita: si otra cita ya tiene
+ * cualquiera de sus franjas, la escritura entera falla y no queda nada a medias.
+ */
+@Component
+public class SlotReservations implements MetricsSource {
+
+    static final String COLLECTION_NAME = "slot_reservations";
+
+    static final String FIELD_APPOINTMENT_ID = "appointmentId";
+    static final String FIELD_DOCTOR_ID = "doctorId";
+    static final String FIELD_DATE = "date";
+    static final String FIELD_SLOT = "slot";
+    static final String FIELD_RESERVED_AT = "reservedAt";
+
+    private static final int SLOT_MINUTES = 30;
+    private static final DateTimeFormatter KEY_TIME_FORMAT = DateTimeFormatter.ofPattern("HHmm");
+
+    private final CollectionReference reservationsCollection;
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder reservedSlots = new LongAdder();
+    private final LongAdder releasedSlots = new LongAdder();
+    private final LongAdder commitNanos = new LongAdder();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+
+    public SlotReservations(Firestore firestore) {
+        this.reservationsCollection = firestore.collection(COLLECTION_NAME);
+    }
+
+    /**
+     * Calcula las claves de las franjas que ocupa una cita.
+     * Una cita que no empieza en el límite de una franja ocupa también la franja
+     * en la que empieza; una cita cancelada no ocupa ninguna.
+     * @param appointment Cita
+     * @return Claves de reserva en orden cronológico
+     */
+    public List<String> keysFor(Appointment appointment) {
+        if (appointment == null || appointment.getDoctorId() == null || appointment.getDateTime() == null
+                || !holdsSlots(appointment.getStatus())) {
+            return Collections.emptyList();
+        }
+
+        LocalDateTime start = appointment.getDateTime();
+        LocalDateTime end = appointment.getEndDateTime();
+        LocalDateTime slotStart = start.truncatedTo(ChronoUnit.HOURS)
+                .plusMinutes((start.getMinute() / SLOT_MINUTES) * SLOT_MINUTES);
+
+        List<String> keys = new ArrayList<>();
+        while (slotStart.isBefore(end)) {
+            keys.add(key(appointment.getDoctorId(), slotStart));
+            slotStart = slotStart.plusMinutes(SLOT_MINUTES);
+        }
+        return keys;
+    }
+
+    /**
+     * Indica si una cita en este estado mantiene sus franjas reservadas
+     */
+    public boolean holdsSlots(AppointmentStatus status) {
+        return status != AppointmentStatus.CANCELADA;
+    }
+
+    public DocumentReference reference(String key) {
+        return reservationsCollection.document(key);
+    }
+
+    public DocumentReference[] references(Collection<String> keys) {
+        return keys.stream().map(this::reference).toArray(DocumentReference[]::new);
+    }
+
+    /**
+     * Reclama franjas dentro de una escritura atómica; la escritura falla con
+     * ALREADY_EXISTS si alguna ya está reservada
+     * @param writer WriteBatch o Transaction en curso
+     * @param appointment Cita que reserva
+     * @param keys Claves a reclamar
+     */
+    public <T> void reserve(UpdateBuilder<T> writer, Appointment appointment, Collection<String> keys) {
+        for (String key : keys) {
+            Map<String, Object> data = new HashMap<>();
+            data.put(FIELD_APPOINTMENT_ID, appointment.getId());
+            data.put(FIELD_DOCTOR_ID, appointment.getDoctorId());
+            data.put(FIELD_DATE, dateOf(key));
+            data.put(FIELD_SLOT, slotOf(key));
+            data.put(FIELD_RESERVED_AT, FieldValue.serverTimestamp());
+            writer.create(reference(key), data);
+        }
+    }
+
+    /**
+     * Libera franjas dentro de una escritura atómica
+     * @param writer WriteBatch o Transaction en curso
+     * @param keys Claves a liberar
+     */
+    public <T> void release(UpdateBuilder<T> writer, Collection<String> keys) {
+        for (String key : keys) {
+            writer.delete(reference(key));
+        }
+    }
+
+    /**
+     * Indica si una reserva leída pertenece a otra cita
+     */
+    public boolean isHeldByOther(DocumentSnapshot reservation, String appointmentId) {
+        return reservation.exists() && !appointmentId.equals(reservation.getString(FIELD_APPOINTMENT_ID));
+    }
+
+    /**
+     * Indica si una reserva leída pertenece a la cita
+     */
+    public boolean isHeldBy(DocumentSnapshot reservation, String appointmentId) {
+        return reservation.exists() && appointmentId.equals(reservation.getString(FIELD_APPOINTMENT_ID));
+    }
+
+    /**
+     * Convierte el fallo de una escritura en AppointmentConflictException si se
+     * debe a una franja ya reservada; el resto de errores se devuelven tal cual
+     * @param error Error de la escritura (puede venir envuelto por el futuro de Firestore)
+     * @param appointment Cita que se intentaba guardar
+     * @return Error a propagar
+     */
+    public Throwable translateConflict(Throwable error, Appointment appointment) {
+        Throwable current = error;
+        while (current != null) {
+            if (current instanceof AppointmentConflictException) {
+                conflicts.increment();
+                return current;
+            }
+            if (current instanceof ApiException
+                    && ((ApiException) current).getStatusCode().getCode() == StatusCode.Code.ALREADY_EXISTS) {
+                conflicts.increment();
+                return new AppointmentConflictException(appointment.getDoctorId(),
+                        appointment.getDateTime().toString());
+            }
+            current = current.getCause() != current ? current.getCause() : null;
+        }
+        return error;
+    }
+
+    /**
+     * Registra el inicio de una escritura que reclama o libera franjas
+     * @return Marca de tiempo para {@link #recordCommit}
+     */
+    public long recordAttempt() {
+        attempts.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * Registra una escritura confirmada
+     * @param startNanos Marca devuelta por {@link #recordAttempt}
+     * @param reserved Franjas reclamadas
+     * @param released Franjas liberadas
+     */
+    public void recordCommit(long startNanos, int reserved, int released) {
+        long elapsed = System.nanoTime() - startNanos;
+        committed.increment();
+        reservedSlots.add(reserved);
+        releasedSlots.add(released);
+        commitNanos.add(elapsed);
+        maxCommitNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    private String key(String doctorId, LocalDateTime slotStart) {
+        return doctorId + "_" + slotStart.toLocalDate() + "_" + slotStart.format(KEY_TIME_FORMAT);
+    }
+
+    private String dateOf(String key) {
+        String[] parts = key.split("_");
+        return parts[parts.length - 2];
+    }
+
+    private String slotOf(String key) {
+        String[] parts = key.split("_");
+        String time = parts[parts.length - 1];
+        return time.substring(0, 2) + ":" + time.substring(2);
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "slotReservations";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        long attemptCount = attempts.sum();
+        long committedCount = committed.sum();
+        long conflictCount = conflicts.sum();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("attempts", attemptCount);
+        metrics.put("committed", committedCount);
+        metrics.put("conflicts", conflictCount);
+        metrics.put("contentionRate", attemptCount == 0 ? 0.0 : (double) conflictCount / attemptCount);
+        metrics.put("reservedSlots", reservedSlots.sum());
+        metrics.put("releasedSlots", releasedSlots.sum());
+        metrics.put("avgCommitMillis", committedCount == 0
+                ? 0.0 : commitNanos.sum() / (double) committedCount / TimeUnit.MILLISECONDS.toNanos(1));
+        metrics.put("maxCommitMillis", TimeUnit.NANOSECONDS.toMillis(maxCommitNanos.get()));
+        return metrics;
+    }
+}
@@ -0,0 +1,186 @@
+package odoonto.infrastructure.persistence.resilience;
+
+import odoonto.application.exceptions.RepositoryUnavailableException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Aislamiento de las llamadas de un repositorio: como mucho un número fijo en curso y
+ * una cola acotada esperando hueco. Un repositorio lento solo agota sus propios huecos
+ * y no retiene las llamadas de los demás. El hueco se ocupa durante toda la llamada
+ * asíncrona, no solo mientras se lanza.
+ */
+final class Bulkhead {
+
+    private final String repository;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Duration maxWait;
+
+    private final Deque<Waiter> waiting = new ArrayDeque<>();
+    private int inFlight;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    Bulkhead(String repository, int maxConcurrent, int maxQueued, long maxWaitMillis) {
+        this.repository = repository;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxWait = Duration.ofMillis(Math.max(1, maxWaitMillis));
+    }
+
+    /**
+     * Ejecuta una llamada cuando hay hueco, esperando en la cola si hace falta
+     */
+    <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        return Mono.usingWhen(acquire(true), permit -> Mono.defer(call),
+                this::releaseAsync, (permit, e) -> releaseAsync(permit), this::releaseAsync);
+    }
+
+    /**
+     * Ejecuta una llamada que devuelve varios elementos manteniendo el hueco hasta que termina
+     */
+    <T> Flux<T> executeMany(Supplier<Flux<T>> call) {
+        return Flux.usingWhen(acquire(true), permit -> Flux.defer(call),
+                this::releaseAsync, (permit, e) -> releaseAsync(permit), this::releaseAsync);
+    }
+
+    /**
+     * Ejecuta una llamada solo si hay hueco libre ahora; si no, falla sin esperar
+     */
+    <T> Mono<T> tryExecute(Supplier<Mono<T>> call) {
+        return Mono.usingWhen(acquire(false), permit -> Mono.defer(call),
+                this::releaseAsync, (permit, e) -> releaseAsync(permit), this::releaseAsync);
+    }
+
+    private Mono<Permit> acquire(boolean mayQueue) {
+        Mono<Permit> acquisition = Mono.create(sink -> {
+            Waiter waiter = null;
+            synchronized (this) {
+                if (inFlight < maxConcurrent) {
+                    inFlight++;
+                } else if (mayQueue && waiting.size() < maxQueued) {
+                    waiter = new Waiter(sink);
+                    waiting.addLast(waiter);
+                } else {
+                    rejected.increment();
+                    sink.error(new RepositoryUnavailableException(repository, "demasiadas llamadas en curso"));
+                    return;
+                }
+            }
+
+            if (waiter == null) {
+                admitted.increment();
+                sink.success(new Permit());
+                return;
+            }
+            queued.increment();
+            Waiter registered = waiter;
+            sink.onCancel(() -> {
+                if (registered.state.compareAndSet(false, true)) {
+                    synchronized (this) {
+                        waiting.remove(registered);
+                    }
+                }
+            });
+        });
+
+        return mayQueue
+                ? acquisition.timeout(maxWait).onErrorMap(TimeoutException.class, e -> {
+                    timedOut.increment();
+                    return new RepositoryUnavailableException(repository, "sin hueco libre a tiempo");
+                })
+                : acquisition;
+    }
+
+    private Mono<Void> releaseAsync(Permit permit) {
+        return Mono.fromRunnable(permit::release);
+    }
+
+    /**
+     * Cede el hueco a la primera llamada que siga esperando o lo devuelve
+     */
+    private void handOver() {
+        while (true) {
+            Waiter next;
+            synchronized (this) {
+                next = waiting.pollFirst();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            if (next.state.compareAndSet(false, true)) {
+                admitted.increment();
+                next.sink.success(new Permit());
+                return;
+            }
+        }
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getQueued() {
+        return waiting.size();
+    }
+
+    int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    long getAdmitted() {
+        return admitted.sum();
+    }
+
+    long getQueuedTotal() {
+        return queued.sum();
+    }
+
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    /**
+     * Llamada en cola; el estado evita entregar un hueco a una espera ya cancelada
+     */
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        private final AtomicBoolean state = new AtomicBoolean(false);
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * Hueco ocupado; se devuelve una sola vez
+     */
+    private final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                handOver();
+            }
+        }
+    }
+}
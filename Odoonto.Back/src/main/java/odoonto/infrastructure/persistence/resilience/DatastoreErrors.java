@@ -0,0 +1,80 @@
+package odoonto.infrastructure.persistence.resilience;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Clasificación de los errores de Firestore. El código de estado se busca en la cadena
+ * de causas, porque llega envuelto por el futuro (ExecutionException) y a veces por
+ * FirestoreException. Una operación idempotente puede repetirse ante cualquier error
+ * transitorio; una que no lo es solo ante UNAVAILABLE, que casi siempre indica que la
+ * petición no llegó al servidor. No lo garantiza: la respuesta puede perderse después
+ * de confirmar la escritura. Por eso las escrituras no idempotentes detectan su propia
+ * repetición: un create o una precondición fallan con ALREADY_EXISTS o
+ * FAILED_PRECONDITION si el intento anterior sí se aplicó, y las transacciones vuelven
+ * a leer el estado antes de escribir.
+ */
+public final class DatastoreErrors {
+
+    private static final Set<StatusCode.Code> TRANSIENT = EnumSet.of(
+            StatusCode.Code.UNAVAILABLE,
+            StatusCode.Code.DEADLINE_EXCEEDED,
+            StatusCode.Code.RESOURCE_EXHAUSTED,
+            StatusCode.Code.ABORTED,
+            StatusCode.Code.INTERNAL);
+
+    private static final Set<StatusCode.Code> SAFE_FOR_NON_IDEMPOTENT = EnumSet.of(StatusCode.Code.UNAVAILABLE);
+
+    private static final Set<StatusCode.Code> WRITE_CONFLICT = EnumSet.of(
+            StatusCode.Code.ALREADY_EXISTS,
+            StatusCode.Code.FAILED_PRECONDITION);
+
+    private DatastoreErrors() {
+    }
+
+    /**
+     * Código de estado de un error de Firestore
+     * @param error Error recibido (puede venir envuelto)
+     * @return Código o null si el error no procede de Firestore
+     */
+    public static StatusCode.Code statusCode(Throwable error) {
+        Throwable current = error;
+        while (current != null) {
+            if (current instanceof ApiException) {
+                return ((ApiException) current).getStatusCode().getCode();
+            }
+            current = current.getCause() != current ? current.getCause() : null;
+        }
+        return null;
+    }
+
+    /**
+     * @return true si el error es un fallo pasajero del almacenamiento
+     */
+    public static boolean isTransient(Throwable error) {
+        StatusCode.Code code = statusCode(error);
+        return code != null && TRANSIENT.contains(code);
+    }
+
+    /**
+     * @return true si una escritura se rechazó porque el documento ya existía o cambió
+     * desde la lectura; tras un reintento puede deberse al propio intento anterior
+     */
+    public static boolean isWriteConflict(Throwable error) {
+        StatusCode.Code code = statusCode(error);
+        return code != null && WRITE_CONFLICT.contains(code);
+    }
+
+    /**
+     * @param error Error recibido
+     * @param idempotent Si repetir la operación produce el mismo resultado
+     * @return true si la operación puede repetirse sin riesgo
+     */
+    public static boolean isRetryable(Throwable error, boolean idempotent) {
+        StatusCode.Code code = statusCode(error);
+        return code != null && (idempotent ? TRANSIENT : SAFE_FOR_NON_IDEMPOTENT).contains(code);
+    }
+}
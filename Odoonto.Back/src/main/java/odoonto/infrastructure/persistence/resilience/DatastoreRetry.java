@@ -0,0 +1,172 @@
+package odoonto.infrastructure.persistence.resilience;
+
+import odoonto.application.exceptions.RepositoryUnavailableException;
+import odoonto.application.port.out.MetricsSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Reintentos centralizados de las llamadas a Firestore. Solo se repiten los errores
+ * transitorios que {@link DatastoreErrors} considera seguros para el tipo de operación,
+ * con espera exponencial y aleatoria completa (entre 0 y la espera máxima del intento)
+ * para que los clientes no reintenten a la vez, y siempre que quede presupuesto global.
+ * Un error transitorio que no se puede o no se debe repetir se devuelve como
+ * {@link RepositoryUnavailableException} (503) en lugar de como error interno.
+ */
+@Component
+public class DatastoreRetry implements MetricsSource {
+
+    private final ResilienceConfiguration configuration;
+    private final RetryBudget budget;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+    private final LongAdder notRetryable = new LongAdder();
+    private final Map<String, LongAdder> retriesByRepository = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DatastoreRetry(ResilienceConfiguration configuration) {
+        this.configuration = configuration;
+        this.budget = new RetryBudget(configuration.getRetryBudgetRatio(),
+                configuration.getRetryBudgetMinPerSecond(), configuration.getRetryBudgetMaxTokens());
+    }
+
+    /**
+     * Ejecuta una operación que puede repetirse sin cambiar el resultado (lecturas,
+     * set de un documento completo, borrados)
+     * @param repository Repositorio, para métricas y mensajes
+     * @param call Operación; se vuelve a invocar en cada intento
+     * @return Mono con el resultado del primer intento que termina bien
+     */
+    public <T> Mono<T> idempotent(String repository, Supplier<Mono<T>> call) {
+        return run(repository, true, call);
+    }
+
+    /**
+     * Ejecuta una operación que no debe aplicarse dos veces (create, incrementos,
+     * transacciones); solo se repite ante UNAVAILABLE, y la operación debe detectar
+     * que un intento anterior ya se aplicó (ver {@link DatastoreErrors})
+     * @param repository Repositorio, para métricas y mensajes
+     * @param call Operación; se vuelve a invocar en cada intento
+     * @return Mono con el resultado del primer intento que termina bien
+     */
+    public <T> Mono<T> nonIdempotent(String repository, Supplier<Mono<T>> call) {
+        return run(repository, false, call);
+    }
+
+    /**
+     * Ejecuta una consulta que devuelve varios elementos; solo se repite si falla
+     * antes de emitir ninguno, para no duplicar resultados
+     * @param repository Repositorio, para métricas y mensajes
+     * @param call Consulta; se vuelve a invocar en cada intento
+     * @return Flux con los resultados
+     */
+    public <T> Flux<T> idempotentMany(String repository, Supplier<Flux<T>> call) {
+        if (!configuration.isRetryEnabled()) {
+            return Flux.defer(call);
+        }
+        return Flux.defer(() -> {
+            calls.increment();
+            budget.deposit();
+            boolean[] emitted = {false};
+            return Flux.defer(() -> {
+                        attempts.increment();
+                        return call.get();
+                    })
+                    .doOnNext(item -> emitted[0] = true)
+                    .retryWhen(retrySpec(repository, true, () -> !emitted[0]))
+                    .onErrorMap(DatastoreErrors::isTransient, e -> unavailable(repository, e));
+        });
+    }
+
+    private <T> Mono<T> run(String repository, boolean idempotent, Supplier<Mono<T>> call) {
+        if (!configuration.isRetryEnabled()) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            calls.increment();
+            budget.deposit();
+            return Mono.defer(() -> {
+                        attempts.increment();
+                        return call.get();
+                    })
+                    .retryWhen(retrySpec(repository, idempotent, () -> true))
+                    .onErrorMap(DatastoreErrors::isTransient, e -> unavailable(repository, e));
+        });
+    }
+
+    private Retry retrySpec(String repository, boolean idempotent, Supplier<Boolean> mayRetry) {
+        int maxAttempts = Math.max(1, configuration.getMaxAttempts());
+        long initialMillis = Math.max(1, configuration.getRetryInitialBackoffMillis());
+        long maxMillis = Math.max(initialMillis, configuration.getRetryMaxBackoffMillis());
+
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            Throwable failure = signal.failure();
+            if (!DatastoreErrors.isRetryable(failure, idempotent) || !mayRetry.get()) {
+                if (DatastoreErrors.isTransient(failure)) {
+                    notRetryable.increment();
+                }
+                return Mono.error(failure);
+            }
+            long retry = signal.totalRetries();
+            if (retry + 1 >= maxAttempts) {
+                exhausted.increment();
+                return Mono.error(failure);
+            }
+            if (!budget.tryWithdraw()) {
+                budgetExhausted.increment();
+                return Mono.error(failure);
+            }
+            retries.increment();
+            retriesByRepository.computeIfAbsent(repository, key -> new LongAdder()).increment();
+
+            long ceiling = Math.min(maxMillis, initialMillis << Math.min(20, retry));
+            return Mono.delay(Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1)));
+        }));
+    }
+
+    private RepositoryUnavailableException unavailable(String repository, Throwable error) {
+        return new RepositoryUnavailableException(repository,
+                "error transitorio del almacenamiento: " + DatastoreErrors.statusCode(error), error);
+    }
+
+    // Métricas
+
+    @Override
+    public String getMetricsName() {
+        return "datastoreRetry";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", configuration.isRetryEnabled());
+        metrics.put("calls", calls.sum());
+        metrics.put("attempts", attempts.sum());
+        metrics.put("retries", retries.sum());
+        metrics.put("exhausted", exhausted.sum());
+        metrics.put("budgetExhausted", budgetExhausted.sum());
+        metrics.put("notRetryable", notRetryable.sum());
+        metrics.put("budgetBalance", Math.round(budget.getBalance() * 100) / 100.0);
+        Map<String, Long> byRepository = new TreeMap<>();
+        retriesByRepository.forEach((repository, count) -> byRepository.put(repository, count.sum()));
+        metrics.put("retriesByRepository", byRepository);
+        return metrics;
+    }
+}
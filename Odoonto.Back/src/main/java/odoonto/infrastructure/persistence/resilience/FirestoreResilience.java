@@ -0,0 +1,59 @@
+package odoonto.infrastructure.persistence.resilience;
+
+import odoonto.application.port.out.MetricsSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de las protecciones de cada repositorio. Cada adaptador pide la suya por
+ * nombre al construirse y pasa por ella sus llamadas a Firestore, de modo que cada
+ * colección tiene su propio bulkhead, su cortocircuito y su latencia aprendida; el
+ * presupuesto de reintentos es común a todas.
+ */
+@Component
+public class FirestoreResilience implements MetricsSource {
+
+    private final ResilienceConfiguration configuration;
+    private final DatastoreRetry retry;
+    private final Map<String, RepositoryGuard> guards = new ConcurrentHashMap<>();
+
+    @Autowired
+    public FirestoreResilience(ResilienceConfiguration configuration, DatastoreRetry retry) {
+        this.configuration = configuration;
+        this.retry = retry;
+    }
+
+    /**
+     * Protección de un repositorio
+     * @param repository Nombre del repositorio (p. ej. la colección)
+     * @return Protección compartida por todas las llamadas del repositorio
+     */
+    public RepositoryGuard forRepository(String repository) {
+        return guards.computeIfAbsent(repository, name -> new RepositoryGuard(name, configuration, retry));
+    }
+
+    // Métricas
+
+    @Override
+    public String getMetricsName() {
+        return "firestoreResilience";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", configuration.isEnabled());
+        metrics.put("hedgingEnabled", configuration.isHedgingEnabled());
+        metrics.put("circuitBreakerEnabled", configuration.isCircuitBreakerEnabled());
+        for (Map.Entry<String, RepositoryGuard> entry : new TreeMap<>(guards).entrySet()) {
+            metrics.put(entry.getKey(), entry.getValue().getMetricsSnapshot());
+        }
+        return metrics;
+    }
+}
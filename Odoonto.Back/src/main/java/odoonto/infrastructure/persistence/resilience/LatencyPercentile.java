@@ -0,0 +1,46 @@
+package odoonto.infrastructure.persistence.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Percentil de latencia sobre las últimas muestras (ventana circular). El percentil se
+ * recalcula cada cierto número de muestras en lugar de en cada lectura, porque ordenar
+ * la ventana en cada llamada costaría más que la propia espera que se quiere ajustar.
+ */
+final class LatencyPercentile {
+
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final long[] samples;
+    private final double percentile;
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private long cachedNanos = -1;
+
+    LatencyPercentile(int window, double percentile) {
+        this.samples = new long[Math.max(RECOMPUTE_EVERY, window)];
+        this.percentile = Math.min(Math.max(percentile, 0.5), 0.999);
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (++sinceRecompute >= RECOMPUTE_EVERY) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            cachedNanos = sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+        }
+    }
+
+    /**
+     * @return Percentil en nanosegundos o -1 si aún no hay muestras suficientes
+     */
+    synchronized long getNanos() {
+        return cachedNanos;
+    }
+}
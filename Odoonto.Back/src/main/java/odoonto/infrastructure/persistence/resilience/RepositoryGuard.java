@@ -0,0 +1,238 @@
+package odoonto.infrastructure.persistence.resilience;
+
+import odoonto.application.exceptions.RepositoryUnavailableException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Protección de las llamadas a Firestore de un repositorio. Todas pasan por su
+ * cortocircuito y su bulkhead, y se reintentan ante errores transitorios según sean o
+ * no idempotentes; las lecturas por ID además se duplican si la primera tarda más que
+ * el percentil de latencia aprendido, y gana la que responda antes. Solo las lecturas
+ * se duplican: repetirlas no tiene efectos. Las llamadas reciben un Supplier de Mono,
+ * así que pueden probarse con cualquier Mono con retardo en lugar de Firestore.
+ */
+public final class RepositoryGuard {
+
+    private final String repository;
+    private final ResilienceConfiguration configuration;
+    private final DatastoreRetry retry;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyPercentile latency;
+
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder recoveredWrites = new LongAdder();
+
+    RepositoryGuard(String repository, ResilienceConfiguration configuration, DatastoreRetry retry) {
+        this.repository = repository;
+        this.configuration = configuration;
+        this.retry = retry;
+        this.bulkhead = new Bulkhead(repository, configuration.maxConcurrentFor(repository),
+                configuration.getMaxQueued(), configuration.getMaxWaitMillis());
+        this.circuitBreaker = new CircuitBreaker(configuration.getSlidingWindowSize(), configuration.getMinimumCalls(),
+                configuration.getFailureRateThreshold(), configuration.getOpenMillis(), configuration.getHalfOpenCalls());
+        this.latency = new LatencyPercentile(configuration.getLatencySamples(), configuration.getHedgePercentile());
+    }
+
+    /**
+     * Lectura de un documento por ID, con lectura duplicada si tarda
+     * @param call Lectura; se vuelve a invocar para la lectura duplicada
+     * @return Mono con el resultado de la lectura que termine antes
+     */
+    public <T> Mono<T> read(Supplier<Mono<T>> call) {
+        if (!configuration.isEnabled()) {
+            return retry.idempotent(repository, call);
+        }
+        return retry.idempotent(repository, () -> withCircuitBreaker(() -> configuration.isHedgingEnabled()
+                ? hedged(call)
+                : bulkhead.execute(() -> timed(call)).flatMap(Mono::justOrEmpty)));
+    }
+
+    /**
+     * Escritura que puede repetirse sin cambiar el resultado (set de un documento o
+     * campo completo, borrado)
+     * @param call Llamada a Firestore
+     * @return Mono con su resultado
+     */
+    public <T> Mono<T> executeIdempotent(Supplier<Mono<T>> call) {
+        if (!configuration.isEnabled()) {
+            return retry.idempotent(repository, call);
+        }
+        return retry.idempotent(repository, () -> withCircuitBreaker(() -> bulkhead.execute(call)));
+    }
+
+    /**
+     * Escritura que no debe aplicarse dos veces: transacciones, create, incrementos y
+     * lotes con precondiciones. Solo se reintenta si el error garantiza que no se aplicó;
+     * un conflicto ABORTED de una transacción ya lo repite el cliente de Firestore
+     * @param call Llamada a Firestore
+     * @return Mono con su resultado
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        if (!configuration.isEnabled()) {
+            return retry.nonIdempotent(repository, call);
+        }
+        return retry.nonIdempotent(repository, () -> withCircuitBreaker(() -> bulkhead.execute(call)));
+    }
+
+    /**
+     * Escritura no idempotente que, si se reintenta, comprueba si el intento anterior
+     * llegó a aplicarse. UNAVAILABLE no garantiza que no se aplicara: si el reintento
+     * falla con ALREADY_EXISTS o FAILED_PRECONDITION y la comprobación confirma que el
+     * documento es el que escribió el primer intento, la escritura se da por buena en
+     * lugar de devolver un conflicto falso
+     * @param call Llamada a Firestore; debe enviar la misma escritura en cada intento
+     * @param committed Lectura que indica si la escritura ya está aplicada
+     * @return Mono con su resultado, o vacío si se confirmó un intento anterior
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call, Supplier<Mono<Boolean>> committed) {
+        return Mono.defer(() -> {
+            AtomicInteger attempts = new AtomicInteger();
+            return execute(() -> {
+                attempts.incrementAndGet();
+                return call.get();
+            })
+            .onErrorResume(error -> attempts.get() > 1 && DatastoreErrors.isWriteConflict(error),
+                    error -> Mono.defer(committed)
+                            .defaultIfEmpty(false)
+                            .flatMap(applied -> {
+                                if (!applied) {
+                                    return Mono.<T>error(error);
+                                }
+                                recoveredWrites.increment();
+                                return Mono.<T>empty();
+                            }));
+        });
+    }
+
+    /**
+     * Consulta que devuelve varios elementos; ocupa el hueco hasta que termina
+     * @param call Consulta a Firestore
+     * @return Flux con sus resultados
+     */
+    public <T> Flux<T> executeMany(Supplier<Flux<T>> call) {
+        if (!configuration.isEnabled()) {
+            return retry.idempotentMany(repository, call);
+        }
+        return retry.idempotentMany(repository, () -> Flux.defer(() -> {
+            if (!acquireCircuit()) {
+                return Flux.error(new RepositoryUnavailableException(repository, "circuito abierto"));
+            }
+            return bulkhead.executeMany(call)
+                    .doOnComplete(circuitBreaker::onSuccess)
+                    .doOnError(this::recordError)
+                    .doOnCancel(circuitBreaker::onIgnored);
+        }));
+    }
+
+    private <T> Mono<T> withCircuitBreaker(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!acquireCircuit()) {
+                return Mono.error(new RepositoryUnavailableException(repository, "circuito abierto"));
+            }
+            return call.get()
+                    .doOnSuccess(value -> circuitBreaker.onSuccess())
+                    .doOnError(this::recordError)
+                    .doOnCancel(circuitBreaker::onIgnored);
+        });
+    }
+
+    private boolean acquireCircuit() {
+        return !configuration.isCircuitBreakerEnabled() || circuitBreaker.tryAcquire();
+    }
+
+    /**
+     * Solo los fallos transitorios del almacenamiento cuentan para abrir el circuito:
+     * un rechazo propio, un error de negocio o un NOT_FOUND no dicen nada de la salud
+     * de Firestore
+     */
+    private void recordError(Throwable error) {
+        if (error instanceof RepositoryUnavailableException && !DatastoreErrors.isTransient(error)) {
+            circuitBreaker.onIgnored();
+        } else if (DatastoreErrors.isTransient(error)) {
+            failures.increment();
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    private <T> Mono<T> hedged(Supplier<Mono<T>> call) {
+        reads.increment();
+        // cache(): la lectura original sigue aunque la duplicada gane, y ambas ramas la comparten
+        Mono<Optional<T>> primary = bulkhead.execute(() -> timed(call)).cache();
+        Mono<Optional<T>> hedge = Mono.delay(Duration.ofNanos(hedgeDelayNanos()))
+                .then(Mono.defer(() -> {
+                    if (hedges.sum() >= reads.sum() * configuration.getHedgeMaxRatio()) {
+                        return primary;
+                    }
+                    hedges.increment();
+                    Mono<Optional<T>> duplicate = bulkhead.tryExecute(() -> timed(call))
+                            .doOnNext(value -> hedgeWins.increment())
+                            .onErrorResume(e -> primary);
+                    return Mono.firstWithSignal(primary, duplicate);
+                }));
+        return Mono.firstWithSignal(primary, hedge).flatMap(Mono::justOrEmpty);
+    }
+
+    /**
+     * Ejecuta una lectura registrando su latencia; el vacío se representa con
+     * Optional para poder competir entre lecturas
+     */
+    private <T> Mono<Optional<T>> timed(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return Mono.defer(call)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .doOnNext(value -> latency.record(System.nanoTime() - startNanos));
+        });
+    }
+
+    private long hedgeDelayNanos() {
+        long percentileNanos = latency.getNanos();
+        long delayNanos = percentileNanos >= 0
+                ? percentileNanos
+                : TimeUnit.MILLISECONDS.toNanos(configuration.getHedgeInitialDelayMillis());
+        return Math.min(TimeUnit.MILLISECONDS.toNanos(configuration.getHedgeMaxDelayMillis()),
+                Math.max(TimeUnit.MILLISECONDS.toNanos(configuration.getHedgeMinDelayMillis()), delayNanos));
+    }
+
+    Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("maxConcurrent", bulkhead.getMaxConcurrent());
+        metrics.put("inFlight", bulkhead.getInFlight());
+        metrics.put("queued", bulkhead.getQueued());
+        metrics.put("admitted", bulkhead.getAdmitted());
+        metrics.put("queuedTotal", bulkhead.getQueuedTotal());
+        metrics.put("rejected", bulkhead.getRejected());
+        metrics.put("waitTimeouts", bulkhead.getTimedOut());
+        metrics.put("failures", failures.sum());
+        metrics.put("recoveredWrites", recoveredWrites.sum());
+        metrics.put("circuitState", circuitBreaker.getState().name());
+        metrics.put("failureRate", Math.round(circuitBreaker.getFailureRate() * 1000) / 1000.0);
+        metrics.put("circuitOpened", circuitBreaker.getOpened());
+        metrics.put("shortCircuited", circuitBreaker.getShortCircuited());
+        metrics.put("hedgedReads", reads.sum());
+        metrics.put("hedges", hedges.sum());
+        metrics.put("hedgeWins", hedgeWins.sum());
+        long percentileNanos = latency.getNanos();
+        metrics.put("readLatencyPercentileMillis", percentileNanos < 0 ? -1 : percentileNanos / 1_000_000.0);
+        metrics.put("hedgeDelayMillis", hedgeDelayNanos() / 1_000_000.0);
+        return metrics;
+    }
+}
@@ -0,0 +1,141 @@
+package odoonto.infrastructure.persistence.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuración de la protección de las llamadas a Firestore de cada repositorio:
+ * aislamiento (bulkhead), lecturas duplicadas (hedging), cortocircuito y reintentos
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.resilience")
+@Data
+public class ResilienceConfiguration {
+    
+    /**
+     * Aplica la protección; si se desactiva las llamadas pasan directamente
+     */
+    private boolean enabled = true;
+    
+    /**
+     * Llamadas en curso por repositorio
+     */
+    private int maxConcurrent = 32;
+    
+    /**
+     * Llamadas en curso para repositorios concretos (p. ej. appointments=64)
+     */
+    private Map<String, Integer> maxConcurrentByRepository = new HashMap<>();
+    
+    /**
+     * Llamadas que pueden esperar hueco en un repositorio; las demás se rechazan
+     */
+    private int maxQueued = 64;
+    
+    /**
+     * Milisegundos que una llamada espera hueco antes de rechazarse
+     */
+    private long maxWaitMillis = 2000;
+    
+    /**
+     * Lanza una segunda lectura por ID si la primera tarda más que el percentil configurado
+     */
+    private boolean hedgingEnabled = true;
+    
+    /**
+     * Percentil de latencia de las lecturas a partir del cual se lanza la segunda
+     */
+    private double hedgePercentile = 0.95;
+    
+    /**
+     * Espera antes de la segunda lectura mientras no hay muestras suficientes
+     */
+    private long hedgeInitialDelayMillis = 100;
+    
+    /**
+     * Espera mínima y máxima antes de la segunda lectura
+     */
+    private long hedgeMinDelayMillis = 10;
+    private long hedgeMaxDelayMillis = 1000;
+    
+    /**
+     * Proporción máxima de lecturas duplicadas respecto al total
+     */
+    private double hedgeMaxRatio = 0.1;
+    
+    /**
+     * Últimas latencias que se guardan para calcular el percentil
+     */
+    private int latencySamples = 512;
+    
+    /**
+     * Corta las llamadas de un repositorio mientras su tasa de fallos es alta
+     */
+    private boolean circuitBreakerEnabled = true;
+    
+    /**
+     * Proporción de fallos en la ventana que abre el circuito
+     */
+    private double failureRateThreshold = 0.5;
+    
+    /**
+     * Últimas llamadas consideradas y mínimo de ellas para evaluar la tasa de fallos
+     */
+    private int slidingWindowSize = 50;
+    private int minimumCalls = 20;
+    
+    /**
+     * Milisegundos que el circuito permanece abierto antes de dejar pasar llamadas de prueba
+     */
+    private long openMillis = 10000;
+    
+    /**
+     * Llamadas de prueba que deben salir bien para cerrar de nuevo el circuito
+     */
+    private int halfOpenCalls = 5;
+    
+    /**
+     * Reintenta las llamadas que fallan por errores transitorios de Firestore
+     */
+    private boolean retryEnabled = true;
+    
+    /**
+     * Intentos como máximo por llamada, contando el primero
+     */
+    private int maxAttempts = 3;
+    
+    /**
+     * Espera base y máxima entre reintentos; la espera real es aleatoria entre 0 y la
+     * base duplicada en cada reintento
+     */
+    private long retryInitialBackoffMillis = 50;
+    private long retryMaxBackoffMillis = 2000;
+    
+    /**
+     * Reintentos permitidos por llamada en el presupuesto global (0.1 = uno de cada diez)
+     */
+    private double retryBudgetRatio = 0.1;
+    
+    /**
+     * Reintentos por segundo permitidos aunque haya poco tráfico
+     */
+    private double retryBudgetMinPerSecond = 5;
+    
+    /**
+     * Reintentos que puede acumular el presupuesto
+     */
+    private int retryBudgetMaxTokens = 50;
+    
+    /**
+     * Llamadas en curso permitidas en un repositorio concreto
+     * @param repository Nombre del repositorio
+     * @return Límite configurado para él o el general
+     */
+    public int maxConcurrentFor(String repository) {
+        return maxConcurrentByRepository.getOrDefault(repository, maxConcurrent);
+    }
+}
@@ -0,0 +1,57 @@
+package odoonto.infrastructure.persistence.resilience;
+
+/**
+ * Presupuesto global de reintentos: cada llamada deposita una fracción de ficha y cada
+ * reintento consume una entera, con un mínimo de reintentos por segundo para cuando
+ * hay poco tráfico. Durante una caída los reintentos quedan limitados a esa fracción
+ * de las llamadas en lugar de multiplicar la carga por el número de intentos.
+ */
+final class RetryBudget {
+
+    private final double depositPerCall;
+    private final double refillPerNano;
+    private final double maxTokens;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param ratio Reintentos permitidos por llamada (p. ej. 0.1 = uno de cada diez)
+     * @param minRetriesPerSecond Reintentos por segundo permitidos siempre
+     * @param maxTokens Reintentos acumulables como máximo
+     */
+    RetryBudget(double ratio, double minRetriesPerSecond, double maxTokens) {
+        this.depositPerCall = Math.max(0, ratio);
+        this.refillPerNano = Math.max(0, minRetriesPerSecond) / 1_000_000_000d;
+        this.maxTokens = Math.max(1, maxTokens);
+        this.tokens = this.maxTokens;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    synchronized void deposit() {
+        refill();
+        tokens = Math.min(maxTokens, tokens + depositPerCall);
+    }
+
+    /**
+     * @return true si queda presupuesto para un reintento, que queda consumido
+     */
+    synchronized boolean tryWithdraw() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized double getBalance() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(maxTokens, tokens + (now - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,456 @@
+package odoonto.infrastructure.persistence.statistics;
+
+import odoonto.application.port.out.AppointmentDayCounts;
+import odoonto.application.port.out.AppointmentDayCountsRepository;
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+import odoonto.infrastructure.persistence.archive.AppointmentArchive;
+import odoonto.infrastructure.persistence.resilience.DatastoreErrors;
+
+import com.google.api.gax.rpc.StatusCode;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.UpdateBuilder;
+import com.google.cloud.firestore.WriteBatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Vista materializada con el número de citas por doctor, día y estado.
+ * Cada documento appointment_day_counts/{fecha}_{doctorId} guarda un contador por
+ * estado y los slots ocupados. Cada escritura de cita resta su estado anterior y suma
+ * el nuevo en la misma transacción que el cambio, de modo que "confirmadas de hoy" o
+ * "canceladas esta semana" se leen con una consulta por rango de fecha sobre unos
+ * pocos documentos. La reconstrucción además completa el campo de estado y fecha en
+ * las citas guardadas antes de que existiera. Mientras se reconstruye, las escrituras
+ * de citas esperan para confirmarse (ver {@link RebuildGate}).
+ */
+@Component
+public class AppointmentDayCountsView implements AppointmentDayCountsRepository, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentDayCountsView.class);
+
+    static final String COLLECTION_NAME = "appointment_day_counts";
+    private static final String APPOINTMENTS_COLLECTION = "appointments";
+
+    static final String FIELD_DATE = "date";
+    static final String FIELD_DOCTOR_ID = "doctorId";
+    static final String FIELD_STATUS = "status";
+    static final String FIELD_BOOKED_SLOTS = "bookedSlots";
+
+    /**
+     * Campo de las citas con el estado y la fecha/hora de inicio ("CONFIRMADA|2024-05-10T09:30").
+     * Al ser un único campo, Firestore resuelve el filtro por estado y rango de fechas
+     * con su índice automático, sin índice compuesto
+     */
+    public static final String FIELD_STATUS_DATE_TIME = "statusDateTime";
+
+    private static final String STATUS_DATE_TIME_SEPARATOR = "|";
+    private static final int REBUILD_PAGE_SIZE = 400;
+    private static final int MAX_BATCH_WRITES = 400;
+    private static final int BACKFILL_CONCURRENCY = 16;
+    
+    /**
+     * Tiempo que una escritura de cita espera a que termine la reconstrucción antes de
+     * rechazarse (503)
+     */
+    private static final long REBUILD_WRITE_WAIT_MILLIS = 5000;
+
+    private final Firestore firestore;
+    private final CollectionReference countsCollection;
+    private final AppointmentArchive archive;
+    private final RebuildGate gate = new RebuildGate(COLLECTION_NAME, REBUILD_WRITE_WAIT_MILLIS);
+
+    private final LongAdder deltasApplied = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder daysRead = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder backfilled = new LongAdder();
+    private final LongAdder backfillSkipped = new LongAdder();
+    private final AtomicLong lastRebuildMillis = new AtomicLong(-1);
+    private final AtomicLong lastRebuildAppointments = new AtomicLong(-1);
+
+    @Autowired
+    public AppointmentDayCountsView(Firestore firestore, AppointmentArchive archive) {
+        this.firestore = firestore;
+        this.countsCollection = firestore.collection(COLLECTION_NAME);
+        this.archive = archive;
+    }
+
+    /**
+     * Valor del campo de estado y fecha/hora de una cita
+     */
+    public static String statusDateTime(AppointmentStatus status, LocalDateTime dateTime) {
+        return status.name() + STATUS_DATE_TIME_SEPARATOR + dateTime;
+    }
+
+    // Mantenimiento incremental
+
+    /**
+     * Añade a la escritura de una cita el cambio de los contadores
+     * @param writer WriteBatch o Transaction de la cita
+     * @param previous Cita antes del cambio (null si es nueva)
+     * @param current Cita después del cambio (null si se borra)
+     */
+    public <T> void apply(UpdateBuilder<T> writer, Appointment previous, Appointment current) {
+        Map<String, DayTally> deltas = new HashMap<>();
+        add(deltas, previous, -1);
+        add(deltas, current, 1);
+
+        for (DayTally delta : deltas.values()) {
+            if (delta.isEmpty()) {
+                continue;
+            }
+            writer.set(countsCollection.document(delta.documentId()), delta.toIncrements(), SetOptions.merge());
+            deltasApplied.increment();
+        }
+    }
+
+    /**
+     * Confirma una escritura que lleva un delta de la vista o que mueve citas entre
+     * colecciones que la reconstrucción recorre; espera si hay una reconstrucción en curso
+     * @param commit Confirmación de la escritura de citas
+     */
+    public <T> Mono<T> commit(Supplier<Mono<T>> commit) {
+        return gate.write(commit);
+    }
+
+    private static void add(Map<String, DayTally> tallies, Appointment appointment, int sign) {
+        if (appointment == null || appointment.getDoctorId() == null || appointment.getDateTime() == null) {
+            return;
+        }
+        LocalDate date = appointment.getDateTime().toLocalDate();
+        tallies.computeIfAbsent(DayTally.documentId(date, appointment.getDoctorId()),
+                        id -> new DayTally(date, appointment.getDoctorId()))
+                .add(appointment.getStatus(), appointment.getDurationSlots(), sign);
+    }
+
+    // Lectura
+
+    @Override
+    public Flux<AppointmentDayCounts> findByDateRange(LocalDate from, LocalDate to) {
+        return Mono.defer(() -> toMono(countsCollection
+                        .whereGreaterThanOrEqualTo(FIELD_DATE, from.toString())
+                        .whereLessThanOrEqualTo(FIELD_DATE, to.toString())
+                        .get()))
+                .flatMapIterable(snapshot -> {
+                    List<AppointmentDayCounts> days = new ArrayList<>();
+                    for (DocumentSnapshot document : snapshot.getDocuments()) {
+                        AppointmentDayCounts counts = toCounts(document);
+                        if (counts != null) {
+                            days.add(counts);
+                        }
+                    }
+                    reads.increment();
+                    daysRead.add(days.size());
+                    return days;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Reconstrucción
+
+    /**
+     * Recorre las citas por páginas, cuenta cada una en su día (también las archivadas)
+     * y reescribe la vista, con las escrituras de citas retenidas desde la primera
+     * lectura hasta la sobrescritura
+     * @return Mono con el número de citas procesadas
+     */
+    @Override
+    public Mono<Long> rebuild() {
+        return gate.rebuild(this::recount);
+    }
+
+    private Mono<Long> recount() {
+        Query appointments = firestore.collection(APPOINTMENTS_COLLECTION)
+                .orderBy(FieldPath.documentId())
+                .limit(REBUILD_PAGE_SIZE);
+        Map<String, DayTally> tallies = new HashMap<>();
+        AtomicLong processed = new AtomicLong();
+        long startNanos = System.nanoTime();
+
+        return toMono(appointments.get())
+                .map(snapshot -> new ArrayList<DocumentSnapshot>(snapshot.getDocuments()))
+                .expand(page -> page.size() < REBUILD_PAGE_SIZE
+                        ? Mono.empty()
+                        : toMono(appointments.startAfter(page.get(page.size() - 1)).get())
+                            .map(snapshot -> new ArrayList<DocumentSnapshot>(snapshot.getDocuments())))
+                .concatMap(page -> {
+                    List<DocumentSnapshot> missingKey = new ArrayList<>();
+                    for (DocumentSnapshot document : page) {
+                        if (countAppointment(tallies, document) && document.getString(FIELD_STATUS_DATE_TIME) == null) {
+                            missingKey.add(document);
+                        }
+                    }
+                    processed.addAndGet(page.size());
+                    return backfillStatusDateTime(missingKey);
+                })
+                .thenMany(Flux.defer(archive::findAll))
+                .doOnNext(appointment -> {
+                    add(tallies, appointment, 1);
+                    processed.incrementAndGet();
+                })
+                .then(Mono.defer(() -> toMono(countsCollection.get())))
+                .flatMap(existing -> {
+                    // Se reescriben los días con citas y se borran los que ya no tienen
+                    List<DocumentReference> stale = new ArrayList<>();
+                    for (DocumentSnapshot document : existing.getDocuments()) {
+                        if (!tallies.containsKey(document.getId())) {
+                            stale.add(document.getReference());
+                        }
+                    }
+                    return commitInChunks(new ArrayList<>(tallies.values()), stale);
+                })
+                .then(Mono.fromCallable(() -> {
+                    rebuilds.increment();
+                    lastRebuildMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                    lastRebuildAppointments.set(processed.get());
+                    return processed.get();
+                }))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Cuenta una cita leída de Firestore
+     * @return true si el documento es una cita válida
+     */
+    private static boolean countAppointment(Map<String, DayTally> tallies, DocumentSnapshot document) {
+        String doctorId = document.getString("doctorId");
+        String dateTime = document.getString("dateTime");
+        Long durationSlots = document.getLong("durationSlots");
+        if (doctorId == null || dateTime == null || durationSlots == null) {
+            return false;
+        }
+
+        try {
+            LocalDate date = LocalDateTime.parse(dateTime).toLocalDate();
+            tallies.computeIfAbsent(DayTally.documentId(date, doctorId), id -> new DayTally(date, doctorId))
+                    .add(parseStatus(document.getString("status")), durationSlots.intValue(), 1);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Completa el campo de estado y fecha de cada cita solo si no ha cambiado desde que
+     * se leyó; si otra escritura se adelantó, esa escritura ya guardó el campo con el
+     * estado nuevo y la cita se salta
+     */
+    private Mono<Void> backfillStatusDateTime(List<DocumentSnapshot> documents) {
+        return Flux.fromIterable(documents)
+                .flatMap(document -> toMono(document.getReference().update(
+                                Precondition.updatedAt(document.getUpdateTime()),
+                                FIELD_STATUS_DATE_TIME, statusDateTime(parseStatus(document.getString("status")),
+                                        LocalDateTime.parse(document.getString("dateTime")))))
+                        .doOnSuccess(result -> backfilled.increment())
+                        .then()
+                        .onErrorResume(e -> DatastoreErrors.statusCode(e) == StatusCode.Code.FAILED_PRECONDITION
+                                        || DatastoreErrors.statusCode(e) == StatusCode.Code.NOT_FOUND,
+                                e -> {
+                                    backfillSkipped.increment();
+                                    return Mono.empty();
+                                }), BACKFILL_CONCURRENCY)
+                .then();
+    }
+
+    private Mono<Void> commitInChunks(List<DayTally> days, List<DocumentReference> stale) {
+        List<WriteBatch> batches = new ArrayList<>();
+        WriteBatch batch = null;
+        int writes = 0;
+        for (int i = 0; i < days.size() + stale.size(); i++) {
+            if (batch == null || writes == MAX_BATCH_WRITES) {
+                batch = firestore.batch();
+                batches.add(batch);
+                writes = 0;
+            }
+            if (i < days.size()) {
+                DayTally day = days.get(i);
+                batch.set(countsCollection.document(day.documentId()), day.toValues());
+            } else {
+                batch.delete(stale.get(i - days.size()));
+            }
+            writes++;
+        }
+
+        return Flux.fromIterable(batches)
+                .concatMap(pending -> toMono(pending.commit()))
+                .then();
+    }
+
+    // Métodos auxiliares
+
+    @SuppressWarnings("unchecked")
+    private AppointmentDayCounts toCounts(DocumentSnapshot document) {
+        try {
+            Map<AppointmentStatus, Long> byStatus = new EnumMap<>(AppointmentStatus.class);
+            Object rawStatus = document.get(FIELD_STATUS);
+            if (rawStatus instanceof Map) {
+                for (Map.Entry<String, Object> entry : ((Map<String, Object>) rawStatus).entrySet()) {
+                    AppointmentStatus status = parseStatus(entry.getKey());
+                    long count = entry.getValue() instanceof Number ? ((Number) entry.getValue()).longValue() : 0;
+                    if (count > 0) {
+                        byStatus.merge(status, count, Long::sum);
+                    }
+                }
+            }
+            Long bookedSlots = document.getLong(FIELD_BOOKED_SLOTS);
+
+            return new AppointmentDayCounts(
+                    LocalDate.parse(document.getString(FIELD_DATE)),
+                    document.getString(FIELD_DOCTOR_ID),
+                    byStatus,
+                    bookedSlots != null ? Math.max(0, bookedSlots) : 0);
+        } catch (Exception e) {
+            logger.warn("Recuento de citas {} omitido: no se pudo leer el documento", document.getId(), e);
+            return null;
+        }
+    }
+
+    private static AppointmentStatus parseStatus(String status) {
+        try {
+            return status != null ? AppointmentStatus.valueOf(status) : AppointmentStatus.PENDIENTE;
+        } catch (IllegalArgumentException e) {
+            return AppointmentStatus.PENDIENTE;
+        }
+    }
+
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+
+    /**
+     * Contadores de un doctor en un día, como delta o como valor absoluto
+     */
+    private static final class DayTally {
+        private final LocalDate date;
+        private final String doctorId;
+        private final Map<AppointmentStatus, Long> byStatus = new EnumMap<>(AppointmentStatus.class);
+        private long bookedSlots;
+
+        private DayTally(LocalDate date, String doctorId) {
+            this.date = date;
+            this.doctorId = doctorId;
+        }
+
+        static String documentId(LocalDate date, String doctorId) {
+            return date + "_" + doctorId;
+        }
+
+        String documentId() {
+            return documentId(date, doctorId);
+        }
+
+        void add(AppointmentStatus status, int durationSlots, int sign) {
+            byStatus.merge(status, (long) sign, Long::sum);
+            // Una cita cancelada deja libres sus slots, igual que sus reservas de franja
+            if (status != AppointmentStatus.CANCELADA) {
+                bookedSlots += (long) sign * durationSlots;
+            }
+        }
+
+        boolean isEmpty() {
+            return bookedSlots == 0 && byStatus.values().stream().allMatch(value -> value == 0);
+        }
+
+        Map<String, Object> toIncrements() {
+            Map<String, Object> status = new HashMap<>();
+            byStatus.forEach((key, value) -> {
+                if (value != 0) {
+                    status.put(key.name(), FieldValue.increment(value));
+                }
+            });
+            Map<String, Object> data = header();
+            data.put(FIELD_STATUS, status);
+            if (bookedSlots != 0) {
+                data.put(FIELD_BOOKED_SLOTS, FieldValue.increment(bookedSlots));
+            }
+            return data;
+        }
+
+        Map<String, Object> toValues() {
+            Map<String, Object> status = new HashMap<>();
+            byStatus.forEach((key, value) -> status.put(key.name(), value));
+            Map<String, Object> data = header();
+            data.put(FIELD_STATUS, status);
+            data.put(FIELD_BOOKED_SLOTS, bookedSlots);
+            return data;
+        }
+
+        private Map<String, Object> header() {
+            Map<String, Object> data = new HashMap<>();
+            data.put(FIELD_DATE, date.toString());
+            data.put(FIELD_DOCTOR_ID, doctorId);
+            return data;
+        }
+    }
+
+    // Métricas
+
+    @Override
+    public String getMetricsName() {
+        return "appointmentDayCounts";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        long readCount = reads.sum();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("deltasApplied", deltasApplied.sum());
+        metrics.put("reads", readCount);
+        metrics.put("avgDaysPerRead", readCount == 0 ? 0.0 : (double) daysRead.sum() / readCount);
+        metrics.put("rebuilds", rebuilds.sum());
+        metrics.put("rebuilding", gate.isRebuilding());
+        metrics.put("writesWaitingForRebuild", gate.getWaitingWriters());
+        metrics.put("writesRejectedDuringRebuild", gate.getWriteTimeouts());
+        metrics.put("backfilled", backfilled.sum());
+        metrics.put("backfillSkipped", backfillSkipped.sum());
+        metrics.put("lastRebuildMillis", lastRebuildMillis.get());
+        metrics.put("lastRebuildAppointments", lastRebuildAppointments.get());
+        return metrics;
+    }
+}
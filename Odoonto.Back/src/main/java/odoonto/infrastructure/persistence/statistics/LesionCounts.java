@@ -0,0 +1,194 @@
+package odoonto.infrastructure.persistence.statistics;
+
+import odoonto.domain.model.aggregates.Odontogram;
+import odoonto.domain.model.valueobjects.LesionType;
+import odoonto.domain.model.valueobjects.ToothNumber;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contadores de lesiones indexados por ruta ("types.CARIES.tooth.16").
+ * Los de un odontograma se calculan a partir de sus caras; restando los de antes
+ * de un cambio a los de después se obtiene el delta que se suma a la vista, y
+ * sumando los de todos los odontogramas se reconstruye la vista completa.
+ */
+public final class LesionCounts {
+
+    static final String FIELD_TOTAL_LESIONS = "totalLesions";
+    static final String FIELD_ODONTOGRAMS_WITH_LESIONS = "odontogramsWithLesions";
+    static final String FIELD_TYPES = "types";
+    static final String FIELD_TOTAL = "total";
+    static final String FIELD_ODONTOGRAMS = "odontograms";
+    static final String DIMENSION_TOOTH = "tooth";
+    static final String DIMENSION_FACE = "face";
+    static final String DIMENSION_QUADRANT = "quadrant";
+    static final String DIMENSION_ZONE = "zone";
+
+    static final String ZONE_ANTERIOR = "ANTERIOR";
+    static final String ZONE_POSTERIOR = "POSTERIOR";
+
+    private final Map<String, Long> counts;
+
+    private LesionCounts(Map<String, Long> counts) {
+        this.counts = counts;
+    }
+
+    public static LesionCounts empty() {
+        return new LesionCounts(new HashMap<>());
+    }
+
+    /**
+     * Cuenta las lesiones de un odontograma
+     * @param odontogram Odontograma (null cuenta como vacío)
+     */
+    public static LesionCounts of(Odontogram odontogram) {
+        return of(OdontogramLesions.of(odontogram));
+    }
+
+    /**
+     * Cuenta las lesiones de un documento de odontograma sin construir el agregado
+     */
+    public static LesionCounts of(DocumentSnapshot document) {
+        return of(OdontogramLesions.of(document));
+    }
+
+    private static LesionCounts of(Map<String, Map<String, LesionType>> lesions) {
+        LesionCounts lesionCounts = empty();
+        for (Map.Entry<String, Map<String, LesionType>> tooth : lesions.entrySet()) {
+            for (Map.Entry<String, LesionType> face : tooth.getValue().entrySet()) {
+                lesionCounts.addLesion(tooth.getKey(), face.getKey(), face.getValue());
+            }
+        }
+        lesionCounts.markPresence();
+        return lesionCounts;
+    }
+
+    /**
+     * Suma los contadores numéricos de un documento de la vista (mapas anidados)
+     */
+    static LesionCounts fromNested(Map<String, Object> data) {
+        LesionCounts lesionCounts = empty();
+        if (data != null) {
+            lesionCounts.flatten("", data);
+        }
+        return lesionCounts;
+    }
+
+    private void addLesion(String toothId, String faceCode, LesionType lesionType) {
+        String type = FIELD_TYPES + "." + lesionType.name() + ".";
+        add(FIELD_TOTAL_LESIONS, 1);
+        add(type + FIELD_TOTAL, 1);
+        add(type + DIMENSION_TOOTH + "." + toothId, 1);
+        add(type + DIMENSION_FACE + "." + faceCode, 1);
+
+        ToothNumber toothNumber = parseToothNumber(toothId);
+        if (toothNumber != null) {
+            add(type + DIMENSION_QUADRANT + "." + toothNumber.getQuadrant(), 1);
+            add(type + DIMENSION_ZONE + "." + (toothNumber.isAnterior() ? ZONE_ANTERIOR : ZONE_POSTERIOR), 1);
+        }
+    }
+
+    /**
+     * Un odontograma cuenta una vez por cada tipo de lesión que presenta
+     */
+    private void markPresence() {
+        if (get(FIELD_TOTAL_LESIONS) > 0) {
+            counts.put(FIELD_ODONTOGRAMS_WITH_LESIONS, 1L);
+        }
+        for (LesionType lesionType : LesionType.values()) {
+            String type = FIELD_TYPES + "." + lesionType.name() + ".";
+            if (get(type + FIELD_TOTAL) > 0) {
+                counts.put(type + FIELD_ODONTOGRAMS, 1L);
+            }
+        }
+    }
+
+    private static ToothNumber parseToothNumber(String toothId) {
+        try {
+            return new ToothNumber(toothId);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void flatten(String prefix, Map<?, ?> data) {
+        for (Map.Entry<?, ?> entry : data.entrySet()) {
+            String path = prefix + entry.getKey();
+            if (entry.getValue() instanceof Map) {
+                flatten(path + ".", (Map<?, ?>) entry.getValue());
+            } else if (entry.getValue() instanceof Number) {
+                add(path, ((Number) entry.getValue()).longValue());
+            }
+        }
+    }
+
+    void add(String path, long delta) {
+        if (delta != 0) {
+            counts.merge(path, delta, Long::sum);
+        }
+    }
+
+    long get(String path) {
+        return counts.getOrDefault(path, 0L);
+    }
+
+    /**
+     * Suma otros contadores a estos
+     * @return Estos contadores, para encadenar
+     */
+    LesionCounts merge(LesionCounts other) {
+        other.counts.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Diferencia entre estos contadores y los anteriores (this - previous)
+     */
+    public LesionCounts minus(LesionCounts previous) {
+        LesionCounts delta = new LesionCounts(new HashMap<>(counts));
+        previous.counts.forEach((path, value) -> delta.add(path, -value));
+        delta.counts.values().removeIf(value -> value == 0);
+        return delta;
+    }
+
+    public boolean isEmpty() {
+        return counts.isEmpty();
+    }
+
+    Map<String, Long> asMap() {
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Mapa anidado con los contadores como incrementos, para set(..., merge)
+     */
+    Map<String, Object> toNestedIncrements() {
+        Map<String, Object> nested = new HashMap<>();
+        counts.forEach((path, value) -> put(nested, path, FieldValue.increment(value)));
+        return nested;
+    }
+
+    /**
+     * Mapa anidado con los valores absolutos, para reescribir la vista
+     */
+    Map<String, Object> toNestedValues() {
+        Map<String, Object> nested = new HashMap<>();
+        counts.forEach((path, value) -> put(nested, path, value));
+        return nested;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> nested, String path, Object value) {
+        String[] parts = path.split("\\.");
+        Map<String, Object> current = nested;
+        for (int i = 0; i < parts.length - 1; i++) {
+            current = (Map<String, Object>) current.computeIfAbsent(parts[i], key -> new HashMap<String, Object>());
+        }
+        current.put(parts[parts.length - 1], value);
+    }
+}
@@ -0,0 +1,29 @@
+package odoonto.infrastructure.persistence.statistics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración del índice de odontogramas por tipo de lesión
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.lesion-index")
+@Data
+public class LesionIndexConfiguration {
+    
+    /**
+     * Tamaño de página cuando la consulta no lo indica
+     */
+    private int defaultPageSize = 50;
+    
+    /**
+     * Tamaño de página máximo aceptado
+     */
+    private int maxPageSize = 500;
+    
+    /**
+     * Reconstruye el índice al arrancar a partir de todos los odontogramas
+     */
+    private boolean rebuildOnStartup = false;
+}
@@ -0,0 +1,101 @@
+package odoonto.infrastructure.persistence.statistics;
+
+import odoonto.domain.model.aggregates.Odontogram;
+import odoonto.domain.model.valueobjects.LesionType;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Entradas del índice por tipo de lesión de un odontograma: para cada tipo que
+ * presenta, los dientes y caras afectados. Comparando las de antes y después de un
+ * cambio se sabe qué entradas del índice hay que reescribir o borrar.
+ */
+public final class LesionIndexEntries {
+
+    private static final LesionIndexEntries EMPTY = new LesionIndexEntries(new EnumMap<>(LesionType.class));
+
+    private final Map<LesionType, Entry> entries;
+
+    private LesionIndexEntries(Map<LesionType, Entry> entries) {
+        this.entries = entries;
+    }
+
+    public static LesionIndexEntries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param odontogram Odontograma (null equivale a sin lesiones)
+     */
+    public static LesionIndexEntries of(Odontogram odontogram) {
+        return of(OdontogramLesions.of(odontogram));
+    }
+
+    public static LesionIndexEntries of(DocumentSnapshot document) {
+        return of(OdontogramLesions.of(document));
+    }
+
+    private static LesionIndexEntries of(Map<String, Map<String, LesionType>> lesions) {
+        Map<LesionType, Entry> entries = new EnumMap<>(LesionType.class);
+        for (Map.Entry<String, Map<String, LesionType>> tooth : lesions.entrySet()) {
+            for (Map.Entry<String, LesionType> face : tooth.getValue().entrySet()) {
+                entries.computeIfAbsent(face.getValue(), type -> new Entry())
+                        .add(tooth.getKey(), face.getKey());
+            }
+        }
+        return new LesionIndexEntries(entries);
+    }
+
+    Map<LesionType, Entry> asMap() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Dientes y caras de un odontograma con un mismo tipo de lesión
+     */
+    static final class Entry {
+        private final TreeSet<String> teeth = new TreeSet<>();
+        private final TreeSet<String> faceCodes = new TreeSet<>();
+        private final TreeSet<String> toothFaces = new TreeSet<>();
+        private int lesions;
+
+        private void add(String toothNumber, String faceCode) {
+            teeth.add(toothNumber);
+            faceCodes.add(faceCode);
+            toothFaces.add(LesionTypeIndex.toothFace(toothNumber, faceCode));
+            lesions++;
+        }
+
+        Map<String, Object> toDocument(String odontogramId, String patientId) {
+            Map<String, Object> data = new HashMap<>();
+            data.put(LesionTypeIndex.FIELD_ODONTOGRAM_ID, odontogramId);
+            data.put(LesionTypeIndex.FIELD_PATIENT_ID, patientId);
+            data.put(LesionTypeIndex.FIELD_TEETH, new ArrayList<>(teeth));
+            data.put(LesionTypeIndex.FIELD_FACE_CODES, new ArrayList<>(faceCodes));
+            data.put(LesionTypeIndex.FIELD_TOOTH_FACES, new ArrayList<>(toothFaces));
+            data.put(LesionTypeIndex.FIELD_LESIONS, lesions);
+            return data;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Entry)) return false;
+            Entry that = (Entry) o;
+            return lesions == that.lesions && toothFaces.equals(that.toothFaces);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(toothFaces, lesions);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package odoonto.infrastructure.persistence.statistics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración de la vista materializada de estadísticas de lesiones
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.lesion-statistics")
+@Data
+public class LesionStatisticsConfiguration {
+    
+    /**
+     * Documentos entre los que se reparten los incrementos; cada documento admite
+     * en torno a una escritura por segundo sostenida
+     */
+    private int shards = 10;
+    
+    /**
+     * Odontogramas leídos por página durante la reconstrucción
+     */
+    private int rebuildPageSize = 200;
+    
+    /**
+     * Reconstruye la vista al arrancar (p. ej. la primera vez que se activa); solo
+     * debe activarse con una única instancia del backend
+     */
+    private boolean rebuildOnStartup = false;
+    
+    /**
+     * Milisegundos que una escritura de odontograma espera a que termine la
+     * reconstrucción antes de rechazarse (503)
+     */
+    private long rebuildWriteWaitMillis = 5000;
+}
@@ -0,0 +1,294 @@
+package odoonto.infrastructure.persistence.statistics;
+
+import odoonto.application.port.out.LesionStatistics;
+import odoonto.application.port.out.LesionStatisticsRepository;
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.model.valueobjects.LesionType;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.UpdateBuilder;
+import com.google.cloud.firestore.WriteBatch;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Vista materializada con el recuento de lesiones de todos los odontogramas.
+ * Los contadores se reparten entre varios documentos lesion_statistics/shard_{n}: cada
+ * escritura de odontograma suma su delta (después - antes) a uno de ellos al azar en el
+ * mismo lote que el cambio, y una lectura suma todos los documentos con una sola
+ * petición. La reconstrucción recalcula los contadores en paralelo y los reescribe; mientras
+ * dura, las escrituras de odontogramas esperan para confirmar su delta, así que ninguno se
+ * pierde ni se cuenta dos veces. La espera es local al proceso (ver {@link RebuildGate}).
+ */
+@Component
+public class LesionStatisticsView implements LesionStatisticsRepository, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(LesionStatisticsView.class);
+
+    static final String COLLECTION_NAME = "lesion_statistics";
+    private static final String SHARD_PREFIX = "shard_";
+    private static final String ODONTOGRAMS_COLLECTION = "odontograms";
+
+    private final Firestore firestore;
+    private final CollectionReference statisticsCollection;
+    private final LesionStatisticsConfiguration configuration;
+    private final RebuildGate gate;
+
+    private final LongAdder deltasApplied = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final AtomicLong lastRebuildMillis = new AtomicLong(-1);
+    private final AtomicLong lastRebuildOdontograms = new AtomicLong(-1);
+    private Disposable startupRebuild;
+
+    @Autowired
+    public LesionStatisticsView(Firestore firestore, LesionStatisticsConfiguration configuration) {
+        this.firestore = firestore;
+        this.statisticsCollection = firestore.collection(COLLECTION_NAME);
+        this.configuration = configuration;
+        this.gate = new RebuildGate(COLLECTION_NAME, configuration.getRebuildWriteWaitMillis());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!configuration.isRebuildOnStartup()) {
+            return;
+        }
+
+        startupRebuild = rebuild()
+                .subscribe(
+                    count -> logger.info("Estadísticas de lesiones reconstruidas: {} odontogramas", count),
+                    e -> logger.warn("Error al reconstruir las estadísticas de lesiones: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (startupRebuild != null) {
+            startupRebuild.dispose();
+        }
+    }
+
+    // Mantenimiento incremental
+
+    /**
+     * Añade al lote el incremento de los contadores en un documento elegido al azar
+     * @param writer WriteBatch o Transaction del cambio de odontograma
+     * @param delta Contadores después del cambio menos contadores antes
+     */
+    public <T> void apply(UpdateBuilder<T> writer, LesionCounts delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        int shard = ThreadLocalRandom.current().nextInt(shardCount());
+        writer.set(shard(shard), delta.toNestedIncrements(), SetOptions.merge());
+        deltasApplied.increment();
+    }
+
+    /**
+     * Confirma una escritura que lleva un delta de la vista; espera si hay una
+     * reconstrucción en curso
+     * @param commit Confirmación del lote al que se añadió el delta con {@link #apply}
+     */
+    public <T> Mono<T> commit(Supplier<Mono<T>> commit) {
+        return gate.write(commit);
+    }
+
+    // Lectura
+
+    @Override
+    public Mono<LesionStatistics> findStatistics() {
+        DocumentReference[] shards = new DocumentReference[shardCount()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = shard(i);
+        }
+
+        return toMono(firestore.getAll(shards))
+                .map(snapshots -> {
+                    LesionCounts counts = LesionCounts.empty();
+                    for (DocumentSnapshot snapshot : snapshots) {
+                        if (snapshot.exists()) {
+                            counts.merge(LesionCounts.fromNested(snapshot.getData()));
+                        }
+                    }
+                    reads.increment();
+                    return toStatistics(counts);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Reconstrucción
+
+    /**
+     * Recorre los odontogramas por páginas, cuenta cada página en paralelo, suma los
+     * parciales y reescribe los documentos de la vista con el resultado, con las
+     * escrituras incrementales retenidas desde la primera lectura hasta la sobrescritura
+     * @return Mono con el número de odontogramas procesados
+     */
+    @Override
+    public Mono<Long> rebuild() {
+        return gate.rebuild(this::recount);
+    }
+
+    private Mono<Long> recount() {
+        int pageSize = Math.max(1, configuration.getRebuildPageSize());
+        Query odontograms = firestore.collection(ODONTOGRAMS_COLLECTION)
+                .orderBy(FieldPath.documentId())
+                .limit(pageSize);
+        AtomicLong processed = new AtomicLong();
+        long startNanos = System.nanoTime();
+
+        return toMono(odontograms.get())
+                .map(snapshot -> new ArrayList<DocumentSnapshot>(snapshot.getDocuments()))
+                .expand(page -> page.size() < pageSize
+                        ? Mono.empty()
+                        : toMono(odontograms.startAfter(page.get(page.size() - 1)).get())
+                            .map(snapshot -> new ArrayList<DocumentSnapshot>(snapshot.getDocuments())))
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .map(page -> {
+                    LesionCounts counts = LesionCounts.empty();
+                    for (DocumentSnapshot document : page) {
+                        counts.merge(LesionCounts.of(document));
+                    }
+                    processed.addAndGet(page.size());
+                    return counts;
+                })
+                .reduce(LesionCounts::merge)
+                .defaultIfEmpty(LesionCounts.empty())
+                .flatMap(counts -> {
+                    // El primer documento recibe los totales y el resto se vacía
+                    WriteBatch batch = firestore.batch();
+                    batch.set(shard(0), counts.toNestedValues());
+                    for (int i = 1; i < shardCount(); i++) {
+                        batch.set(shard(i), new HashMap<String, Object>());
+                    }
+                    return toMono(batch.commit());
+                })
+                .then(Mono.fromCallable(() -> {
+                    rebuilds.increment();
+                    lastRebuildMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                    lastRebuildOdontograms.set(processed.get());
+                    return processed.get();
+                }))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Métodos auxiliares
+
+    private LesionStatistics toStatistics(LesionCounts counts) {
+        Map<LesionType, LesionStatistics.TypeCounts> byType = new EnumMap<>(LesionType.class);
+        for (LesionType lesionType : LesionType.values()) {
+            String prefix = LesionCounts.FIELD_TYPES + "." + lesionType.name() + ".";
+            long total = counts.get(prefix + LesionCounts.FIELD_TOTAL);
+            if (total <= 0) {
+                continue;
+            }
+            byType.put(lesionType, new LesionStatistics.TypeCounts(
+                    total,
+                    counts.get(prefix + LesionCounts.FIELD_ODONTOGRAMS),
+                    dimension(counts, prefix + LesionCounts.DIMENSION_TOOTH + "."),
+                    dimension(counts, prefix + LesionCounts.DIMENSION_FACE + "."),
+                    dimension(counts, prefix + LesionCounts.DIMENSION_QUADRANT + "."),
+                    dimension(counts, prefix + LesionCounts.DIMENSION_ZONE + ".")));
+        }
+
+        return new LesionStatistics(
+                counts.get(LesionCounts.FIELD_TOTAL_LESIONS),
+                counts.get(LesionCounts.FIELD_ODONTOGRAMS_WITH_LESIONS),
+                byType);
+    }
+
+    /**
+     * Contadores positivos bajo un prefijo, ordenados por clave
+     */
+    private Map<String, Long> dimension(LesionCounts counts, String prefix) {
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : counts.asMap().entrySet()) {
+            if (entry.getKey().startsWith(prefix) && entry.getValue() > 0) {
+                keys.add(entry.getKey().substring(prefix.length()));
+            }
+        }
+        keys.sort(null);
+
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (String key : keys) {
+            values.put(key, counts.get(prefix + key));
+        }
+        return values;
+    }
+
+    private int shardCount() {
+        return Math.max(1, configuration.getShards());
+    }
+
+    private DocumentReference shard(int index) {
+        return statisticsCollection.document(SHARD_PREFIX + index);
+    }
+
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+
+    // Métricas
+
+    @Override
+    public String getMetricsName() {
+        return "lesionStatistics";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("shards", shardCount());
+        metrics.put("deltasApplied", deltasApplied.sum());
+        metrics.put("reads", reads.sum());
+        metrics.put("rebuilds", rebuilds.sum());
+        metrics.put("rebuilding", gate.isRebuilding());
+        metrics.put("writesWaitingForRebuild", gate.getWaitingWriters());
+        metrics.put("writesRejectedDuringRebuild", gate.getWriteTimeouts());
+        metrics.put("lastRebuildMillis", lastRebuildMillis.get());
+        metrics.put("lastRebuildOdontograms", lastRebuildOdontograms.get());
+        return metrics;
+    }
+}
@@ -0,0 +1,259 @@
+package odoonto.infrastructure.persistence.statistics;
+
+import odoonto.application.port.out.LesionIndexQuery;
+import odoonto.application.port.out.LesionPatientPage;
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.model.valueobjects.LesionType;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.UpdateBuilder;
+import com.google.cloud.firestore.WriteBatch;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Índice invertido de odontogramas por tipo de lesión.
+ * Cada tipo tiene una subcolección lesion_index/{tipo}/members con un documento por
+ * odontograma que lo presenta (paciente, dientes y caras afectados). Las entradas se
+ * escriben en el mismo lote que el odontograma, y solo las de los tipos cuyo
+ * contenido cambia; una consulta lee los IDs de paciente de una página del índice,
+ * filtrada en Firestore por diente o cara, sin cargar ningún odontograma.
+ */
+@Component
+public class LesionTypeIndex implements MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(LesionTypeIndex.class);
+
+    static final String COLLECTION_NAME = "lesion_index";
+    static final String MEMBERS_SUBCOLLECTION = "members";
+
+    static final String FIELD_ODONTOGRAM_ID = "odontogramId";
+    static final String FIELD_PATIENT_ID = "patientId";
+    static final String FIELD_TEETH = "teeth";
+    static final String FIELD_FACE_CODES = "faceCodes";
+    static final String FIELD_TOOTH_FACES = "toothFaces";
+    static final String FIELD_LESIONS = "lesions";
+
+    private static final String ODONTOGRAMS_COLLECTION = "odontograms";
+    private static final int REBUILD_PAGE_SIZE = 200;
+
+    private final Firestore firestore;
+    private final CollectionReference indexCollection;
+    private final LesionIndexConfiguration configuration;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder entriesWritten = new LongAdder();
+    private final LongAdder entriesDeleted = new LongAdder();
+    private Disposable startupRebuild;
+
+    @Autowired
+    public LesionTypeIndex(Firestore firestore, LesionIndexConfiguration configuration) {
+        this.firestore = firestore;
+        this.indexCollection = firestore.collection(COLLECTION_NAME);
+        this.configuration = configuration;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!configuration.isRebuildOnStartup()) {
+            return;
+        }
+
+        startupRebuild = rebuild()
+                .subscribe(
+                    count -> logger.info("Índice por tipo de lesión reconstruido: {} odontogramas", count),
+                    e -> logger.warn("Error al reconstruir el índice por tipo de lesión: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (startupRebuild != null) {
+            startupRebuild.dispose();
+        }
+    }
+
+    /**
+     * Valor de una cara concreta de un diente en el campo toothFaces
+     */
+    static String toothFace(String toothNumber, String faceCode) {
+        return toothNumber + ":" + faceCode;
+    }
+
+    // Mantenimiento incremental
+
+    /**
+     * Añade al lote las entradas que cambian entre dos estados de un odontograma:
+     * reescribe las de los tipos cuyo contenido difiere y borra las de los tipos que
+     * ya no presenta
+     * @param writer WriteBatch o Transaction del cambio de odontograma
+     * @param odontogramId ID del odontograma
+     * @param patientId ID del paciente
+     * @param previous Entradas antes del cambio
+     * @param current Entradas después del cambio
+     * @return Número de escrituras añadidas al lote
+     */
+    public <T> int apply(UpdateBuilder<T> writer, String odontogramId, String patientId,
+                         LesionIndexEntries previous, LesionIndexEntries current) {
+        int writes = 0;
+        for (Map.Entry<LesionType, LesionIndexEntries.Entry> entry : current.asMap().entrySet()) {
+            if (!entry.getValue().equals(previous.asMap().get(entry.getKey()))) {
+                writer.set(member(entry.getKey(), odontogramId), entry.getValue().toDocument(odontogramId, patientId));
+                writes++;
+            }
+        }
+        entriesWritten.add(writes);
+
+        int deletes = 0;
+        for (LesionType lesionType : previous.asMap().keySet()) {
+            if (!current.asMap().containsKey(lesionType)) {
+                writer.delete(member(lesionType, odontogramId));
+                deletes++;
+            }
+        }
+        entriesDeleted.add(deletes);
+        return writes + deletes;
+    }
+
+    // Consulta
+
+    /**
+     * Lee una página de pacientes con un tipo de lesión, ordenada por ID de odontograma
+     */
+    public Mono<LesionPatientPage> findPatients(LesionIndexQuery indexQuery) {
+        int limit = indexQuery.getLimit() > 0
+                ? Math.min(indexQuery.getLimit(), configuration.getMaxPageSize())
+                : configuration.getDefaultPageSize();
+
+        Query query = indexCollection.document(indexQuery.getLesionType().name()).collection(MEMBERS_SUBCOLLECTION);
+        if (indexQuery.getToothNumber() != null && indexQuery.getFaceCode() != null) {
+            query = query.whereArrayContains(FIELD_TOOTH_FACES,
+                    toothFace(indexQuery.getToothNumber(), indexQuery.getFaceCode()));
+        } else if (indexQuery.getToothNumber() != null) {
+            query = query.whereArrayContains(FIELD_TEETH, indexQuery.getToothNumber());
+        } else if (indexQuery.getFaceCode() != null) {
+            query = query.whereArrayContains(FIELD_FACE_CODES, indexQuery.getFaceCode());
+        }
+        query = query.orderBy(FieldPath.documentId());
+        if (indexQuery.getCursor() != null && !indexQuery.getCursor().isEmpty()) {
+            query = query.startAfter(indexQuery.getCursor());
+        }
+
+        // Se lee una entrada de más para saber si hay página siguiente
+        return toMono(query.select(FIELD_PATIENT_ID).limit(limit + 1).get())
+                .map(snapshot -> {
+                    List<QueryDocumentSnapshot> documents = snapshot.getDocuments();
+                    List<String> patientIds = new ArrayList<>();
+                    for (int i = 0; i < Math.min(limit, documents.size()); i++) {
+                        String patientId = documents.get(i).getString(FIELD_PATIENT_ID);
+                        if (patientId != null) {
+                            patientIds.add(patientId);
+                        }
+                    }
+                    String nextCursor = documents.size() > limit
+                            ? documents.get(limit - 1).getId()
+                            : null;
+                    lookups.increment();
+                    return new LesionPatientPage(patientIds, nextCursor);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Reconstrucción
+
+    /**
+     * Reescribe las entradas de todos los odontogramas y borra las de los tipos que no
+     * presentan. Sirve para poblar el índice con odontogramas anteriores a su creación;
+     * las escrituras son idempotentes
+     * @return Mono con el número de odontogramas procesados
+     */
+    public Mono<Long> rebuild() {
+        Query odontograms = firestore.collection(ODONTOGRAMS_COLLECTION)
+                .orderBy(FieldPath.documentId())
+                .limit(REBUILD_PAGE_SIZE);
+
+        return toMono(odontograms.get())
+                .map(snapshot -> new ArrayList<DocumentSnapshot>(snapshot.getDocuments()))
+                .expand(page -> page.size() < REBUILD_PAGE_SIZE
+                        ? Mono.empty()
+                        : toMono(odontograms.startAfter(page.get(page.size() - 1)).get())
+                            .map(snapshot -> new ArrayList<DocumentSnapshot>(snapshot.getDocuments())))
+                .concatMapIterable(page -> page)
+                .flatMap(document -> {
+                    LesionIndexEntries current = LesionIndexEntries.of(document);
+                    WriteBatch batch = firestore.batch();
+                    for (LesionType lesionType : LesionType.values()) {
+                        LesionIndexEntries.Entry entry = current.asMap().get(lesionType);
+                        if (entry != null) {
+                            batch.set(member(lesionType, document.getId()),
+                                    entry.toDocument(document.getId(), document.getString(FIELD_PATIENT_ID)));
+                        } else {
+                            batch.delete(member(lesionType, document.getId()));
+                        }
+                    }
+                    return toMono(batch.commit()).thenReturn(document.getId());
+                }, 4)
+                .count()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Métodos auxiliares
+
+    private DocumentReference member(LesionType lesionType, String odontogramId) {
+        return indexCollection.document(lesionType.name()).collection(MEMBERS_SUBCOLLECTION).document(odontogramId);
+    }
+
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+
+    // Métricas
+
+    @Override
+    public String getMetricsName() {
+        return "lesionTypeIndex";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("lookups", lookups.sum());
+        metrics.put("entriesWritten", entriesWritten.sum());
+        metrics.put("entriesDeleted", entriesDeleted.sum());
+        return metrics;
+    }
+}
@@ -0,0 +1,63 @@
+package odoonto.infrastructure.persistence.statistics;
+
+import odoonto.domain.model.aggregates.Odontogram;
+import odoonto.domain.model.valueobjects.LesionType;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lectura de las lesiones de un odontograma como mapa diente → cara → tipo, desde el
+ * agregado o directamente desde su documento (teeth.{diente}.faces.{cara} = tipo)
+ */
+final class OdontogramLesions {
+
+    private OdontogramLesions() {
+    }
+
+    static Map<String, Map<String, LesionType>> of(Odontogram odontogram) {
+        Map<String, Map<String, LesionType>> lesions = new HashMap<>();
+        if (odontogram == null) {
+            return lesions;
+        }
+
+        for (Map.Entry<String, Odontogram.ToothRecord> tooth : odontogram.getTeeth().entrySet()) {
+            if (!tooth.getValue().getFaces().isEmpty()) {
+                lesions.put(tooth.getKey(), new HashMap<>(tooth.getValue().getFaces()));
+            }
+        }
+        return lesions;
+    }
+
+    static Map<String, Map<String, LesionType>> of(DocumentSnapshot document) {
+        Map<String, Map<String, LesionType>> lesions = new HashMap<>();
+        Object teeth = document.exists() ? document.get("teeth") : null;
+        if (!(teeth instanceof Map)) {
+            return lesions;
+        }
+
+        for (Map.Entry<?, ?> tooth : ((Map<?, ?>) teeth).entrySet()) {
+            if (!(tooth.getValue() instanceof Map)) {
+                continue;
+            }
+            Object faces = ((Map<?, ?>) tooth.getValue()).get("faces");
+            if (!(faces instanceof Map)) {
+                continue;
+            }
+            Map<String, LesionType> toothLesions = new HashMap<>();
+            for (Map.Entry<?, ?> face : ((Map<?, ?>) faces).entrySet()) {
+                try {
+                    toothLesions.put(String.valueOf(face.getKey()), LesionType.valueOf(String.valueOf(face.getValue())));
+                } catch (IllegalArgumentException e) {
+                    // Tipo de lesión desconocido: se ignora
+                }
+            }
+            if (!toothLesions.isEmpty()) {
+                lesions.put(String.valueOf(tooth.getKey()), toothLesions);
+            }
+        }
+        return lesions;
+    }
+}
@@ -0,0 +1,214 @@
+package odoonto.infrastructure.persistence.statistics;
+
+import odoonto.application.exceptions.RepositoryUnavailableException;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Exclusión entre las escrituras incrementales de una vista y su reconstrucción.
+ * Las escrituras se ejecutan en paralelo entre sí; la reconstrucción espera a que
+ * terminen las que están en curso y retiene las nuevas hasta reescribir la vista, de
+ * modo que ningún delta se confirma entre la lectura completa y la sobrescritura.
+ * Una escritura retenida más del tiempo máximo se rechaza con
+ * {@link RepositoryUnavailableException} (503) para que el cliente la repita después.
+ * La exclusión es local al proceso: la reconstrucción solo es exacta si es la única
+ * instancia que escribe en la vista mientras dura, por lo que debe lanzarse con una
+ * sola instancia del backend en marcha.
+ */
+final class RebuildGate {
+
+    private final String view;
+    private final Duration maxWriteWait;
+    private final LongAdder writeTimeouts = new LongAdder();
+
+    private final Deque<Waiter> waitingWriters = new ArrayDeque<>();
+    private Waiter waitingRebuild;
+    private int writers;
+    private boolean rebuilding;
+
+    /**
+     * @param view Nombre de la vista, para el error de las escrituras rechazadas
+     * @param maxWriteWaitMillis Tiempo máximo que una escritura espera a la reconstrucción
+     */
+    RebuildGate(String view, long maxWriteWaitMillis) {
+        this.view = view;
+        this.maxWriteWait = Duration.ofMillis(Math.max(1, maxWriteWaitMillis));
+    }
+
+    /**
+     * Ejecuta una escritura incremental, esperando si hay una reconstrucción en curso
+     * @throws RepositoryUnavailableException (en el Mono) si la reconstrucción no
+     * termina dentro del tiempo máximo de espera
+     */
+    <T> Mono<T> write(Supplier<Mono<T>> operation) {
+        return Mono.usingWhen(acquireWrite(), permit -> Mono.defer(operation),
+                this::releaseAsync, (permit, e) -> releaseAsync(permit), this::releaseAsync);
+    }
+
+    /**
+     * Ejecuta la reconstrucción con la vista en exclusiva
+     * @throws IllegalStateException (en el Mono) si ya hay otra reconstrucción en curso
+     */
+    <T> Mono<T> rebuild(Supplier<Mono<T>> operation) {
+        return Mono.usingWhen(acquireRebuild(), permit -> Mono.defer(operation),
+                this::releaseAsync, (permit, e) -> releaseAsync(permit), this::releaseAsync);
+    }
+
+    synchronized boolean isRebuilding() {
+        return rebuilding;
+    }
+
+    synchronized int getWaitingWriters() {
+        return waitingWriters.size();
+    }
+
+    long getWriteTimeouts() {
+        return writeTimeouts.sum();
+    }
+
+    private Mono<Permit> acquireWrite() {
+        Mono<Permit> acquisition = Mono.create(sink -> {
+            Waiter waiter;
+            synchronized (this) {
+                if (!rebuilding) {
+                    writers++;
+                    waiter = null;
+                } else {
+                    waiter = new Waiter(sink);
+                    waitingWriters.addLast(waiter);
+                }
+            }
+
+            if (waiter == null) {
+                sink.success(new Permit(false));
+                return;
+            }
+            sink.onCancel(() -> {
+                if (waiter.granted.compareAndSet(false, true)) {
+                    synchronized (this) {
+                        waitingWriters.remove(waiter);
+                    }
+                }
+            });
+        });
+
+        // El timeout cancela la espera, que se retira de la cola
+        return acquisition.timeout(maxWriteWait).onErrorMap(TimeoutException.class, e -> {
+            writeTimeouts.increment();
+            return new RepositoryUnavailableException(view, "reconstrucción de la vista en curso");
+        });
+    }
+
+    private Mono<Permit> acquireRebuild() {
+        return Mono.create(sink -> {
+            Waiter waiter;
+            synchronized (this) {
+                if (rebuilding) {
+                    sink.error(new IllegalStateException("Ya hay una reconstrucción en curso"));
+                    return;
+                }
+                rebuilding = true;
+                if (writers == 0) {
+                    waiter = null;
+                } else {
+                    waiter = new Waiter(sink);
+                    waitingRebuild = waiter;
+                }
+            }
+
+            if (waiter == null) {
+                sink.success(new Permit(true));
+                return;
+            }
+            sink.onCancel(() -> {
+                if (waiter.granted.compareAndSet(false, true)) {
+                    endRebuild();
+                }
+            });
+        });
+    }
+
+    private Mono<Void> releaseAsync(Permit permit) {
+        return Mono.fromRunnable(permit::release);
+    }
+
+    private void endWrite() {
+        Waiter rebuild = null;
+        synchronized (this) {
+            writers--;
+            if (writers == 0 && waitingRebuild != null) {
+                rebuild = waitingRebuild;
+                waitingRebuild = null;
+            }
+        }
+        if (rebuild != null && rebuild.granted.compareAndSet(false, true)) {
+            rebuild.sink.success(new Permit(true));
+        }
+    }
+
+    /**
+     * Termina la reconstrucción y deja pasar a todas las escrituras retenidas
+     */
+    private void endRebuild() {
+        List<Waiter> released;
+        synchronized (this) {
+            rebuilding = false;
+            waitingRebuild = null;
+            released = new ArrayList<>(waitingWriters);
+            waitingWriters.clear();
+            writers += released.size();
+        }
+        for (Waiter waiter : released) {
+            if (waiter.granted.compareAndSet(false, true)) {
+                waiter.sink.success(new Permit(false));
+            } else {
+                endWrite();
+            }
+        }
+    }
+
+    /**
+     * Espera en cola; el indicador evita entregar el paso a una espera ya cancelada
+     */
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        private final AtomicBoolean granted = new AtomicBoolean(false);
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * Paso concedido; se devuelve una sola vez
+     */
+    private final class Permit {
+        private final boolean exclusive;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit(boolean exclusive) {
+            this.exclusive = exclusive;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                if (exclusive) {
+                    endRebuild();
+                } else {
+                    endWrite();
+                }
+            }
+        }
+    }
+}
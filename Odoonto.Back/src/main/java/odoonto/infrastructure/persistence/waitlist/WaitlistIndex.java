@@ -0,0 +1,190 @@
+package odoonto.infrastructure.persistence.waitlist;
+
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.model.aggregates.WaitlistEntry;
+import odoonto.domain.model.valueobjects.Specialty;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Índice en memoria de las solicitudes en lista de espera.
+ * Cada solicitud se apunta en cada día aceptable de su rango (como mucho
+ * {@link WaitlistEntry#MAX_WINDOW_DAYS}) bajo la clave de su doctor o de su
+ * especialidad, en conjuntos ordenados por prioridad. Buscar candidatos para un
+ * hueco son dos accesos a mapa y una mezcla de dos listas ya ordenadas; las lecturas
+ * no bloquean y las escrituras se serializan. Los días pasados se descartan enteros.
+ */
+@Component
+public class WaitlistIndex implements MetricsSource {
+
+    private static final String DOCTOR_PREFIX = "D:";
+    private static final String SPECIALTY_PREFIX = "S:";
+
+    private final ConcurrentSkipListMap<LocalDate, Map<String, NavigableSet<WaitlistEntry>>> byDay =
+            new ConcurrentSkipListMap<>();
+    private final Map<String, WaitlistEntry> entriesById = new ConcurrentHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder candidatesReturned = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+    private final AtomicLong maxLookupNanos = new AtomicLong();
+
+    /**
+     * Añade o actualiza una solicitud; si ya no está en lista se retira del índice
+     */
+    public synchronized void put(WaitlistEntry entry) {
+        removeInternal(entry.getId());
+        if (!entry.getStatus().isEnLista()) {
+            return;
+        }
+
+        String key = keyOf(entry);
+        LocalDate today = LocalDate.now();
+        LocalDate first = entry.getDesde().isBefore(today) ? today : entry.getDesde();
+        for (LocalDate date = first; !date.isAfter(entry.getHasta()); date = date.plusDays(1)) {
+            if (entry.getDias().isEmpty() || entry.getDias().contains(date.getDayOfWeek())) {
+                byDay.computeIfAbsent(date, day -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(key, ignored -> new ConcurrentSkipListSet<>(WaitlistEntry.ORDEN_PRIORIDAD))
+                        .add(entry);
+            }
+        }
+        entriesById.put(entry.getId(), entry);
+    }
+
+    /**
+     * Retira una solicitud del índice
+     */
+    public synchronized void remove(String id) {
+        removeInternal(id);
+    }
+
+    /**
+     * Sustituye todo el contenido del índice
+     */
+    public synchronized void replaceAll(List<WaitlistEntry> entries) {
+        byDay.clear();
+        entriesById.clear();
+        for (WaitlistEntry entry : entries) {
+            put(entry);
+        }
+    }
+
+    /**
+     * Solicitudes que aceptan una fecha con un doctor o con su especialidad
+     * @return Solicitudes en orden de prioridad
+     */
+    public List<WaitlistEntry> candidates(String doctorId, Specialty specialty, LocalDate date) {
+        long startNanos = System.nanoTime();
+        Map<String, NavigableSet<WaitlistEntry>> day = byDay.get(date);
+        List<WaitlistEntry> result = day == null
+                ? Collections.emptyList()
+                : merge(day.get(DOCTOR_PREFIX + doctorId),
+                        specialty != null ? day.get(SPECIALTY_PREFIX + specialty.name()) : null);
+
+        long elapsed = System.nanoTime() - startNanos;
+        lookups.increment();
+        candidatesReturned.add(result.size());
+        lookupNanos.add(elapsed);
+        maxLookupNanos.accumulateAndGet(elapsed, Math::max);
+        return result;
+    }
+
+    /**
+     * Descarta los días anteriores a una fecha
+     */
+    public void evictBefore(LocalDate date) {
+        byDay.headMap(date).clear();
+    }
+
+    public int size() {
+        return entriesById.size();
+    }
+
+    private void removeInternal(String id) {
+        WaitlistEntry previous = entriesById.remove(id);
+        if (previous == null) {
+            return;
+        }
+
+        String key = keyOf(previous);
+        for (LocalDate date = previous.getDesde(); !date.isAfter(previous.getHasta()); date = date.plusDays(1)) {
+            Map<String, NavigableSet<WaitlistEntry>> day = byDay.get(date);
+            NavigableSet<WaitlistEntry> entries = day != null ? day.get(key) : null;
+            if (entries != null) {
+                entries.remove(previous);
+                if (entries.isEmpty()) {
+                    day.remove(key);
+                }
+            }
+        }
+    }
+
+    private static String keyOf(WaitlistEntry entry) {
+        return entry.getDoctorId() != null
+                ? DOCTOR_PREFIX + entry.getDoctorId()
+                : SPECIALTY_PREFIX + entry.getEspecialidad().name();
+    }
+
+    /**
+     * Mezcla dos conjuntos ya ordenados por prioridad
+     */
+    private static List<WaitlistEntry> merge(NavigableSet<WaitlistEntry> first, NavigableSet<WaitlistEntry> second) {
+        if (first == null || first.isEmpty()) {
+            return second == null ? Collections.emptyList() : new ArrayList<>(second);
+        }
+        if (second == null || second.isEmpty()) {
+            return new ArrayList<>(first);
+        }
+
+        List<WaitlistEntry> merged = new ArrayList<>(first.size() + second.size());
+        Iterator<WaitlistEntry> a = first.iterator();
+        Iterator<WaitlistEntry> b = second.iterator();
+        WaitlistEntry nextA = a.next();
+        WaitlistEntry nextB = b.next();
+        while (nextA != null || nextB != null) {
+            if (nextB == null || (nextA != null && WaitlistEntry.ORDEN_PRIORIDAD.compare(nextA, nextB) <= 0)) {
+                merged.add(nextA);
+                nextA = a.hasNext() ? a.next() : null;
+            } else {
+                merged.add(nextB);
+                nextB = b.hasNext() ? b.next() : null;
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "waitlistIndex";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        long lookupCount = lookups.sum();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("entries", entriesById.size());
+        metrics.put("indexedDays", byDay.size());
+        metrics.put("lookups", lookupCount);
+        metrics.put("avgCandidates", lookupCount == 0 ? 0.0 : (double) candidatesReturned.sum() / lookupCount);
+        metrics.put("avgLookupMicros", lookupCount == 0
+                ? 0.0 : lookupNanos.sum() / (double) lookupCount / TimeUnit.MICROSECONDS.toNanos(1));
+        metrics.put("maxLookupMicros", TimeUnit.NANOSECONDS.toMicros(maxLookupNanos.get()));
+        return metrics;
+    }
+}
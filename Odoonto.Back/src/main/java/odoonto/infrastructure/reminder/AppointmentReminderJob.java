@@ -0,0 +1,329 @@
+package odoonto.infrastructure.reminder;
+
+import odoonto.application.port.out.AppointmentReminder;
+import odoonto.application.port.out.MetricsSource;
+import odoonto.application.port.out.ReactiveAppointmentRepository;
+import odoonto.application.port.out.ReactiveAppointmentSeriesRepository;
+import odoonto.application.port.out.ReactivePatientRepository;
+import odoonto.application.port.out.ReminderSender;
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.aggregates.Patient;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+
+import com.google.cloud.Timestamp;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Envío en segundo plano de los recordatorios de las citas de mañana. Cada ejecución
+ * lee las citas del día hora a hora con la consulta por rango de inicio, añade las citas
+ * de las series periódicas de ese día (sin las anuladas) y las agrupa en lotes. Por lote
+ * descarta las que ya tienen recordatorio con una lectura agrupada del registro, une los
+ * datos de contacto de los pacientes con otra lectura agrupada, reclama cada recordatorio
+ * en el registro y envía los reclamados respetando el ritmo del proveedor. Los aceptados
+ * se marcan enviados en el momento; solo los rechazados se reintentan, con espera
+ * creciente, y los que agotan los reintentos se liberan para la siguiente ejecución.
+ */
+@Component
+public class AppointmentReminderJob implements MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentReminderJob.class);
+
+    private static final Set<AppointmentStatus> REMINDABLE_STATUSES =
+            EnumSet.of(AppointmentStatus.PENDIENTE, AppointmentStatus.CONFIRMADA, AppointmentStatus.REPROGRAMADA);
+
+    private final ReactiveAppointmentRepository appointmentRepository;
+    private final ReactiveAppointmentSeriesRepository seriesRepository;
+    private final ReactivePatientRepository patientRepository;
+    private final ReminderSender sender;
+    private final ReminderLedger ledger;
+    private final ReminderConfiguration configuration;
+    private final TokenBucket rateLimiter;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder failedRuns = new LongAdder();
+    private final LongAdder skippedRuns = new LongAdder();
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder seriesOccurrences = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder alreadySent = new LongAdder();
+    private final LongAdder claimConflicts = new LongAdder();
+    private final LongAdder withoutContact = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final AtomicLong lastRunSent = new AtomicLong(-1);
+    private final AtomicLong lastRunMillis = new AtomicLong(-1);
+    private Disposable subscription;
+
+    @Autowired
+    public AppointmentReminderJob(ReactiveAppointmentRepository appointmentRepository,
+                                  ReactiveAppointmentSeriesRepository seriesRepository,
+                                  ReactivePatientRepository patientRepository,
+                                  ReminderSender sender,
+                                  ReminderLedger ledger,
+                                  ReminderConfiguration configuration) {
+        this.appointmentRepository = appointmentRepository;
+        this.seriesRepository = seriesRepository;
+        this.patientRepository = patientRepository;
+        this.sender = sender;
+        this.ledger = ledger;
+        this.configuration = configuration;
+        this.rateLimiter = new TokenBucket(configuration.getRatePerSecond(), configuration.getBurst());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!configuration.isEnabled()) {
+            logger.info("Recordatorios de citas desactivados");
+            return;
+        }
+
+        subscription = Flux.interval(Duration.ofMinutes(1), Duration.ofMinutes(Math.max(1, configuration.getIntervalMinutes())))
+                .onBackpressureDrop()
+                .concatMap(tick -> sendReminders(LocalDate.now().plusDays(1))
+                        .onErrorResume(e -> {
+                            failedRuns.increment();
+                            logger.warn("Error al enviar recordatorios de citas: {}", e.getMessage());
+                            return Mono.just(0L);
+                        }), 1)
+                .subscribe();
+        logger.info("Recordatorios de citas iniciados cada {} minutos", configuration.getIntervalMinutes());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Envía los recordatorios pendientes de las citas de un día. Si ya hay una
+     * ejecución en curso no hace nada
+     * @param day Día de las citas
+     * @return Mono con el número de recordatorios enviados
+     */
+    public Mono<Long> sendReminders(LocalDate day) {
+        return Mono.defer(() -> {
+            if (!running.compareAndSet(false, true)) {
+                skippedRuns.increment();
+                return Mono.just(0L);
+            }
+            long startNanos = System.nanoTime();
+
+            // Hora a hora para no cargar de una vez todas las citas del día
+            Flux<Appointment> appointments = Flux.range(0, 24)
+                    .concatMap(hour -> {
+                        LocalDateTime from = day.atStartOfDay().plusHours(hour);
+                        return appointmentRepository.findByDateTimeRange(from, from.plusHours(1));
+                    });
+            // Las citas de las series no tienen documento propio: se calculan de una vez
+            // para el día, ya sin las fechas anuladas
+            Flux<Appointment> occurrences = seriesRepository
+                    .findOccurrencesByDateTimeRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay())
+                    .doOnNext(occurrence -> seriesOccurrences.increment());
+
+            return Flux.concat(appointments, occurrences)
+                    .distinct(Appointment::getId)
+                    .doOnNext(appointment -> scanned.increment())
+                    .filter(appointment -> REMINDABLE_STATUSES.contains(appointment.getStatus()))
+                    .buffer(Math.max(1, configuration.getBatchSize()))
+                    .flatMap(this::processBatch, Math.max(1, configuration.getConcurrency()))
+                    .reduce(0L, Long::sum)
+                    .doOnNext(count -> {
+                        runs.increment();
+                        lastRunSent.set(count);
+                        lastRunMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                        if (count > 0) {
+                            logger.info("Recordatorios enviados para el {}: {}", day, count);
+                        }
+                    })
+                    .doFinally(signal -> running.set(false));
+        });
+    }
+
+    /**
+     * Deduplica, une con los pacientes, reclama y envía un lote; un lote fallido no
+     * detiene la ejecución
+     */
+    private Mono<Long> processBatch(List<Appointment> appointments) {
+        Map<String, Appointment> byKey = new LinkedHashMap<>();
+        for (Appointment appointment : appointments) {
+            byKey.put(ReminderLedger.keyFor(appointment.getId(), appointment.getDateTime()), appointment);
+        }
+
+        return ledger.findHandled(byKey.keySet())
+                .flatMap(alreadyRegistered -> {
+                    alreadySent.add(alreadyRegistered.size());
+                    byKey.keySet().removeAll(alreadyRegistered);
+                    if (byKey.isEmpty()) {
+                        return Mono.just(0L);
+                    }
+
+                    Set<String> patientIds = new HashSet<>();
+                    for (Appointment appointment : byKey.values()) {
+                        patientIds.add(appointment.getPatientId());
+                    }
+
+                    return patientRepository.findAllById(patientIds)
+                            .collectMap(Patient::getIdValue)
+                            .flatMap(patients -> {
+                                List<AppointmentReminder> reminders = toReminders(byKey, patients);
+                                if (reminders.isEmpty()) {
+                                    return Mono.just(0L);
+                                }
+                                batches.increment();
+                                return ledger.claim(reminders).flatMap(claims -> {
+                                    claimConflicts.add(reminders.size() - claims.size());
+                                    List<AppointmentReminder> claimed = new ArrayList<>(claims.size());
+                                    for (AppointmentReminder reminder : reminders) {
+                                        if (claims.containsKey(reminder.getKey())) {
+                                            claimed.add(reminder);
+                                        }
+                                    }
+                                    return deliver(claimed, new HashMap<>(claims), 0);
+                                });
+                            });
+                })
+                .onErrorResume(e -> {
+                    failed.add(appointments.size());
+                    logger.warn("Lote de {} recordatorios no enviado: {}", appointments.size(), e.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+
+    /**
+     * Envía los recordatorios reclamados, marca como enviados los aceptados y vuelve a
+     * intentar solo los demás; los que agotan los reintentos se liberan
+     * @param pending Recordatorios aún no aceptados
+     * @param claims Reclamaciones de los recordatorios aún no aceptados
+     * @param attempt Intentos ya hechos
+     * @return Mono con el número de recordatorios enviados
+     */
+    private Mono<Long> deliver(List<AppointmentReminder> pending, Map<String, Timestamp> claims, int attempt) {
+        if (pending.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        return rateLimiter.acquire(pending.size())
+                .then(Mono.defer(() -> sender.send(pending)))
+                .onErrorResume(e -> {
+                    logger.debug("Envío de {} recordatorios fallido: {}", pending.size(), e.getMessage());
+                    return Mono.just(Collections.emptySet());
+                })
+                .defaultIfEmpty(Collections.emptySet())
+                .flatMap(accepted -> {
+                    List<AppointmentReminder> delivered = new ArrayList<>(accepted.size());
+                    List<AppointmentReminder> rejected = new ArrayList<>(pending.size() - accepted.size());
+                    for (AppointmentReminder reminder : pending) {
+                        (accepted.contains(reminder.getKey()) ? delivered : rejected).add(reminder);
+                    }
+                    claims.keySet().removeAll(accepted);
+
+                    Mono<Long> marked = delivered.isEmpty()
+                            ? Mono.just(0L)
+                            : ledger.markSent(delivered).retryWhen(retry())
+                                    .doOnSuccess(ignored -> sent.add(delivered.size()))
+                                    .thenReturn((long) delivered.size());
+
+                    if (rejected.isEmpty()) {
+                        return marked;
+                    }
+                    if (attempt >= Math.max(0, configuration.getMaxRetries())) {
+                        failed.add(rejected.size());
+                        return marked.flatMap(count -> ledger.release(claims).thenReturn(count));
+                    }
+                    retries.increment();
+                    return marked.flatMap(count -> Mono.delay(backoff(attempt))
+                            .then(deliver(rejected, claims, attempt + 1))
+                            .map(more -> count + more));
+                });
+    }
+
+    private Duration backoff(int attempt) {
+        long base = Math.max(1, configuration.getRetryBackoffMillis()) << Math.min(attempt, 16);
+        return Duration.ofMillis(base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1));
+    }
+
+    private List<AppointmentReminder> toReminders(Map<String, Appointment> byKey, Map<String, Patient> patients) {
+        List<AppointmentReminder> reminders = new ArrayList<>(byKey.size());
+        for (Map.Entry<String, Appointment> entry : byKey.entrySet()) {
+            Appointment appointment = entry.getValue();
+            Patient patient = patients.get(appointment.getPatientId());
+            String phone = patient != null && patient.getTelefono() != null ? patient.getTelefono().getValue() : null;
+            String email = patient != null && patient.getEmail() != null ? patient.getEmail().getValue() : null;
+            if (phone == null && email == null) {
+                withoutContact.increment();
+                continue;
+            }
+            reminders.add(new AppointmentReminder(entry.getKey(), appointment.getId(), appointment.getPatientId(),
+                    patient.getNombreCompleto(), phone, email, appointment.getDoctorId(), appointment.getDateTime()));
+        }
+        return reminders;
+    }
+
+    private Retry retry() {
+        return Retry.backoff(Math.max(0, configuration.getMaxRetries()),
+                        Duration.ofMillis(Math.max(1, configuration.getRetryBackoffMillis())))
+                .jitter(0.5)
+                .doBeforeRetry(signal -> retries.increment());
+    }
+
+    // Métricas
+
+    @Override
+    public String getMetricsName() {
+        return "appointmentReminders";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", configuration.isEnabled());
+        metrics.put("running", running.get());
+        metrics.put("runs", runs.sum());
+        metrics.put("failedRuns", failedRuns.sum());
+        metrics.put("skippedRuns", skippedRuns.sum());
+        metrics.put("scanned", scanned.sum());
+        metrics.put("seriesOccurrences", seriesOccurrences.sum());
+        metrics.put("sent", sent.sum());
+        metrics.put("alreadySent", alreadySent.sum());
+        metrics.put("claimConflicts", claimConflicts.sum());
+        metrics.put("withoutContact", withoutContact.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("batches", batches.sum());
+        metrics.put("retries", retries.sum());
+        metrics.put("availableTokens", Math.round(rateLimiter.available()));
+        metrics.put("lastRunSent", lastRunSent.get());
+        metrics.put("lastRunMillis", lastRunMillis.get());
+        return metrics;
+    }
+}
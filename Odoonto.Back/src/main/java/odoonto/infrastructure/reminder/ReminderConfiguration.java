@@ -0,0 +1,61 @@
+package odoonto.infrastructure.reminder;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración del envío de recordatorios de las citas del día siguiente
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.reminders")
+@Data
+public class ReminderConfiguration {
+    
+    /**
+     * Ejecuta el envío de recordatorios en segundo plano
+     */
+    private boolean enabled = true;
+    
+    /**
+     * Minutos entre ejecuciones; cada una recorre las citas de mañana y solo envía
+     * las que aún no tienen recordatorio
+     */
+    private int intervalMinutes = 30;
+    
+    /**
+     * Recordatorios por lote enviado
+     */
+    private int batchSize = 200;
+    
+    /**
+     * Lotes en preparación o envío a la vez
+     */
+    private int concurrency = 4;
+    
+    /**
+     * Recordatorios por segundo permitidos por el proveedor
+     */
+    private double ratePerSecond = 50;
+    
+    /**
+     * Recordatorios que pueden enviarse de golpe antes de aplicar el límite
+     */
+    private int burst = 200;
+    
+    /**
+     * Reintentos de los recordatorios de un lote que el proveedor no acepta
+     */
+    private int maxRetries = 3;
+    
+    /**
+     * Espera inicial entre reintentos en milisegundos (crece exponencialmente)
+     */
+    private long retryBackoffMillis = 500;
+    
+    /**
+     * Minutos tras los que una reclamación sin enviar se considera abandonada y
+     * otra ejecución puede volver a reclamar el recordatorio
+     */
+    private int claimLeaseMinutes = 15;
+}
@@ -0,0 +1,218 @@
+package odoonto.infrastructure.reminder;
+
+import odoonto.application.port.out.AppointmentReminder;
+import odoonto.infrastructure.persistence.resilience.DatastoreErrors;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.cloud.firestore.WriteResult;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Registro de recordatorios (colección appointment_reminders), uno por cita y hora.
+ * Antes de enviar un lote se leen sus claves con una sola llamada getAll y se descartan
+ * las ya enviadas o reclamadas; después cada recordatorio se reclama creando su registro,
+ * de modo que si dos ejecuciones coinciden solo una lo envía. Tras el envío se marcan
+ * como enviados los aceptados y se liberan los demás para la siguiente ejecución. Un
+ * registro reclamado que no llega a enviarse (la ejecución se detuvo) se puede volver a
+ * reclamar cuando vence su plazo.
+ */
+@Component
+public class ReminderLedger {
+
+    private static final String COLLECTION_NAME = "appointment_reminders";
+
+    /**
+     * Días que se conserva un registro tras la cita; el campo expireAt permite
+     * borrarlos con una política TTL de Firestore
+     */
+    private static final int RETENTION_DAYS = 7;
+
+    private static final int MAX_WRITES_PER_BATCH = 400;
+    private static final int CLAIM_CONCURRENCY = 16;
+
+    private static final String FIELD_CLAIMED_AT = "claimedAt";
+    private static final String FIELD_SENT_AT = "sentAt";
+
+    private final Firestore firestore;
+    private final CollectionReference remindersCollection;
+    private final Duration claimLease;
+
+    @Autowired
+    public ReminderLedger(Firestore firestore, ReminderConfiguration configuration) {
+        this.firestore = firestore;
+        this.remindersCollection = firestore.collection(COLLECTION_NAME);
+        this.claimLease = Duration.ofMinutes(Math.max(1, configuration.getClaimLeaseMinutes()));
+    }
+
+    /**
+     * Clave de un recordatorio: cambia si la cita se mueve, para volver a avisar
+     * @param appointmentId ID de la cita
+     * @param dateTime Inicio de la cita
+     * @return Clave usada como ID del registro
+     */
+    public static String keyFor(String appointmentId, LocalDateTime dateTime) {
+        return appointmentId + "_" + dateTime;
+    }
+
+    /**
+     * Devuelve las claves cuyo recordatorio ya se envió o está reclamado por otra ejecución
+     * @param keys Claves a comprobar
+     * @return Mono con el subconjunto que no hay que enviar
+     */
+    public Mono<Set<String>> findHandled(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Mono.just(new HashSet<>());
+        }
+        DocumentReference[] references = new DocumentReference[keys.size()];
+        int i = 0;
+        for (String key : keys) {
+            references[i++] = remindersCollection.document(key);
+        }
+
+        return Mono.defer(() -> toMono(firestore.getAll(references)))
+                .map(documents -> {
+                    Set<String> handled = new HashSet<>();
+                    for (DocumentSnapshot document : documents) {
+                        if (document.exists() && !isClaimExpired(document)) {
+                            handled.add(document.getId());
+                        }
+                    }
+                    return handled;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Reclama los recordatorios creando su registro. Si ya existe, otra ejecución lo
+     * envió o lo está enviando y se omite, salvo que sea una reclamación vencida, que
+     * se sustituye con una escritura condicionada
+     * @param reminders Recordatorios a enviar
+     * @return Mono con la hora de registro de cada clave reclamada, para liberarla
+     */
+    public Mono<Map<String, Timestamp>> claim(List<AppointmentReminder> reminders) {
+        return Flux.fromIterable(reminders)
+                .flatMap(reminder -> claim(reminder).map(claimedAt -> Tuples.of(reminder.getKey(), claimedAt)),
+                        CLAIM_CONCURRENCY)
+                .collectMap(Tuple2::getT1, Tuple2::getT2)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Marca como enviados los recordatorios aceptados por el proveedor
+     * @param reminders Recordatorios aceptados
+     * @return Mono que completa cuando el registro está escrito
+     */
+    public Mono<Void> markSent(List<AppointmentReminder> reminders) {
+        List<List<AppointmentReminder>> chunks = new ArrayList<>();
+        for (int i = 0; i < reminders.size(); i += MAX_WRITES_PER_BATCH) {
+            chunks.add(reminders.subList(i, Math.min(reminders.size(), i + MAX_WRITES_PER_BATCH)));
+        }
+
+        return Flux.fromIterable(chunks)
+                .concatMap(chunk -> Mono.defer(() -> {
+                    WriteBatch batch = firestore.batch();
+                    Map<String, Object> data = new HashMap<>();
+                    data.put(FIELD_SENT_AT, Timestamp.now());
+                    for (AppointmentReminder reminder : chunk) {
+                        batch.set(remindersCollection.document(reminder.getKey()), data, SetOptions.merge());
+                    }
+                    return toMono(batch.commit());
+                }))
+                .then()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Libera reclamaciones de recordatorios que no se llegaron a enviar, para que la
+     * siguiente ejecución los intente; si otra ejecución ya las sustituyó se dejan
+     * @param claims Hora de registro de cada clave reclamada
+     * @return Mono que completa cuando se han borrado
+     */
+    public Mono<Void> release(Map<String, Timestamp> claims) {
+        return Flux.fromIterable(claims.entrySet())
+                .flatMap(claim -> toMono(remindersCollection.document(claim.getKey())
+                                .delete(Precondition.updatedAt(claim.getValue())))
+                        .onErrorResume(e -> Mono.empty()), CLAIM_CONCURRENCY)
+                .then()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Timestamp> claim(AppointmentReminder reminder) {
+        DocumentReference reference = remindersCollection.document(reminder.getKey());
+        Map<String, Object> data = new HashMap<>();
+        data.put("appointmentId", reminder.getAppointmentId());
+        data.put("patientId", reminder.getPatientId());
+        data.put("dateTime", reminder.getDateTime().toString());
+        data.put(FIELD_CLAIMED_AT, Timestamp.now());
+        data.put("expireAt", Timestamp.of(Date.from(reminder.getDateTime()
+                .plusDays(RETENTION_DAYS).atZone(ZoneId.systemDefault()).toInstant())));
+
+        return Mono.defer(() -> toMono(reference.create(data)))
+                .map(WriteResult::getUpdateTime)
+                .onErrorResume(e -> DatastoreErrors.statusCode(e) == StatusCode.Code.ALREADY_EXISTS,
+                        e -> toMono(reference.get())
+                                .filter(this::isClaimExpired)
+                                .flatMap(expired -> toMono(reference.update(data,
+                                        Precondition.updatedAt(expired.getUpdateTime()))))
+                                .map(WriteResult::getUpdateTime))
+                // Si no se puede reclamar ahora se omite; la siguiente ejecución lo intentará
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    /**
+     * Reclamación de una ejecución que no llegó a enviar el recordatorio ni a liberarlo
+     */
+    private boolean isClaimExpired(DocumentSnapshot document) {
+        Timestamp claimedAt = document.getTimestamp(FIELD_CLAIMED_AT);
+        return document.get(FIELD_SENT_AT) == null
+                && claimedAt != null
+                && claimedAt.toDate().toInstant().plus(claimLease).isBefore(Instant.now());
+    }
+
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+}
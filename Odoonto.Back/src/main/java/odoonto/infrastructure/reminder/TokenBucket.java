@@ -0,0 +1,62 @@
+package odoonto.infrastructure.reminder;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Limitador de ritmo por cubo de fichas: se rellena a un ritmo fijo hasta su capacidad
+ * y cada envío consume tantas fichas como mensajes lleva. Si no hay fichas suficientes
+ * el envío queda en deuda y espera lo necesario sin bloquear ningún hilo, de modo que
+ * varios lotes concurrentes comparten el mismo límite.
+ */
+final class TokenBucket {
+
+    private final double ratePerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param ratePerSecond Fichas repuestas por segundo
+     * @param capacity Fichas máximas acumuladas
+     */
+    TokenBucket(double ratePerSecond, double capacity) {
+        this.ratePerNano = Math.max(ratePerSecond, 0.001) / 1_000_000_000d;
+        this.capacity = Math.max(capacity, 1);
+        this.tokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Reserva fichas y espera hasta que estén disponibles
+     * @param permits Fichas a consumir
+     * @return Mono que completa cuando el envío puede hacerse
+     */
+    Mono<Void> acquire(int permits) {
+        return Mono.defer(() -> {
+            long waitNanos = reserve(permits);
+            return waitNanos <= 0 ? Mono.<Void>empty() : Mono.delay(Duration.ofNanos(waitNanos)).then();
+        });
+    }
+
+    /**
+     * @return Fichas disponibles ahora (negativo si hay envíos en deuda)
+     */
+    synchronized double available() {
+        refill(System.nanoTime());
+        return tokens;
+    }
+
+    private synchronized long reserve(int permits) {
+        long now = System.nanoTime();
+        refill(now);
+        tokens -= permits;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / ratePerNano);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * ratePerNano);
+        lastRefillNanos = now;
+    }
+}
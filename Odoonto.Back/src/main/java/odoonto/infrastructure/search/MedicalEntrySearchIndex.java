@@ -0,0 +1,771 @@
+package odoonto.infrastructure.search;
+
+import odoonto.application.port.out.MedicalEntrySearch;
+import odoonto.application.port.out.MedicalEntrySearchHit;
+import odoonto.application.port.out.MedicalEntrySearchQuery;
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.model.entities.MedicalEntry;
+import odoonto.infrastructure.persistence.reactive.MedicalEntryDocuments;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.AggregateQuerySnapshot;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.UpdateBuilder;
+import com.google.cloud.firestore.WriteBatch;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Índice invertido de las entradas de historial de toda la clínica.
+ * Cada término tiene una subcolección search_index/{término}/postings con un documento
+ * por entrada que lo contiene (frecuencia, posiciones, doctor y fecha) y, en el documento
+ * del término, el número de entradas que lo contienen (df). Los postings y el contador se
+ * escriben en el mismo lote que la entrada, de modo que el índice se mantiene al día sin
+ * procesos aparte. Una búsqueda consulta, filtrados por doctor y fecha en Firestore, solo
+ * los postings del término más raro de cada alternativa del grupo más selectivo; del resto
+ * de términos lee únicamente los postings de esos candidatos, los ordena por BM25 y carga
+ * las entradas devueltas. Los filtros por doctor requieren el índice compuesto
+ * (doctorId ASC, recordedAt DESC) sobre la colección "postings".
+ */
+@Component
+public class MedicalEntrySearchIndex implements MedicalEntrySearch, MetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicalEntrySearchIndex.class);
+
+    static final String COLLECTION_NAME = "search_index";
+    static final String POSTINGS_SUBCOLLECTION = "postings";
+
+    private static final String MEDICAL_RECORDS_COLLECTION = "medical_records";
+    private static final String FIELD_MEDICAL_RECORD_ID = "medicalRecordId";
+    private static final String FIELD_ENTRY_ID = "entryId";
+    private static final String FIELD_DOCTOR_ID = "doctorId";
+    private static final String FIELD_RECORDED_AT = "recordedAt";
+    private static final String FIELD_TERM_FREQUENCY = "tf";
+    private static final String FIELD_POSITIONS = "positions";
+    private static final String FIELD_LENGTH = "length";
+    private static final String FIELD_DOCUMENT_FREQUENCY = "df";
+
+    /**
+     * Separación de posiciones entre campos para que una frase no cruce de la descripción a las notas
+     */
+    private static final int FIELD_POSITION_GAP = 100;
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+    private static final int REBUILD_PAGE_SIZE = 200;
+    private static final int FETCH_CHUNK_SIZE = 300;
+
+    private final Firestore firestore;
+    private final CollectionReference indexCollection;
+    private final SearchConfiguration configuration;
+
+    private final AtomicReference<long[]> cachedDocumentCount = new AtomicReference<>();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final AtomicLong maxSearchNanos = new AtomicLong();
+    private final LongAdder postingsRead = new LongAdder();
+    private final LongAdder postingsWritten = new LongAdder();
+    private final LongAdder postingsDeleted = new LongAdder();
+    private final LongAdder truncatedSearches = new LongAdder();
+    private Disposable startupRebuild;
+
+    @Autowired
+    public MedicalEntrySearchIndex(Firestore firestore, SearchConfiguration configuration) {
+        this.firestore = firestore;
+        this.indexCollection = firestore.collection(COLLECTION_NAME);
+        this.configuration = configuration;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!configuration.isRebuildOnStartup()) {
+            return;
+        }
+
+        startupRebuild = rebuild()
+                .subscribe(
+                    count -> logger.info("Índice de búsqueda reconstruido: {} entradas indexadas", count),
+                    e -> logger.warn("Error al reconstruir el índice de búsqueda: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (startupRebuild != null) {
+            startupRebuild.dispose();
+        }
+    }
+
+    // Mantenimiento incremental
+
+    /**
+     * Añade al lote los postings de una entrada nueva y suma uno al df de sus términos
+     * @param writer WriteBatch o Transaction de la entrada
+     * @param medicalRecordId ID del historial
+     * @param entry Entrada indexada
+     * @return Número de escrituras añadidas al lote
+     */
+    public <T> int index(UpdateBuilder<T> writer, String medicalRecordId, MedicalEntry entry) {
+        Set<String> terms = writePostings(writer, medicalRecordId, entry);
+        for (String term : terms) {
+            adjustDocumentFrequency(writer, term, 1);
+        }
+        return 2 * terms.size();
+    }
+
+    /**
+     * Añade al lote los postings de una entrada sin tocar el df de sus términos. Es
+     * idempotente: sirve para entradas que quizá ya estén indexadas, cuyo df se corrige
+     * después con {@link #recountDocumentFrequency}
+     * @param writer WriteBatch o Transaction de la entrada
+     * @param medicalRecordId ID del historial
+     * @param entry Entrada indexada
+     * @return Términos escritos
+     */
+    public <T> Set<String> writePostings(UpdateBuilder<T> writer, String medicalRecordId, MedicalEntry entry) {
+        Map<String, List<Integer>> termPositions = termPositions(entry);
+        int length = termPositions.values().stream().mapToInt(List::size).sum();
+        for (Map.Entry<String, List<Integer>> term : termPositions.entrySet()) {
+            writer.set(posting(term.getKey(), medicalRecordId, entry.getId()),
+                    toPosting(medicalRecordId, entry, term.getValue(), length));
+        }
+        postingsWritten.add(termPositions.size());
+        return termPositions.keySet();
+    }
+
+    /**
+     * Añade al lote el borrado de los postings de una entrada y resta uno al df de sus términos
+     * @param writer WriteBatch o Transaction de la entrada
+     * @param medicalRecordId ID del historial
+     * @param entry Entrada tal y como estaba indexada
+     * @return Número de escrituras añadidas al lote
+     */
+    public <T> int unindex(UpdateBuilder<T> writer, String medicalRecordId, MedicalEntry entry) {
+        Set<String> terms = termPositions(entry).keySet();
+        for (String term : terms) {
+            writer.delete(posting(term, medicalRecordId, entry.getId()));
+            adjustDocumentFrequency(writer, term, -1);
+        }
+        postingsDeleted.add(terms.size());
+        return 2 * terms.size();
+    }
+
+    /**
+     * Añade al lote los cambios de postings de una entrada modificada: borra los de
+     * los términos que desaparecen, reescribe los demás con los datos nuevos y ajusta
+     * el df solo de los términos que aparecen o desaparecen
+     * @param writer WriteBatch o Transaction de la entrada
+     * @param medicalRecordId ID del historial
+     * @param previous Entrada tal y como estaba indexada (puede ser null)
+     * @param current Entrada modificada
+     * @return Número de escrituras añadidas al lote
+     */
+    public <T> int reindex(UpdateBuilder<T> writer, String medicalRecordId, MedicalEntry previous, MedicalEntry current) {
+        if (previous == null) {
+            return index(writer, medicalRecordId, current);
+        }
+
+        int writes = 0;
+        Set<String> previousTerms = termPositions(previous).keySet();
+        Set<String> currentTerms = termPositions(current).keySet();
+        for (String term : previousTerms) {
+            if (!currentTerms.contains(term)) {
+                writer.delete(posting(term, medicalRecordId, previous.getId()));
+                adjustDocumentFrequency(writer, term, -1);
+                postingsDeleted.increment();
+                writes += 2;
+            }
+        }
+        for (String term : currentTerms) {
+            if (!previousTerms.contains(term)) {
+                adjustDocumentFrequency(writer, term, 1);
+                writes++;
+            }
+        }
+        return writes + writePostings(writer, medicalRecordId, current).size();
+    }
+
+    /**
+     * Recalcula el df de los términos contando sus postings. Un cambio de la entrada
+     * concurrente con el recuento puede dejar el contador desviado en una unidad hasta
+     * el siguiente recuento
+     * @param terms Términos a recontar
+     * @return Mono que completa cuando todos los contadores están guardados
+     */
+    public Mono<Void> recountDocumentFrequency(Collection<String> terms) {
+        return Flux.fromIterable(terms)
+                .flatMap(term -> countPostings(term)
+                        .flatMap(count -> toMono(indexCollection.document(term).set(
+                                Collections.singletonMap(FIELD_DOCUMENT_FREQUENCY, count), SetOptions.merge()))), 8)
+                .then();
+    }
+
+    /**
+     * Indexa de nuevo todas las entradas existentes y recalcula el df de sus términos.
+     * Sirve para poblar el índice con entradas escritas antes de que existiera y para
+     * corregir contadores; los postings son idempotentes
+     * @return Mono con el número de entradas indexadas
+     */
+    public Mono<Long> rebuild() {
+        Query entries = firestore.collectionGroup(MedicalEntryDocuments.SUBCOLLECTION_NAME)
+                .orderBy(FieldPath.documentId())
+                .limit(REBUILD_PAGE_SIZE);
+        Set<String> terms = ConcurrentHashMap.newKeySet();
+
+        return toMono(entries.get())
+                .map(snapshot -> new ArrayList<DocumentSnapshot>(snapshot.getDocuments()))
+                .expand(page -> page.size() < REBUILD_PAGE_SIZE
+                        ? Mono.empty()
+                        : toMono(entries.startAfter(page.get(page.size() - 1)).get())
+                            .map(snapshot -> new ArrayList<DocumentSnapshot>(snapshot.getDocuments())))
+                .concatMapIterable(page -> page)
+                .flatMap(document -> {
+                    MedicalEntry entry = MedicalEntryDocuments.fromDocument(document);
+                    if (entry == null) {
+                        return Mono.empty();
+                    }
+                    WriteBatch batch = firestore.batch();
+                    terms.addAll(writePostings(batch, document.getReference().getParent().getParent().getId(), entry));
+                    return toMono(batch.commit()).thenReturn(entry);
+                }, 4)
+                .count()
+                .flatMap(count -> recountDocumentFrequency(terms).thenReturn(count))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Búsqueda
+
+    @Override
+    public Flux<MedicalEntrySearchHit> search(MedicalEntrySearchQuery query) {
+        int limit = query.getLimit() > 0
+                ? Math.min(query.getLimit(), configuration.getMaxLimit())
+                : configuration.getDefaultLimit();
+
+        return Mono.fromCallable(() -> SearchQueryParser.parse(query.getText()))
+                .flatMap(parsed -> {
+                    long startNanos = System.nanoTime();
+                    return documentFrequencies(parsed.terms())
+                            .flatMap(frequencies -> collectPostings(parsed, frequencies, query)
+                                    .zipWith(documentCount())
+                                    .map(tuple -> {
+                                        Candidates candidates = tuple.getT1();
+                                        if (candidates.truncated) {
+                                            truncatedSearches.increment();
+                                        }
+                                        return Tuples.of(rank(parsed, candidates.postings, frequencies,
+                                                tuple.getT2(), limit), candidates.truncated);
+                                    }))
+                            .doOnSuccess(ranked -> recordSearch(startNanos));
+                })
+                .flatMapMany(ranked -> loadHits(ranked.getT1(), ranked.getT2()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * df guardado de cada término; los términos indexados antes de existir el contador
+     * se cuentan al vuelo
+     */
+    private Mono<Map<String, Long>> documentFrequencies(Set<String> terms) {
+        DocumentReference[] references = terms.stream()
+                .map(indexCollection::document)
+                .toArray(DocumentReference[]::new);
+
+        return toMono(firestore.getAll(references))
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(document -> {
+                    Long stored = document.getLong(FIELD_DOCUMENT_FREQUENCY);
+                    Mono<Long> frequency = stored != null ? Mono.just(Math.max(0L, stored)) : countPostings(document.getId());
+                    return frequency.map(df -> Tuples.of(document.getId(), df));
+                })
+                .collectMap(Tuple2::getT1, Tuple2::getT2);
+    }
+
+    /**
+     * Reúne los postings necesarios para ordenar la consulta. Solo se consultan los
+     * postings del término más raro de cada cláusula del grupo obligatorio más
+     * selectivo; sus entradas son los únicos candidatos posibles, y del resto de
+     * términos se leen por ID únicamente los postings de esos candidatos. Si alguna
+     * consulta alcanza el máximo de postings, los candidatos son solo las entradas más
+     * recientes y el resultado se marca como truncado
+     */
+    private Mono<Candidates> collectPostings(SearchQueryParser.ParsedQuery parsed, Map<String, Long> frequencies,
+                                             MedicalEntrySearchQuery query) {
+        List<SearchQueryParser.Clause> driver = parsed.requiredGroups.stream()
+                .min(Comparator.comparingLong((List<SearchQueryParser.Clause> group) -> group.stream()
+                        .mapToLong(clause -> frequencies.getOrDefault(rarestTerm(clause, frequencies), 0L))
+                        .sum()))
+                .orElseThrow();
+        Set<String> driverTerms = new LinkedHashSet<>();
+        driver.forEach(clause -> driverTerms.add(rarestTerm(clause, frequencies)));
+        int maxPostings = configuration.getMaxPostingsPerTerm();
+
+        return Flux.fromIterable(driverTerms)
+                .flatMap(term -> readPostings(term, query, maxPostings + 1).map(read -> Tuples.of(term, read)))
+                .collectList()
+                .flatMap(reads -> {
+                    Map<String, Map<String, Posting>> postings = new HashMap<>();
+                    Set<String> complete = new HashSet<>();
+                    Set<String> candidates = new HashSet<>();
+                    boolean truncated = false;
+                    for (Tuple2<String, Map<String, Posting>> read : reads) {
+                        Map<String, Posting> termPostings = new HashMap<>();
+                        for (Map.Entry<String, Posting> posting : read.getT2().entrySet()) {
+                            if (termPostings.size() == maxPostings) {
+                                break;
+                            }
+                            termPostings.put(posting.getKey(), posting.getValue());
+                        }
+                        if (read.getT2().size() > maxPostings) {
+                            truncated = true;
+                        } else {
+                            complete.add(read.getT1());
+                        }
+                        postings.put(read.getT1(), termPostings);
+                        candidates.addAll(termPostings.keySet());
+                    }
+
+                    boolean truncatedCandidates = truncated;
+                    return Flux.fromIterable(parsed.terms())
+                            .filter(term -> !complete.contains(term))
+                            .flatMap(term -> {
+                                Map<String, Posting> known = postings.getOrDefault(term, Collections.emptyMap());
+                                List<String> missing = new ArrayList<>();
+                                for (String key : candidates) {
+                                    if (!known.containsKey(key)) {
+                                        missing.add(key);
+                                    }
+                                }
+                                return fetchPostings(term, missing).map(fetched -> Tuples.of(term, fetched));
+                            }, 4)
+                            .collectList()
+                            .map(fetches -> {
+                                for (Tuple2<String, Map<String, Posting>> fetched : fetches) {
+                                    postings.computeIfAbsent(fetched.getT1(), term -> new HashMap<>())
+                                            .putAll(fetched.getT2());
+                                }
+                                return new Candidates(postings, truncatedCandidates);
+                            });
+                });
+    }
+
+    private static String rarestTerm(SearchQueryParser.Clause clause, Map<String, Long> frequencies) {
+        return clause.terms.stream()
+                .min(Comparator.comparingLong(term -> frequencies.getOrDefault(term, 0L)))
+                .orElseThrow();
+    }
+
+    /**
+     * Lee los postings más recientes de un término aplicando en Firestore los filtros
+     * de doctor y fecha, en orden de fecha descendente
+     */
+    private Mono<Map<String, Posting>> readPostings(String term, MedicalEntrySearchQuery query, int limit) {
+        Query postingsQuery = indexCollection.document(term).collection(POSTINGS_SUBCOLLECTION);
+        if (query.getDoctorId() != null) {
+            postingsQuery = postingsQuery.whereEqualTo(FIELD_DOCTOR_ID, query.getDoctorId());
+        }
+        if (query.getFrom() != null) {
+            postingsQuery = postingsQuery.whereGreaterThanOrEqualTo(FIELD_RECORDED_AT,
+                    MedicalEntryDocuments.formatRecordedAt(query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            postingsQuery = postingsQuery.whereLessThan(FIELD_RECORDED_AT,
+                    MedicalEntryDocuments.formatRecordedAt(query.getTo()));
+        }
+        postingsQuery = postingsQuery
+                .orderBy(FIELD_RECORDED_AT, Query.Direction.DESCENDING)
+                .limit(limit);
+
+        return toMono(postingsQuery.get())
+                .map(snapshot -> {
+                    Map<String, Posting> postings = new LinkedHashMap<>();
+                    for (QueryDocumentSnapshot document : snapshot.getDocuments()) {
+                        postings.put(document.getId(), Posting.from(document));
+                    }
+                    postingsRead.add(postings.size());
+                    return postings;
+                });
+    }
+
+    /**
+     * Lee por ID los postings de un término para las entradas indicadas; las que no
+     * contienen el término no tienen posting y se omiten
+     */
+    private Mono<Map<String, Posting>> fetchPostings(String term, List<String> keys) {
+        CollectionReference termPostings = indexCollection.document(term).collection(POSTINGS_SUBCOLLECTION);
+        return Flux.range(0, (keys.size() + FETCH_CHUNK_SIZE - 1) / FETCH_CHUNK_SIZE)
+                .flatMap(chunk -> toMono(firestore.getAll(keys
+                        .subList(chunk * FETCH_CHUNK_SIZE, Math.min(keys.size(), (chunk + 1) * FETCH_CHUNK_SIZE))
+                        .stream()
+                        .map(termPostings::document)
+                        .toArray(DocumentReference[]::new))), 4)
+                .flatMapIterable(documents -> documents)
+                .filter(DocumentSnapshot::exists)
+                .collectMap(DocumentSnapshot::getId, Posting::from)
+                .doOnNext(fetched -> postingsRead.add(fetched.size()));
+    }
+
+    /**
+     * Combina los postings según la consulta y ordena las entradas por BM25;
+     * cada frase encontrada suma además el IDF de sus términos
+     */
+    private List<Posting> rank(SearchQueryParser.ParsedQuery parsed, Map<String, Map<String, Posting>> postings,
+                               Map<String, Long> frequencies, long documentCount, int limit) {
+        Set<String> candidates = null;
+        for (List<SearchQueryParser.Clause> group : parsed.requiredGroups) {
+            Set<String> groupMatches = new HashSet<>();
+            for (SearchQueryParser.Clause clause : group) {
+                groupMatches.addAll(matches(clause, postings));
+            }
+            if (candidates == null) {
+                candidates = groupMatches;
+            } else {
+                candidates.retainAll(groupMatches);
+            }
+            if (candidates.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+        for (SearchQueryParser.Clause clause : parsed.excluded) {
+            candidates.removeAll(matches(clause, postings));
+        }
+
+        Set<String> positiveTerms = parsed.positiveTerms();
+        long totalDocuments = documentCount;
+        double totalLength = 0;
+        Set<String> measured = new HashSet<>();
+        for (String term : positiveTerms) {
+            Map<String, Posting> termPostings = postings.getOrDefault(term, Collections.emptyMap());
+            totalDocuments = Math.max(totalDocuments, frequencies.getOrDefault(term, 0L));
+            for (Map.Entry<String, Posting> posting : termPostings.entrySet()) {
+                if (measured.add(posting.getKey())) {
+                    totalLength += posting.getValue().length;
+                }
+            }
+        }
+        double averageLength = measured.isEmpty() ? 1.0 : Math.max(1.0, totalLength / measured.size());
+
+        Map<String, Double> idf = new HashMap<>();
+        for (String term : positiveTerms) {
+            long df = frequencies.getOrDefault(term, 0L);
+            idf.put(term, Math.log(1 + (totalDocuments - df + 0.5) / (df + 0.5)));
+        }
+
+        List<Posting> ranked = new ArrayList<>();
+        for (String key : candidates) {
+            double score = 0;
+            Posting any = null;
+            for (String term : positiveTerms) {
+                Posting posting = postings.getOrDefault(term, Collections.emptyMap()).get(key);
+                if (posting == null) {
+                    continue;
+                }
+                any = posting;
+                double tf = posting.termFrequency;
+                score += idf.get(term) * tf * (BM25_K1 + 1)
+                        / (tf + BM25_K1 * (1 - BM25_B + BM25_B * posting.length / averageLength));
+            }
+            for (List<SearchQueryParser.Clause> group : parsed.requiredGroups) {
+                for (SearchQueryParser.Clause clause : group) {
+                    if (clause.isPhrase() && matchesPhrase(clause, postings, key)) {
+                        score += clause.terms.stream().mapToDouble(idf::get).sum();
+                    }
+                }
+            }
+            if (any != null) {
+                ranked.add(any.withScore(score));
+            }
+        }
+
+        ranked.sort(Comparator.comparingDouble((Posting posting) -> posting.score).reversed()
+                .thenComparing(posting -> posting.recordedAt, Comparator.nullsLast(Comparator.<String>reverseOrder())));
+        return ranked.size() > limit ? ranked.subList(0, limit) : ranked;
+    }
+
+    /**
+     * Claves de las entradas que contienen todos los términos de la cláusula y, si
+     * es una frase, en posiciones consecutivas
+     */
+    private Set<String> matches(SearchQueryParser.Clause clause, Map<String, Map<String, Posting>> postings) {
+        Set<String> matches = new HashSet<>();
+        for (String key : postings.getOrDefault(clause.terms.get(0), Collections.emptyMap()).keySet()) {
+            boolean all = true;
+            for (String term : clause.terms) {
+                if (!postings.getOrDefault(term, Collections.emptyMap()).containsKey(key)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all && (!clause.isPhrase() || matchesPhrase(clause, postings, key))) {
+                matches.add(key);
+            }
+        }
+        return matches;
+    }
+
+    private boolean matchesPhrase(SearchQueryParser.Clause clause, Map<String, Map<String, Posting>> postings,
+                                  String key) {
+        Posting first = postings.getOrDefault(clause.terms.get(0), Collections.emptyMap()).get(key);
+        if (first == null) {
+            return false;
+        }
+        for (int start : first.positions) {
+            boolean phrase = true;
+            for (int i = 1; i < clause.terms.size() && phrase; i++) {
+                Posting next = postings.getOrDefault(clause.terms.get(i), Collections.emptyMap()).get(key);
+                phrase = next != null && next.positions.contains(start + clause.offsets.get(i));
+            }
+            if (phrase) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Carga solo las entradas devueltas, conservando el orden de relevancia;
+     * los postings de entradas ya borradas se descartan
+     */
+    private Flux<MedicalEntrySearchHit> loadHits(List<Posting> ranked, boolean truncated) {
+        if (ranked.isEmpty()) {
+            return Flux.empty();
+        }
+
+        DocumentReference[] references = ranked.stream()
+                .map(posting -> firestore.collection(MEDICAL_RECORDS_COLLECTION)
+                        .document(posting.medicalRecordId)
+                        .collection(MedicalEntryDocuments.SUBCOLLECTION_NAME)
+                        .document(posting.entryId))
+                .toArray(DocumentReference[]::new);
+
+        return toMono(firestore.getAll(references))
+                .flatMapMany(documents -> {
+                    List<MedicalEntrySearchHit> hits = new ArrayList<>();
+                    for (int i = 0; i < documents.size(); i++) {
+                        MedicalEntry entry = MedicalEntryDocuments.fromDocument(documents.get(i));
+                        if (entry != null) {
+                            Posting posting = ranked.get(i);
+                            hits.add(new MedicalEntrySearchHit(posting.medicalRecordId, entry.getId(),
+                                    entry.getType(), entry.getDescription(), entry.getDoctorId(),
+                                    entry.getRecordedAt(), posting.score, truncated));
+                        }
+                    }
+                    return Flux.fromIterable(hits);
+                });
+    }
+
+    /**
+     * Número total de entradas para el IDF, cacheado unos segundos para no contarlas en cada búsqueda
+     */
+    private Mono<Long> documentCount() {
+        long[] cached = cachedDocumentCount.get();
+        if (cached != null && System.nanoTime() < cached[1]) {
+            return Mono.just(cached[0]);
+        }
+
+        return toMono(firestore.collectionGroup(MedicalEntryDocuments.SUBCOLLECTION_NAME).count().get())
+                .map(snapshot -> {
+                    long count = snapshot.getCount();
+                    cachedDocumentCount.set(new long[] { count,
+                            System.nanoTime() + TimeUnit.SECONDS.toNanos(configuration.getDocumentCountCacheSeconds()) });
+                    return count;
+                })
+                .onErrorResume(e -> Mono.just(cached != null ? cached[0] : 0L));
+    }
+
+    // Análisis de entradas
+
+    /**
+     * Posiciones de cada término de la entrada (descripción, notas y tipo), limitado
+     * a los primeros términos distintos configurados
+     */
+    private Map<String, List<Integer>> termPositions(MedicalEntry entry) {
+        Map<String, List<Integer>> termPositions = new LinkedHashMap<>();
+        int offset = 0;
+        for (String field : new String[] { entry.getDescription(), entry.getNotes(), entry.getType() }) {
+            int lastPosition = -1;
+            for (SpanishTextAnalyzer.Token token : SpanishTextAnalyzer.analyze(field)) {
+                List<Integer> positions = termPositions.get(token.term);
+                if (positions == null) {
+                    if (termPositions.size() >= configuration.getMaxTermsPerEntry()) {
+                        continue;
+                    }
+                    positions = new ArrayList<>();
+                    termPositions.put(token.term, positions);
+                }
+                positions.add(offset + token.position);
+                lastPosition = token.position;
+            }
+            offset += lastPosition + 1 + FIELD_POSITION_GAP;
+        }
+        return termPositions;
+    }
+
+    private Map<String, Object> toPosting(String medicalRecordId, MedicalEntry entry, List<Integer> positions,
+                                          int length) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_MEDICAL_RECORD_ID, medicalRecordId);
+        data.put(FIELD_ENTRY_ID, entry.getId());
+        data.put(FIELD_DOCTOR_ID, entry.getDoctorId());
+        data.put(FIELD_RECORDED_AT, MedicalEntryDocuments.formatRecordedAt(entry.getRecordedAt()));
+        data.put(FIELD_TERM_FREQUENCY, positions.size());
+        data.put(FIELD_POSITIONS, positions);
+        data.put(FIELD_LENGTH, length);
+        return data;
+    }
+
+    private Mono<Long> countPostings(String term) {
+        return toMono(indexCollection.document(term).collection(POSTINGS_SUBCOLLECTION).count().get())
+                .map(AggregateQuerySnapshot::getCount);
+    }
+
+    private <T> void adjustDocumentFrequency(UpdateBuilder<T> writer, String term, long delta) {
+        writer.set(indexCollection.document(term),
+                Collections.singletonMap(FIELD_DOCUMENT_FREQUENCY, FieldValue.increment(delta)), SetOptions.merge());
+    }
+
+    private DocumentReference posting(String term, String medicalRecordId, String entryId) {
+        return indexCollection.document(term).collection(POSTINGS_SUBCOLLECTION)
+                .document(medicalRecordId + "_" + entryId);
+    }
+
+    private void recordSearch(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        searches.increment();
+        searchNanos.add(elapsed);
+        maxSearchNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    private <T> Mono<T> toMono(ApiFuture<T> future) {
+        return Mono.fromCallable(() -> {
+            CompletableFuture<T> completableFuture = new CompletableFuture<>();
+
+            future.addListener(() -> {
+                try {
+                    completableFuture.complete(future.get());
+                } catch (Exception e) {
+                    completableFuture.completeExceptionally(e);
+                }
+            }, Runnable::run);
+
+            return completableFuture;
+        })
+        .flatMap(Mono::fromFuture);
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "medicalEntrySearch";
+    }
+
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        long searchCount = searches.sum();
+        long[] cached = cachedDocumentCount.get();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("searches", searchCount);
+        metrics.put("avgSearchMillis", searchCount == 0
+                ? 0.0 : searchNanos.sum() / (double) searchCount / TimeUnit.MILLISECONDS.toNanos(1));
+        metrics.put("maxSearchMillis", TimeUnit.NANOSECONDS.toMillis(maxSearchNanos.get()));
+        metrics.put("postingsRead", postingsRead.sum());
+        metrics.put("postingsWritten", postingsWritten.sum());
+        metrics.put("postingsDeleted", postingsDeleted.sum());
+        metrics.put("truncatedSearches", truncatedSearches.sum());
+        metrics.put("indexedEntries", cached != null ? cached[0] : -1L);
+        return metrics;
+    }
+
+    /**
+     * Postings reunidos para una búsqueda y si los candidatos se limitaron a los más recientes
+     */
+    private static final class Candidates {
+        private final Map<String, Map<String, Posting>> postings;
+        private final boolean truncated;
+
+        private Candidates(Map<String, Map<String, Posting>> postings, boolean truncated) {
+            this.postings = postings;
+            this.truncated = truncated;
+        }
+    }
+
+    /**
+     * Posting leído de Firestore y, tras ordenar, su puntuación
+     */
+    private static final class Posting {
+        private final String medicalRecordId;
+        private final String entryId;
+        private final String recordedAt;
+        private final long termFrequency;
+        private final Set<Integer> positions;
+        private final long length;
+        private final double score;
+
+        private Posting(String medicalRecordId, String entryId, String recordedAt, long termFrequency,
+                        Set<Integer> positions, long length, double score) {
+            this.medicalRecordId = medicalRecordId;
+            this.entryId = entryId;
+            this.recordedAt = recordedAt;
+            this.termFrequency = termFrequency;
+            this.positions = positions;
+            this.length = length;
+            this.score = score;
+        }
+
+        static Posting from(DocumentSnapshot document) {
+            Set<Integer> positions = new HashSet<>();
+            Object stored = document.get(FIELD_POSITIONS);
+            if (stored instanceof List) {
+                for (Object position : (List<?>) stored) {
+                    if (position instanceof Number) {
+                        positions.add(((Number) position).intValue());
+                    }
+                }
+            }
+            Long termFrequency = document.getLong(FIELD_TERM_FREQUENCY);
+            Long length = document.getLong(FIELD_LENGTH);
+            return new Posting(document.getString(FIELD_MEDICAL_RECORD_ID), document.getString(FIELD_ENTRY_ID),
+                    document.getString(FIELD_RECORDED_AT),
+                    termFrequency != null ? termFrequency : positions.size(), positions,
+                    length != null ? length : positions.size(), 0.0);
+        }
+
+        Posting withScore(double score) {
+            return new Posting(medicalRecordId, entryId, recordedAt, termFrequency, positions, length, score);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package odoonto.infrastructure.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración del índice invertido de búsqueda sobre las entradas de historial
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.search")
+@Data
+public class SearchConfiguration {
+    
+    /**
+     * Términos distintos que se indexan como máximo por entrada; acota las
+     * escrituras que añade el índice al lote de la entrada (hasta cuatro por
+     * término al modificarla, dentro del límite de 500 del lote)
+     */
+    private int maxTermsPerEntry = 120;
+    
+    /**
+     * Postings del término más raro leídos como máximo en una búsqueda (los más
+     * recientes); si se alcanzan, el resultado se marca como truncado
+     */
+    private int maxPostingsPerTerm = 5000;
+    
+    /**
+     * Resultados devueltos cuando la búsqueda no indica límite
+     */
+    private int defaultLimit = 20;
+    
+    /**
+     * Resultados máximos por búsqueda
+     */
+    private int maxLimit = 100;
+    
+    /**
+     * Segundos durante los que se reutiliza el número total de entradas para el IDF
+     */
+    private long documentCountCacheSeconds = 60;
+    
+    /**
+     * Reconstruye al arrancar los postings de todas las entradas existentes
+     */
+    private boolean rebuildOnStartup = false;
+}
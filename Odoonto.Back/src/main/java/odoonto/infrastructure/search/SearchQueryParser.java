@@ -0,0 +1,146 @@
+package odoonto.infrastructure.search;
+
+import odoonto.domain.exceptions.DomainException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Interpreta la sintaxis de búsqueda de entradas de historial:
+ * palabras sueltas (todas obligatorias), frases entre comillas, alternativas con OR
+ * y exclusiones con NOT o con un guion delante. Por ejemplo
+ * {@code bruxismo férula OR placa -niño "dolor mandibular"}.
+ */
+final class SearchQueryParser {
+
+    private static final Pattern QUERY_TOKENS = Pattern.compile("(-?)\"([^\"]*)\"|(\\S+)");
+
+    private SearchQueryParser() {
+    }
+
+    /**
+     * Una palabra o frase analizada; los desplazamientos son relativos al primer término
+     */
+    static final class Clause {
+        final List<String> terms;
+        final List<Integer> offsets;
+
+        Clause(List<String> terms, List<Integer> offsets) {
+            this.terms = terms;
+            this.offsets = offsets;
+        }
+
+        boolean isPhrase() {
+            return terms.size() > 1;
+        }
+    }
+
+    /**
+     * Consulta interpretada: todos los grupos deben cumplirse (cada grupo es una
+     * alternativa de cláusulas) y ninguna cláusula excluida puede cumplirse
+     */
+    static final class ParsedQuery {
+        final List<List<Clause>> requiredGroups;
+        final List<Clause> excluded;
+
+        ParsedQuery(List<List<Clause>> requiredGroups, List<Clause> excluded) {
+            this.requiredGroups = requiredGroups;
+            this.excluded = excluded;
+        }
+
+        Set<String> terms() {
+            Set<String> terms = new LinkedHashSet<>();
+            requiredGroups.forEach(group -> group.forEach(clause -> terms.addAll(clause.terms)));
+            excluded.forEach(clause -> terms.addAll(clause.terms));
+            return terms;
+        }
+
+        Set<String> positiveTerms() {
+            Set<String> terms = new LinkedHashSet<>();
+            requiredGroups.forEach(group -> group.forEach(clause -> terms.addAll(clause.terms)));
+            return terms;
+        }
+    }
+
+    /**
+     * Interpreta una consulta
+     * @param query Texto de la consulta
+     * @return Consulta interpretada
+     * @throws DomainException si la consulta no contiene ningún término buscable
+     */
+    static ParsedQuery parse(String query) {
+        List<List<Clause>> groups = new ArrayList<>();
+        List<Clause> excluded = new ArrayList<>();
+
+        boolean pendingOr = false;
+        boolean pendingNot = false;
+        Matcher matcher = QUERY_TOKENS.matcher(query != null ? query : "");
+        while (matcher.find()) {
+            boolean negated = pendingNot;
+            String text;
+            if (matcher.group(2) != null) {
+                negated |= !matcher.group(1).isEmpty();
+                text = matcher.group(2);
+            } else {
+                String word = matcher.group(3);
+                if ("OR".equals(word)) {
+                    pendingOr = !groups.isEmpty();
+                    continue;
+                }
+                if ("AND".equals(word)) {
+                    continue;
+                }
+                if ("NOT".equals(word)) {
+                    pendingNot = true;
+                    continue;
+                }
+                if (word.length() > 1 && word.startsWith("-")) {
+                    negated = true;
+                    word = word.substring(1);
+                }
+                text = word;
+            }
+
+            Clause clause = toClause(text);
+            if (clause != null) {
+                if (negated) {
+                    excluded.add(clause);
+                } else if (pendingOr) {
+                    groups.get(groups.size() - 1).add(clause);
+                } else {
+                    List<Clause> group = new ArrayList<>();
+                    group.add(clause);
+                    groups.add(group);
+                }
+            }
+            pendingOr = false;
+            pendingNot = false;
+        }
+
+        if (groups.isEmpty()) {
+            throw new DomainException("La búsqueda debe contener al menos un término no excluido");
+        }
+        return new ParsedQuery(groups, excluded.isEmpty() ? Collections.emptyList() : excluded);
+    }
+
+    private static Clause toClause(String text) {
+        List<SpanishTextAnalyzer.Token> tokens = SpanishTextAnalyzer.analyze(text);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+
+        int first = tokens.get(0).position;
+        List<String> terms = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        for (SpanishTextAnalyzer.Token token : tokens) {
+            terms.add(token.term);
+            offsets.add(token.position - first);
+        }
+        return new Clause(terms, offsets);
+    }
+}
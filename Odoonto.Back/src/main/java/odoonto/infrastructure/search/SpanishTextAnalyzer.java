@@ -0,0 +1,119 @@
+package odoonto.infrastructure.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Análisis de texto clínico en español para el índice de búsqueda.
+ * Pasa a minúsculas, elimina acentos y diéresis, separa en palabras, descarta
+ * palabras vacías y aplica un stemming ligero (plurales, género y adverbios en
+ * -mente) para que "caries", "dolores" o "inflamaciones" encuentren sus variantes.
+ * Las palabras vacías consumen posición para que las frases conserven sus huecos.
+ */
+final class SpanishTextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final int MIN_STEM_LENGTH = 4;
+
+    private static final Set<String> STOPWORDS = new HashSet<>(Arrays.asList(
+        "a", "al", "algo", "algunas", "algunos", "ante", "antes", "como", "con", "contra", "cual",
+        "cuando", "de", "del", "desde", "donde", "durante", "e", "el", "ella", "ellos", "en", "entre",
+        "era", "es", "esa", "ese", "eso", "esta", "estan", "estas", "este", "esto", "estos", "fue",
+        "ha", "han", "hasta", "hay", "la", "las", "le", "les", "lo", "los", "mas", "me", "mi", "muy",
+        "nos", "o", "otra", "otro", "para", "pero", "poco", "por", "porque", "que", "quien", "se",
+        "ser", "si", "sin", "sobre", "su", "sus", "tambien", "te", "tiene", "todo", "tras", "u",
+        "un", "una", "uno", "unos", "y", "ya"
+    ));
+
+    private SpanishTextAnalyzer() {
+    }
+
+    /**
+     * Término analizado y su posición en el texto
+     */
+    static final class Token {
+        final String term;
+        final int position;
+
+        Token(String term, int position) {
+            this.term = term;
+            this.position = position;
+        }
+    }
+
+    /**
+     * Analiza un texto en términos indexables con su posición
+     * @param text Texto libre
+     * @return Términos en orden de aparición
+     */
+    static List<Token> analyze(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        int position = 0;
+        for (String word : SEPARATORS.split(fold(text))) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (!STOPWORDS.contains(word)) {
+                tokens.add(new Token(stem(word), position));
+            }
+            position++;
+        }
+        return tokens;
+    }
+
+    /**
+     * Pasa a minúsculas y elimina acentos, diéresis y virgulillas
+     */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("");
+    }
+
+    /**
+     * Stemming ligero: reduce plural, género y el sufijo -mente sin llegar a la raíz léxica
+     */
+    static String stem(String word) {
+        if (word.length() <= MIN_STEM_LENGTH || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+
+        String stem = word;
+        if (stem.endsWith("mente") && stem.length() - 5 >= MIN_STEM_LENGTH) {
+            stem = stem.substring(0, stem.length() - 5);
+        }
+
+        // Plurales: -iones -> -ion, -ces -> -z, consonante + -es, -s
+        if (stem.endsWith("iones")) {
+            return stem.substring(0, stem.length() - 2);
+        }
+        if (stem.endsWith("ces") && stem.length() >= 5) {
+            return stem.substring(0, stem.length() - 3) + "z";
+        }
+        if (stem.endsWith("es") && stem.length() > 5 && !isVowel(stem.charAt(stem.length() - 3))) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.endsWith("s") && stem.length() > MIN_STEM_LENGTH) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        // Género y vocal final
+        char last = stem.charAt(stem.length() - 1);
+        if ((last == 'a' || last == 'o' || last == 'e') && stem.length() > MIN_STEM_LENGTH) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
@@ -0,0 +1,239 @@
+package odoonto.infrastructure.streaming;
+
+import odoonto.application.port.out.AppointmentChange;
+import odoonto.application.port.out.AppointmentChangeFeed;
+import odoonto.application.port.out.AppointmentChangeType;
+import odoonto.application.port.out.MetricsSource;
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+import odoonto.infrastructure.streaming.StreamingConfiguration.OverflowPolicy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Bus en memoria de cambios de citas.
+ * El repositorio publica tras cada escritura y cada suscriptor recibe los cambios
+ * a través de un buffer propio y acotado: un cliente lento solo pierde o fusiona
+ * sus propios cambios pendientes, nunca bloquea la escritura ni a otros clientes.
+ */
+@Component
+public class AppointmentChangeBus implements AppointmentChangeFeed, MetricsSource {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentChangeBus.class);
+    
+    private final Set<ChangeSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    
+    @Autowired
+    public AppointmentChangeBus(StreamingConfiguration configuration) {
+        this.bufferSize = Math.max(1, configuration.getSubscriberBufferSize());
+        this.overflowPolicy = configuration.getOverflowPolicy();
+    }
+    
+    /**
+     * Publica el cambio de una cita guardada. Una cita nueva se publica como creada;
+     * si no, el paso a confirmada o cancelada determina el tipo y cualquier otro
+     * cambio se considera actualización.
+     * @param appointment Cita guardada
+     * @param created Si la cita se acaba de crear
+     * @param previousStatus Estado anterior de la cita (nulo si es nueva)
+     */
+    public void publishSaved(Appointment appointment, boolean created, AppointmentStatus previousStatus) {
+        AppointmentChangeType type = AppointmentChangeType.UPDATED;
+        AppointmentStatus status = appointment.getStatus();
+        if (created) {
+            type = AppointmentChangeType.CREATED;
+        } else if (status != previousStatus && status == AppointmentStatus.CONFIRMADA) {
+            type = AppointmentChangeType.CONFIRMED;
+        } else if (status != previousStatus && status == AppointmentStatus.CANCELADA) {
+            type = AppointmentChangeType.CANCELLED;
+        }
+        publish(type, appointment.getId(), appointment);
+    }
+    
+    /**
+     * Publica el borrado de una cita
+     * @param appointmentId ID de la cita borrada
+     */
+    public void publishDeleted(String appointmentId) {
+        publish(AppointmentChangeType.DELETED, appointmentId, null);
+    }
+    
+    private void publish(AppointmentChangeType type, String appointmentId, Appointment appointment) {
+        published.increment();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        
+        AppointmentChange change = new AppointmentChange(
+                sequence.incrementAndGet(), type, appointmentId, appointment, Instant.now());
+        
+        for (ChangeSubscriber subscriber : subscribers) {
+            try {
+                subscriber.offer(change);
+            } catch (Exception e) {
+                // Un suscriptor defectuoso no debe afectar a la escritura ni al resto
+                logger.warn("Error al entregar cambio de cita {} a un suscriptor: {}", appointmentId, e.getMessage());
+            }
+        }
+    }
+    
+    @Override
+    public Flux<AppointmentChange> subscribe(Predicate<AppointmentChange> filter) {
+        Predicate<AppointmentChange> effectiveFilter = filter != null ? filter : change -> true;
+        return Flux.create(sink -> {
+            ChangeSubscriber subscriber = new ChangeSubscriber(effectiveFilter, sink);
+            subscribers.add(subscriber);
+            sink.onRequest(n -> subscriber.drain());
+            sink.onDispose(() -> subscribers.remove(subscriber));
+        });
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    public long getPublishedCount() {
+        return published.sum();
+    }
+    
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+    
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+    
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+    
+    @Override
+    public String getMetricsName() {
+        return "appointmentChanges";
+    }
+    
+    @Override
+    public Map<String, Object> getMetricsSnapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("subscribers", getSubscriberCount());
+        metrics.put("published", getPublishedCount());
+        metrics.put("delivered", getDeliveredCount());
+        metrics.put("coalesced", getCoalescedCount());
+        metrics.put("dropped", getDroppedCount());
+        metrics.put("overflowPolicy", overflowPolicy.name());
+        return metrics;
+    }
+    
+    /**
+     * Suscriptor con buffer acotado. Solo emite cuando hay demanda del cliente,
+     * por lo que el buffer interno de Flux.create nunca crece.
+     */
+    private final class ChangeSubscriber {
+        private final Predicate<AppointmentChange> filter;
+        private final FluxSink<AppointmentChange> sink;
+        // Clave: ID de cita con COALESCE, número de secuencia en otro caso
+        private final LinkedHashMap<Object, AppointmentChange> pending = new LinkedHashMap<>();
+        
+        private ChangeSubscriber(Predicate<AppointmentChange> filter, FluxSink<AppointmentChange> sink) {
+            this.filter = filter;
+            this.sink = sink;
+        }
+        
+        private void offer(AppointmentChange change) {
+            if (!filter.test(change)) {
+                return;
+            }
+            
+            synchronized (this) {
+                boolean coalesce = overflowPolicy == OverflowPolicy.COALESCE && change.getAppointmentId() != null;
+                Object key = coalesce ? change.getAppointmentId() : change.getSequence();
+                
+                if (coalesce && pending.containsKey(key)) {
+                    // Conserva la posición del cambio pendiente y lo fusiona con el más reciente
+                    pending.put(key, merge(pending.get(key), change));
+                    coalesced.increment();
+                } else if (pending.size() < bufferSize) {
+                    pending.put(key, change);
+                } else if (overflowPolicy == OverflowPolicy.DROP_LATEST) {
+                    dropped.increment();
+                } else {
+                    Iterator<Map.Entry<Object, AppointmentChange>> oldest = pending.entrySet().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    pending.put(key, change);
+                    dropped.increment();
+                }
+            }
+            drain();
+        }
+        
+        /**
+         * Fusiona dos cambios de la misma cita. Se conserva el tipo más significativo para
+         * el cliente, que aún no ha visto el pendiente: un borrado no se pierde nunca, una
+         * cita creada sigue llegando como creada y una cancelación no se convierte en
+         * actualización. Los datos son siempre los del cambio más reciente
+         */
+        private AppointmentChange merge(AppointmentChange pending, AppointmentChange newer) {
+            AppointmentChangeType type = weight(pending.getType()) > weight(newer.getType())
+                    ? pending.getType() : newer.getType();
+            if (type == newer.getType()) {
+                return newer;
+            }
+            if (type == AppointmentChangeType.DELETED) {
+                return pending;
+            }
+            return new AppointmentChange(newer.getSequence(), type, newer.getAppointmentId(),
+                    newer.getAppointment(), newer.getOccurredAt());
+        }
+        
+        private int weight(AppointmentChangeType type) {
+            switch (type) {
+                case DELETED:
+                    return 4;
+                case CREATED:
+                    return 3;
+                case CANCELLED:
+                    return 2;
+                case CONFIRMED:
+                    return 1;
+                default:
+                    return 0;
+            }
+        }
+        
+        private synchronized void drain() {
+            while (!pending.isEmpty() && sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                Iterator<Map.Entry<Object, AppointmentChange>> first = pending.entrySet().iterator();
+                AppointmentChange next = first.next().getValue();
+                first.remove();
+                sink.next(next);
+                delivered.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package odoonto.infrastructure.streaming;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+/**
+ * Configuración del bus de cambios en tiempo real
+ */
+@Configuration
+@ConfigurationProperties(prefix = "odoonto.streaming")
+@Data
+public class StreamingConfiguration {
+    
+    /**
+     * Número máximo de cambios pendientes por suscriptor
+     */
+    private int subscriberBufferSize = 256;
+    
+    /**
+     * Política cuando el buffer de un suscriptor está lleno
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.COALESCE;
+    
+    /**
+     * Políticas de desbordamiento de los buffers de suscriptor
+     */
+    public enum OverflowPolicy {
+        /**
+         * Un cambio pendiente se fusiona con el más reciente de la misma cita, sin perder
+         * creaciones, cancelaciones ni borrados; si aun así no hay espacio se descarta el más antiguo
+         */
+        COALESCE,
+        /**
+         * Se descarta el cambio pendiente más antiguo
+         */
+        DROP_OLDEST,
+        /**
+         * Se descarta el cambio entrante
+         */
+        DROP_LATEST
+    }
+}
@@ -1,5 +1,6 @@
 package odoonto.presentation.rest.advice;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -7,11 +8,15 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
 import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.exceptions.ArchivedAppointmentException;
 import odoonto.application.exceptions.PatientNotFoundException;
 import odoonto.application.exceptions.DoctorNotFoundException;
 import odoonto.application.exceptions.OdontogramNotFoundException;
 import odoonto.application.exceptions.MedicalRecordNotFoundException;
 import odoonto.application.exceptions.AppointmentConflictException;
+import odoonto.application.exceptions.ConcurrentUpdateException;
+import odoonto.application.exceptions.IdempotencyKeyReusedException;
+import odoonto.application.exceptions.RepositoryUnavailableException;
 
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
@@ -89,6 +94,41 @@ public class GlobalExceptionHandler {
         return createErrorResponse(ex, HttpStatus.CONFLICT, request);
     }
     
+    /**
+     * Maneja intentos de modificar o eliminar una cita archivada
+     */
+    @ExceptionHandler(ArchivedAppointmentException.class)
+    public ResponseEntity<Object> handleArchivedAppointmentException(ArchivedAppointmentException ex, WebRequest request) {
+        return createErrorResponse(ex, HttpStatus.CONFLICT, request);
+    }
+    
+    /**
+     * Maneja excepciones de modificación concurrente
+     */
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<Object> handleConcurrentUpdateException(ConcurrentUpdateException ex, WebRequest request) {
+        return createErrorResponse(ex, HttpStatus.CONFLICT, request);
+    }
+    
+    /**
+     * Maneja claves de idempotencia reutilizadas con otra petición
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex, WebRequest request) {
+        return createErrorResponse(ex, HttpStatus.UNPROCESSABLE_ENTITY, request);
+    }
+    
+    /**
+     * Maneja llamadas rechazadas porque el almacenamiento está saturado o degradado
+     */
+    @ExceptionHandler(RepositoryUnavailableException.class)
+    public ResponseEntity<Object> handleRepositoryUnavailableException(RepositoryUnavailableException ex, WebRequest request) {
+        ResponseEntity<Object> response = createErrorResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, request);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(response.getBody());
+    }
+    
     /**
      * Maneja todas las demás excepciones no capturadas
      */
@@ -1,22 +1,41 @@
 package odoonto.presentation.rest.controller;
 
 import odoonto.application.dto.response.AppointmentDTO;
+import odoonto.application.dto.response.AppointmentChangeDTO;
+import odoonto.application.dto.response.AppointmentSeriesDTO;
+import odoonto.application.dto.response.RescheduleResultDTO;
+import odoonto.application.dto.response.TreatmentPlanScheduleDTO;
 import odoonto.application.dto.request.AppointmentCreateDTO;
+import odoonto.application.dto.request.AppointmentRescheduleDTO;
+import odoonto.application.dto.request.AppointmentSeriesCreateDTO;
+import odoonto.application.dto.request.DoctorDayRescheduleDTO;
+import odoonto.application.dto.request.TreatmentPlanScheduleRequestDTO;
+import odoonto.application.port.in.appointment.AppointmentCancelUseCase;
+import odoonto.application.port.in.appointment.AppointmentChangeStreamUseCase;
+import odoonto.application.port.in.appointment.AppointmentConfirmUseCase;
+import odoonto.application.port.in.appointment.AppointmentQueryUseCase;
+import odoonto.application.port.in.appointment.AppointmentRescheduleUseCase;
+import odoonto.application.port.in.appointment.AppointmentSeriesUseCase;
+import odoonto.application.port.in.appointment.TreatmentPlanScheduleUseCase;
 import odoonto.application.service.AppointmentService;
 import odoonto.application.exceptions.PatientNotFoundException;
 import odoonto.application.exceptions.DoctorNotFoundException;
 import odoonto.application.exceptions.AppointmentConflictException;
+import odoonto.application.exceptions.IdempotencyKeyReusedException;
+import odoonto.application.port.out.IdempotentExecutor;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
 
@@ -26,11 +45,38 @@ import java.time.ZoneId;
 @RestController
 public class AppointmentController {
     
+    private static final Duration STREAM_HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+    
     private final AppointmentService appointmentService;
+    private final AppointmentChangeStreamUseCase appointmentChangeStreamUseCase;
+    private final AppointmentRescheduleUseCase appointmentRescheduleUseCase;
+    private final TreatmentPlanScheduleUseCase treatmentPlanScheduleUseCase;
+    private final AppointmentSeriesUseCase appointmentSeriesUseCase;
+    private final AppointmentCancelUseCase appointmentCancelUseCase;
+    private final AppointmentConfirmUseCase appointmentConfirmUseCase;
+    private final AppointmentQueryUseCase appointmentQueryUseCase;
+    private final IdempotentExecutor idempotentExecutor;
     
     @Autowired
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(
+            AppointmentService appointmentService,
+            AppointmentChangeStreamUseCase appointmentChangeStreamUseCase,
+            AppointmentRescheduleUseCase appointmentRescheduleUseCase,
+            TreatmentPlanScheduleUseCase treatmentPlanScheduleUseCase,
+            AppointmentSeriesUseCase appointmentSeriesUseCase,
+            AppointmentCancelUseCase appointmentCancelUseCase,
+            AppointmentConfirmUseCase appointmentConfirmUseCase,
+            AppointmentQueryUseCase appointmentQueryUseCase,
+            IdempotentExecutor idempotentExecutor) {
         this.appointmentService = appointmentService;
+        this.appointmentChangeStreamUseCase = appointmentChangeStreamUseCase;
+        this.appointmentRescheduleUseCase = appointmentRescheduleUseCase;
+        this.treatmentPlanScheduleUseCase = treatmentPlanScheduleUseCase;
+        this.appointmentSeriesUseCase = appointmentSeriesUseCase;
+        this.appointmentCancelUseCase = appointmentCancelUseCase;
+        this.appointmentConfirmUseCase = appointmentConfirmUseCase;
+        this.appointmentQueryUseCase = appointmentQueryUseCase;
+        this.idempotentExecutor = idempotentExecutor;
     }
     
     /**
@@ -54,18 +100,23 @@ public class AppointmentController {
     }
     
     /**
-     * Crea una nueva cita
+     * Crea una nueva cita. Con la cabecera Idempotency-Key los reintentos de la misma
+     * petición devuelven la cita ya creada en lugar de crear otra
      * @param createDTO DTO con datos de la cita
+     * @param idempotencyKey Clave de idempotencia (opcional)
      * @return Mono con el DTO de la cita creada
      */
     @PostMapping(value = "/api/appointments", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
-    public Mono<AppointmentDTO> createAppointment(@RequestBody AppointmentCreateDTO createDTO) {
-        return appointmentService.createAppointment(createDTO)
+    public Mono<AppointmentDTO> createAppointment(
+            @RequestBody AppointmentCreateDTO createDTO,
+            @RequestHeader(value = IdempotentExecutor.HEADER, required = false) String idempotencyKey) {
+        return idempotentExecutor.execute("POST /api/appointments", idempotencyKey, new Object[] {createDTO},
+                () -> appointmentService.createAppointment(createDTO))
                 .onErrorResume(e -> {
                     if (e instanceof PatientNotFoundException || e instanceof DoctorNotFoundException) {
                         return Mono.error(e);
-                    } else if (e instanceof AppointmentConflictException) {
+                    } else if (e instanceof AppointmentConflictException || e instanceof IdempotencyKeyReusedException) {
                         return Mono.error(e);
                     } else {
                         return Mono.error(new RuntimeException("Error creando cita: " + e.getMessage()));
@@ -88,14 +139,152 @@ public class AppointmentController {
     }
     
     /**
-     * Elimina una cita
+     * Reprograma una cita a otra fecha y hora (y opcionalmente a otro doctor),
+     * liberando su hueco anterior y reclamando el nuevo en una sola operación
+     * @param id ID de la cita
+     * @param rescheduleDTO Nueva fecha, hora y doctor opcional
+     * @return Mono con el DTO de la cita reprogramada
+     */
+    @PutMapping(value = "/api/appointments/{id}/reschedule", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<AppointmentDTO> rescheduleAppointment(
+            @PathVariable String id,
+            @RequestBody AppointmentRescheduleDTO rescheduleDTO) {
+        return appointmentRescheduleUseCase.rescheduleAppointment(id, rescheduleDTO);
+    }
+    
+    /**
+     * Reprograma todas las citas pendientes de un doctor en un día, moviéndolas
+     * a otro doctor y/o a otro día (por ejemplo, si el doctor está de baja)
+     * @param doctorId ID del doctor
+     * @param date Día cuyas citas se reprograman
+     * @param rescheduleDTO Doctor y/o día destino
+     * @return Flux con el resultado de cada cita
+     */
+    @PostMapping(value = "/api/appointments/doctor/{doctorId}/day/{date}/reschedule",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<RescheduleResultDTO> rescheduleDoctorDay(
+            @PathVariable String doctorId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestBody DoctorDayRescheduleDTO rescheduleDTO) {
+        return appointmentRescheduleUseCase.rescheduleDoctorDay(doctorId, date, rescheduleDTO);
+    }
+    
+    /**
+     * Calcula la secuencia de citas más temprana que completa un plan de tratamiento,
+     * respetando la especialidad, el horario de los doctores y la separación entre sesiones.
+     * No reserva las citas.
+     * @param request Paciente, tratamientos en orden y horizonte de búsqueda
+     * @return Mono con la programación propuesta
+     */
+    @PostMapping(value = "/api/appointments/treatment-plan/schedule", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<TreatmentPlanScheduleDTO> scheduleTreatmentPlan(@RequestBody TreatmentPlanScheduleRequestDTO request) {
+        return treatmentPlanScheduleUseCase.scheduleTreatmentPlan(request);
+    }
+    
+    /**
+     * Crea una serie de citas periódicas (por ejemplo, revisiones mensuales de ortodoncia).
+     * Todas las fechas se comprueban a la vez; si alguna no está libre no se crea ninguna
+     * @param createDTO Primera cita, duración y regla de repetición
+     * @return Mono con el DTO de la serie creada
+     */
+    @PostMapping(value = "/api/appointments/series", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<AppointmentSeriesDTO> createAppointmentSeries(@RequestBody AppointmentSeriesCreateDTO createDTO) {
+        return appointmentSeriesUseCase.createSeries(createDTO);
+    }
+    
+    /**
+     * Obtiene una serie de citas por su ID
+     * @param seriesId ID de la serie
+     * @return Mono con el DTO de la serie
+     */
+    @GetMapping(value = "/api/appointments/series/{seriesId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<AppointmentSeriesDTO> getAppointmentSeries(@PathVariable String seriesId) {
+        return appointmentSeriesUseCase.getSeriesById(seriesId);
+    }
+    
+    /**
+     * Obtiene las citas de una serie en un rango de fechas
+     * @param seriesId ID de la serie
+     * @param from Fecha de inicio
+     * @param to Fecha de fin
+     * @return Flux de DTOs de citas
+     */
+    @GetMapping(value = "/api/appointments/series/{seriesId}/occurrences", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<AppointmentDTO> getAppointmentSeriesOccurrences(
+            @PathVariable String seriesId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return appointmentSeriesUseCase.getSeriesOccurrences(seriesId, from, to);
+    }
+    
+    /**
+     * Obtiene las citas de las series de un doctor en un rango de fechas
+     * @param doctorId ID del doctor
+     * @param from Fecha de inicio
+     * @param to Fecha de fin
+     * @return Flux de DTOs de citas
+     */
+    @GetMapping(value = "/api/appointments/series/doctor/{doctorId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<AppointmentDTO> getDoctorSeriesOccurrences(
+            @PathVariable String doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return appointmentSeriesUseCase.getDoctorSeriesOccurrences(doctorId, from, to);
+    }
+    
+    /**
+     * Anula la cita de una serie en una fecha y libera su hueco
+     * @param seriesId ID de la serie
+     * @param date Fecha de la cita
+     * @return Mono con el DTO de la serie actualizada
+     */
+    @DeleteMapping(value = "/api/appointments/series/{seriesId}/occurrences/{date}",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<AppointmentSeriesDTO> cancelAppointmentSeriesOccurrence(
+            @PathVariable String seriesId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return appointmentSeriesUseCase.cancelOccurrence(seriesId, date);
+    }
+    
+    /**
+     * Anula las citas de una serie desde una fecha (por defecto, hoy); las anteriores se conservan
+     * @param seriesId ID de la serie
+     * @param from Primera fecha anulada (opcional)
+     * @return Mono con el DTO de la serie actualizada
+     */
+    @DeleteMapping(value = "/api/appointments/series/{seriesId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<AppointmentSeriesDTO> endAppointmentSeries(
+            @PathVariable String seriesId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        return appointmentSeriesUseCase.endSeries(seriesId, from);
+    }
+    
+    /**
+     * Elimina una cita. Para anularla conservando el historial se usa la cancelación
      * @param id ID de la cita a eliminar
      * @return Mono vacío que completa cuando se elimina la cita
      */
     @DeleteMapping("/api/appointments/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public Mono<Void> deleteAppointment(@PathVariable String id) {
-        return Mono.fromRunnable(() -> appointmentService.deleteAppointment(id));
+        return appointmentService.deleteAppointment(id);
+    }
+    
+    /**
+     * Obtiene las citas de un estado en un rango de fechas, por ejemplo las confirmadas
+     * de hoy o las canceladas de esta semana
+     * @param status Nombre o código del estado
+     * @param from Fecha de inicio (por defecto hoy)
+     * @param to Fecha de fin, inclusive (por defecto la de inicio)
+     * @return Flux de DTOs de citas en orden cronológico
+     */
+    @GetMapping(value = "/api/appointments/status/{status}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<AppointmentDTO> getAppointmentsByStatusAndDateRange(
+            @PathVariable String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return appointmentQueryUseCase.findByStatusAndDateRange(status, from, to);
     }
     
     /**
@@ -128,6 +317,34 @@ public class AppointmentController {
                 .filter(a -> a.getPatientId().equals(patientId));
     }
     
+    /**
+     * Emite en tiempo real (Server-Sent Events) los cambios de citas de un doctor
+     * y ventana de fechas. Envía un comentario periódico para mantener viva la conexión.
+     * @param doctorId ID del doctor (opcional)
+     * @param from Fecha inicial de la ventana (opcional, inclusive)
+     * @param to Fecha final de la ventana (opcional, inclusive)
+     * @return Flux de eventos con los cambios de citas
+     */
+    @GetMapping(value = "/api/appointments/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<AppointmentChangeDTO>> streamAppointmentChanges(
+            @RequestParam(required = false) String doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Flux<ServerSentEvent<AppointmentChangeDTO>> changes = appointmentChangeStreamUseCase
+                .streamChanges(doctorId, from, to)
+                .map(change -> ServerSentEvent.<AppointmentChangeDTO>builder()
+                        .id(String.valueOf(change.getSequence()))
+                        .event(change.getChangeType())
+                        .data(change)
+                        .build());
+        
+        Flux<ServerSentEvent<AppointmentChangeDTO>> heartbeats = Flux.interval(STREAM_HEARTBEAT_INTERVAL)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<AppointmentChangeDTO>builder().comment("keepalive").build());
+        
+        return Flux.merge(changes, heartbeats);
+    }
+    
     /**
      * Confirma una cita
      * @param id ID de la cita
@@ -135,12 +352,11 @@ public class AppointmentController {
      */
     @PutMapping(value = "/api/appointments/{id}/confirm", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<AppointmentDTO> confirmAppointment(@PathVariable String id) {
-        return appointmentService.getAppointmentById(id)
-                .onErrorResume(RuntimeException.class, e -> Mono.empty());
+        return appointmentConfirmUseCase.confirmAppointment(id);
     }
     
     /**
-     * Cancela una cita
+     * Cancela una cita. La cita se conserva en estado cancelada y sus franjas quedan libres
      * @param id ID de la cita
      * @param reason Motivo de cancelación (opcional)
      * @return Mono vacío que completa cuando se cancela la cita
@@ -150,6 +366,6 @@ public class AppointmentController {
     public Mono<Void> cancelAppointment(
             @PathVariable String id,
             @RequestParam(required = false) String reason) {
-        return Mono.fromRunnable(() -> appointmentService.deleteAppointment(id));
+        return appointmentCancelUseCase.cancelAppointment(id, reason).then();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,42 @@
+package odoonto.presentation.rest.controller;
+
+import odoonto.application.dto.response.CalendarDTO;
+import odoonto.application.port.in.calendar.CalendarQueryUseCase;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Controlador REST para la vista de calendario de la clínica
+ */
+@RestController
+public class CalendarController {
+    
+    private final CalendarQueryUseCase calendarQueryUseCase;
+    
+    @Autowired
+    public CalendarController(CalendarQueryUseCase calendarQueryUseCase) {
+        this.calendarQueryUseCase = calendarQueryUseCase;
+    }
+    
+    /**
+     * Obtiene las citas de una ventana (día, semana o mes) agrupadas por doctor y franja de 30 minutos
+     * @param view Tipo de ventana: day, week o month
+     * @param date Fecha de referencia de la ventana (por defecto hoy)
+     * @param doctorId ID del doctor para filtrar (opcional)
+     * @return Mono con la vista de calendario
+     */
+    @GetMapping(value = "/api/calendar", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<CalendarDTO> getCalendar(
+            @RequestParam(defaultValue = "day") String view,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String doctorId) {
+        return calendarQueryUseCase.getCalendar(view, date, doctorId);
+    }
+}
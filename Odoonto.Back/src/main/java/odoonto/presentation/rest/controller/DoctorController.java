@@ -1,14 +1,19 @@
 package odoonto.presentation.rest.controller;
 
 import odoonto.application.dto.response.DoctorDTO;
+import odoonto.application.dto.response.DoctorScheduleDTO;
+import odoonto.application.dto.request.DayScheduleDTO;
 import odoonto.application.dto.request.DoctorCreateDTO;
+import odoonto.application.dto.request.ScheduleExceptionDTO;
 import odoonto.application.port.in.doctor.DoctorCreateUseCase;
 import odoonto.application.port.in.doctor.DoctorQueryUseCase;
 import odoonto.application.port.in.doctor.DoctorUpdateUseCase;
 import odoonto.application.port.in.doctor.DoctorDeleteUseCase;
+import odoonto.application.port.in.doctor.DoctorScheduleUseCase;
 import odoonto.domain.exceptions.DomainException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +21,9 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+import java.util.List;
+
 /**
  * Controlador REST para operaciones con doctores
  */
@@ -26,17 +34,20 @@ public class DoctorController {
     private final DoctorCreateUseCase doctorCreateUseCase;
     private final DoctorUpdateUseCase doctorUpdateUseCase;
     private final DoctorDeleteUseCase doctorDeleteUseCase;
+    private final DoctorScheduleUseCase doctorScheduleUseCase;
     
     @Autowired
     public DoctorController(
             DoctorQueryUseCase doctorQueryUseCase,
             DoctorCreateUseCase doctorCreateUseCase,
             DoctorUpdateUseCase doctorUpdateUseCase,
-            DoctorDeleteUseCase doctorDeleteUseCase) {
+            DoctorDeleteUseCase doctorDeleteUseCase,
+            DoctorScheduleUseCase doctorScheduleUseCase) {
         this.doctorQueryUseCase = doctorQueryUseCase;
         this.doctorCreateUseCase = doctorCreateUseCase;
         this.doctorUpdateUseCase = doctorUpdateUseCase;
         this.doctorDeleteUseCase = doctorDeleteUseCase;
+        this.doctorScheduleUseCase = doctorScheduleUseCase;
     }
     
     /**
@@ -96,6 +107,55 @@ public class DoctorController {
                 .onErrorResume(DomainException.class, e -> Mono.empty());
     }
     
+    /**
+     * Obtiene el horario semanal de un doctor y sus excepciones
+     * @param id ID del doctor
+     * @return Mono con el horario
+     */
+    @GetMapping(value = "/api/doctors/{id}/schedule", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<DoctorScheduleDTO> getDoctorSchedule(@PathVariable String id) {
+        return doctorScheduleUseCase.getSchedule(id);
+    }
+    
+    /**
+     * Modifica el horario semanal de un doctor; los días no incluidos no cambian
+     * @param id ID del doctor
+     * @param days Horario de cada día a modificar
+     * @return Mono con el horario actualizado
+     */
+    @PutMapping(value = "/api/doctors/{id}/schedule", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<DoctorScheduleDTO> updateDoctorSchedule(
+            @PathVariable String id,
+            @RequestBody List<DayScheduleDTO> days) {
+        return doctorScheduleUseCase.updateWeeklySchedule(id, days);
+    }
+    
+    /**
+     * Registra un día libre u horario especial en una fecha o rango de fechas
+     * @param id ID del doctor
+     * @param exceptionDTO Fechas, horario opcional y motivo
+     * @return Mono con el horario actualizado
+     */
+    @PostMapping(value = "/api/doctors/{id}/schedule/exceptions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<DoctorScheduleDTO> addScheduleException(
+            @PathVariable String id,
+            @RequestBody ScheduleExceptionDTO exceptionDTO) {
+        return doctorScheduleUseCase.addScheduleException(id, exceptionDTO);
+    }
+    
+    /**
+     * Elimina la excepción de una fecha, volviendo al horario semanal
+     * @param id ID del doctor
+     * @param date Fecha de la excepción
+     * @return Mono con el horario actualizado
+     */
+    @DeleteMapping(value = "/api/doctors/{id}/schedule/exceptions/{date}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<DoctorScheduleDTO> removeScheduleException(
+            @PathVariable String id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return doctorScheduleUseCase.removeScheduleException(id, date);
+    }
+    
     /**
      * Busca doctores por especialidad
      * @param especialidad Especialidad a buscar
@@ -2,17 +2,23 @@ package odoonto.presentation.rest.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
 import odoonto.application.dto.request.MedicalEntryCreateDTO;
+import odoonto.application.dto.response.MedicalEntryPageDTO;
+import odoonto.application.dto.response.MedicalEntrySearchResultDTO;
 import odoonto.application.dto.response.MedicalRecordDTO;
 import odoonto.application.port.in.medicalrecord.MedicalRecordQueryUseCase;
 import odoonto.application.port.in.medicalrecord.MedicalEntryAddUseCase;
+import odoonto.application.port.in.medicalrecord.MedicalEntrySearchUseCase;
 import odoonto.application.exceptions.MedicalRecordNotFoundException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+
 /**
  * Controlador REST para operaciones con historiales médicos
  */
@@ -21,13 +27,16 @@ public class MedicalRecordController {
 
     private final MedicalRecordQueryUseCase medicalRecordQueryUseCase;
     private final MedicalEntryAddUseCase medicalEntryAddUseCase;
+    private final MedicalEntrySearchUseCase medicalEntrySearchUseCase;
 
     @Autowired
     public MedicalRecordController(
             MedicalRecordQueryUseCase medicalRecordQueryUseCase,
-            MedicalEntryAddUseCase medicalEntryAddUseCase) {
+            MedicalEntryAddUseCase medicalEntryAddUseCase,
+            MedicalEntrySearchUseCase medicalEntrySearchUseCase) {
         this.medicalRecordQueryUseCase = medicalRecordQueryUseCase;
         this.medicalEntryAddUseCase = medicalEntryAddUseCase;
+        this.medicalEntrySearchUseCase = medicalEntrySearchUseCase;
     }
 
     /**
@@ -51,6 +60,25 @@ public class MedicalRecordController {
                 .onErrorResume(e -> Flux.empty());
     }
     
+    /**
+     * Busca texto en las entradas de historial de todos los pacientes
+     * @param q Texto de la búsqueda (palabras, "frases", OR, NOT o -palabra)
+     * @param doctorId Doctor que registró las entradas (opcional)
+     * @param from Primer día incluido (opcional)
+     * @param to Último día incluido (opcional)
+     * @param limit Número máximo de resultados (opcional)
+     * @return Flux con las entradas ordenadas por relevancia
+     */
+    @GetMapping(value = "/api/medical-records/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<MedicalEntrySearchResultDTO> searchMedicalEntries(
+            @RequestParam String q,
+            @RequestParam(required = false) String doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+        return medicalEntrySearchUseCase.search(q, doctorId, from, to, limit);
+    }
+    
     /**
      * Añade una entrada al historial médico
      * @param id ID del historial médico
@@ -71,6 +99,29 @@ public class MedicalRecordController {
                 .onErrorResume(e -> Mono.error(new MedicalRecordNotFoundException("Error al añadir entrada: " + e.getMessage())));
     }
     
+    /**
+     * Obtiene las entradas de un historial paginadas de la más reciente a la más antigua
+     * @param id ID del historial médico
+     * @param from Primer día incluido (opcional)
+     * @param to Último día incluido (opcional)
+     * @param doctorId Doctor que registró las entradas (opcional)
+     * @param type Tipo de entrada (opcional)
+     * @param cursor Cursor devuelto en la página anterior (opcional)
+     * @param limit Tamaño de página (opcional)
+     * @return Mono con la página de entradas
+     */
+    @GetMapping(value = "/api/medical-records/{id}/entries", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<MedicalEntryPageDTO> getMedicalEntries(
+            @PathVariable String id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String doctorId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return medicalRecordQueryUseCase.findEntries(id, from, to, doctorId, type, cursor, limit);
+    }
+    
     /**
      * Obtiene el historial médico de un paciente
      * @param patientId ID del paciente
@@ -0,0 +1,53 @@
+package odoonto.presentation.rest.controller;
+
+import odoonto.application.port.out.MetricsSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Controlador REST para consultar las métricas internas de la aplicación
+ */
+@RestController
+public class MetricsController {
+    
+    private final List<MetricsSource> metricsSources;
+    
+    @Autowired
+    public MetricsController(List<MetricsSource> metricsSources) {
+        this.metricsSources = metricsSources;
+    }
+    
+    /**
+     * Obtiene una instantánea de todas las métricas internas
+     * @return Mono con las métricas agrupadas por fuente
+     */
+    @GetMapping(value = "/api/metrics", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Map<String, Map<String, Object>>> getMetrics() {
+        return Mono.fromSupplier(() -> {
+            Map<String, Map<String, Object>> metrics = new TreeMap<>();
+            metricsSources.forEach(source -> metrics.put(source.getMetricsName(), source.getMetricsSnapshot()));
+            return metrics;
+        });
+    }
+    
+    /**
+     * Obtiene las métricas de una fuente concreta
+     * @param name Nombre de la fuente de métricas
+     * @return Mono con las métricas de la fuente o vacío si no existe
+     */
+    @GetMapping(value = "/api/metrics/{name}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Map<String, Object>> getMetricsByName(@PathVariable String name) {
+        return Mono.justOrEmpty(metricsSources.stream()
+                .filter(source -> source.getMetricsName().equals(name))
+                .findFirst()
+                .map(MetricsSource::getMetricsSnapshot));
+    }
+}
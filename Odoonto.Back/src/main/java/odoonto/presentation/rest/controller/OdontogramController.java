@@ -6,10 +6,13 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import odoonto.application.dto.response.LesionPatientPageDTO;
 import odoonto.application.dto.response.OdontogramDTO;
+import odoonto.application.port.in.odontogram.OdontogramQueryUseCase;
 import odoonto.application.port.in.patient.PatientOdontogramUseCase;
 import odoonto.application.service.OdontogramService;
 import odoonto.domain.model.aggregates.Odontogram;
+import odoonto.application.port.out.IdempotentExecutor;
 import reactor.core.publisher.Mono;
 
 /**
@@ -20,13 +23,19 @@ public class OdontogramController {
     
     private final OdontogramService odontogramService;
     private final PatientOdontogramUseCase patientOdontogramUseCase;
+    private final OdontogramQueryUseCase odontogramQueryUseCase;
+    private final IdempotentExecutor idempotentExecutor;
     
     @Autowired
     public OdontogramController(
             OdontogramService odontogramService,
-            PatientOdontogramUseCase patientOdontogramUseCase) {
+            PatientOdontogramUseCase patientOdontogramUseCase,
+            OdontogramQueryUseCase odontogramQueryUseCase,
+            IdempotentExecutor idempotentExecutor) {
         this.odontogramService = odontogramService;
         this.patientOdontogramUseCase = patientOdontogramUseCase;
+        this.odontogramQueryUseCase = odontogramQueryUseCase;
+        this.idempotentExecutor = idempotentExecutor;
     }
 
     /**
@@ -41,6 +50,25 @@ public class OdontogramController {
             .defaultIfEmpty(ResponseEntity.notFound().build());
     }
     
+    /**
+     * Obtiene los pacientes que presentan un tipo de lesión, paginados
+     * @param lesionType Nombre (CARIES) o código (CAR) del tipo de lesión
+     * @param tooth Número de diente (opcional)
+     * @param face Código de cara (opcional)
+     * @param cursor Cursor devuelto en la página anterior (opcional)
+     * @param limit Tamaño de página (opcional)
+     * @return Mono con la página de IDs de pacientes
+     */
+    @GetMapping(value = "/api/odontograms/lesions/{lesionType}/patients", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<LesionPatientPageDTO> getPatientsByLesionType(
+            @PathVariable String lesionType,
+            @RequestParam(required = false) String tooth,
+            @RequestParam(required = false) String face,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return odontogramQueryUseCase.findPatientsByLesionType(lesionType, tooth, face, cursor, limit);
+    }
+    
     /**
      * Obtiene el odontograma de un paciente
      * @param patientId ID del paciente
@@ -57,6 +85,8 @@ public class OdontogramController {
      * @param toothNumber Número del diente
      * @param face Cara del diente
      * @param lesionType Tipo de lesión
+     * @param idempotencyKey Clave de idempotencia (opcional); los reintentos con la misma
+     *                       clave devuelven la respuesta original sin volver a registrar la lesión
      * @return Mono con el odontograma actualizado
      */
     @PostMapping(value = "/api/odontograms/{id}/teeth/{toothNumber}/faces/{face}/lesions", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -65,11 +95,14 @@ public class OdontogramController {
             @PathVariable String id,
             @PathVariable int toothNumber,
             @PathVariable String face,
-            @RequestParam String lesionType) {
+            @RequestParam String lesionType,
+            @RequestHeader(value = IdempotentExecutor.HEADER, required = false) String idempotencyKey) {
         
-        return odontogramService.addLesion(id, toothNumber, face, lesionType)
-            .map(updated -> ResponseEntity.status(HttpStatus.CREATED).body(updated))
-            .defaultIfEmpty(ResponseEntity.notFound().build());
+        return idempotentExecutor.execute("POST /api/odontograms/lesions", idempotencyKey,
+                new Object[] {id, toothNumber, face, lesionType},
+                () -> odontogramService.addLesion(id, toothNumber, face, lesionType)
+                    .map(updated -> ResponseEntity.status(HttpStatus.CREATED).body(updated))
+                    .defaultIfEmpty(ResponseEntity.notFound().build()));
     }
     
     /**
@@ -95,6 +128,8 @@ public class OdontogramController {
      * @param id ID del odontograma
      * @param toothNumber Número del diente
      * @param treatmentType Tipo de tratamiento
+     * @param idempotencyKey Clave de idempotencia (opcional); los reintentos con la misma
+     *                       clave devuelven la respuesta original sin volver a registrar el tratamiento
      * @return Mono con el odontograma actualizado
      */
     @PostMapping(value = "/api/odontograms/{id}/teeth/{toothNumber}/treatments", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -102,11 +137,14 @@ public class OdontogramController {
     public Mono<ResponseEntity<OdontogramDTO>> addTreatment(
             @PathVariable String id,
             @PathVariable int toothNumber,
-            @RequestParam String treatmentType) {
+            @RequestParam String treatmentType,
+            @RequestHeader(value = IdempotentExecutor.HEADER, required = false) String idempotencyKey) {
         
-        return odontogramService.addTreatment(id, toothNumber, treatmentType)
-            .map(updated -> ResponseEntity.status(HttpStatus.CREATED).body(updated))
-            .defaultIfEmpty(ResponseEntity.notFound().build());
+        return idempotentExecutor.execute("POST /api/odontograms/treatments", idempotencyKey,
+                new Object[] {id, toothNumber, treatmentType},
+                () -> odontogramService.addTreatment(id, toothNumber, treatmentType)
+                    .map(updated -> ResponseEntity.status(HttpStatus.CREATED).body(updated))
+                    .defaultIfEmpty(ResponseEntity.notFound().build()));
     }
     
     /**
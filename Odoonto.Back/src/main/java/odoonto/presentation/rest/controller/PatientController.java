@@ -12,6 +12,7 @@ import odoonto.application.port.in.patient.PatientDeleteUseCase;
 import odoonto.application.port.in.patient.PatientOdontogramUseCase;
 import odoonto.application.port.in.patient.PatientQueryUseCase;
 import odoonto.application.port.in.patient.PatientUpdateUseCase;
+import odoonto.application.port.out.IdempotentExecutor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -25,17 +26,20 @@ public class PatientController {
     private final PatientCreateUseCase patientCreateUseCase;
     private final PatientUpdateUseCase patientUpdateUseCase;
     private final PatientDeleteUseCase patientDeleteUseCase;
+    private final IdempotentExecutor idempotentExecutor;
     @Autowired
     public PatientController(
             PatientQueryUseCase patientQueryUseCase,
             PatientCreateUseCase patientCreateUseCase,
             PatientUpdateUseCase patientUpdateUseCase,
             PatientDeleteUseCase patientDeleteUseCase,
-            PatientOdontogramUseCase patientOdontogramUseCase) {
+            PatientOdontogramUseCase patientOdontogramUseCase,
+            IdempotentExecutor idempotentExecutor) {
         this.patientQueryUseCase = patientQueryUseCase;
         this.patientCreateUseCase = patientCreateUseCase;
         this.patientUpdateUseCase = patientUpdateUseCase;
         this.patientDeleteUseCase = patientDeleteUseCase;
+        this.idempotentExecutor = idempotentExecutor;
     }
     
     /**
@@ -58,14 +62,19 @@ public class PatientController {
     }
     
     /**
-     * Crea un nuevo paciente
+     * Crea un nuevo paciente. Con la cabecera Idempotency-Key los reintentos de la misma
+     * petición devuelven el paciente ya creado en lugar de crear otro
      * @param patientDTO DTO con datos del paciente
+     * @param idempotencyKey Clave de idempotencia (opcional)
      * @return Mono con el DTO del paciente creado
      */
     @PostMapping(value = "/api/patients", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
-    public Mono<PatientDTO> createPatient(@RequestBody PatientCreateDTO patientDTO) {
-        return patientCreateUseCase.createPatient(patientDTO);
+    public Mono<PatientDTO> createPatient(
+            @RequestBody PatientCreateDTO patientDTO,
+            @RequestHeader(value = IdempotentExecutor.HEADER, required = false) String idempotencyKey) {
+        return idempotentExecutor.execute("POST /api/patients", idempotencyKey, new Object[] {patientDTO},
+                () -> patientCreateUseCase.createPatient(patientDTO));
     }
     
     /**
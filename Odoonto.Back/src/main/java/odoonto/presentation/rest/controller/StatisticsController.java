@@ -0,0 +1,99 @@
+package odoonto.presentation.rest.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import odoonto.application.dto.response.AppointmentStatusCountsDTO;
+import odoonto.application.dto.response.ClinicRiskReportDTO;
+import odoonto.application.dto.response.LesionStatisticsDTO;
+import odoonto.application.port.in.appointment.AppointmentStatisticsUseCase;
+import odoonto.application.port.in.odontogram.ClinicRiskReportUseCase;
+import odoonto.application.port.in.odontogram.LesionStatisticsUseCase;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Controlador REST para las estadísticas agregadas de la clínica
+ */
+@RestController
+public class StatisticsController {
+
+    private final LesionStatisticsUseCase lesionStatisticsUseCase;
+    private final ClinicRiskReportUseCase clinicRiskReportUseCase;
+    private final AppointmentStatisticsUseCase appointmentStatisticsUseCase;
+
+    @Autowired
+    public StatisticsController(LesionStatisticsUseCase lesionStatisticsUseCase,
+                                ClinicRiskReportUseCase clinicRiskReportUseCase,
+                                AppointmentStatisticsUseCase appointmentStatisticsUseCase) {
+        this.lesionStatisticsUseCase = lesionStatisticsUseCase;
+        this.clinicRiskReportUseCase = clinicRiskReportUseCase;
+        this.appointmentStatisticsUseCase = appointmentStatisticsUseCase;
+    }
+
+    /**
+     * Obtiene el recuento de lesiones de todos los odontogramas por tipo, diente,
+     * cara, cuadrante y zona
+     * @return Mono con las estadísticas
+     */
+    @GetMapping(value = "/api/statistics/lesions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<LesionStatisticsDTO> getLesionStatistics() {
+        return lesionStatisticsUseCase.getLesionStatistics();
+    }
+
+    /**
+     * Obtiene el recuento de un tipo de lesión
+     * @param lesionType Nombre (CARIES) o código (CAR) del tipo de lesión
+     * @return Mono con el recuento del tipo
+     */
+    @GetMapping(value = "/api/statistics/lesions/{lesionType}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<LesionStatisticsDTO.LesionTypeStatisticsDTO> getLesionTypeStatistics(@PathVariable String lesionType) {
+        return lesionStatisticsUseCase.getLesionStatistics(lesionType);
+    }
+
+    /**
+     * Recalcula las estadísticas a partir de todos los odontogramas
+     * @return Mono con las estadísticas recalculadas
+     */
+    @PostMapping(value = "/api/statistics/lesions/rebuild", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<LesionStatisticsDTO> rebuildLesionStatistics() {
+        return lesionStatisticsUseCase.rebuildLesionStatistics();
+    }
+
+    /**
+     * Genera el informe de riesgo dental de todos los pacientes, ordenado por urgencia
+     * @param limit Número máximo de pacientes del informe (opcional)
+     * @return Mono con el informe
+     */
+    @GetMapping(value = "/api/statistics/risk-report", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ClinicRiskReportDTO> getRiskReport(@RequestParam(required = false) Integer limit) {
+        return clinicRiskReportUseCase.generateRiskReport(limit);
+    }
+
+    /**
+     * Obtiene el número de citas por estado y los slots ocupados en un rango de días
+     * @param from Fecha de inicio (por defecto hoy)
+     * @param to Fecha de fin, inclusive (por defecto la de inicio)
+     * @param doctorId ID del doctor (opcional)
+     * @return Mono con los recuentos totales y por doctor y día
+     */
+    @GetMapping(value = "/api/statistics/appointments", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<AppointmentStatusCountsDTO> getAppointmentStatusCounts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String doctorId) {
+        return appointmentStatisticsUseCase.countByStatus(doctorId, from, to);
+    }
+
+    /**
+     * Recalcula los recuentos de citas a partir de todas las citas
+     * @return Mono con el número de citas procesadas
+     */
+    @PostMapping(value = "/api/statistics/appointments/rebuild", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Long> rebuildAppointmentStatusCounts() {
+        return appointmentStatisticsUseCase.rebuildStatusCounts();
+    }
+}
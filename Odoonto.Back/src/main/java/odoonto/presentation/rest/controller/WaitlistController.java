@@ -0,0 +1,90 @@
+package odoonto.presentation.rest.controller;
+
+import odoonto.application.dto.request.WaitlistEntryCreateDTO;
+import odoonto.application.dto.response.AppointmentDTO;
+import odoonto.application.dto.response.WaitlistEntryDTO;
+import odoonto.application.port.in.appointment.WaitlistUseCase;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador REST para la lista de espera
+ */
+@RestController
+public class WaitlistController {
+
+    private final WaitlistUseCase waitlistUseCase;
+
+    @Autowired
+    public WaitlistController(WaitlistUseCase waitlistUseCase) {
+        this.waitlistUseCase = waitlistUseCase;
+    }
+
+    /**
+     * Apunta a un paciente en la lista de espera
+     * @param createDTO Doctor o especialidad, fechas, días y franja aceptables
+     * @return Mono con el DTO de la solicitud creada
+     */
+    @PostMapping(value = "/api/waitlist", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<WaitlistEntryDTO> addWaitlistEntry(@RequestBody WaitlistEntryCreateDTO createDTO) {
+        return waitlistUseCase.addEntry(createDTO);
+    }
+
+    /**
+     * Obtiene una solicitud de la lista de espera
+     * @param id ID de la solicitud
+     * @return Mono con el DTO de la solicitud
+     */
+    @GetMapping(value = "/api/waitlist/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<WaitlistEntryDTO> getWaitlistEntry(@PathVariable String id) {
+        return waitlistUseCase.getEntryById(id);
+    }
+
+    /**
+     * Obtiene las solicitudes de un paciente en orden de prioridad
+     * @param patientId ID del paciente
+     * @return Flux de DTOs de solicitudes
+     */
+    @GetMapping(value = "/api/waitlist/patient/{patientId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<WaitlistEntryDTO> getPatientWaitlistEntries(@PathVariable String patientId) {
+        return waitlistUseCase.getEntriesByPatient(patientId);
+    }
+
+    /**
+     * Retira una solicitud de la lista de espera
+     * @param id ID de la solicitud
+     * @return Mono con el DTO de la solicitud retirada
+     */
+    @DeleteMapping(value = "/api/waitlist/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<WaitlistEntryDTO> withdrawWaitlistEntry(@PathVariable String id) {
+        return waitlistUseCase.withdrawEntry(id);
+    }
+
+    /**
+     * Acepta el hueco ofrecido y reserva la cita
+     * @param id ID de la solicitud
+     * @return Mono con el DTO de la cita creada
+     */
+    @PostMapping(value = "/api/waitlist/{id}/accept", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<AppointmentDTO> acceptWaitlistOffer(@PathVariable String id) {
+        return waitlistUseCase.acceptOffer(id);
+    }
+
+    /**
+     * Rechaza el hueco ofrecido; la solicitud sigue en la lista en su puesto
+     * @param id ID de la solicitud
+     * @return Mono con el DTO de la solicitud
+     */
+    @PostMapping(value = "/api/waitlist/{id}/decline", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<WaitlistEntryDTO> declineWaitlistOffer(@PathVariable String id) {
+        return waitlistUseCase.declineOffer(id);
+    }
+}
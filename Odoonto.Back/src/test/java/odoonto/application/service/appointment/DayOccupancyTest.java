@@ -0,0 +1,82 @@
+package odoonto.application.service.appointment;
+
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.valueobjects.DoctorAvailability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayOccupancyTest {
+
+    // Las citas no pueden estar en el pasado
+    private static final LocalDate DAY = LocalDate.now().plusYears(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    private static final long MORNING = DoctorAvailability.maskOf(LocalTime.of(9, 0), LocalTime.of(13, 0));
+
+    private static Appointment appointment(LocalTime start, int slots) {
+        return new Appointment("patient", "doctor", DAY.atTime(start), slots);
+    }
+
+    @Test
+    void appointmentsOccupyTheirSlots() {
+        DayOccupancy occupancy = new DayOccupancy(DAY, MORNING, List.of(appointment(LocalTime.of(10, 0), 2)));
+
+        assertThat(occupancy.isWorking()).isTrue();
+        assertThat(occupancy.fits(LocalTime.of(9, 0), 2)).isTrue();
+        assertThat(occupancy.fits(LocalTime.of(9, 30), 2)).isFalse();
+        assertThat(occupancy.fits(LocalTime.of(11, 0), 4)).isTrue();
+        assertThat(occupancy.isWithinSchedule(LocalTime.of(10, 0), 2)).isTrue();
+    }
+
+    @Test
+    void rejectsRangesOutsideTheSchedule() {
+        DayOccupancy occupancy = new DayOccupancy(DAY, MORNING, Collections.emptyList());
+
+        assertThat(occupancy.isWithinSchedule(LocalTime.of(8, 30), 1)).isFalse();
+        assertThat(occupancy.isWithinSchedule(LocalTime.of(12, 30), 2)).isFalse();
+        assertThat(occupancy.isWithinSchedule(LocalTime.of(9, 15), 1)).isFalse();
+        assertThat(occupancy.fits(LocalTime.of(12, 30), 1)).isTrue();
+    }
+
+    @Test
+    void nextFitSkipsOccupiedSlotsWithoutGoingBack() {
+        DayOccupancy occupancy = new DayOccupancy(DAY, MORNING, List.of(appointment(LocalTime.of(10, 0), 2)));
+
+        assertThat(occupancy.nextFit(LocalTime.of(9, 0), 2)).isEqualTo(LocalTime.of(9, 0));
+        assertThat(occupancy.nextFit(LocalTime.of(9, 30), 2)).isEqualTo(LocalTime.of(11, 0));
+        assertThat(occupancy.nextFit(LocalTime.of(9, 10), 1)).isEqualTo(LocalTime.of(9, 30));
+        assertThat(occupancy.nextFit(LocalTime.of(9, 0), 5)).isNull();
+    }
+
+    @Test
+    void occupyAndReleaseOnlyTouchWorkingSlots() {
+        long withGap = MORNING | DoctorAvailability.maskOf(LocalTime.of(14, 0), LocalTime.of(15, 0));
+        DayOccupancy occupancy = new DayOccupancy(DAY, withGap, Collections.emptyList());
+
+        occupancy.occupy(LocalTime.of(11, 0), 2);
+        assertThat(occupancy.fits(LocalTime.of(11, 0), 1)).isFalse();
+        occupancy.release(LocalTime.of(11, 0), 2);
+        assertThat(occupancy.fits(LocalTime.of(11, 0), 2)).isTrue();
+
+        // Las franjas sin horario entre dos tramos siguen ocupadas tras liberarlas
+        occupancy.release(LocalTime.of(13, 0), 2);
+        assertThat(occupancy.fits(LocalTime.of(13, 0), 1)).isFalse();
+        assertThat(occupancy.nextFit(LocalTime.of(12, 30), 2)).isEqualTo(LocalTime.of(14, 0));
+    }
+
+    @Test
+    void aDayOffHasNoRoom() {
+        DayOccupancy occupancy = new DayOccupancy(DAY, 0L, Collections.emptyList());
+
+        assertThat(occupancy.isWorking()).isFalse();
+        assertThat(occupancy.fits(LocalTime.of(10, 0), 1)).isFalse();
+        assertThat(occupancy.nextFit(LocalTime.of(9, 0), 1)).isNull();
+    }
+}
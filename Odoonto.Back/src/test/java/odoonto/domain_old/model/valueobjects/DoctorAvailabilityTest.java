@@ -0,0 +1,80 @@
+package odoonto.domain.model.valueobjects;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DoctorAvailabilityTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2027, 3, 1);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private static Map<DayOfWeek, DoctorSchedule> mondayMornings() {
+        Map<DayOfWeek, DoctorSchedule> schedule = new EnumMap<>(DayOfWeek.class);
+        schedule.put(DayOfWeek.MONDAY, new DoctorSchedule(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(13, 0), true));
+        schedule.put(DayOfWeek.TUESDAY, new DoctorSchedule(DayOfWeek.TUESDAY));
+        return schedule;
+    }
+
+    @Test
+    void compilesTheWeeklyScheduleIntoHalfHourSlots() {
+        DoctorAvailability availability = DoctorAvailability.compile(mondayMornings(), Collections.emptyList());
+
+        assertThat(availability.slotMask(MONDAY)).isEqualTo(DoctorAvailability.maskOf(LocalTime.of(9, 0), LocalTime.of(13, 0)));
+        assertThat(Long.bitCount(availability.slotMask(MONDAY))).isEqualTo(8);
+        assertThat(availability.worksOn(MONDAY)).isTrue();
+        assertThat(availability.worksOn(MONDAY.plusWeeks(5))).isTrue();
+        assertThat(availability.worksOn(TUESDAY)).isFalse();
+        assertThat(availability.worksOn(TUESDAY.plusDays(1))).isFalse();
+    }
+
+    @Test
+    void requiresTheWholeRangeInsideTheSchedule() {
+        DoctorAvailability availability = DoctorAvailability.compile(mondayMornings(), Collections.emptyList());
+
+        assertThat(availability.isAvailable(MONDAY.atTime(9, 0), 30)).isTrue();
+        assertThat(availability.isAvailable(MONDAY.atTime(12, 0), 60)).isTrue();
+        assertThat(availability.isAvailable(MONDAY.atTime(12, 30), 60)).isFalse();
+        assertThat(availability.isAvailable(MONDAY.atTime(8, 30), 60)).isFalse();
+        assertThat(availability.isAvailable(MONDAY.atTime(10, 0), 0)).isFalse();
+        assertThat(availability.isAvailable(MONDAY.atTime(23, 30), 60)).isFalse();
+    }
+
+    @Test
+    void exceptionsOverrideTheirDateOnly() {
+        DoctorAvailability availability = DoctorAvailability.compile(mondayMornings(), List.of(
+                ScheduleException.diaLibre(MONDAY.plusWeeks(1), "Vacaciones"),
+                new ScheduleException(TUESDAY.plusWeeks(2), LocalTime.of(16, 0), LocalTime.of(17, 0), "Guardia")));
+
+        assertThat(availability.worksOn(MONDAY)).isTrue();
+        assertThat(availability.worksOn(MONDAY.plusWeeks(1))).isFalse();
+        assertThat(availability.worksOn(MONDAY.plusWeeks(2))).isTrue();
+        assertThat(availability.isAvailable(TUESDAY.plusWeeks(2).atTime(16, 0), 60)).isTrue();
+        assertThat(availability.isAvailable(TUESDAY.plusWeeks(2).atTime(16, 30), 60)).isFalse();
+        assertThat(availability.worksOn(TUESDAY.plusWeeks(3))).isFalse();
+    }
+
+    @Test
+    void masksKeepOnlyWholeSlots() {
+        long mask = DoctorAvailability.maskOf(LocalTime.of(9, 15), LocalTime.of(10, 45));
+
+        // 9:15-10:45 solo contiene completas las franjas de 9:30 y 10:00
+        assertThat(mask).isEqualTo((1L << 19) | (1L << 20));
+        assertThat(Long.bitCount(DoctorAvailability.maskOf(LocalTime.of(20, 0), LocalTime.MAX))).isEqualTo(8);
+        assertThat(DoctorAvailability.slotStart(19)).isEqualTo(LocalTime.of(9, 30));
+    }
+
+    @Test
+    void noneNeverWorks() {
+        assertThat(DoctorAvailability.none().worksOn(MONDAY)).isFalse();
+        assertThat(DoctorAvailability.none().isAvailable(MONDAY.atTime(10, 0), 30)).isFalse();
+    }
+}
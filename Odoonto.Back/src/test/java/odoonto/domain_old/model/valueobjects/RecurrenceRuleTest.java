@@ -0,0 +1,101 @@
+package odoonto.domain.model.valueobjects;
+
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.valueobjects.RecurrenceRule.Frequency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecurrenceRuleTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2027, 1, 31, 10, 0);
+
+    @Test
+    void expandsAllOccurrencesOfACountedRule() {
+        RecurrenceRule rule = new RecurrenceRule(Frequency.WEEKLY, 2, 3, null);
+
+        assertThat(rule.expandAll(START)).containsExactly(
+                START, START.plusWeeks(2), START.plusWeeks(4));
+    }
+
+    @Test
+    void monthlyUsesTheLastDayWhenTheMonthIsShorter() {
+        RecurrenceRule rule = new RecurrenceRule(Frequency.MONTHLY, 1, 3, null);
+
+        assertThat(rule.expandAll(START)).containsExactly(
+                START, LocalDateTime.of(2027, 2, 28, 10, 0), LocalDateTime.of(2027, 3, 31, 10, 0));
+    }
+
+    @Test
+    void stopsAtTheUntilDateInclusive() {
+        RecurrenceRule rule = new RecurrenceRule(Frequency.DAILY, 1, null, LocalDate.of(2027, 2, 2));
+
+        assertThat(rule.expandAll(START)).hasSize(3).last().isEqualTo(LocalDateTime.of(2027, 2, 2, 10, 0));
+    }
+
+    @Test
+    void expandsOnlyTheRequestedWindow() {
+        RecurrenceRule rule = new RecurrenceRule(Frequency.DAILY, 1, 100, null);
+
+        List<LocalDateTime> window = rule.expand(START, START.plusDays(50), START.plusDays(53));
+
+        assertThat(window).containsExactly(START.plusDays(50), START.plusDays(51), START.plusDays(52));
+    }
+
+    @Test
+    void windowAfterTheLastOccurrenceIsEmpty() {
+        RecurrenceRule rule = new RecurrenceRule(Frequency.WEEKLY, 1, 4, null);
+
+        assertThat(rule.expand(START, START.plusWeeks(10), START.plusWeeks(20))).isEmpty();
+    }
+
+    @Test
+    void rejectsCountsOverTheMaximum() {
+        assertThatThrownBy(() -> new RecurrenceRule(Frequency.DAILY, 1, RecurrenceRule.MAX_OCCURRENCES + 1, null))
+                .isInstanceOf(DomainException.class);
+    }
+
+    @Test
+    void rejectsUntilDatesThatExceedTheMaximum() {
+        RecurrenceRule atLimit = new RecurrenceRule(Frequency.DAILY, 1, null,
+                START.toLocalDate().plusDays(RecurrenceRule.MAX_OCCURRENCES - 1));
+        atLimit.requireWithinLimit(START);
+        assertThat(atLimit.expandAll(START)).hasSize(RecurrenceRule.MAX_OCCURRENCES);
+
+        RecurrenceRule overLimit = new RecurrenceRule(Frequency.DAILY, 1, null,
+                START.toLocalDate().plusDays(RecurrenceRule.MAX_OCCURRENCES));
+        assertThatThrownBy(() -> overLimit.requireWithinLimit(START)).isInstanceOf(DomainException.class);
+    }
+
+    @Test
+    void countBoundsAnUntilDateFarAway() {
+        RecurrenceRule rule = new RecurrenceRule(Frequency.DAILY, 1, 5, LocalDate.of(2030, 1, 1));
+
+        rule.requireWithinLimit(START);
+        assertThat(rule.expandAll(START)).hasSize(5);
+    }
+
+    @Test
+    void parsesAndFormatsRRules() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;UNTIL=20271231T235959Z");
+
+        assertThat(rule.getFrequency()).isEqualTo(Frequency.WEEKLY);
+        assertThat(rule.getUntil()).isEqualTo(LocalDate.of(2027, 12, 31));
+        assertThat(RecurrenceRule.parse(rule.toRRule())).isEqualTo(rule);
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=YEARLY;COUNT=2")).isInstanceOf(DomainException.class);
+    }
+
+    @Test
+    void endingOnKeepsTheEarlierDate() {
+        RecurrenceRule rule = new RecurrenceRule(Frequency.DAILY, 1, null, LocalDate.of(2027, 2, 10));
+
+        assertThat(rule.endingOn(LocalDate.of(2027, 2, 5)).getUntil()).isEqualTo(LocalDate.of(2027, 2, 5));
+        assertThat(rule.endingOn(LocalDate.of(2027, 3, 1)).getUntil()).isEqualTo(LocalDate.of(2027, 2, 10));
+    }
+}
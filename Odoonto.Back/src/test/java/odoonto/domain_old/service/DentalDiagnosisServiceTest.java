@@ -0,0 +1,103 @@
+package odoonto.domain.service;
+
+import odoonto.domain.exceptions.DomainException;
+import odoonto.domain.model.aggregates.Odontogram;
+import odoonto.domain.model.valueobjects.DiagnosisResult;
+import odoonto.domain.model.valueobjects.LesionType;
+import odoonto.domain.model.valueobjects.ToothFace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DentalDiagnosisServiceTest {
+
+    private final DentalDiagnosisService service = new DentalDiagnosisService();
+
+    private static Odontogram withCaries(String... teeth) {
+        Odontogram odontogram = new Odontogram();
+        for (String tooth : teeth) {
+            odontogram.addLesion(tooth, ToothFace.OCLUSAL, LesionType.CARIES);
+        }
+        return odontogram;
+    }
+
+    @Test
+    void permanentTeethMapToTheirQuadrant() {
+        Map<String, Integer> regions = service.summarizeLesionsByRegion(withCaries("11", "18", "21", "38", "41", "48"));
+
+        assertThat(regions).containsEntry("Superior Derecha", 2)
+                .containsEntry("Superior Izquierda", 1)
+                .containsEntry("Inferior Izquierda", 1)
+                .containsEntry("Inferior Derecha", 2);
+    }
+
+    @Test
+    void temporaryTeethShareTheQuadrantOfTheirPermanent() {
+        Map<String, Integer> regions = service.summarizeLesionsByRegion(withCaries("51", "55", "61", "75", "85"));
+
+        assertThat(regions).containsEntry("Superior Derecha", 2)
+                .containsEntry("Superior Izquierda", 1)
+                .containsEntry("Inferior Izquierda", 1)
+                .containsEntry("Inferior Derecha", 1);
+    }
+
+    @Test
+    void numbersOutsideTheTablesAreRejected() {
+        for (String tooth : new String[] {"19", "56", "86", "10", "91", "5"}) {
+            Map<String, Odontogram.ToothRecord> teeth = new HashMap<>();
+            Odontogram.ToothRecord record = new Odontogram.ToothRecord();
+            record.addLesion(ToothFace.OCLUSAL.getCodigo(), LesionType.CARIES);
+            teeth.put(tooth, record);
+            Odontogram odontogram = new Odontogram();
+            odontogram.setTeeth(teeth);
+
+            assertThatThrownBy(() -> service.summarizeLesionsByRegion(odontogram))
+                    .isInstanceOf(DomainException.class)
+                    .hasMessageContaining(tooth);
+        }
+    }
+
+    @Test
+    void temporaryPositionsFourAndFiveAreMolars() {
+        // 13 anterior, 14 premolar, 54 molar temporal; todos en el cuadrante superior derecho
+        DiagnosisResult result = service.generateDiagnosis(withCaries("13", "14", "54"));
+
+        assertThat(result.getMostAffectedAreas()).containsExactly(
+                "Cuadrante SUPERIOR_DERECHO (3 lesiones)",
+                "Zona ANTERIOR (1 lesiones)",
+                "Zona PREMOLARES (1 lesiones)",
+                "Zona MOLARES (1 lesiones)");
+    }
+
+    @Test
+    void zonesOfThePermanentDentition() {
+        DiagnosisResult result = service.generateDiagnosis(withCaries("31", "33", "34", "35", "36", "37", "38"));
+
+        // De mayor a menor recuento y, a igualdad, en el orden de las zonas
+        assertThat(result.getMostAffectedAreas()).containsExactly(
+                "Cuadrante INFERIOR_IZQUIERDO (7 lesiones)",
+                "Zona MOLARES (3 lesiones)",
+                "Zona ANTERIOR (2 lesiones)",
+                "Zona PREMOLARES (2 lesiones)");
+    }
+
+    @Test
+    void expectedTeethFollowTheRecordedDentition() {
+        assertThat(service.generateDiagnosis(withCaries("55", "65")).getTotalTeethCount()).isEqualTo(20);
+        assertThat(service.generateDiagnosis(withCaries("55", "16")).getTotalTeethCount()).isEqualTo(32);
+        assertThat(service.generateDiagnosis(new Odontogram()).getTotalTeethCount()).isEqualTo(32);
+    }
+
+    @Test
+    void priorityTeethAreSorted() {
+        Odontogram odontogram = withCaries("46", "11");
+        odontogram.addLesion("21", ToothFace.VESTIBULAR, LesionType.RESTAURACION);
+
+        assertThat(service.identifyPriorityTeeth(odontogram)).containsExactly("11", "46");
+    }
+}
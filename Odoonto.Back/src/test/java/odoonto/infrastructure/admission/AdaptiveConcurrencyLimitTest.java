@@ -0,0 +1,96 @@
+package odoonto.infrastructure.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void rejectsOverTheShareOfTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 0.5, 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limit.tryAcquire(0.5)).isTrue();
+        }
+        assertThat(limit.tryAcquire(0.5)).isFalse();
+        assertThat(limit.tryAcquire(1.0)).isTrue();
+
+        assertThat(limit.getInFlight()).isEqualTo(6);
+        assertThat(limit.getAdmitted()).isEqualTo(6L);
+        assertThat(limit.getRejected()).isEqualTo(1L);
+    }
+
+    @Test
+    void growsOnlyWhileInUse() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 100, 0.5, 100);
+
+        // Una sola petición con límite 4 no lo está usando
+        limit.tryAcquire(1.0);
+        limit.release(FAST, false);
+        assertThat(limit.getLimit()).isEqualTo(4);
+
+        for (int i = 0; i < 3; i++) {
+            limit.tryAcquire(1.0);
+        }
+        limit.release(FAST, false);
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void staysWithinBounds() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 2, 3, 0.5, 100);
+
+        limit.tryAcquire(1.0);
+        limit.tryAcquire(1.0);
+        limit.release(FAST, false);
+        assertThat(limit.getLimit()).isEqualTo(3);
+
+        limit.release(0, true);
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void decreasesOncePerRoundTrip() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 1, 100, 0.5, 100);
+        for (int i = 0; i < 4; i++) {
+            limit.tryAcquire(1.0);
+        }
+        Thread.sleep(5);
+
+        // La primera reduce; la segunda empezó antes de esa reducción y no cuenta
+        limit.release(0, true);
+        assertThat(limit.getLimit()).isEqualTo(20);
+        limit.release(TimeUnit.MILLISECONDS.toNanos(3), true);
+        assertThat(limit.getLimit()).isEqualTo(20);
+
+        // Una petición lenta que empezó antes de la reducción tampoco cuenta
+        limit.release(SLOW, false);
+        assertThat(limit.getLimit()).isEqualTo(20);
+        assertThat(limit.getDecreases()).isEqualTo(1L);
+        assertThat(limit.getSlow()).isEqualTo(1L);
+        assertThat(limit.getFailed()).isEqualTo(2L);
+
+        Thread.sleep(5);
+        limit.tryAcquire(1.0);
+        limit.release(0, true);
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void cancelFreesTheSlotWithoutAdjusting() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 100, 0.5, 100);
+        limit.tryAcquire(1.0);
+        limit.tryAcquire(1.0);
+
+        limit.cancel();
+
+        assertThat(limit.getInFlight()).isEqualTo(1);
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+}
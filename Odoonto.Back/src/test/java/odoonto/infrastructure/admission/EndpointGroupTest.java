@@ -0,0 +1,44 @@
+package odoonto.infrastructure.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EndpointGroupTest {
+
+    @Test
+    void bookingsAreRecognisedByExactRoute() {
+        assertThat(EndpointGroup.classify("POST", "/api/appointments")).isEqualTo(EndpointGroup.BOOKINGS);
+        assertThat(EndpointGroup.classify("PUT", "/api/appointments/a1/reschedule")).isEqualTo(EndpointGroup.BOOKINGS);
+        assertThat(EndpointGroup.classify("DELETE", "/api/appointments/series/s1/occurrences/2026-03-10"))
+                .isEqualTo(EndpointGroup.BOOKINGS);
+        assertThat(EndpointGroup.classify("POST", "/api/waitlist/w1/accept")).isEqualTo(EndpointGroup.BOOKINGS);
+    }
+
+    @Test
+    void bulkAppointmentWritesGoWithReports() {
+        assertThat(EndpointGroup.classify("POST", "/api/appointments/doctor/d1/day/2026-03-10/reschedule"))
+                .isEqualTo(EndpointGroup.REPORTS);
+        assertThat(EndpointGroup.classify("POST", "/api/appointments/treatment-plan/schedule"))
+                .isEqualTo(EndpointGroup.REPORTS);
+        assertThat(EndpointGroup.classify("GET", "/api/statistics/appointments")).isEqualTo(EndpointGroup.REPORTS);
+    }
+
+    @Test
+    void readsAndOtherWrites() {
+        assertThat(EndpointGroup.classify("GET", "/api/appointments/a1")).isEqualTo(EndpointGroup.READS);
+        assertThat(EndpointGroup.classify("HEAD", "/api/patients")).isEqualTo(EndpointGroup.READS);
+        assertThat(EndpointGroup.classify("POST", "/api/patients")).isEqualTo(EndpointGroup.WRITES);
+        // Una ruta que solo empieza como una reserva no es una reserva
+        assertThat(EndpointGroup.classify("POST", "/api/appointments/a1/notes")).isEqualTo(EndpointGroup.WRITES);
+    }
+
+    @Test
+    void requestsOutsideAdmissionControl() {
+        assertThat(EndpointGroup.classify("GET", "/actuator/health")).isNull();
+        assertThat(EndpointGroup.classify("GET", null)).isNull();
+        assertThat(EndpointGroup.classify("OPTIONS", "/api/appointments")).isNull();
+        assertThat(EndpointGroup.classify("GET", "/api/metrics")).isNull();
+        assertThat(EndpointGroup.classify("GET", "/api/appointments/stream")).isNull();
+    }
+}
@@ -0,0 +1,130 @@
+package odoonto.infrastructure.idempotency;
+
+import odoonto.application.exceptions.IdempotencyKeyReusedException;
+import odoonto.domain.exceptions.DomainException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private IdempotencyConfiguration configuration;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new IdempotencyConfiguration();
+        configuration.setTtlMinutes(1);
+        store = new IdempotencyStore(configuration, new ObjectMapper(), now::get);
+    }
+
+    private Mono<String> create(String key, String body) {
+        return store.execute("POST /test", key, new Object[] {body},
+                () -> Mono.fromCallable(() -> "created-" + calls.incrementAndGet()));
+    }
+
+    @Test
+    void replaysTheFirstResultForTheSameKey() {
+        StepVerifier.create(create("k1", "a")).expectNext("created-1").verifyComplete();
+        StepVerifier.create(create("k1", "a")).expectNext("created-1").verifyComplete();
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(store.getMetricsSnapshot()).containsEntry("replayed", 1L);
+    }
+
+    @Test
+    void coalescesRequestsWhileTheFirstIsInFlight() {
+        Sinks.One<String> pending = Sinks.one();
+        Mono<String> first = store.execute("POST /test", "k1", new Object[] {"a"}, () -> {
+            calls.incrementAndGet();
+            return pending.asMono();
+        });
+        Mono<String> second = store.execute("POST /test", "k1", new Object[] {"a"}, () -> {
+            calls.incrementAndGet();
+            return Mono.just("other");
+        });
+
+        StepVerifier.create(first.zipWith(second))
+                .then(() -> pending.tryEmitValue("created"))
+                .assertNext(results -> {
+                    assertThat(results.getT1()).isEqualTo("created");
+                    assertThat(results.getT2()).isEqualTo("created");
+                })
+                .verifyComplete();
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(store.getMetricsSnapshot()).containsEntry("coalesced", 1L);
+    }
+
+    @Test
+    void rejectsAKeyReusedWithADifferentRequest() {
+        StepVerifier.create(create("k1", "a")).expectNext("created-1").verifyComplete();
+
+        StepVerifier.create(create("k1", "b")).expectError(IdempotencyKeyReusedException.class).verify();
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void keysAreIndependentBetweenOperations() {
+        StepVerifier.create(create("k1", "a")).expectNext("created-1").verifyComplete();
+        StepVerifier.create(store.execute("POST /other", "k1", new Object[] {"a"},
+                () -> Mono.just("other"))).expectNext("other").verifyComplete();
+    }
+
+    @Test
+    void executesAgainOnceTheTtlExpires() {
+        StepVerifier.create(create("k1", "a")).expectNext("created-1").verifyComplete();
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1) + 1);
+
+        StepVerifier.create(create("k1", "a")).expectNext("created-2").verifyComplete();
+        StepVerifier.create(create("k1", "a")).expectNext("created-2").verifyComplete();
+    }
+
+    @Test
+    void doesNotStoreErrors() {
+        StepVerifier.create(store.execute("POST /test", "k1", new Object[] {"a"},
+                () -> Mono.<String>error(new IllegalStateException("fallo")))).verifyError(IllegalStateException.class);
+
+        StepVerifier.create(create("k1", "a")).expectNext("created-1").verifyComplete();
+        assertThat(store.getMetricsSnapshot()).containsEntry("failed", 1L);
+    }
+
+    @Test
+    void bypassesRequestsWithoutKey() {
+        StepVerifier.create(create(null, "a")).expectNext("created-1").verifyComplete();
+        StepVerifier.create(create(" ", "a")).expectNext("created-2").verifyComplete();
+        assertThat(store.getMetricsSnapshot()).containsEntry("bypassed", 2L);
+    }
+
+    @Test
+    void rejectsKeysLongerThanTheLimit() {
+        configuration.setMaxKeyLength(4);
+        StepVerifier.create(create("12345", "a")).expectError(DomainException.class).verify();
+        assertThat(calls.get()).isZero();
+    }
+
+    @Test
+    void evictsTheOldestKeysOverTheLimit() {
+        configuration.setMaxEntries(2);
+        StepVerifier.create(create("k1", "a")).expectNext("created-1").verifyComplete();
+        StepVerifier.create(create("k2", "a")).expectNext("created-2").verifyComplete();
+        StepVerifier.create(create("k3", "a")).expectNext("created-3").verifyComplete();
+
+        StepVerifier.create(create("k1", "a")).expectNext("created-4").verifyComplete();
+        assertThat(store.getMetricsSnapshot()).containsEntry("evicted", 2L);
+    }
+}
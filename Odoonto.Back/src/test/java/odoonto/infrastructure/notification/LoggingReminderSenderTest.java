@@ -0,0 +1,41 @@
+package odoonto.infrastructure.notification;
+
+import odoonto.application.port.out.AppointmentReminder;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoggingReminderSenderTest {
+
+    private final LoggingReminderSender sender = new LoggingReminderSender();
+
+    private static AppointmentReminder reminder(String key, String phone, String email) {
+        return new AppointmentReminder(key, "cita-" + key, "paciente-" + key, "Ana López",
+                phone, email, "doctor-1", LocalDateTime.of(2026, 3, 10, 9, 30));
+    }
+
+    @Test
+    void acceptsEveryReminderOfTheBatch() {
+        List<AppointmentReminder> reminders = List.of(
+                reminder("a", "600000001", null),
+                reminder("b", null, "b@example.com"),
+                reminder("c", "600000003", "c@example.com"));
+
+        StepVerifier.create(sender.send(reminders))
+                .assertNext(accepted -> assertThat(accepted).containsExactlyInAnyOrder("a", "b", "c"))
+                .verifyComplete();
+    }
+
+    @Test
+    void anEmptyBatchAcceptsNothing() {
+        StepVerifier.create(sender.send(Collections.emptyList()))
+                .assertNext(accepted -> assertThat(accepted).isEmpty())
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,80 @@
+package odoonto.infrastructure.persistence.archive;
+
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArchiveSegmentCodecTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 3);
+
+    private static Appointment appointment(String id, String patientId, LocalDateTime start, int slots,
+                                           AppointmentStatus status, String notes) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setPatientIdDirect(patientId);
+        appointment.setDoctorIdDirect("doctor-1");
+        appointment.setDateTimeDirect(start);
+        appointment.setDurationSlotsDirect(slots);
+        appointment.setStatus(status);
+        appointment.setNotes(notes);
+        return appointment;
+    }
+
+    @Test
+    void roundTripsEveryColumnInChronologicalOrder() {
+        Appointment late = appointment("a-2", "p-1", LocalDateTime.of(2025, 3, 20, 16, 30), 3,
+                AppointmentStatus.CANCELADA, null);
+        Appointment early = appointment("a-1", "p-2", LocalDateTime.of(2025, 3, 1, 8, 0), 1,
+                AppointmentStatus.COMPLETADA, "Revisión anual ñ");
+        Appointment sameDay = appointment("a-3", "p-1", LocalDateTime.of(2025, 3, 20, 9, 0), 2,
+                AppointmentStatus.COMPLETADA, "");
+
+        List<Appointment> decoded = ArchiveSegmentCodec.decode("doctor-1", MONTH,
+                ArchiveSegmentCodec.encode(MONTH, Arrays.asList(late, early, sameDay)));
+
+        assertThat(decoded).extracting(Appointment::getId).containsExactly("a-1", "a-3", "a-2");
+        assertThat(decoded).extracting(Appointment::getPatientId).containsExactly("p-2", "p-1", "p-1");
+        assertThat(decoded).extracting(Appointment::getDateTime).containsExactly(
+                early.getDateTime(), sameDay.getDateTime(), late.getDateTime());
+        assertThat(decoded).extracting(Appointment::getDurationSlots).containsExactly(1, 2, 3);
+        assertThat(decoded).extracting(Appointment::getStatus).containsExactly(
+                AppointmentStatus.COMPLETADA, AppointmentStatus.COMPLETADA, AppointmentStatus.CANCELADA);
+        assertThat(decoded).extracting(Appointment::getNotes).containsExactly("Revisión anual ñ", null, null);
+        assertThat(decoded).extracting(Appointment::getDoctorId).containsOnly("doctor-1");
+    }
+
+    @Test
+    void keepsNotesLongerThanSixtyFourKilobytes() {
+        char[] text = new char[70_000];
+        Arrays.fill(text, 'á');
+        String notes = new String(text);
+
+        List<Appointment> decoded = ArchiveSegmentCodec.decode("doctor-1", MONTH, ArchiveSegmentCodec.encode(MONTH,
+                List.of(appointment("a-1", "p-1", LocalDateTime.of(2025, 3, 3, 10, 0), 1,
+                        AppointmentStatus.COMPLETADA, notes))));
+
+        assertThat(decoded.get(0).getNotes()).isEqualTo(notes);
+    }
+
+    @Test
+    void encodesAnEmptySegment() {
+        assertThat(ArchiveSegmentCodec.decode("doctor-1", MONTH, ArchiveSegmentCodec.encode(MONTH, List.of())))
+                .isEmpty();
+    }
+
+    @Test
+    void rejectsDataThatIsNotASegment() {
+        assertThatThrownBy(() -> ArchiveSegmentCodec.decode("doctor-1", MONTH, new byte[] {1, 2, 3}))
+                .isInstanceOf(RuntimeException.class);
+    }
+}
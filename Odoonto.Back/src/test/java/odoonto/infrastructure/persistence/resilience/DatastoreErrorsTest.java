@@ -0,0 +1,53 @@
+package odoonto.infrastructure.persistence.resilience;
+
+import com.google.api.gax.rpc.StatusCode;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static odoonto.infrastructure.persistence.resilience.RepositoryGuardTest.firestoreError;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatastoreErrorsTest {
+
+    @Test
+    void findsTheStatusCodeInTheCauseChain() {
+        Throwable wrapped = new IllegalStateException(
+                new ExecutionException(firestoreError(StatusCode.Code.DEADLINE_EXCEEDED)));
+
+        assertThat(DatastoreErrors.statusCode(wrapped)).isEqualTo(StatusCode.Code.DEADLINE_EXCEEDED);
+        assertThat(DatastoreErrors.isTransient(wrapped)).isTrue();
+    }
+
+    @Test
+    void errorsWithoutStatusAreNotTransient() {
+        assertThat(DatastoreErrors.statusCode(new IllegalStateException("fallo"))).isNull();
+        assertThat(DatastoreErrors.isTransient(new IllegalStateException("fallo"))).isFalse();
+        assertThat(DatastoreErrors.isRetryable(new IllegalStateException("fallo"), true)).isFalse();
+    }
+
+    @Test
+    void idempotentCallsRetryEveryTransientError() {
+        for (StatusCode.Code code : new StatusCode.Code[] {StatusCode.Code.UNAVAILABLE, StatusCode.Code.DEADLINE_EXCEEDED,
+                StatusCode.Code.RESOURCE_EXHAUSTED, StatusCode.Code.ABORTED, StatusCode.Code.INTERNAL}) {
+            assertThat(DatastoreErrors.isRetryable(firestoreError(code), true)).isTrue();
+        }
+        assertThat(DatastoreErrors.isRetryable(firestoreError(StatusCode.Code.NOT_FOUND), true)).isFalse();
+    }
+
+    @Test
+    void nonIdempotentCallsOnlyRetryUnavailable() {
+        assertThat(DatastoreErrors.isRetryable(firestoreError(StatusCode.Code.UNAVAILABLE), false)).isTrue();
+        assertThat(DatastoreErrors.isRetryable(firestoreError(StatusCode.Code.DEADLINE_EXCEEDED), false)).isFalse();
+        assertThat(DatastoreErrors.isRetryable(firestoreError(StatusCode.Code.ABORTED), false)).isFalse();
+    }
+
+    @Test
+    void writeConflictsAreAlreadyExistsAndFailedPrecondition() {
+        assertThat(DatastoreErrors.isWriteConflict(firestoreError(StatusCode.Code.ALREADY_EXISTS))).isTrue();
+        assertThat(DatastoreErrors.isWriteConflict(firestoreError(StatusCode.Code.FAILED_PRECONDITION))).isTrue();
+        assertThat(DatastoreErrors.isWriteConflict(firestoreError(StatusCode.Code.ABORTED))).isFalse();
+        assertThat(DatastoreErrors.isWriteConflict(new IllegalStateException("fallo"))).isFalse();
+    }
+}
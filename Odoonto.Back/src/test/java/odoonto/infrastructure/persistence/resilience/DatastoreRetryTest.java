@@ -0,0 +1,119 @@
+package odoonto.infrastructure.persistence.resilience;
+
+import odoonto.application.exceptions.RepositoryUnavailableException;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static odoonto.infrastructure.persistence.resilience.RepositoryGuardTest.firestoreError;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatastoreRetryTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private ResilienceConfiguration configuration;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new ResilienceConfiguration();
+        configuration.setRetryInitialBackoffMillis(1);
+        configuration.setRetryMaxBackoffMillis(2);
+    }
+
+    private Mono<String> failing(StatusCode.Code code, int failures) {
+        return Mono.defer(() -> calls.incrementAndGet() <= failures
+                ? Mono.error(firestoreError(code))
+                : Mono.just("ok"));
+    }
+
+    @Test
+    void retriesATransientErrorOfAnIdempotentCall() {
+        DatastoreRetry retry = new DatastoreRetry(configuration);
+
+        StepVerifier.create(retry.idempotent("test", () -> failing(StatusCode.Code.DEADLINE_EXCEEDED, 2)))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(retry.getMetricsSnapshot()).containsEntry("retries", 2L);
+    }
+
+    @Test
+    void givesUpAfterMaxAttemptsAsUnavailable() {
+        DatastoreRetry retry = new DatastoreRetry(configuration);
+
+        StepVerifier.create(retry.idempotent("test", () -> failing(StatusCode.Code.UNAVAILABLE, 10)))
+                .expectError(RepositoryUnavailableException.class)
+                .verify();
+
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(retry.getMetricsSnapshot()).containsEntry("exhausted", 1L);
+    }
+
+    @Test
+    void aNonIdempotentCallOnlyRetriesUnavailable() {
+        DatastoreRetry retry = new DatastoreRetry(configuration);
+
+        StepVerifier.create(retry.nonIdempotent("test", () -> failing(StatusCode.Code.DEADLINE_EXCEEDED, 1)))
+                .expectError(RepositoryUnavailableException.class)
+                .verify();
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(retry.getMetricsSnapshot()).containsEntry("notRetryable", 1L);
+
+        calls.set(0);
+        StepVerifier.create(retry.nonIdempotent("test", () -> failing(StatusCode.Code.UNAVAILABLE, 1)))
+                .expectNext("ok")
+                .verifyComplete();
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void businessErrorsAreNotRetriedNorWrapped() {
+        DatastoreRetry retry = new DatastoreRetry(configuration);
+
+        StepVerifier.create(retry.idempotent("test", () -> failing(StatusCode.Code.ALREADY_EXISTS, 1)))
+                .expectError(ApiException.class)
+                .verify();
+
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void stopsRetryingWhenTheBudgetRunsOut() {
+        configuration.setRetryBudgetRatio(0);
+        configuration.setRetryBudgetMinPerSecond(0);
+        configuration.setRetryBudgetMaxTokens(1);
+        DatastoreRetry retry = new DatastoreRetry(configuration);
+
+        StepVerifier.create(retry.idempotent("test", () -> failing(StatusCode.Code.UNAVAILABLE, 10)))
+                .expectError(RepositoryUnavailableException.class)
+                .verify();
+
+        // Un reintento con la única ficha; el segundo ya no tiene presupuesto
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(retry.getMetricsSnapshot()).containsEntry("budgetExhausted", 1L);
+    }
+
+    @Test
+    void aQueryIsNotRetriedOnceItHasEmitted() {
+        DatastoreRetry retry = new DatastoreRetry(configuration);
+
+        StepVerifier.create(retry.idempotentMany("test", () -> {
+                    calls.incrementAndGet();
+                    return Flux.concat(Flux.just("a"), Flux.error(firestoreError(StatusCode.Code.UNAVAILABLE)));
+                }))
+                .expectNext("a")
+                .expectError(RepositoryUnavailableException.class)
+                .verify();
+
+        assertThat(calls.get()).isEqualTo(1);
+    }
+}
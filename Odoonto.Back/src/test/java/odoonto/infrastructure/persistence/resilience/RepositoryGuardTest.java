@@ -0,0 +1,238 @@
+package odoonto.infrastructure.persistence.resilience;
+
+import odoonto.application.exceptions.RepositoryUnavailableException;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.ApiExceptionFactory;
+import com.google.api.gax.rpc.StatusCode;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryGuardTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private ResilienceConfiguration configuration;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new ResilienceConfiguration();
+        configuration.setRetryEnabled(false);
+    }
+
+    private RepositoryGuard guard() {
+        return new RepositoryGuard("test", configuration, new DatastoreRetry(configuration));
+    }
+
+    static ApiException firestoreError(StatusCode.Code code) {
+        StatusCode statusCode = new StatusCode() {
+            @Override
+            public Code getCode() {
+                return code;
+            }
+
+            @Override
+            public Object getTransportCode() {
+                return code.name();
+            }
+        };
+        return ApiExceptionFactory.createException(new RuntimeException(code.name()), statusCode, false);
+    }
+
+    @Test
+    void hedgesAReadSlowerThanTheLearnedPercentile() {
+        configuration.setHedgeInitialDelayMillis(1000);
+        configuration.setHedgeMinDelayMillis(1);
+        configuration.setHedgeMaxRatio(1.0);
+        RepositoryGuard guard = guard();
+
+        // Lecturas de ~5 ms: el percentil aprendido sustituye a la espera inicial de 1 s
+        for (int i = 0; i < 32; i++) {
+            guard.read(() -> Mono.delay(Duration.ofMillis(5)).thenReturn("warm")).block();
+        }
+        assertThat((double) guard.getMetricsSnapshot().get("readLatencyPercentileMillis")).isBetween(4.0, 200.0);
+        assertThat(guard.getMetricsSnapshot()).containsEntry("hedges", 0L);
+
+        StepVerifier.create(guard.read(() -> calls.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofSeconds(5)).thenReturn("slow")
+                        : Mono.just("fast")))
+                .expectNext("fast")
+                .expectComplete()
+                .verify(Duration.ofMillis(800));
+
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(guard.getMetricsSnapshot()).containsEntry("hedges", 1L).containsEntry("hedgeWins", 1L);
+    }
+
+    @Test
+    void doesNotHedgeBeforeTheDelay() {
+        configuration.setHedgeInitialDelayMillis(500);
+        configuration.setHedgeMaxRatio(1.0);
+        RepositoryGuard guard = guard();
+
+        StepVerifier.create(guard.read(() -> {
+                    calls.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(20)).thenReturn("value");
+                }))
+                .expectNext("value")
+                .verifyComplete();
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(guard.getMetricsSnapshot()).containsEntry("hedges", 0L);
+    }
+
+    @Test
+    void hedgeMaxRatioCapsDuplicateReads() {
+        configuration.setHedgeInitialDelayMillis(1);
+        configuration.setHedgeMinDelayMillis(1);
+        configuration.setHedgeMaxRatio(0.1);
+        RepositoryGuard guard = guard();
+
+        // Todas superan la espera; sin límite se duplicarían las veinte
+        for (int i = 0; i < 20; i++) {
+            guard.read(() -> {
+                calls.incrementAndGet();
+                return Mono.delay(Duration.ofMillis(30)).thenReturn("value");
+            }).block();
+        }
+
+        assertThat(guard.getMetricsSnapshot()).containsEntry("hedgedReads", 20L).containsEntry("hedges", 2L);
+        assertThat(calls.get()).isEqualTo(22);
+    }
+
+    @Test
+    void bulkheadRejectsOnceTheQueueIsFull() throws Exception {
+        configuration.setMaxConcurrent(1);
+        configuration.setMaxQueued(1);
+        configuration.setMaxWaitMillis(5000);
+        RepositoryGuard guard = guard();
+        Sinks.Empty<Void> running = Sinks.empty();
+
+        CompletableFuture<String> first = guard.execute(() -> running.asMono().thenReturn("first")).toFuture();
+        CompletableFuture<String> queued = guard.execute(() -> Mono.just("queued")).toFuture();
+        assertThat(guard.getMetricsSnapshot()).containsEntry("inFlight", 1).containsEntry("queued", 1);
+
+        StepVerifier.create(guard.execute(() -> Mono.just("rejected")))
+                .expectError(RepositoryUnavailableException.class)
+                .verify(Duration.ofSeconds(1));
+        assertThat(guard.getMetricsSnapshot()).containsEntry("rejected", 1L);
+
+        running.tryEmitEmpty();
+        assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(1, TimeUnit.SECONDS)).isEqualTo("queued");
+        assertThat(guard.getMetricsSnapshot()).containsEntry("inFlight", 0).containsEntry("admitted", 2L);
+    }
+
+    @Test
+    void circuitOpensOverTheFailureRateAndHalfOpensLater() throws Exception {
+        configuration.setSlidingWindowSize(4);
+        configuration.setMinimumCalls(4);
+        configuration.setFailureRateThreshold(0.5);
+        configuration.setOpenMillis(100);
+        configuration.setHalfOpenCalls(2);
+        RepositoryGuard guard = guard();
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(guard.execute(() -> Mono.just("ok"))).expectNext("ok").verifyComplete();
+        }
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(guard.execute(() -> Mono.error(firestoreError(StatusCode.Code.UNAVAILABLE))))
+                    .expectError(ApiException.class)
+                    .verify();
+        }
+        assertThat(guard.getMetricsSnapshot()).containsEntry("circuitState", "OPEN");
+
+        // Abierto: se rechaza sin llegar a Firestore
+        StepVerifier.create(guard.execute(() -> {
+                    calls.incrementAndGet();
+                    return Mono.just("ok");
+                }))
+                .expectError(RepositoryUnavailableException.class)
+                .verify();
+        assertThat(calls.get()).isZero();
+
+        Thread.sleep(150);
+
+        // Semiabierto: deja pasar las llamadas de prueba y se cierra si salen bien
+        Sinks.Empty<Void> probe = Sinks.empty();
+        CompletableFuture<String> firstProbe = guard.execute(() -> probe.asMono().thenReturn("probe")).toFuture();
+        assertThat(guard.getMetricsSnapshot()).containsEntry("circuitState", "HALF_OPEN");
+        StepVerifier.create(guard.execute(() -> Mono.just("ok"))).expectNext("ok").verifyComplete();
+        StepVerifier.create(guard.execute(() -> Mono.just("ok")))
+                .expectError(RepositoryUnavailableException.class)
+                .verify();
+
+        probe.tryEmitEmpty();
+        assertThat(firstProbe.get(1, TimeUnit.SECONDS)).isEqualTo("probe");
+        assertThat(guard.getMetricsSnapshot()).containsEntry("circuitState", "CLOSED");
+    }
+
+    @Test
+    void businessErrorsDoNotOpenTheCircuit() {
+        configuration.setSlidingWindowSize(2);
+        configuration.setMinimumCalls(2);
+        RepositoryGuard guard = guard();
+
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(guard.execute(() -> Mono.error(firestoreError(StatusCode.Code.NOT_FOUND))))
+                    .expectError(ApiException.class)
+                    .verify();
+        }
+        assertThat(guard.getMetricsSnapshot()).containsEntry("circuitState", "CLOSED");
+    }
+
+    @Test
+    void aRetriedWriteThatAlreadyCommittedIsNotAConflict() {
+        configuration.setRetryEnabled(true);
+        configuration.setRetryInitialBackoffMillis(1);
+        RepositoryGuard guard = guard();
+
+        // La primera respuesta se pierde tras confirmar; el reintento choca con su propio create
+        StepVerifier.create(guard.execute(() -> Mono.<String>error(firestoreError(calls.incrementAndGet() == 1
+                        ? StatusCode.Code.UNAVAILABLE
+                        : StatusCode.Code.ALREADY_EXISTS)), () -> Mono.just(true)))
+                .verifyComplete();
+
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(guard.getMetricsSnapshot()).containsEntry("recoveredWrites", 1L);
+    }
+
+    @Test
+    void aConflictOnTheFirstAttemptIsReported() {
+        configuration.setRetryEnabled(true);
+        RepositoryGuard guard = guard();
+        AtomicInteger checks = new AtomicInteger();
+
+        StepVerifier.create(guard.execute(() -> Mono.<String>error(firestoreError(StatusCode.Code.ALREADY_EXISTS)),
+                        () -> Mono.fromCallable(() -> checks.incrementAndGet() > 0)))
+                .expectError(ApiException.class)
+                .verify();
+
+        assertThat(checks.get()).isZero();
+    }
+
+    @Test
+    void aRetriedWriteFromAnotherClientIsStillAConflict() {
+        configuration.setRetryEnabled(true);
+        configuration.setRetryInitialBackoffMillis(1);
+        RepositoryGuard guard = guard();
+
+        StepVerifier.create(guard.execute(() -> Mono.<String>error(firestoreError(calls.incrementAndGet() == 1
+                        ? StatusCode.Code.UNAVAILABLE
+                        : StatusCode.Code.ALREADY_EXISTS)), () -> Mono.just(false)))
+                .expectError(ApiException.class)
+                .verify();
+
+        assertThat(guard.getMetricsSnapshot()).containsEntry("recoveredWrites", 0L);
+    }
+}
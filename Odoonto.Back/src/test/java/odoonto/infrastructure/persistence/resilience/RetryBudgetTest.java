@@ -0,0 +1,56 @@
+package odoonto.infrastructure.persistence.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    @Test
+    void startsFullAndRunsOutAfterMaxTokensRetries() {
+        RetryBudget budget = new RetryBudget(0.1, 0, 3);
+
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void eachCallDepositsTheConfiguredRatio() {
+        RetryBudget budget = new RetryBudget(0.1, 0, 1);
+        assertThat(budget.tryWithdraw()).isTrue();
+
+        for (int i = 0; i < 9; i++) {
+            budget.deposit();
+        }
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        budget.deposit();
+        budget.deposit();
+        assertThat(budget.tryWithdraw()).isTrue();
+    }
+
+    @Test
+    void theBalanceIsCappedAtMaxTokens() {
+        RetryBudget budget = new RetryBudget(1, 0, 2);
+
+        for (int i = 0; i < 10; i++) {
+            budget.deposit();
+        }
+
+        assertThat(budget.getBalance()).isEqualTo(2.0);
+    }
+
+    @Test
+    void refillsTheMinimumRateOverTime() throws Exception {
+        RetryBudget budget = new RetryBudget(0, 100, 1);
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        // 100 por segundo: una ficha cada 10 ms
+        Thread.sleep(30);
+
+        assertThat(budget.tryWithdraw()).isTrue();
+    }
+}
@@ -0,0 +1,117 @@
+package odoonto.infrastructure.persistence.statistics;
+
+import odoonto.application.exceptions.RepositoryUnavailableException;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RebuildGateTest {
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    @Test
+    void writesRunConcurrentlyWithoutARebuild() throws Exception {
+        RebuildGate gate = new RebuildGate("test", 1000);
+        Sinks.Empty<Void> first = Sinks.empty();
+
+        CompletableFuture<String> running = gate.write(() -> first.asMono().thenReturn("first")).toFuture();
+        StepVerifier.create(gate.write(() -> Mono.just("second"))).expectNext("second").verifyComplete();
+
+        first.tryEmitEmpty();
+        assertThat(running.get(1, TimeUnit.SECONDS)).isEqualTo("first");
+    }
+
+    @Test
+    void theRebuildWaitsForWritesInFlight() throws Exception {
+        RebuildGate gate = new RebuildGate("test", 1000);
+        Sinks.Empty<Void> write = Sinks.empty();
+
+        CompletableFuture<String> running = gate.write(() -> write.asMono().then(Mono.fromCallable(() -> {
+            events.add("write");
+            return "write";
+        }))).toFuture();
+        CompletableFuture<String> rebuild = gate.rebuild(() -> Mono.fromCallable(() -> {
+            events.add("rebuild");
+            return "rebuild";
+        })).toFuture();
+        assertThat(gate.isRebuilding()).isTrue();
+        assertThat(events).isEmpty();
+
+        write.tryEmitEmpty();
+        assertThat(running.get(1, TimeUnit.SECONDS)).isEqualTo("write");
+        assertThat(rebuild.get(1, TimeUnit.SECONDS)).isEqualTo("rebuild");
+        assertThat(events).containsExactly("write", "rebuild");
+        assertThat(gate.isRebuilding()).isFalse();
+    }
+
+    @Test
+    void writesWaitForTheRebuildToFinish() throws Exception {
+        RebuildGate gate = new RebuildGate("test", 1000);
+        Sinks.Empty<Void> recount = Sinks.empty();
+
+        CompletableFuture<String> rebuild = gate.rebuild(() -> recount.asMono().then(Mono.fromCallable(() -> {
+            events.add("rebuild");
+            return "rebuild";
+        }))).toFuture();
+        CompletableFuture<String> held = gate.write(() -> Mono.fromCallable(() -> {
+            events.add("write");
+            return "write";
+        })).toFuture();
+        assertThat(gate.getWaitingWriters()).isEqualTo(1);
+
+        recount.tryEmitEmpty();
+        assertThat(rebuild.get(1, TimeUnit.SECONDS)).isEqualTo("rebuild");
+        assertThat(held.get(1, TimeUnit.SECONDS)).isEqualTo("write");
+        assertThat(events).containsExactly("rebuild", "write");
+    }
+
+    @Test
+    void aWriteHeldTooLongIsRejectedAsUnavailable() throws Exception {
+        RebuildGate gate = new RebuildGate("test", 50);
+        Sinks.Empty<Void> recount = Sinks.empty();
+        CompletableFuture<String> rebuild = gate.rebuild(() -> recount.asMono().thenReturn("rebuild")).toFuture();
+
+        StepVerifier.create(gate.write(() -> Mono.just("write")))
+                .expectError(RepositoryUnavailableException.class)
+                .verify(Duration.ofSeconds(1));
+        assertThat(gate.getWaitingWriters()).isZero();
+        assertThat(gate.getWriteTimeouts()).isEqualTo(1);
+
+        // La reconstrucción sigue y, al terminar, las escrituras vuelven a pasar
+        recount.tryEmitEmpty();
+        assertThat(rebuild.get(1, TimeUnit.SECONDS)).isEqualTo("rebuild");
+        StepVerifier.create(gate.write(() -> Mono.just("write"))).expectNext("write").verifyComplete();
+    }
+
+    @Test
+    void rejectsASecondRebuild() {
+        RebuildGate gate = new RebuildGate("test", 1000);
+        gate.rebuild(() -> Mono.never()).subscribe();
+
+        StepVerifier.create(gate.rebuild(() -> Mono.just("second")))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    void aFailedRebuildReleasesTheGate() {
+        RebuildGate gate = new RebuildGate("test", 1000);
+
+        StepVerifier.create(gate.rebuild(() -> Mono.error(new IllegalStateException("fallo"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertThat(gate.isRebuilding()).isFalse();
+        StepVerifier.create(gate.write(() -> Mono.just("write"))).expectNext("write").verifyComplete();
+    }
+}
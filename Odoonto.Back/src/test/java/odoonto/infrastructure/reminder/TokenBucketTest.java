@@ -0,0 +1,56 @@
+package odoonto.infrastructure.reminder;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void aBurstWithinCapacityDoesNotWait() {
+        TokenBucket bucket = new TokenBucket(10, 100);
+
+        StepVerifier.create(bucket.acquire(100))
+                .expectComplete()
+                .verify(Duration.ofMillis(50));
+
+        assertThat(bucket.available()).isLessThan(1.0);
+    }
+
+    @Test
+    void overTheCapacityWaitsForTheDeficit() {
+        TokenBucket bucket = new TokenBucket(100, 10);
+        bucket.acquire(10).block();
+
+        // Diez fichas de deuda a 100 por segundo: unos 100 ms
+        long start = System.nanoTime();
+        bucket.acquire(10).block(Duration.ofSeconds(1));
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(waitedMillis).isBetween(70L, 600L);
+    }
+
+    @Test
+    void concurrentBatchesShareTheDebt() {
+        TokenBucket bucket = new TokenBucket(1, 5);
+
+        bucket.acquire(5).block();
+        bucket.acquire(3).subscribe().dispose();
+
+        // La reserva se hace al suscribirse aunque la espera se cancele
+        assertThat(bucket.available()).isLessThan(-2.0);
+    }
+
+    @Test
+    void refillsUpToTheCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(1000, 5);
+        bucket.acquire(5).block();
+
+        Thread.sleep(50);
+
+        assertThat(bucket.available()).isBetween(4.99, 5.0);
+    }
+}
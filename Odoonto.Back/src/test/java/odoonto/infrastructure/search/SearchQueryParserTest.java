@@ -0,0 +1,63 @@
+package odoonto.infrastructure.search;
+
+import odoonto.domain.exceptions.DomainException;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchQueryParserTest {
+
+    @Test
+    void parsesWordsAlternativesPhrasesAndExclusions() {
+        SearchQueryParser.ParsedQuery parsed =
+                SearchQueryParser.parse("bruxismo férula OR placa -niño \"dolor mandibular\"");
+
+        assertThat(parsed.requiredGroups).hasSize(3);
+        assertThat(parsed.requiredGroups.get(0)).extracting(clause -> clause.terms)
+                .containsExactly(List.of("bruxism"));
+        assertThat(parsed.requiredGroups.get(1)).extracting(clause -> clause.terms)
+                .containsExactly(List.of("ferul"), List.of("plac"));
+        assertThat(parsed.requiredGroups.get(2)).extracting(clause -> clause.terms)
+                .containsExactly(List.of("dolor", "mandibular"));
+        assertThat(parsed.excluded).extracting(clause -> clause.terms).containsExactly(List.of("nino"));
+    }
+
+    @Test
+    void phrasesKeepTheGapsOfStopwords() {
+        SearchQueryParser.Clause phrase = SearchQueryParser.parse("\"dolor en la muela\"").requiredGroups.get(0).get(0);
+
+        assertThat(phrase.isPhrase()).isTrue();
+        assertThat(phrase.terms).containsExactly("dolor", "muel");
+        assertThat(phrase.offsets).containsExactly(0, 3);
+    }
+
+    @Test
+    void notAndNegatedPhrasesAreExcluded() {
+        SearchQueryParser.ParsedQuery parsed = SearchQueryParser.parse("caries NOT corona -\"endodoncia previa\"");
+
+        assertThat(parsed.requiredGroups).hasSize(1);
+        assertThat(parsed.excluded).extracting(clause -> clause.terms)
+                .containsExactly(List.of("coron"), List.of("endodonci", "previ"));
+        assertThat(parsed.positiveTerms()).containsExactly("cari");
+        assertThat(parsed.terms()).containsExactly("cari", "coron", "endodonci", "previ");
+    }
+
+    @Test
+    void leadingOrAndExplicitAndAreIgnored() {
+        SearchQueryParser.ParsedQuery parsed = SearchQueryParser.parse("OR caries AND corona");
+
+        assertThat(parsed.requiredGroups).extracting(group -> group.size()).containsExactly(1, 1);
+        assertThat(parsed.positiveTerms()).containsExactly("cari", "coron");
+    }
+
+    @Test
+    void rejectsQueriesWithoutPositiveTerms() {
+        assertThatThrownBy(() -> SearchQueryParser.parse("-caries NOT corona")).isInstanceOf(DomainException.class);
+        assertThatThrownBy(() -> SearchQueryParser.parse("de la")).isInstanceOf(DomainException.class);
+        assertThatThrownBy(() -> SearchQueryParser.parse(null)).isInstanceOf(DomainException.class);
+    }
+}
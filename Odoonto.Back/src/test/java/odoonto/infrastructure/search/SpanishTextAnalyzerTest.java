@@ -0,0 +1,57 @@
+package odoonto.infrastructure.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpanishTextAnalyzerTest {
+
+    private static String term(String word) {
+        List<SpanishTextAnalyzer.Token> tokens = SpanishTextAnalyzer.analyze(word);
+        assertThat(tokens).hasSize(1);
+        return tokens.get(0).term;
+    }
+
+    @Test
+    void foldsCaseAndDiacritics() {
+        assertThat(SpanishTextAnalyzer.fold("Inflamación PÚRPURA pingüino Año")).isEqualTo("inflamacion purpura pinguino ano");
+    }
+
+    @Test
+    void pluralsAndGenderShareTheirStem() {
+        assertThat(term("dolores")).isEqualTo(term("dolor"));
+        assertThat(term("inflamaciones")).isEqualTo(term("inflamación"));
+        assertThat(term("raíces")).isEqualTo(term("raíz"));
+        assertThat(term("inflamada")).isEqualTo(term("inflamado"));
+        assertThat(term("Caries")).isEqualTo(term("caries"));
+    }
+
+    @Test
+    void adverbsLoseTheirSuffix() {
+        assertThat(term("suavemente")).isEqualTo(term("suave"));
+    }
+
+    @Test
+    void shortWordsAndNumbersAreNotStemmed() {
+        assertThat(term("raíz")).isEqualTo("raiz");
+        assertThat(term("pieza36")).isEqualTo("pieza36");
+        assertThat(term("36")).isEqualTo("36");
+    }
+
+    @Test
+    void stopwordsAreDroppedButKeepTheirPosition() {
+        List<SpanishTextAnalyzer.Token> tokens = SpanishTextAnalyzer.analyze("Dolor en la muela, sin fiebre");
+
+        assertThat(tokens).extracting(token -> token.term).containsExactly("dolor", "muel", "fiebr");
+        assertThat(tokens).extracting(token -> token.position).containsExactly(0, 3, 5);
+    }
+
+    @Test
+    void emptyTextHasNoTokens() {
+        assertThat(SpanishTextAnalyzer.analyze(null)).isEmpty();
+        assertThat(SpanishTextAnalyzer.analyze("")).isEmpty();
+        assertThat(SpanishTextAnalyzer.analyze("de la, y... con")).isEmpty();
+    }
+}
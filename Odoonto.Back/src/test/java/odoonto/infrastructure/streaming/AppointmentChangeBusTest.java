@@ -0,0 +1,138 @@
+package odoonto.infrastructure.streaming;
+
+import odoonto.application.port.out.AppointmentChangeType;
+import odoonto.domain.model.aggregates.Appointment;
+import odoonto.domain.model.valueobjects.AppointmentStatus;
+import odoonto.infrastructure.streaming.StreamingConfiguration.OverflowPolicy;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentChangeBusTest {
+
+    private static AppointmentChangeBus bus(OverflowPolicy policy, int bufferSize) {
+        StreamingConfiguration configuration = new StreamingConfiguration();
+        configuration.setOverflowPolicy(policy);
+        configuration.setSubscriberBufferSize(bufferSize);
+        return new AppointmentChangeBus(configuration);
+    }
+
+    private static Appointment appointment(String id, AppointmentStatus status, String notes) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setStatus(status);
+        appointment.setNotes(notes);
+        return appointment;
+    }
+
+    @Test
+    void pendingCreationKeepsItsTypeWithTheNewestData() {
+        AppointmentChangeBus bus = bus(OverflowPolicy.COALESCE, 16);
+
+        StepVerifier.create(bus.subscribe(null), 0)
+                .then(() -> {
+                    bus.publishSaved(appointment("a-1", AppointmentStatus.PENDIENTE, "v1"), true, null);
+                    bus.publishSaved(appointment("a-1", AppointmentStatus.PENDIENTE, "v2"), false, AppointmentStatus.PENDIENTE);
+                    bus.publishSaved(appointment("a-1", AppointmentStatus.CONFIRMADA, "v3"), false, AppointmentStatus.PENDIENTE);
+                })
+                .thenRequest(1)
+                .assertNext(change -> {
+                    assertThat(change.getType()).isEqualTo(AppointmentChangeType.CREATED);
+                    assertThat(change.getAppointment().getNotes()).isEqualTo("v3");
+                })
+                .thenCancel()
+                .verify();
+
+        assertThat(bus.getCoalescedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void cancellationIsNotOverwrittenByALaterUpdate() {
+        AppointmentChangeBus bus = bus(OverflowPolicy.COALESCE, 16);
+
+        StepVerifier.create(bus.subscribe(null), 0)
+                .then(() -> {
+                    bus.publishSaved(appointment("a-1", AppointmentStatus.CANCELADA, "v1"), false, AppointmentStatus.PENDIENTE);
+                    bus.publishSaved(appointment("a-1", AppointmentStatus.CANCELADA, "v2"), false, AppointmentStatus.CANCELADA);
+                })
+                .thenRequest(1)
+                .assertNext(change -> {
+                    assertThat(change.getType()).isEqualTo(AppointmentChangeType.CANCELLED);
+                    assertThat(change.getAppointment().getNotes()).isEqualTo("v2");
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void deletionWinsOverEveryOtherChange() {
+        AppointmentChangeBus bus = bus(OverflowPolicy.COALESCE, 16);
+
+        StepVerifier.create(bus.subscribe(null), 0)
+                .then(() -> {
+                    bus.publishSaved(appointment("a-1", AppointmentStatus.PENDIENTE, null), true, null);
+                    bus.publishDeleted("a-1");
+                    bus.publishSaved(appointment("a-1", AppointmentStatus.PENDIENTE, null), false, AppointmentStatus.PENDIENTE);
+                })
+                .thenRequest(1)
+                .assertNext(change -> {
+                    assertThat(change.getType()).isEqualTo(AppointmentChangeType.DELETED);
+                    assertThat(change.getAppointment()).isNull();
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void coalescingKeepsThePositionOfThePendingChange() {
+        AppointmentChangeBus bus = bus(OverflowPolicy.COALESCE, 16);
+
+        StepVerifier.create(bus.subscribe(null), 0)
+                .then(() -> {
+                    bus.publishSaved(appointment("a-1", AppointmentStatus.PENDIENTE, null), false, AppointmentStatus.PENDIENTE);
+                    bus.publishSaved(appointment("a-2", AppointmentStatus.PENDIENTE, null), false, AppointmentStatus.PENDIENTE);
+                    bus.publishSaved(appointment("a-1", AppointmentStatus.CONFIRMADA, null), false, AppointmentStatus.PENDIENTE);
+                })
+                .thenRequest(2)
+                .assertNext(change -> {
+                    assertThat(change.getAppointmentId()).isEqualTo("a-1");
+                    assertThat(change.getType()).isEqualTo(AppointmentChangeType.CONFIRMED);
+                })
+                .assertNext(change -> assertThat(change.getAppointmentId()).isEqualTo("a-2"))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void dropLatestDiscardsChangesOnceTheBufferIsFull() {
+        AppointmentChangeBus bus = bus(OverflowPolicy.DROP_LATEST, 1);
+
+        StepVerifier.create(bus.subscribe(null), 0)
+                .then(() -> {
+                    bus.publishDeleted("a-1");
+                    bus.publishDeleted("a-2");
+                })
+                .thenRequest(2)
+                .assertNext(change -> assertThat(change.getAppointmentId()).isEqualTo("a-1"))
+                .thenCancel()
+                .verify();
+
+        assertThat(bus.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void filterOnlyDeliversMatchingChanges() {
+        AppointmentChangeBus bus = bus(OverflowPolicy.COALESCE, 16);
+
+        StepVerifier.create(bus.subscribe(change -> "a-2".equals(change.getAppointmentId())))
+                .then(() -> {
+                    bus.publishDeleted("a-1");
+                    bus.publishDeleted("a-2");
+                })
+                .assertNext(change -> assertThat(change.getAppointmentId()).isEqualTo("a-2"))
+                .thenCancel()
+                .verify();
+    }
+}
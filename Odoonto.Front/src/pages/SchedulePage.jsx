@@ -1,5 +1,5 @@
 import React, { useEffect, useState, useLayoutEffect } from 'react';
-import { getAppointments, getDoctors, createAppointment, updateAppointment, deleteAppointment } from '../services/api';
+import { getCalendar, flattenCalendar, subscribeToAppointmentChanges, getDoctors, createAppointment, updateAppointment, deleteAppointment } from '../services/api';
 import { useLocation, useNavigate } from 'react-router-dom';
 import { useSearchParams } from 'react-router-dom';
 import Card from '../components/common/Card';
@@ -44,18 +44,7 @@ function SchedulePage() {
     const fetchData = async () => {
       setLoading(true);
       try {
-        const [appointmentsData, doctorsData] = await Promise.all([
-          getAppointments(),
-          getDoctors()
-        ]);
-        
-        setAppointments(appointmentsData.map(appt => ({
-          ...appt,
-          patientName: appt.patientName || `Paciente ${Math.floor(Math.random() * 5) + 1}`,
-          status: appt.status || ['PENDIENTE', 'CONFIRMADA', 'COMPLETADA', 'EN_CURSO'][Math.floor(Math.random() * 4)],
-          treatment: appt.treatment || ['General Checkup', 'Scaling', 'Extraction', 'Bleaching'][Math.floor(Math.random() * 4)],
-          durationSlots: appt.durationSlots || 1
-        })));
+        const doctorsData = await getDoctors();
         
         setDoctors(doctorsData);
 
@@ -79,6 +68,50 @@ function SchedulePage() {
     fetchData();
   }, []);
 
+  // Cargar solo las citas de la ventana visible (el backend las agrupa por doctor y franja)
+  useEffect(() => {
+    const fetchCalendar = async () => {
+      const isoDate = [
+        date.getFullYear(),
+        String(date.getMonth() + 1).padStart(2, '0'),
+        String(date.getDate()).padStart(2, '0')
+      ].join('-');
+      
+      try {
+        const calendar = await getCalendar(viewType, isoDate);
+        
+        setAppointments(flattenCalendar(calendar).map(appt => ({
+          ...appt,
+          patientName: appt.patientName || `Paciente ${Math.floor(Math.random() * 5) + 1}`,
+          status: appt.status || ['PENDIENTE', 'CONFIRMADA', 'COMPLETADA', 'EN_CURSO'][Math.floor(Math.random() * 4)],
+          treatment: appt.treatment || ['General Checkup', 'Scaling', 'Extraction', 'Bleaching'][Math.floor(Math.random() * 4)],
+          durationSlots: appt.durationSlots || 1
+        })));
+      } catch (err) {
+        console.error("Error fetching calendar:", err);
+        setError("Error al cargar los datos. Por favor, intenta de nuevo más tarde.");
+      }
+    };
+
+    fetchCalendar();
+  }, [date, viewType]);
+
+  // Aplicar en vivo los cambios de citas hechos desde otros puestos
+  useEffect(() => {
+    const unsubscribe = subscribeToAppointmentChanges({}, (change) => {
+      setAppointments(prev => {
+        const others = prev.filter(appt => appt.id !== change.appointmentId);
+        if (change.changeType === 'DELETED' || !change.appointment) {
+          return others;
+        }
+        const previous = prev.find(appt => appt.id === change.appointmentId);
+        return [...others, { ...previous, ...change.appointment, durationSlots: change.appointment.durationSlots || 1 }];
+      });
+    });
+    
+    return unsubscribe;
+  }, []);
+
   // Navegación de fechas
   const handlePrevDay = () => {
     const newDate = new Date(date);
@@ -94,6 +94,9 @@ export const deleteAppointment = appointmentService.remove;
 // Funciones específicas de citas que usan los endpoints correctos del backend
 export const getAppointmentsByDoctor = appointmentService.getByDoctor;
 export const getAppointmentsByPatient = appointmentService.getByPatient;
+export const getCalendar = appointmentService.getCalendar;
+export const flattenCalendar = appointmentService.flattenCalendar;
+export const subscribeToAppointmentChanges = appointmentService.subscribeToChanges;
 
 // Servicios para Odontograma (usando servicios modulares)
 export const getOdontogramByPatientId = odontogramService.getOdontogram;
@@ -96,6 +96,56 @@ export const getByDoctorAndDateRange = async (doctorId, fromDate, toDate) => {
   }
 };
 
+// Obtener la vista de calendario (día, semana o mes) ya agrupada por doctor y franja
+export const getCalendar = async (view, date, doctorId = null) => {
+  try {
+    const params = { view, date };
+    if (doctorId) {
+      params.doctorId = doctorId;
+    }
+    const response = await axios.get('/api/calendar', { params });
+    return response.data;
+  } catch (error) {
+    console.error(`Error al obtener el calendario (${view}, ${date}):`, error);
+    throw error;
+  }
+};
+
+// Aplanar la vista de calendario en la lista de citas de la ventana
+export const flattenCalendar = (calendar) => {
+  if (!calendar || !Array.isArray(calendar.doctors)) {
+    return [];
+  }
+  return calendar.doctors.flatMap(doctor =>
+    (doctor.days || []).flatMap(day => day.appointments || [])
+  );
+};
+
+// Suscribirse a los cambios de citas en tiempo real (Server-Sent Events)
+// Devuelve una función para cerrar la conexión
+export const subscribeToChanges = ({ doctorId, from, to } = {}, onChange) => {
+  const params = new URLSearchParams();
+  if (doctorId) params.append('doctorId', doctorId);
+  if (from) params.append('from', from);
+  if (to) params.append('to', to);
+  
+  const query = params.toString();
+  const source = new EventSource(`${API_URL}/stream${query ? `?${query}` : ''}`);
+  const handler = (event) => {
+    try {
+      onChange(JSON.parse(event.data));
+    } catch (error) {
+      console.error('Error al procesar cambio de cita:', error);
+    }
+  };
+  
+  ['CREATED', 'UPDATED', 'CONFIRMED', 'CANCELLED', 'DELETED'].forEach(type =>
+    source.addEventListener(type, handler)
+  );
+  
+  return () => source.close();
+};
+
 // Obtener citas por paciente usando el endpoint específico del backend
 export const getByPatient = async (patientId) => {
   try {